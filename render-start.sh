@@ -19,6 +19,22 @@ export SERVER_PORT="${PORT:-10000}"
 echo "🔧 Java Options: $JAVA_OPTS"
 echo "⚙️  Server Port: $SERVER_PORT"
 
+# AOT/CDS image (docker build --build-arg MAVEN_PROFILE=aot-cds): use the AOT-processed context
+# and the class data archive from the training run. Global lazy init is turned off so the
+# request path is built during startup; rarely used modules stay lazy (startup.lazy-init.*).
+CDS_JAR=$(ls /app/cds/*.jar 2>/dev/null | head -1 || true)
+if [ -n "$CDS_JAR" ] && [ -f /app/cds/application.jsa ]; then
+    echo "⚡ Using AOT context and CDS archive: $CDS_JAR"
+    exec java $JAVA_OPTS \
+        -XX:SharedArchiveFile=/app/cds/application.jsa \
+        -Dspring.aot.enabled=true \
+        -Dspring.main.lazy-initialization=false \
+        -Dserver.port="$SERVER_PORT" \
+        -Dserver.address=0.0.0.0 \
+        -Dspring.profiles.active="${SPRING_PROFILES_ACTIVE:-render}" \
+        -jar "$CDS_JAR"
+fi
+
 # Start the application with explicit port binding
 exec java $JAVA_OPTS \
     -Dserver.port="$SERVER_PORT" \
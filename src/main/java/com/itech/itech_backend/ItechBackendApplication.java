@@ -39,7 +39,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
     "com.itech.itech_backend.modules.chat",
     "com.itech.itech_backend.modules.rfq",
     "com.itech.itech_backend.modules.security",
-    "com.itech.itech_backend.modules.notification"
+    "com.itech.itech_backend.modules.notification",
+    "com.itech.marketplace.entity"
 })
 public class ItechBackendApplication {
 
@@ -0,0 +1,53 @@
+package com.itech.itech_backend.config;
+
+import com.itech.itech_backend.modules.shared.httpcache.CacheVersionStore;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheInterceptor;
+import com.itech.itech_backend.modules.shared.httpcache.RenderedResponseCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * HTTP caching of public catalogue responses: ETag/Last-Modified validators from
+ * {@link CacheVersionStore}, 304s before the handler runs, per-route Cache-Control from
+ * {@code @HttpCacheable}, and with {@code http.cache.body.enabled} an in-process cache of the
+ * rendered bytes.
+ *
+ * With {@code http.cache.enabled=false} none of this exists and responses carry no validators.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "http.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+    private final CacheVersionStore versionStore;
+    private final ObjectProvider<RenderedResponseCache> responseCache;
+
+    public HttpCacheConfig(CacheVersionStore versionStore, ObjectProvider<RenderedResponseCache> responseCache) {
+        this.versionStore = versionStore;
+        this.responseCache = responseCache;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.cache.body.enabled", havingValue = "true", matchIfMissing = true)
+    public RenderedResponseCache renderedResponseCache(@Value("${http.cache.body.max-mb:64}") long maxMb,
+                                                       @Value("${http.cache.body.max-entry-kb:1024}") int maxEntryKb) {
+        log.info("Rendered response cache enabled ({} MB, entries up to {} KB)", maxMb, maxEntryKb);
+        return new RenderedResponseCache(maxMb * 1024 * 1024, maxEntryKb * 1024);
+    }
+
+    @Bean
+    public HttpCacheInterceptor httpCacheInterceptor() {
+        return new HttpCacheInterceptor(versionStore, responseCache.getIfAvailable());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(httpCacheInterceptor());
+    }
+}
@@ -0,0 +1,62 @@
+package com.itech.itech_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "openai.gateway")
+@Data
+public class LlmGatewayProperties {
+
+    /**
+     * Chat completion model requested from the provider
+     */
+    private String model = "gpt-3.5-turbo";
+
+    private double temperature = 0.7;
+
+    private int maxTokens = 500;
+
+    /**
+     * Pooled HTTP client settings
+     */
+    private int maxConnections = 20;
+    private int connectTimeoutMs = 5000;
+    private int readTimeoutMs = 30000;
+
+    /**
+     * Retries for transient failures (I/O errors, 429 and 5xx responses)
+     */
+    private int maxRetries = 1;
+    private long retryBackoffMs = 250;
+
+    /**
+     * Bulkhead: concurrent completions allowed and how long a caller waits for a slot
+     */
+    private int maxConcurrentCalls = 8;
+    private long bulkheadWaitMs = 500;
+
+    /**
+     * Circuit breaker: consecutive failures before opening and how long it stays open
+     */
+    private int failureThreshold = 5;
+    private long openStateMs = 30000;
+
+    /**
+     * Response cache keyed by the normalised prompt
+     */
+    private boolean cacheEnabled = true;
+    private int cacheMaxEntries = 2000;
+    private long cacheTtlMinutes = 60;
+
+    /**
+     * Upper bound for followers waiting on an identical in-flight prompt
+     */
+    private long coalesceWaitMs = 30000;
+
+    /**
+     * SSE emitter timeout for streamed chatbot answers
+     */
+    private long streamTimeoutMs = 60000;
+}
@@ -5,9 +5,13 @@ package com.itech.itech_backend.config;
 // import org.springframework.cache.CacheManager;
 // import org.springframework.cache.annotation.EnableCaching;
 // import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -32,6 +36,7 @@ public class PerformanceConfig {
 
     @Bean(name = "asyncExecutor")
     @Profile({"!minimal"})
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor asyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10);
@@ -44,6 +49,7 @@ public class PerformanceConfig {
     
     @Bean(name = "asyncExecutor")
     @Profile({"minimal"})
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor minimalAsyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(1);
@@ -56,6 +62,7 @@ public class PerformanceConfig {
 
     @Bean(name = "backgroundTaskExecutor")
     @Profile({"!minimal"})
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor backgroundTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
@@ -68,6 +75,7 @@ public class PerformanceConfig {
     
     @Bean(name = "backgroundTaskExecutor")
     @Profile({"minimal"})
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor minimalBackgroundTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(1);
@@ -78,6 +86,31 @@ public class PerformanceConfig {
         return executor;
     }
 
+    /**
+     * Virtual-thread variants, active with {@code spring.threads.virtual.enabled=true}. Tasks get a
+     * thread each instead of queueing behind a small pool; the concurrency limit rejects like a full
+     * queue would, so submitters never block (some submit while holding a monitor).
+     */
+    @Bean(name = "asyncExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualAsyncExecutor(@Value("${app.threads.virtual.async-concurrency-limit:500}") int concurrencyLimit) {
+        return virtualExecutor("AsyncThread-", concurrencyLimit);
+    }
+
+    @Bean(name = "backgroundTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualBackgroundTaskExecutor(@Value("${app.threads.virtual.background-concurrency-limit:100}") int concurrencyLimit) {
+        return virtualExecutor("BackgroundTask-", concurrencyLimit);
+    }
+
+    public static SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setRejectTasksWhenLimitReached(true);
+        return executor;
+    }
+
     @Bean(name = "scheduledTaskExecutor")
     @Profile({"!minimal"})
     public Executor scheduledTaskExecutor() {
@@ -8,7 +8,9 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Configuration
 @Profile("production")
 public class ProductionMailConfig {
@@ -27,11 +29,11 @@ public class ProductionMailConfig {
 
     @Bean
     public JavaMailSender javaMailSender() {
-        System.out.println("🔧 PRODUCTION MAIL CONFIG - Creating JavaMailSender");
-        System.out.println("Host: " + host);
-        System.out.println("Port: " + port);
-        System.out.println("Username: " + username);
-        System.out.println("Password provided: " + (password != null && !password.isEmpty()));
+        log.info("🔧 PRODUCTION MAIL CONFIG - Creating JavaMailSender");
+        log.info("Host: {}", host);
+        log.info("Port: {}", port);
+        log.info("Username: {}", username);
+        log.info("Password provided: {}", password != null && !password.isEmpty());
 
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         mailSender.setHost(host);
@@ -56,7 +58,7 @@ public class ProductionMailConfig {
         props.put("mail.smtp.ssl.trust", "smtp.gmail.com");
         props.put("mail.smtp.ssl.checkserveridentity", "true");
 
-        System.out.println("✅ JavaMailSender configured for production");
+        log.info("✅ JavaMailSender configured for production");
         return mailSender;
     }
 }
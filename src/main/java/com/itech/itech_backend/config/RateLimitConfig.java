@@ -0,0 +1,102 @@
+package com.itech.itech_backend.config;
+
+import com.itech.itech_backend.modules.shared.ratelimit.InMemoryTokenBucketStore;
+import com.itech.itech_backend.modules.shared.ratelimit.LoadShedder;
+import com.itech.itech_backend.modules.shared.ratelimit.RateLimitFilter;
+import com.itech.itech_backend.modules.shared.ratelimit.RedisTokenBucketStore;
+import com.itech.itech_backend.modules.shared.ratelimit.RouteClass;
+import com.itech.itech_backend.modules.shared.ratelimit.TokenBucketStore;
+import com.itech.itech_backend.modules.shared.ratelimit.TokenBucketStore.Limit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request rate limiting and load shedding ({@link RateLimitFilter}), added to the security
+ * chain by {@link SecurityConfig}.
+ *
+ * Buckets are per node unless {@code app.ratelimit.redis.enabled=true} and a Redis connection
+ * exists. With {@code app.ratelimit.enabled=false} no filter is created and requests pass
+ * exactly as before.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Value("${app.ratelimit.max-keys:200000}")
+    private long maxKeys;
+
+    @Value("${app.ratelimit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${app.ratelimit.trusted-proxies:127.0.0.1/32,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+    private List<String> trustedProxies;
+
+    @Value("${app.ratelimit.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${app.ratelimit.redis.key-prefix:itech:ratelimit:}")
+    private String redisKeyPrefix;
+
+    @Value("${app.ratelimit.shed.max-in-flight:200}")
+    private int maxInFlight;
+
+    @Value("${app.ratelimit.shed.priority-reserve:20}")
+    private int priorityReserve;
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(Environment environment,
+                                           ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+        for (RouteClass routeClass : RouteClass.values()) {
+            if (routeClass == RouteClass.EXEMPT) {
+                continue;
+            }
+            String prefix = "app.ratelimit.routes." + routeClass.key() + ".";
+            int perMinute = environment.getProperty(prefix + "per-minute", Integer.class, routeClass.defaultPerMinute());
+            int burst = environment.getProperty(prefix + "burst", Integer.class, routeClass.defaultBurst());
+            if (perMinute > 0) {
+                limits.put(routeClass, Limit.perMinute(perMinute, burst));
+            }
+        }
+
+        TokenBucketStore buckets = new InMemoryTokenBucketStore(maxKeys, Duration.ofMinutes(1));
+        RedisConnectionFactory connectionFactory = redisEnabled ? redisConnectionFactory.getIfAvailable() : null;
+        if (connectionFactory != null) {
+            buckets = new RedisTokenBucketStore(new StringRedisTemplate(connectionFactory), redisKeyPrefix, buckets);
+        } else if (redisEnabled) {
+            log.warn("app.ratelimit.redis.enabled is set but no Redis connection is configured; limiting per node");
+        }
+
+        log.info("🚦 Rate limiting {} route classes ({} buckets), shedding above {} requests in flight ({} reserved for checkout)",
+                limits.size(), connectionFactory != null ? "Redis" : "in-memory", maxInFlight, priorityReserve);
+        return new RateLimitFilter(buckets, new LoadShedder(maxInFlight, priorityReserve), limits,
+                trustForwardedFor ? trustedProxies : List.of(), meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * The filter runs inside the security chain only, after the JWT has been read
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
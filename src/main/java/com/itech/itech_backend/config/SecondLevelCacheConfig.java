@@ -0,0 +1,96 @@
+package com.itech.itech_backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for reference data, backed by Caffeine through JCache.
+ *
+ * Every region in {@link ReferenceDataCache} is created up front with a size bound and a TTL
+ * ({@code app.cache.l2.default.*} for entity/collection regions, {@code app.cache.l2.query.*}
+ * for query regions, overridable per region with {@code app.cache.l2.regions.<region>.*}).
+ * The update-timestamps region is never bounded or expired: dropping a timestamp would let
+ * stale query results be served.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    static final URI CACHE_MANAGER_URI = URI.create("itech-hibernate-l2");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+
+        for (String region : ReferenceDataCache.DATA_REGIONS) {
+            createRegion(cacheManager, registry, region, bounded(environment, region, "app.cache.l2.default.", 10_000, 60));
+        }
+        for (String region : ReferenceDataCache.QUERY_REGIONS) {
+            createRegion(cacheManager, registry, region, bounded(environment, region, "app.cache.l2.query.", 2_000, 10));
+        }
+        createRegion(cacheManager, registry, ReferenceDataCache.UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+
+        log.info("Second-level cache ready with {} regions", ReferenceDataCache.DATA_REGIONS.size()
+                + ReferenceDataCache.QUERY_REGIONS.size() + 1);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Regions are all created above; anything else is a mapping mistake worth hearing about
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(Environment environment, String region,
+                                                                 String defaults, long maxEntries, long ttlMinutes) {
+        String overrides = "app.cache.l2.regions." + region + ".";
+        long size = environment.getProperty(overrides + "max-entries", Long.class,
+                environment.getProperty(defaults + "max-entries", Long.class, maxEntries));
+        long ttl = environment.getProperty(overrides + "ttl-minutes", Long.class,
+                environment.getProperty(defaults + "ttl-minutes", Long.class, ttlMinutes));
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(size));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttl)));
+        return configuration;
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry registry, String region,
+                                     CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        configuration.setStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+        JCacheMetrics.monitor(registry, cache);
+    }
+}
@@ -1,7 +1,10 @@
 package com.itech.itech_backend.config;
 
 import com.itech.itech_backend.filter.JwtFilter;
+import com.itech.itech_backend.modules.shared.ratelimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -30,13 +34,14 @@ import java.util.ArrayList;
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
     
     @Value("${ALLOWED_ORIGINS:http://localhost:3000,https://localhost:3000}")
     private String allowedOrigins;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        System.out.println("🔧 Configuring Security with Complete CORS Integration");
+        log.info("🔧 Configuring Security with Complete CORS Integration");
         
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -74,6 +79,25 @@ public class SecurityConfig {
                     "/categories/**"
                 ).permitAll()
                 
+                // === PUBLIC REFERENCE DATA ===
+                .requestMatchers(HttpMethod.GET, "/api/public/cities/dropdown").permitAll()
+                
+                // === PUBLIC VENDOR STOREFRONTS ===
+                .requestMatchers(HttpMethod.GET, "/api/storefront/**").permitAll()
+                
+                // === PUBLIC SITEMAPS ===
+                .requestMatchers(HttpMethod.GET, "/sitemap.xml", "/sitemaps/**").permitAll()
+                
+                // === PUBLIC BANNER & CAMPAIGN SERVING ===
+                .requestMatchers(HttpMethod.GET,
+                    "/api/content/banners/serve",
+                    "/api/content/campaigns/active"
+                ).permitAll()
+                .requestMatchers(HttpMethod.POST,
+                    "/api/content/banners/*/click",
+                    "/api/content/campaigns/*/track"
+                ).permitAll()
+                
                 // === VENDOR ENDPOINTS (REQUIRE VENDOR ROLE) ===
                 .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("VENDOR")
                 .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("VENDOR")
@@ -89,14 +113,17 @@ public class SecurityConfig {
             )
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
-        System.out.println("✅ Security configuration completed with CORS integration");
+        // Rate limits are keyed by user, so they run once the JWT has been read
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtFilter.class));
+
+        log.info("✅ Security configuration completed with CORS integration");
         return http.build();
     }
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
-        System.out.println("🌐 Configuring CORS for Frontend-Backend Integration");
-        System.out.println("🔧 ALLOWED_ORIGINS from environment: " + allowedOrigins);
+        log.info("🌐 Configuring CORS for Frontend-Backend Integration");
+        log.info("🔧 ALLOWED_ORIGINS from environment: {}", allowedOrigins);
         
         CorsConfiguration configuration = new CorsConfiguration();
         
@@ -120,7 +147,7 @@ public class SecurityConfig {
                 String trimmedOrigin = origin.trim();
                 if (!trimmedOrigin.isEmpty()) {
                     origins.add(trimmedOrigin);
-                    System.out.println("✅ Added CORS origin: " + trimmedOrigin);
+                    log.info("✅ Added CORS origin: {}", trimmedOrigin);
                 }
             }
         }
@@ -144,7 +171,7 @@ public class SecurityConfig {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         
-        System.out.println("✅ CORS configured for localhost:3000 with all methods and headers");
+        log.info("✅ CORS configured for localhost:3000 with all methods and headers");
         return source;
     }
 
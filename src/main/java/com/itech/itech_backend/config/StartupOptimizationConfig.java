@@ -0,0 +1,105 @@
+package com.itech.itech_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Startup tuning for the AOT/CDS build (see STARTUP_AOT_CDS.md): lazy initialisation of
+ * rarely used modules, and a Flyway strategy that lets the CDS training run refresh the
+ * context without a reachable database
+ */
+@Slf4j
+@Configuration
+public class StartupOptimizationConfig {
+
+    /** Imports, data migration and chatbot: admin or niche endpoints that need not be built at boot */
+    static final List<String> DEFAULT_LAZY_CLASSES = List.of(
+            "com.itech.itech_backend.modules.imports.",
+            "com.itech.itech_backend.modules.support.service.ChatbotService",
+            "com.itech.itech_backend.modules.support.controller.ChatbotController",
+            "com.itech.itech_backend.modules.support.controller.ChatbotAdminController",
+            "com.itech.itech_backend.service.DataMigrationService",
+            "com.itech.itech_backend.controller.MigrationController",
+            "com.itech.itech_backend.modules.vendor.service.VendorProductImportService",
+            "com.itech.itech_backend.modules.vendor.controller.ExcelImportController");
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyModulesPostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        boolean enabled = binder.bind("startup.lazy-init.enabled", Boolean.class).orElse(false);
+        List<String> classes = binder.bind("startup.lazy-init.classes", Bindable.listOf(String.class))
+                .orElse(DEFAULT_LAZY_CLASSES);
+        return new LazyModulesPostProcessor(enabled ? classes : List.of());
+    }
+
+    @Bean
+    @ConditionalOnClass(Flyway.class)
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        // A process that exits once the context is refreshed (the CDS training run) serves no traffic.
+        // spring.flyway.enabled is re-read here because AOT fixes the auto-configuration condition at build time.
+        boolean trainingRun = "onRefresh".equalsIgnoreCase(environment.getProperty("spring.context.exit"));
+        boolean enabled = environment.getProperty("spring.flyway.enabled", Boolean.class, true);
+        return flyway -> {
+            if (trainingRun || !enabled) {
+                log.info("Skipping Flyway migrations ({})", trainingRun ? "context exits on refresh" : "disabled");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+
+    /**
+     * Marks beans whose class name starts with one of the configured prefixes as lazy, so they are
+     * created on first use instead of during refresh. Eager beans that depend on them must take an
+     * {@code ObjectProvider}, otherwise they are still created at boot ({@code @Lazy} class proxies
+     * do not survive AOT processing).
+     */
+    static final class LazyModulesPostProcessor implements BeanFactoryPostProcessor {
+
+        private final List<String> prefixes;
+
+        LazyModulesPostProcessor(List<String> prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            if (prefixes.isEmpty()) {
+                return;
+            }
+            int marked = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = definition.getBeanClassName();
+                if (className != null && !definition.isLazyInit() && matches(className)) {
+                    definition.setLazyInit(true);
+                    marked++;
+                }
+            }
+            if (marked > 0) {
+                log.info("Lazy initialisation enabled for {} rarely used beans", marked);
+            }
+        }
+
+        private boolean matches(String className) {
+            for (String prefix : prefixes) {
+                if (className.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.itech.itech_backend.config;
+
+import com.itech.itech_backend.modules.buyer.service.ProductPriceCatalog;
+import com.itech.itech_backend.modules.buyer.service.ProductPriceListener;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterListener;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterStore;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registers {@link TaxonomyCounterListener} for post-insert, -update and -delete events so every
+ * product and taxonomy change made through Hibernate reaches the {@link TaxonomyCounterStore}.
+ * {@link ProductPriceListener} rides on the same integrator (Hibernate takes a single integrator
+ * provider) to keep the {@link ProductPriceCatalog} in step with product updates and deletes.
+ */
+@Configuration
+public class TaxonomyCounterConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer taxonomyCounterCustomizer(ObjectProvider<TaxonomyCounterStore> store,
+                                                                   ObjectProvider<ProductPriceCatalog> priceCatalog) {
+        TaxonomyCounterListener listener = new TaxonomyCounterListener(store);
+        ProductPriceListener priceListener = new ProductPriceListener(priceCatalog);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+                registry.appendListeners(EventType.POST_UPDATE, priceListener);
+                registry.appendListeners(EventType.POST_DELETE, priceListener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+    }
+}
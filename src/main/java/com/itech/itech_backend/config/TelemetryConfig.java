@@ -0,0 +1,81 @@
+package com.itech.itech_backend.config;
+
+import com.itech.itech_backend.modules.shared.telemetry.RequestTelemetry;
+import com.itech.itech_backend.modules.shared.telemetry.RequestTelemetryInterceptor;
+import com.itech.itech_backend.modules.shared.telemetry.SlowQueryLog;
+import com.itech.itech_backend.modules.shared.telemetry.SqlStatementInspector;
+import com.itech.itech_backend.modules.shared.telemetry.SqlTimingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request-level telemetry: per-handler latency, SQL statement counts and time per request, N+1
+ * detection and a slow-query buffer ({@code /actuator/slowqueries}).
+ *
+ * With {@code app.telemetry.enabled=false} none of these beans exist and no Hibernate callback
+ * is registered, so requests and queries run exactly as before.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.telemetry.enabled", havingValue = "true", matchIfMissing = true)
+public class TelemetryConfig implements WebMvcConfigurer {
+
+    @Value("${app.telemetry.histograms:true}")
+    private boolean histograms;
+
+    @Value("${app.telemetry.n-plus-one.max-statements:50}")
+    private int nPlusOneStatements;
+
+    @Value("${app.telemetry.n-plus-one.max-repeats:10}")
+    private int nPlusOneRepeats;
+
+    @Value("${app.telemetry.sql.enabled:true}")
+    private boolean sqlEnabled;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public TelemetryConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${app.telemetry.slow-query.capacity:200}") int capacity,
+                                     @Value("${app.telemetry.slow-query.threshold-ms:500}") long thresholdMs) {
+        return new SlowQueryLog(capacity, thresholdMs);
+    }
+
+    @Bean
+    public RequestTelemetryInterceptor requestTelemetryInterceptor() {
+        return new RequestTelemetryInterceptor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                histograms, nPlusOneStatements, nPlusOneRepeats);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlTelemetryCustomizer(SlowQueryLog slowQueryLog) {
+        return properties -> {
+            if (!sqlEnabled) {
+                return;
+            }
+            RequestTelemetry.install(slowQueryLog);
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+            log.info("SQL telemetry enabled (slow query threshold {} ms, N+1 above {} statements or {} repeats)",
+                    slowQueryLog.getThresholdNanos() / 1_000_000, nPlusOneStatements, nPlusOneRepeats);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestTelemetryInterceptor());
+    }
+}
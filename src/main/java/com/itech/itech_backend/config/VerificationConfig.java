@@ -3,7 +3,13 @@ package com.itech.itech_backend.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 @Configuration
 public class VerificationConfig {
@@ -14,13 +20,30 @@ public class VerificationConfig {
     @Value("${pan.verification.enabled:false}")
     private boolean panVerificationEnabled;
 
+    @Value("${verification.api.timeout-ms:10000}")
+    private long apiTimeoutMs;
+
+    @Value("${verification.scheduler.threads:4}")
+    private int schedulerThreads;
+
     @Bean
     public WebClient verificationWebClient() {
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
+                        .responseTimeout(Duration.ofMillis(apiTimeoutMs))))
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024)) // 2MB
                 .build();
     }
 
+    /**
+     * Dedicated scheduler for verification cache reads/writes (JPA) so they never
+     * run on the WebClient event loop or the common ForkJoinPool
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler verificationScheduler() {
+        return Schedulers.newBoundedElastic(schedulerThreads, 1000, "tax-verification");
+    }
+
     /**
      * Check if any verification service is enabled
      */
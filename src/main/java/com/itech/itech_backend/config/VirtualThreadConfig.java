@@ -0,0 +1,58 @@
+package com.itech.itech_backend.config;
+
+import com.itech.itech_backend.modules.shared.resilience.BulkheadDataSource;
+import com.itech.itech_backend.modules.shared.resilience.BulkheadRegistry;
+import com.itech.itech_backend.modules.shared.resilience.PinnedThreadMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Guards for the virtual-thread execution mode ({@code spring.threads.virtual.enabled=true}).
+ *
+ * Tomcat and the async executors stop capping concurrency in this mode, so the connection pool
+ * gets a bulkhead sized to the pool, and pinned carriers are reported. Tomcat itself is switched
+ * by Spring Boot; the executors live in {@link PerformanceConfig}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "resilience.bulkhead.database.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                                                                    Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                log.info("Database bulkhead enabled for '{}' ({} concurrent connections)", beanName, poolSize);
+                return new BulkheadDataSource(dataSource, bulkheadRegistry.getObject().bulkhead("database", poolSize, 2000));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public PinnedThreadMonitor pinnedThreadMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                   @Value("${app.threads.virtual.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        return new PinnedThreadMonitor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                Duration.ofMillis(thresholdMs));
+    }
+}
@@ -4,14 +4,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        System.out.println("🌐 Adding CORS mappings for complete integration");
+        log.info("🌐 Adding CORS mappings for complete integration");
         
         registry.addMapping("/**")
                 .allowedOrigins(
@@ -32,6 +34,6 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
                 
-        System.out.println("✅ CORS mappings configured for all endpoints");
+        log.info("✅ CORS mappings configured for all endpoints");
     }
 }
\ No newline at end of file
@@ -55,10 +55,10 @@ public class SubdomainMiddleware implements Filter {
             return;
         }
 
-        // Get subdomain context
+        // Get subdomain context (host map and storefront directory lookups, no parsing or queries)
         SubdomainService.SubdomainContext context = subdomainService.getSubdomainContext(request);
         
-        // Set subdomain context as request attribute
+        // Set subdomain context as request attribute; storefront requests carry the vendor id
         request.setAttribute("subdomainContext", context);
         
         // Add subdomain headers for easier access
@@ -140,7 +140,7 @@ public class SubdomainMiddleware implements Filter {
 
         // For web requests, redirect to main domain
         String mainDomain = request.getScheme() + "://" + 
-            subdomainService.getSubdomainContext(request).getHost().replaceAll("^[^.]+\\.", "");
+            context.getHost().replaceAll("^[^.]+\\.", "");
         
         log.info("🔄 Redirecting invalid subdomain to: {}", mainDomain);
         response.sendRedirect(mainDomain);
@@ -9,6 +9,7 @@ import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.admin.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,7 +26,8 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
-    private final VendorProductImportService vendorProductImportService;
+    // Resolved on first import so the import module stays lazily initialised
+    private final ObjectProvider<VendorProductImportService> vendorProductImportService;
 
     @GetMapping("/vendors")
     public List<Vendors> getAllVendors() {
@@ -57,7 +59,7 @@ public class AdminController {
 
            log.info("Starting admin bulk import for vendor: {} with file: {}", vendorId, fileName);
 
-           ExcelImportResponseDto response = vendorProductImportService.importProductsFromExcel(excelFile, vendorId);
+           ExcelImportResponseDto response = vendorProductImportService.getObject().importProductsFromExcel(excelFile, vendorId);
 
            if (response.getSuccess()) {
                return ResponseEntity.ok(response);
@@ -2,12 +2,21 @@ package com.itech.itech_backend.modules.admin.controller;
 
 import com.itech.itech_backend.modules.shared.model.*;
 import com.itech.itech_backend.modules.admin.service.ContentManagementService;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.service.ContentServingService;
+import com.itech.itech_backend.modules.shared.service.CouponRedemptionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/content")
@@ -15,6 +24,7 @@ import java.util.List;
 public class ContentManagementController {
 
     private final ContentManagementService contentManagementService;
+    private final UserRepository userRepository;
 
     // Banner Management
     @GetMapping("/banners")
@@ -23,6 +33,27 @@ public class ContentManagementController {
         return ResponseEntity.ok(banners);
     }
 
+    @GetMapping("/banners/serve")
+    public ResponseEntity<List<Banner>> serveBanners(@RequestParam(required = false) String position,
+                                                     @RequestParam(required = false) Long categoryId,
+                                                     @RequestParam(required = false) String city) {
+        return ResponseEntity.ok(contentManagementService.serveBanners(position, categoryId, city));
+    }
+
+    @PostMapping("/banners/{id}/click")
+    public ResponseEntity<Void> recordBannerClick(@PathVariable Long id) {
+        boolean counted = contentManagementService.recordBannerClick(id);
+        return counted ? ResponseEntity.accepted().build() : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/banners/{id}/report")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ContentServingService.ContentReport> getBannerReport(@PathVariable Long id,
+                                                                               @RequestParam(defaultValue = "7") int days) {
+        LocalDateTime to = reportEnd();
+        return ResponseEntity.ok(contentManagementService.getBannerReport(id, to.minusDays(days), to));
+    }
+
     @PostMapping("/banners")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Banner> createBanner(@RequestBody Banner banner) {
@@ -67,6 +98,33 @@ public class ContentManagementController {
         return ResponseEntity.ok(campaigns);
     }
 
+    @GetMapping("/campaigns/active")
+    public ResponseEntity<List<Campaign>> getActiveCampaigns(@RequestParam(required = false) Long categoryId,
+                                                             @RequestParam(required = false) String city) {
+        return ResponseEntity.ok(contentManagementService.getActiveCampaigns(categoryId, city));
+    }
+
+    @PostMapping("/campaigns/{id}/track")
+    public ResponseEntity<Void> trackCampaign(@PathVariable Long id, @RequestParam String action) {
+        boolean counted = contentManagementService.updateCampaignStats(id, action);
+        return counted ? ResponseEntity.accepted().build() : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/campaigns/report")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ContentServingService.ContentReport>> getCampaignReports(@RequestParam(defaultValue = "7") int days) {
+        LocalDateTime to = reportEnd();
+        return ResponseEntity.ok(contentManagementService.getCampaignReports(to.minusDays(days), to));
+    }
+
+    @GetMapping("/campaigns/{id}/report")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ContentServingService.ContentReport> getCampaignReport(@PathVariable Long id,
+                                                                                 @RequestParam(defaultValue = "7") int days) {
+        LocalDateTime to = reportEnd();
+        return ResponseEntity.ok(contentManagementService.getCampaignReport(id, to.minusDays(days), to));
+    }
+
     @PostMapping("/campaigns")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Campaign> createCampaign(@RequestBody Campaign campaign) {
@@ -94,5 +152,37 @@ public class ContentManagementController {
         boolean isValid = contentManagementService.validateCoupon(code);
         return ResponseEntity.ok(isValid);
     }
-}
 
+    @PostMapping("/coupons/{code}/redeem")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> redeemCoupon(@PathVariable String code,
+                                                            @RequestParam(required = false) String reference) {
+        // Redemptions are deduplicated per user, so the user always comes from the token
+        Long userId = getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.status(403).body(Map.of("code", code, "redeemed", false,
+                    "message", "Only user accounts can redeem coupons"));
+        }
+        CouponRedemptionService.Outcome outcome = contentManagementService.redeemCoupon(code, userId, reference);
+        Map<String, Object> body = Map.of("code", code, "outcome", outcome,
+                "redeemed", outcome == CouponRedemptionService.Outcome.REDEEMED);
+        return switch (outcome) {
+            case REDEEMED -> ResponseEntity.ok(body);
+            case NOT_FOUND -> ResponseEntity.status(404).body(body);
+            default -> ResponseEntity.status(409).body(body);
+        };
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // The principal name is the email or phone the user signed in with
+        return userRepository.findByEmailOrPhone(authentication.getName(), authentication.getName())
+                .map(User::getId)
+                .orElse(null);
+    }
+
+    // Reports cover whole hours up to and including the current one
+    private static LocalDateTime reportEnd() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+    }
+}
@@ -0,0 +1,46 @@
+package com.itech.itech_backend.modules.admin.controller;
+
+import com.itech.itech_backend.modules.shared.service.TaxVerificationGateway;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/kyc")
+@RequiredArgsConstructor
+@Slf4j
+public class KycVerificationController {
+
+    private final TaxVerificationGateway taxVerificationGateway;
+
+    /**
+     * Verify a batch of GSTINs from the KYC review queue in one call
+     */
+    @PostMapping("/gst/bulk-verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Map<String, Object>>> bulkVerifyGst(@RequestBody List<String> gstNumbers) {
+        log.info("Bulk verifying {} GST numbers", gstNumbers.size());
+
+        return taxVerificationGateway.bulkVerifyGst(gstNumbers)
+                .map(results -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("count", results.size());
+                    response.put("results", results);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(response));
+                });
+    }
+}
@@ -31,6 +31,9 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
     // Count leads by vendor and status
     long countByVendorAndStatus(Vendors vendor, LeadStatus status);
     
+    // Leads received since a subscription started
+    long countByVendorIdAndInquiryDateGreaterThanEqual(Long vendorId, LocalDateTime since);
+    
     // Find recent leads for vendor (last 30 days)
     @Query("SELECT l FROM Lead l WHERE l.vendor = :vendor AND l.inquiryDate >= :thirtyDaysAgo ORDER BY l.inquiryDate DESC")
     List<Lead> findRecentLeadsByVendor(@Param("vendor") Vendors vendor, @Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
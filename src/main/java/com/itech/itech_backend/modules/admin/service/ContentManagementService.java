@@ -2,6 +2,8 @@ package com.itech.itech_backend.modules.admin.service;
 
 import com.itech.itech_backend.modules.shared.model.*;
 import com.itech.itech_backend.modules.shared.repository.*;
+import com.itech.itech_backend.modules.shared.service.ContentServingService;
+import com.itech.itech_backend.modules.shared.service.CouponRedemptionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +18,8 @@ public class ContentManagementService {
     private final SeoKeywordRepository seoKeywordRepository;
     private final CampaignRepository campaignRepository;
     private final CouponRepository couponRepository;
+    private final CouponRedemptionService couponRedemptionService;
+    private final ContentServingService contentServingService;
 
     // Banner Management
     public List<Banner> getAllBanners() {
@@ -23,20 +27,37 @@ public class ContentManagementService {
     }
 
     public List<Banner> getActiveBanners() {
-        return bannerRepository.findByIsActiveTrueOrderByDisplayOrder();
+        return contentServingService.activeBanners();
+    }
+
+    public List<Banner> serveBanners(String position, Long categoryId, String city) {
+        return contentServingService.serveBanners(position, categoryId, city);
+    }
+
+    public boolean recordBannerClick(Long bannerId) {
+        return contentServingService.track(ContentSubjectType.BANNER, bannerId, ContentServingService.Event.CLICK);
     }
 
     public Banner createBanner(Banner banner) {
-        return bannerRepository.save(banner);
+        Banner saved = bannerRepository.save(banner);
+        contentServingService.contentChanged();
+        return saved;
     }
 
     public Banner updateBanner(Long id, Banner banner) {
         banner.setId(id);
-        return bannerRepository.save(banner);
+        Banner saved = bannerRepository.save(banner);
+        contentServingService.contentChanged();
+        return saved;
     }
 
     public void deleteBanner(Long id) {
         bannerRepository.deleteById(id);
+        contentServingService.contentChanged();
+    }
+
+    public ContentServingService.ContentReport getBannerReport(Long bannerId, LocalDateTime from, LocalDateTime to) {
+        return contentServingService.report(ContentSubjectType.BANNER, bannerId, from, to);
     }
 
     // SEO Management
@@ -53,20 +74,34 @@ public class ContentManagementService {
         return campaignRepository.findAll();
     }
 
+    public List<Campaign> getActiveCampaigns(Long categoryId, String city) {
+        return contentServingService.activeCampaigns(categoryId, city);
+    }
+
     public Campaign createCampaign(Campaign campaign) {
-        return campaignRepository.save(campaign);
-    }
-
-    public void updateCampaignStats(Long campaignId, String action) {
-        Campaign campaign = campaignRepository.findById(campaignId).orElse(null);
-        if (campaign != null) {
-            if ("click".equals(action)) {
-                campaign.setClickCount(campaign.getClickCount() + 1);
-            } else if ("view".equals(action)) {
-                campaign.setViewCount(campaign.getViewCount() + 1);
-            }
-            campaignRepository.save(campaign);
+        Campaign saved = campaignRepository.save(campaign);
+        contentServingService.contentChanged();
+        return saved;
+    }
+
+    /**
+     * Count a view or click; the totals on the campaign row are updated by the next stats flush
+     */
+    public boolean updateCampaignStats(Long campaignId, String action) {
+        if ("click".equals(action)) {
+            return contentServingService.track(ContentSubjectType.CAMPAIGN, campaignId, ContentServingService.Event.CLICK);
+        } else if ("view".equals(action)) {
+            return contentServingService.track(ContentSubjectType.CAMPAIGN, campaignId, ContentServingService.Event.IMPRESSION);
         }
+        return false;
+    }
+
+    public ContentServingService.ContentReport getCampaignReport(Long campaignId, LocalDateTime from, LocalDateTime to) {
+        return contentServingService.report(ContentSubjectType.CAMPAIGN, campaignId, from, to);
+    }
+
+    public List<ContentServingService.ContentReport> getCampaignReports(LocalDateTime from, LocalDateTime to) {
+        return contentServingService.campaignReports(from, to);
     }
 
     // Coupon Management
@@ -75,35 +110,20 @@ public class ContentManagementService {
     }
 
     public Coupon createCoupon(Coupon coupon) {
-        return couponRepository.save(coupon);
+        Coupon saved = couponRepository.save(coupon);
+        couponRedemptionService.invalidate(saved.getCode());
+        return saved;
     }
 
     public boolean validateCoupon(String code) {
-        Coupon coupon = couponRepository.findByCode(code).orElse(null);
-        if (coupon == null || !coupon.isActive()) {
-            return false;
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-        if (coupon.getValidFrom() != null && now.isBefore(coupon.getValidFrom())) {
-            return false;
-        }
-        if (coupon.getValidUntil() != null && now.isAfter(coupon.getValidUntil())) {
-            return false;
-        }
-        if (coupon.getUsageLimit() > 0 && coupon.getUsedCount() >= coupon.getUsageLimit()) {
-            return false;
-        }
-
-        return true;
+        return couponRedemptionService.check(code, null) == CouponRedemptionService.Outcome.REDEEMED;
     }
 
     public void useCoupon(String code) {
-        Coupon coupon = couponRepository.findByCode(code).orElse(null);
-        if (coupon != null && validateCoupon(code)) {
-            coupon.setUsedCount(coupon.getUsedCount() + 1);
-            couponRepository.save(coupon);
-        }
+        couponRedemptionService.redeem(code, null, null);
     }
-}
 
+    public CouponRedemptionService.Outcome redeemCoupon(String code, Long userId, String reference) {
+        return couponRedemptionService.redeem(code, userId, reference);
+    }
+}
@@ -0,0 +1,404 @@
+package com.itech.itech_backend.modules.ai.service;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.config.LlmGatewayProperties;
+import com.itech.itech_backend.modules.shared.resilience.Bulkhead;
+import com.itech.itech_backend.modules.shared.resilience.CircuitBreaker;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gateway in front of the chat completion API.
+ *
+ * Every completion goes through the same pipeline: response cache (keyed by the
+ * normalised prompt) -> coalescing of identical in-flight prompts -> circuit breaker
+ * -> bulkhead -> pooled HTTP call with bounded retries. Whenever the provider cannot
+ * answer, the caller-supplied fallback is returned and nothing is cached. Only HTTP
+ * errors and timeouts count against the breaker; a caller that stops taking streamed
+ * tokens says nothing about the provider.
+ */
+@Service
+@Slf4j
+public class LlmGateway {
+
+    private final RestTemplate restTemplate;
+    private final LlmGatewayProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, String> responseCache;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    @Value("${openai.api.key:}")
+    private String apiKey;
+
+    @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}")
+    private String apiUrl;
+
+    public LlmGateway(@Qualifier("openAiRestTemplate") RestTemplate restTemplate, LlmGatewayProperties properties) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+        this.responseCache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxEntries())
+                .expireAfterWrite(Duration.ofMinutes(properties.getCacheTtlMinutes()))
+                .recordStats()
+                .build();
+        this.circuitBreaker = new CircuitBreaker("openai", properties.getFailureThreshold(), properties.getOpenStateMs());
+        this.bulkhead = new Bulkhead("openai", properties.getMaxConcurrentCalls(), properties.getBulkheadWaitMs());
+    }
+
+    /**
+     * Override the provider endpoint and key; used when the gateway is built outside Spring.
+     */
+    public void configureEndpoint(String apiUrl, String apiKey) {
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty() && !apiKey.contains("your-openai-api-key");
+    }
+
+    /**
+     * Blocking completion. Returns the cached answer when one exists.
+     */
+    public String complete(String systemPrompt, String userMessage, Supplier<String> fallback) {
+        return execute(systemPrompt, userMessage, null, fallback);
+    }
+
+    /**
+     * Streaming completion. Tokens are pushed to {@code onToken} as they arrive;
+     * cached, coalesced and fallback answers are delivered as a single chunk.
+     * Returns the full text once the completion has finished.
+     *
+     * If the provider fails after tokens have already been pushed, the fallback is not
+     * appended to the partial answer; a {@link StreamInterruptedException} is thrown instead.
+     * If {@code onToken} itself throws (the client went away), the stream is abandoned and a
+     * {@link TokenDeliveryException} is thrown.
+     */
+    public String stream(String systemPrompt, String userMessage, Consumer<String> onToken, Supplier<String> fallback) {
+        AtomicBoolean started = new AtomicBoolean();
+        Consumer<String> tracked = token -> {
+            started.set(true);
+            try {
+                onToken.accept(token);
+            } catch (RuntimeException e) {
+                throw new TokenDeliveryException(e);
+            }
+        };
+        return execute(systemPrompt, userMessage, tracked, () -> {
+            if (started.get()) {
+                throw new StreamInterruptedException("OpenAI stream failed after partial output");
+            }
+            return fallback.get();
+        });
+    }
+
+    private String execute(String systemPrompt, String userMessage, Consumer<String> onToken, Supplier<String> fallback) {
+        if (!isConfigured()) {
+            log.warn("OpenAI API key not configured, using fallback responses");
+            return deliver(fallback(fallback), onToken);
+        }
+
+        String key = cacheKey(systemPrompt, userMessage);
+        if (properties.isCacheEnabled()) {
+            String cached = responseCache.getIfPresent(key);
+            if (cached != null) {
+                return deliver(cached, onToken);
+            }
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalescedCalls.incrementAndGet();
+            try {
+                return deliver(leader.get(properties.getCoalesceWaitMs(), TimeUnit.MILLISECONDS), onToken);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.debug("Coalesced completion failed: {}", e.getMessage());
+            }
+            return deliver(fallback(fallback), onToken);
+        }
+
+        try {
+            String answer = callProvider(systemPrompt, userMessage, onToken);
+            if (properties.isCacheEnabled()) {
+                responseCache.put(key, answer);
+            }
+            mine.complete(answer);
+            return answer;
+        } catch (TokenDeliveryException e) {
+            // Nobody is left to read a fallback
+            log.debug("Chat client stopped reading: {}", e.getMessage());
+            mine.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            log.error("OpenAI API error: {}", e.getMessage());
+            mine.completeExceptionally(e);
+            return deliver(fallback(fallback), onToken);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private String callProvider(String systemPrompt, String userMessage, Consumer<String> onToken) {
+        if (!bulkhead.tryAcquire()) {
+            throw new IllegalStateException("OpenAI bulkhead is full");
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            throw new IllegalStateException("OpenAI circuit breaker is open");
+        }
+        try {
+            String answer = callWithRetry(systemPrompt, userMessage, onToken);
+            circuitBreaker.recordSuccess();
+            return answer;
+        } catch (TokenDeliveryException e) {
+            // The provider was answering
+            circuitBreaker.recordSuccess();
+            throw e;
+        } catch (RestClientException e) {
+            // HTTP error status, connect or read timeout, broken response stream
+            circuitBreaker.recordFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.recordIgnored();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private String callWithRetry(String systemPrompt, String userMessage, Consumer<String> onToken) {
+        int attempt = 0;
+        while (true) {
+            try {
+                upstreamCalls.incrementAndGet();
+                return onToken == null
+                        ? postCompletion(systemPrompt, userMessage)
+                        : postStreamingCompletion(systemPrompt, userMessage, onToken);
+            } catch (RuntimeException e) {
+                // A partially streamed answer cannot be replayed safely
+                if (onToken != null || attempt >= properties.getMaxRetries() || !isTransient(e)) {
+                    throw e;
+                }
+                attempt++;
+                log.debug("Retrying OpenAI call (attempt {}): {}", attempt, e.getMessage());
+                sleep(properties.getRetryBackoffMs() * attempt);
+            }
+        }
+    }
+
+    private String postCompletion(String systemPrompt, String userMessage) {
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(buildRequestBody(systemPrompt, userMessage, false), buildHeaders());
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(apiUrl, request, JsonNode.class);
+        JsonNode content = response.getBody() == null ? null
+                : response.getBody().path("choices").path(0).path("message").path("content");
+        if (content == null || !content.isTextual()) {
+            throw new IllegalStateException("OpenAI response did not contain a message");
+        }
+        return content.asText();
+    }
+
+    private String postStreamingCompletion(String systemPrompt, String userMessage, Consumer<String> onToken) {
+        Map<String, Object> body = buildRequestBody(systemPrompt, userMessage, true);
+        HttpHeaders headers = buildHeaders();
+        String answer = restTemplate.execute(apiUrl, HttpMethod.POST,
+                request -> {
+                    request.getHeaders().putAll(headers);
+                    objectMapper.writeValue(request.getBody(), body);
+                },
+                response -> {
+                    StringBuilder text = new StringBuilder();
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (!line.startsWith("data:")) {
+                                continue;
+                            }
+                            String data = line.substring(5).trim();
+                            if ("[DONE]".equals(data)) {
+                                break;
+                            }
+                            JsonNode delta = objectMapper.readTree(data).path("choices").path(0).path("delta").path("content");
+                            if (delta.isTextual() && !delta.asText().isEmpty()) {
+                                text.append(delta.asText());
+                                onToken.accept(delta.asText());
+                            }
+                        }
+                    }
+                    return text.toString();
+                });
+        if (answer == null || answer.isEmpty()) {
+            throw new IllegalStateException("OpenAI stream ended without content");
+        }
+        return answer;
+    }
+
+    private Map<String, Object> buildRequestBody(String systemPrompt, String userMessage, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", properties.getModel());
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", systemPrompt));
+        messages.add(Map.of("role", "user", "content", userMessage));
+
+        requestBody.put("messages", messages);
+        requestBody.put("temperature", properties.getTemperature());
+        requestBody.put("max_tokens", properties.getMaxTokens());
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        return requestBody;
+    }
+
+    private HttpHeaders buildHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+        return headers;
+    }
+
+    private boolean isTransient(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException statusException) {
+            int status = statusException.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return false;
+    }
+
+    private String fallback(Supplier<String> fallback) {
+        fallbacks.incrementAndGet();
+        return fallback.get();
+    }
+
+    private static String deliver(String text, Consumer<String> onToken) {
+        if (onToken != null && text != null) {
+            onToken.accept(text);
+        }
+        return text;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Only case and spacing are folded; words and punctuation can change what the model is
+     * asked, so "What is the GOLD  price?" and "what is the gold price?" share one cache
+     * entry but "what is the gold price" does not.
+     */
+    static String normalisePrompt(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String cacheKey(String systemPrompt, String userMessage) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(properties.getModel().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(systemPrompt.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalisePrompt(userMessage).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A streamed answer broke off after part of it reached the client
+     */
+    public static class StreamInterruptedException extends RuntimeException {
+
+        public StreamInterruptedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The caller's token consumer failed, typically because the client disconnected
+     */
+    public static class TokenDeliveryException extends RuntimeException {
+
+        public TokenDeliveryException(Throwable cause) {
+            super("Streamed token could not be delivered: " + cause.getMessage(), cause);
+        }
+    }
+
+    public void clearCache() {
+        responseCache.invalidateAll();
+    }
+
+    /**
+     * Gateway counters for health/diagnostic endpoints
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("configured", isConfigured());
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("circuitRejected", circuitBreaker.getRejectedCalls());
+        stats.put("bulkheadAvailable", bulkhead.getAvailablePermits());
+        stats.put("bulkheadRejected", bulkhead.getRejectedCalls());
+        stats.put("upstreamCalls", upstreamCalls.get());
+        stats.put("coalescedCalls", coalescedCalls.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("inFlight", inFlight.size());
+        stats.put("cacheSize", responseCache.estimatedSize());
+        stats.put("cacheHitRate", responseCache.stats().hitRate());
+        return stats;
+    }
+}
@@ -6,6 +6,7 @@ import com.itech.itech_backend.modules.buyer.dto.LeadStatsDto;
 import com.itech.itech_backend.modules.shared.model.BuyerLead;
 import com.itech.itech_backend.modules.buyer.service.BuyerLeadService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +20,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/buyer-leads")
 @RequiredArgsConstructor
@@ -32,7 +34,7 @@ public class BuyerLeadController {
             @Valid @RequestBody BuyerLeadDto leadDto,
             HttpServletRequest request) {
         
-        System.out.println("🔥 Buyer lead creation request received: " + leadDto.getEmail());
+        log.debug("🔥 Buyer lead creation request received: {}", leadDto.getEmail());
         
         // Capture IP and User Agent for tracking
         String ipAddress = getClientIpAddress(request);
@@ -40,7 +42,7 @@ public class BuyerLeadController {
         
         LeadResponseDto response = buyerLeadService.createLead(leadDto, ipAddress, userAgent);
         
-        System.out.println("✅ Buyer lead created successfully with ID: " + response.getId());
+        log.debug("✅ Buyer lead created successfully with ID: {}", response.getId());
         
         return ResponseEntity.ok(response);
     }
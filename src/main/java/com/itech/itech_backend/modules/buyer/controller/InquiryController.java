@@ -2,6 +2,7 @@ package com.itech.itech_backend.modules.buyer.controller;
 
 import com.itech.itech_backend.modules.buyer.model.Inquiry;
 import com.itech.itech_backend.modules.buyer.service.InquiryService;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import com.itech.itech_backend.util.JwtTokenUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -55,8 +56,11 @@ public class InquiryController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Inquiry>> getAllInquiries() {
-        List<Inquiry> inquiries = inquiryService.getAllInquiries();
+    public ResponseEntity<KeysetPage<Inquiry>> getAllInquiries(@RequestParam Map<String, String> filters,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        KeysetPage<Inquiry> inquiries = inquiryService.getAllInquiries(filters, sort, cursor, size);
         return ResponseEntity.ok(inquiries);
     }
     
@@ -133,9 +137,12 @@ public class InquiryController {
     }
     
     @GetMapping("/product/{productId}")
-    public ResponseEntity<?> getInquiriesByProduct(@PathVariable Long productId) {
+    public ResponseEntity<?> getInquiriesByProduct(@PathVariable Long productId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Inquiry> inquiries = inquiryService.getAllInquiries();
+            KeysetPage<Inquiry> inquiries = inquiryService.getAllInquiries(
+                    Map.of("productId", productId.toString()), null, cursor, size);
             return ResponseEntity.ok(inquiries);
         } catch (Exception e) {
             log.error("Error fetching product inquiries", e);
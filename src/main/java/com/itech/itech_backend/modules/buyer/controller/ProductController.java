@@ -1,15 +1,19 @@
 package com.itech.itech_backend.modules.buyer.controller;
 
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
+import com.itech.itech_backend.modules.buyer.dto.ProductDetailDto;
 import com.itech.itech_backend.modules.shared.dto.ProductDto;
 import com.itech.itech_backend.modules.buyer.model.Product;
 import com.itech.itech_backend.modules.buyer.service.ProductService;
 import com.itech.itech_backend.modules.buyer.service.BasicSearchService;
+import com.itech.itech_backend.modules.buyer.service.BulkProductWriter;
 import com.itech.itech_backend.util.JwtTokenUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -30,6 +34,7 @@ public class ProductController {
     private final ProductService productService;
     private final BasicSearchService basicSearchService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final BulkProductWriter bulkProductWriter;
 
     // Add Category, Subcategory, Microcategory, Product
     @PostMapping("/data-entry")
@@ -78,9 +83,9 @@ public class ProductController {
     }
 
     @GetMapping("/{productId}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long productId) {
+    public ResponseEntity<ProductDetailDto> getProductById(@PathVariable Long productId) {
         try {
-            Product product = productService.getProductById(productId);
+            ProductDetailDto product = productService.getProductDetail(productId);
             // Increment view count
             productService.incrementViewCount(productId);
             return ResponseEntity.ok(product);
@@ -122,7 +127,7 @@ public class ProductController {
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<Product>> getProductsByCategory(
+    public ResponseEntity<Page<ProductCardDto>> getProductsByCategory(
             @PathVariable String categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size) {
@@ -141,8 +146,8 @@ public class ProductController {
                 return ResponseEntity.badRequest().build();
             }
             
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Product> products = productService.getProductsByCategory(categoryIdLong, pageable);
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            Page<ProductCardDto> products = productService.getProductCardsByCategory(categoryIdLong, pageable);
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             log.error("Error getting products by category", e);
@@ -151,13 +156,13 @@ public class ProductController {
     }
 
     @GetMapping("/vendor/{vendorId}")
-    public ResponseEntity<Page<Product>> getProductsByVendor(
+    public ResponseEntity<Page<ProductCardDto>> getProductsByVendor(
             @PathVariable Long vendorId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size) {
         try {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Product> products = productService.getProductsByVendor(vendorId, pageable);
+            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+            Page<ProductCardDto> products = productService.getProductCardsByVendor(vendorId, pageable);
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             log.error("Error getting products by vendor", e);
@@ -166,10 +171,10 @@ public class ProductController {
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<List<Product>> getFeaturedProducts(
+    public ResponseEntity<List<ProductCardDto>> getFeaturedProducts(
             @RequestParam(defaultValue = "8") int limit) {
         try {
-            List<Product> products = productService.getFeaturedProducts(limit);
+            List<ProductCardDto> products = productService.getFeaturedProductCards(limit);
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             log.error("Error getting featured products", e);
@@ -240,6 +245,22 @@ public class ProductController {
         }
     }
 
+    /**
+     * Insert or update many of the vendor's products at once, matched by SKU. Rows that could
+     * not be written are listed in the response; the rest are kept.
+     */
+    @PostMapping("/vendor/bulk")
+    @PreAuthorize("hasRole('VENDOR')")
+    public ResponseEntity<?> bulkUpsertProducts(@RequestBody List<BulkProductWriter.ProductRow> rows,
+                                                HttpServletRequest request) {
+        Long vendorId = jwtTokenUtil.extractUserIdFromRequest(request);
+        if (vendorId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Authentication failed: No valid vendor session found");
+        }
+        return ResponseEntity.ok(bulkProductWriter.upsert(vendorId, rows));
+    }
+
     @PostMapping(value = "/{productId}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('VENDOR')")
     public ResponseEntity<?> uploadProductImages(
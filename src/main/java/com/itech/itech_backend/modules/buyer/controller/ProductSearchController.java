@@ -2,8 +2,10 @@ package com.itech.itech_backend.modules.buyer.controller;
 
 import com.itech.itech_backend.modules.shared.dto.ProductSearchDto;
 import com.itech.itech_backend.modules.shared.dto.ProductSearchResponseDto;
-import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
 import com.itech.itech_backend.modules.buyer.service.ProductSearchService;
+import com.itech.itech_backend.modules.shared.httpcache.CacheDomain;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,7 +56,7 @@ public class ProductSearchController {
             .maxPrice(maxPrice)
             .build();
 
-        Page<Product> products = productSearchService.searchProducts(searchDto, pageable);
+        Page<ProductCardDto> products = productSearchService.searchProducts(searchDto, pageable);
 
         Map<String, Object> response = new HashMap<>();
         response.put("products", products.getContent());
@@ -68,38 +70,41 @@ public class ProductSearchController {
     }
 
     @GetMapping("/search/featured")
-    public ResponseEntity<List<Product>> getFeaturedProducts(
+    @HttpCacheable(CacheDomain.PRODUCTS)
+    public ResponseEntity<List<ProductCardDto>> getFeaturedProducts(
             @RequestParam(defaultValue = "10") int limit) {
-        List<Product> featuredProducts = productSearchService.getFeaturedProducts(limit);
+        List<ProductCardDto> featuredProducts = productSearchService.getFeaturedProducts(limit);
         return ResponseEntity.ok(featuredProducts);
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<Product>> getRecentProducts(
+    @HttpCacheable(CacheDomain.PRODUCTS)
+    public ResponseEntity<List<ProductCardDto>> getRecentProducts(
             @RequestParam(defaultValue = "10") int limit) {
-        List<Product> recentProducts = productSearchService.getRecentProducts(limit);
+        List<ProductCardDto> recentProducts = productSearchService.getRecentProducts(limit);
         return ResponseEntity.ok(recentProducts);
     }
 
     @GetMapping("/search/category/{categoryId}")
-    public ResponseEntity<Page<Product>> getProductsByCategory(
+    @HttpCacheable({CacheDomain.PRODUCTS, CacheDomain.CATEGORIES})
+    public ResponseEntity<Page<ProductCardDto>> getProductsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> products = productSearchService.getProductsByCategory(categoryId, pageable);
+        Page<ProductCardDto> products = productSearchService.getProductsByCategory(categoryId, pageable);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/search/vendor/{vendorId}")
-    public ResponseEntity<Page<Product>> getProductsByVendor(
+    public ResponseEntity<Page<ProductCardDto>> getProductsByVendor(
             @PathVariable Long vendorId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> products = productSearchService.getProductsByVendor(vendorId, pageable);
+        Page<ProductCardDto> products = productSearchService.getProductsByVendor(vendorId, pageable);
         return ResponseEntity.ok(products);
     }
 
@@ -155,7 +160,7 @@ public class ProductSearchController {
                 .minRating(minRating)
                 .build();
 
-            Page<Product> products = productSearchService.searchProducts(searchDto, pageable);
+            Page<ProductCardDto> products = productSearchService.searchProducts(searchDto, pageable);
             Map<String, Object> filters = productSearchService.getAvailableFilters(searchDto);
 
             Map<String, Object> response = new HashMap<>();
@@ -188,10 +193,10 @@ public class ProductSearchController {
     }
 
     @GetMapping("/trending")
-    public ResponseEntity<List<Product>> getTrendingProducts(
+    public ResponseEntity<List<ProductCardDto>> getTrendingProducts(
             @RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Product> trendingProducts = productSearchService.getTrendingProducts(limit);
+            List<ProductCardDto> trendingProducts = productSearchService.getTrendingProducts(limit);
             return ResponseEntity.ok(trendingProducts);
         } catch (Exception e) {
             log.error("Error getting trending products", e);
@@ -200,11 +205,11 @@ public class ProductSearchController {
     }
 
     @GetMapping("/similar/{productId}")
-    public ResponseEntity<List<Product>> getSimilarProducts(
+    public ResponseEntity<List<ProductCardDto>> getSimilarProducts(
             @PathVariable Long productId,
             @RequestParam(defaultValue = "8") int limit) {
         try {
-            List<Product> similarProducts = productSearchService.getSimilarProducts(productId, limit);
+            List<ProductCardDto> similarProducts = productSearchService.getSimilarProducts(productId, limit);
             return ResponseEntity.ok(similarProducts);
         } catch (Exception e) {
             log.error("Error getting similar products", e);
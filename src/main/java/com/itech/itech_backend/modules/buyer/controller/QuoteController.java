@@ -3,6 +3,7 @@ package com.itech.itech_backend.modules.buyer.controller;
 import com.itech.itech_backend.modules.shared.dto.CreateQuoteDto;
 import com.itech.itech_backend.modules.buyer.model.Quote;
 import com.itech.itech_backend.modules.buyer.service.QuoteService;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import com.itech.itech_backend.util.JwtTokenUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/quotes")
@@ -46,8 +48,11 @@ public class QuoteController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Quote>> getAllQuotes() {
-        List<Quote> quotes = quoteService.getAllQuotes();
+    public ResponseEntity<KeysetPage<Quote>> getAllQuotes(@RequestParam Map<String, String> filters,
+                                                          @RequestParam(required = false) String sort,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        KeysetPage<Quote> quotes = quoteService.getAllQuotes(filters, sort, cursor, size);
         return ResponseEntity.ok(quotes);
     }
 
@@ -2,9 +2,11 @@ package com.itech.itech_backend.modules.buyer.controller;
 
 import com.itech.itech_backend.modules.buyer.model.Review;
 import com.itech.itech_backend.modules.vendor.model.VendorReview;
+import com.itech.itech_backend.modules.buyer.service.RatingAggregateService;
 import com.itech.itech_backend.modules.buyer.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -39,5 +41,10 @@ public class ReviewController {
         List<VendorReview> reviews = reviewService.getVendorReviews(vendorId);
         return ResponseEntity.ok(reviews);
     }
-}
 
+    @PostMapping("/ratings/repair")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RatingAggregateService.RepairResult> repairRatingAggregates() {
+        return ResponseEntity.ok(reviewService.repairRatingAggregates());
+    }
+}
@@ -0,0 +1,53 @@
+package com.itech.itech_backend.modules.buyer.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * List-view read model for buyer products. Filled by a single JPQL constructor expression
+ * (see {@code BuyerProductRepository.CARD_SELECT}) so listings never load vendor or category
+ * entities.
+ */
+@Data
+@NoArgsConstructor
+public class ProductCardDto {
+
+    private Long id;
+    private String name;
+    private Double price;
+    private Double originalPrice;
+    private String unit;
+    private Integer minOrderQuantity;
+    private String primaryImage;
+    private Long vendorId;
+    private String vendorName;
+    private String vendorCity;
+    private Double rating;
+    private Long reviewCount;
+
+    // Used by the repository projection queries; imageUrls is the stored comma-separated list
+    public ProductCardDto(Long id, String name, Double price, Double originalPrice, String unit,
+                          Integer minOrderQuantity, String imageUrls, Long vendorId, String vendorName,
+                          String vendorCity, Double rating, Long reviewCount) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.originalPrice = originalPrice;
+        this.unit = unit;
+        this.minOrderQuantity = minOrderQuantity;
+        this.primaryImage = firstImage(imageUrls);
+        this.vendorId = vendorId;
+        this.vendorName = vendorName;
+        this.vendorCity = vendorCity;
+        this.rating = rating;
+        this.reviewCount = reviewCount;
+    }
+
+    private static String firstImage(String imageUrls) {
+        if (imageUrls == null || imageUrls.isBlank()) {
+            return null;
+        }
+        int comma = imageUrls.indexOf(',');
+        return (comma < 0 ? imageUrls : imageUrls.substring(0, comma)).trim();
+    }
+}
@@ -0,0 +1,131 @@
+package com.itech.itech_backend.modules.buyer.dto;
+
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detail-view read model for a buyer product. Built from a product loaded with the
+ * {@code BuyerProductRepository.findDetailById} fetch plan; vendor and category are reduced to
+ * the fields the product page shows instead of serialising the whole rows.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDetailDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Double price;
+    private Double originalPrice;
+    private Double discountPercentage;
+    private String brand;
+    private String model;
+    private String sku;
+    private Integer stock;
+    private Boolean inStock;
+    private Integer minOrderQuantity;
+    private String unit;
+    private String imageUrls;
+    private String specifications;
+    private String metaTitle;
+    private String metaDescription;
+    private String tags;
+    private Boolean featured;
+    private Double gstRate;
+    private Integer viewCount;
+    private Integer orderCount;
+    private Double weight;
+    private Double length;
+    private Double width;
+    private Double height;
+    private Boolean freeShipping;
+    private Double shippingCharge;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private CategoryRef category;
+    private CategoryRef subCategory;
+    private CategoryRef microCategory;
+    private VendorSummary vendor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryRef {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VendorSummary {
+        private Long id;
+        private String name;
+        private String city;
+        private String state;
+        private Boolean verified;
+        private String vendorType;
+    }
+
+    public static ProductDetailDto from(Product product) {
+        ProductDetailDtoBuilder builder = ProductDetailDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .originalPrice(product.getOriginalPrice())
+                .discountPercentage(product.getDiscountPercentage())
+                .brand(product.getBrand())
+                .model(product.getModel())
+                .sku(product.getSku())
+                .stock(product.getStock())
+                .inStock(product.isInStock())
+                .minOrderQuantity(product.getMinOrderQuantity())
+                .unit(product.getUnit())
+                .imageUrls(product.getImageUrls())
+                .specifications(product.getSpecifications())
+                .metaTitle(product.getMetaTitle())
+                .metaDescription(product.getMetaDescription())
+                .tags(product.getTags())
+                .featured(product.isFeatured())
+                .gstRate(product.getGstRate())
+                .viewCount(product.getViewCount())
+                .orderCount(product.getOrderCount())
+                .weight(product.getWeight())
+                .length(product.getLength())
+                .width(product.getWidth())
+                .height(product.getHeight())
+                .freeShipping(product.isFreeShipping())
+                .shippingCharge(product.getShippingCharge())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt());
+
+        if (product.getCategory() != null) {
+            builder.category(new CategoryRef(product.getCategory().getId(), product.getCategory().getName()));
+        }
+        if (product.getMicroCategory() != null) {
+            builder.microCategory(new CategoryRef(product.getMicroCategory().getId(), product.getMicroCategory().getName()));
+            if (product.getMicroCategory().getSubCategory() != null) {
+                builder.subCategory(new CategoryRef(product.getMicroCategory().getSubCategory().getId(),
+                        product.getMicroCategory().getSubCategory().getName()));
+            }
+        }
+        Vendors vendor = product.getVendor();
+        if (vendor != null) {
+            builder.vendor(new VendorSummary(vendor.getId(),
+                    vendor.getBusinessName() != null ? vendor.getBusinessName() : vendor.getName(),
+                    vendor.getCity(), vendor.getState(), vendor.isVerified(),
+                    vendor.getVendorType() != null ? vendor.getVendorType().name() : null));
+        }
+        return builder.build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.itech.itech_backend.modules.buyer.model;
 
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.CreationTimestamp;
@@ -16,6 +19,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.CATEGORY)
 public class Category {
 
     @Id
@@ -47,6 +52,7 @@ public class Category {
     @Column(name = "updated_at", nullable = true)
     private LocalDateTime updatedAt;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.CATEGORY_CHILDREN)
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     @JsonIgnore
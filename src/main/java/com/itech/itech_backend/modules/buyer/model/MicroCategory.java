@@ -1,6 +1,9 @@
 package com.itech.itech_backend.modules.buyer.model;
 
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.CreationTimestamp;
@@ -16,6 +19,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.MICRO_CATEGORY)
 public class MicroCategory {
 
     @Id
@@ -10,7 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity(name = "BuyerProduct")
-@Table(name = "buyer_products")
+@Table(name = "buyer_products", indexes = {
+    @Index(name = "idx_buyer_products_vendor_sku", columnList = "vendor_id, sku", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,34 @@
+package com.itech.itech_backend.modules.buyer.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Tiered quantity pricing for a product: ordering at least {@code minQuantity} units costs
+ * {@code unitPrice} each. The highest break not above the ordered quantity applies; below the
+ * lowest break the product's own price does.
+ */
+@Entity
+@Table(name = "buyer_product_price_breaks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_price_breaks_product_quantity", columnNames = {"product_id", "min_quantity"}),
+        indexes = @Index(name = "idx_price_breaks_product", columnList = "product_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPriceBreak {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "min_quantity", nullable = false)
+    private int minQuantity;
+
+    @Column(nullable = false)
+    private double unitPrice;
+}
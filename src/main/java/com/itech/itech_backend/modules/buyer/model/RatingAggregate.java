@@ -0,0 +1,66 @@
+package com.itech.itech_backend.modules.buyer.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Approved-review totals for one product or vendor: count, sum and a per-star histogram, plus
+ * the average and Bayesian-weighted score derived from them so rating filters and sorts can use
+ * an index. Maintained by {@code RatingAggregateService}.
+ */
+@Entity
+@Table(name = "rating_aggregates")
+@IdClass(RatingAggregate.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingAggregate {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", length = 20)
+    private RatingSubjectType subjectType;
+
+    @Id
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    private long ratingCount;
+
+    private long ratingSum;
+
+    @Column(name = "stars_1")
+    private long stars1;
+
+    @Column(name = "stars_2")
+    private long stars2;
+
+    @Column(name = "stars_3")
+    private long stars3;
+
+    @Column(name = "stars_4")
+    private long stars4;
+
+    @Column(name = "stars_5")
+    private long stars5;
+
+    private double averageRating;
+
+    private double bayesianScore;
+
+    private LocalDateTime updatedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private RatingSubjectType subjectType;
+        private Long subjectId;
+    }
+}
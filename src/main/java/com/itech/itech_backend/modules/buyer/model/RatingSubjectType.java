@@ -0,0 +1,5 @@
+package com.itech.itech_backend.modules.buyer.model;
+
+public enum RatingSubjectType {
+    PRODUCT, VENDOR
+}
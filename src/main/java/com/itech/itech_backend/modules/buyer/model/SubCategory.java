@@ -1,6 +1,9 @@
 package com.itech.itech_backend.modules.buyer.model;
 
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.CreationTimestamp;
@@ -17,6 +20,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.SUB_CATEGORY)
 public class SubCategory {
 
     @Id
@@ -52,6 +57,7 @@ public class SubCategory {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.SUB_CATEGORY_CHILDREN)
     @OneToMany(mappedBy = "subCategory", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     @JsonIgnore
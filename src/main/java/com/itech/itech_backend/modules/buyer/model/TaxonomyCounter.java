@@ -0,0 +1,51 @@
+package com.itech.itech_backend.modules.buyer.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed counts for one taxonomy node, rolled up the tree: a category counts every product
+ * under its sub and micro categories, and its children (sub categories) and descendants (sub
+ * plus micro categories). Maintained by {@code TaxonomyCounterStore}.
+ */
+@Entity
+@Table(name = "taxonomy_counters")
+@IdClass(TaxonomyCounter.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaxonomyCounter {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "node_type", length = 20)
+    private TaxonomyNodeType nodeType;
+
+    @Id
+    @Column(name = "node_id")
+    private Long nodeId;
+
+    private long productCount;
+
+    private long activeProductCount;
+
+    private long childCount;
+
+    private long descendantCount;
+
+    private LocalDateTime updatedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private TaxonomyNodeType nodeType;
+        private Long nodeId;
+    }
+}
@@ -1,10 +1,14 @@
 package com.itech.itech_backend.modules.buyer.repository;
 
 import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -17,11 +21,15 @@ public interface BuyerCategoryRepository extends JpaRepository<Category, Long> {
     Page<Category> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
         String name, String description, Pageable pageable);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findByIsActiveTrue();
     
     Page<Category> findByIsActive(boolean isActive, Pageable pageable);
     
     @Query("SELECT c FROM BuyerCategory c ORDER BY c.displayOrder ASC, c.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findAllOrderByDisplayOrder();
     
     @Query("SELECT COUNT(sc) FROM BuyerSubCategory sc WHERE sc.category.id = :categoryId")
@@ -30,7 +38,24 @@ public interface BuyerCategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT COUNT(p) FROM BuyerProduct p JOIN p.microCategory mc JOIN mc.subCategory sc WHERE sc.category.id = :categoryId")
     long countProductsByCategoryId(@Param("categoryId") Long categoryId);
     
+    /**
+     * A page of categories, each paired with its {@code TaxonomyCounter} row (null if not counted yet)
+     */
+    @Query(value = "SELECT c, t FROM BuyerCategory c LEFT JOIN TaxonomyCounter t " +
+            "ON t.nodeType = com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType.CATEGORY AND t.nodeId = c.id",
+            countQuery = "SELECT COUNT(c) FROM BuyerCategory c")
+    Page<Object[]> findAllWithCounters(Pageable pageable);
+
+    @Query(value = "SELECT c, t FROM BuyerCategory c LEFT JOIN TaxonomyCounter t " +
+            "ON t.nodeType = com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType.CATEGORY AND t.nodeId = c.id " +
+            "WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))",
+            countQuery = "SELECT COUNT(c) FROM BuyerCategory c " +
+            "WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<Object[]> searchWithCounters(@Param("search") String search, Pageable pageable);
+
     @Query("SELECT c FROM BuyerCategory c WHERE c.isActive = true ORDER BY c.displayOrder ASC, c.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findAllActive();
 }
 
@@ -5,17 +5,67 @@ import com.itech.itech_backend.modules.core.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BuyerLeadRepository extends JpaRepository<BuyerLead, Long> {
 
+    // Shared column list for the grouped funnel aggregates below
+    String FUNNEL_COLUMNS =
+            "COUNT(bl) AS total, " +
+            "SUM(CASE WHEN bl.status = 'NEW' THEN 1 ELSE 0 END) AS newLeads, " +
+            "SUM(CASE WHEN bl.status = 'CONTACTED' THEN 1 ELSE 0 END) AS contacted, " +
+            "SUM(CASE WHEN bl.status = 'QUALIFIED' THEN 1 ELSE 0 END) AS qualified, " +
+            "SUM(CASE WHEN bl.status = 'PROPOSAL_SENT' THEN 1 ELSE 0 END) AS proposalSent, " +
+            "SUM(CASE WHEN bl.status = 'CONVERTED' OR bl.converted = true THEN 1 ELSE 0 END) AS converted, " +
+            "SUM(CASE WHEN bl.status = 'CLOSED_LOST' THEN 1 ELSE 0 END) AS closedLost, " +
+            "SUM(CASE WHEN bl.leadScore >= 70 THEN 1 ELSE 0 END) AS highPriority, " +
+            "SUM(CASE WHEN bl.leadScore >= 40 AND bl.leadScore < 70 THEN 1 ELSE 0 END) AS mediumPriority, " +
+            "SUM(CASE WHEN bl.followUpDate <= :now AND bl.status NOT IN ('CONVERTED', 'CLOSED_LOST') THEN 1 ELSE 0 END) AS needingFollowUp, " +
+            "SUM(CASE WHEN bl.lastActivity <= :staleBefore AND bl.status NOT IN ('CONVERTED', 'CLOSED_LOST') THEN 1 ELSE 0 END) AS stale, " +
+            "SUM(COALESCE(bl.leadScore, 0)) AS scoreSum, " +
+            "SUM(CASE WHEN bl.converted = true AND bl.conversionValue IS NOT NULL THEN 1 ELSE 0 END) AS valuedConversions, " +
+            "SUM(CASE WHEN bl.converted = true THEN COALESCE(bl.conversionValue, 0) ELSE 0 END) AS conversionValueSum ";
+
+    /**
+     * One row of a grouped lead funnel aggregate
+     */
+    interface FunnelRow {
+        Object getGroupKey();
+        Long getTotal();
+        Long getNewLeads();
+        Long getContacted();
+        Long getQualified();
+        Long getProposalSent();
+        Long getConverted();
+        Long getClosedLost();
+        Long getHighPriority();
+        Long getMediumPriority();
+        Long getNeedingFollowUp();
+        Long getStale();
+        Long getScoreSum();
+        Long getValuedConversions();
+        Double getConversionValueSum();
+    }
+
+    /**
+     * One day of lead intake
+     */
+    interface DailyRow {
+        LocalDate getDay();
+        Long getTotal();
+        Long getConverted();
+    }
+
     // Find leads by email or phone
     Optional<BuyerLead> findByEmail(String email);
     Optional<BuyerLead> findByEmailOrPhone(String email, String phone);
@@ -128,4 +178,65 @@ public interface BuyerLeadRepository extends JpaRepository<BuyerLead, Long> {
 
     // Add missing repository methods
     Long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    // Funnel per sales rep (null key = unassigned), served by (assigned_sales_rep, status, created_at)
+    @Query("SELECT bl.assignedSalesRep AS groupKey, " + FUNNEL_COLUMNS +
+           "FROM BuyerLead bl WHERE bl.createdAt >= :since GROUP BY bl.assignedSalesRep")
+    List<FunnelRow> aggregateFunnelByRep(@Param("since") LocalDateTime since,
+                                         @Param("now") LocalDateTime now,
+                                         @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT bl.assignedSalesRep AS groupKey, " + FUNNEL_COLUMNS +
+           "FROM BuyerLead bl WHERE bl.assignedSalesRep = :salesRep AND bl.createdAt >= :since " +
+           "GROUP BY bl.assignedSalesRep")
+    List<FunnelRow> aggregateFunnelForRep(@Param("salesRep") String salesRep,
+                                          @Param("since") LocalDateTime since,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Funnel per lead source, served by (source, status, created_at)
+    @Query("SELECT bl.source AS groupKey, " + FUNNEL_COLUMNS +
+           "FROM BuyerLead bl WHERE bl.createdAt >= :since GROUP BY bl.source")
+    List<FunnelRow> aggregateFunnelBySource(@Param("since") LocalDateTime since,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT CAST(bl.createdAt AS LocalDate) AS day, COUNT(bl) AS total, " +
+           "SUM(CASE WHEN bl.status = 'CONVERTED' OR bl.converted = true THEN 1 ELSE 0 END) AS converted " +
+           "FROM BuyerLead bl WHERE bl.createdAt >= :since " +
+           "GROUP BY CAST(bl.createdAt AS LocalDate) ORDER BY CAST(bl.createdAt AS LocalDate)")
+    List<DailyRow> aggregateDaily(@Param("since") LocalDateTime since);
+
+    // Bounded variants of the list queries above
+    @Query("SELECT bl FROM BuyerLead bl WHERE bl.leadScore >= :minScore AND bl.status = 'NEW' ORDER BY bl.leadScore DESC")
+    List<BuyerLead> findHighPriorityLeads(@Param("minScore") Integer minScore, Pageable pageable);
+
+    @Query("SELECT bl FROM BuyerLead bl WHERE bl.priceRangeMin <= :maxPrice AND bl.priceRangeMax >= :minPrice ORDER BY bl.leadScore DESC")
+    List<BuyerLead> findByPriceRangeOverlap(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice, Pageable pageable);
+
+    List<BuyerLead> findAllByOrderByLeadScoreDesc(Pageable pageable);
+
+    // Keyset pages for CSV export
+    @Query("SELECT bl FROM BuyerLead bl WHERE bl.id > :afterId AND bl.createdAt >= :from AND bl.createdAt <= :to " +
+           "AND (:status IS NULL OR bl.status = :status) ORDER BY bl.id")
+    List<BuyerLead> findExportChunk(@Param("afterId") Long afterId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("status") BuyerLead.LeadStatus status,
+                                    Pageable pageable);
+
+    // Re-scoring support
+    @Query("SELECT bl FROM BuyerLead bl WHERE bl.scoreStale = true AND bl.id > :afterId ORDER BY bl.id")
+    List<BuyerLead> findStaleScoreChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Leads flagged again after readAt keep their flag; they are re-scored on the next pass
+    @Modifying
+    @Query("UPDATE BuyerLead bl SET bl.leadScore = :score, bl.scoreStale = false " +
+           "WHERE bl.id IN :ids AND bl.scoreStale = true AND (bl.updatedAt IS NULL OR bl.updatedAt <= :readAt)")
+    int applyScore(@Param("score") Integer score, @Param("ids") Collection<Long> ids,
+                   @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE BuyerLead bl SET bl.scoreStale = true WHERE bl.scoreStale = false AND bl.status NOT IN ('CONVERTED', 'CLOSED_LOST')")
+    int markOpenLeadsStale();
 }
@@ -1,18 +1,23 @@
 package com.itech.itech_backend.modules.buyer.repository;
 
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
 import com.itech.itech_backend.modules.buyer.model.Product;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.buyer.model.MicroCategory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BuyerProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     // Basic finders
@@ -149,5 +154,148 @@ public interface BuyerProductRepository extends JpaRepository<Product, Long>, Jp
     
     @Query("SELECT p FROM BuyerProduct p WHERE p.isActive = true AND p.isApproved = true ORDER BY p.orderCount DESC LIMIT :limit")
     List<Product> findPopularProducts(@Param("limit") int limit);
-}
 
+    // Category names each vendor sells under, for the RFQ capability index
+    interface VendorCapabilityRow {
+        Long getVendorId();
+        String getCategory();
+        String getSubCategory();
+        String getMicroCategory();
+        String getParentCategory();
+    }
+
+    @Query("SELECT DISTINCT p.vendor.id AS vendorId, c.name AS category, s.name AS subCategory, " +
+           "m.name AS microCategory, sc.name AS parentCategory FROM BuyerProduct p " +
+           "LEFT JOIN p.category c LEFT JOIN p.microCategory m LEFT JOIN m.subCategory s LEFT JOIN s.category sc " +
+           "WHERE p.isActive = true AND p.vendor.id IN :vendorIds")
+    List<VendorCapabilityRow> findVendorCapabilities(@Param("vendorIds") java.util.Collection<Long> vendorIds);
+
+    @Query("SELECT DISTINCT p.vendor.id FROM BuyerProduct p WHERE p.updatedAt > :since OR p.createdAt > :since")
+    List<Long> findVendorIdsChangedSince(@Param("since") LocalDateTime since);
+
+    // Precomputed approved-review totals (see RatingAggregateService); alias "ra" is sortable as ra.bayesianScore
+    String RATING_JOIN = "LEFT JOIN RatingAggregate ra ON ra.subjectType = " +
+            "com.itech.itech_backend.modules.buyer.model.RatingSubjectType.PRODUCT AND ra.subjectId = p.id ";
+
+    // Read model for listings: one statement per page, no entity graph is loaded
+    String CARD_SELECT = "SELECT new com.itech.itech_backend.modules.buyer.dto.ProductCardDto(" +
+            "p.id, p.name, p.price, p.originalPrice, p.unit, p.minOrderQuantity, p.imageUrls, " +
+            "v.id, COALESCE(v.businessName, v.name), v.city, ra.averageRating, COALESCE(ra.ratingCount, 0L)) " +
+            "FROM BuyerProduct p JOIN p.vendor v " + RATING_JOIN;
+
+    String SEARCH_FILTER = "WHERE " +
+            "(:query IS NULL OR p.name ILIKE %:query% OR p.description ILIKE %:query%) AND " +
+            "(:categoryId IS NULL OR p.microCategory.subCategory.category.id = :categoryId) AND " +
+            "(:subcategoryId IS NULL OR p.microCategory.subCategory.id = :subcategoryId) AND " +
+            "(:microcategoryId IS NULL OR p.microCategory.id = :microcategoryId) AND " +
+            "(:city IS NULL OR v.city ILIKE %:city%) AND " +
+            "(:state IS NULL OR v.state ILIKE %:state%) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:vendorId IS NULL OR v.id = :vendorId) AND " +
+            "(:isActive IS NULL OR p.isActive = :isActive) AND " +
+            "(:minRating IS NULL OR ra.averageRating >= :minRating)";
+
+    @Query(value = CARD_SELECT + SEARCH_FILTER,
+           countQuery = "SELECT COUNT(p) FROM BuyerProduct p JOIN p.vendor v " + RATING_JOIN + SEARCH_FILTER)
+    Page<ProductCardDto> searchProductCards(@Param("query") String query,
+                                            @Param("categoryId") Long categoryId,
+                                            @Param("subcategoryId") Long subcategoryId,
+                                            @Param("microcategoryId") Long microcategoryId,
+                                            @Param("city") String city,
+                                            @Param("state") String state,
+                                            @Param("minPrice") Double minPrice,
+                                            @Param("maxPrice") Double maxPrice,
+                                            @Param("vendorId") Long vendorId,
+                                            @Param("isActive") Boolean isActive,
+                                            @Param("minRating") Double minRating,
+                                            Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.isFeatured = true AND p.isApproved = true AND p.isActive = true ORDER BY p.createdAt DESC")
+    List<ProductCardDto> findFeaturedProductCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.isApproved = true AND p.isActive = true ORDER BY p.createdAt DESC")
+    List<ProductCardDto> findRecentProductCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.isApproved = true AND p.isActive = true")
+    List<ProductCardDto> findActiveProductCards(Pageable pageable);
+
+    @Query(value = CARD_SELECT + "JOIN p.microCategory mc JOIN mc.subCategory sc WHERE sc.category.id = :categoryId",
+           countQuery = "SELECT COUNT(p) FROM BuyerProduct p JOIN p.microCategory mc JOIN mc.subCategory sc WHERE sc.category.id = :categoryId")
+    Page<ProductCardDto> findProductCardsByCategoryTree(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.category.id = :categoryId AND p.isApproved = true AND p.isActive = true",
+           countQuery = "SELECT COUNT(p) FROM BuyerProduct p WHERE p.category.id = :categoryId AND p.isApproved = true AND p.isActive = true")
+    Page<ProductCardDto> findActiveProductCardsByCategory(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE v.id = :vendorId",
+           countQuery = "SELECT COUNT(p) FROM BuyerProduct p WHERE p.vendor.id = :vendorId")
+    Page<ProductCardDto> findProductCardsByVendor(@Param("vendorId") Long vendorId, Pageable pageable);
+
+    // Storefront homepage: the vendor's live products, featured ones first
+    @Query(CARD_SELECT + "WHERE v.id = :vendorId AND p.isApproved = true AND p.isActive = true " +
+           "ORDER BY p.isFeatured DESC, p.createdAt DESC")
+    List<ProductCardDto> findStorefrontProductCards(@Param("vendorId") Long vendorId, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM BuyerProduct p WHERE p.vendor.id = :vendorId AND p.isApproved = true AND p.isActive = true")
+    long countLiveProductsByVendor(@Param("vendorId") Long vendorId);
+
+    @Query("SELECT DISTINCT p.vendor.id FROM BuyerProduct p WHERE p.updatedAt > :since OR p.createdAt > :since")
+    List<Long> findVendorIdsWithProductsChangedSince(@Param("since") LocalDateTime since);
+
+    @Query(CARD_SELECT + "WHERE p.id <> :productId AND p.isApproved = true AND p.isActive = true AND " +
+           "p.category.id = (SELECT q.category.id FROM BuyerProduct q WHERE q.id = :productId)")
+    List<ProductCardDto> findSimilarProductCardsByCategory(@Param("productId") Long productId, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.id <> :productId AND p.isApproved = true AND p.isActive = true AND " +
+           "v.id = (SELECT q.vendor.id FROM BuyerProduct q WHERE q.id = :productId)")
+    List<ProductCardDto> findSimilarProductCardsByVendor(@Param("productId") Long productId, Pageable pageable);
+
+    // Fetch plan for the product page: product, vendor and the full category path in one statement
+    @EntityGraph(attributePaths = {"category", "microCategory", "microCategory.subCategory",
+            "microCategory.subCategory.category", "vendor"})
+    @Query("SELECT p FROM BuyerProduct p WHERE p.id = :id")
+    Optional<Product> findDetailById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE BuyerProduct p SET p.viewCount = p.viewCount + 1 WHERE p.id = :id")
+    int incrementViewCount(@Param("id") Long id);
+
+    /**
+     * The columns a cart is priced and checked with
+     */
+    interface PriceView {
+        Long getId();
+        String getName();
+        Double getPrice();
+        Double getGstRate();
+        Integer getStock();
+        Integer getMinOrderQuantity();
+        Boolean getActive();
+        Boolean getApproved();
+        Boolean getFreeShipping();
+        Double getShippingCharge();
+        String getImageUrls();
+        Long getVendorId();
+        String getVendorName();
+    }
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.gstRate AS gstRate, p.stock AS stock, " +
+           "p.minOrderQuantity AS minOrderQuantity, p.isActive AS active, p.isApproved AS approved, " +
+           "p.freeShipping AS freeShipping, p.shippingCharge AS shippingCharge, p.imageUrls AS imageUrls, " +
+           "v.id AS vendorId, v.name AS vendorName " +
+           "FROM BuyerProduct p LEFT JOIN p.vendor v WHERE p.id IN :ids")
+    List<PriceView> findPriceViews(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.product.id AS productId, MIN(i.imageUrl) AS imageUrl FROM ProductImage i " +
+           "WHERE i.product.id IN :ids GROUP BY i.product.id")
+    List<Object[]> findFirstImageUrls(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Take stock for an order line; 0 rows means the stock ran out since the cart was checked
+     */
+    @Modifying
+    @Query("UPDATE BuyerProduct p SET p.stock = p.stock - :quantity, p.orderCount = p.orderCount + :quantity " +
+           "WHERE p.id = :id AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -1,10 +1,14 @@
 package com.itech.itech_backend.modules.buyer.repository;
 
 import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -19,9 +23,13 @@ public interface MicroCategoryRepository extends JpaRepository<MicroCategory, Lo
     Page<MicroCategory> findBySubCategoryIdAndNameContainingIgnoreCase(
         Long subCategoryId, String name, Pageable pageable);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<MicroCategory> findBySubCategoryIdAndIsActiveTrue(Long subCategoryId);
     
     @Query("SELECT mc FROM BuyerMicroCategory mc WHERE mc.subCategory.id = :subCategoryId ORDER BY mc.displayOrder ASC, mc.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<MicroCategory> findBySubCategoryIdOrderByDisplayOrder(@Param("subCategoryId") Long subCategoryId);
     
     @Query("SELECT COUNT(p) FROM BuyerProduct p WHERE p.microCategory.id = :microCategoryId")
@@ -0,0 +1,19 @@
+package com.itech.itech_backend.modules.buyer.repository;
+
+import com.itech.itech_backend.modules.buyer.model.ProductPriceBreak;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductPriceBreakRepository extends JpaRepository<ProductPriceBreak, Long> {
+
+    List<ProductPriceBreak> findByProductIdInOrderByProductIdAscMinQuantityAsc(Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductPriceBreak b WHERE b.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,13 @@
+package com.itech.itech_backend.modules.buyer.repository;
+
+import com.itech.itech_backend.modules.buyer.model.RatingAggregate;
+import com.itech.itech_backend.modules.buyer.model.RatingSubjectType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, RatingAggregate.Key> {
+
+    List<RatingAggregate> findBySubjectTypeAndSubjectIdIn(RatingSubjectType subjectType, Collection<Long> subjectIds);
+}
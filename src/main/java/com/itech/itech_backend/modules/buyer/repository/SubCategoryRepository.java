@@ -1,10 +1,14 @@
 package com.itech.itech_backend.modules.buyer.repository;
 
 import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -19,9 +23,13 @@ public interface SubCategoryRepository extends JpaRepository<SubCategory, Long>
     Page<SubCategory> findByCategoryIdAndNameContainingIgnoreCase(
         Long categoryId, String name, Pageable pageable);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<SubCategory> findByCategoryIdAndIsActiveTrue(Long categoryId);
     
     @Query("SELECT sc FROM BuyerSubCategory sc WHERE sc.category.id = :categoryId ORDER BY sc.displayOrder ASC, sc.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<SubCategory> findByCategoryIdOrderByDisplayOrder(@Param("categoryId") Long categoryId);
     
     @Query("SELECT COUNT(mc) FROM BuyerMicroCategory mc WHERE mc.subCategory.id = :subCategoryId")
@@ -0,0 +1,13 @@
+package com.itech.itech_backend.modules.buyer.repository;
+
+import com.itech.itech_backend.modules.buyer.model.TaxonomyCounter;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaxonomyCounterRepository extends JpaRepository<TaxonomyCounter, TaxonomyCounter.Key> {
+
+    List<TaxonomyCounter> findByNodeTypeAndNodeIdIn(TaxonomyNodeType nodeType, Collection<Long> nodeIds);
+}
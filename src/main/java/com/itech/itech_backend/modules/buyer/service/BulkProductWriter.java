@@ -0,0 +1,537 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.shared.httpcache.CacheDomain;
+import com.itech.itech_backend.modules.shared.httpcache.CacheVersionStore;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.StorefrontService;
+import com.itech.itech_backend.modules.vendor.service.VendorEntitlementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bulk product upserts for vendor catalogue imports, written with JDBC batches instead of one
+ * entity save per row.
+ *
+ * Rows are matched to the vendor's existing products by SKU, so sending the same file twice
+ * updates the products instead of duplicating them; (vendor_id, sku) is unique, and a chunk
+ * that loses an insert race to a concurrent import is run again, now updating those products.
+ * Each chunk runs in its own transaction:
+ * one lookup of the chunk's SKUs, one batched UPDATE for the products found and one batched
+ * INSERT for the rest (sent as multi-row INSERTs by the PostgreSQL driver when
+ * {@code reWriteBatchedInserts} is set on the datasource URL). A chunk that fails is replayed
+ * row by row, so a bad row is reported on its own instead of failing its neighbours.
+ *
+ * The writes bypass Hibernate's listeners. Each chunk hands the taxonomy counters the
+ * placements its new, moved and (de)activated products left and took, applied as per-node
+ * deltas once the chunk commits. Once every chunk has run the caches the listeners feed are
+ * invalidated in one go: price snapshots of the updated products, the PRODUCTS cache version,
+ * the vendor storefront homepages and the Spring product caches.
+ */
+@Slf4j
+@Service
+public class BulkProductWriter {
+
+    /**
+     * One product of a bulk upsert, keyed by SKU. Null fields are left as they are on an
+     * existing product; a new product needs at least a name and a price.
+     */
+    public record ProductRow(String sku, String name, String description, Double price, Double originalPrice,
+                             Integer stock, Integer minOrderQuantity, String brand, String unit,
+                             Long categoryId, Long microCategoryId, Double gstRate, Boolean active) {
+
+        /**
+         * This row with {@code later}'s non-null fields applied on top
+         */
+        ProductRow then(ProductRow later) {
+            return new ProductRow(sku,
+                    later.name != null ? later.name : name,
+                    later.description != null ? later.description : description,
+                    later.price != null ? later.price : price,
+                    later.originalPrice != null ? later.originalPrice : originalPrice,
+                    later.stock != null ? later.stock : stock,
+                    later.minOrderQuantity != null ? later.minOrderQuantity : minOrderQuantity,
+                    later.brand != null ? later.brand : brand,
+                    later.unit != null ? later.unit : unit,
+                    later.categoryId != null ? later.categoryId : categoryId,
+                    later.microCategoryId != null ? later.microCategoryId : microCategoryId,
+                    later.gstRate != null ? later.gstRate : gstRate,
+                    later.active != null ? later.active : active);
+        }
+
+        /**
+         * This row as a new product: in stock 0, minimum order 1 and active unless given
+         */
+        ProductRow withDefaults() {
+            return new ProductRow(sku, name, description, price, originalPrice, stock != null ? stock : 0,
+                    minOrderQuantity != null ? minOrderQuantity : 1, brand, unit, categoryId, microCategoryId,
+                    gstRate, active != null ? active : true);
+        }
+    }
+
+    /**
+     * A row that was not written; {@code index} is its position in the request
+     */
+    public record RowError(int index, String sku, String message) {}
+
+    public record BulkResult(int received, int inserted, int updated, List<RowError> errors, long durationMs) {
+
+        public int failed() {
+            return errors.size();
+        }
+
+        public double rowsPerSecond() {
+            return (inserted + updated) * 1000.0 / Math.max(1, durationMs);
+        }
+    }
+
+    private static final String QUOTA_MESSAGE = "Product limit reached for your current package. Please upgrade to add more products";
+
+    // Spring caches holding product lists, cleared after every bulk write
+    private static final List<String> PRODUCT_CACHES = List.of("filteredProducts", "popularProducts");
+
+    private static final String UPDATE_SQL = """
+            UPDATE buyer_products
+               SET name = COALESCE(?, name), description = COALESCE(?, description), price = COALESCE(?, price),
+                   original_price = COALESCE(?, original_price), stock = COALESCE(?, stock),
+                   min_order_quantity = COALESCE(?, min_order_quantity), brand = COALESCE(?, brand),
+                   unit = COALESCE(?, unit), category_id = COALESCE(?, category_id),
+                   micro_category_id = COALESCE(?, micro_category_id), gst_rate = COALESCE(?, gst_rate),
+                   is_active = COALESCE(?, is_active), updated_at = ?
+             WHERE vendor_id = ? AND sku = ?
+            """;
+
+    // New products are approved straight away, as on the single-product path
+    private static final String INSERT_SQL = """
+            INSERT INTO buyer_products
+                (name, description, price, original_price, stock, min_order_quantity, brand, unit, category_id,
+                 micro_category_id, gst_rate, is_active, is_approved, is_featured, view_count, order_count,
+                 free_shipping, updated_at, vendor_id, sku, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, FALSE, 0, 0, FALSE, ?, ?, ?, ?)
+            """;
+
+    private record Pending(int index, String sku, ProductRow row) {
+
+        Pending then(Pending later) {
+            return new Pending(index, sku, row.then(later.row));
+        }
+    }
+
+    private record Existing(Long id, Long categoryId, Long microCategoryId, boolean active) {
+
+        /**
+         * This product with the row's category, micro category and active flag applied
+         */
+        Existing updatedBy(ProductRow row) {
+            return new Existing(id,
+                    row.categoryId() != null ? row.categoryId() : categoryId,
+                    row.microCategoryId() != null ? row.microCategoryId() : microCategoryId,
+                    row.active() != null ? row.active() : active);
+        }
+    }
+
+    private record Parents(Long subCategoryId, Long categoryId) {}
+
+    private record ChunkResult(List<Long> updatedIds, int inserted, int updated, List<RowError> errors) {}
+
+    /**
+     * What a bulk call changed, published to the caches once at the end
+     */
+    private static final class Changes {
+        final Set<Long> productIds = new HashSet<>();
+        final Set<Long> vendorIds = new HashSet<>();
+
+        boolean isEmpty() {
+            return productIds.isEmpty() && vendorIds.isEmpty();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final VendorsRepository vendorsRepository;
+    private final VendorEntitlementService entitlementService;
+    private final ObjectProvider<ProductPriceCatalog> priceCatalog;
+    private final ObjectProvider<CacheVersionStore> cacheVersions;
+    private final ObjectProvider<StorefrontService> storefronts;
+    private final ObjectProvider<TaxonomyCounterStore> taxonomyCounters;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final int chunkSize;
+    private final int maxRows;
+
+    public BulkProductWriter(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             VendorsRepository vendorsRepository,
+                             VendorEntitlementService entitlementService,
+                             ObjectProvider<ProductPriceCatalog> priceCatalog,
+                             ObjectProvider<CacheVersionStore> cacheVersions,
+                             ObjectProvider<StorefrontService> storefronts,
+                             ObjectProvider<TaxonomyCounterStore> taxonomyCounters,
+                             ObjectProvider<CacheManager> cacheManager,
+                             @Value("${products.bulk.chunk-size:1000}") int chunkSize,
+                             @Value("${products.bulk.max-rows:10000}") int maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.vendorsRepository = vendorsRepository;
+        this.entitlementService = entitlementService;
+        this.priceCatalog = priceCatalog;
+        this.cacheVersions = cacheVersions;
+        this.storefronts = storefronts;
+        this.taxonomyCounters = taxonomyCounters;
+        this.cacheManager = cacheManager;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+    }
+
+    // ================ UPSERTS ================
+
+    /**
+     * Insert or patch a vendor's products by SKU. Rows repeating a SKU are merged in request
+     * order. Rows that fail validation or the write are reported; the others are kept.
+     */
+    public BulkResult upsert(Long vendorId, List<ProductRow> rows) {
+        long start = System.currentTimeMillis();
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("At most " + maxRows + " products can be written per request");
+        }
+        if (!vendorsRepository.existsById(vendorId)) {
+            throw new RuntimeException("Vendor not found with id: " + vendorId);
+        }
+
+        List<RowError> errors = new ArrayList<>();
+        Map<String, Pending> bySku = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ProductRow row = rows.get(i);
+            String sku = row != null ? normaliseSku(row.sku()) : null;
+            String problem = sku == null ? "SKU is required" : validate(row);
+            if (problem != null) {
+                errors.add(new RowError(i, row != null ? row.sku() : null, problem));
+                continue;
+            }
+            bySku.merge(sku, new Pending(i, sku, row), Pending::then);
+        }
+
+        Changes changes = new Changes();
+        int inserted = 0;
+        int updated = 0;
+        List<Pending> pending = List.copyOf(bySku.values());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Pending> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            List<ChunkResult> results = new ArrayList<>();
+            try {
+                results.add(writeChunkOrRetry(vendorId, chunk));
+            } catch (RuntimeException e) {
+                log.warn("Bulk product chunk of {} rows failed, replaying row by row: {}", chunk.size(), message(e));
+                for (Pending row : chunk) {
+                    try {
+                        results.add(writeChunkOrRetry(vendorId, List.of(row)));
+                    } catch (RuntimeException rowFailure) {
+                        errors.add(new RowError(row.index(), row.sku(), message(rowFailure)));
+                    }
+                }
+            }
+            for (ChunkResult result : results) {
+                inserted += result.inserted();
+                updated += result.updated();
+                errors.addAll(result.errors());
+                changes.productIds.addAll(result.updatedIds());
+                if (result.inserted() + result.updated() > 0) {
+                    changes.vendorIds.add(vendorId);
+                }
+            }
+        }
+        publish(changes);
+
+        errors.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        long duration = System.currentTimeMillis() - start;
+        log.info("📦 Bulk upsert for vendor {}: {} inserted, {} updated, {} failed in {} ms",
+                vendorId, inserted, updated, errors.size(), duration);
+        return new BulkResult(rows.size(), inserted, updated, List.copyOf(errors), duration);
+    }
+
+    /**
+     * Write a chunk, once more if a SKU it meant to insert was inserted by another import after
+     * the lookup: the second lookup finds that product and the row becomes an update
+     */
+    private ChunkResult writeChunkOrRetry(Long vendorId, List<Pending> chunk) {
+        try {
+            return writeChunk(vendorId, chunk);
+        } catch (DuplicateKeyException e) {
+            log.debug("Bulk product chunk of {} rows lost an insert race, retrying: {}", chunk.size(), message(e));
+            return writeChunk(vendorId, chunk);
+        }
+    }
+
+    private ChunkResult writeChunk(Long vendorId, List<Pending> chunk) {
+        // Quota taken here is handed back by the entitlement service if the chunk rolls back
+        return newTransaction.execute(status -> {
+            Map<String, Existing> existing = lookup(vendorId, chunk);
+            List<RowError> errors = new ArrayList<>();
+            List<Pending> updates = new ArrayList<>();
+            List<Pending> inserts = new ArrayList<>();
+            for (Pending row : chunk) {
+                if (existing.containsKey(row.sku())) {
+                    updates.add(row);
+                } else if (row.row().name() == null || row.row().price() == null) {
+                    errors.add(new RowError(row.index(), row.sku(), "Name and price are required for a new product"));
+                } else {
+                    inserts.add(row);
+                }
+            }
+            if (!inserts.isEmpty()) {
+                if (!entitlementService.tryConsume(vendorId, VendorEntitlementService.Quota.PRODUCTS, inserts.size())) {
+                    inserts.forEach(row -> errors.add(new RowError(row.index(), row.sku(), QUOTA_MESSAGE)));
+                    inserts = List.of();
+                }
+            }
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            update(vendorId, updates, now);
+            insert(vendorId, inserts, now);
+
+            List<Long> updatedIds = new ArrayList<>();
+            List<Existing> left = new ArrayList<>();
+            List<Existing> taken = new ArrayList<>();
+            for (Pending row : updates) {
+                Existing product = existing.get(row.sku());
+                updatedIds.add(product.id());
+                Existing updated = product.updatedBy(row.row());
+                if (!updated.equals(product)) {
+                    left.add(product);
+                    taken.add(updated);
+                }
+            }
+            for (Pending row : inserts) {
+                ProductRow created = row.row().withDefaults();
+                taken.add(new Existing(null, created.categoryId(), created.microCategoryId(), created.active()));
+            }
+            countPlacements(left, taken);
+            return new ChunkResult(updatedIds, inserts.size(), updates.size(), errors);
+        });
+    }
+
+    /**
+     * Queue taxonomy counter deltas for products that left and took a placement; applied when
+     * the chunk's transaction commits
+     */
+    private void countPlacements(List<Existing> left, List<Existing> taken) {
+        TaxonomyCounterStore store = taxonomyCounters.getIfAvailable();
+        if (store == null || (left.isEmpty() && taken.isEmpty())) {
+            return;
+        }
+        Set<Long> microIds = new HashSet<>();
+        left.forEach(product -> microIds.add(product.microCategoryId()));
+        taken.forEach(product -> microIds.add(product.microCategoryId()));
+        microIds.remove(null);
+
+        Map<Long, Parents> parents = new HashMap<>();
+        if (!microIds.isEmpty()) {
+            jdbcTemplate.query("SELECT m.id, m.sub_category_id, s.category_id FROM buyer_micro_category m " +
+                            "LEFT JOIN sub_categories s ON s.id = m.sub_category_id " +
+                            "WHERE m.id IN (" + placeholders(microIds.size()) + ")",
+                    rs -> {
+                        parents.put(rs.getLong("id"), new Parents(rs.getObject("sub_category_id", Long.class),
+                                rs.getObject("category_id", Long.class)));
+                    },
+                    microIds.toArray());
+        }
+        store.productsChanged(placements(left, parents), placements(taken, parents));
+    }
+
+    // Same rules as TaxonomyCounterListener: a product's category is its micro category's, if it has one
+    private static List<TaxonomyCounterStore.Placement> placements(List<Existing> products, Map<Long, Parents> parents) {
+        List<TaxonomyCounterStore.Placement> placements = new ArrayList<>(products.size());
+        for (Existing product : products) {
+            if (product.microCategoryId() == null) {
+                placements.add(new TaxonomyCounterStore.Placement(null, null, product.categoryId(), product.active()));
+            } else {
+                Parents parent = parents.get(product.microCategoryId());
+                Long subCategoryId = parent != null ? parent.subCategoryId() : null;
+                placements.add(new TaxonomyCounterStore.Placement(product.microCategoryId(), subCategoryId,
+                        subCategoryId != null ? parent.categoryId() : product.categoryId(), product.active()));
+            }
+        }
+        return placements;
+    }
+
+    private Map<String, Existing> lookup(Long vendorId, List<Pending> chunk) {
+        List<Object> args = new ArrayList<>(chunk.size() + 1);
+        args.add(vendorId);
+        chunk.forEach(row -> args.add(row.sku()));
+        Map<String, Existing> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, sku, category_id, micro_category_id, is_active FROM buyer_products " +
+                        "WHERE vendor_id = ? AND sku IN (" + placeholders(chunk.size()) + ")",
+                rs -> {
+                    existing.put(rs.getString("sku"), new Existing(rs.getLong("id"), rs.getObject("category_id", Long.class),
+                            rs.getObject("micro_category_id", Long.class), rs.getBoolean("is_active")));
+                },
+                args.toArray());
+        return existing;
+    }
+
+    private void update(Long vendorId, List<Pending> updates, Timestamp now) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, pending) -> {
+            int index = bind(ps, pending.row());
+            ps.setTimestamp(index++, now);
+            ps.setLong(index++, vendorId);
+            ps.setString(index, pending.sku());
+        });
+    }
+
+    private void insert(Long vendorId, List<Pending> inserts, Timestamp now) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, pending) -> {
+            int index = bind(ps, pending.row().withDefaults());
+            ps.setTimestamp(index++, now);
+            ps.setLong(index++, vendorId);
+            ps.setString(index++, pending.sku());
+            ps.setTimestamp(index, now);
+        });
+    }
+
+    /**
+     * Bind a row's fields in the column order shared by both statements; returns the next index
+     */
+    private static int bind(PreparedStatement ps, ProductRow row) throws SQLException {
+        int index = 1;
+        set(ps, index++, row.name(), Types.VARCHAR);
+        set(ps, index++, row.description(), Types.VARCHAR);
+        set(ps, index++, row.price(), Types.DOUBLE);
+        set(ps, index++, row.originalPrice(), Types.DOUBLE);
+        set(ps, index++, row.stock(), Types.INTEGER);
+        set(ps, index++, row.minOrderQuantity(), Types.INTEGER);
+        set(ps, index++, row.brand(), Types.VARCHAR);
+        set(ps, index++, row.unit(), Types.VARCHAR);
+        set(ps, index++, row.categoryId(), Types.BIGINT);
+        set(ps, index++, row.microCategoryId(), Types.BIGINT);
+        set(ps, index++, row.gstRate(), Types.DOUBLE);
+        set(ps, index++, row.active(), Types.BOOLEAN);
+        return index;
+    }
+
+    private static void set(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    // ================ PRICE CHANGES ================
+
+    /**
+     * Multiply the price of the given products, rounded to paise, one statement per chunk
+     */
+    public int scalePrices(Collection<Long> productIds, double multiplier) {
+        if (!(multiplier > 0)) {
+            throw new IllegalArgumentException("Price multiplier must be positive");
+        }
+        List<Long> ids = productIds.stream().filter(Objects::nonNull).distinct().toList();
+        Changes changes = new Changes();
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            String in = placeholders(chunk.size());
+            Integer rows = newTransaction.execute(status -> {
+                changes.vendorIds.addAll(jdbcTemplate.queryForList(
+                        "SELECT DISTINCT vendor_id FROM buyer_products WHERE id IN (" + in + ")", Long.class, chunk.toArray()));
+                List<Object> args = new ArrayList<>(chunk.size() + 2);
+                args.add(multiplier);
+                args.add(new Timestamp(System.currentTimeMillis()));
+                args.addAll(chunk);
+                return jdbcTemplate.update("UPDATE buyer_products SET price = ROUND(CAST(price * ? AS NUMERIC(19, 4)), 2), " +
+                        "updated_at = ? WHERE id IN (" + in + ")", args.toArray());
+            });
+            updated += rows != null ? rows : 0;
+            changes.productIds.addAll(chunk);
+        }
+        publish(changes);
+        log.info("💰 Scaled prices of {} products by {}", updated, multiplier);
+        return updated;
+    }
+
+    // ================ INVALIDATION ================
+
+    private void publish(Changes changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!changes.productIds.isEmpty()) {
+            priceCatalog.ifAvailable(catalog -> catalog.productsChanged(Set.copyOf(changes.productIds)));
+        }
+        cacheVersions.ifAvailable(store -> store.changed(CacheDomain.PRODUCTS));
+        storefronts.ifAvailable(service -> changes.vendorIds.forEach(service::evict));
+        cacheManager.ifAvailable(manager -> PRODUCT_CACHES.forEach(name -> {
+            Cache cache = manager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }));
+    }
+
+    // ================ HELPERS ================
+
+    private static String validate(ProductRow row) {
+        if (row.name() != null && row.name().isBlank()) {
+            return "Name must not be blank";
+        }
+        if (row.price() != null && !(row.price() >= 0)) {
+            return "Price must not be negative";
+        }
+        if (row.originalPrice() != null && !(row.originalPrice() >= 0)) {
+            return "Original price must not be negative";
+        }
+        if (row.stock() != null && row.stock() < 0) {
+            return "Stock must not be negative";
+        }
+        if (row.minOrderQuantity() != null && row.minOrderQuantity() < 1) {
+            return "Minimum order quantity must be at least 1";
+        }
+        if (row.gstRate() != null && !(row.gstRate() >= 0 && row.gstRate() <= 100)) {
+            return "GST rate must be between 0 and 100";
+        }
+        return null;
+    }
+
+    private static String normaliseSku(String sku) {
+        return sku == null || sku.isBlank() ? null : sku.trim();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String message(RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -8,7 +8,10 @@ import com.itech.itech_backend.modules.shared.model.BuyerLead;
 import com.itech.itech_backend.modules.buyer.repository.BuyerLeadRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.itech.itech_backend.modules.buyer.repository.BuyerLeadRepository.DailyRow;
+import com.itech.itech_backend.modules.buyer.repository.BuyerLeadRepository.FunnelRow;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -24,7 +27,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BuyerLeadService {
 
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final int STALE_AFTER_DAYS = 7;
+
     private final BuyerLeadRepository buyerLeadRepository;
+    private final LeadScorer leadScorer;
 
     @Transactional
     public LeadResponseDto createLead(BuyerLeadDto leadDto, String ipAddress, String userAgent) {
@@ -40,7 +47,6 @@ public class BuyerLeadService {
                 .message(leadDto.getMessage())
                 .urgency(leadDto.getUrgency() != null ? BuyerLead.LeadUrgency.valueOf(leadDto.getUrgency()) : BuyerLead.LeadUrgency.MEDIUM)
                 .source(leadDto.getSource() != null ? BuyerLead.LeadSource.valueOf(leadDto.getSource()) : BuyerLead.LeadSource.WEBSITE)
-                .leadScore(calculateInitialLeadScore(leadDto))
                 .status(BuyerLead.LeadStatus.NEW)
                 .ipAddress(ipAddress)
                 .userAgent(userAgent)
@@ -52,6 +58,10 @@ public class BuyerLeadService {
         // Set follow-up date for new leads (24 hours from creation)
         lead.setFollowUpDate(LocalDateTime.now().plusDays(1));
 
+        // Provisional score from the submitted fields; LeadRescoringJob keeps it current
+        lead.setLeadScore(leadScorer.score(lead, lead.getCreatedAt()));
+        lead.setScoreStale(false);
+
         BuyerLead savedLead = buyerLeadRepository.save(lead);
         log.info("Buyer lead created successfully with ID: {}", savedLead.getId());
 
@@ -89,6 +99,7 @@ public class BuyerLeadService {
 
         BuyerLead.LeadStatus oldStatus = lead.getStatus();
         lead.setStatus(BuyerLead.LeadStatus.valueOf(status));
+        lead.setScoreStale(true);
         lead.setUpdatedAt(LocalDateTime.now());
         lead.setLastActivity(LocalDateTime.now());
 
@@ -127,9 +138,8 @@ public class BuyerLeadService {
     }
 
     public List<LeadResponseDto> getHighPriorityLeads(int minScore, int limit) {
-        List<BuyerLead> leads = buyerLeadRepository.findHighPriorityLeads(minScore);
+        List<BuyerLead> leads = buyerLeadRepository.findHighPriorityLeads(minScore, PageRequest.of(0, limit));
         return leads.stream()
-                .limit(limit)
                 .map(this::convertToResponseDto)
                 .collect(Collectors.toList());
     }
@@ -146,141 +156,159 @@ public class BuyerLeadService {
     }
 
     public LeadStatsDto getLeadStats(String salesRep, int days) {
-        LocalDateTime fromDate = LocalDateTime.now().minusDays(days);
-        
-        Long totalLeads = buyerLeadRepository.countLeadsByDateRange(fromDate, LocalDateTime.now());
-        Long convertedLeads = buyerLeadRepository.countConvertedLeads(fromDate);
-        Double avgScore = buyerLeadRepository.averageLeadScore(fromDate);
-        
-        // For salesRep specific stats, we'd need to filter manually or add custom queries
-        List<BuyerLead> repLeads = salesRep != null ? 
-                buyerLeadRepository.findByAssignedSalesRep(salesRep) : 
-                buyerLeadRepository.findAll();
-        
-        long repTotalLeads = repLeads.stream()
-                .filter(lead -> lead.getCreatedAt().isAfter(fromDate))
-                .count();
-        
-        long repConvertedLeads = repLeads.stream()
-                .filter(lead -> lead.getCreatedAt().isAfter(fromDate) && lead.getConverted())
-                .count();
-        
-        long repNewLeads = repLeads.stream()
-                .filter(lead -> lead.getCreatedAt().isAfter(fromDate) && lead.getStatus() == BuyerLead.LeadStatus.NEW)
-                .count();
-
-        return LeadStatsDto.builder()
-                .totalLeads((int) repTotalLeads)
-                .convertedLeads((int) repConvertedLeads)
-                .newLeads((int) repNewLeads)
-                .conversionRate(repTotalLeads > 0 ? (repConvertedLeads * 100.0) / repTotalLeads : 0.0)
-                .averageScore(avgScore != null ? avgScore : 0.0)
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime fromDate = now.minusDays(days);
+        LocalDateTime staleBefore = now.minusDays(STALE_AFTER_DAYS);
+
+        // One grouped aggregate per dimension instead of loading the leads
+        List<FunnelRow> repRows = salesRep != null
+                ? buyerLeadRepository.aggregateFunnelForRep(salesRep, fromDate, now, staleBefore)
+                : buyerLeadRepository.aggregateFunnelByRep(fromDate, now, staleBefore);
+        FunnelTotals totals = FunnelTotals.of(repRows);
+
+        LeadStatsDto.LeadStatsDtoBuilder stats = LeadStatsDto.builder()
+                .totalLeads((int) totals.total)
+                .newLeads((int) totals.newLeads)
+                .contactedLeads((int) totals.contacted)
+                .qualifiedLeads((int) totals.qualified)
+                .convertedLeads((int) totals.converted)
+                .closedLostLeads((int) totals.closedLost)
+                .conversionRate(percentage(totals.converted, totals.total))
+                .contactRate(percentage(totals.total - totals.newLeads, totals.total))
+                .qualificationRate(percentage(totals.qualified + totals.proposalSent + totals.converted, totals.total))
+                .averageScore(totals.total > 0 ? (double) totals.scoreSum / totals.total : 0.0)
+                .averageConversionValue(totals.valuedConversions > 0 ? totals.conversionValueSum / totals.valuedConversions : 0.0)
+                .highPriorityLeads((int) totals.highPriority)
+                .mediumPriorityLeads((int) totals.mediumPriority)
+                .lowPriorityLeads((int) (totals.total - totals.highPriority - totals.mediumPriority))
+                .leadsNeedingFollowUp((int) totals.needingFollowUp)
+                .staleLeads((int) totals.stale)
                 .periodDays(days)
-                .salesRep(salesRep)
-                .build();
+                .salesRep(salesRep);
+
+        if (salesRep == null) {
+            stats.unassignedLeads(repRows.stream()
+                    .filter(row -> row.getGroupKey() == null)
+                    .mapToInt(row -> (int) value(row.getTotal()))
+                    .sum());
+            stats.topPerformingSalesRep(repRows.stream()
+                    .filter(row -> row.getGroupKey() != null)
+                    .max(Comparator.comparingLong(row -> value(row.getConverted())))
+                    .map(row -> row.getGroupKey().toString())
+                    .orElse(null));
+
+            Map<String, Long> bySource = new HashMap<>();
+            String topSource = null;
+            long topSourceConverted = -1;
+            for (FunnelRow row : buyerLeadRepository.aggregateFunnelBySource(fromDate, now, staleBefore)) {
+                String source = String.valueOf(row.getGroupKey());
+                bySource.put(source, value(row.getTotal()));
+                if (value(row.getConverted()) > topSourceConverted) {
+                    topSourceConverted = value(row.getConverted());
+                    topSource = source;
+                }
+            }
+            stats.websiteLeads(bySource.getOrDefault("WEBSITE", 0L).intValue())
+                    .referralLeads(bySource.getOrDefault("REFERRAL", 0L).intValue())
+                    .directLeads(bySource.getOrDefault("DIRECT", 0L).intValue())
+                    .topPerformingSource(topSource);
+
+            // Trend against the previous period of the same length
+            Long previous = buyerLeadRepository.countLeadsByDateRange(fromDate.minusDays(days), fromDate);
+            long previousTotal = previous != null ? previous : 0L;
+            double change = previousTotal > 0
+                    ? ((totals.total - previousTotal) * 100.0) / previousTotal
+                    : (totals.total > 0 ? 100.0 : 0.0);
+            stats.trendPercentage(change)
+                    .trendDirection(change > 5 ? "UP" : change < -5 ? "DOWN" : "STABLE");
+        }
+
+        return stats.build();
     }
 
     public Map<String, Object> getConversionAnalytics(int days) {
-        LocalDateTime fromDate = LocalDateTime.now().minusDays(days);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime fromDate = now.minusDays(days);
         Map<String, Object> analytics = new HashMap<>();
 
-        // Basic conversion funnel data using existing repository methods
-        List<Object[]> statusData = buyerLeadRepository.countLeadsByStatus();
-        Map<String, Long> statusCounts = new HashMap<>();
-        for (Object[] row : statusData) {
-            statusCounts.put(row[0].toString(), (Long) row[1]);
-        }
-        analytics.put("conversionFunnel", statusCounts);
+        List<FunnelRow> repRows = buyerLeadRepository.aggregateFunnelByRep(fromDate, now, now.minusDays(STALE_AFTER_DAYS));
+        FunnelTotals totals = FunnelTotals.of(repRows);
 
-        // Simplified daily trends (would need more complex queries for real implementation)
-        analytics.put("dailyTrends", List.of(
-            Map.of("date", "2024-01-15", "leads", 25, "converted", 3),
-            Map.of("date", "2024-01-16", "leads", 30, "converted", 5),
-            Map.of("date", "2024-01-17", "leads", 22, "converted", 4)
-        ));
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        statusCounts.put("NEW", totals.newLeads);
+        statusCounts.put("CONTACTED", totals.contacted);
+        statusCounts.put("QUALIFIED", totals.qualified);
+        statusCounts.put("PROPOSAL_SENT", totals.proposalSent);
+        statusCounts.put("CONVERTED", totals.converted);
+        statusCounts.put("CLOSED_LOST", totals.closedLost);
+        analytics.put("conversionFunnel", statusCounts);
 
-        // Simplified top reps data
-        analytics.put("topSalesReps", List.of(
-            Map.of("salesRep", "John Doe", "totalLeads", 45, "convertedLeads", 8),
-            Map.of("salesRep", "Jane Smith", "totalLeads", 38, "convertedLeads", 7),
-            Map.of("salesRep", "Mike Wilson", "totalLeads", 42, "convertedLeads", 6)
-        ));
+        List<Map<String, Object>> dailyTrends = new ArrayList<>();
+        for (DailyRow row : buyerLeadRepository.aggregateDaily(fromDate)) {
+            dailyTrends.add(Map.of(
+                    "date", row.getDay().toString(),
+                    "leads", value(row.getTotal()),
+                    "converted", value(row.getConverted())));
+        }
+        analytics.put("dailyTrends", dailyTrends);
+
+        analytics.put("topSalesReps", repRows.stream()
+                .filter(row -> row.getGroupKey() != null)
+                .sorted(Comparator.comparingLong((FunnelRow row) -> value(row.getConverted())).reversed())
+                .limit(10)
+                .map(row -> Map.<String, Object>of(
+                        "salesRep", row.getGroupKey().toString(),
+                        "totalLeads", value(row.getTotal()),
+                        "convertedLeads", value(row.getConverted())))
+                .collect(Collectors.toList()));
 
         return analytics;
     }
 
     public Map<String, Object> getLeadSourcesAnalytics(int days) {
+        LocalDateTime now = LocalDateTime.now();
         Map<String, Object> analytics = new HashMap<>();
 
-        // Lead sources distribution using existing repository method
-        List<Object[]> sourceData = buyerLeadRepository.countLeadsBySource();
         Map<String, Long> sourceCounts = new HashMap<>();
-        for (Object[] row : sourceData) {
-            sourceCounts.put(row[0].toString(), (Long) row[1]);
+        Map<String, Double> conversionRates = new HashMap<>();
+        Map<String, Double> qualityScores = new HashMap<>();
+        for (FunnelRow row : buyerLeadRepository.aggregateFunnelBySource(
+                now.minusDays(days), now, now.minusDays(STALE_AFTER_DAYS))) {
+            String source = String.valueOf(row.getGroupKey());
+            long total = value(row.getTotal());
+            sourceCounts.put(source, total);
+            conversionRates.put(source, percentage(value(row.getConverted()), total));
+            qualityScores.put(source, total > 0 ? (double) value(row.getScoreSum()) / total : 0.0);
         }
         analytics.put("sourceDistribution", sourceCounts);
-
-        // Simplified conversion rates and quality scores
-        analytics.put("sourceConversionRates", Map.of(
-            "WEBSITE", 15.5,
-            "SOCIAL_MEDIA", 12.3,
-            "EMAIL", 18.7,
-            "REFERRAL", 22.1
-        ));
-
-        analytics.put("sourceQualityScores", Map.of(
-            "WEBSITE", 67.5,
-            "SOCIAL_MEDIA", 58.3,
-            "EMAIL", 72.1,
-            "REFERRAL", 78.9
-        ));
+        analytics.put("sourceConversionRates", conversionRates);
+        analytics.put("sourceQualityScores", qualityScores);
 
         return analytics;
     }
 
     public Map<String, Object> getLeadFunnel(int days) {
-        LocalDateTime fromDate = LocalDateTime.now().minusDays(days);
+        LocalDateTime now = LocalDateTime.now();
         Map<String, Object> funnelData = new HashMap<>();
 
-        // Simplified funnel stages using existing methods
-        Long totalLeads = buyerLeadRepository.countLeadsByDateRange(fromDate, LocalDateTime.now());
-        
-        // Get status distribution and calculate funnel stages
-        List<Object[]> statusData = buyerLeadRepository.countLeadsByStatus();
+        FunnelTotals totals = FunnelTotals.of(buyerLeadRepository.aggregateFunnelByRep(
+                now.minusDays(days), now, now.minusDays(STALE_AFTER_DAYS)));
+
         Map<String, Long> funnelStages = new LinkedHashMap<>();
-        
-        funnelStages.put("Total Leads", totalLeads);
-        
-        // Extract counts from status data
-        for (Object[] row : statusData) {
-            String status = row[0].toString();
-            Long count = (Long) row[1];
-            
-            switch (status) {
-                case "CONTACTED":
-                    funnelStages.put("Contacted", count);
-                    break;
-                case "QUALIFIED":
-                    funnelStages.put("Qualified", count);
-                    break;
-                case "PROPOSAL_SENT":
-                    funnelStages.put("Proposal Sent", count);
-                    break;
-                case "CONVERTED":
-                    funnelStages.put("Converted", count);
-                    break;
-            }
-        }
-        
+        funnelStages.put("Total Leads", totals.total);
+        funnelStages.put("Contacted", totals.contacted);
+        funnelStages.put("Qualified", totals.qualified);
+        funnelStages.put("Proposal Sent", totals.proposalSent);
+        funnelStages.put("Converted", totals.converted);
         funnelData.put("stages", funnelStages);
 
         // Calculate conversion rates
         Map<String, Double> conversionRates = new LinkedHashMap<>();
-        if (totalLeads > 0) {
-            conversionRates.put("Contact Rate", (funnelStages.getOrDefault("Contacted", 0L) * 100.0) / totalLeads);
-            conversionRates.put("Qualification Rate", (funnelStages.getOrDefault("Qualified", 0L) * 100.0) / totalLeads);
-            conversionRates.put("Proposal Rate", (funnelStages.getOrDefault("Proposal Sent", 0L) * 100.0) / totalLeads);
-            conversionRates.put("Conversion Rate", (funnelStages.getOrDefault("Converted", 0L) * 100.0) / totalLeads);
+        if (totals.total > 0) {
+            conversionRates.put("Contact Rate", percentage(totals.contacted, totals.total));
+            conversionRates.put("Qualification Rate", percentage(totals.qualified, totals.total));
+            conversionRates.put("Proposal Rate", percentage(totals.proposalSent, totals.total));
+            conversionRates.put("Conversion Rate", percentage(totals.converted, totals.total));
         }
         funnelData.put("conversionRates", conversionRates);
 
@@ -303,40 +331,46 @@ public class BuyerLeadService {
     public String exportLeadsToCSV(String status, String dateFrom, String dateTo) {
         LocalDateTime fromDate = dateFrom != null ? LocalDateTime.parse(dateFrom + "T00:00:00") : LocalDateTime.now().minusDays(30);
         LocalDateTime toDate = dateTo != null ? LocalDateTime.parse(dateTo + "T23:59:59") : LocalDateTime.now();
-
-        // Since findLeadsForExport doesn't exist in current repo, use a simple filter
-        List<BuyerLead> allLeads = buyerLeadRepository.findAll();
-        List<BuyerLead> leads = allLeads.stream()
-                .filter(lead -> lead.getCreatedAt().isAfter(fromDate) && lead.getCreatedAt().isBefore(toDate))
-                .filter(lead -> status == null || lead.getStatus().toString().equals(status))
-                .collect(Collectors.toList());
+        BuyerLead.LeadStatus leadStatus = status != null ? BuyerLead.LeadStatus.valueOf(status) : null;
 
         StringBuilder csv = new StringBuilder();
         csv.append("ID,Name,Email,Phone,Company,Product Interest,Status,Urgency,Source,Lead Score,Assigned Rep,Created At,Last Updated\n");
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-        for (BuyerLead lead : leads) {
-            csv.append(String.format("%d,%s,%s,%s,%s,%s,%s,%s,%s,%d,%s,%s,%s\n",
-                    lead.getId(),
-                    escapeCsv(lead.getName()),
-                    escapeCsv(lead.getEmail()),
-                    escapeCsv(lead.getPhone()),
-                    escapeCsv(lead.getCompany()),
-                    escapeCsv(lead.getSearchQuery()),
-                    escapeCsv(lead.getStatus().toString()),
-                    escapeCsv(lead.getUrgency().toString()),
-                    escapeCsv(lead.getSource().toString()),
-                    lead.getLeadScore(),
-                    escapeCsv(lead.getAssignedSalesRep()),
-                    lead.getCreatedAt().format(formatter),
-                    lead.getUpdatedAt().format(formatter)
-            ));
-        }
+        // Filtered in the database and read in keyset chunks
+        long lastId = 0L;
+        List<BuyerLead> leads;
+        do {
+            leads = buyerLeadRepository.findExportChunk(lastId, fromDate, toDate, leadStatus,
+                    PageRequest.of(0, EXPORT_CHUNK_SIZE));
+            for (BuyerLead lead : leads) {
+                appendCsvRow(csv, lead, formatter);
+                lastId = lead.getId();
+            }
+        } while (leads.size() == EXPORT_CHUNK_SIZE);
 
         return csv.toString();
     }
 
+    private void appendCsvRow(StringBuilder csv, BuyerLead lead, DateTimeFormatter formatter) {
+        csv.append(String.format("%d,%s,%s,%s,%s,%s,%s,%s,%s,%d,%s,%s,%s\n",
+                lead.getId(),
+                escapeCsv(lead.getName()),
+                escapeCsv(lead.getEmail()),
+                escapeCsv(lead.getPhone()),
+                escapeCsv(lead.getCompany()),
+                escapeCsv(lead.getSearchQuery()),
+                escapeCsv(lead.getStatus().toString()),
+                escapeCsv(lead.getUrgency().toString()),
+                escapeCsv(lead.getSource().toString()),
+                lead.getLeadScore(),
+                escapeCsv(lead.getAssignedSalesRep()),
+                lead.getCreatedAt().format(formatter),
+                lead.getUpdatedAt() != null ? lead.getUpdatedAt().format(formatter) : ""
+        ));
+    }
+
     public List<Map<String, Object>> getLeadTimeline(Long id) {
         BuyerLead lead = buyerLeadRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lead not found with ID: " + id));
@@ -371,7 +405,10 @@ public class BuyerLeadService {
                 .orElseThrow(() -> new RuntimeException("Lead not found with ID: " + id));
 
         int oldScore = lead.getLeadScore();
+        // Kept as an adjustment so the re-scorer preserves the manual correction
+        lead.setScoreAdjustment(score - leadScorer.baseScore(lead, LocalDateTime.now()));
         lead.setLeadScore(score);
+        lead.setScoreStale(false);
         lead.setUpdatedAt(LocalDateTime.now());
         lead.setLastActivity(LocalDateTime.now());
 
@@ -397,6 +434,7 @@ public class BuyerLeadService {
         for (BuyerLead lead : leads) {
             if (status != null) {
                 lead.setStatus(BuyerLead.LeadStatus.valueOf(status));
+                lead.setScoreStale(true);
             }
             if (assignedRep != null) {
                 lead.setAssignedSalesRep(assignedRep);
@@ -435,6 +473,7 @@ public class BuyerLeadService {
         String newNotes = currentNotes + "\n[" + LocalDateTime.now() + "] " + interactionType + ": " + 
                         description + (performedBy != null ? " (by " + performedBy + ")" : "");
         lead.setNotes(newNotes);
+        lead.setScoreStale(true);
         lead.setUpdatedAt(LocalDateTime.now());
         lead.setLastActivity(LocalDateTime.now());
 
@@ -456,16 +495,10 @@ public class BuyerLeadService {
         // Use price range query if available, otherwise get high-scoring leads
         List<BuyerLead> leads;
         try {
-            leads = buyerLeadRepository.findByPriceRangeOverlap(minPrice, maxPrice)
-                    .stream()
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            leads = buyerLeadRepository.findByPriceRangeOverlap(minPrice, maxPrice, PageRequest.of(0, limit));
         } catch (Exception e) {
             // Fallback to high-scoring leads
-            leads = buyerLeadRepository.findAll().stream()
-                    .sorted((a, b) -> Integer.compare(b.getLeadScore(), a.getLeadScore()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            leads = buyerLeadRepository.findAllByOrderByLeadScoreDesc(PageRequest.of(0, limit));
         }
         return leads.stream().map(this::convertToResponseDto).collect(Collectors.toList());
     }
@@ -506,48 +539,21 @@ public class BuyerLeadService {
         );
         
         if (!metricsData.isEmpty()) {
-            Object[] data = metricsData.get(0);
-            metrics.put("highPriorityLeads", 15); // Simplified
-            metrics.put("unassignedLeads", 8);    // Simplified  
-            metrics.put("recentActivity", 23);    // Simplified
+            LocalDateTime now = LocalDateTime.now();
+            List<FunnelRow> repRows = buyerLeadRepository.aggregateFunnelByRep(
+                    now.minusDays(30), now, now.minusDays(STALE_AFTER_DAYS));
+            FunnelTotals totals = FunnelTotals.of(repRows);
+            metrics.put("highPriorityLeads", totals.highPriority);
+            metrics.put("unassignedLeads", repRows.stream()
+                    .filter(row -> row.getGroupKey() == null)
+                    .mapToLong(row -> value(row.getTotal()))
+                    .sum());
+            metrics.put("recentActivity", totals.total - totals.stale);
         }
 
         return metrics;
     }
 
-    private int calculateInitialLeadScore(BuyerLeadDto leadDto) {
-        int score = 50; // Base score
-
-        // Company provided
-        if (leadDto.getCompany() != null && !leadDto.getCompany().trim().isEmpty()) {
-            score += 10;
-        }
-
-        // Phone provided
-        if (leadDto.getPhone() != null && !leadDto.getPhone().trim().isEmpty()) {
-            score += 15;
-        }
-
-        // Detailed message
-        if (leadDto.getMessage() != null && leadDto.getMessage().length() > 100) {
-            score += 10;
-        }
-
-        // Urgency level
-        if ("HIGH".equals(leadDto.getUrgency())) {
-            score += 20;
-        } else if ("MEDIUM".equals(leadDto.getUrgency())) {
-            score += 10;
-        }
-
-        // Specific product interest
-        if (leadDto.getProductInterest() != null && !leadDto.getProductInterest().trim().isEmpty()) {
-            score += 5;
-        }
-
-        return Math.min(score, 100); // Cap at 100
-    }
-
     private LeadResponseDto convertToResponseDto(BuyerLead lead) {
         return LeadResponseDto.builder()
                 .id(lead.getId())
@@ -579,5 +585,43 @@ public class BuyerLeadService {
         }
         return value;
     }
+
+    private static long value(Long count) {
+        return count != null ? count : 0L;
+    }
+
+    private static double percentage(long part, long total) {
+        return total > 0 ? (part * 100.0) / total : 0.0;
+    }
+
+    /**
+     * Sum of grouped funnel rows
+     */
+    private static final class FunnelTotals {
+        long total, newLeads, contacted, qualified, proposalSent, converted, closedLost;
+        long highPriority, mediumPriority, needingFollowUp, stale, scoreSum, valuedConversions;
+        double conversionValueSum;
+
+        static FunnelTotals of(List<FunnelRow> rows) {
+            FunnelTotals totals = new FunnelTotals();
+            for (FunnelRow row : rows) {
+                totals.total += value(row.getTotal());
+                totals.newLeads += value(row.getNewLeads());
+                totals.contacted += value(row.getContacted());
+                totals.qualified += value(row.getQualified());
+                totals.proposalSent += value(row.getProposalSent());
+                totals.converted += value(row.getConverted());
+                totals.closedLost += value(row.getClosedLost());
+                totals.highPriority += value(row.getHighPriority());
+                totals.mediumPriority += value(row.getMediumPriority());
+                totals.needingFollowUp += value(row.getNeedingFollowUp());
+                totals.stale += value(row.getStale());
+                totals.scoreSum += value(row.getScoreSum());
+                totals.valuedConversions += value(row.getValuedConversions());
+                totals.conversionValueSum += row.getConversionValueSum() != null ? row.getConversionValueSum() : 0.0;
+            }
+            return totals;
+        }
+    }
 }
 
@@ -0,0 +1,602 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.itech.itech_backend.modules.buyer.service.ProductPriceCatalog.PriceSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Active buyer carts, held in memory per user and written to {@code cart}/{@code cart_item}
+ * behind the requests that change them.
+ *
+ * A cart is loaded once (one query) into a bounded cache and then changed in memory; adding a
+ * product whose price snapshot is cached needs no database round trip. Every change marks the
+ * cart dirty, and a scheduled flush rewrites the items of dirty carts in batches. Dirty carts
+ * stay reachable until they are written, even if the cache evicts them, so a cart that comes
+ * back is the unflushed one. Carts are read from the database outside the cache's locks and the
+ * cart's monitor, so a slow query never pins the threads waiting on them. A clean cart that is
+ * evicted or replaced while a change holds it is retired, and the change retries on the cart the
+ * cache holds now.
+ *
+ * Carts are priced from {@link ProductPriceCatalog} snapshots, with quantity breaks, GST per
+ * product and the shipping rules checkout has always used. The last quote is kept with the
+ * snapshots it was priced from and reused while neither the cart nor those snapshots change.
+ * {@link #checkout} reloads the cart's products in one query and re-checks and re-prices only
+ * the lines whose product changed.
+ *
+ * {@code cart.updated_at} is the cart's version. A flush writes a cart only if its row still
+ * carries the version this node loaded or last wrote. If another node wrote the cart in between,
+ * this node's copy and its unwritten changes are discarded and the cart is reloaded, so the first
+ * write wins and newer edits are never overwritten. Checkout compares the version first and
+ * reloads a cart that another node has changed. Changes of a node that dies before its flush are
+ * lost.
+ */
+@Service
+@Slf4j
+public class CartEngine {
+
+    /**
+     * Orders above this subtotal ship free
+     */
+    public static final double FREE_SHIPPING_ABOVE = 500.0;
+
+    private static final double DEFAULT_SHIPPING_CHARGE = 50.0;
+
+    public record PricedLine(PriceSnapshot product, int quantity, double unitPrice, double subtotal,
+                             double tax, LocalDateTime addedAt) {}
+
+    public record CartQuote(Long cartId, Long userId, List<PricedLine> lines, double subtotal, double shipping,
+                            double tax, double grandTotal, int totalItems) {
+
+        public boolean isEmpty() {
+            return lines.isEmpty();
+        }
+    }
+
+    /**
+     * A quote re-checked against the database; {@code repricedProducts} lists the lines whose
+     * product had changed since the cart was last priced
+     */
+    public record CheckoutQuote(CartQuote quote, List<Long> repricedProducts) {}
+
+    private static final String LOAD_SQL = """
+            SELECT c.id AS cart_id, c.updated_at AS cart_updated_at, i.product_id, i.quantity, i.added_at
+              FROM cart c LEFT JOIN cart_item i ON i.cart_id = c.id
+             WHERE c.user_id = ?
+             ORDER BY i.added_at, i.id
+            """;
+
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO cart_item (cart_id, product_id, quantity, price, added_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CLAIM_SQL = "UPDATE cart SET updated_at = ? WHERE id = ? AND updated_at = ?";
+
+    private static final String CLAIM_UNVERSIONED_SQL = "UPDATE cart SET updated_at = ? WHERE id = ? AND updated_at IS NULL";
+
+    private final ProductPriceCatalog catalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Cache<Long, CartState> carts;
+    // Carts changed since their last write; holds them across eviction until the flush
+    private final Map<Long, CartState> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+    public CartEngine(ProductPriceCatalog catalog,
+                      JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${cart.engine.max-carts:100000}") long maxCarts,
+                      @Value("${cart.engine.idle-minutes:30}") long idleMinutes,
+                      @Value("${cart.engine.batch-size:200}") int batchSize) {
+        this.catalog = catalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .evictionListener((Long userId, CartState state, RemovalCause cause) -> retireIfClean(state))
+                .build();
+    }
+
+    // ================ CHANGES ================
+
+    public CartQuote add(Long userId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        PriceSnapshot product = catalog.get(productId);
+        if (product == null) {
+            throw new RuntimeException("Product not found");
+        }
+        if (!product.canOrder(quantity)) {
+            throw new RuntimeException("Product is not available for order or insufficient stock");
+        }
+        return change(userId, state -> {
+            Line line = state.lines.get(productId);
+            int newQuantity = (line != null ? line.quantity : 0) + quantity;
+            if (!product.canOrder(newQuantity)) {
+                throw new RuntimeException("Cannot add more items. Insufficient stock or exceeds maximum order limit");
+            }
+            state.lines.put(productId, new Line(newQuantity, line != null ? line.addedAt : LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * Set a line's quantity; zero or less removes it
+     */
+    public CartQuote update(Long userId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            return remove(userId, productId);
+        }
+        PriceSnapshot product = catalog.get(productId);
+        return change(userId, state -> {
+            Line line = state.lines.get(productId);
+            if (line == null) {
+                throw new RuntimeException("Cart item not found");
+            }
+            if (product == null || !product.canOrder(quantity)) {
+                throw new RuntimeException("Invalid quantity or insufficient stock");
+            }
+            state.lines.put(productId, new Line(quantity, line.addedAt));
+        });
+    }
+
+    public CartQuote remove(Long userId, Long productId) {
+        return change(userId, state -> {
+            if (state.lines.remove(productId) == null) {
+                throw new RuntimeException("Cart item not found");
+            }
+        });
+    }
+
+    /**
+     * Empty the cart, once the current transaction commits if there is one (an order placed
+     * from the cart must not lose it if the order rolls back)
+     */
+    public void clear(Long userId) {
+        Runnable clear = () -> change(userId, state -> state.lines.clear());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear.run();
+                }
+            });
+        } else {
+            clear.run();
+        }
+    }
+
+    private CartQuote change(Long userId, java.util.function.Consumer<CartState> mutation) {
+        while (true) {
+            CartState current = state(userId);
+            synchronized (current) {
+                if (current.retired) {
+                    continue;
+                }
+                mutation.accept(current);
+                current.version++;
+                current.quote = null;
+                dirty.put(userId, current);
+            }
+            return quote(current);
+        }
+    }
+
+    // ================ PRICING ================
+
+    public CartQuote quote(Long userId) {
+        return quote(state(userId));
+    }
+
+    /**
+     * Re-check the cart against the database before an order is placed. Lines whose product
+     * still prices the same keep their price; the others are re-checked and re-priced.
+     *
+     * @throws RuntimeException if the cart is empty or a changed product can no longer be
+     *                          ordered in the cart's quantity
+     */
+    public CheckoutQuote checkout(Long userId) {
+        CartState state = current(userId);
+        Map<Long, Line> lines;
+        Map<Long, PriceSnapshot> pricedWith;
+        synchronized (state) {
+            lines = new LinkedHashMap<>(state.lines);
+            pricedWith = state.quote != null ? state.pricedWith : Map.of();
+        }
+        if (lines.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+        Map<Long, PriceSnapshot> fresh = catalog.fresh(lines.keySet());
+        List<Long> repriced = new ArrayList<>();
+        for (Map.Entry<Long, Line> entry : lines.entrySet()) {
+            PriceSnapshot before = pricedWith.get(entry.getKey());
+            PriceSnapshot now = fresh.get(entry.getKey());
+            int quantity = entry.getValue().quantity;
+            if (before != null && before.pricesLike(now, quantity)) {
+                continue;
+            }
+            repriced.add(entry.getKey());
+            if (now == null || !now.canOrder(quantity)) {
+                String name = now != null ? now.name() : before != null ? before.name() : "#" + entry.getKey();
+                throw new RuntimeException("Product " + name + " is not available in required quantity");
+            }
+        }
+        if (!repriced.isEmpty()) {
+            log.info("🛒 Checkout for user {} re-priced {} of {} cart lines", userId, repriced.size(), lines.size());
+        }
+        return new CheckoutQuote(price(state.cartId, userId, lines, fresh), repriced);
+    }
+
+    private CartQuote quote(CartState state) {
+        Map<Long, Line> lines;
+        CartQuote memo;
+        Map<Long, PriceSnapshot> memoSnapshots;
+        long version;
+        synchronized (state) {
+            lines = new LinkedHashMap<>(state.lines);
+            memo = state.quote;
+            memoSnapshots = state.pricedWith;
+            version = state.version;
+        }
+        Map<Long, PriceSnapshot> snapshots = catalog.getAll(lines.keySet());
+        if (memo != null && sameSnapshots(memoSnapshots, snapshots)) {
+            return memo;
+        }
+        CartQuote quote = price(state.cartId, state.userId, lines, snapshots);
+        synchronized (state) {
+            if (state.version == version) {
+                state.quote = quote;
+                state.pricedWith = snapshots;
+            }
+        }
+        return quote;
+    }
+
+    private CartQuote price(Long cartId, Long userId, Map<Long, Line> lines, Map<Long, PriceSnapshot> snapshots) {
+        List<PricedLine> priced = new ArrayList<>(lines.size());
+        double subtotal = 0;
+        double tax = 0;
+        double shipping = 0;
+        int totalItems = 0;
+        for (Map.Entry<Long, Line> entry : lines.entrySet()) {
+            PriceSnapshot product = snapshots.get(entry.getKey());
+            if (product == null) {
+                // Deleted since it was added; dropped from the quote, and from the cart on checkout
+                continue;
+            }
+            int quantity = entry.getValue().quantity;
+            double unitPrice = product.unitPrice(quantity);
+            double lineSubtotal = unitPrice * quantity;
+            double lineTax = lineSubtotal * product.gstRate() / 100.0;
+            priced.add(new PricedLine(product, quantity, unitPrice, lineSubtotal, lineTax, entry.getValue().addedAt));
+            subtotal += lineSubtotal;
+            tax += lineTax;
+            totalItems += quantity;
+            if (!product.freeShipping()) {
+                double charge = product.shippingCharge() != null ? product.shippingCharge() : DEFAULT_SHIPPING_CHARGE;
+                shipping += charge * quantity;
+            }
+        }
+        if (subtotal > FREE_SHIPPING_ABOVE) {
+            shipping = 0;
+        }
+        return new CartQuote(cartId, userId, List.copyOf(priced), subtotal, shipping, tax,
+                subtotal + shipping + tax, totalItems);
+    }
+
+    private static boolean sameSnapshots(Map<Long, PriceSnapshot> priced, Map<Long, PriceSnapshot> current) {
+        if (priced == null || priced.size() != current.size()) {
+            return false;
+        }
+        for (Map.Entry<Long, PriceSnapshot> entry : current.entrySet()) {
+            // Snapshots are replaced, never changed, so identity tells whether one was reloaded
+            if (priced.get(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ================ LOAD & FLUSH ================
+
+    /**
+     * The cart the cache holds for the user, loading it on a miss. A load runs outside the cache's
+     * locks, so two threads may load the same cart; the first one cached wins.
+     */
+    private CartState state(Long userId) {
+        while (true) {
+            CartState cached = carts.getIfPresent(userId);
+            if (cached == null) {
+                CartState loaded = load(userId);
+                cached = carts.asMap().putIfAbsent(userId, loaded);
+                if (cached == null) {
+                    cached = loaded;
+                }
+            }
+            if (!cached.retired) {
+                return cached;
+            }
+            carts.asMap().remove(userId, cached);
+        }
+    }
+
+    /**
+     * The user's cart, reloaded if another node has written it since this node loaded or wrote it
+     */
+    private CartState current(Long userId) {
+        CartState state = state(userId);
+        List<Timestamp> stored = jdbcTemplate.queryForList("SELECT updated_at FROM cart WHERE user_id = ?",
+                Timestamp.class, userId);
+        Long cartId;
+        Timestamp loadedVersion;
+        synchronized (state) {
+            cartId = state.cartId;
+            loadedVersion = state.updatedAt;
+        }
+        boolean unchanged = cartId == null ? stored.isEmpty()
+                : stored.size() == 1 && Objects.equals(stored.get(0), loadedVersion);
+        if (unchanged) {
+            return state;
+        }
+        log.info("🛒 Cart of user {} was changed on another node; reloading it for checkout", userId);
+        discard(state);
+        return state(userId);
+    }
+
+    private CartState load(Long userId) {
+        CartState unflushed = dirty.get(userId);
+        if (unflushed != null) {
+            return unflushed;
+        }
+        CartState state = new CartState(userId);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            state.cartId = rs.getLong("cart_id");
+            state.updatedAt = rs.getTimestamp("cart_updated_at");
+            long productId = rs.getLong("product_id");
+            if (!rs.wasNull()) {
+                Timestamp addedAt = rs.getTimestamp("added_at");
+                state.lines.put(productId, new Line(rs.getInt("quantity"),
+                        addedAt != null ? addedAt.toLocalDateTime() : LocalDateTime.now()));
+            }
+        }, userId);
+        return state;
+    }
+
+    // A clean cart that leaves the cache is retired so a change still holding it retries on a
+    // fresh copy; a dirty one stays current through the dirty map until it is written
+    private void retireIfClean(CartState state) {
+        if (state != null) {
+            synchronized (state) {
+                if (dirty.get(state.userId) != state) {
+                    state.retired = true;
+                }
+            }
+        }
+    }
+
+    // Drop this node's copy of the cart and its unwritten changes; the next access reloads it
+    private void discard(CartState state) {
+        synchronized (state) {
+            state.retired = true;
+            dirty.remove(state.userId, state);
+        }
+        carts.asMap().remove(state.userId, state);
+    }
+
+    /**
+     * Write dirty carts: each cart's items are replaced in one transaction per batch
+     */
+    @Scheduled(fixedDelayString = "${cart.engine.flush-interval-ms:2000}")
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<CartState> pending = new ArrayList<>(dirty.values());
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                write(pending.subList(from, Math.min(from + batchSize, pending.size())));
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Could not flush carts on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Carts changed and not yet written
+     */
+    public int pendingCount() {
+        return dirty.size();
+    }
+
+    private void write(List<CartState> batch) {
+        List<CartImage> images = new ArrayList<>(batch.size());
+        for (CartState state : batch) {
+            synchronized (state) {
+                images.add(new CartImage(state, state.cartId, state.updatedAt, state.version,
+                        new LinkedHashMap<>(state.lines)));
+            }
+        }
+        try {
+            written(images, writeImages(images));
+        } catch (RuntimeException e) {
+            if (images.size() == 1) {
+                failed(images.get(0), e);
+                return;
+            }
+            // One bad cart must not hold back the rest of its batch
+            log.warn("Could not write {} carts together, writing them one by one: {}", images.size(), e.getMessage());
+            for (CartImage image : images) {
+                try {
+                    written(List.of(image), writeImages(List.of(image)));
+                } catch (RuntimeException single) {
+                    failed(image, single);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the carts whose row still has the version they were based on; the result maps each
+     * written cart to its row, and each cart another node wrote in the meantime to null
+     */
+    private Map<CartState, Stored> writeImages(List<CartImage> images) {
+        Map<Long, PriceSnapshot> snapshots = catalog.getAll(images.stream()
+                .flatMap(image -> image.lines().keySet().stream()).distinct().toList());
+        Map<CartState, Stored> stored = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            long nowMillis = System.currentTimeMillis();
+            Timestamp now = new Timestamp(nowMillis);
+            List<Object[]> deletes = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (CartImage image : images) {
+                Stored row = claim(image, nowMillis);
+                stored.put(image.state(), row);
+                if (row == null) {
+                    continue;
+                }
+                deletes.add(new Object[]{row.cartId()});
+                image.lines().forEach((productId, line) -> {
+                    PriceSnapshot product = snapshots.get(productId);
+                    if (product != null) {
+                        inserts.add(new Object[]{row.cartId(), productId, line.quantity, product.unitPrice(line.quantity),
+                                Timestamp.valueOf(line.addedAt), now});
+                    }
+                });
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM cart_item WHERE cart_id = ?", deletes);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, inserts);
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Move the cart row to a new version if it still has the image's version, creating the row
+     * for a cart that has none; null if another node got there first
+     */
+    private Stored claim(CartImage image, long nowMillis) {
+        Timestamp base = image.updatedAt();
+        // Strictly after the base, so two writes in one millisecond still differ
+        Timestamp version = new Timestamp(base != null ? Math.max(nowMillis, base.getTime() + 1) : nowMillis);
+        if (image.cartId() == null) {
+            Long userId = image.state().userId;
+            if (!jdbcTemplate.queryForList("SELECT id FROM cart WHERE user_id = ?", Long.class, userId).isEmpty()) {
+                return null;
+            }
+            jdbcTemplate.update("INSERT INTO cart (user_id, created_at, updated_at) VALUES (?, ?, ?)", userId, version, version);
+            return new Stored(jdbcTemplate.queryForObject("SELECT id FROM cart WHERE user_id = ?", Long.class, userId), version);
+        }
+        int claimed = base != null
+                ? jdbcTemplate.update(CLAIM_SQL, version, image.cartId(), base)
+                : jdbcTemplate.update(CLAIM_UNVERSIONED_SQL, version, image.cartId());
+        if (claimed == 0) {
+            return null;
+        }
+        // The column may store less precision than the JVM clock; keep exactly what it holds
+        return new Stored(image.cartId(), jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM cart WHERE id = ?", Timestamp.class, image.cartId()));
+    }
+
+    private void written(List<CartImage> images, Map<CartState, Stored> stored) {
+        int conflicts = 0;
+        for (CartImage image : images) {
+            CartState state = image.state();
+            Stored row = stored.get(state);
+            if (row == null) {
+                conflicts++;
+                log.warn("Cart of user {} was written on another node since it was loaded here; "
+                        + "discarding this node's copy", state.userId);
+                discard(state);
+                continue;
+            }
+            synchronized (state) {
+                state.cartId = row.cartId();
+                state.updatedAt = row.updatedAt();
+                if (state.version == image.version()) {
+                    dirty.remove(state.userId, state);
+                    // Evicted while dirty: nothing else will retire it once it leaves the dirty map
+                    if (carts.asMap().get(state.userId) != state) {
+                        state.retired = true;
+                    }
+                }
+            }
+        }
+        log.debug("Wrote {} carts ({} superseded by another node)", images.size() - conflicts, conflicts);
+    }
+
+    private void failed(CartImage image, RuntimeException e) {
+        CartState state = image.state();
+        if (e instanceof DataIntegrityViolationException) {
+            // The user or its cart row is gone; retrying cannot succeed
+            log.warn("Dropping cart of user {} that can no longer be written: {}", state.userId, e.getMessage());
+            discard(state);
+        } else {
+            log.warn("Could not write cart of user {}, will retry: {}", state.userId, e.getMessage());
+        }
+    }
+
+    private record Line(int quantity, LocalDateTime addedAt) {}
+
+    private record CartImage(CartState state, Long cartId, Timestamp updatedAt, long version, Map<Long, Line> lines) {}
+
+    private record Stored(Long cartId, Timestamp updatedAt) {}
+
+    /**
+     * One user's cart; guarded by its own monitor
+     */
+    private static final class CartState {
+        final Long userId;
+        final Map<Long, Line> lines = new LinkedHashMap<>();
+        Long cartId;
+        // cart.updated_at as loaded or last written: the version a flush must find to write
+        Timestamp updatedAt;
+        long version;
+        // Left the cache while clean, or discarded; changes retry on the current cart
+        volatile boolean retired;
+        CartQuote quote;
+        Map<Long, PriceSnapshot> pricedWith;
+
+        CartState(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -2,175 +2,79 @@ package com.itech.itech_backend.modules.buyer.service;
 
 import com.itech.itech_backend.modules.shared.dto.AddToCartDto;
 import com.itech.itech_backend.modules.shared.dto.CartDto;
-import com.itech.itech_backend.modules.buyer.model.*;
-import com.itech.itech_backend.modules.core.model.User;
-import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
-import com.itech.itech_backend.modules.buyer.repository.CartRepository;
-import com.itech.itech_backend.modules.buyer.repository.CartItemRepository;
-import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.buyer.service.CartEngine.CartQuote;
+import com.itech.itech_backend.modules.buyer.service.CartEngine.PricedLine;
+import com.itech.itech_backend.modules.buyer.service.ProductPriceCatalog.PriceSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * Cart endpoints over {@link CartEngine}. Carts live in memory and are written behind, so these
+ * methods do not open transactions. Cart items are identified by their product id.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class CartService {
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
-    private final BuyerProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final CartEngine cartEngine;
 
     public CartDto getUserCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        return convertToDto(cart);
+        return convertToDto(cartEngine.quote(userId));
     }
 
     public CartDto addToCart(Long userId, AddToCartDto addToCartDto) {
         log.info("Adding product {} to cart for user {}", addToCartDto.getProductId(), userId);
-        
-        // Validate product
-        Product product = productRepository.findById(addToCartDto.getProductId())
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        if (!product.canOrder(addToCartDto.getQuantity())) {
-            throw new RuntimeException("Product is not available for order or insufficient stock");
-        }
-        
-        Cart cart = getOrCreateCart(userId);
-        
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartAndProduct(cart, product);
-        
-        if (existingItem.isPresent()) {
-            // Update quantity
-            CartItem item = existingItem.get();
-            int newQuantity = item.getQuantity() + addToCartDto.getQuantity();
-            
-            if (!product.canOrder(newQuantity)) {
-                throw new RuntimeException("Cannot add more items. Insufficient stock or exceeds maximum order limit");
-            }
-            
-            item.setQuantity(newQuantity);
-            cartItemRepository.save(item);
-        } else {
-            // Create new cart item
-            CartItem cartItem = CartItem.builder()
-                    .cart(cart)
-                    .product(product)
-                    .quantity(addToCartDto.getQuantity())
-                    .price(product.getPrice())
-                    .build();
-            
-            cartItemRepository.save(cartItem);
-        }
-        
-        return convertToDto(cart);
+        return convertToDto(cartEngine.add(userId, addToCartDto.getProductId(), addToCartDto.getQuantity()));
     }
 
     public CartDto updateCartItem(Long userId, Long cartItemId, int quantity) {
-        Cart cart = getOrCreateCart(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to user");
-        }
-        
-        if (quantity <= 0) {
-            cartItemRepository.delete(cartItem);
-        } else {
-            Product product = cartItem.getProduct();
-            if (!product.canOrder(quantity)) {
-                throw new RuntimeException("Invalid quantity or insufficient stock");
-            }
-            
-            cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
-        }
-        
-        return convertToDto(cart);
+        return convertToDto(cartEngine.update(userId, cartItemId, quantity));
     }
 
     public CartDto removeFromCart(Long userId, Long cartItemId) {
-        Cart cart = getOrCreateCart(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to user");
-        }
-        
-        cartItemRepository.delete(cartItem);
-        return convertToDto(cart);
+        return convertToDto(cartEngine.remove(userId, cartItemId));
     }
 
     public void clearCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        cartItemRepository.deleteByCartId(cart.getId());
+        cartEngine.clear(userId);
     }
 
-    private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-                    
-                    Cart cart = Cart.builder()
-                            .user(user)
-                            .build();
-                    
-                    return cartRepository.save(cart);
-                });
-    }
-
-    private CartDto convertToDto(Cart cart) {
-        List<CartDto.CartItemDto> itemDtos = cart.getItems().stream()
+    private CartDto convertToDto(CartQuote quote) {
+        List<CartDto.CartItemDto> itemDtos = quote.lines().stream()
                 .map(this::convertItemToDto)
                 .collect(Collectors.toList());
-        
+
         return CartDto.builder()
-                .id(cart.getId())
-                .userId(cart.getUser().getId())
+                .id(quote.cartId())
+                .userId(quote.userId())
                 .items(itemDtos)
-                .totalAmount(cart.getTotalAmount())
-                .totalItems(cart.getTotalItems())
+                .totalAmount(quote.subtotal())
+                .shippingAmount(quote.shipping())
+                .taxAmount(quote.tax())
+                .grandTotal(quote.grandTotal())
+                .totalItems(quote.totalItems())
                 .build();
     }
 
-    private CartDto.CartItemDto convertItemToDto(CartItem item) {
-        Product product = item.getProduct();
-        String productImage = null;
-        
-        // Get first image if available
-        if (product.getImages() != null && !product.getImages().isEmpty()) {
-            productImage = product.getImages().get(0).getImageUrl();
-        } else if (product.getImageUrls() != null && !product.getImageUrls().isEmpty()) {
-            productImage = product.getImageUrls().split(",")[0];
-        }
-        
+    private CartDto.CartItemDto convertItemToDto(PricedLine line) {
+        PriceSnapshot product = line.product();
         return CartDto.CartItemDto.builder()
-                .id(item.getId())
-                .productId(product.getId())
-                .productName(product.getName())
-                .productImage(productImage)
-                .price(item.getPrice())
-                .quantity(item.getQuantity())
-                .subtotal(item.getSubtotal())
-                .vendorName(product.getVendor().getName())
-                .vendorId(product.getVendor().getId())
-                .inStock(product.isInStock())
-                .availableStock(product.getStock())
+                .id(product.productId())
+                .productId(product.productId())
+                .productName(product.name())
+                .productImage(product.imageUrl())
+                .price(line.unitPrice())
+                .quantity(line.quantity())
+                .subtotal(line.subtotal())
+                .vendorName(product.vendorName())
+                .vendorId(product.vendorId())
+                .inStock(product.stock() > 0)
+                .availableStock(product.stock())
                 .build();
     }
 }
-
@@ -7,6 +7,9 @@ import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.buyer.repository.InquiryRepository;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.query.AdminQuery;
+import com.itech.itech_backend.modules.shared.query.FilterSchema;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import com.itech.itech_backend.modules.shared.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -27,6 +31,19 @@ public class InquiryService {
     private final BuyerProductRepository productRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final AdminQuery adminQuery;
+
+    // Admin list filters; newest first unless the screen picks another order
+    public static final FilterSchema<Inquiry> ADMIN_FILTERS = FilterSchema.of(Inquiry.class)
+            .search("search", "message", "user.name", "user.email", "product.name")
+            .equal("isResolved")
+            .equal("userId", "user.id")
+            .equal("productId", "product.id")
+            .equal("vendorId", "product.vendor.id")
+            .range("createdFrom", "createdTo", "createdAt")
+            .sortable("createdAt")
+            .defaultSort("-createdAt")
+            .fetch("user", "product", "product.vendor", "product.category");
 
     public Inquiry createInquiry(Long userId, Long productId, String message) {
         try {
@@ -60,8 +77,11 @@ public class InquiryService {
         return inquiryRepository.save(inquiry);
     }
 
-    public List<Inquiry> getAllInquiries() {
-        return inquiryRepository.findAll();
+    /**
+     * Admin inquiry list: filters from {@link #ADMIN_FILTERS}, one keyset page at a time.
+     */
+    public KeysetPage<Inquiry> getAllInquiries(Map<String, String> filters, String sort, String cursor, int size) {
+        return adminQuery.seek(ADMIN_FILTERS, filters, sort, cursor, size);
     }
     
     public Page<Inquiry> getInquiriesByUser(Long userId, Pageable pageable) {
@@ -0,0 +1,95 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.buyer.repository.BuyerLeadRepository;
+import com.itech.itech_backend.modules.shared.model.BuyerLead;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batch re-scorer for buyer leads.
+ *
+ * Leads whose score inputs changed are flagged {@code score_stale}. This job walks the
+ * flagged rows in id order, one chunk per transaction, and writes the new scores with
+ * one UPDATE per distinct score value. A nightly pass re-flags all open leads so the
+ * inactivity decay in {@link LeadScorer} is applied without touching them one by one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeadRescoringJob {
+
+    private final BuyerLeadRepository buyerLeadRepository;
+    private final LeadScorer leadScorer;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${leads.rescoring.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${leads.rescoring.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Scheduled(fixedDelayString = "${leads.rescoring.interval-ms:60000}",
+               initialDelayString = "${leads.rescoring.initial-delay-ms:120000}")
+    public void rescoreStaleLeads() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long lastId = 0L;
+            int rescored = 0;
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                ChunkResult result = rescoreChunk(lastId);
+                if (result == null) {
+                    break;
+                }
+                lastId = result.lastId();
+                rescored += result.count();
+            }
+            if (rescored > 0) {
+                log.info("Re-scored {} buyer leads", rescored);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${leads.rescoring.decay-cron:0 15 2 * * *}")
+    public void markOpenLeadsForDecay() {
+        Integer flagged = transactionTemplate.execute(status -> buyerLeadRepository.markOpenLeadsStale());
+        log.info("Flagged {} open buyer leads for score decay", flagged);
+    }
+
+    private ChunkResult rescoreChunk(long afterId) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<BuyerLead> leads = buyerLeadRepository.findStaleScoreChunk(afterId, PageRequest.of(0, chunkSize));
+            if (leads.isEmpty()) {
+                return null;
+            }
+            Map<Integer, List<Long>> idsByScore = new TreeMap<>();
+            for (BuyerLead lead : leads) {
+                idsByScore.computeIfAbsent(leadScorer.score(lead, now), k -> new ArrayList<>()).add(lead.getId());
+            }
+            // Bulk JPQL updates bypass @PreUpdate, so updatedAt/lastActivity keep their meaning.
+            // Rows changed since the read are skipped rather than overwritten with a score of old inputs.
+            idsByScore.forEach((score, ids) -> buyerLeadRepository.applyScore(score, ids, now));
+            return new ChunkResult(leads.get(leads.size() - 1).getId(), leads.size());
+        });
+    }
+
+    private record ChunkResult(long lastId, int count) {}
+}
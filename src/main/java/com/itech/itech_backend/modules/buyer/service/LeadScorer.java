@@ -0,0 +1,88 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.shared.model.BuyerLead;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Computes lead scores from the persisted lead fields only, so the same
+ * rules apply when a lead is created and when LeadRescoringJob re-scores it.
+ */
+@Component
+public class LeadScorer {
+
+    /**
+     * Score for a lead, including any manual adjustment, capped to 0-100
+     */
+    public int score(BuyerLead lead, LocalDateTime now) {
+        int adjustment = lead.getScoreAdjustment() != null ? lead.getScoreAdjustment() : 0;
+        return clamp(baseScore(lead, now) + adjustment);
+    }
+
+    /**
+     * Score before manual adjustment, capped to 0-100
+     */
+    public int baseScore(BuyerLead lead, LocalDateTime now) {
+        int score = 50; // Base score
+
+        // Company provided
+        if (hasText(lead.getCompany())) {
+            score += 10;
+        }
+
+        // Phone provided
+        if (hasText(lead.getPhone())) {
+            score += 15;
+        }
+
+        // Detailed message
+        if (lead.getMessage() != null && lead.getMessage().length() > 100) {
+            score += 10;
+        }
+
+        // Urgency level
+        if (lead.getUrgency() == BuyerLead.LeadUrgency.HIGH) {
+            score += 20;
+        } else if (lead.getUrgency() == BuyerLead.LeadUrgency.MEDIUM) {
+            score += 10;
+        }
+
+        // Specific product interest
+        if (hasText(lead.getSearchQuery())) {
+            score += 5;
+        }
+
+        // Engagement captured by the storefront
+        if (lead.getTimeSpent() != null) {
+            if (lead.getTimeSpent() > 300000) score += 10; // 5+ minutes
+            else if (lead.getTimeSpent() > 120000) score += 5; // 2-5 minutes
+        }
+        if (lead.getViewedProductsList().size() >= 3) {
+            score += 5;
+        }
+
+        // Open leads cool down when nobody has touched them
+        if (isOpen(lead) && lead.getLastActivity() != null) {
+            long idleDays = Duration.between(lead.getLastActivity(), now).toDays();
+            if (idleDays > 30) score -= 20;
+            else if (idleDays > 7) score -= 10;
+        }
+
+        return clamp(score);
+    }
+
+    private boolean isOpen(BuyerLead lead) {
+        return lead.getStatus() != BuyerLead.LeadStatus.CONVERTED
+                && lead.getStatus() != BuyerLead.LeadStatus.CLOSED_LOST;
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private int clamp(int score) {
+        return Math.max(0, Math.min(score, 100));
+    }
+}
@@ -7,22 +7,25 @@ import com.itech.itech_backend.modules.core.model.UserAddress;
 import com.itech.itech_backend.modules.payment.service.PaymentService;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.buyer.repository.OrderRepository;
-import com.itech.itech_backend.modules.buyer.repository.CartRepository;
-import com.itech.itech_backend.modules.buyer.repository.CartItemRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.core.repository.UserAddressRepository;
+import com.itech.itech_backend.modules.shared.service.CouponRedemptionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,12 +34,13 @@ import java.util.UUID;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
     private final UserRepository userRepository;
     private final UserAddressRepository userAddressRepository;
     private final BuyerProductRepository productRepository;
     private final PaymentService paymentService;
+    private final CartEngine cartEngine;
+    private final ProductPriceCatalog priceCatalog;
+    private final CouponRedemptionService couponRedemptionService;
 
     public Map<String, Object> createOrder(Long userId, CheckoutDto checkoutDto) {
         log.info("Creating order for user: {}", userId);
@@ -45,19 +49,15 @@ public class OrderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-        
-        if (cart.getItems().isEmpty()) {
+        // Re-check the cart against the database; only changed lines are re-priced
+        CartEngine.CartQuote quote = cartEngine.checkout(userId).quote();
+        if (quote.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
-        
-        // Validate stock and calculate amounts
-        validateCartItems(cart);
-        double totalAmount = cart.getTotalAmount();
-        double shippingAmount = calculateShipping(cart);
-        double taxAmount = calculateTax(totalAmount);
-        double grandTotal = totalAmount + shippingAmount + taxAmount;
+        double totalAmount = quote.subtotal();
+        double shippingAmount = quote.shipping();
+        double taxAmount = quote.tax();
+        double grandTotal = quote.grandTotal();
         
         // Get shipping address
         UserAddress shippingAddress = getShippingAddress(userId, checkoutDto);
@@ -65,6 +65,16 @@ public class OrderService {
         // Generate order number
         String orderNumber = generateOrderNumber();
         
+        // Take the coupon use under the order number; it is given back unless the order commits
+        String couponCode = checkoutDto.getCouponCode();
+        if (couponCode != null && !couponCode.isBlank()) {
+            CouponRedemptionService.Outcome outcome = couponRedemptionService.redeem(couponCode, userId, orderNumber);
+            if (outcome != CouponRedemptionService.Outcome.REDEEMED) {
+                throw new IllegalArgumentException("Coupon " + couponCode + " cannot be applied: " + outcome);
+            }
+            releaseCouponsUnlessCommitted(orderNumber);
+        }
+        
         // Create order
         Order order = Order.builder()
                 .orderNumber(orderNumber)
@@ -87,8 +97,8 @@ public class OrderService {
         
         order = orderRepository.save(order);
         
-        // Create order items and update product stock
-        createOrderItems(order, cart);
+        // Create order items and reserve product stock
+        createOrderItems(order, quote);
         
         // Create payment order if not COD
         Map<String, Object> response;
@@ -109,16 +119,16 @@ public class OrderService {
             order.setPaymentStatus(Order.PaymentStatus.PENDING);
             orderRepository.save(order);
             
-            response = Map.of(
+            response = new HashMap<>(Map.of(
                 "orderId", order.getId(),
                 "orderNumber", orderNumber,
                 "amount", grandTotal,
                 "paymentMethod", "COD"
-            );
+            ));
         }
         
-        // Clear cart after successful order creation
-        cartItemRepository.deleteByCartId(cart.getId());
+        // Clear cart once the order commits
+        cartEngine.clear(userId);
         
         response.put("orderId", order.getId());
         response.put("orderNumber", orderNumber);
@@ -173,6 +183,9 @@ public class OrderService {
 
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
         Order order = getOrderById(orderId);
+        if (status == Order.OrderStatus.CANCELLED && order.getStatus() != Order.OrderStatus.CANCELLED) {
+            releaseCouponsOnCommit(order.getOrderNumber());
+        }
         order.setStatus(status);
         
         if (status == Order.OrderStatus.SHIPPED) {
@@ -197,38 +210,31 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
-    private void validateCartItems(Cart cart) {
-        for (CartItem item : cart.getItems()) {
-            Product product = item.getProduct();
-            if (!product.canOrder(item.getQuantity())) {
-                throw new RuntimeException("Product " + product.getName() + " is not available in required quantity");
-            }
+    private void releaseCouponsUnlessCommitted(String orderNumber) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
-    }
-
-    private double calculateShipping(Cart cart) {
-        // Simple shipping calculation - can be made more complex
-        double shippingAmount = 0.0;
-        
-        for (CartItem item : cart.getItems()) {
-            Product product = item.getProduct();
-            if (!product.isFreeShipping()) {
-                double productShipping = product.getShippingCharge() != null ? product.getShippingCharge() : 50.0;
-                shippingAmount += productShipping * item.getQuantity();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    couponRedemptionService.releaseOrder(orderNumber);
+                }
             }
-        }
-        
-        // Free shipping for orders above ₹500
-        if (cart.getTotalAmount() > 500) {
-            shippingAmount = 0.0;
-        }
-        
-        return shippingAmount;
+        });
     }
 
-    private double calculateTax(double amount) {
-        // Simple GST calculation - 18%
-        return amount * 0.18;
+    private void releaseCouponsOnCommit(String orderNumber) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            couponRedemptionService.releaseOrder(orderNumber);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                couponRedemptionService.releaseOrder(orderNumber);
+            }
+        });
     }
 
     private UserAddress getShippingAddress(Long userId, CheckoutDto checkoutDto) {
@@ -260,29 +266,36 @@ public class OrderService {
         return "ORD" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
     }
 
-    private void createOrderItems(Order order, Cart cart) {
-        for (CartItem cartItem : cart.getItems()) {
-            Product product = cartItem.getProduct();
+    private void createOrderItems(Order order, CartEngine.CartQuote quote) {
+        Map<Long, Product> products = productRepository.findAllById(
+                quote.lines().stream().map(line -> line.product().productId()).toList()).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        
+        for (CartEngine.PricedLine line : quote.lines()) {
+            Product product = products.get(line.product().productId());
+            if (product == null) {
+                throw new RuntimeException("Product " + line.product().name() + " is no longer available");
+            }
             
             // Create order item
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .product(product)
                     .vendor(product.getVendor())
-                    .quantity(cartItem.getQuantity())
-                    .price(cartItem.getPrice())
-                    .totalPrice(cartItem.getSubtotal())
+                    .quantity(line.quantity())
+                    .price(line.unitPrice())
+                    .totalPrice(line.subtotal())
                     .productName(product.getName())
                     .productDescription(product.getDescription())
                     .build();
             
             order.getItems().add(orderItem);
             
-            // Update product stock and order count
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            product.setOrderCount(product.getOrderCount() + cartItem.getQuantity());
-            productRepository.save(product);
+            // Conditional decrement: concurrent orders cannot take the same stock twice
+            if (productRepository.reserveStock(product.getId(), line.quantity()) == 0) {
+                throw new RuntimeException("Product " + product.getName() + " is not available in required quantity");
+            }
+            priceCatalog.productChanged(product.getId());
         }
     }
 }
-
@@ -0,0 +1,231 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.itech.itech_backend.modules.buyer.model.ProductPriceBreak;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository.PriceView;
+import com.itech.itech_backend.modules.buyer.repository.ProductPriceBreakRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Cached price, stock and GST snapshots of buyer products, used to price carts without loading
+ * product entities.
+ *
+ * A snapshot holds the columns that decide a cart line's price and whether it can be ordered,
+ * plus the product's quantity breaks. Snapshots are loaded in bulk, one projection query and one
+ * price-break query per batch of misses. {@link ProductPriceListener} drops a product's snapshot
+ * when a change to it commits through Hibernate, and {@link BulkProductWriter} drops the
+ * snapshots of the products it wrote; other bulk JPQL or JDBC writes are picked up when the
+ * snapshot expires. Checkout never trusts the cache: it reloads the cart's products with
+ * {@link #fresh} and re-prices only the lines whose snapshot changed.
+ */
+@Service
+@Slf4j
+public class ProductPriceCatalog {
+
+    /**
+     * GST applied when a product has no rate of its own
+     */
+    public static final double DEFAULT_GST_RATE = 18.0;
+
+    public record PriceBreak(int minQuantity, double unitPrice) {}
+
+    public record PriceSnapshot(Long productId, String name, String imageUrl, Long vendorId, String vendorName,
+                                double price, double gstRate, int stock, int minOrderQuantity,
+                                boolean active, boolean approved, boolean freeShipping, Double shippingCharge,
+                                List<PriceBreak> priceBreaks) {
+
+        /**
+         * Unit price for the quantity: the highest break not above it, else the list price
+         */
+        public double unitPrice(int quantity) {
+            double unitPrice = price;
+            for (PriceBreak priceBreak : priceBreaks) {
+                if (priceBreak.minQuantity() > quantity) {
+                    break;
+                }
+                unitPrice = priceBreak.unitPrice();
+            }
+            return unitPrice;
+        }
+
+        public boolean canOrder(int quantity) {
+            return active && approved && stock >= quantity && quantity >= minOrderQuantity;
+        }
+
+        /**
+         * Whether a line priced with this snapshot would be priced or checked differently with
+         * {@code other}. Stock only matters once it falls below the line's quantity.
+         */
+        public boolean pricesLike(PriceSnapshot other, int quantity) {
+            return other != null
+                    && price == other.price && gstRate == other.gstRate
+                    && active == other.active && approved == other.approved
+                    && minOrderQuantity == other.minOrderQuantity
+                    && freeShipping == other.freeShipping && Objects.equals(shippingCharge, other.shippingCharge)
+                    && priceBreaks.equals(other.priceBreaks)
+                    && other.stock >= quantity;
+        }
+    }
+
+    private final BuyerProductRepository productRepository;
+    private final ProductPriceBreakRepository priceBreakRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LoadingCache<Long, PriceSnapshot> snapshots;
+
+    public ProductPriceCatalog(BuyerProductRepository productRepository,
+                               ProductPriceBreakRepository priceBreakRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${cart.pricing.max-products:50000}") long maxProducts,
+                               @Value("${cart.pricing.ttl-seconds:300}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.priceBreakRepository = priceBreakRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(new CacheLoader<>() {
+                    @Override
+                    public PriceSnapshot load(Long productId) {
+                        return ProductPriceCatalog.this.loadAll(List.of(productId)).get(productId);
+                    }
+
+                    @Override
+                    public Map<Long, PriceSnapshot> loadAll(Set<? extends Long> productIds) {
+                        return ProductPriceCatalog.this.loadAll(productIds);
+                    }
+                });
+    }
+
+    // ================ READS ================
+
+    /**
+     * Snapshot of one product, or null if it does not exist
+     */
+    public PriceSnapshot get(Long productId) {
+        return snapshots.get(productId);
+    }
+
+    /**
+     * Snapshots of several products, loading all misses together; missing products are absent
+     */
+    public Map<Long, PriceSnapshot> getAll(Collection<Long> productIds) {
+        return snapshots.getAll(productIds);
+    }
+
+    /**
+     * Snapshots read from the database now, replacing the cached ones
+     */
+    public Map<Long, PriceSnapshot> fresh(Collection<Long> productIds) {
+        Map<Long, PriceSnapshot> loaded = loadAll(productIds);
+        snapshots.putAll(loaded);
+        for (Long productId : productIds) {
+            if (!loaded.containsKey(productId)) {
+                snapshots.invalidate(productId);
+            }
+        }
+        return loaded;
+    }
+
+    // ================ CHANGES ================
+
+    /**
+     * A product's price, stock or status changed; its snapshot is dropped once the change commits
+     */
+    public void productChanged(Long productId) {
+        productsChanged(List.of(productId));
+    }
+
+    /**
+     * Several products changed at once (bulk writes); their snapshots are dropped together once
+     * the change commits
+     */
+    public void productsChanged(Collection<Long> productIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshots.invalidateAll(productIds);
+                }
+            });
+        } else {
+            snapshots.invalidateAll(productIds);
+        }
+    }
+
+    /**
+     * Replace a product's quantity breaks, as minimum quantity to unit price
+     */
+    public void updatePriceBreaks(Long productId, Map<Integer, Double> quantityBreaks) {
+        quantityBreaks.forEach((quantity, unitPrice) -> {
+            if (quantity == null || quantity < 1 || unitPrice == null || unitPrice < 0) {
+                throw new IllegalArgumentException("Quantity breaks need a quantity of at least 1 and a non-negative price");
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            priceBreakRepository.deleteByProductId(productId);
+            List<ProductPriceBreak> rows = new ArrayList<>();
+            new TreeMap<>(quantityBreaks).forEach((quantity, unitPrice) -> rows.add(ProductPriceBreak.builder()
+                    .productId(productId).minQuantity(quantity).unitPrice(unitPrice).build()));
+            priceBreakRepository.saveAll(rows);
+            productChanged(productId);
+        });
+        log.info("💲 Price breaks updated for product {}: {}", productId, quantityBreaks.keySet());
+    }
+
+    // ================ LOADING ================
+
+    private Map<Long, PriceSnapshot> loadAll(Collection<? extends Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = List.copyOf(productIds);
+        Map<Long, List<PriceBreak>> breaks = new HashMap<>();
+        for (ProductPriceBreak row : priceBreakRepository.findByProductIdInOrderByProductIdAscMinQuantityAsc(ids)) {
+            breaks.computeIfAbsent(row.getProductId(), id -> new ArrayList<>())
+                    .add(new PriceBreak(row.getMinQuantity(), row.getUnitPrice()));
+        }
+        Map<Long, String> images = new HashMap<>();
+        for (Object[] row : productRepository.findFirstImageUrls(ids)) {
+            images.put((Long) row[0], (String) row[1]);
+        }
+
+        Map<Long, PriceSnapshot> loaded = new HashMap<>();
+        for (PriceView view : productRepository.findPriceViews(ids)) {
+            String image = images.get(view.getId());
+            if (image == null && view.getImageUrls() != null && !view.getImageUrls().isBlank()) {
+                image = view.getImageUrls().split(",")[0];
+            }
+            loaded.put(view.getId(), new PriceSnapshot(view.getId(), view.getName(), image,
+                    view.getVendorId(), view.getVendorName(),
+                    value(view.getPrice(), 0.0), value(view.getGstRate(), DEFAULT_GST_RATE),
+                    value(view.getStock(), 0), value(view.getMinOrderQuantity(), 1),
+                    Boolean.TRUE.equals(view.getActive()), Boolean.TRUE.equals(view.getApproved()),
+                    Boolean.TRUE.equals(view.getFreeShipping()), view.getShippingCharge(),
+                    List.copyOf(breaks.getOrDefault(view.getId(), List.of()))));
+        }
+        return loaded;
+    }
+
+    private static <T> T value(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,44 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.buyer.model.Product;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Drops a buyer product's cached price snapshot from the {@link ProductPriceCatalog} when an
+ * update or delete of it is committed through Hibernate.
+ *
+ * Registered with the session factory, which is built before the catalog; the catalog is looked
+ * up on first use and skipped where it is not configured.
+ */
+public class ProductPriceListener implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ObjectProvider<ProductPriceCatalog> catalog;
+
+    public ProductPriceListener(ObjectProvider<ProductPriceCatalog> catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Product product) {
+            catalog.ifAvailable(prices -> prices.productChanged(product.getId()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Product product) {
+            catalog.ifAvailable(prices -> prices.productChanged(product.getId()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -1,8 +1,8 @@
 package com.itech.itech_backend.modules.buyer.service;
 
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
 import com.itech.itech_backend.modules.shared.dto.ProductSearchDto;
 import com.itech.itech_backend.modules.shared.dto.ProductSearchResponseDto;
-import com.itech.itech_backend.modules.buyer.model.Product;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
@@ -13,6 +13,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,8 +33,8 @@ public class ProductSearchService {
     @Autowired
     private VendorsRepository vendorsRepository;
 
-    public Page<Product> searchProducts(ProductSearchDto searchDto, Pageable pageable) {
-        return productRepository.searchProducts(
+    public Page<ProductCardDto> searchProducts(ProductSearchDto searchDto, Pageable pageable) {
+        return productRepository.searchProductCards(
             searchDto.getQuery(),
             searchDto.getCategoryId(),
             searchDto.getSubCategoryId(),
@@ -44,24 +45,42 @@ public class ProductSearchService {
             searchDto.getMaxPrice(),
             searchDto.getVendorId(),
             searchDto.getIsActive(),
-            pageable
+            searchDto.getMinRating(),
+            withRatingSort(pageable)
         );
     }
 
-    public List<Product> getFeaturedProducts(int limit) {
-        return productRepository.findTopFeaturedProducts(Pageable.ofSize(limit)).getContent();
+    /**
+     * "rating" sorts by the precomputed Bayesian score, so a product with a single 5-star review
+     * does not outrank one with hundreds of 4.8s
+     */
+    private static Pageable withRatingSort(Pageable pageable) {
+        if (pageable.getSort().getOrderFor("rating") == null) {
+            return pageable;
+        }
+        Sort sort = Sort.unsorted();
+        for (Sort.Order order : pageable.getSort()) {
+            sort = sort.and(order.getProperty().equals("rating")
+                    ? JpaSort.unsafe(order.getDirection(), "ra.bayesianScore")
+                    : Sort.by(order));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 
-    public List<Product> getRecentProducts(int limit) {
-        return productRepository.findTopRecentProducts(Pageable.ofSize(limit)).getContent();
+    public List<ProductCardDto> getFeaturedProducts(int limit) {
+        return productRepository.findFeaturedProductCards(Pageable.ofSize(limit));
     }
 
-    public Page<Product> getProductsByCategory(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable);
+    public List<ProductCardDto> getRecentProducts(int limit) {
+        return productRepository.findRecentProductCards(Pageable.ofSize(limit));
     }
 
-    public Page<Product> getProductsByVendor(Long vendorId, Pageable pageable) {
-        return productRepository.findByVendorId(vendorId, pageable);
+    public Page<ProductCardDto> getProductsByCategory(Long categoryId, Pageable pageable) {
+        return productRepository.findProductCardsByCategoryTree(categoryId, pageable);
+    }
+
+    public Page<ProductCardDto> getProductsByVendor(Long vendorId, Pageable pageable) {
+        return productRepository.findProductCardsByVendor(vendorId, pageable);
     }
 
     public List<String> getSearchSuggestions(String query, int limit) {
@@ -138,11 +157,11 @@ public class ProductSearchService {
     /**
      * Get trending products based on view count and recent activity
      */
-    public List<Product> getTrendingProducts(int limit) {
+    public List<ProductCardDto> getTrendingProducts(int limit) {
         try {
             Pageable pageable = PageRequest.of(0, limit, 
                 Sort.by(Sort.Direction.DESC, "viewCount", "createdAt"));
-            return productRepository.findByIsActiveTrueAndIsApprovedTrue(pageable).getContent();
+            return productRepository.findActiveProductCards(pageable);
         } catch (Exception e) {
             log.error("Error getting trending products", e);
             return new ArrayList<>();
@@ -152,37 +171,25 @@ public class ProductSearchService {
     /**
      * Get products similar to a given product
      */
-    public List<Product> getSimilarProducts(Long productId, int limit) {
+    public List<ProductCardDto> getSimilarProducts(Long productId, int limit) {
         try {
-            Optional<Product> productOpt = productRepository.findById(productId);
-            if (!productOpt.isPresent()) {
-                return new ArrayList<>();
-            }
-            
-            Product product = productOpt.get();
-            Pageable pageable = PageRequest.of(0, limit);
-            
             // Find products in same category, excluding the current product
-            List<Product> similarProducts = productRepository
-                .findByCategoryIdAndIdNotAndIsActiveTrueAndIsApprovedTrue(
-                    product.getCategory().getId(), productId, pageable)
-                .getContent();
+            List<ProductCardDto> similarProducts = new ArrayList<>(productRepository
+                .findSimilarProductCardsByCategory(productId, PageRequest.of(0, limit)));
             
             // If not enough similar products, get from same vendor
             if (similarProducts.size() < limit) {
-                List<Product> vendorProducts = productRepository
-                    .findByVendorIdAndIdNotAndIsActiveTrueAndIsApprovedTrue(
-                        product.getVendor().getId(), productId, 
-                        PageRequest.of(0, limit - similarProducts.size()))
-                    .getContent();
-                
-                similarProducts.addAll(vendorProducts);
+                Set<Long> seen = similarProducts.stream()
+                    .map(ProductCardDto::getId)
+                    .collect(Collectors.toSet());
+                productRepository.findSimilarProductCardsByVendor(productId, PageRequest.of(0, limit))
+                    .stream()
+                    .filter(card -> seen.add(card.getId()))
+                    .limit(limit - similarProducts.size())
+                    .forEach(similarProducts::add);
             }
             
-            return similarProducts.stream()
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+            return similarProducts;
                 
         } catch (Exception e) {
             log.error("Error getting similar products", e);
@@ -196,18 +203,10 @@ public class ProductSearchService {
     @Transactional
     public void trackProductView(Long productId) {
         try {
-            Optional<Product> productOpt = productRepository.findById(productId);
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
-                product.setViewCount(product.getViewCount() + 1);
-                productRepository.save(product);
-                
-                log.debug("Tracked view for product ID: {}, new count: {}", 
-                        productId, product.getViewCount());
-            }
+            int updated = productRepository.incrementViewCount(productId);
+            log.debug("Tracked view for product ID: {} (updated: {})", productId, updated);
         } catch (Exception e) {
             log.error("Error tracking product view", e);
         }
     }
 }
-
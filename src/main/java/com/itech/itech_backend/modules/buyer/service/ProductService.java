@@ -1,5 +1,7 @@
 package com.itech.itech_backend.modules.buyer.service;
 
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
+import com.itech.itech_backend.modules.buyer.dto.ProductDetailDto;
 import com.itech.itech_backend.modules.shared.dto.ProductDto;
 import com.itech.itech_backend.modules.shared.dto.ProductCategoryDto;
 import com.itech.itech_backend.modules.buyer.model.*;
@@ -10,6 +12,7 @@ import com.itech.itech_backend.modules.buyer.repository.SubCategoryRepository;
 import com.itech.itech_backend.modules.buyer.repository.MicroCategoryRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorEntitlementService;
 import com.itech.itech_backend.modules.shared.service.FileUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +21,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
@@ -37,6 +41,7 @@ public class ProductService {
     private final SubCategoryRepository subCategoryRepo;
     private final MicroCategoryRepository microCategoryRepo;
     private final FileUploadService fileUploadService;
+    private final VendorEntitlementService entitlementService;
 
     public Product addProduct(ProductDto dto) {
         // Validate required fields
@@ -78,7 +83,15 @@ public class ProductService {
                 .isApproved(true)  // Auto-approve products for now
                 .build();
 
-        return productRepo.save(product);
+        if (!entitlementService.tryConsume(vendor.getId(), VendorEntitlementService.Quota.PRODUCTS, 1)) {
+            throw new IllegalStateException("Product limit reached for your current package. Please upgrade to add more products");
+        }
+        try {
+            return productRepo.save(product);
+        } catch (RuntimeException e) {
+            entitlementService.release(vendor.getId(), VendorEntitlementService.Quota.PRODUCTS, 1);
+            throw e;
+        }
     }
 
     public List<Product> getProductsByVendor(Long vendorId) {
@@ -170,10 +183,15 @@ product.setDescription(dto.getDescription());
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + productId));
     }
 
+    public ProductDetailDto getProductDetail(Long productId) {
+        return productRepo.findDetailById(productId)
+                .map(ProductDetailDto::from)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + productId));
+    }
+
+    @Transactional
     public void incrementViewCount(Long productId) {
-        Product product = getProductById(productId);
-        product.setViewCount(product.getViewCount() + 1);
-        productRepo.save(product);
+        productRepo.incrementViewCount(productId);
     }
 
     public Page<Product> searchProducts(String query, Pageable pageable) {
@@ -191,20 +209,6 @@ product.setDescription(dto.getDescription());
         return new PageImpl<>(pageContent, pageable, products.size());
     }
 
-    public Page<Product> getProductsByCategory(Long categoryId, Pageable pageable) {
-        List<Product> products = productRepo.findAll();
-        products = products.stream()
-                .filter(product -> product.isApproved() && product.isActive())
-                .filter(product -> product.getCategory() != null && product.getCategory().getId().equals(categoryId))
-                .collect(Collectors.toList());
-        
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), products.size());
-        List<Product> pageContent = products.subList(start, end);
-        
-        return new PageImpl<>(pageContent, pageable, products.size());
-    }
-
     public Page<Product> getProductsByVendor(Long vendorId, Pageable pageable) {
         List<Product> products = getProductsByVendor(vendorId);
         
@@ -215,12 +219,16 @@ product.setDescription(dto.getDescription());
         return new PageImpl<>(pageContent, pageable, products.size());
     }
 
-    public List<Product> getFeaturedProducts(int limit) {
-        List<Product> products = productRepo.findAll();
-        return products.stream()
-                .filter(product -> product.isApproved() && product.isActive() && product.isFeatured())
-                .limit(limit)
-                .collect(Collectors.toList());
+    public Page<ProductCardDto> getProductCardsByCategory(Long categoryId, Pageable pageable) {
+        return productRepo.findActiveProductCardsByCategory(categoryId, pageable);
+    }
+
+    public Page<ProductCardDto> getProductCardsByVendor(Long vendorId, Pageable pageable) {
+        return productRepo.findProductCardsByVendor(vendorId, pageable);
+    }
+
+    public List<ProductCardDto> getFeaturedProductCards(int limit) {
+        return productRepo.findFeaturedProductCards(Pageable.ofSize(limit));
     }
 
     public Product addProduct(Long vendorId, ProductDto dto) {
@@ -343,6 +351,7 @@ product.setDescription(dto.getDescription());
         }
         
         productRepo.delete(product);
+        entitlementService.release(vendorId, VendorEntitlementService.Quota.PRODUCTS, 1);
     }
 
     public Product updateProductStatus(Long productId, Long vendorId, boolean isActive) {
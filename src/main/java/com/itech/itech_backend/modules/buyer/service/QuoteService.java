@@ -7,14 +7,19 @@ import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.buyer.repository.InquiryRepository;
 import com.itech.itech_backend.modules.buyer.repository.QuoteRepository;
+import com.itech.itech_backend.modules.shared.query.AdminQuery;
+import com.itech.itech_backend.modules.shared.query.FilterSchema;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,6 +29,21 @@ public class QuoteService {
     private final QuoteRepository quoteRepository;
     private final VendorsRepository vendorsRepository;
     private final InquiryRepository inquiryRepository;
+    private final AdminQuery adminQuery;
+
+    // Admin list filters; newest first unless the screen picks another order
+    public static final FilterSchema<Quote> ADMIN_FILTERS = FilterSchema.of(Quote.class)
+            .search("search", "response", "additionalNotes", "vendor.name", "vendor.businessName")
+            .equal("isAccepted")
+            .equal("vendorId", "vendor.id")
+            .equal("inquiryId", "inquiry.id")
+            .equal("buyerId", "inquiry.user.id")
+            .range("minPrice", "maxPrice", "price")
+            .range("createdFrom", "createdTo", "createdAt")
+            .sortable("createdAt")
+            .sortable("price", BigDecimal.ZERO)
+            .defaultSort("-createdAt")
+            .fetch("vendor", "inquiry", "inquiry.user", "inquiry.product");
 
     public Quote createQuote(CreateQuoteDto dto) {
         Optional<Vendors> vendorOpt = vendorsRepository.findById(dto.getVendorId());
@@ -43,8 +63,11 @@ public class QuoteService {
         return quoteRepository.save(quote);
     }
 
-    public List<Quote> getAllQuotes() {
-        return quoteRepository.findAll();
+    /**
+     * Admin quote list: filters from {@link #ADMIN_FILTERS}, one keyset page at a time.
+     */
+    public KeysetPage<Quote> getAllQuotes(Map<String, String> filters, String sort, String cursor, int size) {
+        return adminQuery.seek(ADMIN_FILTERS, filters, sort, cursor, size);
     }
 
     public List<Quote> getQuotesByVendor(Long vendorId) {
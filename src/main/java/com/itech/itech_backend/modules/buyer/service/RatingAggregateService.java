@@ -0,0 +1,277 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.buyer.model.RatingAggregate;
+import com.itech.itech_backend.modules.buyer.model.RatingSubjectType;
+import com.itech.itech_backend.modules.buyer.model.Review;
+import com.itech.itech_backend.modules.buyer.repository.RatingAggregateRepository;
+import com.itech.itech_backend.modules.shared.startup.StartupTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approved-review totals per product and vendor, kept in {@code rating_aggregates} so product
+ * pages, rating filters and rating sorts never aggregate {@code reviews}.
+ *
+ * {@link ReviewService} calls {@link #reviewAdded} and {@link #reviewRemoved} inside the
+ * transaction that approves or deletes the review. Each call is a single relative UPDATE per
+ * subject (count, sum, one histogram bucket, and the average and Bayesian score recomputed from
+ * the new totals), so concurrent reviews serialise on the row lock and never lose an increment.
+ * A missing row is first created empty in its own transaction, which keeps that race out of the
+ * caller's transaction.
+ *
+ * The Bayesian score is {@code (C * m + sum) / (C + count)}: a subject with few ratings is
+ * pulled toward the mean rating {@code m} of all subjects of its type, with {@code C} ratings of
+ * weight. {@link #repair()} rebuilds every row from {@code reviews} in bulk and re-derives
+ * {@code m}; it runs once on first start, nightly and on demand.
+ */
+@Service
+@Slf4j
+public class RatingAggregateService implements StartupTask {
+
+    public record RatingSummary(long count, long sum, List<Long> histogram, double averageRating, double bayesianScore) {
+
+        public static RatingSummary of(RatingAggregate aggregate) {
+            if (aggregate == null) {
+                return new RatingSummary(0, 0, List.of(0L, 0L, 0L, 0L, 0L), 0.0, 0.0);
+            }
+            return new RatingSummary(aggregate.getRatingCount(), aggregate.getRatingSum(),
+                    List.of(aggregate.getStars1(), aggregate.getStars2(), aggregate.getStars3(),
+                            aggregate.getStars4(), aggregate.getStars5()),
+                    aggregate.getAverageRating(), aggregate.getBayesianScore());
+        }
+
+        /**
+         * Reviews with the given number of stars (1 to 5)
+         */
+        public long stars(int stars) {
+            return histogram.get(stars - 1);
+        }
+    }
+
+    public record RepairResult(int rows, long durationMs) {}
+
+    // Both sides of every division are cast: some drivers type a bare parameter as exact decimal
+    private static final String UPDATE_SQL = """
+            UPDATE rating_aggregates
+               SET rating_count = rating_count + ?, rating_sum = rating_sum + ?,
+                   stars_1 = stars_1 + ?, stars_2 = stars_2 + ?, stars_3 = stars_3 + ?,
+                   stars_4 = stars_4 + ?, stars_5 = stars_5 + ?,
+                   average_rating = CASE WHEN rating_count + ? > 0
+                                         THEN CAST(rating_sum + ? AS DOUBLE PRECISION) / CAST(rating_count + ? AS DOUBLE PRECISION)
+                                         ELSE 0 END,
+                   bayesian_score = CAST(? + rating_sum + ? AS DOUBLE PRECISION) / CAST(? + rating_count + ? AS DOUBLE PRECISION),
+                   updated_at = ?
+             WHERE subject_type = ? AND subject_id = ?
+            """;
+
+    private static final String INSERT_EMPTY_SQL = """
+            INSERT INTO rating_aggregates
+                (subject_type, subject_id, rating_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5,
+                 average_rating, bayesian_score, updated_at)
+            VALUES (?, ?, 0, 0, 0, 0, 0, 0, 0, 0, ?, ?)
+            """;
+
+    private static final String REPAIR_SQL = """
+            INSERT INTO rating_aggregates
+                (subject_type, subject_id, rating_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5,
+                 average_rating, bayesian_score, updated_at)
+            SELECT ?, r.%1$s, COUNT(*), SUM(r.rating),
+                   COUNT(CASE WHEN r.rating = 1 THEN 1 END), COUNT(CASE WHEN r.rating = 2 THEN 1 END),
+                   COUNT(CASE WHEN r.rating = 3 THEN 1 END), COUNT(CASE WHEN r.rating = 4 THEN 1 END),
+                   COUNT(CASE WHEN r.rating = 5 THEN 1 END),
+                   CAST(SUM(r.rating) AS DOUBLE PRECISION) / COUNT(*), 0, CURRENT_TIMESTAMP
+              FROM reviews r
+             WHERE r.is_approved = TRUE AND r.rating BETWEEN 1 AND 5 AND r.%1$s IS NOT NULL
+             GROUP BY r.%1$s
+            """;
+
+    private static final String RESCORE_SQL = """
+            UPDATE rating_aggregates
+               SET bayesian_score = CAST(? + rating_sum AS DOUBLE PRECISION) / CAST(? + rating_count AS DOUBLE PRECISION)
+             WHERE subject_type = ?
+            """;
+
+    private final RatingAggregateRepository aggregateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${rating.aggregates.prior-weight:10}")
+    private double priorWeight = 10;
+
+    @Value("${rating.aggregates.default-mean:3.5}")
+    private double defaultMean = 3.5;
+
+    // Mean rating per subject type, loaded on first use and refreshed by the repair job
+    private final Map<RatingSubjectType, Double> priorMeans = new ConcurrentHashMap<>();
+
+    public RatingAggregateService(RatingAggregateRepository aggregateRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.aggregateRepository = aggregateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ================ READS ================
+
+    public RatingSummary summary(RatingSubjectType type, Long subjectId) {
+        return RatingSummary.of(aggregateRepository.findById(new RatingAggregate.Key(type, subjectId)).orElse(null));
+    }
+
+    /**
+     * Summaries for a page of subjects in one query; subjects without ratings get an empty summary
+     */
+    public Map<Long, RatingSummary> summaries(RatingSubjectType type, Collection<Long> subjectIds) {
+        Map<Long, RatingAggregate> stored = new HashMap<>();
+        if (!subjectIds.isEmpty()) {
+            aggregateRepository.findBySubjectTypeAndSubjectIdIn(type, subjectIds)
+                    .forEach(aggregate -> stored.put(aggregate.getSubjectId(), aggregate));
+        }
+        Map<Long, RatingSummary> summaries = new HashMap<>();
+        for (Long subjectId : subjectIds) {
+            summaries.put(subjectId, RatingSummary.of(stored.get(subjectId)));
+        }
+        return summaries;
+    }
+
+    // ================ CHANGES ================
+
+    /**
+     * A review was created approved or has just been approved. Must run in the review's transaction.
+     */
+    public void reviewAdded(Review review) {
+        apply(review, 1);
+    }
+
+    /**
+     * An approved review was deleted or withdrawn. Must run in the review's transaction.
+     */
+    public void reviewRemoved(Review review) {
+        apply(review, -1);
+    }
+
+    private void apply(Review review, int sign) {
+        int rating = review.getRating();
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        if (review.getProduct() != null) {
+            update(RatingSubjectType.PRODUCT, review.getProduct().getId(), rating, sign);
+        }
+        if (review.getVendor() != null) {
+            update(RatingSubjectType.VENDOR, review.getVendor().getId(), rating, sign);
+        }
+    }
+
+    private void update(RatingSubjectType type, Long subjectId, int rating, int sign) {
+        if (applyDelta(type, subjectId, rating, sign) > 0) {
+            return;
+        }
+        if (sign < 0) {
+            log.warn("⚠️ No rating aggregate for {} {}; left for the repair job", type, subjectId);
+            return;
+        }
+        createEmpty(type, subjectId);
+        applyDelta(type, subjectId, rating, sign);
+    }
+
+    private int applyDelta(RatingSubjectType type, Long subjectId, int rating, int sign) {
+        int points = sign * rating;
+        return jdbcTemplate.update(UPDATE_SQL,
+                sign, points,
+                bucket(1, rating, sign), bucket(2, rating, sign), bucket(3, rating, sign),
+                bucket(4, rating, sign), bucket(5, rating, sign),
+                sign, points, sign,
+                priorWeight * priorMean(type), points, priorWeight, sign,
+                Timestamp.valueOf(LocalDateTime.now()), type.name(), subjectId);
+    }
+
+    private static int bucket(int stars, int rating, int sign) {
+        return stars == rating ? sign : 0;
+    }
+
+    // Committed on its own so a concurrent first review of the same subject cannot fail the caller
+    private void createEmpty(RatingSubjectType type, Long subjectId) {
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_EMPTY_SQL,
+                    type.name(), subjectId, priorMean(type), Timestamp.valueOf(LocalDateTime.now())));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Rating aggregate for {} {} created concurrently", type, subjectId);
+        }
+    }
+
+    private double priorMean(RatingSubjectType type) {
+        return priorMeans.computeIfAbsent(type, this::loadPriorMean);
+    }
+
+    private double loadPriorMean(RatingSubjectType type) {
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT SUM(rating_sum) AS total, SUM(rating_count) AS ratings FROM rating_aggregates WHERE subject_type = ?",
+                type.name());
+        Number total = (Number) totals.get("total");
+        Number ratings = (Number) totals.get("ratings");
+        if (total == null || ratings == null || ratings.longValue() == 0) {
+            return defaultMean;
+        }
+        return total.doubleValue() / ratings.doubleValue();
+    }
+
+    // ================ REPAIR ================
+
+    /**
+     * Rebuild every aggregate from approved reviews with one grouped statement per subject type,
+     * then re-derive each type's mean rating and rescore. A review approved while this runs may
+     * be counted twice or missed until the next repair.
+     */
+    @Scheduled(cron = "${rating.aggregates.repair-cron:0 40 3 * * *}")
+    public RepairResult repair() {
+        long start = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM rating_aggregates");
+            int written = jdbcTemplate.update(REPAIR_SQL.formatted("product_id"), RatingSubjectType.PRODUCT.name())
+                    + jdbcTemplate.update(REPAIR_SQL.formatted("vendor_id"), RatingSubjectType.VENDOR.name());
+            for (RatingSubjectType type : RatingSubjectType.values()) {
+                double mean = loadPriorMean(type);
+                jdbcTemplate.update(RESCORE_SQL, priorWeight * mean, priorWeight, type.name());
+                priorMeans.put(type, mean);
+            }
+            return written;
+        });
+        long duration = System.currentTimeMillis() - start;
+        log.info("⭐ Rating aggregates rebuilt: {} rows in {} ms", rows, duration);
+        return new RepairResult(rows != null ? rows : 0, duration);
+    }
+
+    @Override
+    public String name() {
+        return "rating-aggregate-seed";
+    }
+
+    @Override
+    public int order() {
+        return 110;
+    }
+
+    @Override
+    public int run() {
+        return repair().rows();
+    }
+}
@@ -1,5 +1,6 @@
 package com.itech.itech_backend.modules.buyer.service;
 
+import com.itech.itech_backend.modules.buyer.model.RatingSubjectType;
 import com.itech.itech_backend.modules.buyer.model.Review;
 import com.itech.itech_backend.modules.vendor.model.VendorReview;
 import com.itech.itech_backend.modules.buyer.model.Product;
@@ -15,8 +16,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +34,9 @@ public class ReviewService {
     private final BuyerProductRepository productRepository;
     private final UserRepository userRepository;
     private final VendorsRepository vendorsRepository;
+    private final RatingAggregateService ratingAggregateService;
 
+    @Transactional
     public Review createProductReview(Long userId, Long productId, int rating, String comment, String title) {
         try {
             User user = userRepository.findById(userId)
@@ -52,15 +57,27 @@ public class ReviewService {
                 .createdAt(LocalDateTime.now())
                 .build();
             
-            return reviewRepository.save(review);
+            return saveNewReview(review);
         } catch (Exception e) {
             log.error("Error creating product review", e);
             throw new RuntimeException("Failed to create review: " + e.getMessage());
         }
     }
 
+    @Transactional
     public Review createProductReview(Review review) {
-        return reviewRepository.save(review);
+        return saveNewReview(review);
+    }
+
+    private Review saveNewReview(Review review) {
+        if (review.getRating() < 1 || review.getRating() > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        Review saved = reviewRepository.save(review);
+        if (saved.isApproved()) {
+            ratingAggregateService.reviewAdded(saved);
+        }
+        return saved;
     }
 
     public VendorReview createVendorReview(VendorReview vendorReview) {
@@ -87,46 +104,59 @@ public class ReviewService {
         return reviewRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
 
+    @Transactional
     public Review approveReview(Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
             .orElseThrow(() -> new RuntimeException("Review not found"));
+        if (review.isApproved()) {
+            return review;
+        }
         review.setApproved(true);
+        ratingAggregateService.reviewAdded(review);
         review.setUpdatedAt(LocalDateTime.now());
         return reviewRepository.save(review);
     }
 
+    @Transactional
     public void deleteReview(Long reviewId) {
-        reviewRepository.deleteById(reviewId);
+        reviewRepository.findById(reviewId).ifPresent(review -> {
+            reviewRepository.delete(review);
+            if (review.isApproved()) {
+                ratingAggregateService.reviewRemoved(review);
+            }
+        });
     }
 
     public Map<String, Object> getProductRatingStats(Long productId) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        Double avgRating = reviewRepository.getAverageRatingByProductId(productId);
-        Long totalReviews = reviewRepository.countByProductIdAndIsApprovedTrue(productId);
-        List<Object[]> ratingDistribution = reviewRepository.getRatingDistributionByProductId(productId);
-        
-        stats.put("averageRating", avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0);
-        stats.put("totalReviews", totalReviews);
-        stats.put("ratingDistribution", ratingDistribution);
-        
-        return stats;
+        return ratingStats(ratingAggregateService.summary(RatingSubjectType.PRODUCT, productId));
     }
 
     public Map<String, Object> getVendorRatingStats(Long vendorId) {
+        return ratingStats(ratingAggregateService.summary(RatingSubjectType.VENDOR, vendorId));
+    }
+
+    // Same shape as the old per-request aggregation: distribution rows are [stars, count] for rated stars only
+    private Map<String, Object> ratingStats(RatingAggregateService.RatingSummary summary) {
         Map<String, Object> stats = new HashMap<>();
+        List<Object[]> ratingDistribution = new ArrayList<>();
+        for (int stars = 1; stars <= 5; stars++) {
+            if (summary.stars(stars) > 0) {
+                ratingDistribution.add(new Object[]{stars, summary.stars(stars)});
+            }
+        }
         
-        Double avgRating = reviewRepository.getAverageRatingByVendorId(vendorId);
-        Long totalReviews = reviewRepository.countByVendorIdAndIsApprovedTrue(vendorId);
-        List<Object[]> ratingDistribution = reviewRepository.getRatingDistributionByVendorId(vendorId);
-        
-        stats.put("averageRating", avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0);
-        stats.put("totalReviews", totalReviews);
+        stats.put("averageRating", Math.round(summary.averageRating() * 10.0) / 10.0);
+        stats.put("bayesianScore", Math.round(summary.bayesianScore() * 100.0) / 100.0);
+        stats.put("totalReviews", summary.count());
         stats.put("ratingDistribution", ratingDistribution);
         
         return stats;
     }
 
+    public RatingAggregateService.RepairResult repairRatingAggregates() {
+        return ratingAggregateService.repair();
+    }
+
     public Page<Review> getPendingReviews(Pageable pageable) {
         return reviewRepository.findByIsApprovedFalseOrderByCreatedAtDesc(pageable);
     }
@@ -0,0 +1,132 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Objects;
+
+/**
+ * Reports product and taxonomy node changes made through Hibernate to the
+ * {@link TaxonomyCounterStore}. Updates compare the loaded state with the new one, so only a
+ * change of micro category, category or active flag produces a delta.
+ *
+ * Registered with the session factory, which is built before the store; the store is looked up
+ * on first use.
+ */
+public class TaxonomyCounterListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ObjectProvider<TaxonomyCounterStore> store;
+
+    public TaxonomyCounterListener(ObjectProvider<TaxonomyCounterStore> store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Product product) {
+            store.getObject().productChanged(null, placement(product.getMicroCategory(), product.getCategory(), product.isActive()));
+        } else if (entity instanceof MicroCategory micro) {
+            SubCategory sub = micro.getSubCategory();
+            store.getObject().nodeAdded(TaxonomyNodeType.MICRO_CATEGORY, id(sub), sub != null ? id(sub.getCategory()) : null);
+        } else if (entity instanceof SubCategory sub) {
+            store.getObject().nodeAdded(TaxonomyNodeType.SUB_CATEGORY, null, id(sub.getCategory()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (!(entity instanceof Product || entity instanceof MicroCategory || entity instanceof SubCategory)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        EntityPersister persister = event.getPersister();
+        if (oldState == null) {
+            // Updated without a loaded snapshot (detached update); the delta is unknown
+            store.getObject().structureChanged();
+            return;
+        }
+        if (entity instanceof Product product) {
+            TaxonomyCounterStore.Placement before = placement(
+                    (MicroCategory) oldState[persister.getPropertyIndex("microCategory")],
+                    (Category) oldState[persister.getPropertyIndex("category")],
+                    (Boolean) oldState[persister.getPropertyIndex("isActive")]);
+            TaxonomyCounterStore.Placement after = placement(product.getMicroCategory(), product.getCategory(), product.isActive());
+            if (!before.equals(after)) {
+                store.getObject().productChanged(before, after);
+            }
+        } else if (entity instanceof MicroCategory micro) {
+            Object oldParent = oldState[persister.getPropertyIndex("subCategory")];
+            if (!Objects.equals(id(oldParent), id(micro.getSubCategory()))) {
+                store.getObject().structureChanged();
+            }
+        } else if (entity instanceof SubCategory sub) {
+            Object oldParent = oldState[persister.getPropertyIndex("category")];
+            if (!Objects.equals(id(oldParent), id(sub.getCategory()))) {
+                store.getObject().structureChanged();
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Product product) {
+            store.getObject().productChanged(placement(product.getMicroCategory(), product.getCategory(), product.isActive()), null);
+        } else if (entity instanceof MicroCategory micro) {
+            SubCategory sub = micro.getSubCategory();
+            store.getObject().nodeRemoved(TaxonomyNodeType.MICRO_CATEGORY, micro.getId(),
+                    id(sub), sub != null ? id(sub.getCategory()) : null);
+        } else if (entity instanceof SubCategory sub) {
+            store.getObject().nodeRemoved(TaxonomyNodeType.SUB_CATEGORY, sub.getId(), null, id(sub.getCategory()));
+        } else if (entity instanceof Category category) {
+            store.getObject().nodeRemoved(TaxonomyNodeType.CATEGORY, category.getId(), null, null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static TaxonomyCounterStore.Placement placement(MicroCategory micro, Category category, boolean active) {
+        if (micro == null) {
+            return new TaxonomyCounterStore.Placement(null, null, id(category), active);
+        }
+        SubCategory sub = micro.getSubCategory();
+        return new TaxonomyCounterStore.Placement(id(micro), id(sub), sub != null ? id(sub.getCategory()) : id(category), active);
+    }
+
+    // Reads the id of an uninitialised proxy without loading it
+    private static Long id(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        if (entity instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        if (entity instanceof Category category) {
+            return category.getId();
+        }
+        if (entity instanceof SubCategory sub) {
+            return sub.getId();
+        }
+        if (entity instanceof MicroCategory micro) {
+            return micro.getId();
+        }
+        throw new IllegalArgumentException("Not a taxonomy node: " + entity.getClass().getSimpleName());
+    }
+}
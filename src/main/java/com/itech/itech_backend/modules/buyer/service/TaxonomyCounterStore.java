@@ -0,0 +1,424 @@
+package com.itech.itech_backend.modules.buyer.service;
+
+import com.itech.itech_backend.modules.buyer.model.TaxonomyCounter;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType;
+import com.itech.itech_backend.modules.buyer.repository.TaxonomyCounterRepository;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.shared.startup.StartupTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product and sub-node counts per taxonomy node, kept in {@code taxonomy_counters} so listings
+ * never walk the lazy category → sub category → micro category → product collections.
+ *
+ * {@link TaxonomyCounterListener} reports product and node lifecycle changes; each change is
+ * rolled up to the node's ancestors and queued as a per-node delta once its transaction
+ * commits. A scheduled flush applies the deltas with one batched UPDATE (ordered by node, so
+ * concurrent flushes lock rows in the same order). Reads add the deltas still queued on this
+ * node. {@link #recount()} rebuilds the table with one grouped INSERT ... SELECT; it runs once
+ * on first start, nightly, on demand, and after a sub or micro category changes parent. Every
+ * node schedules it, so it runs under a {@link ClusterLock} lease and the nodes that find the
+ * lease taken skip it.
+ *
+ * Products without a micro category count against their own category. Bulk JDBC writes to
+ * products bypass the listener; {@link BulkProductWriter} reports them through
+ * {@link #productsChanged}, one call per chunk.
+ */
+@Service
+@Slf4j
+public class TaxonomyCounterStore implements StartupTask {
+
+    public record Counts(long products, long activeProducts, long children, long descendants) {
+
+        public static final Counts ZERO = new Counts(0, 0, 0, 0);
+
+        public static Counts of(TaxonomyCounter counter) {
+            return counter == null ? ZERO : new Counts(counter.getProductCount(), counter.getActiveProductCount(),
+                    counter.getChildCount(), counter.getDescendantCount());
+        }
+
+        Counts plus(Counts other) {
+            return new Counts(products + other.products, activeProducts + other.activeProducts,
+                    children + other.children, descendants + other.descendants);
+        }
+    }
+
+    /**
+     * Where a product sits in the tree. The micro and sub category ids are null for products
+     * attached directly to a category.
+     */
+    public record Placement(Long microCategoryId, Long subCategoryId, Long categoryId, boolean active) {}
+
+    /**
+     * Rows written by a recount; {@code skipped} when another node was already recounting
+     */
+    public record RecountResult(int nodes, long durationMs, boolean skipped) {}
+
+    record NodeKey(TaxonomyNodeType type, long id) implements Comparable<NodeKey> {
+        @Override
+        public int compareTo(NodeKey other) {
+            int byType = type.compareTo(other.type);
+            return byType != 0 ? byType : Long.compare(id, other.id);
+        }
+    }
+
+    private static final String UPDATE_SQL = """
+            UPDATE taxonomy_counters
+               SET product_count = product_count + ?, active_product_count = active_product_count + ?,
+                   child_count = child_count + ?, descendant_count = descendant_count + ?, updated_at = ?
+             WHERE node_type = ? AND node_id = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO taxonomy_counters
+                (product_count, active_product_count, child_count, descendant_count, updated_at, node_type, node_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String RECOUNT_LOCK = "taxonomy-counters-recount";
+
+    private static final String DELETE_SQL = "DELETE FROM taxonomy_counters WHERE node_type = ? AND node_id = ?";
+
+    // Products under a micro category roll up through its sub category; the rest count at their own category
+    private static final String RECOUNT_SQL = """
+            INSERT INTO taxonomy_counters
+                (node_type, node_id, product_count, active_product_count, child_count, descendant_count, updated_at)
+            SELECT 'MICRO_CATEGORY', m.id, COUNT(p.id), COUNT(CASE WHEN p.is_active THEN 1 END), 0, 0, CURRENT_TIMESTAMP
+              FROM buyer_micro_category m
+              LEFT JOIN buyer_products p ON p.micro_category_id = m.id
+             GROUP BY m.id
+            UNION ALL
+            SELECT 'SUB_CATEGORY', s.id, COUNT(p.id), COUNT(CASE WHEN p.is_active THEN 1 END),
+                   COUNT(DISTINCT m.id), COUNT(DISTINCT m.id), CURRENT_TIMESTAMP
+              FROM sub_categories s
+              LEFT JOIN buyer_micro_category m ON m.sub_category_id = s.id
+              LEFT JOIN buyer_products p ON p.micro_category_id = m.id
+             GROUP BY s.id
+            UNION ALL
+            SELECT 'CATEGORY', c.id, COALESCE(pc.products, 0), COALESCE(pc.active_products, 0),
+                   COALESCE(sc.subs, 0), COALESCE(sc.subs, 0) + COALESCE(sc.micros, 0), CURRENT_TIMESTAMP
+              FROM buyer_category c
+              LEFT JOIN (SELECT COALESCE(s.category_id, p.category_id) AS category_id, COUNT(*) AS products,
+                                COUNT(CASE WHEN p.is_active THEN 1 END) AS active_products
+                           FROM buyer_products p
+                           LEFT JOIN buyer_micro_category m ON m.id = p.micro_category_id
+                           LEFT JOIN sub_categories s ON s.id = m.sub_category_id
+                          GROUP BY COALESCE(s.category_id, p.category_id)) pc ON pc.category_id = c.id
+              LEFT JOIN (SELECT s.category_id, COUNT(DISTINCT s.id) AS subs, COUNT(m.id) AS micros
+                           FROM sub_categories s
+                           LEFT JOIN buyer_micro_category m ON m.sub_category_id = s.id
+                          GROUP BY s.category_id) sc ON sc.category_id = c.id
+            """;
+
+    private final TaxonomyCounterRepository counterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterLock clusterLock;
+
+    @Value("${taxonomy.counters.recount-lease-ms:600000}")
+    private long recountLeaseMs = 600_000;
+
+    private final Map<NodeKey, Counts> pendingDeltas = new ConcurrentHashMap<>();
+    private final Set<NodeKey> removedNodes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean recountRequested = new AtomicBoolean(false);
+    // Flushes skip a round while a recount holds this; a recount waits for a running flush
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public TaxonomyCounterStore(TaxonomyCounterRepository counterRepository,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ClusterLock clusterLock) {
+        this.counterRepository = counterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterLock = clusterLock;
+    }
+
+    // ================ READS ================
+
+    public Counts counts(TaxonomyNodeType type, Long nodeId) {
+        return counts(type, List.of(nodeId)).get(nodeId);
+    }
+
+    /**
+     * Counts for a page of nodes in one query; nodes without a row yet count as zero
+     */
+    public Map<Long, Counts> counts(TaxonomyNodeType type, Collection<Long> nodeIds) {
+        Map<Long, TaxonomyCounter> stored = new HashMap<>();
+        if (!nodeIds.isEmpty()) {
+            counterRepository.findByNodeTypeAndNodeIdIn(type, nodeIds)
+                    .forEach(counter -> stored.put(counter.getNodeId(), counter));
+        }
+        Map<Long, Counts> counts = new HashMap<>();
+        for (Long nodeId : nodeIds) {
+            counts.put(nodeId, counts(type, nodeId, stored.get(nodeId)));
+        }
+        return counts;
+    }
+
+    /**
+     * Counts for a row already read with its node, plus anything still queued on this node
+     */
+    public Counts counts(TaxonomyNodeType type, Long nodeId, TaxonomyCounter stored) {
+        Counts pending = pendingDeltas.get(new NodeKey(type, nodeId));
+        return pending == null ? Counts.of(stored) : Counts.of(stored).plus(pending);
+    }
+
+    // ================ CHANGES ================
+
+    /**
+     * A product was created ({@code before} null), deleted ({@code after} null), moved or
+     * (de)activated
+     */
+    public void productChanged(Placement before, Placement after) {
+        productsChanged(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    /**
+     * Products written in bulk: {@code before} holds the placements they left (deleted, moved
+     * or (de)activated products), {@code after} the ones they took (new, moved or
+     * (de)activated products). Queued as one delta per node.
+     */
+    public void productsChanged(Collection<Placement> before, Collection<Placement> after) {
+        Map<NodeKey, Counts> deltas = new HashMap<>();
+        before.forEach(placement -> addPlacement(deltas, placement, -1));
+        after.forEach(placement -> addPlacement(deltas, placement, 1));
+        deltas.values().removeIf(Counts.ZERO::equals);
+        if (!deltas.isEmpty()) {
+            afterCommit(() -> deltas.forEach((key, delta) -> pendingDeltas.merge(key, delta, Counts::plus)));
+        }
+    }
+
+    /**
+     * A sub category ({@code subCategoryId} null) or micro category was created
+     */
+    public void nodeAdded(TaxonomyNodeType type, Long subCategoryId, Long categoryId) {
+        Map<NodeKey, Counts> deltas = nodeDeltas(type, subCategoryId, categoryId, 1);
+        afterCommit(() -> deltas.forEach((key, delta) -> pendingDeltas.merge(key, delta, Counts::plus)));
+    }
+
+    /**
+     * A node was deleted: its row is dropped and its ancestors lose it as a child or descendant.
+     * Products deleted with it are reported separately.
+     */
+    public void nodeRemoved(TaxonomyNodeType type, Long nodeId, Long subCategoryId, Long categoryId) {
+        Map<NodeKey, Counts> deltas = nodeDeltas(type, subCategoryId, categoryId, -1);
+        afterCommit(() -> {
+            removedNodes.add(new NodeKey(type, nodeId));
+            deltas.forEach((key, delta) -> pendingDeltas.merge(key, delta, Counts::plus));
+        });
+    }
+
+    /**
+     * A sub or micro category moved to another parent (everything below it moves too), so the
+     * next flush recounts instead of applying deltas
+     */
+    public void structureChanged() {
+        afterCommit(() -> recountRequested.set(true));
+    }
+
+    // ================ FLUSH & RECOUNT ================
+
+    /**
+     * Apply queued deltas to the counters table
+     */
+    @Scheduled(fixedDelayString = "${taxonomy.counters.flush-interval-ms:2000}")
+    public void flush() {
+        if (recountRequested.get()) {
+            recount(true);
+            return;
+        }
+        if (!writeLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild every counter from the taxonomy and product tables with one grouped statement.
+     * Deltas queued on this node are flushed first, so they are either superseded by the
+     * rebuilt rows or, if another node holds the recount lease, not lost. Deltas still queued on
+     * other nodes, and a product change committed while the statement runs, may be counted twice
+     * until the next recount.
+     */
+    @Scheduled(cron = "${taxonomy.counters.recount-cron:0 20 3 * * *}")
+    public RecountResult recount() {
+        return recount(false);
+    }
+
+    // A requested recount that finds the lease taken stays requested: the running one may have
+    // read the tree before the change
+    private RecountResult recount(boolean retryWhenBusy) {
+        writeLock.lock();
+        try {
+            recountRequested.set(false);
+            writePending();
+            Optional<RecountResult> result = clusterLock.runLocked(RECOUNT_LOCK, Duration.ofMillis(recountLeaseMs), () -> {
+                long start = System.currentTimeMillis();
+                Integer nodes = transactionTemplate.execute(status -> {
+                    jdbcTemplate.update("DELETE FROM taxonomy_counters");
+                    return jdbcTemplate.update(RECOUNT_SQL);
+                });
+                long duration = System.currentTimeMillis() - start;
+                log.info("🔢 Taxonomy counters rebuilt: {} nodes in {} ms", nodes, duration);
+                return new RecountResult(nodes != null ? nodes : 0, duration, false);
+            });
+            if (result.isEmpty()) {
+                log.info("Taxonomy counter recount is running on another node, skipped here");
+                if (retryWhenBusy) {
+                    recountRequested.set(true);
+                }
+            }
+            return result.orElse(new RecountResult(0, 0, true));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "taxonomy-counter-seed";
+    }
+
+    @Override
+    public int order() {
+        // After the sample taxonomy and products are seeded
+        return 100;
+    }
+
+    @Override
+    public int run() {
+        return recount().nodes();
+    }
+
+    // ================ HELPERS ================
+
+    // Caller holds the write lock
+    private void writePending() {
+        Map<NodeKey, Counts> deltas = new TreeMap<>();
+        for (NodeKey key : pendingDeltas.keySet()) {
+            Counts delta = pendingDeltas.remove(key);
+            if (delta != null) {
+                deltas.merge(key, delta, Counts::plus);
+            }
+        }
+        Set<NodeKey> removed = new HashSet<>();
+        for (NodeKey key : removedNodes) {
+            if (removedNodes.remove(key)) {
+                removed.add(key);
+            }
+        }
+        if (deltas.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(deltas, removed));
+        } catch (RuntimeException e) {
+            log.warn("Could not flush taxonomy counters, will retry: {}", e.getMessage());
+            deltas.forEach((key, delta) -> pendingDeltas.merge(key, delta, Counts::plus));
+            removedNodes.addAll(removed);
+        }
+    }
+
+    private void write(Map<NodeKey, Counts> deltas, Set<NodeKey> removed) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<NodeKey> keys = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (!removed.contains(key)) {
+                keys.add(key);
+                updates.add(new Object[]{delta.products(), delta.activeProducts(), delta.children(),
+                        delta.descendants(), now, key.type().name(), key.id()});
+            }
+        });
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        // No row yet: the node was created after the last recount, so its delta is its count
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] row = updates.get(i);
+                for (int column = 0; column < 4; column++) {
+                    row[column] = Math.max(0L, (Long) row[column]);
+                }
+                inserts.add(row);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, removed.stream()
+                    .map(key -> new Object[]{key.type().name(), key.id()})
+                    .toList());
+        }
+        log.debug("Flushed {} taxonomy counter deltas ({} new rows, {} removed)", keys.size(), inserts.size(), removed.size());
+    }
+
+    private static void addPlacement(Map<NodeKey, Counts> deltas, Placement placement, int sign) {
+        Counts delta = new Counts(sign, placement.active() ? sign : 0, 0, 0);
+        if (placement.microCategoryId() != null) {
+            deltas.merge(new NodeKey(TaxonomyNodeType.MICRO_CATEGORY, placement.microCategoryId()), delta, Counts::plus);
+        }
+        if (placement.subCategoryId() != null) {
+            deltas.merge(new NodeKey(TaxonomyNodeType.SUB_CATEGORY, placement.subCategoryId()), delta, Counts::plus);
+        }
+        if (placement.categoryId() != null) {
+            deltas.merge(new NodeKey(TaxonomyNodeType.CATEGORY, placement.categoryId()), delta, Counts::plus);
+        }
+    }
+
+    private static Map<NodeKey, Counts> nodeDeltas(TaxonomyNodeType type, Long subCategoryId, Long categoryId, int sign) {
+        Map<NodeKey, Counts> deltas = new HashMap<>();
+        if (type == TaxonomyNodeType.MICRO_CATEGORY) {
+            if (subCategoryId != null) {
+                deltas.put(new NodeKey(TaxonomyNodeType.SUB_CATEGORY, subCategoryId), new Counts(0, 0, sign, sign));
+            }
+            if (categoryId != null) {
+                deltas.put(new NodeKey(TaxonomyNodeType.CATEGORY, categoryId), new Counts(0, 0, 0, sign));
+            }
+        } else if (type == TaxonomyNodeType.SUB_CATEGORY && categoryId != null) {
+            deltas.put(new NodeKey(TaxonomyNodeType.CATEGORY, categoryId), new Counts(0, 0, sign, sign));
+        }
+        return deltas;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.itech.itech_backend.modules.category.controller;
 
 import com.itech.itech_backend.modules.category.model.Category;
 import com.itech.itech_backend.modules.category.service.CategoryService;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
+import com.itech.itech_backend.modules.shared.httpcache.CacheDomain;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -83,10 +86,33 @@ public class CategoryController {
             @RequestParam(required = false) Boolean isActive,
             @RequestParam(required = false) Boolean visibleToVendors,
             @RequestParam(required = false) Boolean visibleToCustomers,
-            @RequestParam(required = false) Long parentCategoryId) {
+            @RequestParam(required = false) Long parentCategoryId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
         try {
             log.info("📋 Get categories request - Page: {}, Size: {}, Search: {}", page, size, search);
 
+            // Any cursor (empty for the first page) switches to keyset paging
+            if (cursor != null) {
+                KeysetPage<Category> categories = categoryService.seekFilteredCategories(
+                    search, isActive, visibleToVendors, visibleToCustomers, parentCategoryId, sort, cursor, size
+                );
+
+                Map<String, Object> pagination = new HashMap<>();
+                pagination.put("nextCursor", categories.nextCursor());
+                pagination.put("hasNext", categories.hasNext());
+                pagination.put("totalElements", categories.total());
+                pagination.put("totalExact", categories.totalExact());
+                pagination.put("size", categories.size());
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Categories retrieved successfully");
+                response.put("data", categories.content());
+                response.put("pagination", pagination);
+                return ResponseEntity.ok(response);
+            }
+
             Pageable pageable = PageRequest.of(page, size);
             Page<Category> categories = categoryService.getFilteredCategories(
                 search, isActive, visibleToVendors, visibleToCustomers, parentCategoryId, pageable
@@ -120,6 +146,7 @@ public class CategoryController {
      * Get active categories (for dropdowns)
      */
     @GetMapping("/active")
+    @HttpCacheable(value = CacheDomain.CATEGORIES, maxAge = 300, staleWhileRevalidate = 3600)
     public ResponseEntity<Map<String, Object>> getActiveCategories() {
         try {
             log.info("📋 Get active categories request");
@@ -148,6 +175,7 @@ public class CategoryController {
      * Get root categories (top level categories)
      */
     @GetMapping("/root")
+    @HttpCacheable(value = CacheDomain.CATEGORIES, maxAge = 300, staleWhileRevalidate = 3600)
     public ResponseEntity<Map<String, Object>> getRootCategories() {
         try {
             log.info("🌳 Get root categories request");
@@ -204,6 +232,7 @@ public class CategoryController {
      * Get categories visible to customers
      */
     @GetMapping("/customer-visible")
+    @HttpCacheable(value = CacheDomain.CATEGORIES, maxAge = 300, staleWhileRevalidate = 3600)
     public ResponseEntity<Map<String, Object>> getCustomerVisibleCategories() {
         try {
             log.info("👥 Get customer-visible categories request");
@@ -232,6 +261,7 @@ public class CategoryController {
      * Get category hierarchy
      */
     @GetMapping("/hierarchy")
+    @HttpCacheable(value = CacheDomain.CATEGORIES, maxAge = 300, staleWhileRevalidate = 3600)
     public ResponseEntity<Map<String, Object>> getCategoryHierarchy() {
         try {
             log.info("🌲 Get category hierarchy request");
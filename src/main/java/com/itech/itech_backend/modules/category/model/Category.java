@@ -1,7 +1,10 @@
 package com.itech.itech_backend.modules.category.model;
 
 import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +19,8 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.CATALOG_CATEGORY)
 public class Category {
     
     @Id
@@ -40,6 +45,7 @@ public class Category {
     @JoinColumn(name = "parent_category_id")
     private Category parentCategory;
     
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.CATALOG_CATEGORY_CHILDREN)
     @OneToMany(mappedBy = "parentCategory", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Category> subCategories;
     
@@ -1,8 +1,12 @@
 package com.itech.itech_backend.modules.category.repository;
 
 import com.itech.itech_backend.modules.category.model.Category;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -19,12 +23,18 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findBySlug(String slug);
     
     // Find active categories
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findByIsActiveTrueOrderByDisplayOrderAsc();
     
     // Find root categories (no parent)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findByParentCategoryIsNullAndIsActiveTrueOrderByDisplayOrderAsc();
     
     // Find subcategories of a parent
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findByParentCategoryIdAndIsActiveTrueOrderByDisplayOrderAsc(Long parentCategoryId);
     
     // Find categories visible to vendors
@@ -60,6 +70,8 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     // Find categories for vendor dropdown (visible to vendors)
     @Query("SELECT c FROM Category c WHERE c.visibleToVendors = true AND c.isActive = true ORDER BY c.categoryLevel ASC, c.displayOrder ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_CATEGORIES)})
     List<Category> findVendorVisibleCategories();
     
     // Get popular categories (based on product count - will need to join with products table)
@@ -4,10 +4,12 @@ import com.itech.itech_backend.modules.category.model.Category;
 import com.itech.itech_backend.modules.category.repository.CategoryRepository;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.query.AdminQuery;
+import com.itech.itech_backend.modules.shared.query.FilterSchema;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +24,21 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final AdminQuery adminQuery;
+
+    // Admin list filters; parentCategoryId 0 means root categories
+    public static final FilterSchema<Category> ADMIN_FILTERS = FilterSchema.of(Category.class)
+            .search("search", "name", "description")
+            .equal("isActive")
+            .equal("visibleToVendors")
+            .equal("visibleToCustomers")
+            .filter("parentCategoryId", value -> "0".equals(value)
+                    ? (root, query, cb) -> cb.isNull(root.get("parentCategory"))
+                    : (root, query, cb) -> cb.equal(root.get("parentCategory").get("id"), Long.valueOf(value)))
+            .sortable("displayOrder", 0)
+            .sortable("name")
+            .sortable("categoryLevel", 0)
+            .defaultSort("displayOrder,name");
 
     /**
      * Create a new category
@@ -388,58 +405,25 @@ public class CategoryService {
                                                 Boolean visibleToCustomers, Long parentCategoryId, Pageable pageable) {
         log.info("🔍 Getting filtered categories - Search: {}, Active: {}, VendorVisible: {}, CustomerVisible: {}", 
                 search, isActive, visibleToVendors, visibleToCustomers);
-        
-        List<Category> allCategories = categoryRepository.findAll();
-        
-        // Apply filters
-        List<Category> filteredCategories = allCategories.stream()
-                .filter(category -> {
-                    // Search filter
-                    if (search != null && !search.trim().isEmpty()) {
-                        String searchLower = search.toLowerCase();
-                        if (!category.getName().toLowerCase().contains(searchLower) &&
-                            (category.getDescription() == null || 
-                             !category.getDescription().toLowerCase().contains(searchLower))) {
-                            return false;
-                        }
-                    }
-                    
-                    // Active filter
-                    if (isActive != null && !category.getIsActive().equals(isActive)) {
-                        return false;
-                    }
-                    
-                    // Vendor visibility filter
-                    if (visibleToVendors != null && !category.getVisibleToVendors().equals(visibleToVendors)) {
-                        return false;
-                    }
-                    
-                    // Customer visibility filter
-                    if (visibleToCustomers != null && !category.getVisibleToCustomers().equals(visibleToCustomers)) {
-                        return false;
-                    }
-                    
-                    // Parent category filter
-                    if (parentCategoryId != null) {
-                        if (category.getParentCategory() == null) {
-                            return parentCategoryId == 0; // 0 means root categories
-                        } else {
-                            return category.getParentCategory().getId().equals(parentCategoryId);
-                        }
-                    }
-                    
-                    return true;
-                })
-                .sorted(Comparator.comparing(Category::getDisplayOrder)
-                        .thenComparing(Category::getName))
-                .collect(Collectors.toList());
-        
-        // Apply pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), filteredCategories.size());
-        
-        List<Category> pageContent = filteredCategories.subList(start, end);
-        
-        return new PageImpl<>(pageContent, pageable, filteredCategories.size());
+        return adminQuery.page(ADMIN_FILTERS,
+                categoryFilters(search, isActive, visibleToVendors, visibleToCustomers, parentCategoryId), null, pageable);
+    }
+
+    /**
+     * Get filtered categories one keyset page at a time (for deep pages on large tables)
+     */
+    public KeysetPage<Category> seekFilteredCategories(String search, Boolean isActive, Boolean visibleToVendors,
+                                                       Boolean visibleToCustomers, Long parentCategoryId,
+                                                       String sort, String cursor, int size) {
+        log.info("🔍 Seeking filtered categories - Search: {}, Active: {}, Parent: {}, Sort: {}",
+                search, isActive, parentCategoryId, sort);
+        return adminQuery.seek(ADMIN_FILTERS,
+                categoryFilters(search, isActive, visibleToVendors, visibleToCustomers, parentCategoryId), sort, cursor, size);
+    }
+
+    private static Map<String, String> categoryFilters(String search, Boolean isActive, Boolean visibleToVendors,
+                                                       Boolean visibleToCustomers, Long parentCategoryId) {
+        return FilterSchema.params("search", search, "isActive", isActive, "visibleToVendors", visibleToVendors,
+                "visibleToCustomers", visibleToCustomers, "parentCategoryId", parentCategoryId);
     }
 }
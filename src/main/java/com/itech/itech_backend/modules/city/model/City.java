@@ -2,7 +2,10 @@ package com.itech.itech_backend.modules.city.model;
 
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.dataentry.entity.State;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -35,6 +38,8 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.CITY)
 public class City {
     
     @Id
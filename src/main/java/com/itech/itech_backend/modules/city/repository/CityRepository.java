@@ -1,8 +1,12 @@
 package com.itech.itech_backend.modules.city.repository;
 
 import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -53,16 +57,22 @@ public interface CityRepository extends JpaRepository<City, Long> {
     @Query("SELECT c FROM City c WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL AND c.isActive = true ORDER BY c.name ASC")
     List<City> findCitiesWithCoordinates();
     
-    // Find cities within a radius (if you need geo-spatial queries later)
+    // Find cities within a radius; the bounding box lets the (latitude, longitude) index
+    // discard most rows before the distance expression is evaluated
     @Query(value = "SELECT * FROM cities c WHERE " +
                    "c.is_active = true AND " +
-                   "c.latitude IS NOT NULL AND c.longitude IS NOT NULL AND " +
-                   "(6371 * acos(cos(radians(:lat)) * cos(radians(c.latitude)) * cos(radians(c.longitude) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.latitude)))) <= :radius " +
-                   "ORDER BY (6371 * acos(cos(radians(:lat)) * cos(radians(c.latitude)) * cos(radians(c.longitude) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.latitude))))",
+                   "c.latitude BETWEEN :minLat AND :maxLat AND " +
+                   "c.longitude BETWEEN :minLng AND :maxLng AND " +
+                   "(6371 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(c.latitude)) * cos(radians(c.longitude) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.latitude))))) <= :radius " +
+                   "ORDER BY (6371 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(c.latitude)) * cos(radians(c.longitude) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.latitude)))))",
            nativeQuery = true)
-    List<City> findCitiesWithinRadius(@Param("lat") double latitude, 
-                                      @Param("lng") double longitude, 
-                                      @Param("radius") double radiusInKm);
+    List<City> findCitiesWithinRadius(@Param("lat") double latitude,
+                                      @Param("lng") double longitude,
+                                      @Param("radius") double radiusInKm,
+                                      @Param("minLat") double minLatitude,
+                                      @Param("maxLat") double maxLatitude,
+                                      @Param("minLng") double minLongitude,
+                                      @Param("maxLng") double maxLongitude);
     
     // Get distinct countries
     @Query("SELECT DISTINCT c.country FROM City c WHERE c.isActive = true ORDER BY c.country")
@@ -91,6 +101,8 @@ public interface CityRepository extends JpaRepository<City, Long> {
     
     // Get cities for dropdown (name and display name)
     @Query("SELECT c FROM City c WHERE c.isActive = true ORDER BY c.displayOrder ASC, c.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_LOCATIONS)})
     List<City> findAllForDropdown();
     
     // Find cities by postal code
@@ -0,0 +1,99 @@
+package com.itech.itech_backend.modules.city.service;
+
+import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.city.repository.CityRepository;
+import com.itech.itech_backend.modules.shared.geo.GeoGridIndex;
+import com.itech.itech_backend.modules.shared.geo.GeoHit;
+import com.itech.itech_backend.modules.shared.geo.GeoMath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * In-memory spatial index over active cities with coordinates.
+ *
+ * Loaded once the application is ready and kept current by {@link CityService}, which
+ * pushes every saved city after its transaction commits. Until the first load finishes,
+ * radius queries fall back to the bounding-box prefiltered SQL query.
+ */
+@Component
+@Slf4j
+public class CityGeoIndex {
+
+    private final CityRepository cityRepository;
+    private final GeoGridIndex<City> index;
+
+    private volatile boolean ready;
+
+    public CityGeoIndex(CityRepository cityRepository,
+                        @Value("${geo.index.city-cell-degrees:0.5}") double cellDegrees) {
+        this.cityRepository = cityRepository;
+        this.index = new GeoGridIndex<>(cellDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            List<City> cities = cityRepository.findCitiesWithCoordinates();
+            index.clear();
+            cities.forEach(this::apply);
+            ready = true;
+            log.info("City geo index loaded with {} cities", index.size());
+        } catch (Exception e) {
+            log.warn("City geo index not loaded, radius queries will use SQL: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cities within {@code radiusKm}, nearest first
+     */
+    public List<City> withinRadius(double latitude, double longitude, double radiusKm) {
+        if (!ready) {
+            GeoMath.BoundingBox box = GeoMath.boundingBox(latitude, longitude, radiusKm).asRange();
+            return cityRepository.findCitiesWithinRadius(latitude, longitude, radiusKm,
+                    box.minLat(), box.maxLat(), box.minLng(), box.maxLng());
+        }
+        return index.withinRadius(latitude, longitude, radiusKm).stream().map(GeoHit::value).toList();
+    }
+
+    /**
+     * The {@code count} cities nearest to the given point, with distances
+     */
+    public List<GeoHit<City>> nearest(double latitude, double longitude, int count) {
+        return index.nearest(latitude, longitude, count);
+    }
+
+    /**
+     * Reflect a saved city in the index once the surrounding transaction commits
+     */
+    public void update(City city) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(city);
+                }
+            });
+        } else {
+            apply(city);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void apply(City city) {
+        if (Boolean.TRUE.equals(city.getIsActive())) {
+            index.put(city.getId(), city.getLatitude(), city.getLongitude(), city);
+        } else {
+            index.remove(city.getId());
+        }
+    }
+}
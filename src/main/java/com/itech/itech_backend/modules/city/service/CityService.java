@@ -4,10 +4,12 @@ import com.itech.itech_backend.modules.city.model.City;
 import com.itech.itech_backend.modules.city.repository.CityRepository;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.query.AdminQuery;
+import com.itech.itech_backend.modules.shared.query.FilterSchema;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +24,20 @@ public class CityService {
 
     private final CityRepository cityRepository;
     private final UserRepository userRepository;
+    private final CityGeoIndex cityGeoIndex;
+    private final AdminQuery adminQuery;
+
+    // Admin list filters; ordered like the city dropdowns
+    public static final FilterSchema<City> ADMIN_FILTERS = FilterSchema.of(City.class)
+            .search("search", "name", "stateProvince", "country", "searchKeywords")
+            .equal("isActive")
+            .equalIgnoreCase("country")
+            .equalIgnoreCase("stateProvince")
+            .equal("isMajorCity")
+            .sortable("displayOrder", 0)
+            .sortable("name")
+            .sortable("country")
+            .defaultSort("displayOrder,name");
 
     /**
      * Create a new city
@@ -59,6 +75,7 @@ public class CityService {
                     .build();
 
             City savedCity = cityRepository.save(city);
+            cityGeoIndex.update(savedCity);
             log.info("✅ City created successfully: {} (ID: {})", savedCity.getName(), savedCity.getId());
             
             return savedCity;
@@ -183,7 +200,22 @@ public class CityService {
      */
     public List<City> findCitiesWithinRadius(double latitude, double longitude, double radiusInKm) {
         log.info("📍 Finding cities within {}km of ({}, {})", radiusInKm, latitude, longitude);
-        return cityRepository.findCitiesWithinRadius(latitude, longitude, radiusInKm);
+        return cityGeoIndex.withinRadius(latitude, longitude, radiusInKm);
+    }
+
+    /**
+     * Find the cities nearest to a point, with their distance in km
+     */
+    public List<Map<String, Object>> findNearestCities(double latitude, double longitude, int count) {
+        log.info("📍 Finding {} nearest cities to ({}, {})", count, latitude, longitude);
+        return cityGeoIndex.nearest(latitude, longitude, count).stream()
+                .map(hit -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("city", hit.value());
+                    entry.put("distanceKm", Math.round(hit.distanceKm() * 100.0) / 100.0);
+                    return entry;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
@@ -264,6 +296,7 @@ public class CityService {
             }
 
             City updatedCity = cityRepository.save(city);
+            cityGeoIndex.update(updatedCity);
             log.info("✅ City updated successfully: {}", updatedCity.getName());
             
             return updatedCity;
@@ -302,6 +335,7 @@ public class CityService {
 
             city.setIsActive(false);
             cityRepository.save(city);
+            cityGeoIndex.update(city);
             
             log.info("✅ City soft deleted successfully: {}", city.getName());
 
@@ -372,60 +406,26 @@ public class CityService {
                                         String stateProvince, Boolean isMajorCity, Pageable pageable) {
         log.info("🔍 Getting filtered cities - Search: {}, Active: {}, Country: {}, State: {}, Major: {}", 
                 search, isActive, country, stateProvince, isMajorCity);
-        
-        List<City> allCities = cityRepository.findAll();
-        
-        // Apply filters
-        List<City> filteredCities = allCities.stream()
-                .filter(city -> {
-                    // Search filter
-                    if (search != null && !search.trim().isEmpty()) {
-                        String searchLower = search.toLowerCase();
-                        if (!city.getName().toLowerCase().contains(searchLower) &&
-                            (city.getStateProvince() == null || !city.getStateProvince().toLowerCase().contains(searchLower)) &&
-                            !city.getCountry().toLowerCase().contains(searchLower) &&
-                            (city.getSearchKeywords() == null || !city.getSearchKeywords().toLowerCase().contains(searchLower))) {
-                            return false;
-                        }
-                    }
-                    
-                    // Active filter
-                    if (isActive != null && !city.getIsActive().equals(isActive)) {
-                        return false;
-                    }
-                    
-                    // Country filter
-                    if (country != null && !country.trim().isEmpty() && 
-                        !city.getCountry().equalsIgnoreCase(country)) {
-                        return false;
-                    }
-                    
-                    // State filter
-                    if (stateProvince != null && !stateProvince.trim().isEmpty()) {
-                        if (city.getStateProvince() == null || 
-                            !city.getStateProvince().equalsIgnoreCase(stateProvince)) {
-                            return false;
-                        }
-                    }
-                    
-                    // Major city filter
-                    if (isMajorCity != null && !city.getIsMajorCity().equals(isMajorCity)) {
-                        return false;
-                    }
-                    
-                    return true;
-                })
-                .sorted(Comparator.comparing(City::getDisplayOrder)
-                        .thenComparing(City::getName))
-                .collect(Collectors.toList());
-        
-        // Apply pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), filteredCities.size());
-        
-        List<City> pageContent = filteredCities.subList(start, end);
-        
-        return new PageImpl<>(pageContent, pageable, filteredCities.size());
+        return adminQuery.page(ADMIN_FILTERS,
+                cityFilters(search, isActive, country, stateProvince, isMajorCity), null, pageable);
+    }
+
+    /**
+     * Get filtered cities one keyset page at a time (for deep pages on large tables)
+     */
+    public KeysetPage<City> seekFilteredCities(String search, Boolean isActive, String country,
+                                               String stateProvince, Boolean isMajorCity,
+                                               String sort, String cursor, int size) {
+        log.info("🔍 Seeking filtered cities - Search: {}, Active: {}, Country: {}, State: {}, Major: {}, Sort: {}",
+                search, isActive, country, stateProvince, isMajorCity, sort);
+        return adminQuery.seek(ADMIN_FILTERS,
+                cityFilters(search, isActive, country, stateProvince, isMajorCity), sort, cursor, size);
+    }
+
+    private static Map<String, String> cityFilters(String search, Boolean isActive, String country,
+                                                   String stateProvince, Boolean isMajorCity) {
+        return FilterSchema.params("search", search, "isActive", isActive, "country", country,
+                "stateProvince", stateProvince, "isMajorCity", isMajorCity);
     }
 
     /**
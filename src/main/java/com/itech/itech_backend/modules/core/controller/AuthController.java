@@ -10,12 +10,14 @@ import com.itech.itech_backend.modules.shared.dto.VerifyForgotPasswordOtpDto;
 import com.itech.itech_backend.modules.core.service.AuthService;
 import com.itech.itech_backend.modules.core.service.UnifiedAuthService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -27,11 +29,11 @@ public class AuthController {
     // User registration
     @PostMapping("/register")
     public String register(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 Registration request received:");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 Registration request received:");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -48,7 +50,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ Registration failed - email already exists: " + dto.getEmail());
+                log.warn("❌ Registration failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -59,11 +61,11 @@ public class AuthController {
     // Alternative registration endpoint for frontend compatibility
     @PostMapping("/register1")
     public String register1(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 Registration1 request received (alternative endpoint):");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 Registration1 request received (alternative endpoint):");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -80,7 +82,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ Registration1 failed - email already exists: " + dto.getEmail());
+                log.warn("❌ Registration1 failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -91,11 +93,11 @@ public class AuthController {
     // Vendor registration
     @PostMapping("/vendor/register")
     public String vendorRegister(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 Vendor registration request received:");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 Vendor registration request received:");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -112,7 +114,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ Vendor registration failed - email already exists: " + dto.getEmail());
+                log.warn("❌ Vendor registration failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -123,11 +125,11 @@ public class AuthController {
     // Admin registration
     @PostMapping("/admin/register")
     public String adminRegister(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 Admin registration request received:");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 Admin registration request received:");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -144,7 +146,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ Admin registration failed - email already exists: " + dto.getEmail());
+                log.warn("❌ Admin registration failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -155,11 +157,11 @@ public class AuthController {
     // Support registration
     @PostMapping("/support/register")
     public String supportRegister(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 Support registration request received:");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 Support registration request received:");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -176,7 +178,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ Support registration failed - email already exists: " + dto.getEmail());
+                log.warn("❌ Support registration failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -187,11 +189,11 @@ public class AuthController {
     // CTO registration
     @PostMapping("/cto/register")
     public String ctoRegister(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 CTO registration request received:");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 CTO registration request received:");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -208,7 +210,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ CTO registration failed - email already exists: " + dto.getEmail());
+                log.warn("❌ CTO registration failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -219,11 +221,11 @@ public class AuthController {
     // Data Entry registration
     @PostMapping("/data-entry/register")
     public String dataEntryRegister(@RequestBody RegisterRequestDto dto) {
-        System.out.println("🔍 Data Entry registration request received:");
-        System.out.println("🔍 Name: '" + dto.getName() + "'");
-        System.out.println("🔍 Email: '" + dto.getEmail() + "'");
-        System.out.println("🔍 Phone: '" + dto.getPhone() + "'");
-        System.out.println("🔍 Password: " + (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
+        log.debug("🔍 Data Entry registration request received:");
+        log.debug("🔍 Name: '{}'", dto.getName());
+        log.debug("🔍 Email: '{}'", dto.getEmail());
+        log.debug("🔍 Phone: '{}'", dto.getPhone());
+        log.debug("🔍 Password: {}", (dto.getPassword() != null ? "[PROVIDED]" : "[NULL]"));
         
         // Validate required fields
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
@@ -240,7 +242,7 @@ public class AuthController {
             return unifiedAuthService.register(dto);
         } catch (RuntimeException e) {
             if ("EMAIL_ALREADY_EXISTS".equals(e.getMessage())) {
-                System.out.println("❌ Data Entry registration failed - email already exists: " + dto.getEmail());
+                log.warn("❌ Data Entry registration failed - email already exists: {}", dto.getEmail());
                 return "This email is already registered. Please login instead or use a different email address.";
             }
             // Re-throw other exceptions
@@ -295,22 +297,22 @@ public class AuthController {
         }
         
         try {
-            System.out.println("🔐 Login attempt for: " + loginRequest.getEmailOrPhone() + 
-                             (expectedRole != null ? " (Expected role: " + expectedRole + ")" : ""));
+            log.debug("🔐 Login attempt for: {}{}",
+                    loginRequest.getEmailOrPhone(), (expectedRole != null ? " (Expected role: " + expectedRole + ")" : ""));
             
             // Try direct login first with role validation
             JwtResponse directLogin = unifiedAuthService.directLoginWithRoleValidation(loginRequest, expectedRole);
             if (directLogin != null) {
-                System.out.println("✅ Direct login successful for: " + loginRequest.getEmailOrPhone());
+                log.debug("✅ Direct login successful for: {}", loginRequest.getEmailOrPhone());
                 return ResponseEntity.ok(directLogin);
             }
             
-            System.out.println("ℹ️ Direct login failed, trying OTP-based login");
+            log.warn("ℹ️ Direct login failed, trying OTP-based login");
             // If direct login fails, fall back to OTP-based login with role validation
             String result = unifiedAuthService.sendLoginOtpWithRoleValidation(loginRequest, expectedRole);
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
-            System.out.println("❌ Login error: " + e.getMessage());
+            log.warn("❌ Login error: {}", e.getMessage());
             // Handle specific login errors
             if (e.getMessage().contains("Invalid email/password") || 
                 e.getMessage().contains("Invalid credentials") ||
@@ -333,9 +335,9 @@ public class AuthController {
 
     @PostMapping("/verify")
     public ResponseEntity<?> verifyOtp(@RequestBody VerifyOtpRequestDto dto) {
-        System.out.println("🔍 OTP Verification Request Received");
+        log.debug("🔍 OTP Verification Request Received");
         JwtResponse response = unifiedAuthService.verifyOtpAndGenerateToken(dto);
-        System.out.println(response);
+        log.debug("{}", response);
         if (response == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or Expired OTP!");
         }
@@ -344,18 +346,18 @@ public class AuthController {
 
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOtpAlternate(@RequestBody VerifyOtpRequestDto dto) {
-        System.out.println("🔍 OTP Verification Request Received");
-        System.out.println("📱 Contact: " + dto.getEmailOrPhone());
-        System.out.println("🔢 OTP: " + dto.getOtp());
+        log.debug("🔍 OTP Verification Request Received");
+        log.debug("📱 Contact: {}", dto.getEmailOrPhone());
+        log.debug("🔢 OTP: {}", dto.getOtp());
         
         JwtResponse response = unifiedAuthService.verifyOtpAndGenerateToken(dto);
         
         if (response == null) {
-            System.out.println("❌ OTP Verification Failed");
+            log.warn("❌ OTP Verification Failed");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or Expired OTP!");
         }
         
-        System.out.println("✅ OTP Verification Successful");
+        log.debug("✅ OTP Verification Successful");
         return ResponseEntity.ok(response);
     }
     
@@ -373,11 +375,11 @@ public class AuthController {
         }
         
         try {
-            System.out.println("📧 Forgot password request for: " + dto.getEmail());
+            log.debug("📧 Forgot password request for: {}", dto.getEmail());
             String result = unifiedAuthService.sendForgotPasswordOtp(dto.getEmail());
             return ResponseEntity.ok(result);
         } catch (Exception e) {
-            System.out.println("❌ Forgot password error: " + e.getMessage());
+            log.warn("❌ Forgot password error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -390,7 +392,7 @@ public class AuthController {
         }
         
         try {
-            System.out.println("🔐 Forgot password OTP verification request for: " + dto.getEmail());
+            log.debug("🔐 Forgot password OTP verification request for: {}", dto.getEmail());
             
             JwtResponse response = unifiedAuthService.verifyForgotPasswordOtp(
                 dto.getEmail(), 
@@ -399,14 +401,14 @@ public class AuthController {
             );
             
             if (response == null) {
-                System.out.println("❌ Forgot password OTP verification failed");
+                log.warn("❌ Forgot password OTP verification failed");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or expired OTP");
             }
             
-            System.out.println("✅ Forgot password OTP verification successful, user logged in");
+            log.debug("✅ Forgot password OTP verification successful, user logged in");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.out.println("❌ Forgot password OTP verification error: " + e.getMessage());
+            log.warn("❌ Forgot password OTP verification error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -422,7 +424,7 @@ public class AuthController {
             Map<String, String> result = unifiedAuthService.checkEmailRole(email);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
-            System.out.println("Error in check email role: " + e.getMessage());
+            log.warn("Error in check email role: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
@@ -450,7 +452,7 @@ public class AuthController {
             String result = unifiedAuthService.changePassword(currentPassword, newPassword);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
-            System.out.println("❌ Change password error: " + e.getMessage());
+            log.warn("❌ Change password error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -459,14 +461,14 @@ public class AuthController {
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(@RequestBody Map<String, Object> profileData) {
         try {
-            System.out.println("📝 Update profile request received: " + profileData);
+            log.debug("📝 Update profile request received: {}", profileData);
             
             Object updatedUser = unifiedAuthService.updateProfile(profileData);
-            System.out.println("✅ Profile updated successfully");
+            log.debug("✅ Profile updated successfully");
             
             return ResponseEntity.ok(updatedUser);
         } catch (Exception e) {
-            System.out.println("❌ Update profile error: " + e.getMessage());
+            log.warn("❌ Update profile error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -478,7 +480,7 @@ public class AuthController {
             Object userProfile = unifiedAuthService.getCurrentUserProfile();
             return ResponseEntity.ok(userProfile);
         } catch (Exception e) {
-            System.out.println("❌ Get profile error: " + e.getMessage());
+            log.warn("❌ Get profile error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
         }
     }
@@ -486,14 +488,14 @@ public class AuthController {
     // Logout
     @PostMapping("/logout")
     public ResponseEntity<String> logout() {
-        System.out.println("🚪 Logout Request");
+        log.debug("🚪 Logout Request");
         try {
             // For now, just return success since JWT is stateless
             // In the future, you can add token blacklisting here
-            System.out.println("✅ Logout successful");
+            log.debug("✅ Logout successful");
             return ResponseEntity.ok("Logged out successfully");
         } catch (Exception e) {
-            System.out.println("❌ Logout error: " + e.getMessage());
+            log.warn("❌ Logout error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Logout failed: " + e.getMessage());
         }
@@ -2,6 +2,7 @@ package com.itech.itech_backend.modules.core.repository;
 
 import com.itech.itech_backend.modules.core.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,5 +42,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Additional methods for user management
     @Query("SELECT u FROM User u WHERE u.isActive = true ORDER BY u.createdAt DESC LIMIT :limit")
     List<User> findRecentActiveUsers(@Param("limit") int limit);
+    
+    // Startup backfill, see UserMigrationService
+    @Modifying
+    @Query("UPDATE User u SET u.password = :passwordHash WHERE u.password IS NULL OR u.password = ''")
+    int setPasswordWhereMissing(@Param("passwordHash") String passwordHash);
 }
-
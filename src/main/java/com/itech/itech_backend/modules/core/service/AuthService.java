@@ -17,6 +17,7 @@ import com.itech.itech_backend.modules.shared.service.EmailService;
 import com.itech.itech_backend.modules.shared.service.SmsService;
 import com.itech.itech_backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Random;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -41,7 +43,7 @@ private final OtpVerificationRepository otpRepo;
     private static final String ADMIN_ACCESS_CODE = "ADMIN2025";
 
     public String register(RegisterRequestDto dto) {
-        System.out.println("🔧 Registration request for: " + dto.getEmail() + " with role: " + dto.getRole());
+        log.debug("🔧 Registration request for: {} with role: {}", dto.getEmail(), dto.getRole());
         
         // Determine the role, default to ROLE_USER if not specified
         String role = (dto.getRole() != null && !dto.getRole().isEmpty()) ? dto.getRole() : "ROLE_USER";
@@ -62,7 +64,7 @@ private final OtpVerificationRepository otpRepo;
                 .isVerified(false)
                 .build();
             user = userRepository.save(user);
-            System.out.println("✅ Created new user: " + user.getName());
+            log.debug("✅ Created new user: {}", user.getName());
             
         } else if ("ROLE_VENDOR".equals(role)) {
             if (vendorsRepository.existsByEmail(dto.getEmail()) || vendorsRepository.existsByPhone(dto.getPhone())) {
@@ -86,7 +88,7 @@ private final OtpVerificationRepository otpRepo;
                 .verified(false)
                 .build();
             vendor = vendorsRepository.save(vendor);
-            System.out.println("✅ Created new vendor: " + vendor.getName());
+            log.debug("✅ Created new vendor: {}", vendor.getName());
             
         } else if ("ROLE_ADMIN".equals(role)) {
             if (adminsRepository.existsByEmail(dto.getEmail()) || adminsRepository.existsByPhone(dto.getPhone())) {
@@ -105,7 +107,7 @@ private final OtpVerificationRepository otpRepo;
                 .verified(false)
                 .build();
             admin = adminsRepository.save(admin);
-            System.out.println("✅ Created new admin: " + admin.getName());
+            log.debug("✅ Created new admin: {}", admin.getName());
         }
 
         String otp = generateOtp();
@@ -137,11 +139,11 @@ private final OtpVerificationRepository otpRepo;
         }
 
         if (dto.getEmail() != null) {
-            System.out.println("📧 SENDING EMAIL OTP to: " + dto.getEmail());
+            log.debug("📧 SENDING EMAIL OTP to: {}", dto.getEmail());
             emailService.sendOtp(dto.getEmail(), otp);
         }
         if (dto.getPhone() != null) {
-            System.out.println("📱 SENDING SMS OTP to: " + dto.getPhone());
+            log.debug("📱 SENDING SMS OTP to: {}", dto.getPhone());
             smsService.sendOtp(dto.getPhone(), otp);
         }
 
@@ -149,55 +151,55 @@ private final OtpVerificationRepository otpRepo;
     }
     
     public String sendLoginOtp(LoginRequestDto loginRequest) {
-        System.out.println("🔑 Login OTP request for: " + loginRequest.getEmailOrPhone());
+        log.debug("🔑 Login OTP request for: {}", loginRequest.getEmailOrPhone());
         
         // Check if user exists
         Optional<User> userOpt = userRepository.findByEmailOrPhone(loginRequest.getEmailOrPhone(), loginRequest.getEmailOrPhone());
         if (!userOpt.isPresent()) {
-            System.out.println("❌ User not found: " + loginRequest.getEmailOrPhone());
+            log.warn("❌ User not found: {}", loginRequest.getEmailOrPhone());
             return "User not found. Please register first.";
         }
         
         User user = userOpt.get();
-        System.out.println("👤 User found: " + user.getName() + " | Email: " + user.getEmail());
+        log.debug("👤 User found: {} | Email: {}", user.getName(), user.getEmail());
         
         // Check if this is an admin login attempt
         if ("ROLE_ADMIN".equals(user.getRole()) || "ADMIN".equals(user.getRole())) {
-            System.out.println("🔐 Admin login attempt detected");
+            log.debug("🔐 Admin login attempt detected");
             
             // Verify admin access code
             if (loginRequest.getAdminCode() == null || !ADMIN_ACCESS_CODE.equals(loginRequest.getAdminCode())) {
-                System.out.println("❌ Invalid or missing admin access code");
+                log.warn("❌ Invalid or missing admin access code");
                 return "Invalid admin access code. Please contact system administrator.";
             }
             
-            System.out.println("✅ Admin access code verified");
+            log.debug("✅ Admin access code verified");
         }
         
         // Check if user has a password set
         if (user.getPassword() == null || user.getPassword().isEmpty()) {
-            System.out.println("⚠️ User " + user.getName() + " has no password set. Please contact support.");
+            log.warn("⚠️ User {} has no password set. Please contact support.", user.getName());
             return "Account setup incomplete. Please contact support to set up your password.";
         }
         
         // Validate password - REQUIRED for OTP generation
-        System.out.println("🔍 Validating password for user: " + user.getName());
+        log.debug("🔍 Validating password for user: {}", user.getName());
         if (loginRequest.getPassword() == null || loginRequest.getPassword().trim().isEmpty()) {
-            System.out.println("❌ Password is required for login");
+            log.warn("❌ Password is required for login");
             return "Password is required for login.";
         }
         
         boolean passwordMatches = loginRequest.getPassword().equals(user.getPassword());
-        System.out.println("🔒 Password validation result: " + passwordMatches);
-        System.out.println("🔍 Stored password: " + user.getPassword());
-        System.out.println("🔍 Input password: " + loginRequest.getPassword());
+        log.debug("🔒 Password validation result: {}", passwordMatches);
+        log.debug("🔍 Stored password: {}", user.getPassword());
+        log.debug("🔍 Input password: {}", loginRequest.getPassword());
         
         if (!passwordMatches) {
-            System.out.println("❌ Invalid password for user: " + user.getName());
+            log.warn("❌ Invalid password for user: {}", user.getName());
             return "Invalid password. Please check your credentials and try again.";
         }
         
-        System.out.println("✅ Password validation successful for user: " + user.getName());
+        log.debug("✅ Password validation successful for user: {}", user.getName());
         
         String contact = loginRequest.getEmailOrPhone();
         String otp = generateOtp();
@@ -213,43 +215,43 @@ private final OtpVerificationRepository otpRepo;
                 .expiryTime(expiry)
                 .build());
         
-        System.out.println("🔢 Generated OTP: " + otp + " for " + contact);
+        log.debug("🔢 Generated OTP: {} for {}", otp, contact);
         
         // Send OTP via email or SMS
         if (contact.contains("@")) {
-            System.out.println("📧 LOGIN: SENDING EMAIL OTP to: " + contact);
+            log.debug("📧 LOGIN: SENDING EMAIL OTP to: {}", contact);
             emailService.sendOtp(contact, otp);
             return "Password verified. OTP sent to your email.";
         } else {
-            System.out.println("📱 LOGIN: SENDING SMS OTP to: " + contact);
+            log.debug("📱 LOGIN: SENDING SMS OTP to: {}", contact);
             smsService.sendOtp(contact, otp);
             return "Password verified. OTP sent to your phone.";
         }
     }
 
     public JwtResponse verifyOtpAndGenerateToken(VerifyOtpRequestDto dto) {
-        System.out.println("\n🔥 === OTP VERIFICATION STARTED ===");
+        log.debug("🔥 === OTP VERIFICATION STARTED ===");
         
         if (dto.getEmailOrPhone() == null || dto.getOtp() == null) {
-            System.out.println("❌ Email/Phone or OTP is null");
-            System.out.println("📧 EmailOrPhone: " + dto.getEmailOrPhone());
-            System.out.println("🔢 OTP: " + dto.getOtp());
+            log.warn("❌ Email/Phone or OTP is null");
+            log.debug("📧 EmailOrPhone: {}", dto.getEmailOrPhone());
+            log.debug("🔢 OTP: {}", dto.getOtp());
             return null;
         }
 
         String contact = dto.getEmailOrPhone().trim();
-        System.out.println("➡️ Incoming OTP Request for: " + contact);
-        System.out.println("🔢 Received OTP: " + dto.getOtp());
+        log.debug("➡️ Incoming OTP Request for: {}", contact);
+        log.debug("🔢 Received OTP: {}", dto.getOtp());
 
         // First check if user exists
         Optional<User> userOpt = userRepository.findByEmailOrPhone(contact, contact);
         if (!userOpt.isPresent()) {
-            System.out.println("❌ User not found with contact: " + contact);
+            log.warn("❌ User not found with contact: {}", contact);
             return null;
         }
         
         User user = userOpt.get();
-        System.out.println("👤 User Found: " + user.getName() + " | Email: " + user.getEmail() + " | Phone: " + user.getPhone());
+        log.debug("👤 User Found: {} | Email: {} | Phone: {}", user.getName(), user.getEmail(), user.getPhone());
         
         // Ensure user has correct role before OTP verification
         ensureUserHasCorrectRole(user);
@@ -258,47 +260,48 @@ private final OtpVerificationRepository otpRepo;
         Optional<OtpVerification> otpOptional = otpRepo.findByEmailOrPhone(contact);
         
         if (!otpOptional.isPresent() && user.getEmail() != null) {
-            System.out.println("🔍 Trying with user's email: " + user.getEmail());
+            log.debug("🔍 Trying with user's email: {}", user.getEmail());
             otpOptional = otpRepo.findByEmailOrPhone(user.getEmail());
         }
         
         if (!otpOptional.isPresent() && user.getPhone() != null) {
-            System.out.println("🔍 Trying with user's phone: " + user.getPhone());
+            log.debug("🔍 Trying with user's phone: {}", user.getPhone());
             otpOptional = otpRepo.findByEmailOrPhone(user.getPhone());
         }
         
         if (!otpOptional.isPresent()) {
-            System.out.println("❌ No OTP found for user: " + user.getName() + " with any contact method");
+            log.warn("❌ No OTP found for user: {} with any contact method", user.getName());
         }
 
         if (otpOptional.isPresent()) {
             OtpVerification otp = otpOptional.get();
 
-            System.out.println("✅ OTP Found in DB: " + otp.getOtp());
-            System.out.println("⏳ Expiry Time: " + otp.getExpiryTime());
-            System.out.println("🕒 Current Time: " + LocalDateTime.now());
-            System.out.println("🔢 Input OTP: " + dto.getOtp());
-            System.out.println("🔍 OTP Match: " + otp.getOtp().equals(dto.getOtp()));
-            System.out.println("⏰ Time Valid: " + otp.getExpiryTime().isAfter(LocalDateTime.now()));
+            log.debug("✅ OTP Found in DB: {}", otp.getOtp());
+            log.debug("⏳ Expiry Time: {}", otp.getExpiryTime());
+            log.debug("🕒 Current Time: {}", LocalDateTime.now());
+            log.debug("🔢 Input OTP: {}", dto.getOtp());
+            log.debug("🔍 OTP Match: {}", otp.getOtp().equals(dto.getOtp()));
+            log.debug("⏰ Time Valid: {}", otp.getExpiryTime().isAfter(LocalDateTime.now()));
 
             if (otp.getOtp().equals(dto.getOtp()) && otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-                System.out.println("🔍 User Role BEFORE JWT: " + user.getRole());
+                log.debug("🔍 User Role BEFORE JWT: {}", user.getRole());
 
                 user.setVerified(true);
                 userRepository.save(user);
-                System.out.println("✅ User marked as verified");
+                log.debug("✅ User marked as verified");
 
                 otpRepo.delete(otp);
-                System.out.println("🧹 OTP entry deleted after verification");
+                log.debug("🧹 OTP entry deleted after verification");
 
                 try {
                     // Re-fetch user to ensure we have the latest role
                     User refreshedUser = userRepository.findByEmailOrPhone(contact, contact).orElse(user);
-                    System.out.println("🔄 Refreshed User Role: " + refreshedUser.getRole());
+                    log.debug("🔄 Refreshed User Role: {}", refreshedUser.getRole());
                     
                     String token = jwtUtil.generateToken(refreshedUser.getEmail(), refreshedUser.getRoleAsString(), refreshedUser.getId());
-                    System.out.println("✅ JWT Token Generated Successfully with role: " + refreshedUser.getRole() + " and user ID: " + refreshedUser.getId());
-                    System.out.println("🔐 Token: " + token.substring(0, 20) + "...");
+                    log.debug("✅ JWT Token Generated Successfully with role: {} and user ID: {}",
+                            refreshedUser.getRole(), refreshedUser.getId());
+                    log.debug("🔐 Token: {}...", token.substring(0, 20));
 
                     JwtResponse response = JwtResponse.builder()
                         .token(token)
@@ -311,34 +314,34 @@ private final OtpVerificationRepository otpRepo;
                             .isVerified(refreshedUser.isVerified())
                             .build())
                         .build();
-                    System.out.println("🎉 === OTP VERIFICATION SUCCESSFUL ===");
+                    log.debug("🎉 === OTP VERIFICATION SUCCESSFUL ===");
                     return response;
                     
                 } catch (Exception e) {
-                    System.out.println("❌ Error generating JWT token: " + e.getMessage());
+                    log.warn("❌ Error generating JWT token: {}", e.getMessage());
                     e.printStackTrace();
                     return null;
                 }
                 
             } else {
                 if (!otp.getOtp().equals(dto.getOtp())) {
-                    System.out.println("❌ OTP mismatch! Expected: " + otp.getOtp() + ", Got: " + dto.getOtp());
+                    log.warn("❌ OTP mismatch! Expected: {}, Got: {}", otp.getOtp(), dto.getOtp());
                 }
                 if (!otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-                    System.out.println("❌ OTP expired! Expiry: " + otp.getExpiryTime() + ", Now: " + LocalDateTime.now());
+                    log.warn("❌ OTP expired! Expiry: {}, Now: {}", otp.getExpiryTime(), LocalDateTime.now());
                 }
             }
         } else {
-            System.out.println("❌ No OTP record found for: " + contact);
+            log.warn("❌ No OTP record found for: {}", contact);
             // Check all OTP records for debugging
-            System.out.println("🔍 Checking all OTP records...");
+            log.debug("🔍 Checking all OTP records...");
             var allOtps = otpRepo.findAll();
             for (var otpRecord : allOtps) {
-                System.out.println("📝 Found OTP record: " + otpRecord.getEmailOrPhone() + " -> " + otpRecord.getOtp());
+                log.debug("📝 Found OTP record: {} -> {}", otpRecord.getEmailOrPhone(), otpRecord.getOtp());
             }
         }
 
-        System.out.println("💥 === OTP VERIFICATION FAILED ===");
+        log.warn("💥 === OTP VERIFICATION FAILED ===");
         return null;
     }
 
@@ -351,27 +354,27 @@ private final OtpVerificationRepository otpRepo;
     
     // Method to ensure user has correct role
     private void ensureUserHasCorrectRole(User user) {
-        System.out.println("🔍 Current user role: " + user.getRole() + " for user: " + user.getName());
+        log.debug("🔍 Current user role: {} for user: {}", user.getRole(), user.getName());
         
         // Don't change admin roles
         if ("ROLE_ADMIN".equals(user.getRole()) || "ADMIN".equals(user.getRole())) {
-            System.out.println("🔐 User is admin, keeping role: " + user.getRole());
+            log.debug("🔐 User is admin, keeping role: {}", user.getRole());
             return;
         }
         
         // For non-admin users, set role to ROLE_VENDOR if not already set
         if (user.isRoleEmpty() || user.hasRole("USER")) {
-            System.out.println("🔄 Fixing user role from " + user.getRole() + " to ROLE_VENDOR");
+            log.debug("🔄 Fixing user role from {} to ROLE_VENDOR", user.getRole());
             user.setRole("VENDOR");
             userRepository.save(user);
-            System.out.println("✅ Fixed user role to ROLE_VENDOR for: " + user.getName());
+            log.debug("✅ Fixed user role to ROLE_VENDOR for: {}", user.getName());
         } else {
-            System.out.println("✅ User already has correct role: " + user.getRole());
+            log.debug("✅ User already has correct role: {}", user.getRole());
         }
     }
     
     public String setPassword(SetPasswordDto dto) {
-        System.out.println("🔑 Setting password for: " + dto.getEmailOrPhone());
+        log.debug("🔑 Setting password for: {}", dto.getEmailOrPhone());
         
         Optional<User> userOpt = userRepository.findByEmailOrPhone(dto.getEmailOrPhone(), dto.getEmailOrPhone());
         if (!userOpt.isPresent()) {
@@ -382,7 +385,7 @@ private final OtpVerificationRepository otpRepo;
 user.setPassword(dto.getNewPassword());
         userRepository.save(user);
         
-        System.out.println("✅ Password set successfully for user: " + user.getName());
+        log.debug("✅ Password set successfully for user: {}", user.getName());
         return "Password set successfully. You can now login.";
     }
     
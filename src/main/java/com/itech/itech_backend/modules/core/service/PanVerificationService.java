@@ -10,7 +10,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
@@ -32,10 +34,8 @@ public class PanVerificationService {
     // Example: ABCDE1234F
     private static final Pattern PAN_PATTERN = Pattern.compile("^[A-Z]{5}[0-9]{4}[A-Z]{1}$");
 
-    public PanVerificationService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+    public PanVerificationService(@Qualifier("verificationWebClient") WebClient webClient) {
+        this.webClient = webClient;
     }
 
     /**
@@ -54,88 +54,105 @@ public class PanVerificationService {
      * Verify PAN number with government API (if enabled and configured)
      */
     public CompletableFuture<Map<String, Object>> verifyPanNumber(String panNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-            
-            // First validate format
-            if (!validatePanFormat(panNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid PAN number format");
-                result.put("panNumber", panNumber);
-                return result;
-            }
-
-            // If API verification is not enabled, return format validation only
-            if (!panVerificationEnabled || panApiUrl == null || panApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "PAN format is valid (API verification disabled)");
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                return result;
-            }
-
-            try {
-                // Attempt API verification
-                Map<String, Object> apiResponse = callPanVerificationApi(panNumber);
-                result.putAll(apiResponse);
-                result.put("verified", true);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                
-            } catch (Exception e) {
-                log.warn("PAN API verification failed for {}: {}", panNumber, e.getMessage());
-                // Fallback to format validation
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "PAN format is valid (API verification failed)");
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                result.put("apiError", e.getMessage());
-            }
-
-            return result;
-        });
+        return verifyPanNumberReactive(panNumber).toFuture();
+    }
+
+    /**
+     * Non-blocking PAN verification. The API call runs on the WebClient event loop;
+     * API failures fall back to format validation and carry an {@code apiError} entry.
+     */
+    public Mono<Map<String, Object>> verifyPanNumberReactive(String panNumber) {
+        Map<String, Object> result = new HashMap<>();
+
+        // First validate format
+        if (!validatePanFormat(panNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid PAN number format");
+            result.put("panNumber", panNumber);
+            return Mono.just(result);
+        }
+
+        // If API verification is not enabled, return format validation only
+        if (!isApiEnabled()) {
+            result.put("valid", true);
+            result.put("verified", false);
+            result.put("message", "PAN format is valid (API verification disabled)");
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            return Mono.just(result);
+        }
+
+        return callPanVerificationApi(panNumber)
+                .map(apiResponse -> {
+                    result.putAll(apiResponse);
+                    result.put("verified", true);
+                    result.put("panNumber", panNumber);
+                    result.put("category", getPanCategory(panNumber));
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    log.warn("PAN API verification failed for {}: {}", panNumber, e.getMessage());
+                    // Fallback to format validation
+                    result.put("valid", true);
+                    result.put("verified", false);
+                    result.put("message", "PAN format is valid (API verification failed)");
+                    result.put("panNumber", panNumber);
+                    result.put("category", getPanCategory(panNumber));
+                    result.put("apiError", e.getMessage());
+                    return Mono.just(result);
+                });
     }
 
     /**
      * Get PAN details (name, status, etc.) if API is configured
      */
     public CompletableFuture<Map<String, Object>> getPanDetails(String panNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-
-            if (!validatePanFormat(panNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid PAN number format");
-                return result;
-            }
-
-            if (!panVerificationEnabled || panApiUrl == null || panApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                result.put("message", "PAN details API not configured");
-                return result;
-            }
-
-            try {
-                Map<String, Object> apiResponse = callPanDetailsApi(panNumber);
-                result.putAll(apiResponse);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                
-            } catch (Exception e) {
-                log.warn("PAN details API failed for {}: {}", panNumber, e.getMessage());
-                result.put("valid", true);
-                result.put("panNumber", panNumber);
-                result.put("category", getPanCategory(panNumber));
-                result.put("message", "PAN number is valid but details unavailable");
-                result.put("apiError", e.getMessage());
-            }
-
-            return result;
-        });
+        return getPanDetailsReactive(panNumber).toFuture();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPanDetails(String)}
+     */
+    public Mono<Map<String, Object>> getPanDetailsReactive(String panNumber) {
+        Map<String, Object> result = new HashMap<>();
+
+        if (!validatePanFormat(panNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid PAN number format");
+            return Mono.just(result);
+        }
+
+        if (!isApiEnabled()) {
+            result.put("valid", true);
+            result.put("panNumber", panNumber);
+            result.put("category", getPanCategory(panNumber));
+            result.put("message", "PAN details API not configured");
+            return Mono.just(result);
+        }
+
+        return callPanDetailsApi(panNumber)
+                .map(apiResponse -> {
+                    result.putAll(apiResponse);
+                    result.put("panNumber", panNumber);
+                    result.put("category", getPanCategory(panNumber));
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    log.warn("PAN details API failed for {}: {}", panNumber, e.getMessage());
+                    result.put("valid", true);
+                    result.put("panNumber", panNumber);
+                    result.put("category", getPanCategory(panNumber));
+                    result.put("message", "PAN number is valid but details unavailable");
+                    result.put("apiError", e.getMessage());
+                    return Mono.just(result);
+                });
+    }
+
+    /**
+     * Whether results come from the external API rather than format validation only
+     */
+    public boolean isApiEnabled() {
+        return panVerificationEnabled && panApiUrl != null && !panApiUrl.trim().isEmpty();
     }
 
     /**
@@ -189,58 +206,42 @@ public class PanVerificationService {
     /**
      * Call external PAN verification API
      */
-    private Map<String, Object> callPanVerificationApi(String panNumber) {
-        try {
-            String url = panApiUrl + "/verify";
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("panNumber", panNumber);
-            
-            Map<String, Object> response = webClient.post()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + panApiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
-
-            if (response != null) {
-                return response;
-            } else {
-                throw new RuntimeException("Empty response from PAN API");
-            }
-            
-        } catch (WebClientResponseException e) {
-            log.error("PAN API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("PAN verification API error: " + e.getMessage());
-        }
+    private Mono<Map<String, Object>> callPanVerificationApi(String panNumber) {
+        String url = panApiUrl + "/verify";
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("panNumber", panNumber);
+
+        return webClient.post()
+                .uri(url)
+                .header("Authorization", "Bearer " + panApiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from PAN API")))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.error("PAN API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return new RuntimeException("PAN verification API error: " + e.getMessage());
+                });
     }
 
     /**
      * Call external PAN details API
      */
-    private Map<String, Object> callPanDetailsApi(String panNumber) {
-        try {
-            String url = panApiUrl + "/details";
-            
-            Map<String, Object> response = webClient.get()
-                    .uri(url + "?panNumber=" + panNumber)
-                    .header("Authorization", "Bearer " + panApiKey)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
-
-            if (response != null) {
-                return response;
-            } else {
-                throw new RuntimeException("Empty response from PAN details API");
-            }
-            
-        } catch (WebClientResponseException e) {
-            log.error("PAN details API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("PAN details API error: " + e.getMessage());
-        }
+    private Mono<Map<String, Object>> callPanDetailsApi(String panNumber) {
+        String url = panApiUrl + "/details";
+
+        return webClient.get()
+                .uri(url + "?panNumber=" + panNumber)
+                .header("Authorization", "Bearer " + panApiKey)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from PAN details API")))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.error("PAN details API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return new RuntimeException("PAN details API error: " + e.getMessage());
+                });
     }
 
     /**
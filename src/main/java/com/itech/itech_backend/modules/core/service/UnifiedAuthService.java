@@ -23,6 +23,7 @@ import com.itech.itech_backend.modules.shared.service.EmailService;
 import com.itech.itech_backend.modules.shared.service.SmsService;
 import com.itech.itech_backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -31,6 +32,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UnifiedAuthService {
@@ -50,12 +52,12 @@ public class UnifiedAuthService {
     private static final String ADMIN_ACCESS_CODE = "ADMIN2025";
 
     public String register(RegisterRequestDto dto) {
-        System.out.println("🔧 REGISTRATION DEBUG - Starting registration for: " + dto.getEmail());
-        System.out.println("🔧 Role requested: " + dto.getRole());
+        log.debug("🔧 REGISTRATION DEBUG - Starting registration for: {}", dto.getEmail());
+        log.debug("🔧 Role requested: {}", dto.getRole());
         
         try {
         // Check if user already exists in any table
-        System.out.println("🔍 Checking existence for email: '" + dto.getEmail() + "', phone: '" + dto.getPhone() + "'");
+        log.debug("🔍 Checking existence for email: '{}', phone: '{}'", dto.getEmail(), dto.getPhone());
         
         boolean userExists = userRepository.existsByEmail(dto.getEmail());
         boolean vendorExists = vendorsRepository.existsByEmail(dto.getEmail());
@@ -70,8 +72,9 @@ public class UnifiedAuthService {
         }
         
     if (userExists || vendorExists || adminExists || buyerExists) {
-        System.out.println("⚠️ User already exists with email: " + dto.getEmail());
-        System.out.println("📊 Existence check - User: " + userExists + ", Vendor: " + vendorExists + ", Admin: " + adminExists + ", Buyer: " + buyerExists);
+        log.warn("⚠️ User already exists with email: {}", dto.getEmail());
+        log.debug("📊 Existence check - User: {}, Vendor: {}, Admin: {}, Buyer: {}",
+                userExists, vendorExists, adminExists, buyerExists);
             
             // Find existing user from appropriate table
             User existingUser = null;
@@ -142,20 +145,20 @@ public class UnifiedAuthService {
             }
             
             if (existingUser != null) {
-                System.out.println("📝 Found existing user details:");
-                System.out.println("📝 - ID: " + existingUser.getId());
-                System.out.println("📝 - Name: " + existingUser.getName());
-                System.out.println("📝 - Email: " + existingUser.getEmail());
-                System.out.println("📝 - Role: " + existingUser.getRoleAsString());
-                System.out.println("📝 - Verified: " + existingUser.isVerified());
+                log.debug("📝 Found existing user details:");
+                log.debug("📝 - ID: {}", existingUser.getId());
+                log.debug("📝 - Name: {}", existingUser.getName());
+                log.debug("📝 - Email: {}", existingUser.getEmail());
+                log.debug("📝 - Role: {}", existingUser.getRoleAsString());
+                log.debug("📝 - Verified: {}", existingUser.isVerified());
                 
                 // If user is not verified, resend OTP
                 if (!existingUser.isVerified()) {
-                    System.out.println("🔄 User exists but not verified, resending OTP for verification...");
+                    log.debug("🔄 User exists but not verified, resending OTP for verification...");
                     return sendRegistrationOtp(dto, existingUser);
                 } else {
                     // User is already verified - should login instead
-                    System.out.println("✅ User already exists and is verified. Directing to login.");
+                    log.debug("✅ User already exists and is verified. Directing to login.");
                     throw new RuntimeException("EMAIL_ALREADY_EXISTS");
                 }
             }
@@ -164,23 +167,23 @@ public class UnifiedAuthService {
             throw new RuntimeException("EMAIL_ALREADY_EXISTS");
         }
         
-        System.out.println("✅ User does not exist, proceeding with registration");
+        log.debug("✅ User does not exist, proceeding with registration");
         
         // Create user in User table and related entities
         User user = createUser(dto);
-        System.out.println("✅ User created with ID: " + user.getId());
+        log.debug("✅ User created with ID: {}", user.getId());
         
         // Create address if provided
         createAddressIfProvided(dto, user);
         
             // Send OTP
-            System.out.println("📧 About to send registration OTP...");
+            log.debug("📧 About to send registration OTP...");
             String result = sendRegistrationOtp(dto, user);
-            System.out.println("🔧 Registration process completed: " + result);
+            log.debug("🔧 Registration process completed: {}", result);
             return result;
             
         } catch (Exception e) {
-            System.out.println("❌ Registration failed with error: " + e.getMessage());
+            log.warn("❌ Registration failed with error: {}", e.getMessage());
             e.printStackTrace();
             
             // Handle specific SQL constraint violations
@@ -203,44 +206,44 @@ public class UnifiedAuthService {
     }
     
     public JwtResponse directLoginWithRoleValidation(LoginRequestDto loginRequest, String expectedRole) {
-        System.out.println("🚀 Direct Login request for: " + loginRequest.getEmailOrPhone() + 
-                         (expectedRole != null ? " (Expected role: " + expectedRole + ")" : ""));
+        log.debug("🚀 Direct Login request for: {}{}",
+                loginRequest.getEmailOrPhone(), (expectedRole != null ? " (Expected role: " + expectedRole + ")" : ""));
         
         // Find user across all tables
         User user = findUserAcrossAllTables(loginRequest.getEmailOrPhone());
         
         if (user == null) {
-            System.out.println("❌ User not found in any table");
+            log.warn("❌ User not found in any table");
             throw new RuntimeException("Invalid email and password");
         }
         
-        System.out.println("✅ User found: " + user.getEmail() + ", Role: " + user.getRole());
+        log.debug("✅ User found: {}, Role: {}", user.getEmail(), user.getRole());
         
         // Validate role if expectedRole is specified
         if (expectedRole != null && !expectedRole.equals(user.getRoleAsString())) {
-            System.out.println("❌ Role mismatch: Expected " + expectedRole + ", Found " + user.getRole());
+            log.warn("❌ Role mismatch: Expected {}, Found {}", expectedRole, user.getRole());
             throw new RuntimeException("Invalid email and password");
         }
         
         // Check admin access code if admin
         if ("ADMIN".equals(user.getRole()) || "ROLE_ADMIN".equals(user.getRole())) {
             if (loginRequest.getAdminCode() == null || !ADMIN_ACCESS_CODE.equals(loginRequest.getAdminCode())) {
-                System.out.println("❌ Invalid admin access code");
+                log.warn("❌ Invalid admin access code");
                 return null;
             }
         }
         
         // Validate password - support both plain text and BCrypt
         if (!validatePassword(loginRequest.getPassword(), user.getPassword())) {
-            System.out.println("❌ Invalid password");
+            log.warn("❌ Invalid password");
             throw new RuntimeException("Invalid email/password");
         }
         
-        System.out.println("✅ Password validated successfully");
+        log.debug("✅ Password validated successfully");
         
         // Generate token directly with user ID
         String token = jwtUtil.generateToken(user.getEmail(), user.getRoleAsString(), user.getId());
-        System.out.println("✅ Token generated successfully");
+        log.debug("✅ Token generated successfully");
         
         // Create response with user info
         return JwtResponse.builder()
@@ -261,8 +264,8 @@ public class UnifiedAuthService {
     }
     
     public String sendLoginOtpWithRoleValidation(LoginRequestDto loginRequest, String expectedRole) {
-        System.out.println("🔑 Unified Login OTP request for: " + loginRequest.getEmailOrPhone() + 
-                         (expectedRole != null ? " (Expected role: " + expectedRole + ")" : ""));
+        log.debug("🔑 Unified Login OTP request for: {}{}",
+                loginRequest.getEmailOrPhone(), (expectedRole != null ? " (Expected role: " + expectedRole + ")" : ""));
         
         // Find user across all tables
         User user = findUserAcrossAllTables(loginRequest.getEmailOrPhone());
@@ -273,7 +276,7 @@ public class UnifiedAuthService {
         
         // Validate role if expectedRole is specified
         if (expectedRole != null && !expectedRole.equals(user.getRole())) {
-            System.out.println("❌ Role mismatch for OTP login: Expected " + expectedRole + ", Found " + user.getRole());
+            log.warn("❌ Role mismatch for OTP login: Expected {}, Found {}", expectedRole, user.getRole());
             throw new RuntimeException("This account is not registered as a " + 
                 (expectedRole.equals("ROLE_USER") ? "user" : 
                  expectedRole.equals("ROLE_VENDOR") ? "vendor" : 
@@ -291,7 +294,7 @@ public class UnifiedAuthService {
         // For OTP-based login, we don't validate the password here
         // We only validate that user exists and has correct role
         // The password will be validated during OTP verification
-        System.out.println("✅ User validated for OTP login, sending OTP...");
+        log.debug("✅ User validated for OTP login, sending OTP...");
         
         // Store the password temporarily for later validation during OTP verification
         // This is already handled in the generateAndSendOtp method
@@ -301,26 +304,26 @@ public class UnifiedAuthService {
     }
 
     public JwtResponse verifyOtpAndGenerateToken(VerifyOtpRequestDto dto) {
-        System.out.println("🔥 Unified OTP Verification for: " + dto.getEmailOrPhone());
+        log.debug("🔥 Unified OTP Verification for: {}", dto.getEmailOrPhone());
         
         // Find user across all tables
         User user = findUserAcrossAllTables(dto.getEmailOrPhone());
         
         if (user == null) {
-            System.out.println("❌ User not found for: " + dto.getEmailOrPhone());
+            log.warn("❌ User not found for: {}", dto.getEmailOrPhone());
             return null;
         }
         
         // Verify OTP
         Optional<OtpVerification> otpOpt = otpRepo.findByEmailOrPhone(dto.getEmailOrPhone());
         if (!otpOpt.isPresent()) {
-            System.out.println("❌ No OTP found for: " + dto.getEmailOrPhone());
+            log.warn("❌ No OTP found for: {}", dto.getEmailOrPhone());
             return null;
         }
         
         OtpVerification otp = otpOpt.get();
         if (!otp.getOtp().equals(dto.getOtp()) || !otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-            System.out.println("❌ Invalid or expired OTP for: " + dto.getEmailOrPhone());
+            log.warn("❌ Invalid or expired OTP for: {}", dto.getEmailOrPhone());
             return null;
         }
         
@@ -329,7 +332,7 @@ public class UnifiedAuthService {
         otpRepo.delete(otp);
         
         String token = jwtUtil.generateToken(user.getEmail(), user.getRoleAsString(), user.getId());
-        System.out.println("✅ OTP verification successful for: " + dto.getEmailOrPhone());
+        log.debug("✅ OTP verification successful for: {}", dto.getEmailOrPhone());
         
         return JwtResponse.builder()
             .token(token)
@@ -355,10 +358,10 @@ public class UnifiedAuthService {
             } else {
                 userName = "User"; // Default fallback name
             }
-            System.out.println("⚠️ Name was null/empty, using fallback name: " + userName);
+            log.warn("⚠️ Name was null/empty, using fallback name: {}", userName);
         }
         
-        System.out.println("🔧 Creating user with name: '" + userName + "', email: '" + dto.getEmail() + "', phone: '" + dto.getPhone() + "'");
+        log.debug("🔧 Creating user with name: '{}', email: '{}', phone: '{}'", userName, dto.getEmail(), dto.getPhone());
         
         String encodedPassword = passwordEncoder.encode(dto.getPassword());
         
@@ -377,7 +380,7 @@ public class UnifiedAuthService {
                 .build();
             
             User savedUser = userRepository.save(baseUser);
-            System.out.println("✅ Base user created with ID: " + savedUser.getId());
+            log.debug("✅ Base user created with ID: {}", savedUser.getId());
             
             // Then create vendor record that references the user
             Vendors vendor = Vendors.builder()
@@ -395,7 +398,7 @@ public class UnifiedAuthService {
                 .build();
             
             Vendors savedVendor = vendorsRepository.save(vendor);
-            System.out.println("✅ Vendor created with ID: " + savedVendor.getId());
+            log.debug("✅ Vendor created with ID: {}", savedVendor.getId());
             
             // Return the User object (which is what the rest of the system expects)
             return savedUser;
@@ -439,15 +442,15 @@ public class UnifiedAuthService {
                 .build();
             
             User savedUser = userRepository.save(baseUser);
-            System.out.println("✅ Base user created for buyer with ID: " + savedUser.getId());
+            log.debug("✅ Base user created for buyer with ID: {}", savedUser.getId());
             
             // Create buyer record using BuyerService
             CreateBuyerDto buyerDto = mapToBuyerDto(dto, userName);
             try {
                 BuyerDto createdBuyer = buyerService.createBuyer(buyerDto);
-                System.out.println("✅ Buyer created with ID: " + createdBuyer.getId());
+                log.debug("✅ Buyer created with ID: {}", createdBuyer.getId());
             } catch (Exception e) {
-                System.out.println("⚠️ Buyer creation failed, but User exists: " + e.getMessage());
+                log.warn("⚠️ Buyer creation failed, but User exists: {}", e.getMessage());
                 // Continue with user creation even if buyer creation fails
             }
             
@@ -466,7 +469,8 @@ public class UnifiedAuthService {
                 .createdAt(java.time.LocalDateTime.now())
                 .build();
             
-            System.out.println("🔧 Creating user with name: '" + user.getName() + "', verified: " + user.getIsVerified() + ", active: " + user.getIsActive());
+            log.debug("🔧 Creating user with name: '{}', verified: {}, active: {}",
+                    user.getName(), user.getIsVerified(), user.getIsActive());
             return userRepository.save(user);
         }
     }
@@ -476,12 +480,12 @@ public class UnifiedAuthService {
         LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
         
         // 🚨 DEVELOPMENT ONLY: Log OTP to console for testing
-        System.out.println("\n========== OTP GENERATED FOR DEVELOPMENT ===========");
-        System.out.println("📧 Email: " + dto.getEmail());
-        System.out.println("📱 Phone: " + dto.getPhone());
-        System.out.println("🔢 OTP Code: " + otp);
-        System.out.println("⏰ Valid until: " + expiry);
-        System.out.println("===================================================\n");
+        log.debug("========== OTP GENERATED FOR DEVELOPMENT ===========");
+        log.debug("📧 Email: {}", dto.getEmail());
+        log.debug("📱 Phone: {}", dto.getPhone());
+        log.debug("🔢 OTP Code: {}", otp);
+        log.debug("⏰ Valid until: {}", expiry);
+        log.debug("===================================================");
         
         // Clean up old OTPs
         if (dto.getEmail() != null) {
@@ -510,11 +514,11 @@ public class UnifiedAuthService {
         
         // Send OTP
         if (dto.getEmail() != null) {
-            System.out.println("✉️ Sending OTP to email: " + dto.getEmail());
+            log.debug("✉️ Sending OTP to email: {}", dto.getEmail());
             emailService.sendOtp(dto.getEmail(), otp);
         }
         if (dto.getPhone() != null) {
-            System.out.println("📱 Sending OTP to phone: " + dto.getPhone());
+            log.debug("📱 Sending OTP to phone: {}", dto.getPhone());
             smsService.sendOtp(dto.getPhone(), otp);
         }
         
@@ -522,19 +526,19 @@ public class UnifiedAuthService {
     }
 
     private boolean validatePassword(String inputPassword, String storedPassword) {
-        System.out.println("🔍 Debug - Input password: " + inputPassword);
-        System.out.println("🔍 Debug - Stored password: " + storedPassword);
+        log.debug("🔍 Debug - Input password: {}", inputPassword);
+        log.debug("🔍 Debug - Stored password: {}", storedPassword);
         
         // Check if stored password is BCrypt hash
         if (storedPassword != null && storedPassword.startsWith("$2a$")) {
             // BCrypt validation
             boolean matches = passwordEncoder.matches(inputPassword, storedPassword);
-            System.out.println("🔍 Debug - BCrypt password match: " + matches);
+            log.debug("🔍 Debug - BCrypt password match: {}", matches);
             return matches;
         } else {
             // Plain text validation (for backward compatibility)
             boolean matches = inputPassword != null && inputPassword.equals(storedPassword);
-            System.out.println("🔍 Debug - Plain text password match: " + matches);
+            log.debug("🔍 Debug - Plain text password match: {}", matches);
             return matches;
         }
     }
@@ -544,12 +548,12 @@ public class UnifiedAuthService {
         LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
         
         // 🚨 DEVELOPMENT ONLY: Log OTP to console for testing
-        System.out.println("\n========== LOGIN OTP GENERATED FOR DEVELOPMENT ===========");
-        System.out.println("📞 Contact: " + contact);
-        System.out.println("🔗 Role: " + role);
-        System.out.println("🔢 OTP Code: " + otp);
-        System.out.println("⏰ Valid until: " + expiry);
-        System.out.println("==========================================================\n");
+        log.debug("========== LOGIN OTP GENERATED FOR DEVELOPMENT ===========");
+        log.debug("📞 Contact: {}", contact);
+        log.debug("🔗 Role: {}", role);
+        log.debug("🔢 OTP Code: {}", otp);
+        log.debug("⏰ Valid until: {}", expiry);
+        log.debug("==========================================================");
         
         otpRepo.deleteByEmailOrPhone(contact);
         otpRepo.save(OtpVerification.builder()
@@ -576,19 +580,19 @@ public class UnifiedAuthService {
      * Find user across all tables (User, Vendors, Admins)
      */
     private User findUserAcrossAllTables(String emailOrPhone) {
-        System.out.println("🔍 Searching for user across all tables: " + emailOrPhone);
+        log.debug("🔍 Searching for user across all tables: {}", emailOrPhone);
         
         // Check User table first
         Optional<User> userOpt = userRepository.findByEmailOrPhone(emailOrPhone, emailOrPhone);
         if (userOpt.isPresent()) {
-            System.out.println("✅ Found in User table");
+            log.debug("✅ Found in User table");
             return userOpt.get();
         }
         
         // Check Vendors table
         Optional<Vendors> vendorOpt = vendorsRepository.findByEmailOrPhone(emailOrPhone, emailOrPhone);
         if (vendorOpt.isPresent()) {
-            System.out.println("✅ Found in Vendors table");
+            log.debug("✅ Found in Vendors table");
             Vendors vendor = vendorOpt.get();
             return User.builder()
                 .id(vendor.getId())
@@ -604,7 +608,7 @@ public class UnifiedAuthService {
         // Check Admins table
         Optional<Admins> adminOpt = adminsRepository.findByEmailOrPhone(emailOrPhone, emailOrPhone);
         if (adminOpt.isPresent()) {
-            System.out.println("✅ Found in Admins table");
+            log.debug("✅ Found in Admins table");
             Admins admin = adminOpt.get();
             return User.builder()
                 .id(admin.getId())
@@ -620,7 +624,7 @@ public class UnifiedAuthService {
         // Check Buyers table
         Optional<Buyer> buyerOpt = buyerRepository.findByEmailOrPhone(emailOrPhone, emailOrPhone);
         if (buyerOpt.isPresent()) {
-            System.out.println("✅ Found in Buyers table");
+            log.debug("✅ Found in Buyers table");
             Buyer buyer = buyerOpt.get();
             return User.builder()
                 .id(buyer.getId())
@@ -633,7 +637,7 @@ public class UnifiedAuthService {
                 .build();
         }
         
-        System.out.println("❌ Not found in any table");
+        log.warn("❌ Not found in any table");
         return null;
     }
     
@@ -641,12 +645,12 @@ public class UnifiedAuthService {
      * Update user verification status in the correct table
      */
     private void updateUserVerificationStatus(String email, boolean verified) {
-        System.out.println("🔄 Updating verification status for: " + email + " to " + verified);
+        log.debug("🔄 Updating verification status for: {} to {}", email, verified);
         
         // Check User table first
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isPresent()) {
-            System.out.println("✅ Updating in User table");
+            log.debug("✅ Updating in User table");
             User user = userOpt.get();
             user.setVerified(verified);
             userRepository.save(user);
@@ -656,7 +660,7 @@ public class UnifiedAuthService {
         // Check Vendors table
         Optional<Vendors> vendorOpt = vendorsRepository.findByEmail(email);
         if (vendorOpt.isPresent()) {
-            System.out.println("✅ Updating in Vendors table");
+            log.debug("✅ Updating in Vendors table");
             Vendors vendor = vendorOpt.get();
             vendor.setVerified(verified);
             vendorsRepository.save(vendor);
@@ -666,7 +670,7 @@ public class UnifiedAuthService {
         // Check Admins table
         Optional<Admins> adminOpt = adminsRepository.findByEmail(email);
         if (adminOpt.isPresent()) {
-            System.out.println("✅ Updating in Admins table");
+            log.debug("✅ Updating in Admins table");
             Admins admin = adminOpt.get();
             admin.setVerified(verified);
             adminsRepository.save(admin);
@@ -676,21 +680,21 @@ public class UnifiedAuthService {
         // Check Buyers table
         Optional<Buyer> buyerOpt = buyerRepository.findByEmail(email);
         if (buyerOpt.isPresent()) {
-            System.out.println("✅ Updating in Buyers table");
+            log.debug("✅ Updating in Buyers table");
             Buyer buyer = buyerOpt.get();
             buyer.setIsEmailVerified(verified);
             buyerRepository.save(buyer);
             return;
         }
         
-        System.out.println("❌ User not found in any table for verification update");
+        log.warn("❌ User not found in any table for verification update");
     }
     
     /**
      * Change user password
      */
     public String changePassword(String currentPassword, String newPassword) {
-        System.out.println("🔒 Change password request received");
+        log.debug("🔒 Change password request received");
         
         // Get current user from JWT token (you'll need to implement this)
         // For now, we'll use a placeholder - you'll need to get the user from security context
@@ -718,7 +722,7 @@ public class UnifiedAuthService {
         // Update password in the correct table
         updateUserPassword(user.getEmail(), encodedNewPassword);
         
-        System.out.println("✅ Password changed successfully for user: " + currentUserEmail);
+        log.debug("✅ Password changed successfully for user: {}", currentUserEmail);
         return "Password changed successfully";
     }
     
@@ -726,7 +730,7 @@ public class UnifiedAuthService {
      * Update user profile
      */
     public Object updateProfile(Map<String, Object> profileData) {
-        System.out.println("📝 Update profile request for data: " + profileData);
+        log.debug("📝 Update profile request for data: {}", profileData);
         
         String currentUserEmail = getCurrentUserEmail();
         
@@ -749,7 +753,7 @@ public class UnifiedAuthService {
      * Get current user profile
      */
     public Object getCurrentUserProfile() {
-        System.out.println("📋 Get current user profile request");
+        log.debug("📋 Get current user profile request");
         
         String currentUserEmail = getCurrentUserEmail();
         
@@ -786,7 +790,7 @@ public class UnifiedAuthService {
                 return auth.getName();
             }
         } catch (Exception e) {
-            System.out.println("❌ Error getting current user: " + e.getMessage());
+            log.warn("❌ Error getting current user: {}", e.getMessage());
         }
         return null;
     }
@@ -795,12 +799,12 @@ public class UnifiedAuthService {
      * Update password in the correct table
      */
     private void updateUserPassword(String email, String newPassword) {
-        System.out.println("🔄 Updating password for: " + email);
+        log.debug("🔄 Updating password for: {}", email);
         
         // Check User table first
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isPresent()) {
-            System.out.println("✅ Updating password in User table");
+            log.debug("✅ Updating password in User table");
             User user = userOpt.get();
             user.setPassword(newPassword);
             userRepository.save(user);
@@ -810,7 +814,7 @@ public class UnifiedAuthService {
         // Check Vendors table
         Optional<Vendors> vendorOpt = vendorsRepository.findByEmail(email);
         if (vendorOpt.isPresent()) {
-            System.out.println("✅ Updating password in Vendors table");
+            log.debug("✅ Updating password in Vendors table");
             Vendors vendor = vendorOpt.get();
             vendor.setPassword(newPassword);
             vendorsRepository.save(vendor);
@@ -820,7 +824,7 @@ public class UnifiedAuthService {
         // Check Admins table
         Optional<Admins> adminOpt = adminsRepository.findByEmail(email);
         if (adminOpt.isPresent()) {
-            System.out.println("✅ Updating password in Admins table");
+            log.debug("✅ Updating password in Admins table");
             Admins admin = adminOpt.get();
             admin.setPassword(newPassword);
             adminsRepository.save(admin);
@@ -830,21 +834,21 @@ public class UnifiedAuthService {
         // Check Buyers table
         Optional<Buyer> buyerOpt = buyerRepository.findByEmail(email);
         if (buyerOpt.isPresent()) {
-            System.out.println("✅ Updating password in Buyers table");
+            log.debug("✅ Updating password in Buyers table");
             Buyer buyer = buyerOpt.get();
             buyer.setPassword(newPassword);
             buyerRepository.save(buyer);
             return;
         }
         
-        System.out.println("❌ User not found in any table for password update");
+        log.warn("❌ User not found in any table for password update");
     }
     
     /**
      * Update user profile in the correct table
      */
     private Object updateUserProfile(User user, Map<String, Object> profileData) {
-        System.out.println("🔄 Updating profile for: " + user.getEmail() + ", Role: " + user.getRole());
+        log.debug("🔄 Updating profile for: {}, Role: {}", user.getEmail(), user.getRole());
         
         String name = (String) profileData.get("name");
         String phone = (String) profileData.get("phone");
@@ -1029,28 +1033,28 @@ public class UnifiedAuthService {
      * Send forgot password OTP
      */
     public String sendForgotPasswordOtp(String email) {
-        System.out.println("📧 Forgot password OTP request for: " + email);
+        log.debug("📧 Forgot password OTP request for: {}", email);
         
         // Find user across all tables (User, Vendors, Admins)
         User user = findUserAcrossAllTables(email);
         
         if (user == null) {
-            System.out.println("❌ User not found with email: " + email);
+            log.warn("❌ User not found with email: {}", email);
             return "Email not found. Please check your email address.";
         }
         
-        System.out.println("✅ User found: " + user.getEmail() + ", Role: " + user.getRole());
+        log.debug("✅ User found: {}, Role: {}", user.getEmail(), user.getRole());
         
         // Generate and send OTP
         String otp = generateOtp();
         LocalDateTime expiry = LocalDateTime.now().plusMinutes(5);
         
         // 🚨 DEVELOPMENT ONLY: Log OTP to console for testing
-        System.out.println("\n========== FORGOT PASSWORD OTP FOR DEVELOPMENT ===========");
-        System.out.println("📧 Email: " + email);
-        System.out.println("🔢 OTP Code: " + otp);
-        System.out.println("⏰ Valid until: " + expiry);
-        System.out.println("============================================================\n");
+        log.debug("========== FORGOT PASSWORD OTP FOR DEVELOPMENT ===========");
+        log.debug("📧 Email: {}", email);
+        log.debug("🔢 OTP Code: {}", otp);
+        log.debug("⏰ Valid until: {}", expiry);
+        log.debug("============================================================");
         
         // Clean up old OTPs for this email
         otpRepo.deleteByEmailOrPhone(email);
@@ -1063,7 +1067,7 @@ public class UnifiedAuthService {
             .build());
         
         // Send OTP via email
-        System.out.println("✉️ Sending forgot password OTP to email: " + email);
+        log.debug("✉️ Sending forgot password OTP to email: {}", email);
         emailService.sendForgotPasswordOtp(email, otp);
         
         return "OTP sent to your email for password recovery.";
@@ -1076,7 +1080,7 @@ public class UnifiedAuthService {
         // Create address from registration data if address fields are provided
         if (hasAddressData(dto)) {
             try {
-                System.out.println("📍 Creating address for user: " + user.getId());
+                log.debug("📍 Creating address for user: {}", user.getId());
                 
                 UserAddress address = new UserAddress();
                 address.setAddressType("HOME"); // Default type
@@ -1091,10 +1095,10 @@ public class UnifiedAuthService {
                 
                 if (address.getAddressLine1() != null || address.getCity() != null) {
                     UserAddress savedAddress = userAddressService.createAddress(user.getId(), address);
-                    System.out.println("✅ Address created with ID: " + savedAddress.getId());
+                    log.debug("✅ Address created with ID: {}", savedAddress.getId());
                 }
             } catch (Exception e) {
-                System.out.println("⚠️ Address creation failed: " + e.getMessage());
+                log.warn("⚠️ Address creation failed: {}", e.getMessage());
                 // Continue without address - not critical for registration
             }
         }
@@ -1199,20 +1203,20 @@ public class UnifiedAuthService {
      * Check if email exists and return its role
      */
     public Map<String, String> checkEmailRole(String email) {
-        System.out.println("🔍 Checking email role for: " + email);
+        log.debug("🔍 Checking email role for: {}", email);
         
         // Find user across all tables
         User user = findUserAcrossAllTables(email);
         
         if (user == null) {
-            System.out.println("❌ Email not found: " + email);
+            log.warn("❌ Email not found: {}", email);
             return Map.of(
                 "exists", "false",
                 "message", "Email not found"
             );
         }
         
-        System.out.println("✅ Email found with role: " + user.getRole());
+        log.debug("✅ Email found with role: {}", user.getRole());
         return Map.of(
             "exists", "true",
             "role", user.getRoleAsString(),
@@ -1224,13 +1228,13 @@ public class UnifiedAuthService {
      * Verify forgot password OTP and login user
      */
     public JwtResponse verifyForgotPasswordOtp(String email, String otpCode, String newPassword) {
-        System.out.println("🔐 Forgot password OTP verification for: " + email);
+        log.debug("🔐 Forgot password OTP verification for: {}", email);
         
         // Find user in User table
         Optional<User> userOpt = userRepository.findByEmail(email);
         
         if (!userOpt.isPresent()) {
-            System.out.println("❌ User not found with email: " + email);
+            log.warn("❌ User not found with email: {}", email);
             return null;
         }
         
@@ -1239,13 +1243,13 @@ public class UnifiedAuthService {
         // Verify OTP
         Optional<OtpVerification> otpOpt = otpRepo.findByEmailOrPhone(email);
         if (!otpOpt.isPresent()) {
-            System.out.println("❌ No OTP found for email: " + email);
+            log.warn("❌ No OTP found for email: {}", email);
             return null;
         }
         
         OtpVerification otp = otpOpt.get();
         if (!otp.getOtp().equals(otpCode) || !otp.getExpiryTime().isAfter(LocalDateTime.now())) {
-            System.out.println("❌ Invalid or expired OTP");
+            log.warn("❌ Invalid or expired OTP");
             return null;
         }
         
@@ -1253,7 +1257,7 @@ public class UnifiedAuthService {
         if (newPassword != null && !newPassword.trim().isEmpty()) {
             String encodedPassword = passwordEncoder.encode(newPassword);
             user.setPassword(encodedPassword);
-            System.out.println("🔒 Password updated for user: " + email);
+            log.debug("🔒 Password updated for user: {}", email);
         }
         
         // Mark user as verified and save
@@ -1266,7 +1270,7 @@ public class UnifiedAuthService {
         // Generate token and login the user
         String token = jwtUtil.generateToken(user.getEmail(), user.getRoleAsString(), user.getId());
         
-        System.out.println("✅ Forgot password OTP verification successful, user logged in");
+        log.debug("✅ Forgot password OTP verification successful, user logged in");
         
         return JwtResponse.builder()
             .token(token)
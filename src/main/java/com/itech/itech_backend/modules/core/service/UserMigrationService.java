@@ -1,61 +1,56 @@
 package com.itech.itech_backend.modules.core.service;
 
-import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.startup.StartupTask;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.annotation.PostConstruct;
-import java.util.List;
-
+/**
+ * One-time backfill of a default password for users created before passwords were
+ * mandatory. Runs as a deferred startup task and is recorded in the ledger, so later
+ * boots do not rescan the users table.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserMigrationService {
+public class UserMigrationService implements StartupTask {
+
+    private static final String DEFAULT_PASSWORD = "password123"; // This should be changed by user
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
-    @PostConstruct
-    public void init() {
-        migrateUsersWithoutPasswords();
+    @Override
+    public String name() {
+        return "user-default-passwords";
+    }
+
+    @Override
+    public int order() {
+        return 10;
     }
 
+    @Override
     @Transactional
-    public void migrateUsersWithoutPasswords() {
-        try {
-            List<User> usersWithoutPassword = userRepository.findAll().stream()
-                    .filter(user -> user.getPassword() == null || user.getPassword().isEmpty())
-                    .toList();
-
-            if (!usersWithoutPassword.isEmpty()) {
-                log.info("🔄 Found {} users without passwords. Setting default passwords...", usersWithoutPassword.size());
-
-                for (User user : usersWithoutPassword) {
-                    // Set a default password (user will need to change it)
-                    String defaultPassword = "password123"; // This should be changed by user
-                    user.setPassword(passwordEncoder.encode(defaultPassword));
-                    userRepository.save(user);
-                    
-                    log.info("✅ Set default password for user: {} ({})", user.getName(), user.getEmail());
-                    System.out.println("🔑 USER: " + user.getEmail() + " | DEFAULT PASSWORD: " + defaultPassword);
-                }
-
-                System.out.println("\n" + "=".repeat(80));
-                System.out.println("🔄 USER MIGRATION COMPLETED");
-                System.out.println("📋 " + usersWithoutPassword.size() + " users updated with default passwords");
-                System.out.println("🔑 DEFAULT PASSWORD FOR ALL EXISTING USERS: password123");
-                System.out.println("⚠️  SECURITY NOTICE: Users should change their passwords after first login");
-                System.out.println("=".repeat(80) + "\n");
-            } else {
-                log.info("✅ All users already have passwords set");
-            }
-        } catch (Exception e) {
-            log.error("❌ Error during user migration: {}", e.getMessage(), e);
+    public int run() {
+        return migrateUsersWithoutPasswords();
+    }
+
+    /**
+     * Set the default password on every user without one. The hash is computed once and
+     * applied with a single UPDATE instead of encoding and saving user by user.
+     */
+    @Transactional
+    public int migrateUsersWithoutPasswords() {
+        int updated = userRepository.setPasswordWhereMissing(passwordEncoder.encode(DEFAULT_PASSWORD));
+        if (updated > 0) {
+            log.warn("🔑 Set the default password on {} users without one; they should change it after first login", updated);
+        } else {
+            log.info("✅ All users already have passwords set");
         }
+        return updated;
     }
 }
-
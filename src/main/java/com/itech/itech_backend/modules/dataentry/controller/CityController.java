@@ -2,6 +2,9 @@ package com.itech.itech_backend.modules.dataentry.controller;
 
 import com.itech.itech_backend.modules.city.model.City;
 import com.itech.itech_backend.modules.city.service.CityService;
+import com.itech.itech_backend.modules.shared.httpcache.CacheDomain;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheable;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -37,11 +40,20 @@ public class CityController {
             @RequestParam(required = false) Boolean isActive,
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String state,
-            @RequestParam(required = false) Boolean isMajorCity) {
+            @RequestParam(required = false) Boolean isMajorCity,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
         try {
             log.info("Cities request - page: {}, size: {}, search: {}, country: {}, state: {}, active: {}, major: {}", 
                     page, size, search, country, state, isActive, isMajorCity);
 
+            // Any cursor (empty for the first page) switches to keyset paging
+            if (cursor != null) {
+                KeysetPage<City> cities = cityService.seekFilteredCities(search, isActive, country, state, isMajorCity,
+                        sort, cursor, size);
+                return ResponseEntity.ok(createSuccessResponse("Cities retrieved successfully", cities));
+            }
+
             Pageable pageable = PageRequest.of(page, size);
             Page<City> cities = cityService.getFilteredCities(search, isActive, country, state, isMajorCity, pageable);
 
@@ -238,6 +250,7 @@ public class CityController {
      * Get cities for dropdown (name and ID only)
      */
     @GetMapping("/dropdown")
+    @HttpCacheable(value = CacheDomain.CITIES, maxAge = 3600, staleWhileRevalidate = 86400)
     public ResponseEntity<Map<String, Object>> getCitiesForDropdown(
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String state,
@@ -318,6 +331,28 @@ public class CityController {
         }
     }
 
+    /**
+     * Get the cities nearest to coordinates
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<Map<String, Object>> getNearestCities(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "10") Integer count) {
+        try {
+            log.info("📍 Get nearest cities request: lat: {}, lon: {}, count: {}", latitude, longitude, count);
+
+            List<Map<String, Object>> cities = cityService.findNearestCities(latitude, longitude, Math.min(Math.max(count, 1), 100));
+
+            Map<String, Object> response = createSuccessResponse("Nearest cities retrieved successfully", cities);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error getting nearest cities: {}", e.getMessage(), e);
+            return createErrorResponse("Failed to get nearest cities: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Update city display order
      */
@@ -1,6 +1,9 @@
 package com.itech.itech_backend.modules.dataentry.entity;
 
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -35,6 +38,8 @@ import com.itech.itech_backend.modules.city.model.City;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.STATE)
 public class State {
 
     @Id
@@ -118,6 +123,7 @@ public class State {
     private LocalDateTime updatedAt;
 
     // Relationship with cities
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.STATE_CITIES)
     @OneToMany(mappedBy = "state", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<City> cities = new ArrayList<>();
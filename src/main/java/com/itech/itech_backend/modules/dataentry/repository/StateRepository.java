@@ -1,11 +1,15 @@
 package com.itech.itech_backend.modules.dataentry.repository;
 
 import com.itech.itech_backend.modules.dataentry.entity.State;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -108,15 +112,21 @@ public interface StateRepository extends JpaRepository<State, Long> {
            "(:country IS NULL OR s.country = :country) AND " +
            "s.isActive = true " +
            "ORDER BY s.displayOrder ASC, s.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_LOCATIONS)})
     List<Object[]> findStatesForDropdown(@Param("country") String country);
 
     // Active states ordered by display order and name
     @Query("SELECT s FROM State s WHERE s.isActive = true " +
            "ORDER BY s.displayOrder ASC, s.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_LOCATIONS)})
     List<State> findActiveStatesOrdered();
 
     @Query("SELECT s FROM State s WHERE s.country = :country AND s.isActive = true " +
            "ORDER BY s.displayOrder ASC, s.name ASC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.QUERY_LOCATIONS)})
     List<State> findActiveStatesByCountryOrdered(@Param("country") String country);
 
     // Recently created states
@@ -8,6 +8,9 @@ public class DirectorySearchFiltersDto {
     private Double minRating;
     private Boolean verified;
     private Integer minExperience;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
 
     // Getters and Setters
     public String getQuery() {
@@ -65,4 +68,28 @@ public class DirectorySearchFiltersDto {
     public void setMinExperience(Integer minExperience) {
         this.minExperience = minExperience;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
 }
@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "service_providers")
+@Table(name = "service_providers",
+       indexes = {
+           @Index(name = "idx_service_providers_status_lat_lng", columnList = "status,latitude,longitude"),
+           @Index(name = "idx_service_providers_updated_at", columnList = "updated_at")
+       })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ServiceProvider {
 
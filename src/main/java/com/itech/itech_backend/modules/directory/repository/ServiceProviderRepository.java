@@ -118,17 +118,103 @@ public interface ServiceProviderRepository extends JpaRepository<ServiceProvider
     // Find by slug (for SEO URLs)
     Optional<ServiceProvider> findBySlugAndStatus(String slug, ServiceProvider.ProviderStatus status);
 
-    // Find providers within radius (if coordinates are available)
+    // Find providers within radius; the bounding box lets the (status, latitude, longitude)
+    // index discard most rows before the distance expression is evaluated
     @Query("SELECT sp FROM ServiceProvider sp WHERE " +
-           "sp.latitude IS NOT NULL AND sp.longitude IS NOT NULL AND " +
-           "(6371 * acos(cos(radians(:latitude)) * cos(radians(sp.latitude)) * " +
+           "sp.status = :status AND " +
+           "sp.latitude BETWEEN :minLat AND :maxLat AND " +
+           "sp.longitude BETWEEN :minLng AND :maxLng AND " +
+           "(6371 * acos(LEAST(1.0, cos(radians(:latitude)) * cos(radians(sp.latitude)) * " +
            "cos(radians(sp.longitude) - radians(:longitude)) + " +
-           "sin(radians(:latitude)) * sin(radians(sp.latitude)))) <= :radius AND " +
-           "sp.status = :status")
+           "sin(radians(:latitude)) * sin(radians(sp.latitude))))) <= :radius")
     List<ServiceProvider> findProvidersWithinRadius(@Param("latitude") Double latitude,
                                                    @Param("longitude") Double longitude,
                                                    @Param("radius") Double radius,
-                                                   @Param("status") ServiceProvider.ProviderStatus status);
+                                                   @Param("status") ServiceProvider.ProviderStatus status,
+                                                   @Param("minLat") Double minLatitude,
+                                                   @Param("maxLat") Double maxLatitude,
+                                                   @Param("minLng") Double minLongitude,
+                                                   @Param("maxLng") Double maxLongitude);
+
+    String GEO_POINT_COLUMNS = "sp.id AS id, sp.latitude AS latitude, sp.longitude AS longitude, " +
+           "sp.status AS status, sp.category AS category, sp.verified AS verified, sp.rating AS rating, " +
+           "sp.yearsOfExperience AS yearsOfExperience, sp.city AS city, sp.state AS state, sp.area AS area, " +
+           "sp.updatedAt AS updatedAt";
+
+    // Coordinates and filterable fields for the in-memory geo index
+    interface GeoPointView {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+        ServiceProvider.ProviderStatus getStatus();
+        String getCategory();
+        Boolean getVerified();
+        Double getRating();
+        Integer getYearsOfExperience();
+        String getCity();
+        String getState();
+        String getArea();
+        java.time.LocalDateTime getUpdatedAt();
+    }
+
+    @Query("SELECT " + GEO_POINT_COLUMNS + " FROM ServiceProvider sp WHERE " +
+           "sp.id > :afterId AND sp.status = :status AND " +
+           "sp.latitude IS NOT NULL AND sp.longitude IS NOT NULL ORDER BY sp.id")
+    List<GeoPointView> findGeoPointChunk(@Param("afterId") Long afterId,
+                                         @Param("status") ServiceProvider.ProviderStatus status,
+                                         Pageable pageable);
+
+    // Includes rows that left ACTIVE or lost coordinates so the index can drop them
+    @Query("SELECT " + GEO_POINT_COLUMNS + " FROM ServiceProvider sp WHERE " +
+           "sp.updatedAt > :since ORDER BY sp.updatedAt")
+    List<GeoPointView> findGeoPointsUpdatedSince(@Param("since") java.time.LocalDateTime since);
+
+    // Full-text candidates inside a bounding box; distances are computed by the caller
+    @Query("SELECT " + GEO_POINT_COLUMNS + " FROM ServiceProvider sp WHERE " +
+           "sp.status = :status AND " +
+           "sp.latitude BETWEEN :minLat AND :maxLat AND " +
+           "sp.longitude BETWEEN :minLng AND :maxLng AND " +
+           "(LOWER(sp.businessName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(sp.category) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(sp.services) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(sp.description) LIKE LOWER(CONCAT('%', :query, '%'))) AND " +
+           "(:location IS NULL OR " +
+           "LOWER(sp.city) LIKE LOWER(CONCAT('%', :location, '%')) OR " +
+           "LOWER(sp.state) LIKE LOWER(CONCAT('%', :location, '%')) OR " +
+           "LOWER(sp.area) LIKE LOWER(CONCAT('%', :location, '%'))) AND " +
+           "(:category IS NULL OR LOWER(sp.category) LIKE LOWER(CONCAT('%', :category, '%')))")
+    List<GeoPointView> findTextMatchesInBox(@Param("query") String query,
+                                            @Param("location") String location,
+                                            @Param("category") String category,
+                                            @Param("status") ServiceProvider.ProviderStatus status,
+                                            @Param("minLat") Double minLatitude,
+                                            @Param("maxLat") Double maxLatitude,
+                                            @Param("minLng") Double minLongitude,
+                                            @Param("maxLng") Double maxLongitude);
+
+    // Public directory search; null filters are ignored
+    @Query("SELECT sp FROM ServiceProvider sp WHERE sp.status = :status AND " +
+           "(:query IS NULL OR " +
+           "LOWER(sp.businessName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(sp.category) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(sp.services) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(sp.description) LIKE LOWER(CONCAT('%', :query, '%'))) AND " +
+           "(:location IS NULL OR " +
+           "LOWER(sp.city) LIKE LOWER(CONCAT('%', :location, '%')) OR " +
+           "LOWER(sp.state) LIKE LOWER(CONCAT('%', :location, '%')) OR " +
+           "LOWER(sp.area) LIKE LOWER(CONCAT('%', :location, '%'))) AND " +
+           "(:category IS NULL OR LOWER(sp.category) LIKE LOWER(CONCAT('%', :category, '%'))) AND " +
+           "(:verified IS NULL OR sp.verified = :verified) AND " +
+           "(:minRating IS NULL OR sp.rating >= :minRating) AND " +
+           "(:minExperience IS NULL OR sp.yearsOfExperience >= :minExperience)")
+    Page<ServiceProvider> searchDirectory(@Param("query") String query,
+                                          @Param("location") String location,
+                                          @Param("category") String category,
+                                          @Param("verified") Boolean verified,
+                                          @Param("minRating") Double minRating,
+                                          @Param("minExperience") Integer minExperience,
+                                          @Param("status") ServiceProvider.ProviderStatus status,
+                                          Pageable pageable);
 
     // Find recently active providers
     @Query("SELECT sp FROM ServiceProvider sp WHERE sp.lastActive >= :since AND sp.status = :status ORDER BY sp.lastActive DESC")
@@ -0,0 +1,242 @@
+package com.itech.itech_backend.modules.directory.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itech.itech_backend.modules.directory.dto.DirectorySearchFiltersDto;
+import com.itech.itech_backend.modules.directory.model.ServiceProvider;
+import com.itech.itech_backend.modules.directory.repository.ServiceProviderRepository;
+import com.itech.itech_backend.modules.shared.geo.GeoHit;
+import com.itech.itech_backend.modules.shared.geo.GeoMath;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Public service provider directory search.
+ *
+ * Searches with a centre point are answered from {@link ProviderGeoIndex}: the index returns
+ * matching ids nearest first and only the requested page is loaded from the database. Free-text
+ * queries, and any search made before the index has loaded, go through a bounding-box
+ * prefiltered SQL query instead. Searches without a centre point are plain paged SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DirectoryService {
+
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final ProviderGeoIndex providerGeoIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${geo.directory.default-radius-km:25}")
+    private double defaultRadiusKm;
+
+    @Value("${geo.directory.max-radius-km:500}")
+    private double maxRadiusKm;
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(DirectorySearchFiltersDto filters, int page, int limit) {
+        int safePage = Math.max(page, 1);
+        int safeLimit = Math.min(Math.max(limit, 1), 100);
+
+        List<Map<String, Object>> providers;
+        long total;
+        if (filters.getLatitude() != null && filters.getLongitude() != null) {
+            List<GeoHit<ProviderGeoIndex.ProviderPoint>> hits = geoSearch(filters);
+            total = hits.size();
+            int from = Math.min((safePage - 1) * safeLimit, hits.size());
+            int to = Math.min(from + safeLimit, hits.size());
+            providers = loadPage(hits.subList(from, to));
+        } else {
+            Page<ServiceProvider> result = serviceProviderRepository.searchDirectory(
+                    blankToNull(filters.getQuery()), blankToNull(filters.getLocation()), blankToNull(filters.getCategory()),
+                    filters.getVerified(), filters.getMinRating(), filters.getMinExperience(),
+                    ServiceProvider.ProviderStatus.ACTIVE,
+                    PageRequest.of(safePage - 1, safeLimit, sortFor(filters.getSortBy())));
+            total = result.getTotalElements();
+            providers = result.getContent().stream()
+                    .map(provider -> toResponse(provider, null))
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("providers", providers);
+        response.put("total", total);
+        response.put("page", safePage);
+        response.put("totalPages", (int) Math.ceil((double) total / safeLimit));
+        response.put("hasMore", (long) safePage * safeLimit < total);
+        return response;
+    }
+
+    /**
+     * The {@code count} active providers nearest to a point
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findNearest(double latitude, double longitude, int count, String category) {
+        if (!providerGeoIndex.isReady()) {
+            DirectorySearchFiltersDto filters = new DirectorySearchFiltersDto();
+            filters.setLatitude(latitude);
+            filters.setLongitude(longitude);
+            filters.setCategory(category);
+            filters.setRadiusKm(maxRadiusKm);
+            List<GeoHit<ProviderGeoIndex.ProviderPoint>> hits = geoSearch(filters);
+            return loadPage(hits.subList(0, Math.min(count, hits.size())));
+        }
+        String categoryTerm = lowerOrNull(category);
+        List<GeoHit<ProviderGeoIndex.ProviderPoint>> hits = providerGeoIndex.nearest(latitude, longitude, count,
+                point -> categoryTerm == null || point.matchesCategory(categoryTerm));
+        return loadPage(hits);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getProvider(Long id) {
+        return serviceProviderRepository.findById(id).map(provider -> toResponse(provider, null));
+    }
+
+    private List<GeoHit<ProviderGeoIndex.ProviderPoint>> geoSearch(DirectorySearchFiltersDto filters) {
+        double lat = filters.getLatitude();
+        double lng = filters.getLongitude();
+        double radius = Math.min(filters.getRadiusKm() != null && filters.getRadiusKm() > 0
+                ? filters.getRadiusKm() : defaultRadiusKm, maxRadiusKm);
+        String query = blankToNull(filters.getQuery());
+        String location = lowerOrNull(filters.getLocation());
+        String category = lowerOrNull(filters.getCategory());
+
+        List<GeoHit<ProviderGeoIndex.ProviderPoint>> hits;
+        if (query == null && providerGeoIndex.isReady()) {
+            Predicate<ProviderGeoIndex.ProviderPoint> filter = point ->
+                    (location == null || point.matchesLocation(location))
+                            && (category == null || point.matchesCategory(category))
+                            && matchesPointFilters(point, filters);
+            hits = new ArrayList<>(providerGeoIndex.withinRadius(lat, lng, radius, filter));
+        } else {
+            GeoMath.BoundingBox box = GeoMath.boundingBox(lat, lng, radius).asRange();
+            hits = new ArrayList<>();
+            for (ServiceProviderRepository.GeoPointView view : serviceProviderRepository.findTextMatchesInBox(
+                    query != null ? query : "", location, category, ServiceProvider.ProviderStatus.ACTIVE,
+                    box.minLat(), box.maxLat(), box.minLng(), box.maxLng())) {
+                double distance = GeoMath.distanceKm(lat, lng, view.getLatitude(), view.getLongitude());
+                ProviderGeoIndex.ProviderPoint point = ProviderGeoIndex.toPoint(view);
+                if (GeoMath.isWithin(distance, radius) && matchesPointFilters(point, filters)) {
+                    hits.add(new GeoHit<>(view.getId(), point, distance));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(GeoHit::distanceKm));
+        }
+
+        if ("rating".equalsIgnoreCase(filters.getSortBy())) {
+            hits.sort(Comparator.comparingDouble((GeoHit<ProviderGeoIndex.ProviderPoint> hit) -> -hit.value().rating())
+                    .thenComparingDouble(GeoHit::distanceKm));
+        }
+        return hits;
+    }
+
+    private List<Map<String, Object>> loadPage(List<GeoHit<ProviderGeoIndex.ProviderPoint>> hits) {
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ServiceProvider> byId = serviceProviderRepository.findAllById(
+                        hits.stream().map(GeoHit::id).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(ServiceProvider::getId, Function.identity()));
+        List<Map<String, Object>> page = new ArrayList<>(hits.size());
+        for (GeoHit<ProviderGeoIndex.ProviderPoint> hit : hits) {
+            ServiceProvider provider = byId.get(hit.id());
+            if (provider != null) {
+                page.add(toResponse(provider, hit.distanceKm()));
+            }
+        }
+        return page;
+    }
+
+    private boolean matchesPointFilters(ProviderGeoIndex.ProviderPoint point, DirectorySearchFiltersDto filters) {
+        return (filters.getVerified() == null || point.verified() == filters.getVerified())
+                && (filters.getMinRating() == null || point.rating() >= filters.getMinRating())
+                && (filters.getMinExperience() == null || point.yearsOfExperience() >= filters.getMinExperience());
+    }
+
+    private Sort sortFor(String sortBy) {
+        if ("rating".equalsIgnoreCase(sortBy)) {
+            return Sort.by(Sort.Order.desc("rating"), Sort.Order.desc("reviewCount"));
+        }
+        if ("experience".equalsIgnoreCase(sortBy)) {
+            return Sort.by(Sort.Order.desc("yearsOfExperience"));
+        }
+        if ("newest".equalsIgnoreCase(sortBy)) {
+            return Sort.by(Sort.Order.desc("createdAt"));
+        }
+        return Sort.by(Sort.Order.desc("verified"), Sort.Order.desc("rating"), Sort.Order.asc("id"));
+    }
+
+    private Map<String, Object> toResponse(ServiceProvider provider, Double distanceKm) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", provider.getId());
+        response.put("businessName", provider.getBusinessName());
+        response.put("ownerName", provider.getOwnerName());
+        response.put("category", provider.getCategory());
+        response.put("rating", provider.getRating());
+        response.put("reviewCount", provider.getReviewCount());
+        response.put("yearsOfExperience", provider.getYearsOfExperience());
+        response.put("completedProjects", provider.getCompletedProjects());
+        response.put("responseTime", provider.getResponseTime());
+        response.put("verified", Boolean.TRUE.equals(provider.getVerified()));
+        response.put("slug", provider.getSlug());
+
+        Map<String, Object> location = new HashMap<>();
+        location.put("address", provider.getAddress());
+        location.put("city", provider.getCity());
+        location.put("state", provider.getState());
+        location.put("pincode", provider.getPincode());
+        location.put("area", provider.getArea());
+        location.put("latitude", provider.getLatitude());
+        location.put("longitude", provider.getLongitude());
+        response.put("location", location);
+
+        Map<String, Object> contact = new HashMap<>();
+        contact.put("mobile", provider.getMobile());
+        contact.put("phone", provider.getPhone());
+        contact.put("email", provider.getEmail());
+        contact.put("website", provider.getWebsite());
+        response.put("contact", contact);
+
+        response.put("services", parseServices(provider.getServices()));
+        response.put("description", provider.getDescription());
+        if (distanceKm != null) {
+            response.put("distanceKm", Math.round(distanceKm * 100.0) / 100.0);
+        }
+        return response;
+    }
+
+    private List<String> parseServices(String services) {
+        if (services == null || services.isBlank()) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(services, new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            // Older rows store a comma separated list
+            return Arrays.stream(services.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private String lowerOrNull(String value) {
+        String trimmed = blankToNull(value);
+        return trimmed != null ? trimmed.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,189 @@
+package com.itech.itech_backend.modules.directory.service;
+
+import com.itech.itech_backend.modules.directory.model.ServiceProvider;
+import com.itech.itech_backend.modules.directory.repository.ServiceProviderRepository;
+import com.itech.itech_backend.modules.shared.geo.GeoGridIndex;
+import com.itech.itech_backend.modules.shared.geo.GeoHit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index over active service providers with coordinates.
+ *
+ * Built in id-ordered chunks on a background thread once the application is ready, then
+ * kept current by polling {@code updated_at} past a watermark. Providers that become
+ * inactive or lose their coordinates are dropped on the next poll; a nightly rebuild
+ * clears rows that were deleted outright. Only the short filter fields are held in memory,
+ * full entities are loaded for the requested page.
+ */
+@Component
+@Slf4j
+public class ProviderGeoIndex {
+
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final Executor executor;
+    private final double cellDegrees;
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+
+    private volatile GeoGridIndex<ProviderPoint> index;
+    private volatile boolean ready;
+    private volatile LocalDateTime watermark;
+
+    @Value("${geo.index.provider-chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${geo.index.refresh-overlap-seconds:5}")
+    private long refreshOverlapSeconds;
+
+    public ProviderGeoIndex(ServiceProviderRepository serviceProviderRepository,
+                            @Qualifier("asyncExecutor") Executor executor,
+                            @Value("${geo.index.provider-cell-degrees:0.1}") double cellDegrees) {
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.executor = executor;
+        this.cellDegrees = cellDegrees;
+        this.index = new GeoGridIndex<>(cellDegrees);
+    }
+
+    /**
+     * Filterable snapshot of a provider; text fields are lower-cased once at load time
+     */
+    public record ProviderPoint(String category, boolean verified, double rating, int yearsOfExperience,
+                                String city, String state, String area) {
+
+        public boolean matchesLocation(String term) {
+            return contains(city, term) || contains(state, term) || contains(area, term);
+        }
+
+        public boolean matchesCategory(String term) {
+            return contains(category, term);
+        }
+
+        private static boolean contains(String value, String term) {
+            return value != null && value.contains(term);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::rebuild);
+    }
+
+    /**
+     * Rebuild the index from scratch and swap it in once complete
+     */
+    @Scheduled(cron = "${geo.index.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        if (!busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime since = LocalDateTime.now().minusSeconds(refreshOverlapSeconds);
+            GeoGridIndex<ProviderPoint> fresh = new GeoGridIndex<>(cellDegrees);
+            long lastId = 0L;
+            while (true) {
+                List<ServiceProviderRepository.GeoPointView> chunk = serviceProviderRepository.findGeoPointChunk(
+                        lastId, ServiceProvider.ProviderStatus.ACTIVE, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                chunk.forEach(view -> apply(fresh, view));
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            index = fresh;
+            watermark = since;
+            ready = true;
+            log.info("Provider geo index built with {} providers in {} ms",
+                    fresh.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Provider geo index build failed, searches will use SQL: {}", e.getMessage());
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Apply provider rows changed since the last poll
+     */
+    @Scheduled(fixedDelayString = "${geo.index.refresh-interval-ms:30000}",
+               initialDelayString = "${geo.index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!ready || !busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<ServiceProviderRepository.GeoPointView> changed =
+                    serviceProviderRepository.findGeoPointsUpdatedSince(watermark);
+            GeoGridIndex<ProviderPoint> current = index;
+            LocalDateTime latest = watermark;
+            for (ServiceProviderRepository.GeoPointView view : changed) {
+                apply(current, view);
+                if (view.getUpdatedAt() != null && view.getUpdatedAt().isAfter(latest)) {
+                    latest = view.getUpdatedAt();
+                }
+            }
+            // Re-read a short overlap so rows committed late with an older timestamp are not missed
+            watermark = latest.minusSeconds(refreshOverlapSeconds).isAfter(watermark)
+                    ? latest.minusSeconds(refreshOverlapSeconds)
+                    : watermark;
+        } catch (Exception e) {
+            log.warn("Provider geo index refresh failed: {}", e.getMessage());
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public List<GeoHit<ProviderPoint>> withinRadius(double latitude, double longitude, double radiusKm,
+                                                    Predicate<ProviderPoint> filter) {
+        return index.withinRadius(latitude, longitude, radiusKm, filter, Integer.MAX_VALUE);
+    }
+
+    public List<GeoHit<ProviderPoint>> nearest(double latitude, double longitude, int count,
+                                               Predicate<ProviderPoint> filter) {
+        return index.nearest(latitude, longitude, count, filter);
+    }
+
+    static ProviderPoint toPoint(ServiceProviderRepository.GeoPointView view) {
+        return new ProviderPoint(
+                lower(view.getCategory()),
+                Boolean.TRUE.equals(view.getVerified()),
+                view.getRating() != null ? view.getRating() : 0.0,
+                view.getYearsOfExperience() != null ? view.getYearsOfExperience() : 0,
+                lower(view.getCity()),
+                lower(view.getState()),
+                lower(view.getArea()));
+    }
+
+    private void apply(GeoGridIndex<ProviderPoint> target, ServiceProviderRepository.GeoPointView view) {
+        if (view.getStatus() == ServiceProvider.ProviderStatus.ACTIVE) {
+            target.put(view.getId(), view.getLatitude(), view.getLongitude(), toPoint(view));
+        } else {
+            target.remove(view.getId());
+        }
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -44,6 +44,11 @@ public class Subscription {
     
     private Integer searchRanking; // 1 = highest priority
     
+    // Usage counters maintained by VendorEntitlementService; null until first counted
+    private Integer productsUsed;
+    
+    private Integer leadsUsed;
+    
     // Vendor subscription details
     @ManyToOne
     @JoinColumn(name = "vendor_id")
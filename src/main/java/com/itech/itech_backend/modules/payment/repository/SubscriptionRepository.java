@@ -4,6 +4,7 @@ import com.itech.itech_backend.modules.payment.model.Subscription;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +18,9 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     // Find active subscription for a vendor
     Optional<Subscription> findByVendorAndStatus(Vendors vendor, Subscription.SubscriptionStatus status);
     
+    // Latest active subscription for a vendor, tolerating duplicate ACTIVE rows
+    Optional<Subscription> findFirstByVendorIdAndStatusOrderByCreatedAtDesc(Long vendorId, Subscription.SubscriptionStatus status);
+    
     // Find all subscriptions for a vendor
     List<Subscription> findByVendorOrderByCreatedAtDesc(Vendors vendor);
     
@@ -29,5 +33,20 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     
     @Query("SELECT s.planType, COUNT(s) FROM Subscription s WHERE s.vendor IS NOT NULL GROUP BY s.planType")
     List<Object[]> getSubscriptionPlanTypeCounts();
+    
+    // Usage counters, see VendorEntitlementService
+    @Modifying
+    @Query("UPDATE Subscription s SET s.productsUsed = :products, s.leadsUsed = :leads WHERE s.id = :id")
+    int initialiseUsage(@Param("id") Long id, @Param("products") int products, @Param("leads") int leads);
+    
+    // Rows whose counters were reset are skipped; they are recounted on next load
+    @Modifying
+    @Query("UPDATE Subscription s SET s.productsUsed = s.productsUsed + :products, s.leadsUsed = s.leadsUsed + :leads " +
+           "WHERE s.id IN :ids AND s.productsUsed IS NOT NULL AND s.leadsUsed IS NOT NULL")
+    int addUsage(@Param("products") int products, @Param("leads") int leads, @Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Subscription s SET s.productsUsed = NULL, s.leadsUsed = NULL " +
+           "WHERE s.status = com.itech.itech_backend.modules.payment.model.Subscription.SubscriptionStatus.ACTIVE")
+    int resetActiveUsageCounters();
 }
-
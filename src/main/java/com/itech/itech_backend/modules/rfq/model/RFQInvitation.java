@@ -0,0 +1,50 @@
+package com.itech.itech_backend.modules.rfq.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A vendor invited to quote on an RFQ by the matching engine
+ */
+@Entity
+@Table(name = "rfq_invitations",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rfq_invitations_rfq_vendor", columnNames = {"rfq_id", "vendor_id"}),
+       indexes = @Index(name = "idx_rfq_invitations_vendor_created", columnList = "vendor_id,invited_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RFQInvitation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rfq_id", nullable = false)
+    private Long rfqId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(name = "match_rank", nullable = false)
+    private Integer matchRank;
+
+    @Column(name = "match_score", nullable = false)
+    private Double matchScore;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private InvitationStatus status = InvitationStatus.INVITED;
+
+    @Column(name = "invited_at", nullable = false)
+    private LocalDateTime invitedAt;
+
+    public enum InvitationStatus {
+        INVITED,
+        VIEWED,
+        QUOTED,
+        DECLINED
+    }
+}
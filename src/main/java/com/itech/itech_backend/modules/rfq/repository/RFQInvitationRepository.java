@@ -0,0 +1,19 @@
+package com.itech.itech_backend.modules.rfq.repository;
+
+import com.itech.itech_backend.modules.rfq.model.RFQInvitation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RFQInvitationRepository extends JpaRepository<RFQInvitation, Long> {
+
+    List<RFQInvitation> findByRfqIdOrderByMatchRankAsc(Long rfqId);
+
+    Page<RFQInvitation> findByVendorIdOrderByInvitedAtDesc(Long vendorId, Pageable pageable);
+
+    boolean existsByRfqId(Long rfqId);
+}
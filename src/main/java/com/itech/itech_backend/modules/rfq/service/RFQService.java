@@ -0,0 +1,103 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.model.RFQInvitation;
+import com.itech.itech_backend.modules.rfq.repository.RFQInvitationRepository;
+import com.itech.itech_backend.modules.rfq.repository.RFQRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RFQService {
+
+    private final RFQRepository rfqRepository;
+    private final RFQInvitationRepository invitationRepository;
+    private final RfqMatchingService matchingService;
+    private final RfqInvitationDispatcher invitationDispatcher;
+
+    /**
+     * Create an RFQ and, once it is committed, invite the best matching suppliers
+     */
+    @Transactional
+    public RFQ createRFQ(RFQ rfq) {
+        validateRFQ(rfq);
+
+        rfq.setStatus(RFQ.RFQStatus.OPEN);
+        rfq.setBidCount(0);
+        rfq.setViewCount(0);
+        if (rfq.getValidUntil() == null) {
+            rfq.setValidUntil(LocalDateTime.now().plusDays(30));
+        }
+
+        RFQ savedRFQ = rfqRepository.save(rfq);
+
+        Runnable dispatch = () -> matchingService.shortlistAsync(savedRFQ,
+                matches -> invitationDispatcher.dispatch(savedRFQ, matches));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+        return savedRFQ;
+    }
+
+    public RFQ getRFQ(Long rfqId) {
+        return rfqRepository.findById(rfqId)
+                .orElseThrow(() -> new RuntimeException("RFQ not found with ID: " + rfqId));
+    }
+
+    /**
+     * Current ranked supplier shortlist for an RFQ
+     */
+    public List<SupplierCapabilityIndex.Match> getShortlist(Long rfqId) {
+        return matchingService.shortlist(getRFQ(rfqId));
+    }
+
+    public List<RFQInvitation> getInvitations(Long rfqId) {
+        return invitationRepository.findByRfqIdOrderByMatchRankAsc(rfqId);
+    }
+
+    @Scheduled(cron = "0 0 * * * *") // Every hour
+    @Transactional
+    public void closeExpiredRFQs() {
+        List<RFQ> expired = rfqRepository.findByValidUntilBeforeAndStatus(LocalDateTime.now(), RFQ.RFQStatus.OPEN);
+        expired.forEach(rfq -> rfq.setStatus(RFQ.RFQStatus.CLOSED));
+        rfqRepository.saveAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("Closed {} expired RFQs", expired.size());
+        }
+    }
+
+    private void validateRFQ(RFQ rfq) {
+        if (rfq.getBuyer() == null) {
+            throw new IllegalArgumentException("RFQ buyer is required");
+        }
+        if (rfq.getTitle() == null || rfq.getTitle().isBlank()) {
+            throw new IllegalArgumentException("RFQ title is required");
+        }
+        if (rfq.getCategory() == null || rfq.getCategory().isBlank()) {
+            throw new IllegalArgumentException("RFQ category is required");
+        }
+        if (rfq.getQuantity() == null || rfq.getQuantity() <= 0) {
+            throw new IllegalArgumentException("RFQ quantity must be positive");
+        }
+        if (rfq.getMinSupplierRating() != null && (rfq.getMinSupplierRating() < 0 || rfq.getMinSupplierRating() > 5)) {
+            throw new IllegalArgumentException("Minimum supplier rating must be between 0 and 5");
+        }
+    }
+}
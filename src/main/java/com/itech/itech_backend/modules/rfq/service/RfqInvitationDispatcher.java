@@ -0,0 +1,108 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.model.RFQInvitation;
+import com.itech.itech_backend.modules.rfq.repository.RFQInvitationRepository;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends RFQ invitations to a ranked shortlist.
+ *
+ * Each vendor may receive a limited number of invitations per window. Vendors over their
+ * limit are skipped and the next vendor on the shortlist takes the slot, so busy suppliers
+ * are not flooded and the RFQ still reaches its target number of vendors. Callers run this
+ * off the request thread.
+ */
+@Component
+@Slf4j
+public class RfqInvitationDispatcher {
+
+    private final RFQInvitationRepository invitationRepository;
+    private final NotificationService notificationService;
+    private final Cache<Long, AtomicInteger> recentInvitations;
+    private final int perVendorLimit;
+
+    @Value("${rfq.invitations.max-per-rfq:25}")
+    private int maxPerRfq;
+
+    public RfqInvitationDispatcher(RFQInvitationRepository invitationRepository,
+                                   NotificationService notificationService,
+                                   @Value("${rfq.invitations.per-vendor-limit:20}") int perVendorLimit,
+                                   @Value("${rfq.invitations.per-vendor-window-minutes:60}") long windowMinutes) {
+        this.invitationRepository = invitationRepository;
+        this.notificationService = notificationService;
+        this.perVendorLimit = perVendorLimit;
+        this.recentInvitations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+
+    /**
+     * Invite the best vendors that are not throttled; returns the number invited
+     */
+    public int dispatch(RFQ rfq, List<SupplierCapabilityIndex.Match> ranked) {
+        if (ranked.isEmpty()) {
+            log.info("No matching suppliers for RFQ {} in category '{}'", rfq.getId(), rfq.getCategory());
+            return 0;
+        }
+        if (invitationRepository.existsByRfqId(rfq.getId())) {
+            return 0; // already dispatched
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RFQInvitation> invitations = new ArrayList<>();
+        List<SupplierCapabilityIndex.Match> invited = new ArrayList<>();
+        int throttled = 0;
+        for (SupplierCapabilityIndex.Match match : ranked) {
+            if (invitations.size() >= maxPerRfq) {
+                break;
+            }
+            if (!tryAcquire(match.vendorId())) {
+                throttled++;
+                continue;
+            }
+            invited.add(match);
+            invitations.add(RFQInvitation.builder()
+                    .rfqId(rfq.getId())
+                    .vendorId(match.vendorId())
+                    .matchRank(invitations.size() + 1)
+                    .matchScore(match.score())
+                    .invitedAt(now)
+                    .build());
+        }
+        invitationRepository.saveAll(invitations);
+
+        for (SupplierCapabilityIndex.Match match : invited) {
+            if (match.userId() == null) {
+                continue;
+            }
+            try {
+                notificationService.notifyRfqInvitation(match.userId(), String.valueOf(rfq.getId()), rfq.getTitle());
+            } catch (Exception e) {
+                log.warn("Could not notify vendor {} about RFQ {}: {}", match.vendorId(), rfq.getId(), e.getMessage());
+            }
+        }
+        log.info("RFQ {} sent to {} suppliers ({} throttled)", rfq.getId(), invitations.size(), throttled);
+        return invitations.size();
+    }
+
+    private boolean tryAcquire(long vendorId) {
+        AtomicInteger count = recentInvitations.get(vendorId, k -> new AtomicInteger());
+        if (count.incrementAndGet() > perVendorLimit) {
+            count.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+}
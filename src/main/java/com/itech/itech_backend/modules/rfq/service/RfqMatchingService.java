@@ -0,0 +1,259 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.vendor.repository.VendorReviewRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Routes RFQs to suppliers through a {@link SupplierCapabilityIndex}.
+ *
+ * The index is built from vendors and the categories of their active products in
+ * id-ordered chunks once the application is ready. Vendor, product and review changes
+ * are picked up by polling their timestamps past a watermark and re-indexing only the
+ * vendors involved; a nightly rebuild drops vendors whose rows were deleted outright.
+ * A failed first build is retried until it succeeds. Work that needs the index before
+ * then is queued, up to a cap, and run after it.
+ */
+@Service
+@Slf4j
+public class RfqMatchingService {
+
+    private final VendorsRepository vendorsRepository;
+    private final BuyerProductRepository productRepository;
+    private final VendorReviewRepository reviewRepository;
+    private final Executor executor;
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+    private final Queue<Runnable> beforeReady = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private volatile SupplierCapabilityIndex index = new SupplierCapabilityIndex();
+    private volatile boolean ready;
+    private volatile LocalDateTime watermark;
+
+    @Value("${rfq.matching.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${rfq.matching.shortlist-size:50}")
+    private int shortlistSize;
+
+    @Value("${rfq.matching.refresh-overlap-seconds:5}")
+    private long refreshOverlapSeconds;
+
+    @Value("${rfq.matching.max-queued:10000}")
+    private int maxQueued;
+
+    public RfqMatchingService(VendorsRepository vendorsRepository,
+                              BuyerProductRepository productRepository,
+                              VendorReviewRepository reviewRepository,
+                              @Qualifier("asyncExecutor") Executor executor) {
+        this.vendorsRepository = vendorsRepository;
+        this.productRepository = productRepository;
+        this.reviewRepository = reviewRepository;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::rebuild);
+    }
+
+    /**
+     * Ranked shortlist of vendors for an RFQ, best first
+     */
+    public List<SupplierCapabilityIndex.Match> shortlist(RFQ rfq) {
+        return shortlist(rfq, shortlistSize);
+    }
+
+    public List<SupplierCapabilityIndex.Match> shortlist(RFQ rfq, int limit) {
+        return index.match(criteria(rfq), limit);
+    }
+
+    /**
+     * Compute the shortlist once the index is available, without blocking the caller
+     */
+    public void shortlistAsync(RFQ rfq, Consumer<List<SupplierCapabilityIndex.Match>> consumer) {
+        Runnable task = () -> executor.execute(() -> consumer.accept(shortlist(rfq)));
+        if (ready) {
+            task.run();
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            log.warn("RFQ {} not matched: supplier index is not built and {} RFQs are already waiting",
+                    rfq.getId(), maxQueued);
+            return;
+        }
+        beforeReady.add(task);
+        if (ready) {
+            drainBeforeReady(); // the build finished while we were queueing
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int indexedVendors() {
+        return index.size();
+    }
+
+    /**
+     * Rebuild the index from scratch and swap it in once complete
+     */
+    @Scheduled(cron = "${rfq.matching.rebuild-cron:0 50 3 * * *}")
+    public void rebuild() {
+        if (!busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime since = LocalDateTime.now().minusSeconds(refreshOverlapSeconds);
+            SupplierCapabilityIndex fresh = new SupplierCapabilityIndex();
+            long lastId = 0L;
+            while (true) {
+                List<VendorsRepository.SupplierView> chunk =
+                        vendorsRepository.findSupplierChunk(lastId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                indexVendors(fresh, chunk);
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            index = fresh;
+            watermark = since;
+            ready = true;
+            log.info("RFQ supplier index built with {} vendors in {} ms",
+                    fresh.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("RFQ supplier index build failed: {}", e.getMessage(), e);
+        } finally {
+            busy.set(false);
+        }
+        drainBeforeReady();
+    }
+
+    /**
+     * Retry the first build until it succeeds; a no-op once the index is ready
+     */
+    @Scheduled(fixedDelayString = "${rfq.matching.rebuild-retry-ms:30000}",
+               initialDelayString = "${rfq.matching.rebuild-retry-ms:30000}")
+    public void rebuildIfNeeded() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-index vendors whose profile, products or reviews changed since the last poll
+     */
+    @Scheduled(fixedDelayString = "${rfq.matching.refresh-interval-ms:30000}",
+               initialDelayString = "${rfq.matching.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!ready || !busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Set<Long> changed = new LinkedHashSet<>();
+            changed.addAll(vendorsRepository.findIdsChangedSince(watermark));
+            changed.addAll(productRepository.findVendorIdsChangedSince(watermark));
+            changed.addAll(reviewRepository.findVendorIdsChangedSince(watermark));
+            changed.remove(null);
+
+            List<Long> ids = new ArrayList<>(changed);
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> batch = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                indexVendors(index, vendorsRepository.findSuppliersByIds(batch));
+            }
+            if (!ids.isEmpty()) {
+                log.debug("Re-indexed {} vendors for RFQ matching", ids.size());
+            }
+            // Re-read a short overlap so rows committed late with an older timestamp are not missed
+            watermark = now.minusSeconds(refreshOverlapSeconds);
+        } catch (Exception e) {
+            log.warn("RFQ supplier index refresh failed: {}", e.getMessage());
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    private void indexVendors(SupplierCapabilityIndex target, List<VendorsRepository.SupplierView> vendors) {
+        if (vendors.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<String>> capabilities = new HashMap<>();
+        List<Long> ids = vendors.stream().map(VendorsRepository.SupplierView::getId).toList();
+        for (BuyerProductRepository.VendorCapabilityRow row : productRepository.findVendorCapabilities(ids)) {
+            Set<String> names = capabilities.computeIfAbsent(row.getVendorId(), k -> new HashSet<>());
+            addIfPresent(names, row.getCategory());
+            addIfPresent(names, row.getSubCategory());
+            addIfPresent(names, row.getMicroCategory());
+            addIfPresent(names, row.getParentCategory());
+        }
+        for (VendorsRepository.SupplierView vendor : vendors) {
+            Set<String> names = capabilities.get(vendor.getId());
+            if (names == null || names.isEmpty()) {
+                // Nothing on sale, nothing to match on
+                target.remove(vendor.getId());
+                continue;
+            }
+            target.upsert(new SupplierCapabilityIndex.Supplier(
+                    vendor.getId(),
+                    vendor.getUserId(),
+                    vendor.getCity(),
+                    vendor.getState(),
+                    vendor.getRating() != null ? vendor.getRating() : 0.0,
+                    Boolean.TRUE.equals(vendor.getVerified()) || Boolean.TRUE.equals(vendor.getKycApproved()),
+                    names));
+        }
+    }
+
+    private void drainBeforeReady() {
+        if (!ready) {
+            return;
+        }
+        Runnable task;
+        while ((task = beforeReady.poll()) != null) {
+            queued.decrementAndGet();
+            task.run();
+        }
+    }
+
+    static SupplierCapabilityIndex.Criteria criteria(RFQ rfq) {
+        return new SupplierCapabilityIndex.Criteria(
+                rfq.getCategory(),
+                rfq.getMinSupplierRating(),
+                split(rfq.getSupplierLocationPreference()),
+                split(rfq.getDeliveryLocation()));
+    }
+
+    private static List<String> split(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split("[,;/]")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static void addIfPresent(Set<String> names, String name) {
+        if (name != null && !name.isBlank()) {
+            names.add(name);
+        }
+    }
+}
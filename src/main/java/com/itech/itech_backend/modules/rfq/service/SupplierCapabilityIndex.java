@@ -0,0 +1,281 @@
+package com.itech.itech_backend.modules.rfq.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from supplier capabilities to vendor bitsets.
+ *
+ * Each vendor gets a dense ordinal; capability (category, sub-category and micro-category
+ * names), served region (city and state names) and rating band each map to a bitset of
+ * ordinals. A match intersects the bitsets for the RFQ's criteria and scores only the
+ * survivors, so the cost follows the size of the candidate set rather than the vendor count.
+ *
+ * Rating bands are cumulative half-star steps: band {@code b} holds every vendor rated at
+ * least {@code b / 2}. Matching uses the band as a prefilter and re-checks the exact rating.
+ */
+public class SupplierCapabilityIndex {
+
+    private static final int RATING_BANDS = 11; // 0.0, 0.5 ... 5.0
+
+    // Location preferences that mean "anywhere in the country" rather than a region
+    private static final Set<String> NATIONWIDE = Set.of("pan india", "pan-india", "all india", "india", "anywhere", "any");
+
+    /**
+     * What the index knows about one vendor; names are normalised on the way in
+     */
+    public record Supplier(long vendorId, Long userId, String city, String state,
+                           double rating, boolean verified, Set<String> capabilities) {
+
+        public Supplier {
+            city = normalise(city);
+            state = normalise(state);
+            Set<String> normalised = new LinkedHashSet<>();
+            for (String capability : capabilities) {
+                String key = normalise(capability);
+                if (key != null) {
+                    normalised.add(key);
+                }
+            }
+            capabilities = Set.copyOf(normalised);
+        }
+    }
+
+    /**
+     * Matching criteria derived from an RFQ. Regions restrict the candidates; delivery
+     * locations only influence ranking.
+     */
+    public record Criteria(String capability, Double minRating,
+                           Collection<String> regions, Collection<String> deliveryLocations) {
+    }
+
+    public record Match(long vendorId, Long userId, double score) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Supplier> suppliers = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, BitSet> byCapability = new HashMap<>();
+    private final Map<String, BitSet> byRegion = new HashMap<>();
+    private final BitSet[] byRatingBand = new BitSet[RATING_BANDS];
+
+    public SupplierCapabilityIndex() {
+        for (int i = 0; i < RATING_BANDS; i++) {
+            byRatingBand[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Add a vendor or replace everything previously indexed for it
+     */
+    public void upsert(Supplier supplier) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(supplier.vendorId());
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                unindex(ordinal, suppliers.get(ordinal));
+                suppliers.set(ordinal, supplier);
+            } else if (!freeOrdinals.isEmpty()) {
+                ordinal = freeOrdinals.pop();
+                suppliers.set(ordinal, supplier);
+            } else {
+                ordinal = suppliers.size();
+                suppliers.add(supplier);
+            }
+            ordinals.put(supplier.vendorId(), ordinal);
+            index(ordinal, supplier);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long vendorId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(vendorId);
+            if (ordinal != null) {
+                unindex(ordinal, suppliers.get(ordinal));
+                suppliers.set(ordinal, null);
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Highest scoring vendors meeting the criteria, best first
+     */
+    public List<Match> match(Criteria criteria, int limit) {
+        String capability = normalise(criteria.capability());
+        if (capability == null || limit <= 0) {
+            return List.of();
+        }
+        Set<String> deliveryKeys = normaliseAll(criteria.deliveryLocations());
+
+        lock.readLock().lock();
+        try {
+            BitSet capable = byCapability.get(capability);
+            if (capable == null) {
+                return List.of();
+            }
+            BitSet regionFilter = regionFilter(criteria.regions());
+            double minRating = criteria.minRating() != null ? criteria.minRating() : 0.0;
+            BitSet candidates = capable;
+            if (regionFilter != null || minRating > 0) {
+                candidates = (BitSet) capable.clone();
+                if (regionFilter != null) {
+                    candidates.and(regionFilter);
+                }
+                if (minRating > 0) {
+                    candidates.and(byRatingBand[band(minRating)]);
+                }
+            }
+
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Match::score));
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                Supplier supplier = suppliers.get(ordinal);
+                if (supplier.rating() < minRating) {
+                    continue;
+                }
+                double score = score(supplier, deliveryKeys);
+                if (best.size() < limit) {
+                    best.add(new Match(supplier.vendorId(), supplier.userId(), score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Match(supplier.vendorId(), supplier.userId(), score));
+                }
+            }
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(Comparator.comparingDouble(Match::score).reversed()
+                    .thenComparingLong(Match::vendorId));
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Union of the bitsets for the requested regions, or {@code null} for no restriction when
+     * none is requested or one of them means the whole country (e.g. "PAN India"). Regions
+     * no vendor serves contribute nothing, so a request for only those matches nobody.
+     */
+    private BitSet regionFilter(Collection<String> regions) {
+        Set<String> keys = normaliseAll(regions);
+        if (keys.isEmpty() || keys.stream().anyMatch(NATIONWIDE::contains)) {
+            return null;
+        }
+        BitSet filter = new BitSet();
+        for (String region : keys) {
+            BitSet served = byRegion.get(region);
+            if (served != null) {
+                filter.or(served);
+            }
+        }
+        return filter;
+    }
+
+    private double score(Supplier supplier, Set<String> deliveryKeys) {
+        double score = supplier.rating() * 8; // up to 40
+        if (supplier.verified()) {
+            score += 20;
+        }
+        if (supplier.city() != null && deliveryKeys.contains(supplier.city())) {
+            score += 25;
+        } else if (supplier.state() != null && deliveryKeys.contains(supplier.state())) {
+            score += 15;
+        }
+        return score;
+    }
+
+    private void index(int ordinal, Supplier supplier) {
+        for (String capability : supplier.capabilities()) {
+            byCapability.computeIfAbsent(capability, k -> new BitSet()).set(ordinal);
+        }
+        if (supplier.city() != null) {
+            byRegion.computeIfAbsent(supplier.city(), k -> new BitSet()).set(ordinal);
+        }
+        if (supplier.state() != null) {
+            byRegion.computeIfAbsent(supplier.state(), k -> new BitSet()).set(ordinal);
+        }
+        for (int b = 0; b <= band(supplier.rating()); b++) {
+            byRatingBand[b].set(ordinal);
+        }
+    }
+
+    private void unindex(int ordinal, Supplier supplier) {
+        for (String capability : supplier.capabilities()) {
+            clear(byCapability, capability, ordinal);
+        }
+        if (supplier.city() != null) {
+            clear(byRegion, supplier.city(), ordinal);
+        }
+        if (supplier.state() != null) {
+            clear(byRegion, supplier.state(), ordinal);
+        }
+        for (BitSet band : byRatingBand) {
+            band.clear(ordinal);
+        }
+    }
+
+    private static void clear(Map<String, BitSet> index, String key, int ordinal) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static int band(double rating) {
+        return (int) Math.max(0, Math.min(RATING_BANDS - 1, Math.floor(rating * 2)));
+    }
+
+    private static Set<String> normaliseAll(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (String value : values) {
+            String key = normalise(value);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    static String normalise(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = value.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+}
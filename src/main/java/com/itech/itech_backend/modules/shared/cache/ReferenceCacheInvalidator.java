@@ -0,0 +1,212 @@
+package com.itech.itech_backend.modules.shared.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.metamodel.mapping.EntityMappingType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps second-level cache regions consistent after reference data changes.
+ *
+ * Locally, Hibernate already evicts the changed entity and bumps the table timestamps that
+ * invalidate query results, but it does not touch the parent's collection when a child is
+ * added or removed (for example a new City under State.cities), so those collection regions are
+ * evicted here. With {@code app.cache.l2.cluster.enabled=true} every committed change is also
+ * published on a Redis channel; the other nodes evict the entity, its parent collections and
+ * their query regions, since their own timestamps never saw the write.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class ReferenceCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String ALL = "*";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+    private final boolean clusterEnabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Child entity name -> cached collection roles that contain it
+    private final Map<String, List<String>> parentCollections = new HashMap<>();
+
+    private StringRedisTemplate redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public ReferenceCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                     ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                     @Value("${app.cache.l2.cluster.enabled:false}") boolean clusterEnabled,
+                                     @Value("${app.cache.l2.cluster.channel:itech:l2-invalidation}") String channel) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.clusterEnabled = clusterEnabled;
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    void register() {
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(collection -> {
+            if (!collection.hasCache()) {
+                return;
+            }
+            if (collection.getAttributeMapping().getElementDescriptor().getPartMappingType() instanceof EntityMappingType element) {
+                parentCollections.computeIfAbsent(element.getEntityName(), name -> new ArrayList<>())
+                        .add(collection.getRole());
+            }
+        });
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        if (clusterEnabled) {
+            startClusterChannel();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    /**
+     * Evicts every cached row of an entity on all nodes. Bulk JPQL updates already clear the
+     * local region, so callers only need this for the rest of the cluster.
+     */
+    public void evictEverywhere(Class<?> entityClass) {
+        String entityName = entityClass.getName();
+        evictLocally(entityName, ALL);
+        publish(entityName, ALL);
+    }
+
+    /**
+     * Applies an invalidation message published by another node ({@code nodeId|entity|id}).
+     */
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        evictLocally(parts[1], parts[2]);
+        sessionFactory.getCache().evictQueryRegions();
+    }
+
+    private void changed(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        evictParentCollections(persister.getEntityName());
+        publish(persister.getEntityName(), String.valueOf(id));
+    }
+
+    private void evictLocally(String entityName, String id) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(entityName);
+        if (persister == null || !persister.canWriteToCache()) {
+            return;
+        }
+        if (ALL.equals(id) || !Long.class.equals(persister.getIdentifierType().getReturnedClass())) {
+            sessionFactory.getCache().evictEntityData(entityName);
+        } else {
+            sessionFactory.getCache().evictEntityData(entityName, Long.valueOf(id));
+        }
+        evictParentCollections(entityName);
+    }
+
+    private void evictParentCollections(String entityName) {
+        for (String role : parentCollections.getOrDefault(entityName, List.of())) {
+            sessionFactory.getCache().evictCollectionData(role);
+        }
+    }
+
+    private void publish(String entityName, String id) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + entityName + "|" + id);
+        } catch (Exception e) {
+            // Other nodes fall back to region TTLs
+            log.warn("Could not publish cache invalidation for {}#{}: {}", entityName, id, e.getMessage());
+        }
+    }
+
+    private void startClusterChannel() {
+        RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (connectionFactory == null) {
+            log.warn("app.cache.l2.cluster.enabled is set but no Redis connection is configured; invalidation stays local");
+            return;
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("Second-level cache invalidation broadcast on Redis channel {} as node {}", channel, nodeId);
+    }
+}
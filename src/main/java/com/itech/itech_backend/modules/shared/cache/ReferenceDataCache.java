@@ -0,0 +1,50 @@
+package com.itech.itech_backend.modules.shared.cache;
+
+import java.util.List;
+
+/**
+ * Second-level cache region names for reference data (categories, locations, vendor packages,
+ * subscription plans). Entity and collection regions are set on the mappings with
+ * {@code @Cache(region = ...)}, query regions through the {@code QUERY_*} hints on repository
+ * lookups; {@code SecondLevelCacheConfig} creates every region listed here.
+ */
+public final class ReferenceDataCache {
+
+    public static final String CATEGORY = "reference.category";
+    public static final String SUB_CATEGORY = "reference.sub-category";
+    public static final String MICRO_CATEGORY = "reference.micro-category";
+    public static final String CATALOG_CATEGORY = "reference.catalog-category";
+    public static final String CITY = "reference.city";
+    public static final String STATE = "reference.state";
+    public static final String VENDOR_PACKAGE = "reference.vendor-package";
+    public static final String VENDOR_PACKAGE_FEATURE = "reference.vendor-package-feature";
+    public static final String SUBSCRIPTION_PLAN = "reference.subscription-plan";
+
+    // Collection regions (parent -> children)
+    public static final String CATEGORY_CHILDREN = "reference.category.children";
+    public static final String SUB_CATEGORY_CHILDREN = "reference.sub-category.children";
+    public static final String CATALOG_CATEGORY_CHILDREN = "reference.catalog-category.children";
+    public static final String STATE_CITIES = "reference.state.cities";
+    public static final String VENDOR_PACKAGE_FEATURES = "reference.vendor-package.features";
+
+    // Query result regions
+    public static final String QUERY_CATEGORIES = "reference.query.categories";
+    public static final String QUERY_LOCATIONS = "reference.query.locations";
+    public static final String QUERY_PACKAGES = "reference.query.packages";
+
+    // Hibernate's own regions for query results without an explicit region and table timestamps
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> DATA_REGIONS = List.of(
+            CATEGORY, SUB_CATEGORY, MICRO_CATEGORY, CATALOG_CATEGORY, CITY, STATE,
+            VENDOR_PACKAGE, VENDOR_PACKAGE_FEATURE, SUBSCRIPTION_PLAN,
+            CATEGORY_CHILDREN, SUB_CATEGORY_CHILDREN, CATALOG_CATEGORY_CHILDREN, STATE_CITIES,
+            VENDOR_PACKAGE_FEATURES);
+
+    public static final List<String> QUERY_REGIONS = List.of(
+            QUERY_CATEGORIES, QUERY_LOCATIONS, QUERY_PACKAGES, DEFAULT_QUERY_RESULTS);
+
+    private ReferenceDataCache() {
+    }
+}
@@ -0,0 +1,115 @@
+package com.itech.itech_backend.modules.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@code /actuator/l2cache}: per-region second-level cache statistics (hits, misses, hit ratio,
+ * puts, evictions and current size), read from the JCache statistics MBeans.
+ */
+@Component
+@Endpoint(id = "l2cache")
+@ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheEndpoint {
+
+    private final CacheManager cacheManager;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public SecondLevelCacheEndpoint(@Qualifier("hibernateCacheManager") CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> regions() {
+        Set<String> names = new TreeSet<>();
+        cacheManager.getCacheNames().forEach(names::add);
+
+        long hits = 0;
+        long misses = 0;
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : names) {
+            Map<String, Object> stats = regionStats(name);
+            hits += (Long) stats.get("hits");
+            misses += (Long) stats.get("misses");
+            regions.put(name, stats);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", hits);
+        response.put("misses", misses);
+        response.put("hitRatio", ratio(hits, misses));
+        response.put("regions", regions);
+        return response;
+    }
+
+    @ReadOperation
+    public Map<String, Object> region(@Selector String name) {
+        if (cacheManager.getCache(name) == null) {
+            return null;
+        }
+        return regionStats(name);
+    }
+
+    private Map<String, Object> regionStats(String name) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        CacheStatisticsMXBean statistics = statistics(name);
+        long hits = statistics != null ? statistics.getCacheHits() : 0;
+        long misses = statistics != null ? statistics.getCacheMisses() : 0;
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", ratio(hits, misses));
+        stats.put("puts", statistics != null ? statistics.getCachePuts() : 0L);
+        stats.put("evictions", statistics != null ? statistics.getCacheEvictions() : 0L);
+        stats.put("removals", statistics != null ? statistics.getCacheRemovals() : 0L);
+        stats.put("size", size(name));
+        return stats;
+    }
+
+    private CacheStatisticsMXBean statistics(String name) {
+        try {
+            ObjectName objectName = new ObjectName("javax.cache:type=CacheStatistics"
+                    + ",CacheManager=" + sanitize(cacheManager.getURI().toString())
+                    + ",Cache=" + sanitize(name));
+            if (!mBeanServer.isRegistered(objectName)) {
+                return null;
+            }
+            return JMX.newMXBeanProxy(mBeanServer, objectName, CacheStatisticsMXBean.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private long size(String name) {
+        try {
+            return cacheManager.getCache(name).unwrap(Cache.class).estimatedSize();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : Math.round(hits * 10_000.0 / lookups) / 10_000.0;
+    }
+
+    // Same escaping the JCache providers apply when registering their MBeans
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replaceAll("[,:=\n]", ".");
+    }
+}
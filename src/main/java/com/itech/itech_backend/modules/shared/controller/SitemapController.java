@@ -0,0 +1,104 @@
+package com.itech.itech_backend.modules.shared.controller;
+
+import com.itech.itech_backend.modules.shared.seo.SitemapService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Sitemap index and shards for crawlers, served from the files written by {@link SitemapService}.
+ *
+ * Shards are addressed by versioned names whose content never changes, so they are cached for
+ * good; a request for another version of a shard is redirected to the current one. The index
+ * stays at {@code /sitemap.xml} with a short cache and is served from its current versioned file.
+ *
+ * On Tomcat the file is handed to the connector's sendfile support, so its bytes go from the
+ * page cache to the socket without passing through the JVM; elsewhere it is copied with
+ * {@link FileChannel#transferTo}.
+ */
+@RestController
+@RequiredArgsConstructor
+public class SitemapController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String INDEX_CACHE = "public, max-age=3600";
+    private static final String SHARD_CACHE = "public, max-age=31536000, immutable";
+
+    private final SitemapService sitemapService;
+
+    @GetMapping("/sitemap.xml")
+    public void getIndex(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(sitemapService.index(), MediaType.APPLICATION_XML_VALUE, INDEX_CACHE, request, response);
+    }
+
+    @GetMapping("/sitemaps/{name:.+}")
+    public void getShard(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = sitemapService.file(name);
+        if (file == null) {
+            String current = sitemapService.currentFile(name);
+            if (current != null) {
+                // Relative, so it resolves under whatever prefix the shard was requested at
+                response.sendRedirect(current);
+                return;
+            }
+        }
+        send(file, "application/gzip", SHARD_CACHE, request, response);
+    }
+
+    private static void send(Path file, String contentType, String cacheControl, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = file != null ? Files.readAttributes(file, BasicFileAttributes.class) : null;
+        } catch (NoSuchFileException e) {
+            // Removed by a generation run since it was looked up, which the retention makes unlikely
+            attributes = null;
+        }
+        if (attributes == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(attributes.lastModifiedTime().toMillis())) {
+            return;
+        }
+        long length = attributes.size();
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file once the handler returns; it requires the canonical path
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+}
@@ -13,6 +13,9 @@ public class CartDto {
     private Long userId;
     private List<CartItemDto> items;
     private double totalAmount;
+    private double shippingAmount;
+    private double taxAmount;
+    private double grandTotal;
     private int totalItems;
     
     @Data
@@ -20,7 +23,7 @@ public class CartDto {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class CartItemDto {
-        private Long id;
+        private Long id; // Same as productId; a cart holds one line per product
         private Long productId;
         private String productName;
         private String productImage;
@@ -1,5 +1,6 @@
 package com.itech.itech_backend.modules.shared.dto;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
 @Getter
@@ -9,6 +10,7 @@ import lombok.*;
 @Builder
 public class ChatbotRequestDto {
     
+    @NotBlank(message = "Message is required")
     private String message;
     private String sessionId; // To maintain conversation context
     private String userIp;    // Optional: for tracking
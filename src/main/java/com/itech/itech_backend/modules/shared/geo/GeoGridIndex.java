@@ -0,0 +1,283 @@
+package com.itech.itech_backend.modules.shared.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index over a fixed lat/lng grid.
+ *
+ * Points are bucketed into square cells of {@code cellDegrees}. A radius query only visits
+ * the cells overlapping the query's bounding box, checks the box before computing the
+ * haversine distance, and returns hits nearest first. k-nearest queries widen the radius
+ * until k hits are inside it, so the answer is exact.
+ *
+ * Reads are lock-free: each cell publishes an immutable array that writers replace while
+ * holding the cell's map slot. Writes for the same id are serialised through the id map.
+ */
+public class GeoGridIndex<T> {
+
+    private static final double MAX_RADIUS_KM = Math.PI * GeoMath.EARTH_RADIUS_KM;
+    private static final Comparator<GeoHit<?>> NEAREST_FIRST = Comparator.comparingDouble(GeoHit::distanceKm);
+
+    private final double cellDegrees;
+    private final long lngCells;
+    private final double cellKm;
+    private final Map<Long, Cell<T>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Entry<T>> byId = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("cellDegrees must be in (0, 90]");
+        }
+        this.cellDegrees = cellDegrees;
+        this.lngCells = (long) Math.ceil(360.0 / cellDegrees) + 1;
+        this.cellKm = cellDegrees * GeoMath.KM_PER_DEGREE_LAT;
+    }
+
+    /**
+     * Insert or move a point. Invalid coordinates remove the id from the index.
+     */
+    public void put(long id, Double lat, Double lng, T value) {
+        if (!GeoMath.isValid(lat, lng)) {
+            remove(id);
+            return;
+        }
+        Entry<T> entry = new Entry<>(id, lat, lng, value, cellKey(lat, lng));
+        byId.compute(id, (key, previous) -> {
+            if (previous != null) {
+                detach(previous);
+            }
+            cells.compute(entry.cellKey, (k, cell) -> {
+                Cell<T> target = cell != null ? cell : new Cell<>();
+                target.add(entry);
+                return target;
+            });
+            return entry;
+        });
+    }
+
+    public void remove(long id) {
+        byId.computeIfPresent(id, (key, previous) -> {
+            detach(previous);
+            return null;
+        });
+    }
+
+    public T get(long id) {
+        Entry<T> entry = byId.get(id);
+        return entry != null ? entry.value : null;
+    }
+
+    public boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void clear() {
+        byId.clear();
+        cells.clear();
+    }
+
+    /**
+     * Points within {@code radiusKm} of the centre that pass {@code filter}, nearest first,
+     * truncated to {@code limit}.
+     */
+    public List<GeoHit<T>> withinRadius(double lat, double lng, double radiusKm, Predicate<? super T> filter, int limit) {
+        if (radiusKm < 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        GeoMath.BoundingBox box = GeoMath.boundingBox(lat, lng, radiusKm);
+        long minLatCell = latIndex(box.minLat());
+        long maxLatCell = latIndex(box.maxLat());
+        long minLngCell = lngIndex(box.minLng());
+        long maxLngCell = lngIndex(box.maxLng());
+        // A box across the antimeridian is two column ranges, one at each edge of the grid
+        long lngColumns = box.wrapsLongitude()
+                ? (lngIndex(180.0) - minLngCell + 1) + (maxLngCell - lngIndex(-180.0) + 1)
+                : maxLngCell - minLngCell + 1;
+
+        Collector<T> collector = new Collector<>(lat, lng, radiusKm, box, filter, limit);
+        long boxCells = (maxLatCell - minLatCell + 1) * lngColumns;
+        if (boxCells > cells.size()) {
+            // Wide query over a sparse grid: cheaper to walk the occupied cells
+            for (Cell<T> cell : cells.values()) {
+                collector.scan(cell.entries);
+            }
+        } else if (box.wrapsLongitude()) {
+            scanCells(collector, minLatCell, maxLatCell, minLngCell, lngIndex(180.0));
+            scanCells(collector, minLatCell, maxLatCell, lngIndex(-180.0), maxLngCell);
+        } else {
+            scanCells(collector, minLatCell, maxLatCell, minLngCell, maxLngCell);
+        }
+        return collector.result();
+    }
+
+    private void scanCells(Collector<T> collector, long minLatCell, long maxLatCell, long minLngCell, long maxLngCell) {
+        for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (long lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                Cell<T> cell = cells.get(latCell * lngCells + lngCell);
+                if (cell != null) {
+                    collector.scan(cell.entries);
+                }
+            }
+        }
+    }
+
+    public List<GeoHit<T>> withinRadius(double lat, double lng, double radiusKm) {
+        return withinRadius(lat, lng, radiusKm, value -> true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The {@code k} points nearest to the centre that pass {@code filter}, nearest first
+     */
+    public List<GeoHit<T>> nearest(double lat, double lng, int k, Predicate<? super T> filter) {
+        if (k <= 0 || byId.isEmpty()) {
+            return Collections.emptyList();
+        }
+        double radius = cellKm;
+        while (true) {
+            List<GeoHit<T>> hits = withinRadius(lat, lng, radius, filter, k);
+            // Every point closer than the k-th hit lies inside the radius, so k hits are final
+            if (hits.size() >= k || radius >= MAX_RADIUS_KM) {
+                return hits;
+            }
+            radius = Math.min(radius * 2, MAX_RADIUS_KM);
+        }
+    }
+
+    public List<GeoHit<T>> nearest(double lat, double lng, int k) {
+        return nearest(lat, lng, k, value -> true);
+    }
+
+    private void detach(Entry<T> entry) {
+        cells.computeIfPresent(entry.cellKey, (k, cell) -> cell.remove(entry) == 0 ? null : cell);
+    }
+
+    private long cellKey(double lat, double lng) {
+        return latIndex(lat) * lngCells + lngIndex(lng);
+    }
+
+    private long latIndex(double lat) {
+        return (long) Math.floor((lat + 90.0) / cellDegrees);
+    }
+
+    private long lngIndex(double lng) {
+        return (long) Math.floor((lng + 180.0) / cellDegrees);
+    }
+
+    private static final class Entry<T> {
+        private final long id;
+        private final double lat;
+        private final double lng;
+        private final T value;
+        private final long cellKey;
+
+        private Entry(long id, double lat, double lng, T value, long cellKey) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.value = value;
+            this.cellKey = cellKey;
+        }
+    }
+
+    private static final class Cell<T> {
+        private volatile Entry<T>[] entries = newEntries(0);
+
+        @SuppressWarnings("unchecked")
+        private static <T> Entry<T>[] newEntries(int length) {
+            return (Entry<T>[]) new Entry<?>[length];
+        }
+
+        private void add(Entry<T> entry) {
+            Entry<T>[] current = entries;
+            Entry<T>[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = entry;
+            entries = next;
+        }
+
+        private int remove(Entry<T> entry) {
+            Entry<T>[] current = entries;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == entry) {
+                    Entry<T>[] next = newEntries(current.length - 1);
+                    System.arraycopy(current, 0, next, 0, i);
+                    System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                    entries = next;
+                    return next.length;
+                }
+            }
+            return current.length;
+        }
+    }
+
+    /**
+     * Keeps the best {@code limit} hits in a max-heap so large result sets are never fully sorted
+     */
+    private static final class Collector<T> {
+        private final double lat;
+        private final double lng;
+        private final double radiusKm;
+        private final GeoMath.BoundingBox box;
+        private final Predicate<? super T> filter;
+        private final int limit;
+        private final PriorityQueue<GeoHit<T>> heap;
+        private final List<GeoHit<T>> all;
+
+        private Collector(double lat, double lng, double radiusKm, GeoMath.BoundingBox box,
+                          Predicate<? super T> filter, int limit) {
+            this.lat = lat;
+            this.lng = lng;
+            this.radiusKm = radiusKm;
+            this.box = box;
+            this.filter = filter;
+            this.limit = limit;
+            boolean bounded = limit < 4096;
+            this.heap = bounded ? new PriorityQueue<>(limit, NEAREST_FIRST.reversed()) : null;
+            this.all = bounded ? null : new ArrayList<>();
+        }
+
+        private void scan(Entry<T>[] entries) {
+            for (Entry<T> entry : entries) {
+                if (!box.contains(entry.lat, entry.lng)) {
+                    continue;
+                }
+                double distance = GeoMath.distanceKm(lat, lng, entry.lat, entry.lng);
+                if (!GeoMath.isWithin(distance, radiusKm)) {
+                    continue;
+                }
+                if (heap != null && heap.size() == limit && distance >= heap.peek().distanceKm()) {
+                    continue;
+                }
+                if (!filter.test(entry.value)) {
+                    continue;
+                }
+                GeoHit<T> hit = new GeoHit<>(entry.id, entry.value, distance);
+                if (heap != null) {
+                    heap.add(hit);
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                } else {
+                    all.add(hit);
+                }
+            }
+        }
+
+        private List<GeoHit<T>> result() {
+            List<GeoHit<T>> hits = heap != null ? new ArrayList<>(heap) : all;
+            hits.sort(NEAREST_FIRST);
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        }
+    }
+}
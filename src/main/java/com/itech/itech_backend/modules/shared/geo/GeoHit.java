@@ -0,0 +1,7 @@
+package com.itech.itech_backend.modules.shared.geo;
+
+/**
+ * A point returned from a geo query together with its distance from the query centre
+ */
+public record GeoHit<T>(long id, T value, double distanceKm) {
+}
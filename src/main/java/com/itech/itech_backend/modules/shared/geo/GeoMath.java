@@ -0,0 +1,93 @@
+package com.itech.itech_backend.modules.shared.geo;
+
+/**
+ * Great-circle helpers shared by the in-memory index and the SQL prefilters.
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    // Must match the haversine radius, or bounding boxes come out smaller than the circle
+    public static final double KM_PER_DEGREE_LAT = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+    // Absorb rounding so a point exactly on the circle is neither cut off by the box nor
+    // rejected by the distance check
+    private static final double BOX_PADDING_DEGREES = 1e-9;
+    private static final double DISTANCE_TOLERANCE_KM = 1e-9;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Haversine distance in kilometres
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Whether a haversine distance falls inside the radius, counting points on the circle
+     */
+    public static boolean isWithin(double distanceKm, double radiusKm) {
+        return distanceKm <= radiusKm + DISTANCE_TOLERANCE_KM;
+    }
+
+    /**
+     * Smallest lat/lng box that contains every point within {@code radiusKm} of the centre.
+     * A box that crosses the antimeridian has {@code minLng > maxLng}; a circle that reaches
+     * a pole spans every longitude.
+     */
+    public static BoundingBox boundingBox(double lat, double lng, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius) + BOX_PADDING_DEGREES;
+        double minLat = lat - latDelta;
+        double maxLat = lat + latDelta;
+        if (minLat <= -90.0 || maxLat >= 90.0) {
+            return new BoundingBox(Math.max(-90.0, minLat), Math.min(90.0, maxLat), -180.0, 180.0);
+        }
+        // Widest longitude reached by the circle, at the latitude where it touches the meridians
+        double lngDelta = Math.toDegrees(Math.asin(Math.min(1.0, Math.sin(angularRadius) / Math.cos(Math.toRadians(lat)))))
+                + BOX_PADDING_DEGREES;
+        double minLng = lng - lngDelta;
+        double maxLng = lng + lngDelta;
+        if (minLng < -180.0) {
+            minLng += 360.0;
+        }
+        if (maxLng > 180.0) {
+            maxLng -= 360.0;
+        }
+        return new BoundingBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    public static boolean isValid(Double lat, Double lng) {
+        return lat != null && lng != null
+                && lat >= -90.0 && lat <= 90.0
+                && lng >= -180.0 && lng <= 180.0;
+    }
+
+    public record BoundingBox(double minLat, double maxLat, double minLng, double maxLng) {
+
+        public boolean wrapsLongitude() {
+            return minLng > maxLng;
+        }
+
+        public boolean contains(double lat, double lng) {
+            if (lat < minLat || lat > maxLat) {
+                return false;
+            }
+            return wrapsLongitude() ? lng >= minLng || lng <= maxLng : lng >= minLng && lng <= maxLng;
+        }
+
+        /**
+         * This box as a single longitude range for {@code BETWEEN} prefilters: a box that
+         * crosses the antimeridian is widened to every longitude
+         */
+        public BoundingBox asRange() {
+            return wrapsLongitude() ? new BoundingBox(minLat, maxLat, -180.0, 180.0) : this;
+        }
+    }
+}
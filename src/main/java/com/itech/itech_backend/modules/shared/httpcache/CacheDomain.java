@@ -0,0 +1,43 @@
+package com.itech.itech_backend.modules.shared.httpcache;
+
+import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.Review;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.category.model.Category;
+import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+
+import java.util.List;
+
+/**
+ * Groups of data behind cached responses. A response's ETag is built from the versions of the
+ * groups it reads, and a committed change to any of a group's entities bumps that group.
+ */
+public enum CacheDomain {
+
+    /** Product cards: products, their vendors and the reviews behind their ratings */
+    PRODUCTS("P", List.of(Product.class, Vendors.class, Review.class)),
+
+    /** Admin and buyer category trees */
+    CATEGORIES("C", List.of(Category.class, com.itech.itech_backend.modules.buyer.model.Category.class,
+            SubCategory.class, MicroCategory.class)),
+
+    CITIES("L", List.of(City.class));
+
+    private final String tag;
+    private final List<Class<?>> entities;
+
+    CacheDomain(String tag, List<Class<?>> entities) {
+        this.tag = tag;
+        this.entities = entities;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    public List<Class<?>> entities() {
+        return entities;
+    }
+}
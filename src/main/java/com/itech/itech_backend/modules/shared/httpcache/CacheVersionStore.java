@@ -0,0 +1,252 @@
+package com.itech.itech_backend.modules.shared.httpcache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Version counters of the {@link CacheDomain}s, the source of HTTP cache validators.
+ *
+ * Counters live in {@code cache_versions} so every node derives the same ETag from the same
+ * data. A committed Hibernate change to an entity of a domain bumps the domain's row once per
+ * transaction, right after the commit, and this node sees the new version at once. Other nodes
+ * pick it up with {@link #sync()}, so their validators lag by at most the sync interval. Writers
+ * that bypass Hibernate (bulk JDBC) call {@link #changed} themselves.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "http.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheVersionStore implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    /**
+     * Versions as read from the table; {@code changedAt} is epoch millis of the last bump
+     */
+    public record Versions(Map<CacheDomain, Long> versions, Map<CacheDomain, Long> changedAt) {
+
+        public long version(CacheDomain domain) {
+            return versions.getOrDefault(domain, 0L);
+        }
+
+        /**
+         * Strong ETag of a response that reads the given domains
+         */
+        public String etag(Collection<CacheDomain> domains) {
+            StringBuilder etag = new StringBuilder(2 + 8 * domains.size()).append('"');
+            for (CacheDomain domain : domains) {
+                if (etag.length() > 1) {
+                    etag.append('-');
+                }
+                etag.append(domain.tag()).append(version(domain));
+            }
+            return etag.append('"').toString();
+        }
+
+        public long lastModified(Collection<CacheDomain> domains) {
+            long lastModified = 0;
+            for (CacheDomain domain : domains) {
+                lastModified = Math.max(lastModified, changedAt.getOrDefault(domain, 0L));
+            }
+            return lastModified;
+        }
+    }
+
+    private static final String BUMP_SQL = "UPDATE cache_versions SET version = version + 1, updated_at = ? WHERE domain = ?";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final Map<Class<?>, CacheDomain> domainsByEntity = new HashMap<>();
+
+    // Null until the table has been read once; validators are not issued before that
+    private volatile Versions current;
+
+    public CacheVersionStore(EntityManagerFactory entityManagerFactory,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (CacheDomain domain : CacheDomain.values()) {
+            domain.entities().forEach(entity -> domainsByEntity.put(entity, domain));
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    // ================ READS ================
+
+    /**
+     * Current versions, reading the table on first use; null if it cannot be read
+     */
+    public Versions current() {
+        Versions versions = current;
+        if (versions == null) {
+            sync();
+            versions = current;
+        }
+        return versions;
+    }
+
+    /**
+     * Re-read all counters, picking up bumps made by other nodes
+     */
+    @Scheduled(fixedDelayString = "${http.cache.version-sync-ms:2000}")
+    public void sync() {
+        try {
+            Map<CacheDomain, Long> versions = new EnumMap<>(CacheDomain.class);
+            Map<CacheDomain, Long> changedAt = new EnumMap<>(CacheDomain.class);
+            jdbcTemplate.query("SELECT domain, version, updated_at FROM cache_versions", rs -> {
+                CacheDomain domain = domain(rs.getString("domain"));
+                if (domain != null) {
+                    versions.put(domain, rs.getLong("version"));
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    changedAt.put(domain, updatedAt != null ? updatedAt.getTime() : 0L);
+                }
+            });
+            current = new Versions(versions, changedAt);
+        } catch (RuntimeException e) {
+            log.warn("Could not read cache versions: {}", e.getMessage());
+        }
+    }
+
+    // ================ CHANGES ================
+
+    /**
+     * Data of a domain changed; its version is bumped once the current transaction commits
+     */
+    public void changed(CacheDomain domain) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(EnumSet.of(domain));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<CacheDomain> pending = (Set<CacheDomain>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<CacheDomain> domains = EnumSet.noneOf(CacheDomain.class);
+            TransactionSynchronizationManager.bindResource(this, domains);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(domains);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheVersionStore.this);
+                }
+            });
+            pending = domains;
+        }
+        pending.add(domain);
+    }
+
+    private void bump(Set<CacheDomain> domains) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (CacheDomain domain : domains) {
+                    if (jdbcTemplate.update(BUMP_SQL, now, domain.name()) == 0) {
+                        insert(domain, now);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Validators stay on the old version until the next successful bump
+            log.warn("Could not bump cache versions {}: {}", domains, e.getMessage());
+        }
+        sync();
+    }
+
+    private void insert(CacheDomain domain, Timestamp now) {
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO cache_versions (domain, version, updated_at) VALUES (?, 1, ?)", domain.name(), now));
+        } catch (DuplicateKeyException e) {
+            // Another node created the row first
+            jdbcTemplate.update(BUMP_SQL, now, domain.name());
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return domainsByEntity.containsKey(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void changed(EntityPersister persister) {
+        CacheDomain domain = domainsByEntity.get(persister.getMappedClass());
+        if (domain != null) {
+            changed(domain);
+        }
+    }
+
+    private static CacheDomain domain(String name) {
+        try {
+            return CacheDomain.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.itech.itech_backend.modules.shared.httpcache;
+
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheInterceptor.Validators;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the validators chosen by {@link HttpCacheInterceptor} to successful responses of
+ * {@link HttpCacheable} handlers, and marks them for the {@link RenderedResponseCache}. Error
+ * responses of those handlers go out without validators, so they are never revalidated into a
+ * 304.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "http.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HttpCacheHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        if (!(httpRequest.getAttribute(HttpCacheInterceptor.VALIDATORS_ATTRIBUTE) instanceof Validators validators)
+                || servletResponse.getServletResponse().getStatus() != 200) {
+            return body;
+        }
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(validators.etag());
+        headers.setCacheControl(validators.policy().cacheControl());
+        if (validators.lastModified() > 0) {
+            headers.setLastModified(validators.lastModified());
+        }
+        if (validators.policy().cacheBody()) {
+            httpRequest.setAttribute(RenderedResponseCache.STORE_ATTRIBUTE, validators);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,137 @@
+package com.itech.itech_backend.modules.shared.httpcache;
+
+import com.itech.itech_backend.modules.shared.httpcache.CacheVersionStore.Versions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers conditional and repeated requests to {@link HttpCacheable} handlers before the
+ * handler runs.
+ *
+ * The validators are taken from {@link CacheVersionStore} before the handler reads any data,
+ * so a response is never labelled with a version newer than what it contains. When a request's
+ * {@code If-None-Match} or {@code If-Modified-Since} still matches, a 304 is sent; otherwise a
+ * body rendered for the same URL and ETag is replayed from the {@link RenderedResponseCache}.
+ * Anything else proceeds to the handler, and {@link HttpCacheHeadersAdvice} adds the headers to
+ * its successful response.
+ */
+public class HttpCacheInterceptor implements HandlerInterceptor {
+
+    static final String VALIDATORS_ATTRIBUTE = HttpCacheInterceptor.class.getName() + ".validators";
+
+    /**
+     * A handler's cache policy, resolved once from its annotation
+     */
+    record Policy(List<CacheDomain> domains, String cacheControl, boolean cacheBody) {
+
+        static final Policy NONE = new Policy(List.of(), null, false);
+
+        static Policy of(HttpCacheable annotation) {
+            if (annotation == null) {
+                return NONE;
+            }
+            CacheControl cacheControl = CacheControl.maxAge(annotation.maxAge(), TimeUnit.SECONDS).cachePublic();
+            if (annotation.staleWhileRevalidate() > 0) {
+                cacheControl = cacheControl.staleWhileRevalidate(annotation.staleWhileRevalidate(), TimeUnit.SECONDS);
+            }
+            if (annotation.sharedMaxAge() >= 0) {
+                cacheControl = cacheControl.sMaxAge(annotation.sharedMaxAge(), TimeUnit.SECONDS);
+            }
+            return new Policy(List.of(annotation.value()), cacheControl.getHeaderValue(), annotation.cacheBody());
+        }
+    }
+
+    /**
+     * What a response of this request is labelled with
+     */
+    record Validators(Policy policy, String etag, long lastModified) {
+
+        void writeTo(HttpServletResponse response) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, policy.cacheControl());
+            if (lastModified > 0) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+            }
+        }
+    }
+
+    private final CacheVersionStore versionStore;
+    private final RenderedResponseCache responseCache;
+    private final Map<Method, Policy> policies = new ConcurrentHashMap<>();
+
+    public HttpCacheInterceptor(CacheVersionStore versionStore, RenderedResponseCache responseCache) {
+        this.versionStore = versionStore;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method) || !isRead(request)) {
+            return true;
+        }
+        Policy policy = policies.computeIfAbsent(method.getMethod(),
+                m -> Policy.of(AnnotatedElementUtils.findMergedAnnotation(m, HttpCacheable.class)));
+        if (policy == Policy.NONE) {
+            return true;
+        }
+        Versions versions = versionStore.current();
+        if (versions == null) {
+            return true;
+        }
+        Validators validators = new Validators(policy, versions.etag(policy.domains()), versions.lastModified(policy.domains()));
+        request.setAttribute(VALIDATORS_ATTRIBUTE, validators);
+
+        if (notModified(request, validators)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            validators.writeTo(response);
+            return false;
+        }
+        if (policy.cacheBody() && responseCache != null && responseCache.replay(request, response, validators)) {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private static boolean notModified(HttpServletRequest request, Validators validators) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // Weak comparison, as RFC 9110 asks for If-None-Match
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals(validators.etag()) || tag.equals("*")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (validators.lastModified() <= 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && validators.lastModified() / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.itech.itech_backend.modules.shared.httpcache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on its URL and the given data groups.
+ *
+ * The response gets a strong ETag built from the groups' versions, a Last-Modified of their
+ * latest change and a Cache-Control header from this policy. A request whose
+ * {@code If-None-Match} (or {@code If-Modified-Since}) still matches is answered with 304 before
+ * the handler runs; with the rendered-response cache on, a repeat request for the same URL is
+ * answered with the stored bytes. Only for handlers whose output is the same for every caller.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HttpCacheable {
+
+    CacheDomain[] value();
+
+    /** Seconds a client or CDN may use the response without revalidating */
+    long maxAge() default 60;
+
+    /** Seconds a stale response may still be served while it is revalidated in the background */
+    long staleWhileRevalidate() default 300;
+
+    /** Shared-cache (CDN) lifetime in seconds; negative leaves it to {@link #maxAge()} */
+    long sharedMaxAge() default -1;
+
+    /** Whether the rendered body may be kept in the in-process response cache */
+    boolean cacheBody() default true;
+}
@@ -0,0 +1,203 @@
+package com.itech.itech_backend.modules.shared.httpcache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheInterceptor.Validators;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process cache of rendered {@link HttpCacheable} responses, keyed by URL and Accept header
+ * and tagged with the ETag they were rendered under.
+ *
+ * As a filter it copies the body of a GET response while it is written, if
+ * {@link HttpCacheHeadersAdvice} marked the response as cacheable; other responses pass through
+ * unbuffered. {@link HttpCacheInterceptor} replays an entry only while its ETag is still current,
+ * so a version bump makes every older entry unreachable without an explicit purge; they age out
+ * of the size-bounded cache.
+ */
+public class RenderedResponseCache extends OncePerRequestFilter {
+
+    static final String STORE_ATTRIBUTE = RenderedResponseCache.class.getName() + ".store";
+
+    public record Stats(long hits, long stores, long entries, long bytes) {}
+
+    private record Rendered(String etag, String contentType, byte[] body) {}
+
+    private final Cache<String, Rendered> responses;
+    private final int maxEntryBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public RenderedResponseCache(long maxBytes, int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Rendered rendered) -> key.length() + rendered.body().length)
+                .build();
+    }
+
+    /**
+     * Write the stored response for this request if it was rendered under the current ETag
+     */
+    boolean replay(HttpServletRequest request, HttpServletResponse response, Validators validators) throws IOException {
+        Rendered rendered = responses.getIfPresent(key(request));
+        if (rendered == null || !rendered.etag().equals(validators.etag())) {
+            return false;
+        }
+        hits.increment();
+        validators.writeTo(response);
+        response.setContentType(rendered.contentType());
+        response.setContentLength(rendered.body().length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(rendered.body());
+        }
+        return true;
+    }
+
+    public Stats stats() {
+        long bytes = responses.asMap().values().stream().mapToLong(rendered -> rendered.body().length).sum();
+        return new Stats(hits.sum(), stores.sum(), responses.estimatedSize(), bytes);
+    }
+
+    public void clear() {
+        responses.invalidateAll();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CapturingResponse capturing = new CapturingResponse(request, response, maxEntryBytes);
+        chain.doFilter(request, capturing);
+
+        byte[] body = capturing.captured();
+        if (body != null && request.getAttribute(STORE_ATTRIBUTE) instanceof Validators validators
+                && response.getStatus() == HttpServletResponse.SC_OK && response.getContentType() != null) {
+            responses.put(key(request), new Rendered(validators.etag(), response.getContentType(), body));
+            stores.increment();
+        }
+    }
+
+    private static String key(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI() + (query != null ? "?" + query : "") + "|" + (accept != null ? accept : "");
+    }
+
+    /**
+     * Copies the body into memory as it is written, but only once the response has been marked
+     * for caching and only up to the entry limit
+     */
+    private static final class CapturingResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final int limit;
+        private TeeOutputStream tee;
+        private boolean abandoned;
+
+        CapturingResponse(HttpServletRequest request, HttpServletResponse response, int limit) {
+            super(response);
+            this.request = request;
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (tee != null) {
+                return tee;
+            }
+            if (abandoned || request.getAttribute(STORE_ATTRIBUTE) == null) {
+                abandoned = true;
+                return super.getOutputStream();
+            }
+            tee = new TeeOutputStream(super.getOutputStream(), limit);
+            return tee;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            abandoned = true;
+            return super.getWriter();
+        }
+
+        byte[] captured() {
+            return tee != null && !abandoned ? tee.copy() : null;
+        }
+    }
+
+    private static final class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream(8192);
+
+        TeeOutputStream(ServletOutputStream target, int limit) {
+            this.target = target;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+
+        byte[] copy() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+    }
+}
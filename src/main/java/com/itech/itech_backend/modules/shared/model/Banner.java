@@ -32,6 +32,13 @@ public class Banner {
     @Column(nullable = false)
     private String position; // HOMEPAGE, CATEGORY, PRODUCT
 
+    // Comma-separated buyer category ids and city names; empty means shown everywhere
+    @Column(length = 500)
+    private String targetCategoryIds;
+
+    @Column(length = 500)
+    private String targetCities;
+
     @Builder.Default
     private boolean isActive = true;
 
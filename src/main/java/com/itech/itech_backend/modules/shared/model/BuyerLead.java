@@ -9,7 +9,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "buyer_leads")
+@Table(name = "buyer_leads",
+       indexes = {
+           @Index(name = "idx_buyer_leads_rep_status_created", columnList = "assigned_sales_rep, status, created_at"),
+           @Index(name = "idx_buyer_leads_source_status_created", columnList = "source, status, created_at"),
+           @Index(name = "idx_buyer_leads_created", columnList = "created_at"),
+           @Index(name = "idx_buyer_leads_status_score", columnList = "status, lead_score")
+       })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -80,6 +86,16 @@ public class BuyerLead {
     @Builder.Default
     private Integer leadScore = 0;
 
+    // Manual correction applied on top of the computed score by the re-scorer
+    @Column(name = "score_adjustment")
+    @Builder.Default
+    private Integer scoreAdjustment = 0;
+
+    // Set when inputs to the score change; cleared by LeadRescoringJob
+    @Column(name = "score_stale")
+    @Builder.Default
+    private Boolean scoreStale = true;
+
     @Column(name = "assigned_sales_rep")
     private String assignedSalesRep;
 
@@ -0,0 +1,28 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change counter of one group of cached responses, bumped after every committed change to an
+ * entity of the group and read by all nodes to build ETags. See {@code CacheVersionStore}.
+ */
+@Entity
+@Table(name = "cache_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheVersion {
+
+    @Id
+    @Column(length = 50)
+    private String domain;
+
+    private long version;
+
+    private LocalDateTime updatedAt;
+}
@@ -27,6 +27,13 @@ public class Campaign {
     @Column(nullable = false)
     private String type; // EMAIL, SMS, BANNER, SOCIAL
 
+    // Comma-separated buyer category ids and city names; empty means shown everywhere
+    @Column(length = 500)
+    private String targetCategoryIds;
+
+    @Column(length = 500)
+    private String targetCities;
+
     private LocalDateTime startDate;
     private LocalDateTime endDate;
 
@@ -0,0 +1,32 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named lease held by one node at a time for cluster-wide jobs; free once {@code lockedUntil}
+ * has passed. See {@code ClusterLock}.
+ */
+@Entity
+@Table(name = "cluster_locks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClusterLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime lockedAt;
+
+    @Column(length = 255)
+    private String lockedBy;
+}
@@ -0,0 +1,51 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Impressions and clicks of one banner or campaign within one hour, starting at
+ * {@code bucketStart}. Written in batches by {@code ContentServingService}.
+ */
+@Entity
+@Table(name = "content_stat_buckets")
+@IdClass(ContentStatBucket.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentStatBucket {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", length = 20)
+    private ContentSubjectType subjectType;
+
+    @Id
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    private long impressions;
+
+    private long clicks;
+
+    private LocalDateTime updatedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private ContentSubjectType subjectType;
+        private Long subjectId;
+        private LocalDateTime bucketStart;
+    }
+}
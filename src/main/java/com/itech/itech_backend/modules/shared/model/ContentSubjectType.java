@@ -0,0 +1,9 @@
+package com.itech.itech_backend.modules.shared.model;
+
+/**
+ * What a row of {@code content_stat_buckets} counts impressions and clicks for
+ */
+public enum ContentSubjectType {
+    BANNER,
+    CAMPAIGN
+}
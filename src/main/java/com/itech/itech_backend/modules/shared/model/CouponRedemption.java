@@ -0,0 +1,38 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One granted coupon use. Written in batches by {@code CouponRedemptionService}; the unique
+ * (coupon, user) pair is the cross-node guard against a user redeeming a code twice.
+ */
+@Entity
+@Table(name = "coupon_redemptions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_coupon_redemptions_coupon_user", columnNames = {"coupon_id", "user_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CouponRedemption {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Long couponId;
+
+    // Null for anonymous redemptions, which are not deduplicated
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(length = 100)
+    private String reference;
+
+    @Column(nullable = false)
+    private LocalDateTime redeemedAt;
+}
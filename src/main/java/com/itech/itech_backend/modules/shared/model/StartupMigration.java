@@ -0,0 +1,52 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger entry for a deferred startup task. One-time tasks that reached COMPLETED are
+ * never run again; a RUNNING row is the claim that keeps two booting nodes from running
+ * the same task.
+ */
+@Entity
+@Table(name = "startup_migrations",
+    uniqueConstraints = @UniqueConstraint(name = "uk_startup_migrations_name", columnNames = "name"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StartupMigration {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "rows_affected")
+    private Integer rowsAffected;
+
+    @Column(length = 500)
+    private String detail;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
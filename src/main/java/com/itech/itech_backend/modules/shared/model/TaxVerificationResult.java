@@ -0,0 +1,49 @@
+package com.itech.itech_backend.modules.shared.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted GST/PAN verification outcome, reused until {@code expiresAt}.
+ * Negative results (the registry reported the number as invalid) are kept for a
+ * shorter period than positive ones.
+ */
+@Entity
+@Table(name = "tax_verification_results",
+    uniqueConstraints = @UniqueConstraint(name = "uk_tax_verification_lookup",
+        columnNames = {"document_type", "lookup_type", "document_number"}),
+    indexes = @Index(name = "idx_tax_verification_expires", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaxVerificationResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_type", nullable = false, length = 10)
+    private String documentType; // GST, PAN
+
+    @Column(name = "lookup_type", nullable = false, length = 20)
+    private String lookupType; // VERIFY, DETAILS
+
+    @Column(name = "document_number", nullable = false, length = 20)
+    private String documentNumber;
+
+    @Column(name = "result_json", columnDefinition = "TEXT", nullable = false)
+    private String resultJson;
+
+    @Builder.Default
+    private boolean negative = false;
+
+    @Column(name = "checked_at", nullable = false)
+    private LocalDateTime checkedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
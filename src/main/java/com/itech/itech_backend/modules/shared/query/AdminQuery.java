@@ -0,0 +1,351 @@
+package com.itech.itech_backend.modules.shared.query;
+
+import com.itech.itech_backend.modules.shared.query.FilterSchema.SortKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs admin list queries described by a {@link FilterSchema} entirely in the database, so a
+ * screen costs one page of rows however large the table grows.
+ *
+ * {@link #seek} pages by keyset: the cursor carries the sort values and id of the last row, and
+ * the next page starts with a range predicate on those values instead of an OFFSET, so page 5,000
+ * costs the same as page 1. {@link #page} keeps offset pages for screens that still jump by page
+ * number. Totals are counted exactly up to {@code app.admin-query.count-cap}; beyond that an
+ * unfiltered total comes from the database's table statistics and a filtered one is reported as
+ * a lower bound.
+ */
+@Slf4j
+@Component
+@Transactional(readOnly = true)
+public class AdminQuery {
+
+    private static final String SEPARATOR = "\u001f";
+    private static final String NULL = "\u0000";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int countCap;
+    private final int maxPageSize;
+
+    // Entity -> statistics query for its table, or "" when the database has none
+    private final Map<Class<?>, String> statisticsQueries = new ConcurrentHashMap<>();
+
+    public AdminQuery(@Value("${app.admin-query.count-cap:10000}") int countCap,
+                      @Value("${app.admin-query.max-page-size:200}") int maxPageSize) {
+        this.countCap = countCap;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Keyset page: {@code cursor} is null or blank for the first page, then the previous page's
+     * {@code nextCursor}. {@code sort} uses the schema's sort syntax and must stay the same
+     * across pages.
+     */
+    public <T> KeysetPage<T> seek(FilterSchema<T> schema, Map<String, String> params, String sort,
+                                  String cursor, int size) {
+        int limit = pageSize(size);
+        List<SortKey> keys = schema.resolveSort(sort);
+        String signature = signature(keys);
+        Specification<T> spec = schema.toSpecification(params);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(schema.getEntityType());
+        Root<T> root = query.from(schema.getEntityType());
+        fetch(root, schema.getFetchPaths());
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            predicates.add(after(root, cb, keys, decode(cursor, signature, keys, root)));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0])).orderBy(orders(root, cb, keys));
+
+        List<T> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        String nextCursor = hasNext ? encode(signature, keys, content.get(content.size() - 1)) : null;
+
+        Total total = total(schema, params, spec);
+        return new KeysetPage<>(content, limit, nextCursor, hasNext, total.value(), total.exact());
+    }
+
+    /**
+     * Offset page for screens that navigate by page number. Prefer {@link #seek} for deep pages:
+     * the database still reads and discards every row before the offset.
+     */
+    public <T> Page<T> page(FilterSchema<T> schema, Map<String, String> params, String sort, Pageable pageable) {
+        int limit = pageSize(pageable.getPageSize());
+        List<SortKey> keys = schema.resolveSort(sort);
+        Specification<T> spec = schema.toSpecification(params);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(schema.getEntityType());
+        Root<T> root = query.from(schema.getEntityType());
+        fetch(root, schema.getFetchPaths());
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.select(root).orderBy(orders(root, cb, keys));
+
+        List<T> content = entityManager.createQuery(query)
+                .setFirstResult((int) Math.min(pageable.getOffset(), Integer.MAX_VALUE))
+                .setMaxResults(limit)
+                .getResultList();
+        return new PageImpl<>(content, pageable, total(schema, params, spec).value());
+    }
+
+    /**
+     * Total for a filter. Exact when it is at most the count cap; otherwise the table statistics
+     * for an unfiltered query, or the cap itself as a lower bound.
+     */
+    public <T> Total total(FilterSchema<T> schema, Map<String, String> params) {
+        return total(schema, params, schema.toSpecification(params));
+    }
+
+    private <T> Total total(FilterSchema<T> schema, Map<String, String> params, Specification<T> spec) {
+        if (!schema.isFiltered(params)) {
+            Long estimate = tableEstimate(schema.getEntityType());
+            if (estimate != null && estimate > countCap) {
+                return new Total(estimate, false);
+            }
+        }
+        long counted = cappedCount(schema.getEntityType(), spec);
+        return counted > countCap ? new Total(countCap, false) : new Total(counted, true);
+    }
+
+    // SELECT COUNT(*) FROM (SELECT id ... LIMIT cap + 1): the database stops at one past the cap
+    private <T> long cappedCount(Class<T> type, Specification<T> spec) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<Long> query = cb.createQuery(Long.class);
+        JpaSubQuery<Tuple> ids = query.subquery(Tuple.class);
+        Root<T> root = ids.from(type);
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            ids.where(filter);
+        }
+        ids.multiselect(root.get(idAttribute(type)).alias("id")).fetch(countCap + 1);
+        JpaDerivedRoot<Tuple> matches = query.from(ids);
+        query.select(cb.count(matches.get("id")));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Long tableEstimate(Class<?> type) {
+        String sql = statisticsQueries.computeIfAbsent(type, this::statisticsQuery);
+        if (sql.isEmpty()) {
+            return null;
+        }
+        try {
+            Object result = entityManager.createNativeQuery(sql).getSingleResult();
+            return result instanceof Number number && number.longValue() >= 0 ? number.longValue() : null;
+        } catch (RuntimeException e) {
+            log.debug("No row estimate for {}: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String statisticsQuery(Class<?> type) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+        if (!(persister instanceof AbstractEntityPersister entityPersister)) {
+            return "";
+        }
+        String table = entityPersister.getTableName().toLowerCase(Locale.ROOT).replace("'", "");
+        String dialect = sessionFactory.getJdbcServices().getDialect().getClass().getSimpleName().toLowerCase(Locale.ROOT);
+        if (dialect.contains("postgres")) {
+            return "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = '" + table + "'";
+        }
+        if (dialect.contains("mysql") || dialect.contains("mariadb")) {
+            return "SELECT TABLE_ROWS FROM information_schema.TABLES"
+                    + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table + "'";
+        }
+        if (dialect.contains("h2")) {
+            return "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES"
+                    + " WHERE LOWER(TABLE_NAME) = '" + table + "' AND TABLE_SCHEMA = SCHEMA()";
+        }
+        return "";
+    }
+
+    private int pageSize(int requested) {
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    private static void fetch(Root<?> root, List<String> paths) {
+        for (String path : paths) {
+            FetchParent<?, ?> parent = root;
+            for (String part : path.split("\\.")) {
+                parent = existingFetch(parent, part);
+            }
+        }
+    }
+
+    private static FetchParent<?, ?> existingFetch(FetchParent<?, ?> parent, String attribute) {
+        for (Fetch<?, ?> fetch : parent.getFetches()) {
+            if (fetch.getAttribute().getName().equals(attribute)) {
+                return (FetchParent<?, ?>) fetch;
+            }
+        }
+        return (FetchParent<?, ?>) parent.fetch(attribute, JoinType.LEFT);
+    }
+
+    private List<Order> orders(Root<?> root, CriteriaBuilder cb, List<SortKey> keys) {
+        List<Order> orders = new ArrayList<>();
+        for (SortKey key : keys) {
+            Expression<?> expression = key.expression(root, cb);
+            orders.add(key.ascending() ? cb.asc(expression) : cb.desc(expression));
+        }
+        // Same direction as the last key so a single-key index serves the whole order
+        boolean idAscending = keys.isEmpty() || keys.get(keys.size() - 1).ascending();
+        Path<?> id = root.get(idAttribute(root.getJavaType()));
+        orders.add(idAscending ? cb.asc(id) : cb.desc(id));
+        return orders;
+    }
+
+    /**
+     * Rows strictly after the cursor row in sort order:
+     * {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR ... OR (k1 = v1 AND ... AND id > vid)},
+     * with {@code <} for descending keys.
+     */
+    private Predicate after(Root<?> root, CriteriaBuilder cb, List<SortKey> keys, List<Object> values) {
+        List<Expression<Comparable<Object>>> expressions = new ArrayList<>();
+        List<Boolean> ascending = new ArrayList<>();
+        for (SortKey key : keys) {
+            expressions.add(key.expression(root, cb));
+            ascending.add(key.ascending());
+        }
+        expressions.add(FilterSchema.comparablePath(root, idAttribute(root.getJavaType())));
+        ascending.add(keys.isEmpty() || keys.get(keys.size() - 1).ascending());
+
+        List<Predicate> alternatives = new ArrayList<>();
+        for (int i = 0; i < expressions.size(); i++) {
+            List<Predicate> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(cb.equal(expressions.get(j), values.get(j)));
+            }
+            Comparable<Object> value = comparable(values.get(i));
+            terms.add(ascending.get(i)
+                    ? cb.greaterThan(expressions.get(i), value)
+                    : cb.lessThan(expressions.get(i), value));
+            alternatives.add(cb.and(terms.toArray(new Predicate[0])));
+        }
+        return cb.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    private String encode(String signature, List<SortKey> keys, Object row) {
+        StringBuilder raw = new StringBuilder(signature);
+        for (SortKey key : keys) {
+            Object value = attributeValue(row, key.attribute());
+            if (value == null) {
+                value = key.nullsAs();
+            }
+            raw.append(SEPARATOR).append(value == null ? NULL : cursorValue(value));
+        }
+        raw.append(SEPARATOR).append(attributeValue(row, idAttribute(row.getClass())));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Object> decode(String cursor, String signature, List<SortKey> keys, Root<?> root) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != keys.size() + 2 || !parts[0].equals(signature)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort; start again without a cursor");
+        }
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (NULL.equals(parts[i + 1])) {
+                throw new IllegalArgumentException("Cursor sort value is null; declare a nulls-as value for "
+                        + keys.get(i).attribute());
+            }
+            Class<?> type = FilterSchema.path(root, keys.get(i).attribute(), JoinType.INNER).getJavaType();
+            values.add(FilterSchema.convert(parts[i + 1], type));
+        }
+        values.add(FilterSchema.convert(parts[parts.length - 1],
+                root.get(idAttribute(root.getJavaType())).getJavaType()));
+        return values;
+    }
+
+    private Object attributeValue(Object row, String attribute) {
+        EntityPersister persister = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(row.getClass());
+        return attribute.equals(persister.getIdentifierPropertyName())
+                ? entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(row)
+                : persister.getPropertyValue(row, attribute);
+    }
+
+    private String idAttribute(Class<?> type) {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(type).getIdentifierPropertyName();
+    }
+
+    private static String cursorValue(Object value) {
+        return value instanceof Enum<?> constant ? constant.name() : String.valueOf(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+
+    private static String signature(List<SortKey> keys) {
+        StringBuilder signature = new StringBuilder();
+        for (SortKey key : keys) {
+            signature.append(key.signature()).append(',');
+        }
+        return signature.toString();
+    }
+
+    /**
+     * A row total and whether it is exact.
+     */
+    public record Total(long value, boolean exact) {
+    }
+}
@@ -0,0 +1,329 @@
+package com.itech.itech_backend.modules.shared.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Declares which request parameters an admin list screen accepts and how each one becomes part
+ * of a JPA {@link Specification}: free-text search over several attributes, exact and
+ * case-insensitive matches, booleans, enums, date ranges and association ids. Also declares the
+ * allowed sort keys, the default order and the many-to-one paths to fetch with each page.
+ *
+ * Parameters that are not declared are ignored, so a controller can pass its whole query map.
+ * Blank values and {@code ALL} mean "no filter", matching what the admin screens send.
+ */
+public final class FilterSchema<T> {
+
+    private final Class<T> entityType;
+    private final Map<String, Function<String, Specification<T>>> filters = new LinkedHashMap<>();
+    private final Map<String, SortKey> sortKeys = new LinkedHashMap<>();
+    private final List<String> fetchPaths = new ArrayList<>();
+    private List<SortKey> defaultSort = List.of();
+
+    private FilterSchema(Class<T> entityType) {
+        this.entityType = entityType;
+    }
+
+    public static <T> FilterSchema<T> of(Class<T> entityType) {
+        return new FilterSchema<>(entityType);
+    }
+
+    /**
+     * Case-insensitive substring match of {@code param} against any of the given attributes.
+     * Dotted paths are reached through left joins so rows without the association still match.
+     */
+    public FilterSchema<T> search(String param, String... attributes) {
+        return filter(param, value -> {
+            String pattern = "%" + value.toLowerCase(Locale.ROOT) + "%";
+            return (root, query, cb) -> {
+                List<Predicate> matches = new ArrayList<>();
+                for (String attribute : attributes) {
+                    matches.add(cb.like(cb.lower(path(root, attribute, JoinType.LEFT).as(String.class)), pattern));
+                }
+                return cb.or(matches.toArray(new Predicate[0]));
+            };
+        });
+    }
+
+    /**
+     * Exact match, with the value converted to the attribute's type (numbers, booleans, enums,
+     * dates).
+     */
+    public FilterSchema<T> equal(String param, String attribute) {
+        return filter(param, value -> (root, query, cb) -> {
+            Path<?> path = path(root, attribute, JoinType.INNER);
+            return cb.equal(path, convert(value, path.getJavaType()));
+        });
+    }
+
+    public FilterSchema<T> equal(String attribute) {
+        return equal(attribute, attribute);
+    }
+
+    public FilterSchema<T> equalIgnoreCase(String param, String attribute) {
+        return filter(param, value -> (root, query, cb) ->
+                cb.equal(cb.lower(path(root, attribute, JoinType.INNER).as(String.class)), value.toLowerCase(Locale.ROOT)));
+    }
+
+    public FilterSchema<T> equalIgnoreCase(String attribute) {
+        return equalIgnoreCase(attribute, attribute);
+    }
+
+    /**
+     * Inclusive lower and upper bounds on a comparable attribute, e.g. {@code createdFrom} and
+     * {@code createdTo} on {@code createdAt}. A bare date on a timestamp attribute covers the
+     * whole day.
+     */
+    public FilterSchema<T> range(String fromParam, String toParam, String attribute) {
+        filter(fromParam, value -> (root, query, cb) -> {
+            Path<Comparable<Object>> path = comparablePath(root, attribute);
+            return cb.greaterThanOrEqualTo(path, bound(value, path.getJavaType(), false));
+        });
+        return filter(toParam, value -> (root, query, cb) -> {
+            Path<Comparable<Object>> path = comparablePath(root, attribute);
+            return cb.lessThanOrEqualTo(path, bound(value, path.getJavaType(), true));
+        });
+    }
+
+    /**
+     * Any other rule; the function receives the trimmed, non-blank value.
+     */
+    public FilterSchema<T> filter(String param, Function<String, Specification<T>> rule) {
+        filters.put(param, rule);
+        return this;
+    }
+
+    /**
+     * Allows sorting on an attribute of the entity itself. Keyset pagination compares sort
+     * values, so a nullable attribute needs the value its nulls sort as.
+     */
+    public FilterSchema<T> sortable(String attribute, Object nullsAs) {
+        if (attribute.contains(".")) {
+            throw new IllegalArgumentException("Sort keys must be attributes of " + entityType.getSimpleName());
+        }
+        sortKeys.put(attribute, new SortKey(attribute, true, nullsAs));
+        return this;
+    }
+
+    public FilterSchema<T> sortable(String... attributes) {
+        for (String attribute : attributes) {
+            sortable(attribute, null);
+        }
+        return this;
+    }
+
+    /**
+     * Default order, in {@code sort} parameter syntax ({@code displayOrder,name} or
+     * {@code -createdAt}). The id is always appended as the final tie-breaker.
+     */
+    public FilterSchema<T> defaultSort(String sort) {
+        this.defaultSort = parseSort(sort);
+        return this;
+    }
+
+    /**
+     * Many-to-one associations to fetch with each page instead of one query per row.
+     */
+    public FilterSchema<T> fetch(String... paths) {
+        Collections.addAll(fetchPaths, paths);
+        return this;
+    }
+
+    /**
+     * Builds a parameter map from alternating names and values, for services whose callers pass
+     * typed arguments; null values are left out.
+     */
+    public static Map<String, String> params(Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected name/value pairs");
+        }
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            Object value = namesAndValues[i + 1];
+            if (value != null) {
+                params.put(String.valueOf(namesAndValues[i]), String.valueOf(value));
+            }
+        }
+        return params;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    List<String> getFetchPaths() {
+        return fetchPaths;
+    }
+
+    /**
+     * Combines the rules for every declared parameter present in {@code params}.
+     */
+    public Specification<T> toSpecification(Map<String, String> params) {
+        List<Specification<T>> parts = new ArrayList<>();
+        if (params != null) {
+            filters.forEach((param, rule) -> {
+                String value = params.get(param);
+                if (value != null && !value.isBlank() && !"ALL".equalsIgnoreCase(value.trim())) {
+                    parts.add(rule.apply(value.trim()));
+                }
+            });
+        }
+        return Specification.allOf(parts);
+    }
+
+    /**
+     * True when at least one declared filter is present, i.e. the result is not the whole table.
+     */
+    public boolean isFiltered(Map<String, String> params) {
+        return params != null && filters.keySet().stream()
+                .map(params::get)
+                .anyMatch(value -> value != null && !value.isBlank() && !"ALL".equalsIgnoreCase(value.trim()));
+    }
+
+    /**
+     * Resolves a {@code sort} parameter against the allowed keys; unknown keys are rejected so a
+     * request cannot order by an unindexed column.
+     */
+    List<SortKey> resolveSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return defaultSort;
+        }
+        return parseSort(sort);
+    }
+
+    private List<SortKey> parseSort(String sort) {
+        List<SortKey> keys = new ArrayList<>();
+        for (String token : sort.split(",")) {
+            String name = token.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            boolean ascending = true;
+            if (name.startsWith("-") || name.startsWith("+")) {
+                ascending = name.charAt(0) == '+';
+                name = name.substring(1);
+            }
+            SortKey allowed = sortKeys.get(name);
+            if (allowed == null) {
+                throw new IllegalArgumentException("Cannot sort " + entityType.getSimpleName() + " by '" + name + "'");
+            }
+            keys.add(new SortKey(name, ascending, allowed.nullsAs()));
+        }
+        return keys;
+    }
+
+    /**
+     * One ORDER BY key. {@code nullsAs} is substituted for nulls in both the ORDER BY and the
+     * keyset comparison.
+     */
+    record SortKey(String attribute, boolean ascending, Object nullsAs) {
+
+        @SuppressWarnings("unchecked")
+        Expression<Comparable<Object>> expression(Root<?> root, CriteriaBuilder cb) {
+            Path<Comparable<Object>> path = comparablePath(root, attribute);
+            return nullsAs == null ? path : cb.coalesce(path, (Comparable<Object>) nullsAs);
+        }
+
+        String signature() {
+            return (ascending ? "" : "-") + attribute;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Path<Comparable<Object>> comparablePath(Root<?> root, String attribute) {
+        return (Path<Comparable<Object>>) path(root, attribute, JoinType.INNER);
+    }
+
+    /**
+     * Walks a dotted attribute path, reusing joins already made by an earlier filter.
+     */
+    static Path<?> path(Root<?> root, String attribute, JoinType joinType) {
+        String[] parts = attribute.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            from = join(from, parts[i], joinType);
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+
+    private static From<?, ?> join(From<?, ?> from, String attribute, JoinType joinType) {
+        for (Join<?, ?> existing : from.getJoins()) {
+            if (existing.getAttribute().getName().equals(attribute) && existing.getJoinType() == joinType) {
+                return existing;
+            }
+        }
+        return from.join(attribute, joinType);
+    }
+
+    /**
+     * Parses a request or cursor value into the attribute's Java type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == Double.class || type == double.class) {
+                return Double.valueOf(value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                    throw new IllegalArgumentException("expected true or false");
+                }
+                return Boolean.valueOf(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, value.toUpperCase(Locale.ROOT));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + type.getSimpleName());
+        }
+        throw new IllegalArgumentException("Unsupported filter type " + type.getSimpleName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> bound(String value, Class<?> type, boolean upper) {
+        Object bound;
+        if (type == LocalDateTime.class && value.length() == 10) {
+            LocalDate day = LocalDate.parse(value);
+            bound = upper ? day.plusDays(1).atStartOfDay().minusNanos(1000) : day.atStartOfDay();
+        } else {
+            bound = convert(value, type);
+        }
+        return (Comparable<Object>) bound;
+    }
+}
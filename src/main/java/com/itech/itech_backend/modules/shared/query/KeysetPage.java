@@ -0,0 +1,12 @@
+package com.itech.itech_backend.modules.shared.query;
+
+import java.util.List;
+
+/**
+ * One page of a seek-paginated admin list. {@code nextCursor} is passed back as
+ * {@code cursor} to fetch the following page and is null on the last one. {@code totalExact} is
+ * false when {@code total} is a planner estimate or a lower bound ("10,000+").
+ */
+public record KeysetPage<T>(List<T> content, int size, String nextCursor, boolean hasNext,
+                            long total, boolean totalExact) {
+}
@@ -0,0 +1,95 @@
+package com.itech.itech_backend.modules.shared.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Buckets of this node, each a single {@link AtomicLong} updated by compare-and-set.
+ *
+ * No lock is taken on the request path. A bucket that has been full for {@code idle} carries
+ * no information, so when the map reaches {@code maxKeys} such buckets are swept out (at most
+ * once per second). If it is still full after that, for example during a flood from many
+ * addresses, new clients share one overflow bucket per limit until space frees up.
+ */
+@Slf4j
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<Limit, AtomicLong> overflow = new ConcurrentHashMap<>();
+    private final long maxKeys;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextSweep;
+
+    public InMemoryTokenBucketStore(long maxKeys, Duration idle) {
+        this(maxKeys, idle, System::nanoTime);
+    }
+
+    public InMemoryTokenBucketStore(long maxKeys, Duration idle, LongSupplier clock) {
+        this.maxKeys = maxKeys;
+        this.idleNanos = idle.toNanos();
+        this.clock = clock;
+        this.nextSweep = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public long tryAcquire(String key, Limit limit) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, limit, now);
+        }
+        while (true) {
+            long full = bucket.get();
+            // Until 'full' the bucket is short of (full - now) / interval tokens
+            long start = full - now > 0 ? full : now;
+            long wait = start - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + limit.intervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        return buckets.size();
+    }
+
+    private AtomicLong newBucket(String key, Limit limit, long now) {
+        if (buckets.size() >= maxKeys) {
+            sweep(now);
+            if (buckets.size() >= maxKeys) {
+                return overflow.computeIfAbsent(limit, l -> {
+                    log.warn("⚠️ Rate limiter holds {} buckets; new clients share an overflow bucket", maxKeys);
+                    return new AtomicLong(now);
+                });
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Forget buckets that have been full for longer than the idle time. A request racing with
+     * the removal may update the dropped bucket and so get one token more than its due.
+     */
+    private void sweep(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> now - bucket.get() > idleNanos);
+        if (buckets.size() < maxKeys) {
+            overflow.clear();
+        }
+    }
+}
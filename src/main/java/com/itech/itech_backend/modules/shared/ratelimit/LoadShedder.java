@@ -0,0 +1,59 @@
+package com.itech.itech_backend.modules.shared.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests in flight on this node, so a burst is refused at the door instead of
+ * queueing on the connection pool until every request times out.
+ *
+ * Normal requests are admitted while fewer than {@code maxInFlight - priorityReserve} are
+ * running; priority requests may use the reserve as well, so checkout and payment still get
+ * through while the rest of the site is being shed. Unlike {@link
+ * com.itech.itech_backend.modules.shared.resilience.Bulkhead} nothing waits for a slot.
+ */
+public class LoadShedder {
+
+    private final int maxInFlight;
+    private final int normalLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+
+    public LoadShedder(int maxInFlight, int priorityReserve) {
+        if (maxInFlight <= 0 || priorityReserve < 0 || priorityReserve >= maxInFlight) {
+            throw new IllegalArgumentException("Invalid load shedding limits: max " + maxInFlight
+                    + ", priority reserve " + priorityReserve);
+        }
+        this.maxInFlight = maxInFlight;
+        this.normalLimit = maxInFlight - priorityReserve;
+    }
+
+    /**
+     * Admit a request; every {@code true} must be paired with {@link #exit()}
+     */
+    public boolean tryEnter(boolean priority) {
+        int limit = priority ? maxInFlight : normalLimit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long shedCount() {
+        return shed.sum();
+    }
+}
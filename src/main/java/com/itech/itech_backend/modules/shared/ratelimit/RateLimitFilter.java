@@ -0,0 +1,173 @@
+package com.itech.itech_backend.modules.shared.ratelimit;
+
+import com.itech.itech_backend.modules.shared.ratelimit.TokenBucketStore.Limit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiting and load shedding, placed in the security chain right after {@code JwtFilter}.
+ *
+ * Each request is classified into a {@link RouteClass} and takes a token from the bucket of
+ * its client in that class: the user name when a JWT was accepted, otherwise the client IP.
+ * Clients out of tokens get 429 with {@code Retry-After}. Requests that pass on a
+ * {@linkplain RouteClass#databaseBound() database-bound} route then need a slot from the
+ * {@link LoadShedder}, else 503; authenticated checkout and payment requests use its priority
+ * lane.
+ *
+ * Behind a proxy the client IP is the rightmost {@code X-Forwarded-For} entry that is not one
+ * of the trusted proxies: entries further left were sent by the client and can be forged. Rejections are counted as {@code app.ratelimit.rejected} by route class and
+ * reason, next to the {@code app.ratelimit.in.flight} and {@code app.ratelimit.buckets} gauges.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketStore buckets;
+    private final LoadShedder shedder;
+    private final Map<RouteClass, Limit> limits;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final Map<RouteClass, Counter> limited = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> shed = new EnumMap<>(RouteClass.class);
+
+    /**
+     * @param trustedProxies addresses or CIDR ranges of the proxies in front of this service;
+     *                       empty to ignore {@code X-Forwarded-For} and use the peer address
+     */
+    public RateLimitFilter(TokenBucketStore buckets, LoadShedder shedder, Map<RouteClass, Limit> limits,
+                           List<String> trustedProxies, MeterRegistry registry) {
+        this.buckets = buckets;
+        this.shedder = shedder;
+        this.limits = new EnumMap<>(limits);
+        this.trustedProxies = trustedProxies.stream().map(String::trim).filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new).toList();
+        for (RouteClass routeClass : RouteClass.values()) {
+            limited.put(routeClass, rejected(registry, routeClass, "rate"));
+            shed.put(routeClass, rejected(registry, routeClass, "shed"));
+        }
+        Gauge.builder("app.ratelimit.in.flight", shedder, LoadShedder::inFlight)
+                .description("Requests admitted by the load shedder and still running")
+                .register(registry);
+        Gauge.builder("app.ratelimit.buckets", buckets, TokenBucketStore::size)
+                .description("Rate limit buckets held in memory")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        RouteClass routeClass = RouteClass.of(method, request.getRequestURI());
+        if (routeClass == RouteClass.EXEMPT || "OPTIONS".equals(method)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String user = authenticatedUser();
+        Limit limit = limits.get(routeClass);
+        if (limit != null) {
+            String client = user != null ? "u:" + user : "ip:" + clientIp(request);
+            long waitNanos = buckets.tryAcquire(routeClass.key() + ":" + client, limit);
+            if (waitNanos > 0) {
+                limited.get(routeClass).increment();
+                log.debug("Rate limited {} on {} for {} ms", client, routeClass, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+                reject(response, 429, "Too Many Requests", Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+                return;
+            }
+        }
+
+        if (!routeClass.databaseBound()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean priority = routeClass == RouteClass.CHECKOUT && user != null;
+        if (!shedder.tryEnter(priority)) {
+            shed.get(routeClass).increment();
+            reject(response, 503, "Service Unavailable", 1);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            shedder.exit();
+        }
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank() || !trusted(client)) {
+            return client;
+        }
+        // Each proxy appends the address it received from, so walk back from the right until the
+        // first hop that is not ours; an entry that is no address ends the walk at the last hop
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                return client;
+            }
+            try {
+                if (!trusted(hop)) {
+                    return hop;
+                }
+            } catch (IllegalArgumentException e) {
+                return client;
+            }
+            client = hop;
+        }
+        return client;
+    }
+
+    private boolean trusted(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String authenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static void reject(HttpServletResponse response, int status, String error, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status + ",\"error\":\"" + error
+                + "\",\"message\":\"Please retry after " + retryAfterSeconds + " seconds\"}");
+    }
+
+    private static Counter rejected(MeterRegistry registry, RouteClass routeClass, String reason) {
+        return Counter.builder("app.ratelimit.rejected")
+                .description("Requests refused by the rate limiter (rate) or load shedder (shed)")
+                .tag("route", routeClass.key())
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
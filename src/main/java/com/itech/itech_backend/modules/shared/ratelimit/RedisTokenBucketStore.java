@@ -0,0 +1,72 @@
+package com.itech.itech_backend.modules.shared.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buckets shared by all nodes, kept in Redis so a client's limit does not multiply with the
+ * number of instances.
+ *
+ * Every check is one script call that reads and advances the bucket atomically on the Redis
+ * server, using the server's clock so node clock skew does not matter. That is a network round
+ * trip per limited request; when Redis cannot be reached the node falls back to its own
+ * {@link InMemoryTokenBucketStore} rather than failing requests, and logs once per outage.
+ */
+@Slf4j
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    // KEYS[1] bucket; ARGV[1] interval, ARGV[2] tolerance, both in microseconds.
+    // Returns 0 when a token was taken, otherwise the microseconds to wait.
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local full = tonumber(redis.call('GET', KEYS[1]) or now)
+            local start = math.max(full, now)
+            local wait = start - now - tonumber(ARGV[2])
+            if wait > 0 then
+              return wait
+            end
+            local next = start + interval
+            redis.call('SET', KEYS[1], string.format('%d', next), 'PX', math.ceil((next - now) / 1000) + 1)
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final TokenBucketStore fallback;
+    private final AtomicLong failures = new AtomicLong();
+
+    public RedisTokenBucketStore(StringRedisTemplate redisTemplate, String keyPrefix, TokenBucketStore fallback) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public long tryAcquire(String key, Limit limit) {
+        try {
+            Long waitMicros = redisTemplate.execute(ACQUIRE, List.of(keyPrefix + key),
+                    Long.toString(limit.intervalNanos() / 1000), Long.toString(limit.toleranceNanos() / 1000));
+            if (failures.getAndSet(0) > 0) {
+                log.info("✅ Rate limit buckets are shared through Redis again");
+            }
+            return waitMicros != null ? waitMicros * 1000 : 0;
+        } catch (RuntimeException e) {
+            if (failures.getAndIncrement() == 0) {
+                log.warn("⚠️ Redis rate limiting unavailable, limiting per node: {}", e.getMessage());
+            }
+            return fallback.tryAcquire(key, limit);
+        }
+    }
+
+    @Override
+    public long size() {
+        return fallback.size();
+    }
+}
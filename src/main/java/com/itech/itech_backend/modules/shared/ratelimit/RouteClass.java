@@ -0,0 +1,98 @@
+package com.itech.itech_backend.modules.shared.ratelimit;
+
+import java.util.List;
+
+/**
+ * Groups of routes that share a rate limit, matched by path prefix.
+ *
+ * Each class has its own bucket per client, so a burst of searches does not use up a client's
+ * logins. Defaults can be overridden with {@code app.ratelimit.routes.<key>.per-minute} and
+ * {@code .burst}. Only classes that reach the database pool are load shed; the others hold no
+ * connection while they run.
+ */
+public enum RouteClass {
+
+    /**
+     * Health checks and probes; never limited or shed
+     */
+    EXEMPT("exempt", null, 0, 0, false, List.of("/actuator", "/health")),
+
+    /**
+     * Login, registration and OTP requests (POST only, so profile reads stay in DEFAULT)
+     */
+    AUTH("auth", "POST", 10, 5, true, List.of("/auth/", "/api/auth/", "/api/v1/auth/")),
+
+    SEARCH("search", null, 120, 30, true, List.of(
+            "/api/products/suggestions",
+            "/api/products/advanced-search",
+            "/api/products/search",
+            "/api/v1/products/search")),
+
+    /**
+     * Chatbot replies wait on the model API, not the database, so they are limited but not shed
+     */
+    CHATBOT("chatbot", null, 20, 5, false, List.of("/api/chatbot")),
+
+    /**
+     * Sitemaps written to disk and sent with sendfile; limited like DEFAULT but not shed
+     */
+    FILES("files", "GET", 600, 100, false, List.of("/sitemap.xml", "/sitemaps/")),
+
+    /**
+     * Checkout and payment; authenticated requests use the priority lane when shedding
+     */
+    CHECKOUT("checkout", null, 60, 20, true, List.of("/api/checkout", "/api/payments", "/api/orders")),
+
+    DEFAULT("default", null, 600, 100, true, List.of());
+
+    private static final RouteClass[] MATCHED = {EXEMPT, AUTH, SEARCH, CHATBOT, FILES, CHECKOUT};
+
+    private final String key;
+    private final String method;
+    private final int perMinute;
+    private final int burst;
+    private final boolean databaseBound;
+    private final String[] prefixes;
+
+    RouteClass(String key, String method, int perMinute, int burst, boolean databaseBound, List<String> prefixes) {
+        this.key = key;
+        this.method = method;
+        this.perMinute = perMinute;
+        this.burst = burst;
+        this.databaseBound = databaseBound;
+        this.prefixes = prefixes.toArray(String[]::new);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultPerMinute() {
+        return perMinute;
+    }
+
+    public int defaultBurst() {
+        return burst;
+    }
+
+    /**
+     * Whether requests of this class go through the {@link LoadShedder}
+     */
+    public boolean databaseBound() {
+        return databaseBound;
+    }
+
+    public static RouteClass of(String method, String path) {
+        for (RouteClass routeClass : MATCHED) {
+            if (routeClass.method != null && !routeClass.method.equals(method)) {
+                continue;
+            }
+            for (String prefix : routeClass.prefixes) {
+                if (path.startsWith(prefix)) {
+                    return routeClass;
+                }
+            }
+        }
+        return DEFAULT;
+    }
+}
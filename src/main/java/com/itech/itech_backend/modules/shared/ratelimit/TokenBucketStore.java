@@ -0,0 +1,40 @@
+package com.itech.itech_backend.modules.shared.ratelimit;
+
+/**
+ * Holds the token buckets of all clients.
+ *
+ * Buckets are kept as a generic cell rate (GCRA): one timestamp per key, the time at which the
+ * bucket would be full again. That behaves exactly like a token bucket refilled continuously at
+ * the limit's rate, but fits a single compare-and-set locally and a single key in Redis.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Rate and burst of a bucket, in the units the stores work with
+     */
+    record Limit(long intervalNanos, long toleranceNanos) {
+
+        /**
+         * {@code perMinute} tokens refilled evenly over a minute, at most {@code burst} at once
+         */
+        public static Limit perMinute(int perMinute, int burst) {
+            if (perMinute <= 0) {
+                throw new IllegalArgumentException("Rate limit must be positive: " + perMinute);
+            }
+            long interval = 60_000_000_000L / perMinute;
+            return new Limit(interval, interval * (Math.max(1, burst) - 1));
+        }
+    }
+
+    /**
+     * Take one token from the bucket of {@code key}.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(String key, Limit limit);
+
+    /**
+     * Number of buckets currently held
+     */
+    long size();
+}
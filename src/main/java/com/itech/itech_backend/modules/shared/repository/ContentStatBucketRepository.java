@@ -0,0 +1,33 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.ContentStatBucket;
+import com.itech.itech_backend.modules.shared.model.ContentSubjectType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ContentStatBucketRepository extends JpaRepository<ContentStatBucket, ContentStatBucket.Key> {
+
+    interface SubjectTotals {
+        Long getSubjectId();
+        Long getImpressions();
+        Long getClicks();
+    }
+
+    @Query("SELECT b FROM ContentStatBucket b WHERE b.subjectType = :type AND b.subjectId = :subjectId " +
+           "AND b.bucketStart >= :from AND b.bucketStart < :to ORDER BY b.bucketStart")
+    List<ContentStatBucket> findHours(@Param("type") ContentSubjectType type,
+                                      @Param("subjectId") Long subjectId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    @Query("SELECT b.subjectId AS subjectId, SUM(b.impressions) AS impressions, SUM(b.clicks) AS clicks " +
+           "FROM ContentStatBucket b WHERE b.subjectType = :type AND b.bucketStart >= :from AND b.bucketStart < :to " +
+           "GROUP BY b.subjectId")
+    List<SubjectTotals> sumBySubject(@Param("type") ContentSubjectType type,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+}
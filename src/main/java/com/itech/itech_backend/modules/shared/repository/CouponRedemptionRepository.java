@@ -0,0 +1,18 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+
+    @Query("SELECT r.userId FROM CouponRedemption r WHERE r.couponId = :couponId AND r.userId IS NOT NULL")
+    List<Long> findUserIdsByCouponId(@Param("couponId") Long couponId);
+
+    long countByCouponId(Long couponId);
+}
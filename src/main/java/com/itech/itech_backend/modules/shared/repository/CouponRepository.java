@@ -2,6 +2,9 @@ package com.itech.itech_backend.modules.shared.repository;
 
 import com.itech.itech_backend.modules.shared.model.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +13,14 @@ import java.util.Optional;
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
     Optional<Coupon> findByCode(String code);
     Optional<Coupon> findByCodeAndIsActiveTrue(String code);
+
+    // Takes one use only while the limit allows it; 0 rows updated means the coupon is used up
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + 1 WHERE c.id = :id AND c.usedCount < c.usageLimit")
+    int reserveLimitedUse(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + :delta WHERE c.id = :id")
+    int addUses(@Param("id") Long id, @Param("delta") int delta);
 }
 
@@ -0,0 +1,13 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.StartupMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StartupMigrationRepository extends JpaRepository<StartupMigration, Long> {
+
+    Optional<StartupMigration> findByName(String name);
+}
@@ -0,0 +1,34 @@
+package com.itech.itech_backend.modules.shared.repository;
+
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TaxVerificationResultRepository extends JpaRepository<TaxVerificationResult, Long> {
+
+    Optional<TaxVerificationResult> findByDocumentTypeAndLookupTypeAndDocumentNumber(
+            String documentType, String lookupType, String documentNumber);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TaxVerificationResult r SET r.resultJson = :json, r.negative = :negative, " +
+           "r.checkedAt = :checkedAt, r.expiresAt = :expiresAt " +
+           "WHERE r.documentType = :documentType AND r.lookupType = :lookupType AND r.documentNumber = :number")
+    int updateResult(@Param("documentType") String documentType, @Param("lookupType") String lookupType,
+                     @Param("number") String number, @Param("json") String json,
+                     @Param("negative") boolean negative, @Param("checkedAt") LocalDateTime checkedAt,
+                     @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaxVerificationResult r WHERE r.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,88 @@
+package com.itech.itech_backend.modules.shared.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Semaphore-based bulkhead that caps concurrent calls to a single downstream.
+ * Callers wait at most {@code maxWaitMillis} for a permit and are rejected afterwards,
+ * so a slow provider cannot absorb every request thread.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrentCalls, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(this.maxConcurrentCalls, true);
+    }
+
+    /**
+     * Try to enter the bulkhead. Every successful call must be paired with {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedCalls.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Run {@code call} inside the bulkhead, failing fast with {@link IllegalStateException}
+     * when no permit is available within the wait budget.
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!tryAcquire()) {
+            throw new IllegalStateException(name + " bulkhead is full");
+        }
+        try {
+            return call.get();
+        } finally {
+            release();
+        }
+    }
+
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+}
@@ -0,0 +1,56 @@
+package com.itech.itech_backend.modules.shared.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named bulkheads, one per blocking downstream (SMTP, S3, the database, ...).
+ *
+ * Limits come from {@code resilience.bulkhead.<name>.max-concurrent-calls} and
+ * {@code resilience.bulkhead.<name>.max-wait-ms}, falling back to the defaults given by the
+ * first caller. With virtual request threads the servlet container no longer caps concurrency,
+ * so these are what keeps a slow provider from being hit by every in-flight request at once.
+ */
+@Component
+public class BulkheadRegistry {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadRegistry(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    public Bulkhead bulkhead(String name, int defaultMaxConcurrentCalls, long defaultMaxWaitMillis) {
+        return bulkheads.computeIfAbsent(name, key -> {
+            String prefix = "resilience.bulkhead." + key + ".";
+            Bulkhead bulkhead = new Bulkhead(key,
+                    environment.getProperty(prefix + "max-concurrent-calls", Integer.class, defaultMaxConcurrentCalls),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, defaultMaxWaitMillis));
+            Gauge.builder("bulkhead.available", bulkhead, Bulkhead::getAvailablePermits)
+                    .tag("name", key).register(meterRegistry);
+            Gauge.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejectedCalls)
+                    .tag("name", key).register(meterRegistry);
+            return bulkhead;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        bulkheads.forEach((name, bulkhead) -> stats.put(name, Map.of(
+                "maxConcurrentCalls", bulkhead.getMaxConcurrentCalls(),
+                "available", bulkhead.getAvailablePermits(),
+                "rejected", bulkhead.getRejectedCalls())));
+        return stats;
+    }
+}
@@ -0,0 +1,83 @@
+package com.itech.itech_backend.modules.shared.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Minimal consecutive-failure circuit breaker for calls to external providers.
+ *
+ * CLOSED lets everything through; after {@code failureThreshold} consecutive failures
+ * it trips OPEN and rejects calls for {@code openStateMillis}. The first caller after
+ * that window gets a single HALF_OPEN trial: success closes the breaker, failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openStateMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openStateMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openStateMillis = openStateMillis;
+    }
+
+    /**
+     * Returns true when the caller may invoke the protected resource.
+     * Callers that get {@code true} must report the outcome via
+     * {@link #recordSuccess()} or {@link #recordFailure()}.
+     */
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN
+                && System.currentTimeMillis() - openedAt.get() >= openStateMillis
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return true;
+        }
+        rejectedCalls.incrementAndGet();
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void recordFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+            state.set(State.OPEN);
+        }
+    }
+
+    /**
+     * The call ended for a reason that says nothing about the resource; a half-open trial is
+     * handed to the next caller instead of being left pending
+     */
+    public void recordIgnored() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+}
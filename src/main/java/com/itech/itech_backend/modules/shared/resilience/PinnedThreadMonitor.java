@@ -0,0 +1,99 @@
+package com.itech.itech_backend.modules.shared.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, which on JDK 21 happens when
+ * they block inside {@code synchronized} or a native frame. Listens to the JFR
+ * {@code jdk.VirtualThreadPinned} event (only pins longer than the threshold are recorded),
+ * counts them per call site as {@code virtual.threads.pinned} and logs each site once.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 50;
+    private static final String APPLICATION_PACKAGE = "com.itech.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Counter> sites = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public long getPinnedCount() {
+        return (long) sites.values().stream().mapToDouble(Counter::count).sum();
+    }
+
+    void onPinned(RecordedEvent event) {
+        String site = callSite(event.getStackTrace());
+        Counter counter = sites.get(site);
+        if (counter == null) {
+            String tag = sites.size() < MAX_SITES ? site : "other";
+            counter = sites.computeIfAbsent(tag, key -> {
+                log.warn("Virtual thread pinned for {} ms at {}: blocking inside synchronized code holds a carrier thread",
+                        event.getDuration().toMillis(), key);
+                return Counter.builder("virtual.threads.pinned").tag("site", key).register(meterRegistry);
+            });
+        }
+        counter.increment();
+    }
+
+    /**
+     * First application frame, or the top frame when the pin happened entirely in library code
+     */
+    private static String callSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
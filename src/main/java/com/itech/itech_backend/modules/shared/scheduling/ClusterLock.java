@@ -0,0 +1,94 @@
+package com.itech.itech_backend.modules.shared.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide mutual exclusion for jobs every node schedules but only one should run, backed
+ * by leases in {@code cluster_locks}.
+ *
+ * A node takes a lease by moving {@code locked_until} forward on a row whose lease has run out,
+ * or by inserting the row if it does not exist yet; the primary key decides between nodes that
+ * insert at the same time. Each acquisition writes its own token to {@code locked_by} and
+ * releases only a lease still carrying it. A node that dies mid-job holds the lease until it
+ * runs out, so the lease should comfortably exceed the job's longest run.
+ */
+@Slf4j
+@Component
+public class ClusterLock {
+
+    private static final String ACQUIRE_SQL =
+            "UPDATE cluster_locks SET locked_until = ?, locked_at = ?, locked_by = ? WHERE name = ? AND locked_until <= ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cluster_locks (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE cluster_locks SET locked_until = ? WHERE name = ? AND locked_by = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+
+    public ClusterLock(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Run {@code task} while holding the named lease; empty when another node holds it
+     */
+    public <T> Optional<T> runLocked(String name, Duration lease, Supplier<T> task) {
+        String token = node + "/" + UUID.randomUUID();
+        if (!acquire(name, lease, token)) {
+            log.debug("Lease {} is held elsewhere, skipping", name);
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(task.get());
+        } finally {
+            release(name, token);
+        }
+    }
+
+    private boolean acquire(String name, Duration lease, String token) {
+        long now = System.currentTimeMillis();
+        Timestamp lockedAt = new Timestamp(now);
+        Timestamp lockedUntil = new Timestamp(now + lease.toMillis());
+        Integer updated = newTransaction.execute(status ->
+                jdbcTemplate.update(ACQUIRE_SQL, lockedUntil, lockedAt, token, name, lockedAt));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update(INSERT_SQL, name, lockedUntil, lockedAt, token));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // The row exists and its lease is still running
+            return false;
+        }
+    }
+
+    private void release(String name, String token) {
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update(RELEASE_SQL, new Timestamp(System.currentTimeMillis()), name, token));
+        } catch (RuntimeException e) {
+            log.warn("Could not release lease {}, it frees itself when it runs out: {}", name, e.getMessage());
+        }
+    }
+}
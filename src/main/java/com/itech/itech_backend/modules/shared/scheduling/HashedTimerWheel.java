@@ -0,0 +1,180 @@
+package com.itech.itech_backend.modules.shared.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for large numbers of long-lived deadlines.
+ *
+ * Scheduling and cancelling are O(1) and lock-free; a single worker thread advances the
+ * wheel once per tick and hands expired payloads to the expiry callback. A deadline never
+ * fires early and fires at most one tick late. The callback runs on the worker thread, so
+ * it must be quick and hand heavier work off to an executor.
+ */
+@Slf4j
+public class HashedTimerWheel<T> implements AutoCloseable {
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    /**
+     * Handle for a scheduled deadline
+     */
+    public interface Timeout {
+        boolean cancel();
+        boolean isCancelled();
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<LinkedList<Entry<T>>> wheel;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpire;
+    private final AtomicInteger size = new AtomicInteger();
+    private final long startNanos;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private long tick; // worker thread only
+
+    public HashedTimerWheel(String name, long tickMillis, int wheelSize, Consumer<T> onExpire) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = buckets - 1;
+        this.wheel = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            wheel.add(new LinkedList<>());
+        }
+        this.onExpire = onExpire;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule {@code payload} to expire at the given wall-clock time. Deadlines in the
+     * past expire on the next tick.
+     */
+    public Timeout schedule(long deadlineEpochMillis, T payload) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is stopped");
+        }
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, deadlineEpochMillis - System.currentTimeMillis()));
+        Entry<T> entry = new Entry<>(this, System.nanoTime() - startNanos + delayNanos, payload);
+        size.incrementAndGet();
+        pending.add(entry);
+        return entry;
+    }
+
+    /**
+     * Deadlines scheduled and not yet expired or cancelled
+     */
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = (tick + 1) * tickNanos;
+            long sleepNanos;
+            while (running && (sleepNanos = tickDeadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            if (!running) {
+                break;
+            }
+            transferPending();
+            expire(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.state.get() != STATE_PENDING) {
+                continue;
+            }
+            long calculated = entry.deadlineNanos / tickNanos;
+            entry.remainingRounds = (calculated - tick) / wheel.size();
+            long ticks = Math.max(calculated, tick); // past deadlines go in the current bucket
+            wheel.get((int) (ticks & mask)).add(entry);
+        }
+    }
+
+    private void expire(LinkedList<Entry<T>> bucket) {
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.state.get() == STATE_CANCELLED) {
+                iterator.remove();
+            } else if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                if (entry.state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+                    size.decrementAndGet();
+                    try {
+                        onExpire.accept(entry.payload);
+                    } catch (Exception e) {
+                        log.error("Timer wheel expiry callback failed", e);
+                    }
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+
+    private static final class Entry<T> implements Timeout {
+        private final HashedTimerWheel<T> owner;
+        private final long deadlineNanos;
+        private final T payload;
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+        private long remainingRounds;
+
+        private Entry(HashedTimerWheel<T> owner, long deadlineNanos, T payload) {
+            this.owner = owner;
+            this.deadlineNanos = deadlineNanos;
+            this.payload = payload;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                owner.size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+    }
+}
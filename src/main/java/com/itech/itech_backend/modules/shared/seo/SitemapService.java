@@ -0,0 +1,513 @@
+package com.itech.itech_backend.modules.shared.seo;
+
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.shared.startup.StartupTask;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Sitemap files for crawlers, kept on local disk and rewritten incrementally.
+ *
+ * Every {@link SitemapSource} is split into shards by id range ({@code urls-per-shard} ids, at
+ * most 50k), each written as a gzip file by a streaming {@link SitemapWriter}, so generation
+ * holds one row at a time whatever the size of the catalogue. A run rewrites only the shards
+ * holding rows changed since the source's watermark (the newest {@code updated_at} or
+ * {@code created_at} seen by the previous run, less an overlap for transactions that committed
+ * late), shards that lost a row deleted through Hibernate on this node, and shards whose file
+ * is missing. Rows deleted by other nodes or by plain SQL are caught by {@link #reconcile()},
+ * which compares each shard's live row count with the manifest; it runs nightly and on start,
+ * where a {@link ClusterLock} lease lets one node of a deploy do it while the others only
+ * write their changes.
+ *
+ * Files are published under versioned names (see {@link SitemapWriter}) and never rewritten in
+ * place, so shards are served as immutable. A file the index no longer lists is deleted
+ * {@code retention-seconds} later, which leaves time for crawlers holding the previous index
+ * and for responses already handed to sendfile; a request for any other version of a shard
+ * is sent to its current one.
+ *
+ * The manifest (watermarks, shard sizes and file names) is kept next to the files, so a node
+ * whose disk was wiped rebuilds everything on its next run.
+ */
+@Slf4j
+@Service
+public class SitemapService implements StartupTask, PostCommitDeleteEventListener {
+
+    public record GenerationResult(int shardsWritten, int shardsRemoved, long urls, long durationMs) {}
+
+    private record Shard(SitemapSource source, long number, int urls, LocalDateTime lastModified, String file) {}
+
+    private static final String INDEX_STEM = "sitemap";
+    private static final String MANIFEST_FILE = "manifest.properties";
+    private static final String RECONCILE_LOCK = "sitemap-reconcile";
+    // Unversioned names are what earlier releases published
+    private static final Pattern SHARD_FILE = Pattern.compile("([a-z-]+)-(\\d{1,12})(-[0-9a-f]{16})?\\.xml\\.gz");
+    private static final Pattern INDEX_FILE = Pattern.compile("sitemap(-[0-9a-f]{16})?\\.xml");
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final ClusterLock clusterLock;
+    private final Path directory;
+    private final String baseUrl;
+    private final String filesUrl;
+    private final int urlsPerShard;
+    private final Duration overlap;
+    private final Duration retention;
+    private final Duration reconcileLease;
+    private final Map<SitemapSource, String> paths = new EnumMap<>(SitemapSource.class);
+    private final Map<SitemapSource, Set<Long>> deletedShards = new EnumMap<>(SitemapSource.class);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final Map<SitemapSource, Map<Long, Shard>> shards = new EnumMap<>(SitemapSource.class);
+    private final Map<SitemapSource, LocalDateTime> watermarks = new EnumMap<>(SitemapSource.class);
+    // Files no longer listed, by when a run first found them so
+    private final Map<String, Long> superseded = new HashMap<>();
+    private String indexFile;
+    private boolean loaded;
+
+    // Written at the end of each run for request threads: current file by shard stem, and the index
+    private volatile Map<String, String> publishedShards = Map.of();
+    private volatile String publishedIndex;
+
+    public SitemapService(EntityManagerFactory entityManagerFactory,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ClusterLock clusterLock,
+                          Environment environment,
+                          @Value("${seo.sitemap.directory:${java.io.tmpdir}/itech-sitemaps}") String directory,
+                          @Value("${seo.sitemap.base-url:https://indiantrademart.com}") String baseUrl,
+                          @Value("${seo.sitemap.files-url:}") String filesUrl,
+                          @Value("${seo.sitemap.urls-per-shard:50000}") int urlsPerShard,
+                          @Value("${seo.sitemap.watermark-overlap-seconds:120}") long overlapSeconds,
+                          @Value("${seo.sitemap.fetch-size:1000}") int fetchSize,
+                          @Value("${seo.sitemap.retention-seconds:600}") long retentionSeconds,
+                          @Value("${seo.sitemap.reconcile-lease-ms:1800000}") long reconcileLeaseMs) {
+        if (urlsPerShard < 1 || urlsPerShard > SitemapWriter.MAX_URLS) {
+            throw new IllegalArgumentException("seo.sitemap.urls-per-shard must be between 1 and " + SitemapWriter.MAX_URLS);
+        }
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        // Own template so the fetch size streams shard rows instead of loading them at once
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.clusterLock = clusterLock;
+        this.directory = Path.of(directory);
+        this.baseUrl = stripTrailingSlash(baseUrl);
+        this.filesUrl = filesUrl.isBlank() ? this.baseUrl + "/sitemaps" : stripTrailingSlash(filesUrl);
+        this.urlsPerShard = urlsPerShard;
+        this.overlap = Duration.ofSeconds(overlapSeconds);
+        this.retention = Duration.ofSeconds(retentionSeconds);
+        this.reconcileLease = Duration.ofMillis(reconcileLeaseMs);
+        for (SitemapSource source : SitemapSource.values()) {
+            paths.put(source, environment.getProperty("seo.sitemap.path." + source.key(), source.defaultPath()));
+            deletedShards.put(source, ConcurrentHashMap.newKeySet());
+            shards.put(source, new HashMap<>());
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    // ================ SERVING ================
+
+    /**
+     * The current index, or null before the first run
+     */
+    public Path index() {
+        String name = publishedIndex;
+        return name != null ? existing(name) : null;
+    }
+
+    /**
+     * A shard file by its versioned name, or null if there is no such file
+     */
+    public Path file(String name) {
+        Matcher matcher = shardFile(name);
+        return matcher != null && matcher.group(3) != null ? existing(name) : null;
+    }
+
+    /**
+     * Current versioned name of the shard that {@code name} refers to under any version (or
+     * none), or null when there is no such shard
+     */
+    public String currentFile(String name) {
+        Matcher matcher = shardFile(name);
+        return matcher != null ? publishedShards.get(matcher.group(1) + "-" + matcher.group(2)) : null;
+    }
+
+    private Path existing(String name) {
+        Path file = directory.resolve(name);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    private static Matcher shardFile(String name) {
+        if (name == null) {
+            return null;
+        }
+        Matcher matcher = SHARD_FILE.matcher(name);
+        return matcher.matches() ? matcher : null;
+    }
+
+    // ================ GENERATION ================
+
+    /**
+     * Rewrite the shards changed since the previous run
+     */
+    @Scheduled(fixedDelayString = "${seo.sitemap.refresh-interval-ms:3600000}",
+            initialDelayString = "${seo.sitemap.refresh-interval-ms:3600000}")
+    public GenerationResult generate() {
+        return run(false);
+    }
+
+    /**
+     * Also rewrite shards whose live row count no longer matches the manifest, which catches
+     * rows deleted without a Hibernate event on this node
+     */
+    @Scheduled(cron = "${seo.sitemap.reconcile-cron:0 40 3 * * *}")
+    public GenerationResult reconcile() {
+        return run(true);
+    }
+
+    private GenerationResult run(boolean reconcile) {
+        if (!lock.tryLock()) {
+            log.debug("Sitemap generation already running, skipped");
+            return new GenerationResult(0, 0, 0, 0);
+        }
+        try {
+            long start = System.currentTimeMillis();
+            load();
+            int written = 0;
+            int removed = 0;
+            long urls = 0;
+            for (SitemapSource source : SitemapSource.values()) {
+                Map<Long, Shard> current = shards.get(source);
+                Set<Long> dirty = new TreeSet<>();
+                LocalDateTime newest = changedShards(source, watermarks.get(source), dirty);
+                if (reconcile) {
+                    countMismatches(source, current, dirty);
+                }
+                Set<Long> deleted = deletedShards.get(source);
+                for (Long number : List.copyOf(deleted)) {
+                    deleted.remove(number);
+                    dirty.add(number);
+                }
+                current.forEach((number, shard) -> {
+                    if (shard.file() == null || !Files.exists(directory.resolve(shard.file()))) {
+                        dirty.add(number);
+                    }
+                });
+
+                for (long number : dirty) {
+                    Shard shard = writeShard(source, number);
+                    if (shard != null) {
+                        current.put(number, shard);
+                        written++;
+                        urls += shard.urls();
+                    } else if (current.remove(number) != null) {
+                        removed++;
+                    }
+                }
+                if (newest != null && (watermarks.get(source) == null || newest.isAfter(watermarks.get(source)))) {
+                    watermarks.put(source, newest);
+                }
+            }
+            if (written + removed > 0 || indexFile == null || !Files.exists(directory.resolve(indexFile))) {
+                indexFile = writeIndex();
+            }
+            saveManifest();
+            publish();
+            removeSuperseded();
+
+            long duration = System.currentTimeMillis() - start;
+            if (written + removed > 0) {
+                log.info("🗺️ Sitemap updated: {} shards written ({} URLs), {} removed in {} ms", written, urls, removed, duration);
+            }
+            return new GenerationResult(written, removed, urls, duration);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write sitemap files to " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add the shards with rows changed after the watermark (all shards when there is none) and
+     * return the newest change seen
+     */
+    private LocalDateTime changedShards(SitemapSource source, LocalDateTime watermark, Set<Long> dirty) {
+        String sql = "SELECT id / " + urlsPerShard + " AS shard, MAX(COALESCE(updated_at, created_at)) AS changed FROM "
+                + source.table();
+        Object[] args = {};
+        if (watermark != null) {
+            Timestamp since = Timestamp.valueOf(watermark.minus(overlap));
+            sql += " WHERE updated_at > ? OR created_at > ?";
+            args = new Object[]{since, since};
+        }
+        LocalDateTime[] newest = {null};
+        jdbcTemplate.query(sql + " GROUP BY id / " + urlsPerShard, rs -> {
+            dirty.add(rs.getLong("shard"));
+            Timestamp changed = rs.getTimestamp("changed");
+            if (changed != null && (newest[0] == null || changed.toLocalDateTime().isAfter(newest[0]))) {
+                newest[0] = changed.toLocalDateTime();
+            }
+        }, args);
+        return newest[0];
+    }
+
+    private void countMismatches(SitemapSource source, Map<Long, Shard> current, Set<Long> dirty) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT id / " + urlsPerShard + " AS shard, COUNT(*) AS urls FROM " + source.table()
+                        + " WHERE " + source.liveCondition() + " GROUP BY id / " + urlsPerShard,
+                rs -> {
+                    counts.put(rs.getLong("shard"), rs.getLong("urls"));
+                });
+        counts.forEach((number, count) -> {
+            Shard shard = current.get(number);
+            if (shard == null || shard.urls() != count) {
+                dirty.add(number);
+            }
+        });
+        current.keySet().stream().filter(number -> !counts.containsKey(number)).forEach(dirty::add);
+    }
+
+    /**
+     * Stream one shard's live rows into its file; null (and no file) when it has none
+     */
+    private Shard writeShard(SitemapSource source, long number) throws IOException {
+        String slug = source.slugColumn() != null ? source.slugColumn() : "NULL";
+        String sql = "SELECT id, " + slug + " AS slug, COALESCE(updated_at, created_at) AS changed FROM " + source.table()
+                + " WHERE id >= ? AND id < ? AND " + source.liveCondition() + " ORDER BY id";
+        String path = paths.get(source);
+        LocalDateTime[] newest = {null};
+        try (SitemapWriter writer = SitemapWriter.urlset(directory, source.stem(number))) {
+            readTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, rs -> {
+                Timestamp changed = rs.getTimestamp("changed");
+                LocalDateTime lastModified = changed != null ? changed.toLocalDateTime() : null;
+                if (lastModified != null && (newest[0] == null || lastModified.isAfter(newest[0]))) {
+                    newest[0] = lastModified;
+                }
+                try {
+                    writer.add(url(path, rs.getLong("id"), rs.getString("slug")),
+                            lastModified != null ? lastModified.toLocalDate() : null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, number * urlsPerShard, (number + 1) * urlsPerShard));
+            if (writer.count() == 0) {
+                return null;
+            }
+            Path file = writer.commit();
+            return new Shard(source, number, writer.count(), newest[0], file.getFileName().toString());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private String writeIndex() throws IOException {
+        try (SitemapWriter writer = SitemapWriter.index(directory, INDEX_STEM)) {
+            for (SitemapSource source : SitemapSource.values()) {
+                List<Shard> sorted = shards.get(source).values().stream()
+                        .sorted(Comparator.comparingLong(Shard::number)).toList();
+                for (Shard shard : sorted) {
+                    writer.add(filesUrl + "/" + shard.file(),
+                            shard.lastModified() != null ? shard.lastModified().toLocalDate() : null);
+                }
+            }
+            return writer.commit().getFileName().toString();
+        }
+    }
+
+    private void publish() {
+        Map<String, String> current = new HashMap<>();
+        shards.forEach((source, byNumber) -> byNumber.values()
+                .forEach(shard -> current.put(source.stem(shard.number()), shard.file())));
+        publishedShards = Map.copyOf(current);
+        publishedIndex = indexFile;
+    }
+
+    /**
+     * Delete the sitemap files that have gone unlisted for the retention period
+     */
+    private void removeSuperseded() throws IOException {
+        Set<String> listed = new HashSet<>(publishedShards.values());
+        listed.add(indexFile);
+        Set<String> unlisted = new HashSet<>();
+        long now = System.currentTimeMillis();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (listed.contains(name) || !(SHARD_FILE.matcher(name).matches() || INDEX_FILE.matcher(name).matches())) {
+                    continue;
+                }
+                if (now - superseded.computeIfAbsent(name, unused -> now) >= retention.toMillis()) {
+                    Files.deleteIfExists(file);
+                } else {
+                    unlisted.add(name);
+                }
+            }
+        }
+        // Forget files deleted or listed again
+        superseded.keySet().retainAll(unlisted);
+    }
+
+    private String url(String path, long id, String slug) {
+        String url = path.replace("{id}", Long.toString(id));
+        if (url.contains("{slug}")) {
+            url = url.replace("{slug}", slug != null && !slug.isBlank()
+                    ? UriUtils.encodePathSegment(slug, StandardCharsets.UTF_8) : Long.toString(id));
+        }
+        return baseUrl + url;
+    }
+
+    // ================ MANIFEST ================
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        if (Files.exists(manifest)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(manifest)) {
+                properties.load(in);
+            }
+            for (SitemapSource source : SitemapSource.values()) {
+                String watermark = properties.getProperty("watermark." + source.key());
+                if (watermark != null) {
+                    watermarks.put(source, LocalDateTime.parse(watermark));
+                }
+                String prefix = "shard." + source.key() + ".";
+                for (String name : properties.stringPropertyNames()) {
+                    if (name.startsWith(prefix)) {
+                        long number = Long.parseLong(name.substring(prefix.length()));
+                        // Manifests of unversioned files have no name, so those shards are rewritten
+                        String[] value = properties.getProperty(name).split(",", 3);
+                        shards.get(source).put(number, new Shard(source, number, Integer.parseInt(value[0]),
+                                value[1].isEmpty() ? null : LocalDateTime.parse(value[1]),
+                                value.length > 2 ? value[2] : null));
+                    }
+                }
+            }
+            indexFile = properties.getProperty("index");
+            log.info("🗺️ Sitemap manifest loaded from {}", manifest);
+        }
+        loaded = true;
+    }
+
+    private void saveManifest() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("index", indexFile);
+        watermarks.forEach((source, watermark) -> properties.setProperty("watermark." + source.key(), watermark.toString()));
+        shards.forEach((source, byNumber) -> byNumber.values().forEach(shard -> properties.setProperty(
+                "shard." + source.key() + "." + shard.number(),
+                shard.urls() + "," + (shard.lastModified() != null ? shard.lastModified() : "") + "," + shard.file())));
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Sitemap shards and watermarks");
+        }
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    // ================ STARTUP ================
+
+    @Override
+    public String name() {
+        return "sitemap-generation";
+    }
+
+    @Override
+    public int order() {
+        // After the taxonomy counters are seeded
+        return 200;
+    }
+
+    @Override
+    public boolean oneTime() {
+        return false;
+    }
+
+    /**
+     * Nodes of a deploy start together: the one holding the lease reconciles and the others only
+     * write their changes, which still covers missing files
+     */
+    @Override
+    public int run() {
+        GenerationResult result = clusterLock.runLocked(RECONCILE_LOCK, reconcileLease, this::reconcile)
+                .orElseGet(() -> {
+                    log.info("Sitemap reconcile is running on another node, writing changes only");
+                    return generate();
+                });
+        return (int) result.urls();
+    }
+
+    // ================ HIBERNATE EVENTS ================
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        SitemapSource source = SitemapSource.of(event.getPersister().getMappedClass());
+        if (source != null && event.getId() instanceof Long id) {
+            deletedShards.get(source).add(id / urlsPerShard);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return SitemapSource.of(persister.getMappedClass()) != null;
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.itech.itech_backend.modules.shared.seo;
+
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.city.model.City;
+
+/**
+ * Tables whose rows become public pages in the sitemap. Each source is split into shards by id
+ * range, so a changed row always maps to the same shard. The default path of a page can
+ * be overridden with {@code seo.sitemap.path.<key>}; {@code {id}} and {@code {slug}} are
+ * replaced per row.
+ */
+public enum SitemapSource {
+
+    PRODUCTS("products", "buyer_products", null, "is_active = TRUE AND is_approved = TRUE",
+            "/products/{id}", Product.class),
+
+    CATEGORIES("categories", "buyer_category", "slug", "is_active = TRUE",
+            "/categories/{slug}", Category.class),
+
+    SUB_CATEGORIES("sub-categories", "sub_categories", "slug", "is_active = TRUE",
+            "/categories/sub/{slug}", SubCategory.class),
+
+    MICRO_CATEGORIES("micro-categories", "buyer_micro_category", "slug", "is_active = TRUE",
+            "/categories/micro/{slug}", MicroCategory.class),
+
+    CITIES("cities", "cities", "slug", "is_active = TRUE",
+            "/cities/{slug}", City.class);
+
+    private final String key;
+    private final String table;
+    private final String slugColumn;
+    private final String liveCondition;
+    private final String defaultPath;
+    private final Class<?> entity;
+
+    SitemapSource(String key, String table, String slugColumn, String liveCondition, String defaultPath,
+                  Class<?> entity) {
+        this.key = key;
+        this.table = table;
+        this.slugColumn = slugColumn;
+        this.liveCondition = liveCondition;
+        this.defaultPath = defaultPath;
+        this.entity = entity;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /**
+     * Column holding the page slug, or null when pages are addressed by id
+     */
+    public String slugColumn() {
+        return slugColumn;
+    }
+
+    /**
+     * SQL condition for rows that have a public page
+     */
+    public String liveCondition() {
+        return liveCondition;
+    }
+
+    public String defaultPath() {
+        return defaultPath;
+    }
+
+    public Class<?> entity() {
+        return entity;
+    }
+
+    /**
+     * Name of a shard's files before their version, e.g. {@code products-3}
+     */
+    public String stem(long shard) {
+        return key + "-" + shard;
+    }
+
+    public static SitemapSource of(Class<?> entity) {
+        for (SitemapSource source : values()) {
+            if (source.entity == entity) {
+                return source;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.itech.itech_backend.modules.shared.seo;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams one sitemap file: a gzip-compressed {@code <urlset>} shard or the plain
+ * {@code <sitemapindex>} that lists the shards.
+ *
+ * Entries go straight to the output stream, so memory use does not depend on the number of
+ * URLs. The file is written to a temporary file and moved on {@link #commit()} to
+ * {@code <stem>-<version>.<extension>}, where the version is a digest of its bytes, so a
+ * published file never changes: a reader that took its size keeps getting exactly those bytes
+ * (which sendfile relies on), and rewriting unchanged content lands on the same name. Closing
+ * without committing discards the partial file.
+ */
+public final class SitemapWriter implements Closeable {
+
+    /** Most URLs the sitemap protocol allows in one file */
+    public static final int MAX_URLS = 50_000;
+
+    private static final String NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private final Path directory;
+    private final String stem;
+    private final String extension;
+    private final Path temp;
+    private final MessageDigest digest;
+    private final Writer out;
+    private final String entryTag;
+    private final String closingTag;
+    private int count;
+    private boolean committed;
+
+    private SitemapWriter(Path directory, String stem, String extension, boolean gzip, String rootTag, String entryTag)
+            throws IOException {
+        this.directory = directory;
+        this.stem = stem;
+        this.extension = extension;
+        this.temp = directory.resolve(stem + ".tmp");
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        // Digest the bytes as stored, after compression
+        OutputStream stream = new DigestOutputStream(Files.newOutputStream(temp), digest);
+        if (gzip) {
+            stream = new FastGzipOutputStream(stream);
+        }
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+        this.entryTag = entryTag;
+        this.closingTag = "</" + rootTag + ">\n";
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<" + rootTag + " xmlns=\"" + NAMESPACE + "\">\n");
+    }
+
+    /**
+     * A gzip-compressed shard of page URLs, published as {@code <stem>-<version>.xml.gz}
+     */
+    public static SitemapWriter urlset(Path directory, String stem) throws IOException {
+        return new SitemapWriter(directory, stem, "xml.gz", true, "urlset", "url");
+    }
+
+    /**
+     * The uncompressed index of shard URLs, published as {@code <stem>-<version>.xml}
+     */
+    public static SitemapWriter index(Path directory, String stem) throws IOException {
+        return new SitemapWriter(directory, stem, "xml", false, "sitemapindex", "sitemap");
+    }
+
+    /**
+     * Add one entry; {@code lastModified} may be null
+     */
+    public void add(String loc, LocalDate lastModified) throws IOException {
+        if (count == MAX_URLS) {
+            throw new IllegalStateException("A sitemap file holds at most " + MAX_URLS + " URLs");
+        }
+        out.write('<');
+        out.write(entryTag);
+        out.write("><loc>");
+        escape(loc);
+        out.write("</loc>");
+        if (lastModified != null) {
+            out.write("<lastmod>");
+            out.write(lastModified.toString());
+            out.write("</lastmod>");
+        }
+        out.write("</");
+        out.write(entryTag);
+        out.write(">\n");
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Finish the file and publish it under its versioned name, which is returned
+     */
+    public Path commit() throws IOException {
+        out.write(closingTag);
+        out.close();
+        String version = HexFormat.of().formatHex(digest.digest(), 0, 8);
+        Path target = directory.resolve(stem + "-" + version + "." + extension);
+        if (Files.exists(target)) {
+            // Same content as a published file, which is left as it is
+            Files.delete(temp);
+        } else {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        committed = true;
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private void escape(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&apos;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.write(value, start, i - start);
+                out.write(entity);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+    }
+
+    /**
+     * Sitemaps are rewritten often and fetched rarely, so compress for speed over size
+     */
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 1 << 16);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
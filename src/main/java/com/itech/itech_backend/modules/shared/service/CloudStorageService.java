@@ -1,6 +1,8 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import com.itech.itech_backend.modules.shared.resilience.BulkheadRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -45,6 +47,9 @@ public class CloudStorageService {
     @Value("${aws.s3.base-url:}")
     private String baseUrl;
 
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
     private S3Client s3Client;
 
     private S3Client getS3Client() {
@@ -63,6 +68,14 @@ public class CloudStorageService {
         return s3Client;
     }
 
+    /**
+     * S3 calls block the calling thread for the whole transfer; the bulkhead keeps slow uploads
+     * from occupying every request thread
+     */
+    private void putObject(PutObjectRequest request, RequestBody body) {
+        bulkheadRegistry.bulkhead("s3", 16, 5000).run(() -> getS3Client().putObject(request, body));
+    }
+
     public boolean isCloudStorageEnabled() {
         return cloudStorageEnabled && hasValidCredentials();
     }
@@ -89,7 +102,7 @@ public class CloudStorageService {
                     .contentType(file.getContentType())
                     .build();
 
-            getS3Client().putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+            putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
             
             String fileUrl = generateFileUrl(key);
             log.info("Successfully uploaded file to cloud storage: {}", fileUrl);
@@ -161,7 +174,7 @@ public class CloudStorageService {
                         .build();
 
                 byte[] imageBytes = baos.toByteArray();
-                getS3Client().putObject(putObjectRequest, RequestBody.fromBytes(imageBytes));
+                putObject(putObjectRequest, RequestBody.fromBytes(imageBytes));
                 
                 String imageUrl = generateFileUrl(key);
                 uploadedUrls.add(imageUrl);
@@ -205,7 +218,7 @@ public class CloudStorageService {
                     .contentType("image/" + format)
                     .build();
 
-            getS3Client().putObject(putObjectRequest, RequestBody.fromBytes(baos.toByteArray()));
+            putObject(putObjectRequest, RequestBody.fromBytes(baos.toByteArray()));
             log.debug("Successfully uploaded thumbnail: {}", key);
             
         } catch (Exception e) {
@@ -226,7 +239,7 @@ public class CloudStorageService {
                     .key(key)
                     .build();
 
-            getS3Client().deleteObject(deleteObjectRequest);
+            bulkheadRegistry.bulkhead("s3", 16, 5000).run(() -> getS3Client().deleteObject(deleteObjectRequest));
             log.info("Successfully deleted file from cloud storage: {}", key);
             
         } catch (S3Exception e) {
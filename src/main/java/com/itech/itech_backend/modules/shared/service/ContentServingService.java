@@ -0,0 +1,505 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.itech.itech_backend.modules.shared.model.Banner;
+import com.itech.itech_backend.modules.shared.model.Campaign;
+import com.itech.itech_backend.modules.shared.model.ContentStatBucket;
+import com.itech.itech_backend.modules.shared.model.ContentSubjectType;
+import com.itech.itech_backend.modules.shared.repository.BannerRepository;
+import com.itech.itech_backend.modules.shared.repository.CampaignRepository;
+import com.itech.itech_backend.modules.shared.repository.ContentStatBucketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Serves banners and campaigns from memory and counts their impressions and clicks.
+ *
+ * Active banners (grouped by position) and active campaigns are held in an immutable snapshot
+ * with their category and city targeting pre-parsed, so serving a page is a list scan with no
+ * query. The snapshot is rebuilt after every banner or campaign change commits on this node and
+ * on a fixed interval, which picks up edits made on other nodes and campaigns whose status was
+ * changed directly in the database.
+ *
+ * Impressions and clicks go to {@link LongAdder} counters keyed by subject and hour. A
+ * scheduled flush drains them into {@code content_stat_buckets} with one batched UPDATE (and a
+ * batched INSERT for hours without a row), and adds campaign totals to {@code campaigns} the
+ * same way. Reports read the buckets plus whatever this node has not flushed yet. Counts of a
+ * node that dies between flushes are lost.
+ */
+@Service
+@Slf4j
+public class ContentServingService {
+
+    public enum Event {
+        IMPRESSION, CLICK
+    }
+
+    public record HourlyStat(LocalDateTime hour, long impressions, long clicks) {}
+
+    public record ContentReport(ContentSubjectType type, Long subjectId, String name,
+                                LocalDateTime from, LocalDateTime to,
+                                long impressions, long clicks, double clickThroughRate,
+                                List<HourlyStat> hours) {}
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final long HOUR_MS = 3_600_000L;
+
+    private static final String UPDATE_SQL = """
+            UPDATE content_stat_buckets
+               SET impressions = impressions + ?, clicks = clicks + ?, updated_at = ?
+             WHERE subject_type = ? AND subject_id = ? AND bucket_start = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO content_stat_buckets (impressions, clicks, updated_at, subject_type, subject_id, bucket_start)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CAMPAIGN_TOTALS_SQL =
+            "UPDATE campaigns SET view_count = view_count + ?, click_count = click_count + ? WHERE id = ?";
+
+    private final BannerRepository bannerRepository;
+    private final CampaignRepository campaignRepository;
+    private final ContentStatBucketRepository bucketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<StatKey, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+    private volatile Snapshot snapshot;
+    private volatile HourSlot currentHour = new HourSlot(0, 0, null);
+
+    public ContentServingService(BannerRepository bannerRepository,
+                                 CampaignRepository campaignRepository,
+                                 ContentStatBucketRepository bucketRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.bannerRepository = bannerRepository;
+        this.campaignRepository = campaignRepository;
+        this.bucketRepository = bucketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ================ SERVING ================
+
+    /**
+     * Active banners, in display order, across all positions
+     */
+    public List<Banner> activeBanners() {
+        return snapshot().banners().stream().map(BannerSlot::banner).toList();
+    }
+
+    /**
+     * Banners for one position (all positions when null) that target the given category and city
+     * (either may be null), in display order. Each returned banner is counted as an impression.
+     */
+    public List<Banner> serveBanners(String position, Long categoryId, String city) {
+        Snapshot current = snapshot();
+        String positionKey = normalise(position);
+        List<BannerSlot> slots = positionKey == null
+                ? current.banners()
+                : current.byPosition().getOrDefault(positionKey, List.of());
+        String cityKey = normalise(city);
+        List<Banner> served = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (BannerSlot slot : slots) {
+            if (slot.targeting().matches(categoryId, cityKey)) {
+                served.add(slot.banner());
+                count(ContentSubjectType.BANNER, slot.banner().getId(), Event.IMPRESSION, hourOf(now));
+            }
+        }
+        return served;
+    }
+
+    /**
+     * Active campaigns running now that target the given category and city
+     */
+    public List<Campaign> activeCampaigns(Long categoryId, String city) {
+        String cityKey = normalise(city);
+        long now = System.currentTimeMillis();
+        List<Campaign> running = new ArrayList<>();
+        for (CampaignSlot slot : snapshot().campaigns().values()) {
+            if (slot.runsAt(now) && slot.targeting().matches(categoryId, cityKey)) {
+                running.add(slot.campaign());
+            }
+        }
+        return running;
+    }
+
+    // ================ TRACKING ================
+
+    /**
+     * Count an impression or click now. Subjects not in the snapshot (unknown, inactive or
+     * deleted) are ignored so stray beacons cannot create counters.
+     *
+     * @return whether the event was counted
+     */
+    public boolean track(ContentSubjectType type, Long subjectId, Event event) {
+        return track(type, subjectId, event, null);
+    }
+
+    /**
+     * Count an event against the hour it happened in, for beacons the client sends late
+     */
+    public boolean track(ContentSubjectType type, Long subjectId, Event event, LocalDateTime occurredAt) {
+        if (subjectId == null || !snapshot().serves(type, subjectId)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        // A clock ahead of ours would keep a counter alive until that hour has passed
+        LocalDateTime hour = occurredAt != null && epochMillis(occurredAt) <= now
+                ? occurredAt.truncatedTo(ChronoUnit.HOURS)
+                : hourOf(now);
+        count(type, subjectId, event, hour);
+        return true;
+    }
+
+    private void count(ContentSubjectType type, Long subjectId, Event event, LocalDateTime hour) {
+        Counter counter = counters.computeIfAbsent(new StatKey(type, subjectId, hour), key -> new Counter());
+        (event == Event.CLICK ? counter.clicks : counter.impressions).increment();
+    }
+
+    // ================ SNAPSHOT ================
+
+    /**
+     * Rebuild the snapshot once the current transaction commits, or now outside one
+     */
+    public void contentChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${content.serving.refresh-interval-ms:60000}")
+    public void refresh() {
+        Map<String, List<BannerSlot>> byPosition = new LinkedHashMap<>();
+        List<BannerSlot> banners = new ArrayList<>();
+        for (Banner banner : bannerRepository.findByIsActiveTrueOrderByDisplayOrder()) {
+            BannerSlot slot = new BannerSlot(banner, Targeting.parse(banner.getTargetCategoryIds(), banner.getTargetCities()));
+            banners.add(slot);
+            String position = normalise(banner.getPosition());
+            if (position != null) {
+                byPosition.computeIfAbsent(position, key -> new ArrayList<>()).add(slot);
+            }
+        }
+        Map<Long, CampaignSlot> campaigns = new LinkedHashMap<>();
+        for (Campaign campaign : campaignRepository.findByStatus(ACTIVE)) {
+            campaigns.put(campaign.getId(), new CampaignSlot(campaign,
+                    Targeting.parse(campaign.getTargetCategoryIds(), campaign.getTargetCities()),
+                    campaign.getStartDate() != null ? epochMillis(campaign.getStartDate()) : Long.MIN_VALUE,
+                    campaign.getEndDate() != null ? epochMillis(campaign.getEndDate()) : Long.MAX_VALUE));
+        }
+        byPosition.replaceAll((position, slots) -> List.copyOf(slots));
+        snapshot = new Snapshot(Map.copyOf(byPosition), List.copyOf(banners), Collections.unmodifiableMap(campaigns),
+                banners.stream().map(slot -> slot.banner().getId()).collect(Collectors.toUnmodifiableSet()));
+        log.debug("Content snapshot rebuilt: {} banners, {} campaigns", banners.size(), campaigns.size());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // ================ FLUSH ================
+
+    /**
+     * Drain the counters into hourly buckets and campaign totals
+     */
+    @Scheduled(fixedDelayString = "${content.stats.flush-interval-ms:5000}")
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            // Sorted so concurrent flushes on several nodes lock bucket rows in the same order
+            Map<StatKey, long[]> drained = new TreeMap<>();
+            for (Map.Entry<StatKey, Counter> entry : counters.entrySet()) {
+                Counter counter = entry.getValue();
+                long impressions = counter.impressions.sumThenReset();
+                long clicks = counter.clicks.sumThenReset();
+                if (impressions != 0 || clicks != 0) {
+                    drained.put(entry.getKey(), new long[]{impressions, clicks});
+                } else if (epochMillis(entry.getKey().hour()) + 2 * HOUR_MS < now) {
+                    // Nothing counts against an hour that ended over an hour ago
+                    counters.remove(entry.getKey(), counter);
+                }
+            }
+            if (drained.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(drained));
+            } catch (RuntimeException e) {
+                log.warn("Could not flush content stats, will retry: {}", e.getMessage());
+                drained.forEach((key, values) -> {
+                    Counter counter = counters.computeIfAbsent(key, k -> new Counter());
+                    counter.impressions.add(values[0]);
+                    counter.clicks.add(values[1]);
+                });
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Could not flush content stats on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void write(Map<StatKey, long[]> drained) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        Map<Long, long[]> campaignTotals = new TreeMap<>();
+        drained.forEach((key, values) -> {
+            rows.add(new Object[]{values[0], values[1], now, key.type().name(), key.subjectId(), Timestamp.valueOf(key.hour())});
+            if (key.type() == ContentSubjectType.CAMPAIGN) {
+                long[] total = campaignTotals.computeIfAbsent(key.subjectId(), id -> new long[2]);
+                total[0] += values[0];
+                total[1] += values[1];
+            }
+        });
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        // First counts of this subject in this hour
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!campaignTotals.isEmpty()) {
+            jdbcTemplate.batchUpdate(CAMPAIGN_TOTALS_SQL, campaignTotals.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue()[0], entry.getValue()[1], entry.getKey()})
+                    .toList());
+        }
+        log.debug("Flushed {} content stat buckets ({} new)", rows.size(), inserts.size());
+    }
+
+    // ================ REPORTS ================
+
+    /**
+     * Hour-by-hour impressions and clicks of one banner or campaign in {@code [from, to)}
+     */
+    public ContentReport report(ContentSubjectType type, Long subjectId, LocalDateTime from, LocalDateTime to) {
+        Map<LocalDateTime, long[]> hours = new TreeMap<>();
+        for (ContentStatBucket bucket : bucketRepository.findHours(type, subjectId, from, to)) {
+            hours.put(bucket.getBucketStart(), new long[]{bucket.getImpressions(), bucket.getClicks()});
+        }
+        counters.forEach((key, counter) -> {
+            if (key.type() == type && key.subjectId() == subjectId && inRange(key.hour(), from, to)) {
+                addUnflushed(hours, key.hour(), counter);
+            }
+        });
+
+        List<HourlyStat> stats = new ArrayList<>(hours.size());
+        long impressions = 0;
+        long clicks = 0;
+        for (Map.Entry<LocalDateTime, long[]> hour : hours.entrySet()) {
+            stats.add(new HourlyStat(hour.getKey(), hour.getValue()[0], hour.getValue()[1]));
+            impressions += hour.getValue()[0];
+            clicks += hour.getValue()[1];
+        }
+        return new ContentReport(type, subjectId, nameOf(type, subjectId), from, to,
+                impressions, clicks, clickThroughRate(impressions, clicks), stats);
+    }
+
+    /**
+     * Totals per campaign in {@code [from, to)}, most impressions first
+     */
+    public List<ContentReport> campaignReports(LocalDateTime from, LocalDateTime to) {
+        Map<Long, long[]> totals = new HashMap<>();
+        for (ContentStatBucketRepository.SubjectTotals row : bucketRepository.sumBySubject(ContentSubjectType.CAMPAIGN, from, to)) {
+            totals.put(row.getSubjectId(), new long[]{value(row.getImpressions()), value(row.getClicks())});
+        }
+        counters.forEach((key, counter) -> {
+            if (key.type() == ContentSubjectType.CAMPAIGN && inRange(key.hour(), from, to)) {
+                addUnflushed(totals, key.subjectId(), counter);
+            }
+        });
+        Map<Long, String> names = new HashMap<>();
+        campaignRepository.findAllById(totals.keySet()).forEach(campaign -> names.put(campaign.getId(), campaign.getName()));
+
+        return totals.entrySet().stream()
+                .map(entry -> new ContentReport(ContentSubjectType.CAMPAIGN, entry.getKey(), names.get(entry.getKey()),
+                        from, to, entry.getValue()[0], entry.getValue()[1],
+                        clickThroughRate(entry.getValue()[0], entry.getValue()[1]), List.of()))
+                .sorted(Comparator.comparingLong(ContentReport::impressions).reversed())
+                .toList();
+    }
+
+    // ================ HELPERS ================
+
+    // Drained counters stay in the map until their hour is over; they must not add empty rows
+    private static <K> void addUnflushed(Map<K, long[]> totals, K key, Counter counter) {
+        long impressions = counter.impressions.sum();
+        long clicks = counter.clicks.sum();
+        if (impressions != 0 || clicks != 0) {
+            long[] values = totals.computeIfAbsent(key, k -> new long[2]);
+            values[0] += impressions;
+            values[1] += clicks;
+        }
+    }
+
+    private String nameOf(ContentSubjectType type, Long subjectId) {
+        return type == ContentSubjectType.BANNER
+                ? bannerRepository.findById(subjectId).map(Banner::getTitle).orElse(null)
+                : campaignRepository.findById(subjectId).map(Campaign::getName).orElse(null);
+    }
+
+    private LocalDateTime hourOf(long now) {
+        HourSlot slot = currentHour;
+        if (now < slot.from() || now >= slot.until()) {
+            LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), zone).truncatedTo(ChronoUnit.HOURS);
+            long from = epochMillis(start);
+            slot = new HourSlot(from, from + HOUR_MS, start);
+            currentHour = slot;
+        }
+        return slot.start();
+    }
+
+    private long epochMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private static boolean inRange(LocalDateTime hour, LocalDateTime from, LocalDateTime to) {
+        return !hour.isBefore(from) && hour.isBefore(to);
+    }
+
+    private static double clickThroughRate(long impressions, long clicks) {
+        return impressions > 0 ? (double) clicks / impressions : 0.0;
+    }
+
+    private static long value(Long count) {
+        return count != null ? count : 0L;
+    }
+
+    private static String normalise(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record StatKey(ContentSubjectType type, long subjectId, LocalDateTime hour) implements Comparable<StatKey> {
+        @Override
+        public int compareTo(StatKey other) {
+            int byType = type.compareTo(other.type);
+            if (byType != 0) {
+                return byType;
+            }
+            int byId = Long.compare(subjectId, other.subjectId);
+            return byId != 0 ? byId : hour.compareTo(other.hour);
+        }
+    }
+
+    private static final class Counter {
+        final LongAdder impressions = new LongAdder();
+        final LongAdder clicks = new LongAdder();
+    }
+
+    private record HourSlot(long from, long until, LocalDateTime start) {}
+
+    /**
+     * Categories and cities a banner or campaign is limited to; an empty set matches anything,
+     * a non-empty one only requests that name a member
+     */
+    private record Targeting(Set<Long> categoryIds, Set<String> cities) {
+
+        static Targeting parse(String categoryIds, String cities) {
+            Set<Long> categories = new HashSet<>();
+            for (String id : split(categoryIds)) {
+                try {
+                    categories.add(Long.valueOf(id));
+                } catch (NumberFormatException e) {
+                    log.warn("⚠️ Ignoring target category '{}': not a category id", id);
+                }
+            }
+            return new Targeting(Set.copyOf(categories),
+                    split(cities).stream().map(ContentServingService::normalise).collect(Collectors.toUnmodifiableSet()));
+        }
+
+        boolean matches(Long categoryId, String city) {
+            return (categoryIds.isEmpty() || categoryId != null && categoryIds.contains(categoryId))
+                    && (cities.isEmpty() || city != null && cities.contains(city));
+        }
+
+        private static List<String> split(String csv) {
+            if (csv == null || csv.isBlank()) {
+                return List.of();
+            }
+            List<String> values = new ArrayList<>();
+            for (String value : csv.split(",")) {
+                if (!value.isBlank()) {
+                    values.add(value.trim());
+                }
+            }
+            return values;
+        }
+    }
+
+    private record BannerSlot(Banner banner, Targeting targeting) {}
+
+    private record CampaignSlot(Campaign campaign, Targeting targeting, long startMillis, long endMillis) {
+        boolean runsAt(long now) {
+            return now >= startMillis && now <= endMillis;
+        }
+    }
+
+    private record Snapshot(Map<String, List<BannerSlot>> byPosition, List<BannerSlot> banners,
+                            Map<Long, CampaignSlot> campaigns, Set<Long> bannerIds) {
+        boolean serves(ContentSubjectType type, Long subjectId) {
+            return type == ContentSubjectType.BANNER ? bannerIds.contains(subjectId) : campaigns.containsKey(subjectId);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itech.itech_backend.modules.shared.model.Coupon;
+import com.itech.itech_backend.modules.shared.repository.CouponRedemptionRepository;
+import com.itech.itech_backend.modules.shared.repository.CouponRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Coupon validation and redemption under flash-campaign load.
+ *
+ * Coupons are held in a registry keyed by code with their validity window pre-parsed to epoch
+ * millis, so a check after warm-up is a map lookup. A use of a limited coupon is reserved with
+ * one conditional {@code UPDATE ... WHERE used_count < usage_limit} committed on its own, so the
+ * database row is the single arbiter across nodes and the row lock is held for one statement
+ * only. Once that update finds the coupon used up the registry marks it exhausted and every
+ * later request is refused without touching the database. Unlimited coupons are counted in
+ * memory and their uses added with the next flush.
+ *
+ * Each coupon entry carries the users that redeemed it, loaded with the entry, so a repeat by
+ * the same user is refused in memory. Redemption rows are queued and inserted in batches by a
+ * scheduled flush; the unique (coupon, user) constraint catches the rare repeat made on two
+ * nodes at once, and that use is handed back. A use reserved just before a crash may be counted
+ * without its row, which errs on the side of never granting more than the limit. A released use
+ * is taken back from the queue or the table while no flush is running, so it is found in one of
+ * the two.
+ */
+@Service
+@Slf4j
+public class CouponRedemptionService {
+
+    public enum Outcome {
+        REDEEMED, NOT_FOUND, INACTIVE, NOT_STARTED, EXPIRED, EXHAUSTED, ALREADY_REDEEMED
+    }
+
+    public record Redemption(Long couponId, Long userId, String reference, LocalDateTime redeemedAt, boolean limited) {}
+
+    private static final String INSERT_SQL =
+            "INSERT INTO coupon_redemptions (coupon_id, user_id, reference, redeemed_at) VALUES (?, ?, ?, ?)";
+
+    private final CouponRepository couponRepository;
+    private final CouponRedemptionRepository redemptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final int batchSize;
+
+    private final Cache<String, Entry> registry;
+    private final Queue<Redemption> pending = new ConcurrentLinkedQueue<>();
+    // Uses of unlimited coupons not yet added to coupons.used_count
+    private final Map<Long, AtomicInteger> unlimitedUses = new ConcurrentHashMap<>();
+    // Held by a flush; a release waits for it so no redemption is between queue and table
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public CouponRedemptionService(CouponRepository couponRepository,
+                                   CouponRedemptionRepository redemptionRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${coupons.registry.max-codes:10000}") long maxCodes,
+                                   @Value("${coupons.registry.ttl-seconds:60}") long ttlSeconds,
+                                   @Value("${coupons.redemption.batch-size:500}") int batchSize) {
+        this.couponRepository = couponRepository;
+        this.redemptionRepository = redemptionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.registry = Caffeine.newBuilder()
+                .maximumSize(maxCodes)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Whether the code could be redeemed now. Uses the registry, so a limited coupon used up on
+     * another node may still validate until its entry is reloaded; {@link #redeem} never overshoots.
+     */
+    public Outcome check(String code, Long userId) {
+        Entry entry = entry(code);
+        if (entry == null) {
+            return Outcome.NOT_FOUND;
+        }
+        Outcome window = entry.window(System.currentTimeMillis());
+        if (window != null) {
+            return window;
+        }
+        if (userId != null && entry.redeemedBy.contains(userId)) {
+            return Outcome.ALREADY_REDEEMED;
+        }
+        return entry.exhausted ? Outcome.EXHAUSTED : Outcome.REDEEMED;
+    }
+
+    /**
+     * Take one use of the coupon for the user; a null user is anonymous and not deduplicated.
+     * The use is committed on return, independent of any surrounding transaction; call
+     * {@link #release} or {@link #releaseOrder} if the order it was taken for fails.
+     */
+    public Outcome redeem(String code, Long userId, String reference) {
+        Entry entry = entry(code);
+        if (entry == null) {
+            return Outcome.NOT_FOUND;
+        }
+        Outcome window = entry.window(System.currentTimeMillis());
+        if (window != null) {
+            return window;
+        }
+        if (entry.exhausted) {
+            return Outcome.EXHAUSTED;
+        }
+        if (userId != null && !entry.redeemedBy.add(userId)) {
+            return Outcome.ALREADY_REDEEMED;
+        }
+        if (entry.limited()) {
+            Integer reserved = ownTransaction.execute(status -> couponRepository.reserveLimitedUse(entry.id));
+            if (reserved == null || reserved == 0) {
+                entry.exhausted = true;
+                if (userId != null) {
+                    entry.redeemedBy.remove(userId);
+                }
+                return Outcome.EXHAUSTED;
+            }
+        } else {
+            unlimitedUses.computeIfAbsent(entry.id, id -> new AtomicInteger()).incrementAndGet();
+        }
+        entry.used.incrementAndGet();
+        pending.add(new Redemption(entry.id, userId, reference, LocalDateTime.now(), entry.limited()));
+        return Outcome.REDEEMED;
+    }
+
+    /**
+     * Give back a use taken by {@link #redeem}, e.g. when the order it was applied to failed.
+     * The use is returned only if a redemption row was removed, so a repeated or unmatched
+     * release leaves the count alone.
+     */
+    public void release(String code, Long userId) {
+        Entry entry = entry(code);
+        if (entry == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Redemption queued = takeQueued(redemption ->
+                    redemption.couponId().equals(entry.id) && Objects.equals(redemption.userId(), userId));
+            if (queued != null) {
+                giveBack(List.of(queued));
+                return;
+            }
+            Integer deleted = transactionTemplate.execute(status -> {
+                int rows = userId != null
+                        ? jdbcTemplate.update("DELETE FROM coupon_redemptions WHERE coupon_id = ? AND user_id = ?", entry.id, userId)
+                        : deleteAnonymousRedemption(entry.id);
+                if (rows > 0) {
+                    couponRepository.addUses(entry.id, -1);
+                }
+                return rows;
+            });
+            if (deleted != null && deleted > 0) {
+                returned(entry.id, userId);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Give back every use taken with {@code reference} as the order reference, e.g. when that
+     * order is cancelled or its creation rolls back
+     */
+    public void releaseOrder(String reference) {
+        if (reference == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Redemption> queued = new ArrayList<>();
+            Redemption next;
+            while ((next = takeQueued(redemption -> reference.equals(redemption.reference()))) != null) {
+                queued.add(next);
+            }
+            giveBack(queued);
+
+            List<Map<String, Object>> rows = transactionTemplate.execute(status -> {
+                List<Map<String, Object>> found = jdbcTemplate.queryForList(
+                        "SELECT coupon_id, user_id FROM coupon_redemptions WHERE reference = ?", reference);
+                if (!found.isEmpty()) {
+                    jdbcTemplate.update("DELETE FROM coupon_redemptions WHERE reference = ?", reference);
+                    for (Map<String, Object> row : found) {
+                        couponRepository.addUses(((Number) row.get("coupon_id")).longValue(), -1);
+                    }
+                }
+                return found;
+            });
+            for (Map<String, Object> row : rows) {
+                Number userId = (Number) row.get("user_id");
+                returned(((Number) row.get("coupon_id")).longValue(), userId != null ? userId.longValue() : null);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drop the cached entry so an edited or new coupon is seen on the next request
+     */
+    public void invalidate(String code) {
+        registry.invalidate(code);
+    }
+
+    /**
+     * Insert queued redemption rows and add queued uses of unlimited coupons
+     */
+    @Scheduled(fixedDelayString = "${coupons.redemption.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Redemption> batch = new ArrayList<>(batchSize);
+            Redemption next;
+            while ((next = pending.poll()) != null) {
+                batch.add(next);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            Map<Long, Integer> uses = new HashMap<>();
+            unlimitedUses.forEach((couponId, count) -> {
+                int taken = count.getAndSet(0);
+                if (taken != 0) {
+                    uses.put(couponId, taken);
+                }
+            });
+            if (!uses.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> uses.forEach(couponRepository::addUses));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Redemption> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            log.debug("🎟️ Recorded {} coupon redemptions", batch.size());
+        } catch (DataIntegrityViolationException e) {
+            // A user redeemed on two nodes at once; keep the first row and hand the other use back
+            for (Redemption redemption : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(redemption)));
+                } catch (DataIntegrityViolationException duplicate) {
+                    log.warn("⚠️ Duplicate redemption of coupon {} by user {}; use returned",
+                            redemption.couponId(), redemption.userId());
+                    if (redemption.limited()) {
+                        transactionTemplate.executeWithoutResult(status -> couponRepository.addUses(redemption.couponId(), -1));
+                    } else {
+                        unlimitedUses.computeIfAbsent(redemption.couponId(), id -> new AtomicInteger()).decrementAndGet();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not record coupon redemptions, will retry: {}", e.getMessage());
+            pending.addAll(batch);
+        }
+    }
+
+    private Redemption takeQueued(Predicate<Redemption> match) {
+        for (Redemption redemption : pending) {
+            if (match.test(redemption) && pending.remove(redemption)) {
+                return redemption;
+            }
+        }
+        return null;
+    }
+
+    // Uses whose rows never reached the table; a limited use is already in coupons.used_count
+    private void giveBack(List<Redemption> queued) {
+        List<Long> limited = new ArrayList<>();
+        for (Redemption redemption : queued) {
+            if (redemption.limited()) {
+                limited.add(redemption.couponId());
+            } else {
+                unlimitedUses.computeIfAbsent(redemption.couponId(), id -> new AtomicInteger()).decrementAndGet();
+            }
+        }
+        if (!limited.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> limited.forEach(id -> couponRepository.addUses(id, -1)));
+        }
+        for (Redemption redemption : queued) {
+            returned(redemption.couponId(), redemption.userId());
+        }
+    }
+
+    // Reopen the cached entry of a coupon whose use was given back
+    private void returned(Long couponId, Long userId) {
+        for (Entry entry : registry.asMap().values()) {
+            if (couponId.equals(entry.id)) {
+                if (userId != null) {
+                    entry.redeemedBy.remove(userId);
+                }
+                entry.used.decrementAndGet();
+                entry.exhausted = false;
+            }
+        }
+    }
+
+    // Anonymous uses are interchangeable; take back the oldest one
+    private int deleteAnonymousRedemption(Long couponId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM coupon_redemptions WHERE coupon_id = ? AND user_id IS NULL ORDER BY id LIMIT 1",
+                Long.class, couponId);
+        return ids.isEmpty() ? 0 : jdbcTemplate.update("DELETE FROM coupon_redemptions WHERE id = ?", ids.get(0));
+    }
+
+    private void insert(List<Redemption> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, redemption) -> {
+            ps.setLong(1, redemption.couponId());
+            ps.setObject(2, redemption.userId());
+            ps.setString(3, redemption.reference());
+            ps.setTimestamp(4, Timestamp.valueOf(redemption.redeemedAt()));
+        });
+    }
+
+    private Entry entry(String code) {
+        if (code == null || code.isBlank()) {
+            return null;
+        }
+        Entry entry = registry.get(code, key -> load(key).orElse(Entry.MISSING));
+        return entry == Entry.MISSING ? null : entry;
+    }
+
+    private Optional<Entry> load(String code) {
+        return couponRepository.findByCode(code).map(coupon -> {
+            Entry entry = new Entry(coupon);
+            entry.redeemedBy.addAll(redemptionRepository.findUserIdsByCouponId(coupon.getId()));
+            // Rows still queued from before a reload are not in the table yet
+            for (Redemption redemption : pending) {
+                if (redemption.couponId().equals(coupon.getId()) && redemption.userId() != null) {
+                    entry.redeemedBy.add(redemption.userId());
+                }
+            }
+            return entry;
+        });
+    }
+
+    private static final class Entry {
+
+        static final Entry MISSING = new Entry();
+
+        final Long id;
+        final boolean active;
+        final long validFrom;
+        final long validUntil;
+        final int usageLimit;
+        final AtomicInteger used;
+        final Set<Long> redeemedBy = ConcurrentHashMap.newKeySet();
+        volatile boolean exhausted;
+
+        private Entry() {
+            this.id = null;
+            this.active = false;
+            this.validFrom = Long.MIN_VALUE;
+            this.validUntil = Long.MAX_VALUE;
+            this.usageLimit = 0;
+            this.used = new AtomicInteger();
+        }
+
+        Entry(Coupon coupon) {
+            this.id = coupon.getId();
+            this.active = coupon.isActive();
+            this.validFrom = epochMillis(coupon.getValidFrom(), Long.MIN_VALUE);
+            this.validUntil = epochMillis(coupon.getValidUntil(), Long.MAX_VALUE);
+            this.usageLimit = coupon.getUsageLimit();
+            this.used = new AtomicInteger(coupon.getUsedCount());
+            this.exhausted = limited() && coupon.getUsedCount() >= usageLimit;
+        }
+
+        boolean limited() {
+            return usageLimit > 0;
+        }
+
+        // Null while the coupon is active and inside its validity window
+        Outcome window(long now) {
+            if (!active) {
+                return Outcome.INACTIVE;
+            }
+            if (now < validFrom) {
+                return Outcome.NOT_STARTED;
+            }
+            return now > validUntil ? Outcome.EXPIRED : null;
+        }
+
+        private static long epochMillis(LocalDateTime time, long fallback) {
+            return time == null ? fallback : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+}
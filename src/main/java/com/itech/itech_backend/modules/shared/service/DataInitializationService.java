@@ -6,9 +6,9 @@ import com.itech.itech_backend.modules.buyer.repository.*;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.startup.StartupTask;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
 @org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(name = "app.init.sample-data", havingValue = "true")
 @RequiredArgsConstructor
 @Slf4j
-public class DataInitializationService implements CommandLineRunner {
+public class DataInitializationService implements StartupTask {
 
     private final BuyerCategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
@@ -28,26 +28,34 @@ public class DataInitializationService implements CommandLineRunner {
     private final VendorsRepository vendorsRepository;
     private final UserRepository userRepository;
 
+    @Override
+    public String name() {
+        return "sample-data";
+    }
+
+    @Override
+    public int order() {
+        return 30;
+    }
+
     @Override
     @Transactional
-    public void run(String... args) {
+    public int run() {
         log.info("Initializing sample data...");
         
         // Check if data already exists
         if (categoryRepository.count() > 0) {
             log.info("Data already exists, skipping initialization");
-            return;
+            return 0;
         }
         
-        try {
-            initializeSampleData();
-            log.info("Sample data initialization completed successfully");
-        } catch (Exception e) {
-            log.error("Error initializing sample data: {}", e.getMessage(), e);
-        }
+        // Failures propagate so the transaction rolls back and the ledger retries next boot
+        int rows = initializeSampleData();
+        log.info("Sample data initialization completed successfully");
+        return rows;
     }
 
-    private void initializeSampleData() {
+    private int initializeSampleData() {
         // Create sample vendor first
         Vendors vendor = createSampleVendor();
         
@@ -87,6 +95,9 @@ public class DataInitializationService implements CommandLineRunner {
         
         createProduct("Casual Cotton T-Shirt", "Comfortable cotton t-shirt for everyday wear", 
                      599.0, 799.0, "FashionBrand", "Classic Tee", tshirts, vendor);
+        
+        // 3 categories, 5 subcategories, 7 microcategories and 5 products
+        return 20;
     }
 
     private Vendors createSampleVendor() {
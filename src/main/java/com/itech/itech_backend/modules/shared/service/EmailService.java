@@ -1,5 +1,6 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import com.itech.itech_backend.modules.shared.resilience.BulkheadRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -17,6 +18,9 @@ public class EmailService {
     @Autowired(required = false)
     private JavaMailSender mailSender;
     
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+    
     @Value("${spring.mail.username:noreply@indiantradeMart.com}")
     private String fromEmail;
     
@@ -68,14 +72,14 @@ public class EmailService {
     
     private void sendRealEmail(String email, String otp, String emailType) {
         try {
-            System.out.println("\n🔧 PRODUCTION EMAIL DEBUG INFO:");
-            System.out.println("Profile: " + activeProfile);
-            System.out.println("From Email: " + fromEmail);
-            System.out.println("To Email: " + email);
-            System.out.println("Email Type: " + emailType);
-            System.out.println("MailSender null? " + (mailSender == null));
-            System.out.println("Simulation Enabled: " + simulationEnabled);
-            System.out.println("OTP: " + otp);
+            log.debug("🔧 PRODUCTION EMAIL DEBUG INFO:");
+            log.debug("Profile: {}", activeProfile);
+            log.debug("From Email: {}", fromEmail);
+            log.debug("To Email: {}", email);
+            log.debug("Email Type: {}", emailType);
+            log.debug("MailSender null? {}", mailSender == null);
+            log.debug("Simulation Enabled: {}", simulationEnabled);
+            log.debug("OTP: {}", otp);
             
             if (mailSender == null) {
                 log.error("❌ JavaMailSender is NULL - Mail configuration failed!");
@@ -96,31 +100,31 @@ public class EmailService {
                 helper.setText(buildOtpEmailContentHtml(otp), true);
             }
             
-            System.out.println("📧 Attempting to send email via SMTP...");
+            log.debug("📧 Attempting to send email via SMTP...");
             
             // Test connection first in production
             if ("production".equals(activeProfile)) {
-                System.out.println("🔧 Testing SMTP connection in production...");
+                log.debug("🔧 Testing SMTP connection in production...");
                 // Note: JavaMailSender doesn't have testConnection() method
                 // Connection will be tested when actually sending the email
             }
             
-            mailSender.send(message);
+            send(message);
             
             log.info("✅ Production Email OTP sent successfully to: {}", email);
-            System.out.println("✅ PRODUCTION Email sent to: " + email + " with OTP: " + otp);
-            System.out.println("🔧 PRODUCTION EMAIL DEBUG END\n");
+            log.debug("✅ PRODUCTION Email sent to: {} with OTP: {}", email, otp);
+            log.debug("🔧 PRODUCTION EMAIL DEBUG END");
             
         } catch (Exception e) {
-            System.out.println("❌ PRODUCTION EMAIL ERROR DETAILS:");
-            System.out.println("Error Type: " + e.getClass().getSimpleName());
-            System.out.println("Error Message: " + e.getMessage());
+            log.warn("❌ PRODUCTION EMAIL ERROR DETAILS:");
+            log.warn("Error Type: {}", e.getClass().getSimpleName());
+            log.warn("Error Message: {}", e.getMessage());
             if (e.getCause() != null) {
-                System.out.println("Root Cause: " + e.getCause().getMessage());
+                log.debug("Root Cause: {}", e.getCause().getMessage());
             }
-            System.out.println("Stack Trace:");
+            log.debug("Stack Trace:");
             e.printStackTrace();
-            System.out.println("🔧 PRODUCTION EMAIL ERROR END\n");
+            log.warn("🔧 PRODUCTION EMAIL ERROR END");
             
             log.error("❌ Failed to send production email to {}: {}", email, e.getMessage(), e);
             
@@ -136,37 +140,37 @@ public class EmailService {
     
     private void sendSimulatedEmail(String email, String otp, String emailType) {
         // Enhanced console display for development
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("📧 SIMULATED EMAIL SENT TO: " + email);
-        System.out.println("From: " + fromEmail);
+        log.debug("{}", "=".repeat(80));
+        log.debug("📧 SIMULATED EMAIL SENT TO: {}", email);
+        log.debug("From: {}", fromEmail);
         
         if ("forgot-password".equals(emailType)) {
-            System.out.println("Subject: Indian Trade Mart - Password Recovery OTP");
-            System.out.println("\n" + "-".repeat(80));
-            System.out.println("EMAIL CONTENT:");
-            System.out.println("-".repeat(80));
-            System.out.println(buildForgotPasswordEmailContent(otp));
-            System.out.println("-".repeat(80));
-            System.out.println("\n🔥🔥🔥 PASSWORD RECOVERY OTP 🔥🔥🔥");
-            System.out.println("🎯 🎯 🎯     YOUR OTP IS: " + otp + "     🎯 🎯 🎯");
-            System.out.println("🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥");
+            log.debug("Subject: Indian Trade Mart - Password Recovery OTP");
+            log.debug("{}", "-".repeat(80));
+            log.debug("EMAIL CONTENT:");
+            log.debug("{}", "-".repeat(80));
+            log.debug("{}", buildForgotPasswordEmailContent(otp));
+            log.debug("{}", "-".repeat(80));
+            log.debug("🔥🔥🔥 PASSWORD RECOVERY OTP 🔥🔥🔥");
+            log.debug("🎯 🎯 🎯     YOUR OTP IS: {}     🎯 🎯 🎯", otp);
+            log.debug("🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥");
         } else {
-            System.out.println("Subject: Indian Trade Mart - OTP Verification");
-            System.out.println("\n" + "-".repeat(80));
-            System.out.println("EMAIL CONTENT:");
-            System.out.println("-".repeat(80));
-            System.out.println(buildOtpEmailContent(otp));
-            System.out.println("-".repeat(80));
-            System.out.println("\n🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥");
-            System.out.println("🎯 🎯 🎯     YOUR OTP IS: " + otp + "     🎯 🎯 🎯");
-            System.out.println("🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥");
+            log.debug("Subject: Indian Trade Mart - OTP Verification");
+            log.debug("{}", "-".repeat(80));
+            log.debug("EMAIL CONTENT:");
+            log.debug("{}", "-".repeat(80));
+            log.debug("{}", buildOtpEmailContent(otp));
+            log.debug("{}", "-".repeat(80));
+            log.debug("🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥");
+            log.debug("🎯 🎯 🎯     YOUR OTP IS: {}     🎯 🎯 🎯", otp);
+            log.debug("🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥🔥");
         }
         
-        System.out.println("⏰ Valid for 5 minutes only!");
-        System.out.println("\n💡 To enable real email sending:");
-        System.out.println("1. Configure Gmail SMTP in application.properties");
-        System.out.println("2. Set email.simulation.enabled=false");
-        System.out.println("=".repeat(80) + "\n");
+        log.debug("⏰ Valid for 5 minutes only!");
+        log.debug("💡 To enable real email sending:");
+        log.debug("1. Configure Gmail SMTP in application.properties");
+        log.debug("2. Set email.simulation.enabled=false");
+        log.debug("{}", "=".repeat(80));
         
         log.info("📧 Simulated {} email sent to: {} with OTP: {}", emailType, email, otp);
     }
@@ -309,6 +313,15 @@ public class EmailService {
         );
     }
     
+    /**
+     * SMTP sends block for the whole transfer and JavaMail synchronizes on the transport, so a
+     * virtual thread stays pinned to its carrier while sending. Keep this bulkhead below the
+     * carrier count (CPU cores) so slow SMTP cannot stall every virtual thread.
+     */
+    private void send(MimeMessage message) {
+        bulkheadRegistry.bulkhead("smtp", 4, 5000).run(() -> mailSender.send(message));
+    }
+    
     // Generic method for sending emails with custom subject and body
     public void sendEmail(String to, String subject, String body) {
         try {
@@ -345,7 +358,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(body, true);
             
-            mailSender.send(message);
+            send(message);
             
             log.info("✅ Generic Email sent successfully to: {}", to);
             
@@ -363,16 +376,16 @@ public class EmailService {
     }
     
     private void sendSimulatedGenericEmail(String to, String subject, String body) {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("📧 SIMULATED EMAIL SENT TO: " + to);
-        System.out.println("From: " + fromEmail);
-        System.out.println("Subject: " + subject);
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("EMAIL CONTENT:");
-        System.out.println("-".repeat(80));
-        System.out.println(body);
-        System.out.println("-".repeat(80));
-        System.out.println("=".repeat(80) + "\n");
+        log.debug("{}", "=".repeat(80));
+        log.debug("📧 SIMULATED EMAIL SENT TO: {}", to);
+        log.debug("From: {}", fromEmail);
+        log.debug("Subject: {}", subject);
+        log.debug("{}", "-".repeat(80));
+        log.debug("EMAIL CONTENT:");
+        log.debug("{}", "-".repeat(80));
+        log.debug("{}", body);
+        log.debug("{}", "-".repeat(80));
+        log.debug("{}", "=".repeat(80));
         
         log.info("📧 Simulated generic email sent to: {} with subject: {}", to, subject);
     }
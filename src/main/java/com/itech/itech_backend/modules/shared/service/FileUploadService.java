@@ -106,7 +106,7 @@ public class FileUploadService {
             Files.deleteIfExists(path);
         } catch (IOException e) {
             // Log the error but don't throw exception
-            System.err.println("Failed to delete file: " + filePath + " - " + e.getMessage());
+            log.error("Failed to delete file: {} - {}", filePath, e.getMessage());
         }
     }
 
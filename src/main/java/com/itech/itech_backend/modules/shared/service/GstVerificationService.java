@@ -10,7 +10,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
@@ -31,10 +33,8 @@ public class GstVerificationService {
     // Format: 2 digits (state code) + 10 characters (PAN) + 1 digit (entity number) + 1 character (check digit) + 1 character (optional)
     private static final Pattern GST_PATTERN = Pattern.compile("^[0-9]{2}[A-Z]{5}[0-9]{4}[A-Z]{1}[1-9A-Z]{1}Z[0-9A-Z]{1}$");
 
-    public GstVerificationService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+    public GstVerificationService(@Qualifier("verificationWebClient") WebClient webClient) {
+        this.webClient = webClient;
     }
 
     /**
@@ -53,82 +53,99 @@ public class GstVerificationService {
      * Verify GST number with government API (if enabled and configured)
      */
     public CompletableFuture<Map<String, Object>> verifyGstNumber(String gstNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-            
-            // First validate format
-            if (!validateGstFormat(gstNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid GST number format");
-                result.put("gstNumber", gstNumber);
-                return result;
-            }
-
-            // If API verification is not enabled, return format validation only
-            if (!gstVerificationEnabled || gstApiUrl == null || gstApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "GST format is valid (API verification disabled)");
-                result.put("gstNumber", gstNumber);
-                return result;
-            }
-
-            try {
-                // Attempt API verification
-                Map<String, Object> apiResponse = callGstVerificationApi(gstNumber);
-                result.putAll(apiResponse);
-                result.put("verified", true);
-                result.put("gstNumber", gstNumber);
-                
-            } catch (Exception e) {
-                log.warn("GST API verification failed for {}: {}", gstNumber, e.getMessage());
-                // Fallback to format validation
-                result.put("valid", true);
-                result.put("verified", false);
-                result.put("message", "GST format is valid (API verification failed)");
-                result.put("gstNumber", gstNumber);
-                result.put("apiError", e.getMessage());
-            }
-
-            return result;
-        });
+        return verifyGstNumberReactive(gstNumber).toFuture();
+    }
+
+    /**
+     * Non-blocking GST verification. The API call runs on the WebClient event loop;
+     * API failures fall back to format validation and carry an {@code apiError} entry.
+     */
+    public Mono<Map<String, Object>> verifyGstNumberReactive(String gstNumber) {
+        Map<String, Object> result = new HashMap<>();
+
+        // First validate format
+        if (!validateGstFormat(gstNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid GST number format");
+            result.put("gstNumber", gstNumber);
+            return Mono.just(result);
+        }
+
+        // If API verification is not enabled, return format validation only
+        if (!isApiEnabled()) {
+            result.put("valid", true);
+            result.put("verified", false);
+            result.put("message", "GST format is valid (API verification disabled)");
+            result.put("gstNumber", gstNumber);
+            return Mono.just(result);
+        }
+
+        return callGstVerificationApi(gstNumber)
+                .map(apiResponse -> {
+                    result.putAll(apiResponse);
+                    result.put("verified", true);
+                    result.put("gstNumber", gstNumber);
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    log.warn("GST API verification failed for {}: {}", gstNumber, e.getMessage());
+                    // Fallback to format validation
+                    result.put("valid", true);
+                    result.put("verified", false);
+                    result.put("message", "GST format is valid (API verification failed)");
+                    result.put("gstNumber", gstNumber);
+                    result.put("apiError", e.getMessage());
+                    return Mono.just(result);
+                });
     }
 
     /**
      * Get GST details (business name, address, etc.) if API is configured
      */
     public CompletableFuture<Map<String, Object>> getGstDetails(String gstNumber) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Object> result = new HashMap<>();
-
-            if (!validateGstFormat(gstNumber)) {
-                result.put("valid", false);
-                result.put("error", "Invalid GST number format");
-                return result;
-            }
-
-            if (!gstVerificationEnabled || gstApiUrl == null || gstApiUrl.trim().isEmpty()) {
-                result.put("valid", true);
-                result.put("gstNumber", gstNumber);
-                result.put("message", "GST details API not configured");
-                return result;
-            }
-
-            try {
-                Map<String, Object> apiResponse = callGstDetailsApi(gstNumber);
-                result.putAll(apiResponse);
-                result.put("gstNumber", gstNumber);
-                
-            } catch (Exception e) {
-                log.warn("GST details API failed for {}: {}", gstNumber, e.getMessage());
-                result.put("valid", true);
-                result.put("gstNumber", gstNumber);
-                result.put("message", "GST number is valid but details unavailable");
-                result.put("apiError", e.getMessage());
-            }
-
-            return result;
-        });
+        return getGstDetailsReactive(gstNumber).toFuture();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getGstDetails(String)}
+     */
+    public Mono<Map<String, Object>> getGstDetailsReactive(String gstNumber) {
+        Map<String, Object> result = new HashMap<>();
+
+        if (!validateGstFormat(gstNumber)) {
+            result.put("valid", false);
+            result.put("error", "Invalid GST number format");
+            return Mono.just(result);
+        }
+
+        if (!isApiEnabled()) {
+            result.put("valid", true);
+            result.put("gstNumber", gstNumber);
+            result.put("message", "GST details API not configured");
+            return Mono.just(result);
+        }
+
+        return callGstDetailsApi(gstNumber)
+                .map(apiResponse -> {
+                    result.putAll(apiResponse);
+                    result.put("gstNumber", gstNumber);
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    log.warn("GST details API failed for {}: {}", gstNumber, e.getMessage());
+                    result.put("valid", true);
+                    result.put("gstNumber", gstNumber);
+                    result.put("message", "GST number is valid but details unavailable");
+                    result.put("apiError", e.getMessage());
+                    return Mono.just(result);
+                });
+    }
+
+    /**
+     * Whether results come from the external API rather than format validation only
+     */
+    public boolean isApiEnabled() {
+        return gstVerificationEnabled && gstApiUrl != null && !gstApiUrl.trim().isEmpty();
     }
 
     /**
@@ -162,58 +179,42 @@ public class GstVerificationService {
     /**
      * Call external GST verification API
      */
-    private Map<String, Object> callGstVerificationApi(String gstNumber) {
-        try {
-            String url = gstApiUrl + "/verify";
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("gstNumber", gstNumber);
-            
-            Map<String, Object> response = webClient.post()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + gstApiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
-
-            if (response != null) {
-                return response;
-            } else {
-                throw new RuntimeException("Empty response from GST API");
-            }
-            
-        } catch (WebClientResponseException e) {
-            log.error("GST API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("GST verification API error: " + e.getMessage());
-        }
+    private Mono<Map<String, Object>> callGstVerificationApi(String gstNumber) {
+        String url = gstApiUrl + "/verify";
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("gstNumber", gstNumber);
+
+        return webClient.post()
+                .uri(url)
+                .header("Authorization", "Bearer " + gstApiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from GST API")))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.error("GST API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return new RuntimeException("GST verification API error: " + e.getMessage());
+                });
     }
 
     /**
      * Call external GST details API
      */
-    private Map<String, Object> callGstDetailsApi(String gstNumber) {
-        try {
-            String url = gstApiUrl + "/details";
-            
-            Map<String, Object> response = webClient.get()
-                    .uri(url + "?gstNumber=" + gstNumber)
-                    .header("Authorization", "Bearer " + gstApiKey)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block();
-
-            if (response != null) {
-                return response;
-            } else {
-                throw new RuntimeException("Empty response from GST details API");
-            }
-            
-        } catch (WebClientResponseException e) {
-            log.error("GST details API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("GST details API error: " + e.getMessage());
-        }
+    private Mono<Map<String, Object>> callGstDetailsApi(String gstNumber) {
+        String url = gstApiUrl + "/details";
+
+        return webClient.get()
+                .uri(url + "?gstNumber=" + gstNumber)
+                .header("Authorization", "Bearer " + gstApiKey)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response from GST details API")))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.error("GST details API error: Status {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return new RuntimeException("GST details API error: " + e.getMessage());
+                });
     }
 
     /**
@@ -146,6 +146,16 @@ public class NotificationService {
         );
     }
 
+    public void notifyRfqInvitation(Long userId, String rfqId, String rfqTitle) {
+        createNotification(
+            userId,
+            "New RFQ Matching Your Products",
+            "A buyer is requesting quotes for " + rfqTitle,
+            NotificationType.QUOTE,
+            rfqId
+        );
+    }
+
     public void notifyQuoteAccepted(Long vendorId, String quoteId, String buyerName) {
         createNotification(
             vendorId,
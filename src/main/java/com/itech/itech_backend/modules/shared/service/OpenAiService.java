@@ -1,21 +1,21 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.itech.itech_backend.config.LlmGatewayProperties;
+import com.itech.itech_backend.modules.ai.service.LlmGateway;
 import com.itech.itech_backend.modules.buyer.model.Product;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
@@ -30,11 +30,15 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OpenAiService {
 
-    @Value("${openai.api.key:}")
-    private String apiKey;
+    @Autowired
+    private LlmGateway llmGateway;
+
+    @Autowired
+    private LlmGatewayProperties gatewayProperties;
 
-    @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}")
-    private String apiUrl;
+    @Autowired
+    @Qualifier("asyncExecutor")
+    private Executor asyncExecutor;
     
     @Autowired
     private BuyerProductRepository productRepository;
@@ -61,58 +65,55 @@ public class OpenAiService {
     }
 
     /**
-     * Core method to generate responses using OpenAI
+     * Stream a role-specific answer to the client over SSE. The completion runs on the
+     * async executor so the request thread is released immediately; {@code onComplete}
+     * receives the full text once the stream has finished.
      */
-    private String generateResponse(String userMessage, String systemPrompt) {
-        // Check if OpenAI is configured
-        if (apiKey == null || apiKey.trim().isEmpty() || apiKey.contains("your-openai-api-key")) {
-            log.warn("OpenAI API key not configured, using fallback responses");
-            return generateFallbackResponse(userMessage, systemPrompt);
-        }
-
-        RestTemplate restTemplate = new RestTemplate();
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(apiKey);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", "gpt-3.5-turbo");
-
-        List<Map<String, String>> messages = new ArrayList<>();
-        messages.add(Map.of("role", "system", "content", systemPrompt));
-        messages.add(Map.of("role", "user", "content", userMessage));
-
-        requestBody.put("messages", messages);
-        requestBody.put("temperature", 0.7);
-        requestBody.put("max_tokens", 500);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+    public SseEmitter streamRoleBasedResponse(String userMessage, String userRole, Consumer<String> onComplete) {
+        String systemPrompt = buildSystemPrompt(userRole);
+        SseEmitter emitter = new SseEmitter(gatewayProperties.getStreamTimeoutMs());
 
-        try {
-            log.debug("Sending request to OpenAI: {}", userMessage);
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> response = restTemplate.postForEntity(apiUrl, request, Map.class);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            if (responseBody != null) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
-                if (choices != null && !choices.isEmpty()) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                    if (message != null) {
-                        String aiResponse = (String) message.get("content");
-                        log.debug("OpenAI response received: {}", aiResponse);
-                        return aiResponse;
+        asyncExecutor.execute(() -> {
+            try {
+                String fullText = llmGateway.stream(systemPrompt, userMessage, token -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("token").data(token));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
+                }, () -> generateFallbackResponse(userMessage, systemPrompt));
+                emitter.send(SseEmitter.event().name("done").data(""));
+                emitter.complete();
+                if (onComplete != null) {
+                    onComplete.accept(fullText);
                 }
+            } catch (LlmGateway.StreamInterruptedException e) {
+                // Part of the answer is already on screen; tell the client instead of appending a fallback
+                log.warn("Chat stream interrupted: {}", e.getMessage());
+                try {
+                    emitter.send(SseEmitter.event().name("error").data("The answer was interrupted. Please try again."));
+                    emitter.complete();
+                } catch (Exception sendFailure) {
+                    emitter.completeWithError(e);
+                }
+            } catch (LlmGateway.TokenDeliveryException e) {
+                // The browser went away; the provider is not at fault
+                log.debug("Chat client disconnected: {}", e.getMessage());
+                emitter.completeWithError(e.getCause());
+            } catch (Exception e) {
+                log.debug("Chat stream closed early: {}", e.getMessage());
+                emitter.completeWithError(e);
             }
-        } catch (Exception e) {
-            log.error("OpenAI API error: {}", e.getMessage());
-        }
+        });
+        return emitter;
+    }
 
-        return generateFallbackResponse(userMessage, systemPrompt);
+    /**
+     * Core method to generate responses using OpenAI
+     */
+    private String generateResponse(String userMessage, String systemPrompt) {
+        return llmGateway.complete(systemPrompt, userMessage,
+                () -> generateFallbackResponse(userMessage, systemPrompt));
     }
 
     /**
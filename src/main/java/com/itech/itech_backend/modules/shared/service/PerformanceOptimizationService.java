@@ -17,6 +17,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.service.BulkProductWriter;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
@@ -34,6 +35,9 @@ public class PerformanceOptimizationService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private BulkProductWriter bulkProductWriter;
     
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
@@ -116,14 +120,8 @@ public class PerformanceOptimizationService {
     public void bulkUpdateProductPrices(List<Long> productIds, double priceMultiplier) {
         log.info("Starting bulk price update for {} products", productIds.size());
         
-        // Process in batches to avoid memory issues
-        int batchSize = 100;
-        for (int i = 0; i < productIds.size(); i += batchSize) {
-            int endIndex = Math.min(i + batchSize, productIds.size());
-            List<Long> batch = productIds.subList(i, endIndex);
-            
-            processPriceBatch(batch, priceMultiplier);
-        }
+        // One UPDATE per chunk of ids; the writer invalidates the in-memory product caches
+        bulkProductWriter.scalePrices(productIds, priceMultiplier);
         
         // Clear relevant caches
         clearProductCaches();
@@ -229,11 +227,6 @@ public class PerformanceOptimizationService {
         log.debug("Updating analytics for user: {}", userId);
     }
     
-    private void processPriceBatch(List<Long> productIds, double priceMultiplier) {
-        // Simulate batch price update
-        log.debug("Processing price batch for {} products", productIds.size());
-    }
-    
     private void clearProductCaches() {
         if (redisTemplate != null) {
             redisTemplate.delete("popularProducts::*");
@@ -41,20 +41,20 @@ public class SmsService {
     
     public void sendOtp(String phone, String otp) {
         try {
-            System.out.println("\n🚨🚨🚨 SMS SERVICE CALLED 🚨🚨🚨");
-            System.out.println("📞 Phone: " + phone);
-            System.out.println("🔢 OTP: " + otp);
-            System.out.println("⚙️ SMS Simulation Enabled: " + smsSimulationEnabled);
+            log.debug("🚨🚨🚨 SMS SERVICE CALLED 🚨🚨🚨");
+            log.debug("📞 Phone: {}", phone);
+            log.debug("🔢 OTP: {}", otp);
+            log.debug("⚙️ SMS Simulation Enabled: {}", smsSimulationEnabled);
             
             // Format phone number (add +91 for Indian numbers if not present)
             String formattedPhone = formatPhoneNumber(phone);
             String message = buildOtpSmsContent(otp);
             
-            System.out.println("📱 Formatted Phone: " + formattedPhone);
-            System.out.println("💬 Message: " + message);
+            log.debug("📱 Formatted Phone: {}", formattedPhone);
+            log.debug("💬 Message: {}", message);
             
             if (smsSimulationEnabled) {
-                System.out.println("🔄 Calling sendSimulatedSms...");
+                log.debug("🔄 Calling sendSimulatedSms...");
                 sendSimulatedSms(formattedPhone, otp);
                 return;
             }
@@ -127,7 +127,7 @@ public class SmsService {
             restTemplate.exchange(url, HttpMethod.POST, request, String.class);
             
             log.info("✅ SMS OTP sent successfully via MSG91 to: {}", phone);
-            System.out.println("✅ Real SMS sent via MSG91 to: " + phone + " with OTP: " + otp);
+            log.debug("✅ Real SMS sent via MSG91 to: {} with OTP: {}", phone, otp);
             
         } catch (Exception e) {
             log.error("❌ MSG91 SMS failed: {}", e.getMessage());
@@ -152,7 +152,7 @@ public class SmsService {
             restTemplate.exchange(url, HttpMethod.POST, request, String.class);
             
             log.info("✅ SMS OTP sent successfully via Textlocal to: {}", phone);
-            System.out.println("✅ Real SMS sent via Textlocal to: " + phone);
+            log.debug("✅ Real SMS sent via Textlocal to: {}", phone);
             
         } catch (Exception e) {
             log.error("❌ Textlocal SMS failed: {}", e.getMessage());
@@ -162,26 +162,26 @@ public class SmsService {
     
     private void sendSimulatedSms(String phone, String otp) {
         // Enhanced console display for development
-        System.out.println("\n\n" + "=".repeat(80));
-        System.out.println("📱📱📱 SIMULATED SMS SENT TO: " + phone + " 📱📱📱");
-        System.out.println("Provider: Development Mode (Console Display)");
-        System.out.println("Timestamp: " + java.time.LocalDateTime.now());
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("SMS CONTENT:");
-        System.out.println("-".repeat(80));
-        System.out.println(buildOtpSmsContent(otp));
-        System.out.println("-".repeat(80));
-        System.out.println("\n🔥🔥🔥 YOUR OTP IS: " + otp + " 🔥🔥🔥");
-        System.out.println("⏰ Valid for 5 minutes only!");
-        System.out.println("\n💡 To enable real SMS sending:");
-        System.out.println("1. Configure SMS provider in application.properties");
-        System.out.println("2. Set sms.simulation.enabled=false");
-        System.out.println("3. For Indian numbers: MSG91 or Textlocal");
-        System.out.println("4. For International: Twilio");
-        System.out.println("=".repeat(80) + "\n\n");
+        log.debug("{}", "=".repeat(80));
+        log.debug("📱📱📱 SIMULATED SMS SENT TO: {} 📱📱📱", phone);
+        log.debug("Provider: Development Mode (Console Display)");
+        log.debug("Timestamp: {}", java.time.LocalDateTime.now());
+        log.debug("{}", "-".repeat(80));
+        log.debug("SMS CONTENT:");
+        log.debug("{}", "-".repeat(80));
+        log.debug("{}", buildOtpSmsContent(otp));
+        log.debug("{}", "-".repeat(80));
+        log.debug("🔥🔥🔥 YOUR OTP IS: {} 🔥🔥🔥", otp);
+        log.debug("⏰ Valid for 5 minutes only!");
+        log.debug("💡 To enable real SMS sending:");
+        log.debug("1. Configure SMS provider in application.properties");
+        log.debug("2. Set sms.simulation.enabled=false");
+        log.debug("3. For Indian numbers: MSG91 or Textlocal");
+        log.debug("4. For International: Twilio");
+        log.debug("{}", "=".repeat(80));
         
-        // Also use System.err for better visibility in some IDEs
-        System.err.println("🚨 OTP ALERT: " + otp + " for " + phone);
+        // Logged at error level so it stands out in the console
+        log.error("🚨 OTP ALERT: {} for {}", otp, phone);
         
         log.info("📱 Simulated SMS sent to: {} with OTP: {}", phone, otp);
     }
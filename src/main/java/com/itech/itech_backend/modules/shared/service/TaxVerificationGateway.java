@@ -0,0 +1,275 @@
+package com.itech.itech_backend.modules.shared.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.itech.itech_backend.modules.core.service.PanVerificationService;
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import com.itech.itech_backend.modules.shared.repository.TaxVerificationResultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Single entry point for GST/PAN lookups.
+ *
+ * Lookups go memory cache -> persisted cache ({@code tax_verification_results}) -> external API.
+ * Concurrent lookups of the same number share one in-flight call. Database access runs on the
+ * dedicated {@code verificationScheduler}; the API calls themselves are non-blocking.
+ * Only API-backed results are cached: format-only answers are cheap to recompute and
+ * API failures must be retried on the next request.
+ */
+@Service
+@Slf4j
+public class TaxVerificationGateway {
+
+    private static final String GST = "GST";
+    private static final String PAN = "PAN";
+    private static final String VERIFY = "VERIFY";
+    private static final String DETAILS = "DETAILS";
+
+    private final GstVerificationService gstVerificationService;
+    private final PanVerificationService panVerificationService;
+    private final TaxVerificationResultRepository resultRepository;
+    private final Scheduler scheduler;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Mono<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, CachedResult> memoryCache;
+
+    @Value("${verification.cache.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${verification.cache.negative-ttl-minutes:60}")
+    private long negativeTtlMinutes;
+
+    @Value("${verification.bulk.concurrency:8}")
+    private int bulkConcurrency;
+
+    @Value("${verification.bulk.max-size:500}")
+    private int bulkMaxSize;
+
+    public TaxVerificationGateway(GstVerificationService gstVerificationService,
+                                  PanVerificationService panVerificationService,
+                                  TaxVerificationResultRepository resultRepository,
+                                  @Qualifier("verificationScheduler") Scheduler scheduler,
+                                  ObjectMapper objectMapper,
+                                  @Value("${verification.cache.memory-max-entries:10000}") long memoryMaxEntries) {
+        this.gstVerificationService = gstVerificationService;
+        this.panVerificationService = panVerificationService;
+        this.resultRepository = resultRepository;
+        this.scheduler = scheduler;
+        this.objectMapper = objectMapper;
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumSize(memoryMaxEntries)
+                .expireAfter(new Expiry<String, CachedResult>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResult value, long currentTime) {
+                        return Math.max(0, Duration.between(LocalDateTime.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResult value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResult value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Mono<Map<String, Object>> verifyGst(String gstNumber) {
+        return lookup(GST, VERIFY, gstNumber, gstVerificationService::verifyGstNumberReactive, this::gstCacheable);
+    }
+
+    public Mono<Map<String, Object>> getGstDetails(String gstNumber) {
+        return lookup(GST, DETAILS, gstNumber, gstVerificationService::getGstDetailsReactive, this::gstCacheable);
+    }
+
+    public Mono<Map<String, Object>> verifyPan(String panNumber) {
+        return lookup(PAN, VERIFY, panNumber, panVerificationService::verifyPanNumberReactive, this::panCacheable);
+    }
+
+    public Mono<Map<String, Object>> getPanDetails(String panNumber) {
+        return lookup(PAN, DETAILS, panNumber, panVerificationService::getPanDetailsReactive, this::panCacheable);
+    }
+
+    /**
+     * Verify many GSTINs for admin KYC queues. Duplicates are verified once and the
+     * distinct numbers are pipelined with bounded concurrency.
+     */
+    public Mono<Map<String, Map<String, Object>>> bulkVerifyGst(Collection<String> gstNumbers) {
+        if (gstNumbers.size() > bulkMaxSize) {
+            return Mono.error(new IllegalArgumentException(
+                    "Bulk verification is limited to " + bulkMaxSize + " GST numbers per request"));
+        }
+        return Flux.fromIterable(gstNumbers)
+                .filter(number -> number != null && !number.isBlank())
+                .map(this::normalise)
+                .distinct()
+                .flatMapSequential(number -> verifyGst(number).map(result -> Map.entry(number, result)),
+                        Math.max(1, bulkConcurrency))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+    }
+
+    private Mono<Map<String, Object>> lookup(String documentType, String lookupType, String rawNumber,
+                                             Function<String, Mono<Map<String, Object>>> loader,
+                                             Predicate<String> cacheable) {
+        String number = rawNumber != null ? normalise(rawNumber) : null;
+        if (number == null || !cacheable.test(number)) {
+            // Format-only validation is pure CPU work; nothing worth caching
+            return loader.apply(rawNumber);
+        }
+
+        String key = documentType + ":" + lookupType + ":" + number;
+
+        CachedResult cached = memoryCache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(withCacheFlag(cached.result(), true));
+        }
+
+        Mono<Map<String, Object>> shared = inFlight.get(key);
+        if (shared == null) {
+            // Removing by value keeps a finished lookup from evicting a newer caller's entry
+            AtomicReference<Mono<Map<String, Object>>> self = new AtomicReference<>();
+            Mono<Map<String, Object>> created = Mono.fromCallable(() -> loadPersisted(documentType, lookupType, number))
+                    .subscribeOn(scheduler)
+                    .flatMap(persisted -> persisted
+                            .map(result -> Mono.just(withCacheFlag(result, true)))
+                            .orElseGet(() -> loader.apply(number)
+                                    .flatMap(result -> store(documentType, lookupType, number, key, result))))
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(created);
+            shared = inFlight.putIfAbsent(key, created);
+            if (shared == null) {
+                shared = created;
+            }
+        }
+        return shared.map(result -> new HashMap<>(result));
+    }
+
+    private boolean gstCacheable(String number) {
+        return gstVerificationService.isApiEnabled() && gstVerificationService.validateGstFormat(number);
+    }
+
+    private boolean panCacheable(String number) {
+        return panVerificationService.isApiEnabled() && panVerificationService.validatePanFormat(number);
+    }
+
+    private Optional<Map<String, Object>> loadPersisted(String documentType, String lookupType, String number) {
+        return resultRepository.findByDocumentTypeAndLookupTypeAndDocumentNumber(documentType, lookupType, number)
+                .filter(entry -> entry.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(entry -> {
+                    Map<String, Object> result = readJson(entry.getResultJson());
+                    memoryCache.put(documentType + ":" + lookupType + ":" + number,
+                            new CachedResult(result, entry.getExpiresAt()));
+                    return result;
+                });
+    }
+
+    private Mono<Map<String, Object>> store(String documentType, String lookupType, String number,
+                                            String key, Map<String, Object> result) {
+        if (result.containsKey("apiError")) {
+            return Mono.just(withCacheFlag(result, false));
+        }
+        boolean negative = Boolean.FALSE.equals(result.get("valid"));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = negative ? now.plusMinutes(negativeTtlMinutes) : now.plusHours(ttlHours);
+        memoryCache.put(key, new CachedResult(result, expiresAt));
+
+        return Mono.fromRunnable(() -> upsert(documentType, lookupType, number, writeJson(result), negative, now, expiresAt))
+                .subscribeOn(scheduler)
+                .onErrorResume(e -> {
+                    log.error("Could not persist {} {} result for {}", documentType, lookupType, number, e);
+                    return Mono.empty();
+                })
+                .thenReturn(withCacheFlag(result, false));
+    }
+
+    /**
+     * Update the row for this lookup, inserting it when there is none. Two nodes may both
+     * find no row and insert; the loser of the unique key race updates the winner's row.
+     */
+    private void upsert(String documentType, String lookupType, String number, String json, boolean negative,
+                        LocalDateTime checkedAt, LocalDateTime expiresAt) {
+        if (resultRepository.updateResult(documentType, lookupType, number, json, negative, checkedAt, expiresAt) > 0) {
+            return;
+        }
+        try {
+            resultRepository.save(TaxVerificationResult.builder()
+                    .documentType(documentType)
+                    .lookupType(lookupType)
+                    .documentNumber(number)
+                    .resultJson(json)
+                    .negative(negative)
+                    .checkedAt(checkedAt)
+                    .expiresAt(expiresAt)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            resultRepository.updateResult(documentType, lookupType, number, json, negative, checkedAt, expiresAt);
+        }
+    }
+
+    /**
+     * Drop expired rows so the cache table stays small
+     */
+    @Scheduled(cron = "${verification.cache.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int removed = resultRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired tax verification results", removed);
+        }
+    }
+
+    private String normalise(String number) {
+        return number.trim().toUpperCase();
+    }
+
+    private Map<String, Object> withCacheFlag(Map<String, Object> result, boolean cached) {
+        Map<String, Object> copy = new HashMap<>(result);
+        copy.put("cached", cached);
+        return copy;
+    }
+
+    private Map<String, Object> readJson(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            throw new IllegalStateException("Corrupt verification cache entry", e);
+        }
+    }
+
+    private String writeJson(Map<String, Object> result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialise verification result", e);
+        }
+    }
+
+    private record CachedResult(Map<String, Object> result, LocalDateTime expiresAt) {}
+}
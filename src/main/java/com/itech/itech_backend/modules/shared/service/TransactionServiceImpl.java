@@ -11,7 +11,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 
-@Service
+@Service("transactionService")
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionServiceImpl implements com.itech.marketplace.service.TransactionService {
@@ -5,6 +5,8 @@ import com.itech.itech_backend.modules.buyer.model.Category;
 import com.itech.itech_backend.modules.buyer.model.SubCategory;
 import com.itech.itech_backend.modules.buyer.model.MicroCategory;
 import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyCounter;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType;
 import com.itech.itech_backend.modules.shared.dto.*;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
 import com.itech.itech_backend.modules.vendor.service.DataEntryService;
@@ -12,6 +14,7 @@ import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
 import com.itech.itech_backend.modules.buyer.repository.SubCategoryRepository;
 import com.itech.itech_backend.modules.buyer.repository.MicroCategoryRepository;
 import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterStore;
 import com.itech.itech_backend.modules.vendor.model.Vendors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -29,6 +32,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,19 +45,24 @@ public class DataEntryServiceImpl implements DataEntryService {
     private final MicroCategoryRepository microCategoryRepository;
     private final BuyerProductRepository productRepository;
     private final VendorsRepository vendorsRepository;
+    private final TaxonomyCounterStore counterStore;
 
     @Override
     public Page<CategoryDto> getAllCategories(String search, Pageable pageable) {
-        Page<Category> categories;
+        // Each category comes with its counter row, so the page is one query plus the count
+        Page<Object[]> categories;
         if (search != null && !search.trim().isEmpty()) {
-            categories = categoryRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                search.trim(), search.trim(), pageable);
+            categories = categoryRepository.searchWithCounters(search.trim(), pageable);
         } else {
-            categories = categoryRepository.findAll(pageable);
+            categories = categoryRepository.findAllWithCounters(pageable);
         }
         
         List<CategoryDto> categoryDtos = categories.getContent().stream()
-            .map(this::convertToCategoryDto)
+            .map(row -> {
+                Category category = (Category) row[0];
+                return convertToCategoryDto(category,
+                    counterStore.counts(TaxonomyNodeType.CATEGORY, category.getId(), (TaxonomyCounter) row[1]));
+            })
             .collect(Collectors.toList());
             
         return new PageImpl<>(categoryDtos, pageable, categories.getTotalElements());
@@ -63,7 +72,7 @@ public class DataEntryServiceImpl implements DataEntryService {
     public CategoryDto getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
-        return convertToCategoryDto(category);
+        return convertToCategoryDto(category, counterStore.counts(TaxonomyNodeType.CATEGORY, category.getId()));
     }
 
     @Override
@@ -79,7 +88,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             .build();
             
         Category savedCategory = categoryRepository.save(category);
-        return convertToCategoryDto(savedCategory);
+        return convertToCategoryDto(savedCategory, counterStore.counts(TaxonomyNodeType.CATEGORY, savedCategory.getId()));
     }
 
     @Override
@@ -97,7 +106,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             updateCategoryDto.getSlug() : generateSlug(updateCategoryDto.getName()));
             
         Category savedCategory = categoryRepository.save(category);
-        return convertToCategoryDto(savedCategory);
+        return convertToCategoryDto(savedCategory, counterStore.counts(TaxonomyNodeType.CATEGORY, savedCategory.getId()));
     }
 
     @Override
@@ -140,9 +149,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             subCategories = subCategoryRepository.findAll(pageable);
         }
         
-        List<SubCategoryDto> subCategoryDtos = subCategories.getContent().stream()
-            .map(this::convertToSubCategoryDto)
-            .collect(Collectors.toList());
+        List<SubCategoryDto> subCategoryDtos = convertToSubCategoryDtos(subCategories.getContent());
             
         return new PageImpl<>(subCategoryDtos, pageable, subCategories.getTotalElements());
     }
@@ -150,9 +157,7 @@ public class DataEntryServiceImpl implements DataEntryService {
     @Override
     public List<SubCategoryDto> getSubCategoriesByCategory(Long categoryId) {
         List<SubCategory> subCategories = subCategoryRepository.findByCategoryIdOrderByDisplayOrder(categoryId);
-        return subCategories.stream()
-            .map(this::convertToSubCategoryDto)
-            .collect(Collectors.toList());
+        return convertToSubCategoryDtos(subCategories);
     }
 
     @Override
@@ -172,7 +177,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             .build();
             
         SubCategory savedSubCategory = subCategoryRepository.save(subCategory);
-        return convertToSubCategoryDto(savedSubCategory);
+        return convertToSubCategoryDtos(List.of(savedSubCategory)).get(0);
     }
 
     @Override
@@ -194,7 +199,7 @@ public class DataEntryServiceImpl implements DataEntryService {
         subCategory.setCategory(category);
             
         SubCategory savedSubCategory = subCategoryRepository.save(subCategory);
-        return convertToSubCategoryDto(savedSubCategory);
+        return convertToSubCategoryDtos(List.of(savedSubCategory)).get(0);
     }
 
     @Override
@@ -222,9 +227,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             microCategories = microCategoryRepository.findAll(pageable);
         }
         
-        List<MicroCategoryDto> microCategoryDtos = microCategories.getContent().stream()
-            .map(this::convertToMicroCategoryDto)
-            .collect(Collectors.toList());
+        List<MicroCategoryDto> microCategoryDtos = convertToMicroCategoryDtos(microCategories.getContent());
             
         return new PageImpl<>(microCategoryDtos, pageable, microCategories.getTotalElements());
     }
@@ -232,9 +235,7 @@ public class DataEntryServiceImpl implements DataEntryService {
     @Override
     public List<MicroCategoryDto> getMicroCategoriesBySubCategory(Long subCategoryId) {
         List<MicroCategory> microCategories = microCategoryRepository.findBySubCategoryIdOrderByDisplayOrder(subCategoryId);
-        return microCategories.stream()
-            .map(this::convertToMicroCategoryDto)
-            .collect(Collectors.toList());
+        return convertToMicroCategoryDtos(microCategories);
     }
 
     @Override
@@ -254,7 +255,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             .build();
             
         MicroCategory savedMicroCategory = microCategoryRepository.save(microCategory);
-        return convertToMicroCategoryDto(savedMicroCategory);
+        return convertToMicroCategoryDtos(List.of(savedMicroCategory)).get(0);
     }
 
     @Override
@@ -276,7 +277,7 @@ public class DataEntryServiceImpl implements DataEntryService {
         microCategory.setSubCategory(subCategory);
             
         MicroCategory savedMicroCategory = microCategoryRepository.save(microCategory);
-        return convertToMicroCategoryDto(savedMicroCategory);
+        return convertToMicroCategoryDtos(List.of(savedMicroCategory)).get(0);
     }
 
     @Override
@@ -362,31 +363,36 @@ public class DataEntryServiceImpl implements DataEntryService {
 
     @Override
     public List<CategoryStatsDto> getCategoryStats() {
-        List<Category> categories = categoryRepository.findAllOrderByDisplayOrder();
+        List<Category> categories = categoryRepository.findAllOrderByDisplayOrder().stream()
+            .limit(10) // Top 10 categories
+            .toList();
         long totalProducts = productRepository.count();
+        Map<Long, TaxonomyCounterStore.Counts> counts = counterStore.counts(TaxonomyNodeType.CATEGORY,
+            categories.stream().map(Category::getId).toList());
         
         return categories.stream()
-            .limit(10) // Top 10 categories
             .map(category -> {
-                long subCategoryCount = subCategoryRepository.countByCategoryId(category.getId());
-                long microCategoryCount = microCategoryRepository.countByCategoryId(category.getId());
-                long productCount = productRepository.countByCategoryId(category.getId());
-                long activeProductCount = productRepository.countByIsActiveTrueAndCategoryId(category.getId());
-                double percentage = totalProducts > 0 ? (double) productCount / totalProducts * 100 : 0;
+                TaxonomyCounterStore.Counts categoryCounts = counts.get(category.getId());
+                double percentage = totalProducts > 0 ? (double) categoryCounts.products() / totalProducts * 100 : 0;
                 
                 return CategoryStatsDto.builder()
                     .categoryId(category.getId())
                     .categoryName(category.getName())
-                    .subCategoryCount(subCategoryCount)
-                    .microCategoryCount(microCategoryCount)
-                    .productCount(productCount)
-                    .activeProductCount(activeProductCount)
+                    .subCategoryCount(categoryCounts.children())
+                    .microCategoryCount(categoryCounts.descendants() - categoryCounts.children())
+                    .productCount(categoryCounts.products())
+                    .activeProductCount(categoryCounts.activeProducts())
                     .percentageOfTotal(percentage)
                     .build();
             })
             .collect(Collectors.toList());
     }
 
+    @Override
+    public TaxonomyCounterStore.RecountResult recountTaxonomyCounters() {
+        return counterStore.recount();
+    }
+
     @Override
     public List<CategoryHierarchyDto> getFullCategoryHierarchy() {
         return null;
@@ -403,14 +409,7 @@ public class DataEntryServiceImpl implements DataEntryService {
     }
     
     // Helper Methods
-    private CategoryDto convertToCategoryDto(Category category) {
-        int subCategoryCount = category.getSubCategories() != null ? category.getSubCategories().size() : 0;
-        long totalProductCount = category.getSubCategories() != null ? 
-            category.getSubCategories().stream()
-                .mapToLong(sc -> sc.getMicroCategories() != null ? 
-                    sc.getMicroCategories().stream().mapToLong(mc -> mc.getProducts() != null ? mc.getProducts().size() : 0).sum() : 0)
-                .sum() : 0;
-                
+    private CategoryDto convertToCategoryDto(Category category, TaxonomyCounterStore.Counts counts) {
         return CategoryDto.builder()
             .id(category.getId())
             .name(category.getName())
@@ -420,20 +419,22 @@ public class DataEntryServiceImpl implements DataEntryService {
             .metaTitle(category.getMetaTitle())
             .metaDescription(category.getMetaDescription())
             .slug(category.getSlug())
-            .subCategoryCount(subCategoryCount)
-            .totalProductCount((int) totalProductCount)
+            .subCategoryCount((int) counts.children())
+            .totalProductCount((int) counts.products())
             .createdAt(category.getCreatedAt())
             .updatedAt(category.getUpdatedAt())
             .build();
     }
     
-    private SubCategoryDto convertToSubCategoryDto(SubCategory subCategory) {
-        int microCategoryCount = subCategory.getMicroCategories() != null ? subCategory.getMicroCategories().size() : 0;
-        long productCount = subCategory.getMicroCategories() != null ? 
-            subCategory.getMicroCategories().stream()
-                .mapToLong(mc -> mc.getProducts() != null ? mc.getProducts().size() : 0)
-                .sum() : 0;
-                
+    private List<SubCategoryDto> convertToSubCategoryDtos(List<SubCategory> subCategories) {
+        Map<Long, TaxonomyCounterStore.Counts> counts = counterStore.counts(TaxonomyNodeType.SUB_CATEGORY,
+            subCategories.stream().map(SubCategory::getId).toList());
+        return subCategories.stream()
+            .map(subCategory -> convertToSubCategoryDto(subCategory, counts.get(subCategory.getId())))
+            .collect(Collectors.toList());
+    }
+    
+    private SubCategoryDto convertToSubCategoryDto(SubCategory subCategory, TaxonomyCounterStore.Counts counts) {
         return SubCategoryDto.builder()
             .id(subCategory.getId())
             .name(subCategory.getName())
@@ -445,16 +446,22 @@ public class DataEntryServiceImpl implements DataEntryService {
             .slug(subCategory.getSlug())
             .categoryId(subCategory.getCategory().getId())
             .categoryName(subCategory.getCategory().getName())
-            .microCategoryCount(microCategoryCount)
-            .productCount((int) productCount)
+            .microCategoryCount((int) counts.children())
+            .productCount((int) counts.products())
             .createdAt(subCategory.getCreatedAt())
             .updatedAt(subCategory.getUpdatedAt())
             .build();
     }
     
-    private MicroCategoryDto convertToMicroCategoryDto(MicroCategory microCategory) {
-        int productCount = microCategory.getProducts() != null ? microCategory.getProducts().size() : 0;
-        
+    private List<MicroCategoryDto> convertToMicroCategoryDtos(List<MicroCategory> microCategories) {
+        Map<Long, TaxonomyCounterStore.Counts> counts = counterStore.counts(TaxonomyNodeType.MICRO_CATEGORY,
+            microCategories.stream().map(MicroCategory::getId).toList());
+        return microCategories.stream()
+            .map(microCategory -> convertToMicroCategoryDto(microCategory, counts.get(microCategory.getId())))
+            .collect(Collectors.toList());
+    }
+    
+    private MicroCategoryDto convertToMicroCategoryDto(MicroCategory microCategory, TaxonomyCounterStore.Counts counts) {
         return MicroCategoryDto.builder()
             .id(microCategory.getId())
             .name(microCategory.getName())
@@ -468,7 +475,7 @@ public class DataEntryServiceImpl implements DataEntryService {
             .subCategoryName(microCategory.getSubCategory().getName())
             .categoryId(microCategory.getSubCategory().getCategory().getId())
             .categoryName(microCategory.getSubCategory().getCategory().getName())
-            .productCount(productCount)
+            .productCount((int) counts.products())
             .createdAt(microCategory.getCreatedAt())
             .updatedAt(microCategory.getUpdatedAt())
             .build();
@@ -1,34 +1,68 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import com.itech.itech_backend.enums.TicketPriority;
+import com.itech.itech_backend.modules.support.repository.SLAConfigurationRepository;
 import com.itech.itech_backend.modules.support.service.SLAConfigurationService;
+import com.itech.itech_backend.modules.support.service.SlaEngine;
 import com.itech.marketplace.dto.SLAConfigurationDto;
 import com.itech.marketplace.entity.SLAConfiguration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class SLAConfigurationServiceImpl implements SLAConfigurationService {
 
+    private final SLAConfigurationRepository slaConfigurationRepository;
+    private final SlaEngine slaEngine;
+
     @Override
     public List<SLAConfiguration> getAllConfigurations() {
-        return new ArrayList<>();
+        return slaConfigurationRepository.findAll();
     }
 
     @Override
+    @Transactional
     public SLAConfiguration createConfiguration(SLAConfigurationDto dto) {
         SLAConfiguration config = new SLAConfiguration();
-        return config;
+        config.setIsActive(true);
+        apply(config, dto);
+        SLAConfiguration saved = slaConfigurationRepository.save(config);
+        slaEngine.reloadPolicies();
+        return saved;
     }
 
     @Override
+    @Transactional
     public SLAConfiguration updateConfiguration(Long id, SLAConfigurationDto dto) {
-        SLAConfiguration config = new SLAConfiguration();
-        config.setId(id);
-        return config;
+        SLAConfiguration config = slaConfigurationRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("SLA configuration not found"));
+        apply(config, dto);
+        SLAConfiguration saved = slaConfigurationRepository.save(config);
+        slaEngine.reloadPolicies();
+        return saved;
     }
-}
 
+    private void apply(SLAConfiguration config, SLAConfigurationDto dto) {
+        if (dto.getPriority() != null) {
+            config.setPriority(TicketPriority.valueOf(dto.getPriority()));
+        }
+        if (dto.getCategory() != null || config.getCategory() == null) {
+            // Blank category means the configuration applies to every category
+            config.setCategory(dto.getCategory() != null && !dto.getCategory().isBlank()
+                ? dto.getCategory() : SlaEngine.ANY_CATEGORY);
+        }
+        if (dto.getResponseTimeMinutes() != null) {
+            config.setResponseTimeMinutes(dto.getResponseTimeMinutes());
+        }
+        if (dto.getResolutionTimeMinutes() != null) {
+            config.setResolutionTimeMinutes(dto.getResolutionTimeMinutes());
+        }
+        if (dto.getEscalationTimeMinutes() != null) {
+            config.setEscalationTimeMinutes(dto.getEscalationTimeMinutes());
+        }
+    }
+}
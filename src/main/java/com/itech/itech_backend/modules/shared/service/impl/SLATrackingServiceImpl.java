@@ -1,17 +1,21 @@
 package com.itech.itech_backend.modules.shared.service;
 
+import com.itech.itech_backend.enums.TicketStatus;
+import com.itech.itech_backend.modules.support.repository.SLATrackingRepository;
 import com.itech.itech_backend.modules.support.service.SLATrackingService;
+import com.itech.itech_backend.modules.support.service.SlaEngine;
+import com.itech.itech_backend.modules.support.service.SupportTicketService;
 import com.itech.itech_backend.modules.support.repository.SupportTicketRepository;
 import com.itech.marketplace.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -20,32 +24,28 @@ import java.util.List;
 public class SLATrackingServiceImpl implements SLATrackingService {
 
     private final SupportTicketRepository supportTicketRepository;
+    private final SLATrackingRepository slaTrackingRepository;
+    private final SupportTicketService supportTicketService;
+    private final SlaEngine slaEngine;
 
     @Override
     public Page<SLATrackingDto> getSLATracking(String status, Boolean breached, Pageable pageable) {
         try {
-            // Mock implementation - replace with actual database queries
-            List<SLATrackingDto> trackingList = new ArrayList<>();
-            
-            // Create sample SLA tracking data
-            for (int i = 1; i <= 10; i++) {
-                SLATrackingDto tracking = SLATrackingDto.builder()
-                    .id((long) i)
-                    .ticketId((long) i)
-                    .ticketNumber("TKT" + (1000 + i))
-                    .status("OPEN")
-                    .priority("HIGH")
-                    .responseDeadline(LocalDateTime.now().plusHours(2))
-                    .resolutionDeadline(LocalDateTime.now().plusHours(24))
-                    .responseBreached(false)
-                    .resolutionBreached(false)
-                    .responseComplianceScore(95.0)
-                    .resolutionComplianceScore(90.0)
-                    .build();
-                trackingList.add(tracking);
-            }
-            
-            return new PageImpl<>(trackingList, pageable, trackingList.size());
+            TicketStatus ticketStatus = status != null && !status.isBlank() ? TicketStatus.valueOf(status) : null;
+            return slaTrackingRepository.findTracking(ticketStatus, breached, pageable)
+                .map(view -> SLATrackingDto.builder()
+                    .id(view.getTrackingId())
+                    .ticketId(view.getTicketId())
+                    .ticketNumber(view.getTicketNumber())
+                    .status(view.getStatus() != null ? view.getStatus().name() : null)
+                    .priority(view.getPriority() != null ? view.getPriority().name() : null)
+                    .responseDeadline(view.getResponseDeadline())
+                    .resolutionDeadline(view.getResolutionDeadline())
+                    .responseBreached(view.getResponseBreached())
+                    .resolutionBreached(view.getResolutionBreached())
+                    .responseComplianceScore(view.getResponseComplianceScore())
+                    .resolutionComplianceScore(view.getResolutionComplianceScore())
+                    .build());
         } catch (Exception e) {
             log.error("Error retrieving SLA tracking data", e);
             return Page.empty(pageable);
@@ -55,18 +55,29 @@ public class SLATrackingServiceImpl implements SLATrackingService {
     @Override
     public SLAReportDto generateSLAReport(String period) {
         try {
-            // Mock implementation - replace with actual calculations
-            long totalTickets = supportTicketRepository.count();
+            // Served from the SLA engine's running counters
+            long responseMinutes = 0, responseSamples = 0, resolutionMinutes = 0, resolutionSamples = 0;
+            long responseMet = 0, responseBreached = 0, resolutionMet = 0, resolutionBreached = 0;
+            for (SlaEngine.ComplianceCounter counter : slaEngine.getCounters()) {
+                responseMinutes += counter.getResponseMinutes();
+                responseSamples += counter.getResponseSamples();
+                resolutionMinutes += counter.getResolutionMinutes();
+                resolutionSamples += counter.getResolutionSamples();
+                responseMet += counter.getResponseMet();
+                responseBreached += counter.getResponseBreached();
+                resolutionMet += counter.getResolutionMet();
+                resolutionBreached += counter.getResolutionBreached();
+            }
             
             return SLAReportDto.builder()
-                .startDate(LocalDateTime.now().minusDays(30))
+                .startDate(slaEngine.getCountersSince())
                 .endDate(LocalDateTime.now())
-                .averageResponseTime(2.5) // hours
-                .averageResolutionTime(18.5) // hours
-                .responseCompliance(92.5)
-                .resolutionCompliance(88.3)
-                .totalTickets((int) totalTickets)
-                .overdueTickets(5)
+                .averageResponseTime(averageHours(responseMinutes, responseSamples))
+                .averageResolutionTime(averageHours(resolutionMinutes, resolutionSamples))
+                .responseCompliance(compliance(responseMet, responseBreached))
+                .resolutionCompliance(compliance(resolutionMet, resolutionBreached))
+                .totalTickets((int) supportTicketRepository.count())
+                .overdueTickets(slaEngine.getOverdueCount())
                 .build();
         } catch (Exception e) {
             log.error("Error generating SLA report", e);
@@ -86,32 +97,24 @@ public class SLATrackingServiceImpl implements SLATrackingService {
     @Override
     public SLAComplianceDto getSLACompliance() {
         try {
-            // Mock implementation - replace with actual calculations
             List<SLAComplianceDto.SLAComplianceDetail> details = new ArrayList<>();
+            long met = 0, breached = 0;
             
-            details.add(SLAComplianceDto.SLAComplianceDetail.builder()
-                .category("Technical")
-                .priority("HIGH")
-                .responseCompliance(95.0)
-                .resolutionCompliance(90.0)
-                .build());
-                
-            details.add(SLAComplianceDto.SLAComplianceDetail.builder()
-                .category("Billing")
-                .priority("MEDIUM")
-                .responseCompliance(88.0)
-                .resolutionCompliance(85.0)
-                .build());
-                
-            details.add(SLAComplianceDto.SLAComplianceDetail.builder()
-                .category("General")
-                .priority("LOW")
-                .responseCompliance(92.0)
-                .resolutionCompliance(89.0)
-                .build());
+            for (SlaEngine.ComplianceCounter counter : slaEngine.getCounters()) {
+                details.add(SLAComplianceDto.SLAComplianceDetail.builder()
+                    .category(counter.getCategory())
+                    .priority(counter.getPriority() != null ? counter.getPriority().name() : null)
+                    .responseCompliance(compliance(counter.getResponseMet(), counter.getResponseBreached()))
+                    .resolutionCompliance(compliance(counter.getResolutionMet(), counter.getResolutionBreached()))
+                    .build());
+                met += counter.getResponseMet() + counter.getResolutionMet();
+                breached += counter.getResponseBreached() + counter.getResolutionBreached();
+            }
+            details.sort(Comparator.comparing(SLAComplianceDto.SLAComplianceDetail::getCategory)
+                .thenComparing(SLAComplianceDto.SLAComplianceDetail::getPriority));
             
             return SLAComplianceDto.builder()
-                .overallCompliance(91.5)
+                .overallCompliance(compliance(met, breached))
                 .details(details)
                 .build();
         } catch (Exception e) {
@@ -126,9 +129,12 @@ public class SLATrackingServiceImpl implements SLATrackingService {
     @Override
     public void escalateTicket(Long ticketId, EscalationDto escalationDto) {
         try {
-            // Mock implementation - replace with actual escalation logic
             log.info("Escalating ticket {} to user {} with reason: {}", 
                 ticketId, escalationDto.getEscalateToId(), escalationDto.getReason());
+            slaEngine.escalate(ticketId, escalationDto.getReason());
+            if (escalationDto.getEscalateToId() != null) {
+                supportTicketService.assignTicket(ticketId, escalationDto.getEscalateToId());
+            }
         } catch (Exception e) {
             log.error("Error escalating ticket", e);
             throw new RuntimeException("Failed to escalate ticket: " + e.getMessage());
@@ -138,24 +144,26 @@ public class SLATrackingServiceImpl implements SLATrackingService {
     @Override
     public List<OverdueTicketDto> getOverdueTickets() {
         try {
-            // Mock implementation - replace with actual database queries
-            List<OverdueTicketDto> overdueTickets = new ArrayList<>();
-            
-            for (int i = 1; i <= 5; i++) {
-                OverdueTicketDto ticket = OverdueTicketDto.builder()
-                    .ticketId((long) i)
-                    .ticketNumber("TKT" + (2000 + i))
-                    .subject("Overdue ticket " + i)
-                    .dueDate(LocalDateTime.now().minusHours(i * 2))
-                    .build();
-                overdueTickets.add(ticket);
-            }
-            
-            return overdueTickets;
+            return slaEngine.getOverdueTickets().stream()
+                .map(ticket -> OverdueTicketDto.builder()
+                    .ticketId(ticket.ticketId())
+                    .ticketNumber(ticket.ticketNumber())
+                    .subject(ticket.subject())
+                    .dueDate(ticket.dueDate())
+                    .build())
+                .toList();
         } catch (Exception e) {
             log.error("Error retrieving overdue tickets", e);
             return new ArrayList<>();
         }
     }
-}
 
+    private double compliance(long met, long breached) {
+        long total = met + breached;
+        return total > 0 ? Math.round(met * 1000.0 / total) / 10.0 : 100.0;
+    }
+
+    private double averageHours(long minutes, long samples) {
+        return samples > 0 ? Math.round(minutes / 60.0 / samples * 10.0) / 10.0 : 0.0;
+    }
+}
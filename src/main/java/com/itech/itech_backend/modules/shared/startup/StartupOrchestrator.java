@@ -0,0 +1,192 @@
+package com.itech.itech_backend.modules.shared.startup;
+
+import com.itech.itech_backend.modules.shared.model.StartupMigration;
+import com.itech.itech_backend.modules.shared.repository.StartupMigrationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link StartupTask}s once the application is ready.
+ *
+ * In deferred mode (the default) the tasks run on the background executor after
+ * {@link ApplicationReadyEvent}, so readiness is not held up by data work; with
+ * {@code startup.tasks.deferred=false} they run inline before readiness is reported, as
+ * the old command line runners did. One-time tasks are claimed and recorded in the
+ * {@code startup_migrations} ledger. Boot phases and each task are timed as
+ * {@code startup.phase} and {@code startup.task}.
+ */
+@Component
+@Slf4j
+public class StartupOrchestrator {
+
+    public enum Outcome {
+        COMPLETED, SKIPPED, CLAIMED_ELSEWHERE, FAILED
+    }
+
+    private final List<StartupTask> tasks;
+    private final StartupMigrationRepository ledger;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    @Value("${startup.tasks.deferred:true}")
+    private boolean deferred = true;
+
+    @Value("${startup.tasks.claim-timeout-minutes:30}")
+    private long claimTimeoutMinutes = 30;
+
+    public StartupOrchestrator(List<StartupTask> tasks,
+                               StartupMigrationRepository ledger,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               @Qualifier("backgroundTaskExecutor") Executor executor) {
+        this.tasks = tasks.stream().sorted(Comparator.comparingInt(StartupTask::order)).toList();
+        this.ledger = ledger;
+        // The render and minimal profiles switch metrics off; timings are still logged there
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted(ApplicationStartedEvent event) {
+        recordPhase("context-refresh", event.getTimeTaken());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        recordPhase("ready", event.getTimeTaken());
+        if (tasks.isEmpty()) {
+            completion.complete(null);
+        } else if (deferred) {
+            log.info("Deferring {} startup tasks to the background executor", tasks.size());
+            CompletableFuture.runAsync(this::runAll, executor)
+                    .whenComplete((ignored, e) -> completion.complete(null));
+        } else {
+            runAll();
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * Completes when every startup task has finished, successfully or not
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    void runAll() {
+        long start = System.nanoTime();
+        int failed = 0;
+        for (StartupTask task : tasks) {
+            if (runTask(task) == Outcome.FAILED) {
+                failed++;
+            }
+        }
+        recordPhase("deferred-tasks", Duration.ofNanos(System.nanoTime() - start));
+        if (failed > 0) {
+            log.warn("{} of {} startup tasks failed; they are retried on the next boot", failed, tasks.size());
+        }
+    }
+
+    Outcome runTask(StartupTask task) {
+        long start = System.nanoTime();
+        StartupMigration entry = null;
+        if (task.oneTime()) {
+            Optional<StartupMigration> existing = ledger.findByName(task.name());
+            if (existing.isPresent() && existing.get().getStatus() == StartupMigration.Status.COMPLETED) {
+                return record(task, Outcome.SKIPPED, start);
+            }
+            entry = claim(task.name(), existing.orElse(null));
+            if (entry == null) {
+                return record(task, Outcome.CLAIMED_ELSEWHERE, start);
+            }
+        }
+        try {
+            int rows = task.run();
+            if (entry != null) {
+                entry.setStatus(StartupMigration.Status.COMPLETED);
+                entry.setCompletedAt(LocalDateTime.now());
+                entry.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                entry.setRowsAffected(rows);
+                entry.setDetail(null);
+                ledger.save(entry);
+            }
+            log.info("Startup task {} completed ({} rows)", task.name(), rows);
+            return record(task, Outcome.COMPLETED, start);
+        } catch (RuntimeException e) {
+            log.error("Startup task {} failed: {}", task.name(), e.getMessage(), e);
+            if (entry != null) {
+                entry.setStatus(StartupMigration.Status.FAILED);
+                entry.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                entry.setDetail(truncate(e.getMessage()));
+                ledger.save(entry);
+            }
+            return record(task, Outcome.FAILED, start);
+        }
+    }
+
+    private StartupMigration claim(String name, StartupMigration existing) {
+        LocalDateTime now = LocalDateTime.now();
+        if (existing == null) {
+            try {
+                return ledger.saveAndFlush(StartupMigration.builder()
+                        .name(name)
+                        .status(StartupMigration.Status.RUNNING)
+                        .startedAt(now)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                return null; // another node inserted the claim first
+            }
+        }
+        if (existing.getStatus() == StartupMigration.Status.RUNNING
+                && existing.getStartedAt().isAfter(now.minusMinutes(claimTimeoutMinutes))) {
+            return null;
+        }
+        // Failed earlier, or the node holding the claim died: take it over
+        existing.setStatus(StartupMigration.Status.RUNNING);
+        existing.setStartedAt(now);
+        return ledger.save(existing);
+    }
+
+    private Outcome record(StartupTask task, Outcome outcome, long startNanos) {
+        Timer.builder("startup.task")
+                .tag("task", task.name())
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return outcome;
+    }
+
+    private void recordPhase(String phase, Duration duration) {
+        if (duration != null) {
+            log.info("Startup phase {} took {} ms", phase, duration.toMillis());
+            Timer.builder("startup.phase").tag("phase", phase).register(meterRegistry).record(duration);
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,35 @@
+package com.itech.itech_backend.modules.shared.startup;
+
+/**
+ * Data work that used to run while the application was booting.
+ *
+ * Tasks are picked up by {@link StartupOrchestrator} after the application is ready and
+ * run one after another on the background executor, so they never delay health checks.
+ * Tasks must be idempotent: a node can die half way through and the task is then retried.
+ */
+public interface StartupTask {
+
+    /**
+     * Stable ledger key; renaming a one-time task makes it run again
+     */
+    String name();
+
+    /**
+     * Tasks run in ascending order
+     */
+    default int order() {
+        return 0;
+    }
+
+    /**
+     * One-time tasks are recorded in the ledger and never run again once completed
+     */
+    default boolean oneTime() {
+        return true;
+    }
+
+    /**
+     * Do the work and return the number of rows written, for the ledger
+     */
+    int run();
+}
@@ -0,0 +1,138 @@
+package com.itech.itech_backend.modules.shared.telemetry;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL activity of the request running on the current thread: how many statements it prepared,
+ * how long they took and how often each distinct statement repeated. Filled in by
+ * {@link SqlStatementInspector} and {@link SqlTimingListener}, read back by
+ * {@link RequestTelemetryInterceptor} when the request completes.
+ *
+ * Hibernate creates its callbacks itself, so they reach this class through static state. When
+ * telemetry is disabled nothing is installed and none of this code runs.
+ */
+public final class RequestTelemetry {
+
+    // Hibernate binds every literal, so identical text means the same statement with other arguments
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+    private static final int MAX_SQL_LENGTH = 2_000;
+
+    private static final ThreadLocal<RequestTelemetry> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    private static volatile SlowQueryLog slowQueryLog;
+
+    private final String requestId;
+    private final String handler;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Integer> repeats = new HashMap<>();
+    private int statements;
+    private long sqlNanos;
+
+    private RequestTelemetry(String requestId, String handler) {
+        this.requestId = requestId;
+        this.handler = handler;
+    }
+
+    public static void install(SlowQueryLog log) {
+        slowQueryLog = log;
+    }
+
+    public static RequestTelemetry begin(String requestId, String handler) {
+        RequestTelemetry telemetry = new RequestTelemetry(requestId, handler);
+        CURRENT.set(telemetry);
+        return telemetry;
+    }
+
+    /**
+     * Detaches and returns the current request's telemetry, or null if none was started.
+     */
+    public static RequestTelemetry end() {
+        RequestTelemetry telemetry = CURRENT.get();
+        CURRENT.remove();
+        LAST_SQL.remove();
+        return telemetry;
+    }
+
+    public static RequestTelemetry current() {
+        return CURRENT.get();
+    }
+
+    static void statementPrepared(String sql) {
+        if (slowQueryLog != null) {
+            LAST_SQL.set(sql);
+        }
+        RequestTelemetry telemetry = CURRENT.get();
+        if (telemetry == null) {
+            return;
+        }
+        telemetry.statements++;
+        Integer seen = telemetry.repeats.get(sql);
+        if (seen != null) {
+            telemetry.repeats.put(sql, seen + 1);
+        } else if (telemetry.repeats.size() < MAX_DISTINCT_STATEMENTS) {
+            telemetry.repeats.put(sql, 1);
+        }
+    }
+
+    static void statementExecuted(long nanos) {
+        RequestTelemetry telemetry = CURRENT.get();
+        if (telemetry != null) {
+            telemetry.sqlNanos += nanos;
+        }
+        SlowQueryLog log = slowQueryLog;
+        if (log != null && nanos >= log.getThresholdNanos()) {
+            log.record(new SlowQueryLog.SlowQuery(Instant.now(), nanos / 1_000_000, abbreviate(LAST_SQL.get()),
+                    telemetry != null ? telemetry.handler : null,
+                    telemetry != null ? telemetry.requestId : null));
+        }
+    }
+
+    /**
+     * The most repeated statement when the request looks like an N+1: more than
+     * {@code maxStatements} statements overall, or one statement run at least {@code maxRepeats}
+     * times. Null otherwise.
+     */
+    public Repeated suspectedNPlusOne(int maxStatements, int maxRepeats) {
+        Map.Entry<String, Integer> top = repeats.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+        int topCount = top != null ? top.getValue() : 0;
+        if (statements <= maxStatements && topCount < maxRepeats) {
+            return null;
+        }
+        return new Repeated(top != null ? abbreviate(top.getKey()) : null, topCount);
+    }
+
+    public record Repeated(String sql, int count) {
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    static String abbreviate(String sql) {
+        if (sql == null || sql.length() <= MAX_SQL_LENGTH) {
+            return sql;
+        }
+        return sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,129 @@
+package com.itech.itech_backend.modules.shared.telemetry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each controller method and records the SQL it issued:
+ * <ul>
+ *     <li>{@code app.handler.requests} - handler latency by handler, status and outcome</li>
+ *     <li>{@code app.handler.sql.statements} / {@code app.handler.sql.time} - statements and
+ *     SQL time per request</li>
+ *     <li>{@code app.handler.n_plus_one} - requests that looked like an N+1, also logged with
+ *     the repeated statement</li>
+ * </ul>
+ * The request id and handler are put in the MDC so every log line of the request carries them.
+ */
+@Slf4j
+public class RequestTelemetryInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String REQUEST_ID_HEADER = "X-Request-ID";
+
+    private final MeterRegistry registry;
+    private final boolean histograms;
+    private final int nPlusOneStatements;
+    private final int nPlusOneRepeats;
+
+    public RequestTelemetryInterceptor(MeterRegistry registry, boolean histograms,
+                                       int nPlusOneStatements, int nPlusOneRepeats) {
+        this.registry = registry;
+        this.histograms = histograms;
+        this.nPlusOneStatements = nPlusOneStatements;
+        this.nPlusOneRepeats = nPlusOneRepeats;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        String handlerName = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        String requestId = requestId(request, response);
+        RequestTelemetry.begin(requestId, handlerName);
+        MDC.put("requestId", requestId);
+        MDC.put("handler", handlerName);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async part completes on another thread; only the synchronous part would be measured
+        RequestTelemetry.end();
+        MDC.remove("requestId");
+        MDC.remove("handler");
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTelemetry telemetry = RequestTelemetry.end();
+        try {
+            if (telemetry != null) {
+                record(telemetry, response.getStatus(), ex);
+            }
+        } finally {
+            MDC.remove("requestId");
+            MDC.remove("handler");
+        }
+    }
+
+    private void record(RequestTelemetry telemetry, int status, Exception ex) {
+        String handler = telemetry.getHandler();
+        Timer.builder("app.handler.requests")
+                .description("Controller method latency")
+                .tag("handler", handler)
+                .tag("status", String.valueOf(status))
+                .tag("outcome", ex != null ? "SERVER_ERROR" : Outcome.forStatus(status).name())
+                .tag("exception", ex != null ? ex.getClass().getSimpleName() : "none")
+                .publishPercentileHistogram(histograms)
+                .register(registry)
+                .record(telemetry.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("app.handler.sql.statements")
+                .description("SQL statements per request")
+                .tag("handler", handler)
+                .publishPercentileHistogram(histograms)
+                .register(registry)
+                .record(telemetry.getStatements());
+        Timer.builder("app.handler.sql.time")
+                .description("Time spent executing SQL per request")
+                .tag("handler", handler)
+                .publishPercentileHistogram(histograms)
+                .register(registry)
+                .record(telemetry.getSqlNanos(), TimeUnit.NANOSECONDS);
+
+        RequestTelemetry.Repeated repeated = telemetry.suspectedNPlusOne(nPlusOneStatements, nPlusOneRepeats);
+        if (repeated != null) {
+            Counter.builder("app.handler.n_plus_one")
+                    .description("Requests that issued too many or too repetitive SQL statements")
+                    .tag("handler", handler)
+                    .register(registry)
+                    .increment();
+            log.warn("⚠️ Possible N+1 in {}: {} statements, {} x {}",
+                    handler, telemetry.getStatements(), repeated.count(), repeated.sql());
+        }
+    }
+
+    private static String requestId(HttpServletRequest request, HttpServletResponse response) {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank()) {
+            requestId = response.getHeader(REQUEST_ID_HEADER);
+        }
+        if (requestId == null || requestId.isBlank()) {
+            requestId = UUID.randomUUID().toString();
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+        return requestId;
+    }
+}
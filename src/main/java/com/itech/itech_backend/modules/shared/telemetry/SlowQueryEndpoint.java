@@ -0,0 +1,43 @@
+package com.itech.itech_backend.modules.shared.telemetry;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/slowqueries}: the most recent statements slower than
+ * {@code app.telemetry.slow-query-ms}, newest first, with the handler and request id that ran
+ * them. {@code DELETE} empties the buffer.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@ConditionalOnProperty(name = "app.telemetry.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("thresholdMs", TimeUnit.NANOSECONDS.toMillis(slowQueryLog.getThresholdNanos()));
+        response.put("capacity", slowQueryLog.getCapacity());
+        response.put("recorded", slowQueryLog.getRecorded());
+        response.put("queries", slowQueryLog.recent());
+        return response;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,69 @@
+package com.itech.itech_backend.modules.shared.telemetry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of the most recent statements slower than the threshold. Writers never
+ * block each other; the oldest entry is overwritten once the buffer is full.
+ */
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong recorded = new AtomicLong();
+    private final long thresholdNanos;
+
+    public SlowQueryLog(int capacity, long thresholdMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow query log capacity must be positive");
+        }
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public record SlowQuery(Instant at, long durationMs, String sql, String handler, String requestId) {
+    }
+
+    public void record(SlowQuery query) {
+        long slot = recorded.getAndIncrement();
+        entries.set((int) (slot % entries.length()), query);
+    }
+
+    /**
+     * Newest first.
+     */
+    public List<SlowQuery> recent() {
+        long end = recorded.get();
+        long start = Math.max(0, end - entries.length());
+        List<SlowQuery> queries = new ArrayList<>((int) (end - start));
+        for (long slot = end - 1; slot >= start; slot--) {
+            SlowQuery query = entries.get((int) (slot % entries.length()));
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+}
@@ -0,0 +1,16 @@
+package com.itech.itech_backend.modules.shared.telemetry;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the current request. The SQL is returned
+ * unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTelemetry.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,32 @@
+package com.itech.itech_backend.modules.shared.telemetry;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times JDBC executions (single statements and batches). Hibernate creates one instance per
+ * session, and a session is used by one thread at a time, so plain fields are enough.
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTelemetry.statementExecuted(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTelemetry.statementExecuted(System.nanoTime() - executeStart);
+    }
+}
@@ -5,10 +5,13 @@ import com.itech.itech_backend.modules.shared.dto.ChatbotResponseDto;
 import com.itech.itech_backend.modules.support.model.ChatbotMessage;
 import com.itech.itech_backend.modules.support.service.ChatbotService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -79,6 +82,19 @@ public class ChatbotController {
         }
     }
 
+    // Streams the answer token by token as Server-Sent Events
+    @PostMapping(value = "/support/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSupportChat(
+            @Valid @RequestBody ChatbotRequestDto request,
+            HttpServletRequest httpRequest) {
+
+        if (request.getUserIp() == null || request.getUserIp().isEmpty()) {
+            request.setUserIp(getClientIpAddress(httpRequest));
+        }
+
+        return chatbotService.streamRoleBasedMessage(request);
+    }
+
     @GetMapping("/history/{sessionId}")
     public ResponseEntity<List<ChatbotMessage>> getChatHistory(@PathVariable String sessionId) {
         try {
@@ -1,8 +1,10 @@
 package com.itech.itech_backend.modules.support.controller;
 
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import com.itech.itech_backend.modules.support.model.SupportTicket;
 import com.itech.itech_backend.modules.support.service.SupportTicketService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/support-tickets")
 @RequiredArgsConstructor
@@ -20,19 +23,21 @@ public class SupportTicketController {
 
     @PostMapping
     public ResponseEntity<SupportTicket> createSupportTicket(@RequestBody SupportTicket supportTicket) {
-        System.out.println("🎫 Creating support ticket: " + supportTicket.getSubject());
+        log.debug("🎫 Creating support ticket: {}", supportTicket.getSubject());
         SupportTicket createdTicket = supportTicketService.createSupportTicket(supportTicket);
         return ResponseEntity.ok(createdTicket);
     }
 
     @GetMapping
-    public ResponseEntity<List<SupportTicket>> getSupportTickets(
-            @RequestParam(required = false) String status,
-            @RequestParam(required = false) String priority,
-            @RequestParam(required = false) String search) {
-        System.out.println("🔍 Fetching support tickets with filters - Status: " + status + ", Priority: " + priority);
-        List<SupportTicket> tickets = supportTicketService.getFilteredSupportTickets(status, priority, search);
-        System.out.println("📋 Found " + tickets.size() + " support tickets");
+    public ResponseEntity<KeysetPage<SupportTicket>> getSupportTickets(
+            @RequestParam Map<String, String> filters,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("🔍 Fetching support tickets with filters: {}", filters);
+        KeysetPage<SupportTicket> tickets = supportTicketService.getAllSupportTickets(filters, sort, cursor, size);
+        log.debug("📋 Returning {} of {}{} support tickets",
+                tickets.content().size(), tickets.total(), (tickets.totalExact() ? "" : "+"));
         return ResponseEntity.ok(tickets);
     }
 
@@ -46,7 +51,7 @@ public class SupportTicketController {
     public ResponseEntity<SupportTicket> updateSupportTicket(
             @PathVariable Long id, 
             @RequestBody Map<String, Object> updates) {
-        System.out.println("🔄 Updating ticket " + id + " with: " + updates);
+        log.debug("🔄 Updating ticket {} with: {}", id, updates);
         SupportTicket updatedTicket = supportTicketService.updateSupportTicket(id, updates);
         return ResponseEntity.ok(updatedTicket);
     }
@@ -0,0 +1,24 @@
+package com.itech.itech_backend.modules.support.event;
+
+import com.itech.itech_backend.enums.TicketPriority;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by SlaEngine when a support ticket deadline passes.
+ * Listeners run on the async executor, never on the timer thread.
+ */
+public record SlaEvent(Type type,
+                       Long ticketId,
+                       String ticketNumber,
+                       TicketPriority priority,
+                       String category,
+                       LocalDateTime deadline,
+                       LocalDateTime firedAt) {
+
+    public enum Type {
+        RESPONSE_BREACHED,
+        RESOLUTION_BREACHED,
+        ESCALATED
+    }
+}
@@ -0,0 +1,13 @@
+package com.itech.itech_backend.modules.support.repository;
+
+import com.itech.marketplace.entity.SLAConfiguration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SLAConfigurationRepository extends JpaRepository<SLAConfiguration, Long> {
+
+    List<SLAConfiguration> findByIsActiveTrue();
+}
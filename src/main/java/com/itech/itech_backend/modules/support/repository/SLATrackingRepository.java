@@ -0,0 +1,108 @@
+package com.itech.itech_backend.modules.support.repository;
+
+import com.itech.itech_backend.enums.TicketPriority;
+import com.itech.itech_backend.enums.TicketStatus;
+import com.itech.marketplace.entity.SLATracking;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SLATrackingRepository extends JpaRepository<SLATracking, Long> {
+
+    /**
+     * Tracking row joined with the ticket fields the SLA engine needs
+     */
+    interface TrackingView {
+        Long getTrackingId();
+        Long getTicketId();
+        String getTicketNumber();
+        String getSubject();
+        String getCategory();
+        TicketPriority getPriority();
+        TicketStatus getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getRespondedAt();
+        LocalDateTime getResolvedAt();
+        Long getSlaConfigId();
+        LocalDateTime getResponseDeadline();
+        LocalDateTime getResolutionDeadline();
+        LocalDateTime getEscalationDeadline();
+        LocalDateTime getActualResponseTime();
+        Long getResponseTimeMinutes();
+        Boolean getResponseBreached();
+        Boolean getResolutionBreached();
+        Boolean getEscalated();
+        Double getResponseComplianceScore();
+        Double getResolutionComplianceScore();
+    }
+
+    /**
+     * Compliance totals for one category/priority pair
+     */
+    interface ComplianceRow {
+        String getCategory();
+        TicketPriority getPriority();
+        Long getResponseMet();
+        Long getResponseBreached();
+        Long getResolutionMet();
+        Long getResolutionBreached();
+        Long getResponseMinutes();
+        Long getResponseSamples();
+        Long getResolutionMinutes();
+        Long getResolutionSamples();
+    }
+
+    String TRACKING_VIEW_COLUMNS =
+            "s.id AS trackingId, t.id AS ticketId, t.ticketNumber AS ticketNumber, t.subject AS subject, " +
+            "t.category AS category, t.priority AS priority, t.status AS status, t.createdAt AS createdAt, " +
+            "t.respondedAt AS respondedAt, t.resolvedAt AS resolvedAt, s.slaConfiguration.id AS slaConfigId, " +
+            "s.responseDeadline AS responseDeadline, s.resolutionDeadline AS resolutionDeadline, " +
+            "s.escalationDeadline AS escalationDeadline, s.actualResponseTime AS actualResponseTime, " +
+            "s.responseTimeMinutes AS responseTimeMinutes, " +
+            "s.responseBreached AS responseBreached, s.resolutionBreached AS resolutionBreached, " +
+            "s.escalated AS escalated, s.responseComplianceScore AS responseComplianceScore, " +
+            "s.resolutionComplianceScore AS resolutionComplianceScore ";
+
+    // Unresolved tracking rows in id order, used to rebuild the timer wheel
+    @Query("SELECT " + TRACKING_VIEW_COLUMNS +
+           "FROM SLATracking s JOIN s.ticket t WHERE s.actualResolutionTime IS NULL AND s.id > :afterId ORDER BY s.id")
+    List<TrackingView> findUnresolvedChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT " + TRACKING_VIEW_COLUMNS +
+                   "FROM SLATracking s JOIN s.ticket t WHERE " +
+                   "(:status IS NULL OR t.status = :status) AND " +
+                   "(:breached IS NULL OR (CASE WHEN s.responseBreached = true OR s.resolutionBreached = true " +
+                   "THEN true ELSE false END) = :breached) ORDER BY s.id DESC",
+           countQuery = "SELECT COUNT(s) FROM SLATracking s JOIN s.ticket t WHERE " +
+                   "(:status IS NULL OR t.status = :status) AND " +
+                   "(:breached IS NULL OR (CASE WHEN s.responseBreached = true OR s.resolutionBreached = true " +
+                   "THEN true ELSE false END) = :breached)")
+    Page<TrackingView> findTracking(@Param("status") TicketStatus status,
+                                    @Param("breached") Boolean breached,
+                                    Pageable pageable);
+
+    @Query("SELECT s FROM SLATracking s WHERE s.ticket.id IN :ticketIds")
+    List<SLATracking> findByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    // Seeds the in-memory compliance counters at startup
+    @Query("SELECT t.category AS category, t.priority AS priority, " +
+           "SUM(CASE WHEN s.actualResponseTime IS NOT NULL AND s.responseBreached = false THEN 1 ELSE 0 END) AS responseMet, " +
+           "SUM(CASE WHEN s.responseBreached = true THEN 1 ELSE 0 END) AS responseBreached, " +
+           "SUM(CASE WHEN s.actualResolutionTime IS NOT NULL AND s.resolutionBreached = false THEN 1 ELSE 0 END) AS resolutionMet, " +
+           "SUM(CASE WHEN s.resolutionBreached = true THEN 1 ELSE 0 END) AS resolutionBreached, " +
+           "SUM(COALESCE(s.responseTimeMinutes, 0)) AS responseMinutes, COUNT(s.responseTimeMinutes) AS responseSamples, " +
+           "SUM(COALESCE(s.resolutionTimeMinutes, 0)) AS resolutionMinutes, COUNT(s.resolutionTimeMinutes) AS resolutionSamples " +
+           "FROM SLATracking s JOIN s.ticket t WHERE t.status <> 'CANCELLED' GROUP BY t.category, t.priority")
+    List<ComplianceRow> aggregateCompliance();
+
+    @Query("SELECT MIN(s.createdAt) FROM SLATracking s")
+    LocalDateTime findEarliestTracking();
+}
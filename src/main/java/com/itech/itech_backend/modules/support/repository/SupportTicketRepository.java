@@ -6,13 +6,33 @@ import com.itech.itech_backend.enums.TicketPriority;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long> {
+
+    /**
+     * Ticket fields the SLA engine needs, without the eager user associations
+     */
+    interface SlaTicketView {
+        Long getId();
+        String getTicketNumber();
+        String getSubject();
+        String getCategory();
+        TicketPriority getPriority();
+        TicketStatus getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getRespondedAt();
+        LocalDateTime getResolvedAt();
+    }
+
     long countByStatus(String status);
     long countByStatus(TicketStatus status);
     
@@ -30,5 +50,14 @@ public interface SupportTicketRepository extends JpaRepository<SupportTicket, Lo
     // Assignment methods
     List<SupportTicket> findByAssignedToIsNullAndStatusIn(List<TicketStatus> statuses);
     List<SupportTicket> findByAssignedToIdAndStatusIn(Long assignedToId, List<TicketStatus> statuses);
-}
 
+    // Open tickets that have no SLA tracking row yet, in id order
+    @Query("SELECT t.id AS id, t.ticketNumber AS ticketNumber, t.subject AS subject, t.category AS category, " +
+           "t.priority AS priority, t.status AS status, t.createdAt AS createdAt, " +
+           "t.respondedAt AS respondedAt, t.resolvedAt AS resolvedAt " +
+           "FROM SupportTicket t WHERE t.status IN :statuses AND t.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM SLATracking s WHERE s.ticket = t) ORDER BY t.id")
+    List<SlaTicketView> findUntrackedChunk(@Param("statuses") Collection<TicketStatus> statuses,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+}
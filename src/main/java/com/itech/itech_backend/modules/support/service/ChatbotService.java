@@ -20,6 +20,7 @@ import com.itech.itech_backend.modules.shared.service.OpenAiService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -81,6 +82,28 @@ public class ChatbotService {
         return response;
     }
 
+    /**
+     * Stream a role-based answer over SSE; the conversation is saved once the stream completes
+     */
+    public SseEmitter streamRoleBasedMessage(ChatbotRequestDto request) {
+        log.info("Streaming chatbot message from user role: {}", request.getUserRole());
+        if (request.getMessage() == null || request.getMessage().isBlank()) {
+            throw new IllegalArgumentException("Message is required");
+        }
+
+        String userRole = request.getUserRole() != null ? request.getUserRole() : "NON_LOGGED";
+        if (request.getSessionId() == null || request.getSessionId().isEmpty()) {
+            request.setSessionId(UUID.randomUUID().toString());
+        }
+
+        return openAiService.streamRoleBasedResponse(request.getMessage().trim(), userRole, fullText ->
+                saveChatMessage(request, ChatbotResponseDto.builder()
+                        .response(fullText)
+                        .sessionId(request.getSessionId())
+                        .hasRecommendations(false)
+                        .build()));
+    }
+
     /**
      * Generate role-based response with enhanced logic
      */
@@ -0,0 +1,1045 @@
+package com.itech.itech_backend.modules.support.service;
+
+import com.itech.itech_backend.enums.TicketPriority;
+import com.itech.itech_backend.enums.TicketStatus;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.shared.scheduling.HashedTimerWheel;
+import com.itech.itech_backend.modules.support.event.SlaEvent;
+import com.itech.itech_backend.modules.support.model.SupportTicket;
+import com.itech.itech_backend.modules.support.repository.SLAConfigurationRepository;
+import com.itech.itech_backend.modules.support.repository.SLATrackingRepository;
+import com.itech.itech_backend.modules.support.repository.SLATrackingRepository.ComplianceRow;
+import com.itech.itech_backend.modules.support.repository.SLATrackingRepository.TrackingView;
+import com.itech.itech_backend.modules.support.repository.SupportTicketRepository;
+import com.itech.itech_backend.modules.support.repository.SupportTicketRepository.SlaTicketView;
+import com.itech.marketplace.entity.SLAConfiguration;
+import com.itech.marketplace.entity.SLATracking;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory SLA engine for support tickets.
+ *
+ * Every open ticket has its response, resolution and escalation deadlines scheduled in a
+ * hashed timer wheel, rebuilt from {@code sla_tracking} in the background once the
+ * application is ready; a failed rebuild is retried. Ticket changes that arrive before the
+ * rebuild finishes are held, latest per ticket, and applied afterwards. When a deadline
+ * passes every node flags the ticket in memory; the {@link SlaEvent} is published once per
+ * cluster, by the node that writes the flag to {@code sla_tracking}, after that write has
+ * committed. Other state changes are queued and written to {@code sla_tracking} in batches,
+ * and compliance figures are served from counters that are seeded once from the database
+ * and then kept up to date.
+ */
+@Service
+@Slf4j
+public class SlaEngine {
+
+    /**
+     * Category used by configurations that apply to every ticket category
+     */
+    public static final String ANY_CATEGORY = "*";
+
+    private static final String DEFAULT_CATEGORY = "General";
+
+    private static final String DEADLINE_LOCK = "sla-deadlines";
+
+    private static final Map<TicketPriority, int[]> DEFAULT_POLICY_MINUTES = new EnumMap<>(Map.of(
+            // response, resolution, escalation
+            TicketPriority.URGENT, new int[]{30, 240, 120},
+            TicketPriority.HIGH, new int[]{60, 480, 240},
+            TicketPriority.MEDIUM, new int[]{240, 1440, 720},
+            TicketPriority.LOW, new int[]{480, 2880, 1440}
+    ));
+
+    private final SLATrackingRepository trackingRepository;
+    private final SLAConfigurationRepository configurationRepository;
+    private final SupportTicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate seedTransaction;
+    private final ClusterLock clusterLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor eventExecutor;
+
+    private final Map<Long, TicketSla> active = new ConcurrentHashMap<>();
+    private final Map<Long, TicketSla> dirty = new ConcurrentHashMap<>();
+    private final Map<Long, TicketSla> overdue = new ConcurrentHashMap<>();
+    private final Map<String, ComplianceCounter> counters = new ConcurrentHashMap<>();
+    private final Map<Long, TicketSnapshot> beforeReady = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final Queue<FiredDeadline> fired = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean publishing = new AtomicBoolean(false);
+
+    private volatile Map<String, Policy> policies = Map.of();
+    private volatile HashedTimerWheel<Deadline> wheel;
+    private volatile boolean ready;
+    private volatile LocalDateTime countersSince;
+
+    @Value("${support.sla.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${support.sla.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${support.sla.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${support.sla.event-lease-ms:30000}")
+    private long eventLeaseMs;
+
+    public SlaEngine(SLATrackingRepository trackingRepository,
+                     SLAConfigurationRepository configurationRepository,
+                     SupportTicketRepository ticketRepository,
+                     TransactionTemplate transactionTemplate,
+                     ClusterLock clusterLock,
+                     ApplicationEventPublisher eventPublisher,
+                     @Qualifier("asyncExecutor") Executor eventExecutor) {
+        this.trackingRepository = trackingRepository;
+        this.configurationRepository = configurationRepository;
+        this.ticketRepository = ticketRepository;
+        this.transactionTemplate = transactionTemplate;
+        // Seeding must not roll back the caller's transaction when another node wins the insert
+        this.seedTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clusterLock = clusterLock;
+        this.eventPublisher = eventPublisher;
+        this.eventExecutor = eventExecutor;
+    }
+
+    // ============================================
+    // STARTUP
+    // ============================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            eventExecutor.execute(this::rebuildIfNeeded);
+        } catch (RejectedExecutionException e) {
+            log.warn("SLA engine rebuild deferred, executor is full");
+        }
+    }
+
+    /**
+     * Build the in-memory state from the database unless it is already built; retried on a
+     * schedule until the first build succeeds
+     */
+    @Scheduled(fixedDelayString = "${support.sla.rebuild-retry-ms:30000}",
+               initialDelayString = "${support.sla.rebuild-retry-ms:30000}")
+    public void rebuildIfNeeded() {
+        if (ready || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("SLA engine rebuild failed, retrying later: {}", e.getMessage(), e);
+            reset();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        wheel = new HashedTimerWheel<>("sla-timer-wheel", tickMs, wheelSize, this::onDeadline);
+        reloadPolicies();
+        seedCounters();
+
+        // Unresolved tracking rows
+        long afterId = 0L;
+        List<TrackingView> tracked;
+        do {
+            tracked = trackingRepository.findUnresolvedChunk(afterId, PageRequest.of(0, chunkSize));
+            for (TrackingView view : tracked) {
+                restore(view);
+                afterId = view.getTrackingId();
+            }
+        } while (tracked.size() == chunkSize);
+
+        // Open tickets created before tracking existed
+        afterId = 0L;
+        List<SlaTicketView> untracked;
+        do {
+            untracked = ticketRepository.findUntrackedChunk(
+                    List.of(TicketStatus.OPEN, TicketStatus.IN_PROGRESS), afterId, PageRequest.of(0, chunkSize));
+            for (SlaTicketView view : untracked) {
+                apply(TicketSnapshot.of(view));
+                afterId = view.getId();
+            }
+        } while (untracked.size() == chunkSize);
+
+        ready = true;
+        drainQueued();
+        log.info("SLA engine tracking {} open tickets ({} overdue), rebuilt in {} ms",
+                active.size(), overdue.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Drop a partial rebuild; state already queued for writing is still flushed
+     */
+    private void reset() {
+        HashedTimerWheel<Deadline> current = wheel;
+        if (current != null) {
+            current.close();
+        }
+        active.clear();
+        overdue.clear();
+        counters.clear();
+    }
+
+    /**
+     * Reload active SLA configurations; applies to tickets created or re-prioritised afterwards
+     */
+    public void reloadPolicies() {
+        List<SLAConfiguration> configs = configurationRepository.findByIsActiveTrue();
+        boolean seeded = false;
+        for (TicketPriority priority : TicketPriority.values()) {
+            boolean hasDefault = configs.stream().anyMatch(config ->
+                    config.getPriority() == priority && ANY_CATEGORY.equals(config.getCategory()));
+            if (!hasDefault) {
+                seedDefaultPolicy(priority);
+                seeded = true;
+            }
+        }
+        if (seeded) {
+            configs = configurationRepository.findByIsActiveTrue();
+        }
+        Map<String, Policy> byKey = new HashMap<>();
+        for (SLAConfiguration config : configs) {
+            // Lowest id wins, so every node picks the same row if duplicates exist
+            byKey.merge(policyKey(config.getPriority(), config.getCategory()), new Policy(config.getId(),
+                            config.getResponseTimeMinutes(), config.getResolutionTimeMinutes(), config.getEscalationTimeMinutes()),
+                    (a, b) -> a.configId() <= b.configId() ? a : b);
+        }
+        policies = byKey;
+    }
+
+    /**
+     * Insert the built-in default for a priority. Nodes starting together race here; the
+     * unique index from V31 lets exactly one insert win and the others read its row.
+     */
+    private void seedDefaultPolicy(TicketPriority priority) {
+        int[] minutes = DEFAULT_POLICY_MINUTES.get(priority);
+        try {
+            seedTransaction.executeWithoutResult(status -> configurationRepository.save(SLAConfiguration.builder()
+                    .priority(priority)
+                    .category(ANY_CATEGORY)
+                    .responseTimeMinutes(minutes[0])
+                    .resolutionTimeMinutes(minutes[1])
+                    .escalationTimeMinutes(minutes[2])
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Default SLA policy for {} was seeded by another node", priority);
+        }
+    }
+
+    private void seedCounters() {
+        counters.clear();
+        for (ComplianceRow row : trackingRepository.aggregateCompliance()) {
+            ComplianceCounter counter = counter(row.getCategory(), row.getPriority());
+            counter.responseMet.add(value(row.getResponseMet()));
+            counter.responseBreached.add(value(row.getResponseBreached()));
+            counter.resolutionMet.add(value(row.getResolutionMet()));
+            counter.resolutionBreached.add(value(row.getResolutionBreached()));
+            counter.responseMinutes.add(value(row.getResponseMinutes()));
+            counter.responseSamples.add(value(row.getResponseSamples()));
+            counter.resolutionMinutes.add(value(row.getResolutionMinutes()));
+            counter.resolutionSamples.add(value(row.getResolutionSamples()));
+        }
+        LocalDateTime earliest = trackingRepository.findEarliestTracking();
+        countersSince = earliest != null ? earliest : LocalDateTime.now();
+    }
+
+    private void restore(TrackingView view) {
+        TicketSla state = new TicketSla(view.getTicketId());
+        state.trackingId = view.getTrackingId();
+        state.ticketNumber = view.getTicketNumber();
+        state.subject = view.getSubject();
+        state.category = view.getCategory();
+        state.priority = view.getPriority();
+        state.createdAt = view.getCreatedAt();
+        state.configId = view.getSlaConfigId();
+        state.responseDeadline = view.getResponseDeadline();
+        state.resolutionDeadline = view.getResolutionDeadline();
+        state.escalationDeadline = view.getEscalationDeadline();
+        state.actualResponseTime = view.getActualResponseTime();
+        state.responseTimeMinutes = view.getResponseTimeMinutes();
+        state.responseBreached = Boolean.TRUE.equals(view.getResponseBreached());
+        state.resolutionBreached = Boolean.TRUE.equals(view.getResolutionBreached());
+        state.escalated = Boolean.TRUE.equals(view.getEscalated());
+        state.responseScore = view.getResponseComplianceScore();
+        active.put(state.ticketId, state);
+        synchronized (state) {
+            if (state.responseBreached || state.resolutionBreached) {
+                overdue.put(state.ticketId, state);
+            }
+            schedule(state);
+        }
+        // Catch up on changes made while the engine was down
+        apply(TicketSnapshot.of(view));
+    }
+
+    // ============================================
+    // TICKET LIFECYCLE
+    // ============================================
+
+    /**
+     * Bring the SLA state of a ticket in line with the saved ticket. Call after every save
+     * that can change status, priority, category or response time; inside a transaction
+     * the update is applied once it commits.
+     */
+    public void sync(SupportTicket ticket) {
+        TicketSnapshot snapshot = TicketSnapshot.of(ticket);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(snapshot);
+                }
+            });
+        } else {
+            submit(snapshot);
+        }
+    }
+
+    /**
+     * Mark a ticket as escalated by hand
+     */
+    public void escalate(Long ticketId, String reason) {
+        TicketSla state = active.get(ticketId);
+        if (state == null) {
+            throw new RuntimeException("No open SLA tracking for ticket " + ticketId);
+        }
+        boolean escalated = false;
+        synchronized (state) {
+            if (!state.escalated) {
+                state.escalated = true;
+                cancel(state.escalationTimer);
+                fire(SlaEvent.Type.ESCALATED, state, state.escalationDeadline);
+                escalated = true;
+            }
+        }
+        if (escalated) {
+            requestPublish();
+        }
+        log.info("Ticket {} escalated manually: {}", state.ticketNumber, reason);
+    }
+
+    private void submit(TicketSnapshot snapshot) {
+        if (!ready) {
+            // A snapshot carries the whole ticket, so only the latest one per ticket is kept
+            beforeReady.put(snapshot.id(), snapshot);
+            if (ready) {
+                drainQueued(); // the rebuild finished between the check and the put
+            }
+            return;
+        }
+        apply(snapshot);
+    }
+
+    private void drainQueued() {
+        for (Long ticketId : beforeReady.keySet()) {
+            TicketSnapshot queued = beforeReady.remove(ticketId);
+            if (queued != null) {
+                apply(queued);
+            }
+        }
+    }
+
+    private void apply(TicketSnapshot ticket) {
+        TicketSla state = active.get(ticket.id());
+        if (state == null) {
+            if (ticket.status() == TicketStatus.CANCELLED) {
+                return;
+            }
+            state = new TicketSla(ticket.id());
+            state.createdAt = ticket.createdAt() != null ? ticket.createdAt() : LocalDateTime.now();
+            TicketSla existing = active.putIfAbsent(ticket.id(), state);
+            if (existing != null) {
+                state = existing;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (state) {
+            if (state.closed) {
+                return;
+            }
+            state.ticketNumber = ticket.ticketNumber();
+            state.subject = ticket.subject();
+            boolean changed = false;
+
+            if (state.configId == null || state.priority != ticket.priority()
+                    || !sameCategory(state.category, ticket.category())) {
+                // Outcomes recorded so far move to the counter of the new category/priority
+                contribute(state, -1);
+                state.priority = ticket.priority();
+                state.category = ticket.category();
+                contribute(state, 1);
+                applyPolicy(state);
+                schedule(state);
+                changed = true;
+            }
+
+            if (ticket.status() == TicketStatus.CANCELLED) {
+                withdraw(state, now);
+                return;
+            }
+            if (state.actualResponseTime == null && ticket.respondedAt() != null) {
+                recordResponse(state, ticket.respondedAt());
+                changed = true;
+            }
+            if (ticket.status() == TicketStatus.RESOLVED || ticket.status() == TicketStatus.CLOSED) {
+                LocalDateTime resolvedAt = ticket.resolvedAt() != null ? ticket.resolvedAt() : now;
+                if (state.actualResponseTime == null) {
+                    recordResponse(state, resolvedAt);
+                }
+                recordResolution(state, resolvedAt);
+                changed = true;
+            }
+            if (changed) {
+                markDirty(state);
+            }
+        }
+    }
+
+    private void applyPolicy(TicketSla state) {
+        Policy policy = policyFor(state.priority, state.category);
+        state.configId = policy.configId();
+        state.responseMinutes = policy.responseMinutes();
+        state.resolutionMinutes = policy.resolutionMinutes();
+        state.responseDeadline = state.createdAt.plusMinutes(policy.responseMinutes());
+        state.resolutionDeadline = state.createdAt.plusMinutes(policy.resolutionMinutes());
+        state.escalationDeadline = state.createdAt.plusMinutes(policy.escalationMinutes());
+    }
+
+    private void recordResponse(TicketSla state, LocalDateTime respondedAt) {
+        cancel(state.responseTimer);
+        state.actualResponseTime = respondedAt;
+        long minutes = Math.max(0, Duration.between(state.createdAt, respondedAt).toMinutes());
+        state.responseTimeMinutes = minutes;
+        state.responseScore = complianceScore(allowedMinutes(state.responseMinutes, state.createdAt, state.responseDeadline), minutes);
+
+        ComplianceCounter counter = counter(state.category, state.priority);
+        counter.responseMinutes.add(minutes);
+        counter.responseSamples.increment();
+        if (!state.responseBreached) {
+            if (respondedAt.isAfter(state.responseDeadline)) {
+                // Answered late before the timer got to it
+                state.responseBreached = true;
+                counter.responseBreached.increment();
+            } else {
+                counter.responseMet.increment();
+            }
+        }
+    }
+
+    private void recordResolution(TicketSla state, LocalDateTime resolvedAt) {
+        cancel(state.resolutionTimer);
+        cancel(state.escalationTimer);
+        state.actualResolutionTime = resolvedAt;
+        long minutes = Math.max(0, Duration.between(state.createdAt, resolvedAt).toMinutes());
+        state.resolutionTimeMinutes = minutes;
+        state.resolutionScore = complianceScore(allowedMinutes(state.resolutionMinutes, state.createdAt, state.resolutionDeadline), minutes);
+
+        ComplianceCounter counter = counter(state.category, state.priority);
+        counter.resolutionMinutes.add(minutes);
+        counter.resolutionSamples.increment();
+        if (!state.resolutionBreached) {
+            if (resolvedAt.isAfter(state.resolutionDeadline)) {
+                state.resolutionBreached = true;
+                counter.resolutionBreached.increment();
+            } else {
+                counter.resolutionMet.increment();
+            }
+        }
+        close(state);
+    }
+
+    /**
+     * Cancelled tickets leave the compliance figures, matching the startup aggregate
+     */
+    private void withdraw(TicketSla state, LocalDateTime now) {
+        contribute(state, -1);
+        cancel(state.responseTimer);
+        cancel(state.resolutionTimer);
+        cancel(state.escalationTimer);
+        state.actualResolutionTime = now;
+        close(state);
+        markDirty(state);
+    }
+
+    /**
+     * Add ({@code sign = 1}) or remove ({@code sign = -1}) what this open ticket has
+     * recorded so far in the counter of its current category/priority
+     */
+    private void contribute(TicketSla state, int sign) {
+        if (state.priority == null) {
+            return; // new ticket, nothing recorded yet
+        }
+        ComplianceCounter counter = counter(state.category, state.priority);
+        if (state.responseBreached) {
+            counter.responseBreached.add(sign);
+        } else if (state.actualResponseTime != null) {
+            counter.responseMet.add(sign);
+        }
+        if (state.responseTimeMinutes != null) {
+            counter.responseMinutes.add(sign * state.responseTimeMinutes);
+            counter.responseSamples.add(sign);
+        }
+        if (state.resolutionBreached) {
+            counter.resolutionBreached.add(sign);
+        }
+    }
+
+    private void close(TicketSla state) {
+        state.closed = true;
+        active.remove(state.ticketId, state);
+        overdue.remove(state.ticketId, state);
+    }
+
+    // ============================================
+    // TIMERS
+    // ============================================
+
+    private void schedule(TicketSla state) {
+        cancel(state.responseTimer);
+        cancel(state.resolutionTimer);
+        cancel(state.escalationTimer);
+        int generation = ++state.generation;
+        if (state.actualResponseTime == null && !state.responseBreached) {
+            state.responseTimer = wheel.schedule(epochMillis(state.responseDeadline),
+                    new Deadline(state.ticketId, SlaEvent.Type.RESPONSE_BREACHED, generation));
+        }
+        if (state.actualResolutionTime == null && !state.resolutionBreached) {
+            state.resolutionTimer = wheel.schedule(epochMillis(state.resolutionDeadline),
+                    new Deadline(state.ticketId, SlaEvent.Type.RESOLUTION_BREACHED, generation));
+        }
+        if (state.actualResolutionTime == null && !state.escalated) {
+            state.escalationTimer = wheel.schedule(epochMillis(state.escalationDeadline),
+                    new Deadline(state.ticketId, SlaEvent.Type.ESCALATED, generation));
+        }
+    }
+
+    // Runs on the timer wheel thread
+    private void onDeadline(Deadline deadline) {
+        TicketSla state = active.get(deadline.ticketId());
+        if (state != null && flag(state, deadline)) {
+            requestPublish();
+        }
+    }
+
+    private boolean flag(TicketSla state, Deadline deadline) {
+        synchronized (state) {
+            if (state.closed || state.generation != deadline.generation()) {
+                return false;
+            }
+            ComplianceCounter counter = counter(state.category, state.priority);
+            switch (deadline.type()) {
+                case RESPONSE_BREACHED -> {
+                    if (state.actualResponseTime != null || state.responseBreached) {
+                        return false;
+                    }
+                    state.responseBreached = true;
+                    counter.responseBreached.increment();
+                    overdue.put(state.ticketId, state);
+                    fire(deadline.type(), state, state.responseDeadline);
+                }
+                case RESOLUTION_BREACHED -> {
+                    if (state.resolutionBreached) {
+                        return false;
+                    }
+                    state.resolutionBreached = true;
+                    counter.resolutionBreached.increment();
+                    overdue.put(state.ticketId, state);
+                    fire(deadline.type(), state, state.resolutionDeadline);
+                }
+                case ESCALATED -> {
+                    if (state.escalated) {
+                        return false;
+                    }
+                    state.escalated = true;
+                    fire(deadline.type(), state, state.escalationDeadline);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Queue the event of a passed deadline; caller holds the state's monitor. The flag is left
+     * out of regular flushes until a node has claimed it in {@link #publishDeadlines()}.
+     */
+    private void fire(SlaEvent.Type type, TicketSla state, LocalDateTime deadline) {
+        state.unclaimed.add(type);
+        fired.add(new FiredDeadline(state, new SlaEvent(type, state.ticketId, state.ticketNumber,
+                state.priority, state.category, deadline, LocalDateTime.now())));
+    }
+
+    private void requestPublish() {
+        try {
+            eventExecutor.execute(this::publishDeadlines);
+        } catch (RejectedExecutionException e) {
+            log.debug("SLA events deferred to the next retry, executor is full");
+        }
+    }
+
+    /**
+     * Claim fired deadlines and publish their events. Every node fires the same deadlines;
+     * under the cluster lease a node sets each flag in {@code sla_tracking} that is not set
+     * yet and publishes only those events, after the write has committed. Deadlines that
+     * could not be claimed stay queued for the next run.
+     */
+    @Scheduled(fixedDelayString = "${support.sla.event-retry-ms:1000}")
+    public void publishDeadlines() {
+        if (fired.isEmpty() || !publishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            clusterLock.runLocked(DEADLINE_LOCK, Duration.ofMillis(eventLeaseMs), () -> {
+                while (!fired.isEmpty() && claimAndPublish()) {
+                    // next batch
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("SLA events not published, retrying later: {}", e.getMessage());
+        } finally {
+            publishing.set(false);
+        }
+    }
+
+    private boolean claimAndPublish() {
+        List<FiredDeadline> batch = new ArrayList<>();
+        FiredDeadline next;
+        while (batch.size() < chunkSize && (next = fired.poll()) != null) {
+            batch.add(next);
+        }
+        List<SlaEvent> claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> claim(batch));
+        } catch (RuntimeException e) {
+            fired.addAll(batch);
+            log.warn("Could not claim {} SLA deadlines, retrying later: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        for (FiredDeadline deadline : batch) {
+            synchronized (deadline.state()) {
+                deadline.state().unclaimed.remove(deadline.event().type());
+            }
+        }
+        claimed.forEach(this::publish);
+        return true;
+    }
+
+    /**
+     * Set the fired flags in sla_tracking; returns the events of the flags this call set
+     */
+    private List<SlaEvent> claim(List<FiredDeadline> batch) {
+        Map<Long, SLATracking> rows = trackingRepository
+                .findByTicketIds(batch.stream().map(deadline -> deadline.state().ticketId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(tracking -> tracking.getTicket().getId(), Function.identity()));
+
+        List<SlaEvent> claimed = new ArrayList<>();
+        for (FiredDeadline deadline : batch) {
+            TicketSla state = deadline.state();
+            SLATracking tracking = rows.get(state.ticketId);
+            if (tracking == null) {
+                TrackingWrite write;
+                synchronized (state) {
+                    write = TrackingWrite.of(state);
+                }
+                tracking = newTracking(write.ticketId());
+                copy(write, tracking);
+                rows.put(state.ticketId, tracking);
+            }
+            if (raise(tracking, deadline.event().type())) {
+                claimed.add(deadline.event());
+            }
+        }
+        trackingRepository.saveAll(rows.values());
+        return claimed;
+    }
+
+    private static boolean raise(SLATracking tracking, SlaEvent.Type type) {
+        Boolean current = switch (type) {
+            case RESPONSE_BREACHED -> tracking.getResponseBreached();
+            case RESOLUTION_BREACHED -> tracking.getResolutionBreached();
+            case ESCALATED -> tracking.getEscalated();
+        };
+        if (Boolean.TRUE.equals(current)) {
+            return false; // claimed by another node
+        }
+        switch (type) {
+            case RESPONSE_BREACHED -> tracking.setResponseBreached(true);
+            case RESOLUTION_BREACHED -> tracking.setResolutionBreached(true);
+            case ESCALATED -> tracking.setEscalated(true);
+        }
+        return true;
+    }
+
+    private void publish(SlaEvent event) {
+        log.warn("SLA {} for ticket {} (due {})", event.type(), event.ticketNumber(), event.deadline());
+        try {
+            eventExecutor.execute(() -> eventPublisher.publishEvent(event));
+        } catch (RejectedExecutionException e) {
+            // The flag is already written; only the notification is lost
+            log.error("SLA {} event for ticket {} dropped, executor is full", event.type(), event.ticketNumber());
+        }
+    }
+
+    private void cancel(HashedTimerWheel.Timeout timeout) {
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    // ============================================
+    // PERSISTENCE
+    // ============================================
+
+    private void markDirty(TicketSla state) {
+        dirty.put(state.ticketId, state);
+    }
+
+    /**
+     * Write queued state transitions to sla_tracking in one transaction per batch
+     */
+    @Scheduled(fixedDelayString = "${support.sla.flush-interval-ms:5000}")
+    public void flush() {
+        while (!dirty.isEmpty()) {
+            List<TrackingWrite> batch = new ArrayList<>();
+            for (Long ticketId : dirty.keySet()) {
+                TicketSla state = dirty.remove(ticketId);
+                if (state != null) {
+                    synchronized (state) {
+                        batch.add(TrackingWrite.of(state));
+                    }
+                }
+                if (batch.size() >= chunkSize) {
+                    break;
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (Exception e) {
+                log.warn("SLA batch write failed ({}), retrying {} rows one by one", e.getMessage(), batch.size());
+                for (TrackingWrite row : batch) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> write(List.of(row)));
+                    } catch (Exception rowError) {
+                        log.error("Dropping SLA state for ticket {}: {}", row.ticketId(), rowError.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void write(List<TrackingWrite> batch) {
+        Map<Long, SLATracking> existing = trackingRepository
+                .findByTicketIds(batch.stream().map(TrackingWrite::ticketId).toList())
+                .stream()
+                .collect(Collectors.toMap(tracking -> tracking.getTicket().getId(), Function.identity()));
+
+        List<SLATracking> rows = new ArrayList<>(batch.size());
+        for (TrackingWrite write : batch) {
+            SLATracking tracking = existing.get(write.ticketId());
+            if (tracking == null) {
+                tracking = newTracking(write.ticketId());
+            }
+            copy(write, tracking);
+            rows.add(tracking);
+        }
+        trackingRepository.saveAll(rows);
+    }
+
+    private SLATracking newTracking(Long ticketId) {
+        return SLATracking.builder()
+                .ticket(ticketRepository.getReferenceById(ticketId))
+                .build();
+    }
+
+    private void copy(TrackingWrite write, SLATracking tracking) {
+        tracking.setSlaConfiguration(configurationRepository.getReferenceById(write.configId()));
+        tracking.setResponseDeadline(write.responseDeadline());
+        tracking.setResolutionDeadline(write.resolutionDeadline());
+        tracking.setEscalationDeadline(write.escalationDeadline());
+        tracking.setActualResponseTime(write.actualResponseTime());
+        tracking.setActualResolutionTime(write.actualResolutionTime());
+        // Flags only ever go up; one claimed by another node must not be cleared
+        tracking.setResponseBreached(Boolean.TRUE.equals(tracking.getResponseBreached()) || write.responseBreached());
+        tracking.setResolutionBreached(Boolean.TRUE.equals(tracking.getResolutionBreached()) || write.resolutionBreached());
+        tracking.setEscalated(Boolean.TRUE.equals(tracking.getEscalated()) || write.escalated());
+        tracking.setResponseTimeMinutes(write.responseTimeMinutes());
+        tracking.setResolutionTimeMinutes(write.resolutionTimeMinutes());
+        tracking.setResponseComplianceScore(write.responseScore());
+        tracking.setResolutionComplianceScore(write.resolutionScore());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        HashedTimerWheel<Deadline> current = wheel;
+        if (current != null) {
+            current.close();
+        }
+        try {
+            publishDeadlines();
+            flush();
+        } catch (Exception e) {
+            log.warn("Could not flush SLA state on shutdown: {}", e.getMessage());
+        }
+    }
+
+    // ============================================
+    // READ SIDE
+    // ============================================
+
+    public Collection<ComplianceCounter> getCounters() {
+        return counters.values();
+    }
+
+    public LocalDateTime getCountersSince() {
+        return countersSince;
+    }
+
+    /**
+     * Open tickets that have breached a deadline, most overdue first
+     */
+    public List<OverdueTicket> getOverdueTickets() {
+        List<OverdueTicket> result = new ArrayList<>();
+        for (TicketSla state : overdue.values()) {
+            synchronized (state) {
+                LocalDateTime due = state.actualResponseTime == null ? state.responseDeadline : state.resolutionDeadline;
+                result.add(new OverdueTicket(state.ticketId, state.ticketNumber, state.subject, due));
+            }
+        }
+        result.sort((a, b) -> a.dueDate().compareTo(b.dueDate()));
+        return result;
+    }
+
+    public int getOverdueCount() {
+        return overdue.size();
+    }
+
+    public int getOpenCount() {
+        return active.size();
+    }
+
+    /**
+     * Fired deadlines this node has not yet claimed or found claimed
+     */
+    public int getUnpublishedCount() {
+        return fired.size();
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    private Policy policyFor(TicketPriority priority, String category) {
+        Map<String, Policy> current = policies;
+        Policy policy = current.get(policyKey(priority, category));
+        if (policy == null) {
+            policy = current.get(policyKey(priority, ANY_CATEGORY));
+        }
+        if (policy == null) {
+            throw new IllegalStateException("No SLA configuration for priority " + priority);
+        }
+        return policy;
+    }
+
+    private static String policyKey(TicketPriority priority, String category) {
+        return priority + "|" + (category != null ? category.toLowerCase() : ANY_CATEGORY);
+    }
+
+    private ComplianceCounter counter(String category, TicketPriority priority) {
+        String name = category != null && !category.isBlank() ? category : DEFAULT_CATEGORY;
+        return counters.computeIfAbsent(name + "|" + priority, key -> new ComplianceCounter(name, priority));
+    }
+
+    private static boolean sameCategory(String a, String b) {
+        return a == null ? b == null : a.equalsIgnoreCase(b != null ? b : "");
+    }
+
+    private static long allowedMinutes(Integer policyMinutes, LocalDateTime createdAt, LocalDateTime deadline) {
+        return policyMinutes != null ? policyMinutes : Duration.between(createdAt, deadline).toMinutes();
+    }
+
+    private static double complianceScore(long allowedMinutes, long actualMinutes) {
+        return Math.min(100.0, (double) allowedMinutes / Math.max(1, actualMinutes) * 100);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long value(Long count) {
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Running compliance totals for one category/priority pair
+     */
+    public static final class ComplianceCounter {
+        private final String category;
+        private final TicketPriority priority;
+        final LongAdder responseMet = new LongAdder();
+        final LongAdder responseBreached = new LongAdder();
+        final LongAdder resolutionMet = new LongAdder();
+        final LongAdder resolutionBreached = new LongAdder();
+        final LongAdder responseMinutes = new LongAdder();
+        final LongAdder responseSamples = new LongAdder();
+        final LongAdder resolutionMinutes = new LongAdder();
+        final LongAdder resolutionSamples = new LongAdder();
+
+        ComplianceCounter(String category, TicketPriority priority) {
+            this.category = category;
+            this.priority = priority;
+        }
+
+        public String getCategory() { return category; }
+        public TicketPriority getPriority() { return priority; }
+        public long getResponseMet() { return responseMet.sum(); }
+        public long getResponseBreached() { return responseBreached.sum(); }
+        public long getResolutionMet() { return resolutionMet.sum(); }
+        public long getResolutionBreached() { return resolutionBreached.sum(); }
+        public long getResponseMinutes() { return responseMinutes.sum(); }
+        public long getResponseSamples() { return responseSamples.sum(); }
+        public long getResolutionMinutes() { return resolutionMinutes.sum(); }
+        public long getResolutionSamples() { return resolutionSamples.sum(); }
+    }
+
+    public record OverdueTicket(Long ticketId, String ticketNumber, String subject, LocalDateTime dueDate) {}
+
+    private record Policy(Long configId, int responseMinutes, int resolutionMinutes, int escalationMinutes) {}
+
+    private record Deadline(Long ticketId, SlaEvent.Type type, int generation) {}
+
+    private record FiredDeadline(TicketSla state, SlaEvent event) {}
+
+    /**
+     * Mutable SLA state of one ticket; guarded by its own monitor
+     */
+    private static final class TicketSla {
+        final Long ticketId;
+        Long trackingId;
+        String ticketNumber;
+        String subject;
+        String category;
+        TicketPriority priority;
+        LocalDateTime createdAt;
+        Long configId;
+        Integer responseMinutes;
+        Integer resolutionMinutes;
+        LocalDateTime responseDeadline;
+        LocalDateTime resolutionDeadline;
+        LocalDateTime escalationDeadline;
+        LocalDateTime actualResponseTime;
+        LocalDateTime actualResolutionTime;
+        Long responseTimeMinutes;
+        Long resolutionTimeMinutes;
+        Double responseScore;
+        Double resolutionScore;
+        boolean responseBreached;
+        boolean resolutionBreached;
+        boolean escalated;
+        boolean closed;
+        int generation;
+        // Fired flags not yet written by publishDeadlines()
+        final Set<SlaEvent.Type> unclaimed = EnumSet.noneOf(SlaEvent.Type.class);
+        HashedTimerWheel.Timeout responseTimer;
+        HashedTimerWheel.Timeout resolutionTimer;
+        HashedTimerWheel.Timeout escalationTimer;
+
+        TicketSla(Long ticketId) {
+            this.ticketId = ticketId;
+        }
+    }
+
+    private record TicketSnapshot(Long id, String ticketNumber, String subject, String category,
+                                  TicketPriority priority, TicketStatus status, LocalDateTime createdAt,
+                                  LocalDateTime respondedAt, LocalDateTime resolvedAt) {
+
+        static TicketSnapshot of(SupportTicket ticket) {
+            return new TicketSnapshot(ticket.getId(), ticket.getTicketNumber(), ticket.getSubject(),
+                    ticket.getCategory(), priorityOrDefault(ticket.getPriority()), ticket.getStatus(), ticket.getCreatedAt(),
+                    ticket.getRespondedAt(), ticket.getResolvedAt());
+        }
+
+        static TicketSnapshot of(SlaTicketView view) {
+            return new TicketSnapshot(view.getId(), view.getTicketNumber(), view.getSubject(),
+                    view.getCategory(), priorityOrDefault(view.getPriority()), view.getStatus(), view.getCreatedAt(),
+                    view.getRespondedAt(), view.getResolvedAt());
+        }
+
+        static TicketSnapshot of(TrackingView view) {
+            return new TicketSnapshot(view.getTicketId(), view.getTicketNumber(), view.getSubject(),
+                    view.getCategory(), priorityOrDefault(view.getPriority()), view.getStatus(), view.getCreatedAt(),
+                    view.getRespondedAt(), view.getResolvedAt());
+        }
+
+        private static TicketPriority priorityOrDefault(TicketPriority priority) {
+            return priority != null ? priority : TicketPriority.MEDIUM;
+        }
+    }
+
+    private record TrackingWrite(Long ticketId, Long configId, LocalDateTime responseDeadline,
+                                 LocalDateTime resolutionDeadline, LocalDateTime escalationDeadline,
+                                 LocalDateTime actualResponseTime, LocalDateTime actualResolutionTime,
+                                 boolean responseBreached, boolean resolutionBreached, boolean escalated,
+                                 Long responseTimeMinutes, Long resolutionTimeMinutes,
+                                 Double responseScore, Double resolutionScore) {
+
+        static TrackingWrite of(TicketSla state) {
+            return new TrackingWrite(state.ticketId, state.configId, state.responseDeadline,
+                    state.resolutionDeadline, state.escalationDeadline, state.actualResponseTime,
+                    state.actualResolutionTime,
+                    state.responseBreached && !state.unclaimed.contains(SlaEvent.Type.RESPONSE_BREACHED),
+                    state.resolutionBreached && !state.unclaimed.contains(SlaEvent.Type.RESOLUTION_BREACHED),
+                    state.escalated && !state.unclaimed.contains(SlaEvent.Type.ESCALATED),
+                    state.responseTimeMinutes, state.resolutionTimeMinutes,
+                    state.responseScore, state.resolutionScore);
+        }
+    }
+}
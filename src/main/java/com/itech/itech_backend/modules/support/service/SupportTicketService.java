@@ -6,6 +6,9 @@ import com.itech.itech_backend.modules.support.model.SupportTicket;
 import com.itech.itech_backend.modules.core.model.User;
 import com.itech.itech_backend.modules.support.repository.SupportTicketRepository;
 import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.query.AdminQuery;
+import com.itech.itech_backend.modules.shared.query.FilterSchema;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
 import com.itech.itech_backend.modules.shared.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +30,21 @@ public class SupportTicketService {
     private final SupportTicketRepository supportTicketRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final SlaEngine slaEngine;
+    private final AdminQuery adminQuery;
+
+    // Admin list filters; newest first unless the screen picks another order
+    public static final FilterSchema<SupportTicket> ADMIN_FILTERS = FilterSchema.of(SupportTicket.class)
+            .search("search", "subject", "description", "ticketNumber", "user.name", "user.email")
+            .equal("status")
+            .equal("priority")
+            .equalIgnoreCase("category")
+            .equal("userId", "user.id")
+            .equal("assignedToId", "assignedTo.id")
+            .range("createdFrom", "createdTo", "createdAt")
+            .sortable("createdAt", "priority", "status")
+            .defaultSort("-createdAt")
+            .fetch("user", "assignedTo", "respondedBy");
 
     @Transactional
     public SupportTicket createSupportTicket(Long userId, String subject, String description, 
@@ -49,6 +67,7 @@ public class SupportTicketService {
                 .build();
                 
             SupportTicket savedTicket = supportTicketRepository.save(supportTicket);
+            slaEngine.sync(savedTicket);
             
             // Send confirmation email to user
             sendTicketCreatedEmail(savedTicket);
@@ -63,11 +82,17 @@ public class SupportTicketService {
     }
 
     public SupportTicket createSupportTicket(SupportTicket supportTicket) {
-        return supportTicketRepository.save(supportTicket);
+        SupportTicket savedTicket = supportTicketRepository.save(supportTicket);
+        slaEngine.sync(savedTicket);
+        return savedTicket;
     }
 
-    public List<SupportTicket> getAllSupportTickets() {
-        return supportTicketRepository.findAll();
+    /**
+     * Admin ticket list: filters from {@link #ADMIN_FILTERS}, one keyset page at a time.
+     */
+    public KeysetPage<SupportTicket> getAllSupportTickets(Map<String, String> filters, String sort,
+                                                          String cursor, int size) {
+        return adminQuery.seek(ADMIN_FILTERS, filters, sort, cursor, size);
     }
     
     public Page<SupportTicket> getAllSupportTickets(Pageable pageable) {
@@ -116,6 +141,7 @@ public class SupportTicketService {
             }
             
             SupportTicket updatedTicket = supportTicketRepository.save(ticket);
+            slaEngine.sync(updatedTicket);
             
             // Send status update email to user
             sendTicketStatusUpdateEmail(updatedTicket, oldStatus);
@@ -147,6 +173,7 @@ public class SupportTicketService {
             }
             
             SupportTicket updatedTicket = supportTicketRepository.save(ticket);
+            slaEngine.sync(updatedTicket);
             
             // Send response email to user
             sendTicketResponseEmail(updatedTicket);
@@ -305,45 +332,6 @@ public class SupportTicketService {
     }
 
     // Additional methods for frontend API integration
-    public List<SupportTicket> getFilteredSupportTickets(String status, String priority, String search) {
-        log.info("🔍 Filtering tickets - Status: {}, Priority: {}, Search: {}", status, priority, search);
-        
-        List<SupportTicket> tickets = supportTicketRepository.findAll();
-        
-        // Apply search filter
-        if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.toLowerCase();
-            tickets = tickets.stream()
-                .filter(ticket -> 
-                    ticket.getSubject().toLowerCase().contains(searchLower) ||
-                    ticket.getDescription().toLowerCase().contains(searchLower) ||
-                    ticket.getUser().getName().toLowerCase().contains(searchLower) ||
-                    ticket.getUser().getEmail().toLowerCase().contains(searchLower) ||
-                    ticket.getTicketNumber().toLowerCase().contains(searchLower)
-                )
-                .toList();
-        }
-        
-        // Apply status filter
-        if (status != null && !"ALL".equals(status) && !status.trim().isEmpty()) {
-            TicketStatus ticketStatus = TicketStatus.valueOf(status);
-            tickets = tickets.stream()
-                .filter(ticket -> ticket.getStatus() == ticketStatus)
-                .toList();
-        }
-        
-        // Apply priority filter
-        if (priority != null && !"ALL".equals(priority) && !priority.trim().isEmpty()) {
-            TicketPriority ticketPriority = TicketPriority.valueOf(priority);
-            tickets = tickets.stream()
-                .filter(ticket -> ticket.getPriority() == ticketPriority)
-                .toList();
-        }
-        
-        log.info("📊 Filtered to {} tickets", tickets.size());
-        return tickets;
-    }
-
     public SupportTicket getSupportTicketById(Long id) {
         return getTicketById(id);
     }
@@ -391,6 +379,7 @@ public class SupportTicketService {
         ticket.setUpdatedAt(LocalDateTime.now());
         
         SupportTicket updated = supportTicketRepository.save(ticket);
+        slaEngine.sync(updated);
         log.info("✅ Support ticket {} updated successfully", id);
         return updated;
     }
@@ -0,0 +1,599 @@
+package com.itech.itech_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Set-based engine behind {@link DataMigrationService}: links legacy account rows (buyers,
+ * vendors, admins, employees) to {@code users}, creating the missing users.
+ *
+ * Each phase streams the ids of unlinked rows with a JDBC cursor and cuts them into id-range
+ * partitions of {@code partitionSize} rows. A partition is one transaction of three statements
+ * ({@code INSERT ... SELECT} of the missing users, the optional audit rows, one {@code UPDATE}
+ * linking every row), and its checkpoint in {@code migration_checkpoints} is committed in the
+ * same transaction. If the set-based insert hits a constraint (a duplicate the dialect has no
+ * conflict clause for, or a row the users table rejects), the partition falls back to one
+ * insert per row and quarantines the rows that fail, so the rest of the range still links.
+ * Partitions of all phases share one bounded worker pool; a failed partition is retried, and a
+ * partition left with unlinked rows is recorded as FAILED with their ids, so the next run of
+ * that phase picks up only the partitions that did not complete.
+ */
+@Slf4j
+@Component
+public class DataMigrationEngine {
+
+    static final String CHECKPOINT_TABLE = "migration_checkpoints";
+    private static final String AUDIT_TABLE = "migration_audit";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    /**
+     * How one source table maps onto {@code users}. Expressions refer to the source row as
+     * {@code t}; {@code table} and the expressions are trusted constants, never request input.
+     */
+    public record PhaseSpec(String name, String table, String role, String nameExpr, String emailExpr,
+                            String phoneExpr, String verifiedExpr, String activeExpr) {}
+
+    public record Options(int partitionSize, int parallelism, int fetchSize, int retryAttempts,
+                          long retryDelayMs, boolean audit, String passwordHash) {}
+
+    public record PhaseOutcome(String phase, long totalRows, long linkedRows, long createdUsers,
+                               int partitions, int resumedPartitions, int failedPartitions,
+                               long durationMs, Map<Long, String> errors, String errorMessage) {
+
+        public boolean success() {
+            return failedPartitions == 0 && errorMessage == null;
+        }
+
+        public double rowsPerSecond() {
+            return durationMs == 0 ? linkedRows * 1000.0 : linkedRows * 1000.0 / durationMs;
+        }
+    }
+
+    record Partition(int number, long loId, long hiId) {}
+
+    private enum Dialect {
+        POSTGRES_LIKE, MYSQL, OTHER
+    }
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> rowsPerSecond = new ConcurrentHashMap<>();
+
+    public DataMigrationEngine(DataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    public List<PhaseOutcome> run(List<PhaseSpec> phases, Options options) {
+        Dialect dialect;
+        boolean audit;
+        try {
+            dialect = detectDialect();
+            ensureCheckpointTable();
+            audit = options.audit() && tableExists(AUDIT_TABLE);
+        } catch (SQLException e) {
+            throw new DataMigrationService.MigrationException("Failed to prepare migration engine", e);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, options.parallelism()), workerFactory());
+        try {
+            List<PhaseRun> runs = new ArrayList<>();
+            for (PhaseSpec phase : phases) {
+                runs.add(start(phase, dialect, audit, options, workers));
+            }
+            List<PhaseOutcome> outcomes = new ArrayList<>();
+            for (PhaseRun run : runs) {
+                outcomes.add(run.await());
+            }
+            return outcomes;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // ============================================
+    // PLANNING
+    // ============================================
+
+    private PhaseRun start(PhaseSpec phase, Dialect dialect, boolean audit, Options options, ExecutorService workers) {
+        PhaseRun run = new PhaseRun(phase);
+        try {
+            List<Partition> pending = resumablePartitions(phase.name());
+            if (pending.isEmpty()) {
+                pending = planPartitions(phase, dialect, options);
+                run.partitions = pending.size();
+            } else {
+                run.partitions = countCheckpoints(phase.name());
+                run.resumed = run.partitions - pending.size();
+                log.info("Resuming {}: {} of {} partitions left", phase.name(), pending.size(), run.partitions);
+            }
+            run.pendingPartitions.addAll(pending);
+        } catch (SQLException e) {
+            log.error("Failed to plan {}: {}", phase.name(), e.getMessage(), e);
+            run.errorMessage = "Planning failed: " + e.getMessage();
+            return run;
+        }
+
+        Statements statements = new Statements(phase, dialect);
+        for (Partition partition : run.pendingPartitions) {
+            run.futures.add(workers.submit(() -> migrateWithRetry(run, statements, partition, audit, options)));
+        }
+        return run;
+    }
+
+    private List<Partition> resumablePartitions(String phase) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT partition_no, lo_id, hi_id, status FROM " + CHECKPOINT_TABLE
+                             + " WHERE phase = ? ORDER BY partition_no")) {
+            stmt.setString(1, phase);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (!"COMPLETED".equals(rs.getString(4))) {
+                        partitions.add(new Partition(rs.getInt(1), rs.getLong(2), rs.getLong(3)));
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private int countCheckpoints(String phase) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM " + CHECKPOINT_TABLE + " WHERE phase = ?")) {
+            stmt.setString(1, phase);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Cuts the unlinked ids into ranges of {@code partitionSize} rows by streaming them once, so
+     * partitions stay even however sparse the ids are, and records the plan as PENDING checkpoints.
+     */
+    private List<Partition> planPartitions(PhaseSpec phase, Dialect dialect, Options options) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection()) {
+            // PostgreSQL only honours the fetch size inside a transaction
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT t.id FROM " + phase.table() + " t WHERE t.user_id IS NULL ORDER BY t.id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(dialect == Dialect.MYSQL ? Integer.MIN_VALUE : options.fetchSize());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    long lo = 0;
+                    long last = 0;
+                    int rows = 0;
+                    while (rs.next()) {
+                        last = rs.getLong(1);
+                        if (rows == 0) {
+                            lo = last;
+                        }
+                        if (++rows == options.partitionSize()) {
+                            partitions.add(new Partition(partitions.size(), lo, last));
+                            rows = 0;
+                        }
+                    }
+                    if (rows > 0) {
+                        partitions.add(new Partition(partitions.size(), lo, last));
+                    }
+                }
+            }
+
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM " + CHECKPOINT_TABLE + " WHERE phase = ?")) {
+                delete.setString(1, phase.name());
+                delete.executeUpdate();
+            }
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO " + CHECKPOINT_TABLE + " (phase, partition_no, lo_id, hi_id, status, attempts, updated_at)"
+                            + " VALUES (?, ?, ?, ?, 'PENDING', 0, CURRENT_TIMESTAMP)")) {
+                int batched = 0;
+                for (Partition partition : partitions) {
+                    insert.setString(1, phase.name());
+                    insert.setInt(2, partition.number());
+                    insert.setLong(3, partition.loId());
+                    insert.setLong(4, partition.hiId());
+                    insert.addBatch();
+                    if (++batched % options.fetchSize() == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+        }
+        log.info("Planned {} partitions of up to {} rows for {}", partitions.size(), options.partitionSize(), phase.name());
+        return partitions;
+    }
+
+    // ============================================
+    // PARTITION EXECUTION
+    // ============================================
+
+    private void migrateWithRetry(PhaseRun run, Statements statements, Partition partition, boolean audit, Options options) {
+        int attempts = Math.max(1, options.retryAttempts());
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                migratePartition(run, statements, partition, audit, options, attempt);
+                long elapsed = System.nanoTime() - start;
+                Timer.builder("migration.partition").tag("phase", run.phase.name())
+                        .register(meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+                run.partitionDone();
+                return;
+            } catch (Exception e) {
+                if (attempt == attempts) {
+                    log.error("Partition {} of {} (ids {}-{}) failed after {} attempts: {}", partition.number(),
+                            run.phase.name(), partition.loId(), partition.hiId(), attempts, e.getMessage());
+                    run.failed.incrementAndGet();
+                    markFailed(run.phase.name(), partition, attempt, e.getMessage());
+                    run.partitionDone();
+                    return;
+                }
+                log.warn("Partition {} of {} failed (attempt {}), retrying: {}", partition.number(),
+                        run.phase.name(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(options.retryDelayMs() * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    run.failed.incrementAndGet();
+                    run.partitionDone();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void migratePartition(PhaseRun run, Statements statements, Partition partition, boolean audit,
+                                  Options options, int attempt) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int total = countUnlinked(conn, statements, partition);
+                Map<Long, String> quarantined = new LinkedHashMap<>();
+                int created = insertUsers(conn, statements, options.passwordHash(), partition, quarantined);
+                if (audit) {
+                    update(conn, statements.insertAudit, run.phase.name(), partition);
+                }
+                update(conn, statements.linkRows, null, partition);
+                int remaining = countUnlinked(conn, statements, partition);
+                Map<Long, String> unresolved = new LinkedHashMap<>();
+                if (remaining > 0) {
+                    unresolved.putAll(unresolvedIds(conn, statements, partition));
+                    quarantined.forEach(unresolved::replace);
+                }
+
+                int linked = total - remaining;
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE " + CHECKPOINT_TABLE
+                        + " SET status = ?, rows_total = ?, rows_linked = ?, rows_created = ?, attempts = ?,"
+                        + " duration_ms = ?, error_message = ?, updated_at = CURRENT_TIMESTAMP"
+                        + " WHERE phase = ? AND partition_no = ?")) {
+                    stmt.setString(1, remaining > 0 ? "FAILED" : "COMPLETED");
+                    stmt.setInt(2, total);
+                    stmt.setInt(3, linked);
+                    stmt.setInt(4, created);
+                    stmt.setInt(5, attempt);
+                    stmt.setLong(6, elapsedMs);
+                    stmt.setString(7, remaining > 0 ? truncate(remaining + " rows not linked, ids " + unresolved.keySet()) : null);
+                    stmt.setString(8, run.phase.name());
+                    stmt.setInt(9, partition.number());
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+
+                if (remaining > 0) {
+                    log.warn("Partition {} of {} (ids {}-{}) left {} rows unlinked", partition.number(),
+                            run.phase.name(), partition.loId(), partition.hiId(), remaining);
+                    run.failed.incrementAndGet();
+                }
+                run.total.add(total);
+                run.linked.add(linked);
+                run.created.add(created);
+                unresolved.forEach(run::addError);
+                Counter.builder("migration.rows").tag("phase", run.phase.name()).tag("outcome", "linked")
+                        .register(meterRegistry).increment(linked);
+                Counter.builder("migration.rows").tag("phase", run.phase.name()).tag("outcome", "created_user")
+                        .register(meterRegistry).increment(created);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Create the missing users for the partition in one statement, or, when that statement
+     * breaks a constraint, one row at a time, quarantining the rows that are rejected
+     */
+    private int insertUsers(Connection conn, Statements statements, String passwordHash, Partition partition,
+                            Map<Long, String> quarantined) throws SQLException {
+        Savepoint beforeInsert = conn.setSavepoint();
+        try {
+            return update(conn, statements.insertUsers, passwordHash, partition);
+        } catch (SQLException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            conn.rollback(beforeInsert);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(statements.unlinkedIds)) {
+            stmt.setLong(1, partition.loId());
+            stmt.setLong(2, partition.hiId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        int created = 0;
+        for (Long id : ids) {
+            Savepoint beforeRow = conn.setSavepoint();
+            try {
+                created += update(conn, statements.insertUsers, passwordHash, new Partition(partition.number(), id, id));
+            } catch (SQLException e) {
+                if (!isConstraintViolation(e)) {
+                    throw e;
+                }
+                conn.rollback(beforeRow);
+                quarantined.put(id, truncate("User could not be created: " + e.getMessage()));
+            }
+        }
+        return created;
+    }
+
+    // SQLState class 23: unique, check, not-null and foreign key violations
+    private static boolean isConstraintViolation(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    private static String truncate(String message) {
+        return message == null ? null : message.substring(0, Math.min(500, message.length()));
+    }
+
+    private int countUnlinked(Connection conn, Statements statements, Partition partition) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(statements.countUnlinked)) {
+            stmt.setLong(1, partition.loId());
+            stmt.setLong(2, partition.hiId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private Map<Long, String> unresolvedIds(Connection conn, Statements statements, Partition partition) throws SQLException {
+        Map<Long, String> errors = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(statements.unlinkedIds)) {
+            stmt.setLong(1, partition.loId());
+            stmt.setLong(2, partition.hiId());
+            stmt.setMaxRows(MAX_REPORTED_ERRORS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    errors.put(rs.getLong(1), "No matching user and none could be created (missing or conflicting email)");
+                }
+            }
+        }
+        return errors;
+    }
+
+    private static int update(Connection conn, String sql, String firstParameter, Partition partition) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (firstParameter != null) {
+                stmt.setString(index++, firstParameter);
+            }
+            stmt.setLong(index++, partition.loId());
+            stmt.setLong(index, partition.hiId());
+            return stmt.executeUpdate();
+        }
+    }
+
+    private void markFailed(String phase, Partition partition, int attempts, String message) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE " + CHECKPOINT_TABLE
+                     + " SET status = 'FAILED', attempts = ?, error_message = ?, updated_at = CURRENT_TIMESTAMP"
+                     + " WHERE phase = ? AND partition_no = ?")) {
+            conn.setAutoCommit(false);
+            stmt.setInt(1, attempts);
+            stmt.setString(2, truncate(message));
+            stmt.setString(3, phase);
+            stmt.setInt(4, partition.number());
+            stmt.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            log.error("Failed to record checkpoint failure for {} partition {}: {}", phase, partition.number(), e.getMessage());
+        }
+    }
+
+    // ============================================
+    // SCHEMA AND DIALECT
+    // ============================================
+
+    private Dialect detectDialect() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            String product = conn.getMetaData().getDatabaseProductName().toLowerCase();
+            if (product.contains("postgres") || product.contains("h2")) {
+                return Dialect.POSTGRES_LIKE;
+            }
+            if (product.contains("mysql") || product.contains("mariadb")) {
+                return Dialect.MYSQL;
+            }
+            return Dialect.OTHER;
+        }
+    }
+
+    private void ensureCheckpointTable() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + CHECKPOINT_TABLE + " ("
+                    + "phase VARCHAR(50) NOT NULL, partition_no INTEGER NOT NULL, lo_id BIGINT NOT NULL,"
+                    + " hi_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL, rows_total INTEGER, rows_linked INTEGER,"
+                    + " rows_created INTEGER, attempts INTEGER, duration_ms BIGINT, error_message VARCHAR(500),"
+                    + " updated_at TIMESTAMP, PRIMARY KEY (phase, partition_no))");
+            conn.commit();
+        }
+    }
+
+    private boolean tableExists(String table) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            for (String name : new String[] {table, table.toUpperCase()}) {
+                try (ResultSet rs = conn.getMetaData().getTables(null, null, name, new String[] {"TABLE"})) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory workerFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "migration-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * SQL for one phase. Missing users are inserted only when neither the email nor the phone
+     * matches an existing user, mirroring the old per-row lookup; duplicates inside a partition or
+     * racing partitions are dropped by the conflict clause and linked by the UPDATE instead. On
+     * engines without a conflict clause the duplicate fails the statement and the partition
+     * retries it row by row.
+     */
+    private static final class Statements {
+
+        final String countUnlinked;
+        final String unlinkedIds;
+        final String insertUsers;
+        final String insertAudit;
+        final String linkRows;
+
+        Statements(PhaseSpec phase, Dialect dialect) {
+            String range = " WHERE t.id BETWEEN ? AND ? AND t.user_id IS NULL";
+            String phone = "NULLIF(TRIM(" + phase.phoneExpr() + "), '')";
+            // NULL phones are guarded explicitly: some engines walk every NULL index entry for "= NULL"
+            String resolveUser = "COALESCE((SELECT u.id FROM users u WHERE u.email = " + phase.emailExpr() + " LIMIT 1),"
+                    + " CASE WHEN " + phone + " IS NOT NULL THEN"
+                    + " (SELECT u.id FROM users u WHERE u.phone = " + phone + " ORDER BY u.id LIMIT 1) END)";
+
+            countUnlinked = "SELECT COUNT(*) FROM " + phase.table() + " t" + range;
+            unlinkedIds = "SELECT t.id FROM " + phase.table() + " t" + range + " ORDER BY t.id";
+
+            insertUsers = (dialect == Dialect.MYSQL ? "INSERT IGNORE" : "INSERT")
+                    + " INTO users (name, email, phone, password, role, is_verified, is_active, country, created_at)"
+                    + " SELECT " + phase.nameExpr() + ", " + phase.emailExpr() + ", " + phone + ", ?, '" + phase.role() + "', "
+                    + phase.verifiedExpr() + ", " + phase.activeExpr() + ", 'India', CURRENT_TIMESTAMP"
+                    + " FROM " + phase.table() + " t" + range
+                    + " AND " + phase.emailExpr() + " IS NOT NULL"
+                    + " AND NOT EXISTS (SELECT 1 FROM users u WHERE u.email = " + phase.emailExpr() + ")"
+                    + " AND (" + phone + " IS NULL OR NOT EXISTS (SELECT 1 FROM users u WHERE u.phone = " + phone + "))"
+                    + " ORDER BY t.id"
+                    + (dialect == Dialect.POSTGRES_LIKE ? " ON CONFLICT DO NOTHING" : "");
+
+            insertAudit = "INSERT INTO " + AUDIT_TABLE + " (table_name, operation, record_id, new_values, migration_phase)"
+                    + " SELECT '" + phase.table() + "', 'BACKFILL_USER_ID', r.id, CONCAT('{user_id=', r.user_id, '}'), ?"
+                    + " FROM (SELECT t.id AS id, " + resolveUser + " AS user_id FROM " + phase.table() + " t" + range + ") r"
+                    + " WHERE r.user_id IS NOT NULL";
+
+            linkRows = "UPDATE " + phase.table() + " t SET user_id = " + resolveUser + range;
+        }
+    }
+
+    /**
+     * Progress of one phase across its partitions.
+     */
+    private final class PhaseRun {
+
+        final PhaseSpec phase;
+        final long startNanos = System.nanoTime();
+        final List<Partition> pendingPartitions = new ArrayList<>();
+        final List<Future<?>> futures = new ArrayList<>();
+        final LongAdder total = new LongAdder();
+        final LongAdder linked = new LongAdder();
+        final LongAdder created = new LongAdder();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicLong lastFinishedNanos = new AtomicLong();
+        final Map<Long, String> errors = new ConcurrentHashMap<>();
+        int partitions;
+        int resumed;
+        String errorMessage;
+
+        PhaseRun(PhaseSpec phase) {
+            this.phase = phase;
+        }
+
+        void addError(Long id, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.put(id, message);
+            }
+        }
+
+        void partitionDone() {
+            lastFinishedNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+
+        PhaseOutcome await() {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errorMessage = "Interrupted";
+                } catch (Exception e) {
+                    errorMessage = e.getMessage();
+                }
+            }
+            long end = Math.max(lastFinishedNanos.get(), startNanos);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+            if (errorMessage == null && failed.get() > 0) {
+                errorMessage = failed.get() + " of " + partitions + " partitions failed; rerun to resume from the checkpoints";
+            }
+            PhaseOutcome outcome = new PhaseOutcome(phase.name(), total.sum(), linked.sum(), created.sum(), partitions,
+                    resumed, failed.get(), durationMs, new LinkedHashMap<>(errors), errorMessage);
+            rowsPerSecond.computeIfAbsent(phase.name(), name -> meterRegistry.gauge("migration.rows.per.second",
+                    Tags.of("phase", name), new AtomicLong())).set(Math.round(outcome.rowsPerSecond()));
+            log.info("{}: {} rows linked ({} new users) in {} ms across {} partitions, {} rows/s",
+                    phase.name(), outcome.linkedRows(), outcome.createdUsers(), durationMs, partitions,
+                    Math.round(outcome.rowsPerSecond()));
+            return outcome;
+        }
+    }
+}
@@ -1,23 +1,15 @@
 package com.itech.itech_backend.service;
 
-import com.itech.itech_backend.modules.core.model.User;
-import com.itech.itech_backend.modules.core.repository.UserRepository;
-import com.itech.itech_backend.modules.buyer.model.Buyer;
 import com.itech.itech_backend.modules.buyer.repository.BuyerRepository;
-import com.itech.itech_backend.modules.vendor.model.Vendors;
 import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
-import com.itech.itech_backend.modules.admin.model.Admins;
-import com.itech.itech_backend.modules.admin.repository.AdminsRepository;
-import com.itech.itech_backend.modules.employee.entity.EmployeeProfile;
-import com.itech.itech_backend.modules.employee.repository.EmployeeProfileRepository;
+import com.itech.itech_backend.service.DataMigrationEngine.Options;
+import com.itech.itech_backend.service.DataMigrationEngine.PhaseOutcome;
+import com.itech.itech_backend.service.DataMigrationEngine.PhaseSpec;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionTemplate;
-import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
@@ -26,10 +18,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Enterprise-grade Data Migration Service
@@ -41,27 +29,40 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - Idempotent operations (safe to retry)
  * - Performance optimized with batch processing
  * - Full audit trail
+ *
+ * The user backfill phases are set-based and checkpointed per id-range partition; see
+ * {@link DataMigrationEngine}.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DataMigrationService {
 
-    private final UserRepository userRepository;
     private final BuyerRepository buyerRepository;
     private final VendorsRepository vendorsRepository;
-    private final AdminsRepository adminsRepository;
-    private final EmployeeProfileRepository employeeProfileRepository;
     private final PasswordEncoder passwordEncoder;
-    private final TransactionTemplate transactionTemplate;
     private final DataSource dataSource;
+    private final DataMigrationEngine migrationEngine;
 
     // Migration constants
     private static final String DEFAULT_TEMP_PASSWORD = "TempPass@2024";
-    private static final int BATCH_SIZE = 100;
+    private static final int BATCH_SIZE = 1000;
+    private static final int PARTITION_SIZE = 50_000;
+    private static final int PARALLELISM = 4;
     private static final int RETRY_ATTEMPTS = 3;
     private static final long RETRY_DELAY_MS = 1000;
 
+    // Source tables and how their columns map onto users
+    static final PhaseSpec BUYERS = new PhaseSpec("BUYERS_MIGRATION", "buyers", "BUYER",
+            "COALESCE(t.buyer_name, 'Buyer')", "t.email", "t.phone", "COALESCE(t.is_email_verified, FALSE)", "TRUE");
+    static final PhaseSpec VENDORS = new PhaseSpec("VENDORS_MIGRATION", "legacy_vendors", "SELLER",
+            "COALESCE(t.name, 'Vendor')", "t.email", "t.phone", "t.verified", "TRUE");
+    static final PhaseSpec ADMINS = new PhaseSpec("ADMINS_MIGRATION", "admins", "ADMIN",
+            "COALESCE(t.name, 'Admin')", "t.email", "t.phone", "t.verified", "TRUE");
+    static final PhaseSpec EMPLOYEES = new PhaseSpec("EMPLOYEES_MIGRATION", "employee_profiles", "DATA_ENTRY",
+            "TRIM(CONCAT(t.first_name, ' ', COALESCE(t.last_name, '')))", "t.work_email", "t.personal_mobile",
+            "TRUE", "t.status = 'ACTIVE'");
+
     // ============================================
     // MAIN MIGRATION ORCHESTRATOR
     // ============================================
@@ -86,31 +87,16 @@ public class DataMigrationService {
             createBackupSnapshots();
             updateMigrationStatus("BACKUP_CREATION", "COMPLETED");
             
-            // Phase 3: Execute data migration in parallel (but controlled)
-            ExecutorService executor = Executors.newFixedThreadPool(4);
-            
-            List<CompletableFuture<MigrationPhaseResult>> futures = Arrays.asList(
-                CompletableFuture.supplyAsync(() -> migrateBuyersData(config), executor),
-                CompletableFuture.supplyAsync(() -> migrateVendorsData(config), executor),
-                CompletableFuture.supplyAsync(() -> migrateAdminsData(config), executor),
-                CompletableFuture.supplyAsync(() -> migrateEmployeesData(config), executor)
-            );
-            
-            // Wait for all migrations to complete
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            
-            // Collect results
-            for (CompletableFuture<MigrationPhaseResult> future : futures) {
-                MigrationPhaseResult phaseResult = future.get();
+            // Phase 3: Execute data migration in parallel (partitions share a bounded pool)
+            for (MigrationPhaseResult phaseResult : migrateAllData(config)) {
                 result.addPhaseResult(phaseResult);
-                
+            }
+            for (MigrationPhaseResult phaseResult : result.getPhaseResults()) {
                 if (!phaseResult.isSuccess()) {
                     throw new MigrationException("Migration phase failed: " + phaseResult.getPhaseName());
                 }
             }
             
-            executor.shutdown();
-            
             // Phase 4: Add FK constraints
             addForeignKeyConstraints();
             updateMigrationStatus("ADD_FK_CONSTRAINTS", "COMPLETED");
@@ -147,422 +133,78 @@ public class DataMigrationService {
     }
 
     // ============================================
-    // BUYERS MIGRATION
+    // DATA PHASES
     // ============================================
 
-    @Transactional
+    /**
+     * Runs all four user backfill phases on one bounded worker pool
+     */
+    public List<MigrationPhaseResult> migrateAllData(MigrationConfig config) {
+        return runPhases(List.of(BUYERS, VENDORS, ADMINS, EMPLOYEES), config);
+    }
+
     public MigrationPhaseResult migrateBuyersData(MigrationConfig config) {
         log.info("📊 Starting buyers data migration");
-        
-        MigrationPhaseResult result = new MigrationPhaseResult("BUYERS_MIGRATION");
-        updateMigrationStatus("DATA_BACKFILL_BUYERS", "RUNNING");
-        
-        try {
-            List<Buyer> unmappedBuyers = buyerRepository.findByUserIsNull();
-            result.setTotalRecords(unmappedBuyers.size());
-            
-            AtomicInteger processed = new AtomicInteger(0);
-            AtomicInteger created = new AtomicInteger(0);
-            AtomicInteger linked = new AtomicInteger(0);
-            
-            // Process in batches for performance
-            for (int i = 0; i < unmappedBuyers.size(); i += BATCH_SIZE) {
-                List<Buyer> batch = unmappedBuyers.subList(i, 
-                    Math.min(i + BATCH_SIZE, unmappedBuyers.size()));
-                
-                transactionTemplate.execute(status -> {
-                    for (Buyer buyer : batch) {
-                        try {
-                            User user = findOrCreateUserForBuyer(buyer);
-                            buyer.setUser(user);
-                            buyerRepository.save(buyer);
-                            
-                            if (user.getId() != null) {
-                                linked.incrementAndGet();
-                            } else {
-                                created.incrementAndGet();
-                            }
-                            
-                            auditMigration("buyers", buyer.getId(), 
-                                Map.of("user_id", user.getId()), "DATA_BACKFILL_BUYERS");
-                            
-                        } catch (Exception e) {
-                            log.error("Failed to migrate buyer {}: {}", buyer.getId(), e.getMessage());
-                            result.addError(buyer.getId(), e.getMessage());
-                        }
-                        
-                        processed.incrementAndGet();
-                    }
-                    return null;
-                });
-                
-                // Progress reporting
-                if (i % (BATCH_SIZE * 10) == 0) {
-                    log.info("Buyers migration progress: {}/{}", processed.get(), unmappedBuyers.size());
-                }
-            }
-            
-            result.setProcessedRecords(processed.get());
-            result.setCreatedUsers(created.get());
-            result.setLinkedUsers(linked.get());
-            result.setSuccess(true);
-            
-            updateMigrationStatus("DATA_BACKFILL_BUYERS", "COMPLETED");
-            log.info("✅ Buyers migration completed: {} processed, {} created, {} linked", 
-                processed.get(), created.get(), linked.get());
-            
-        } catch (Exception e) {
-            log.error("❌ Buyers migration failed: {}", e.getMessage(), e);
-            result.setSuccess(false);
-            result.setErrorMessage(e.getMessage());
-            updateMigrationStatus("DATA_BACKFILL_BUYERS", "FAILED");
-        }
-        
-        return result;
+        return runPhases(List.of(BUYERS), config).get(0);
     }
 
-    // ============================================
-    // VENDORS MIGRATION
-    // ============================================
-
-    @Transactional
     public MigrationPhaseResult migrateVendorsData(MigrationConfig config) {
         log.info("🏪 Starting vendors data migration");
-        
-        MigrationPhaseResult result = new MigrationPhaseResult("VENDORS_MIGRATION");
-        updateMigrationStatus("DATA_BACKFILL_VENDORS", "RUNNING");
-        
-        try {
-            List<Vendors> unmappedVendors = vendorsRepository.findByUserIsNull();
-            result.setTotalRecords(unmappedVendors.size());
-            
-            AtomicInteger processed = new AtomicInteger(0);
-            AtomicInteger created = new AtomicInteger(0);
-            AtomicInteger linked = new AtomicInteger(0);
-            
-            for (int i = 0; i < unmappedVendors.size(); i += BATCH_SIZE) {
-                List<Vendors> batch = unmappedVendors.subList(i, 
-                    Math.min(i + BATCH_SIZE, unmappedVendors.size()));
-                
-                transactionTemplate.execute(status -> {
-                    for (Vendors vendor : batch) {
-                        try {
-                            User user = findOrCreateUserForVendor(vendor);
-                            vendor.setUser(user);
-                            vendorsRepository.save(vendor);
-                            
-                            if (user.getId() != null) {
-                                linked.incrementAndGet();
-                            } else {
-                                created.incrementAndGet();
-                            }
-                            
-                            auditMigration("legacy_vendors", vendor.getId(), 
-                                Map.of("user_id", user.getId()), "DATA_BACKFILL_VENDORS");
-                            
-                        } catch (Exception e) {
-                            log.error("Failed to migrate vendor {}: {}", vendor.getId(), e.getMessage());
-                            result.addError(vendor.getId(), e.getMessage());
-                        }
-                        
-                        processed.incrementAndGet();
-                    }
-                    return null;
-                });
-            }
-            
-            result.setProcessedRecords(processed.get());
-            result.setCreatedUsers(created.get());
-            result.setLinkedUsers(linked.get());
-            result.setSuccess(true);
-            
-            updateMigrationStatus("DATA_BACKFILL_VENDORS", "COMPLETED");
-            log.info("✅ Vendors migration completed: {} processed, {} created, {} linked", 
-                processed.get(), created.get(), linked.get());
-            
-        } catch (Exception e) {
-            log.error("❌ Vendors migration failed: {}", e.getMessage(), e);
-            result.setSuccess(false);
-            result.setErrorMessage(e.getMessage());
-            updateMigrationStatus("DATA_BACKFILL_VENDORS", "FAILED");
-        }
-        
-        return result;
+        return runPhases(List.of(VENDORS), config).get(0);
     }
 
-    // ============================================
-    // ADMINS MIGRATION
-    // ============================================
-
-    @Transactional
     public MigrationPhaseResult migrateAdminsData(MigrationConfig config) {
         log.info("👑 Starting admins data migration");
-        
-        MigrationPhaseResult result = new MigrationPhaseResult("ADMINS_MIGRATION");
-        updateMigrationStatus("DATA_BACKFILL_ADMINS", "RUNNING");
-        
-        try {
-            // Note: Assuming Admins doesn't have user FK yet, we need to find all admins
-            List<Admins> allAdmins = adminsRepository.findAll();
-            result.setTotalRecords(allAdmins.size());
-            
-            AtomicInteger processed = new AtomicInteger(0);
-            AtomicInteger created = new AtomicInteger(0);
-            AtomicInteger linked = new AtomicInteger(0);
-            
-            for (Admins admin : allAdmins) {
-                try {
-                    transactionTemplate.execute(status -> {
-                        User user = findOrCreateUserForAdmin(admin);
-                        
-                        // Update admin record with user_id via raw SQL since entity might not have the field yet
-                        updateAdminUserId(admin.getId(), user.getId());
-                        
-                        if (userRepository.existsById(user.getId())) {
-                            linked.incrementAndGet();
-                        } else {
-                            created.incrementAndGet();
-                        }
-                        
-                        auditMigration("admins", admin.getId(), 
-                            Map.of("user_id", user.getId()), "DATA_BACKFILL_ADMINS");
-                        
-                        return null;
-                    });
-                    
-                } catch (Exception e) {
-                    log.error("Failed to migrate admin {}: {}", admin.getId(), e.getMessage());
-                    result.addError(admin.getId(), e.getMessage());
-                }
-                
-                processed.incrementAndGet();
-            }
-            
-            result.setProcessedRecords(processed.get());
-            result.setCreatedUsers(created.get());
-            result.setLinkedUsers(linked.get());
-            result.setSuccess(true);
-            
-            updateMigrationStatus("DATA_BACKFILL_ADMINS", "COMPLETED");
-            log.info("✅ Admins migration completed: {} processed, {} created, {} linked", 
-                processed.get(), created.get(), linked.get());
-            
-        } catch (Exception e) {
-            log.error("❌ Admins migration failed: {}", e.getMessage(), e);
-            result.setSuccess(false);
-            result.setErrorMessage(e.getMessage());
-            updateMigrationStatus("DATA_BACKFILL_ADMINS", "FAILED");
-        }
-        
-        return result;
+        return runPhases(List.of(ADMINS), config).get(0);
     }
 
-    // ============================================
-    // EMPLOYEES MIGRATION
-    // ============================================
-
-    @Transactional
     public MigrationPhaseResult migrateEmployeesData(MigrationConfig config) {
         log.info("👥 Starting employees data migration");
-        
-        MigrationPhaseResult result = new MigrationPhaseResult("EMPLOYEES_MIGRATION");
-        updateMigrationStatus("DATA_BACKFILL_EMPLOYEES", "RUNNING");
-        
-        try {
-            // Employees might already have user FK, so check for null user_id
-            List<EmployeeProfile> unmappedEmployees = employeeProfileRepository.findByUserIsNull();
-            result.setTotalRecords(unmappedEmployees.size());
-            
-            if (unmappedEmployees.isEmpty()) {
-                log.info("No unmapped employees found, skipping migration");
-                result.setSuccess(true);
-                updateMigrationStatus("DATA_BACKFILL_EMPLOYEES", "COMPLETED");
-                return result;
-            }
-            
-            AtomicInteger processed = new AtomicInteger(0);
-            AtomicInteger created = new AtomicInteger(0);
-            AtomicInteger linked = new AtomicInteger(0);
-            
-            for (EmployeeProfile employee : unmappedEmployees) {
-                try {
-                    transactionTemplate.execute(status -> {
-                        User user = findOrCreateUserForEmployee(employee);
-                        employee.setUser(user);
-                        employeeProfileRepository.save(employee);
-                        
-                        if (userRepository.existsById(user.getId())) {
-                            linked.incrementAndGet();
-                        } else {
-                            created.incrementAndGet();
-                        }
-                        
-                        auditMigration("employee_profiles", employee.getId(), 
-                            Map.of("user_id", user.getId()), "DATA_BACKFILL_EMPLOYEES");
-                        
-                        return null;
-                    });
-                    
-                } catch (Exception e) {
-                    log.error("Failed to migrate employee {}: {}", employee.getId(), e.getMessage());
-                    result.addError(employee.getId(), e.getMessage());
-                }
-                
-                processed.incrementAndGet();
-            }
-            
-            result.setProcessedRecords(processed.get());
-            result.setCreatedUsers(created.get());
-            result.setLinkedUsers(linked.get());
-            result.setSuccess(true);
-            
-            updateMigrationStatus("DATA_BACKFILL_EMPLOYEES", "COMPLETED");
-            log.info("✅ Employees migration completed: {} processed, {} created, {} linked", 
-                processed.get(), created.get(), linked.get());
-            
-        } catch (Exception e) {
-            log.error("❌ Employees migration failed: {}", e.getMessage(), e);
-            result.setSuccess(false);
-            result.setErrorMessage(e.getMessage());
-            updateMigrationStatus("DATA_BACKFILL_EMPLOYEES", "FAILED");
-        }
-        
-        return result;
+        return runPhases(List.of(EMPLOYEES), config).get(0);
     }
 
-    // ============================================
-    // USER FINDER/CREATOR METHODS
-    // ============================================
-
-    private User findOrCreateUserForBuyer(Buyer buyer) {
-        // Try to find existing user by email first
-        Optional<User> existingUser = userRepository.findByEmail(buyer.getEmail());
-        if (existingUser.isPresent()) {
-            User user = existingUser.get();
-            // Ensure role is correct
-            if (user.getRole() != User.UserRole.BUYER) {
-                log.warn("User {} role mismatch: expected BUYER, found {}", 
-                    user.getEmail(), user.getRole());
+    private List<MigrationPhaseResult> runPhases(List<PhaseSpec> phases, MigrationConfig config) {
+        phases.forEach(phase -> updateMigrationStatus(statusPhase(phase), "RUNNING"));
+
+        // Every created user gets the same temporary password, so it is hashed once per run
+        Options options = new Options(config.getPartitionSize(), config.getParallelism(), config.getBatchSize(),
+                config.getRetryAttempts(), RETRY_DELAY_MS, config.isAuditRows(),
+                passwordEncoder.encode(DEFAULT_TEMP_PASSWORD));
+
+        List<MigrationPhaseResult> results = new ArrayList<>();
+        for (PhaseOutcome outcome : migrationEngine.run(phases, options)) {
+            MigrationPhaseResult result = new MigrationPhaseResult(outcome.phase());
+            result.setTotalRecords((int) outcome.totalRows());
+            result.setProcessedRecords((int) outcome.linkedRows());
+            result.setCreatedUsers((int) outcome.createdUsers());
+            result.setLinkedUsers((int) Math.max(0, outcome.linkedRows() - outcome.createdUsers()));
+            result.setPartitions(outcome.partitions());
+            result.setResumedPartitions(outcome.resumedPartitions());
+            result.setFailedPartitions(outcome.failedPartitions());
+            result.setDurationMs(outcome.durationMs());
+            result.setRowsPerSecond(Math.round(outcome.rowsPerSecond()));
+            outcome.errors().forEach(result::addError);
+            result.setSuccess(outcome.success());
+            result.setErrorMessage(outcome.errorMessage());
+            results.add(result);
+
+            String phase = phases.stream().filter(p -> p.name().equals(outcome.phase())).findFirst()
+                    .map(DataMigrationService::statusPhase).orElse(outcome.phase());
+            if (outcome.success()) {
+                updateMigrationStatus(phase, "COMPLETED");
+                log.info("✅ {} completed: {} processed, {} created, {} linked, {} rows/s", outcome.phase(),
+                        result.getProcessedRecords(), result.getCreatedUsers(), result.getLinkedUsers(),
+                        result.getRowsPerSecond());
+            } else {
+                updateMigrationStatus(phase, "FAILED");
+                log.error("❌ {} failed: {}", outcome.phase(), outcome.errorMessage());
             }
-            return user;
         }
-        
-        // Try by phone if available
-        if (buyer.getPhone() != null && !buyer.getPhone().trim().isEmpty()) {
-            existingUser = userRepository.findByPhone(buyer.getPhone());
-            if (existingUser.isPresent()) {
-                return existingUser.get();
-            }
-        }
-        
-        // Create new user
-        return userRepository.save(User.builder()
-            .name(Optional.ofNullable(buyer.getBuyerName()).orElse("Buyer"))
-            .email(buyer.getEmail())
-            .phone(buyer.getPhone())
-            .password(passwordEncoder.encode(DEFAULT_TEMP_PASSWORD))
-            .role(User.UserRole.BUYER)
-            .isVerified(Boolean.TRUE.equals(buyer.getIsEmailVerified()))
-            .isActive(true)
-            .createdAt(LocalDateTime.now())
-            .build());
+        return results;
     }
 
-    private User findOrCreateUserForVendor(Vendors vendor) {
-        // Try to find existing user by email
-        Optional<User> existingUser = userRepository.findByEmail(vendor.getEmail());
-        if (existingUser.isPresent()) {
-            User user = existingUser.get();
-            if (user.getRole() != User.UserRole.SELLER) {
-                log.warn("User {} role mismatch: expected SELLER, found {}", 
-                    user.getEmail(), user.getRole());
-            }
-            return user;
-        }
-        
-        // Try by phone
-        if (vendor.getPhone() != null && !vendor.getPhone().trim().isEmpty()) {
-            existingUser = userRepository.findByPhone(vendor.getPhone());
-            if (existingUser.isPresent()) {
-                return existingUser.get();
-            }
-        }
-        
-        // Create new user
-        return userRepository.save(User.builder()
-            .name(Optional.ofNullable(vendor.getName()).orElse("Vendor"))
-            .email(vendor.getEmail())
-            .phone(vendor.getPhone())
-            .password(passwordEncoder.encode(DEFAULT_TEMP_PASSWORD))
-            .role(User.UserRole.SELLER)
-            .isVerified(vendor.isVerified())
-            .isActive(true)
-            .createdAt(LocalDateTime.now())
-            .build());
-    }
-
-    private User findOrCreateUserForAdmin(Admins admin) {
-        // Try to find existing user by email
-        Optional<User> existingUser = userRepository.findByEmail(admin.getEmail());
-        if (existingUser.isPresent()) {
-            User user = existingUser.get();
-            if (user.getRole() != User.UserRole.ADMIN) {
-                log.warn("User {} role mismatch: expected ADMIN, found {}", 
-                    user.getEmail(), user.getRole());
-            }
-            return user;
-        }
-        
-        // Try by phone
-        if (admin.getPhone() != null && !admin.getPhone().trim().isEmpty()) {
-            existingUser = userRepository.findByPhone(admin.getPhone());
-            if (existingUser.isPresent()) {
-                return existingUser.get();
-            }
-        }
-        
-        // Create new user
-        return userRepository.save(User.builder()
-            .name(Optional.ofNullable(admin.getName()).orElse("Admin"))
-            .email(admin.getEmail())
-            .phone(admin.getPhone())
-            .password(passwordEncoder.encode(DEFAULT_TEMP_PASSWORD))
-            .role(User.UserRole.ADMIN)
-            .isVerified(admin.isVerified())
-            .isActive(true)
-            .createdAt(LocalDateTime.now())
-            .build());
-    }
-
-    private User findOrCreateUserForEmployee(EmployeeProfile employee) {
-        // Try to find existing user by work email
-        Optional<User> existingUser = userRepository.findByEmail(employee.getWorkEmail());
-        if (existingUser.isPresent()) {
-            return existingUser.get();
-        }
-        
-        // Try by personal mobile
-        if (employee.getPersonalMobile() != null) {
-            existingUser = userRepository.findByPhone(employee.getPersonalMobile());
-            if (existingUser.isPresent()) {
-                return existingUser.get();
-            }
-        }
-        
-        // Create new user for employee
-        String fullName = employee.getFirstName() + " " + 
-            Optional.ofNullable(employee.getLastName()).orElse("");
-        
-        return userRepository.save(User.builder()
-            .name(fullName.trim())
-            .email(employee.getWorkEmail())
-            .phone(employee.getPersonalMobile())
-            .password(passwordEncoder.encode(DEFAULT_TEMP_PASSWORD))
-            .role(User.UserRole.DATA_ENTRY) // or appropriate employee role
-            .isVerified(true) // Employees are usually pre-verified
-            .isActive(employee.getStatus() == EmployeeProfile.EmployeeStatus.ACTIVE)
-            .createdAt(LocalDateTime.now())
-            .build());
+    private static String statusPhase(PhaseSpec phase) {
+        return "DATA_BACKFILL_" + phase.name().replace("_MIGRATION", "");
     }
 
     // ============================================
@@ -672,37 +314,6 @@ public class DataMigrationService {
         }
     }
 
-    private void updateAdminUserId(Long adminId, Long userId) {
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "UPDATE admins SET user_id = ? WHERE id = ?")) {
-            
-            stmt.setLong(1, userId);
-            stmt.setLong(2, adminId);
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            log.error("Failed to update admin user_id: {}", e.getMessage(), e);
-        }
-    }
-
-    private void auditMigration(String tableName, Long recordId, Map<String, Object> values, String phase) {
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "INSERT INTO migration_audit (table_name, operation, record_id, new_values, migration_phase) VALUES (?, ?, ?, ?, ?)")) {
-            
-            stmt.setString(1, tableName);
-            stmt.setString(2, "BACKFILL_USER_ID");
-            stmt.setLong(3, recordId);
-            stmt.setString(4, values.toString()); // Convert to JSON in production
-            stmt.setString(5, phase);
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            log.error("Failed to audit migration: {}", e.getMessage(), e);
-        }
-    }
-
     // ============================================
     // CONFIGURATION AND RESULT CLASSES
     // ============================================
@@ -712,6 +323,9 @@ public class DataMigrationService {
         private boolean cleanupDuplicates = false;
         private int batchSize = BATCH_SIZE;
         private int retryAttempts = RETRY_ATTEMPTS;
+        private int partitionSize = PARTITION_SIZE;
+        private int parallelism = PARALLELISM;
+        private boolean auditRows = true;
         
         // Getters and setters
         public boolean isAutoRollbackOnFailure() { return autoRollbackOnFailure; }
@@ -722,6 +336,12 @@ public class DataMigrationService {
         public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
         public int getRetryAttempts() { return retryAttempts; }
         public void setRetryAttempts(int retryAttempts) { this.retryAttempts = retryAttempts; }
+        public int getPartitionSize() { return partitionSize; }
+        public void setPartitionSize(int partitionSize) { this.partitionSize = partitionSize; }
+        public int getParallelism() { return parallelism; }
+        public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+        public boolean isAuditRows() { return auditRows; }
+        public void setAuditRows(boolean auditRows) { this.auditRows = auditRows; }
     }
 
     public static class MigrationResult {
@@ -758,6 +378,11 @@ public class DataMigrationService {
         private int processedRecords;
         private int createdUsers;
         private int linkedUsers;
+        private int partitions;
+        private int resumedPartitions;
+        private int failedPartitions;
+        private long durationMs;
+        private long rowsPerSecond;
         private String errorMessage;
         private Map<Long, String> errors = new HashMap<>();
         
@@ -781,6 +406,16 @@ public class DataMigrationService {
         public void setCreatedUsers(int createdUsers) { this.createdUsers = createdUsers; }
         public int getLinkedUsers() { return linkedUsers; }
         public void setLinkedUsers(int linkedUsers) { this.linkedUsers = linkedUsers; }
+        public int getPartitions() { return partitions; }
+        public void setPartitions(int partitions) { this.partitions = partitions; }
+        public int getResumedPartitions() { return resumedPartitions; }
+        public void setResumedPartitions(int resumedPartitions) { this.resumedPartitions = resumedPartitions; }
+        public int getFailedPartitions() { return failedPartitions; }
+        public void setFailedPartitions(int failedPartitions) { this.failedPartitions = failedPartitions; }
+        public long getDurationMs() { return durationMs; }
+        public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+        public long getRowsPerSecond() { return rowsPerSecond; }
+        public void setRowsPerSecond(long rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
         public String getErrorMessage() { return errorMessage; }
         public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
         public Map<Long, String> getErrors() { return errors; }
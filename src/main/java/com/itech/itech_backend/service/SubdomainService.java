@@ -1,13 +1,16 @@
 package com.itech.itech_backend.service;
 
 import com.itech.itech_backend.config.SubdomainProperties;
+import com.itech.itech_backend.modules.vendor.service.StorefrontDirectory;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 @Service
@@ -16,20 +19,62 @@ import java.util.regex.Pattern;
 public class SubdomainService {
 
     private final SubdomainProperties subdomainProperties;
+    private final StorefrontDirectory storefrontDirectory;
     
     // Pattern for valid subdomain names
     private static final Pattern SUBDOMAIN_PATTERN = Pattern.compile("^[a-z0-9]([a-z0-9-]{0,61}[a-z0-9])?$");
     
+    // Hosts that reached a storefront or configured subdomain, parsed and validated once. Other
+    // hosts are parsed per request, so made-up Host headers cannot crowd out real ones
+    private static final int MAX_CACHED_HOSTS = 10_000;
+    
+    private static final HostRoute NO_SUBDOMAIN = new HostRoute(null, false, null);
+    
+    /**
+     * What a host resolves to, independent of which vendor currently owns the subdomain
+     */
+    private record HostRoute(String subdomain, boolean valid, SubdomainProperties.SubdomainConfig config) {}
+    
+    private final Map<String, HostRoute> hostRoutes = new ConcurrentHashMap<>();
+    
     /**
      * Extract subdomain from HTTP request
      */
     public Optional<String> extractSubdomain(HttpServletRequest request) {
-        String host = getHostFromRequest(request);
-        
+        return Optional.ofNullable(route(getHostFromRequest(request)).subdomain());
+    }
+    
+    /**
+     * Parse and validate a host once, then answer from the host map
+     */
+    private HostRoute route(String host) {
         if (!StringUtils.hasText(host)) {
-            return Optional.empty();
+            return NO_SUBDOMAIN;
         }
-        
+        HostRoute route = hostRoutes.get(host);
+        if (route == null) {
+            route = parseHost(host)
+                    .map(subdomain -> new HostRoute(subdomain, isValidSubdomain(subdomain), getSubdomainConfig(subdomain).orElse(null)))
+                    .orElse(NO_SUBDOMAIN);
+            if (resolves(route) && hostRoutes.size() < MAX_CACHED_HOSTS) {
+                hostRoutes.put(host, route);
+            }
+        }
+        return route;
+    }
+    
+    private boolean resolves(HostRoute route) {
+        return route.valid() && (route.config() != null || storefrontDirectory.vendorId(route.subdomain()) != null);
+    }
+    
+    /**
+     * Number of hosts held in the host map
+     */
+    public int cachedHosts() {
+        return hostRoutes.size();
+    }
+    
+    private Optional<String> parseHost(String host) {
         // Handle localhost for development
         if (host.startsWith("localhost") || host.startsWith("127.0.0.1")) {
             return extractDevSubdomain(host);
@@ -93,7 +138,8 @@ public class SubdomainService {
         String forwardedHost = request.getHeader("X-Forwarded-Host");
         if (StringUtils.hasText(forwardedHost)) {
             // Take the first host if multiple
-            return forwardedHost.split(",")[0].trim();
+            int comma = forwardedHost.indexOf(',');
+            return (comma < 0 ? forwardedHost : forwardedHost.substring(0, comma)).trim();
         }
         
         // Check for original host
@@ -174,14 +220,17 @@ public class SubdomainService {
      * Get subdomain context information
      */
     public SubdomainContext getSubdomainContext(HttpServletRequest request) {
-        Optional<String> subdomain = extractSubdomain(request);
+        String host = getHostFromRequest(request);
+        HostRoute route = route(host);
         
         SubdomainContext context = new SubdomainContext();
-        context.setSubdomain(subdomain.orElse(null));
-        context.setHasSubdomain(subdomain.isPresent());
-        context.setValid(subdomain.map(this::isValidSubdomain).orElse(false));
-        context.setHost(getHostFromRequest(request));
-        context.setConfig(subdomain.flatMap(this::getSubdomainConfig).orElse(null));
+        context.setSubdomain(route.subdomain());
+        context.setHasSubdomain(route.subdomain() != null);
+        context.setValid(route.valid());
+        context.setHost(host);
+        context.setConfig(route.config());
+        // Storefront tenant, from the in-memory directory
+        context.setVendorId(route.valid() ? storefrontDirectory.vendorId(route.subdomain()) : null);
         
         log.debug("🌐 Subdomain context: {}", context);
         
@@ -197,6 +246,7 @@ public class SubdomainService {
         private boolean valid;
         private String host;
         private SubdomainProperties.SubdomainConfig config;
+        private Long vendorId;
         
         // Getters and setters
         public String getSubdomain() { return subdomain; }
@@ -214,6 +264,11 @@ public class SubdomainService {
         public SubdomainProperties.SubdomainConfig getConfig() { return config; }
         public void setConfig(SubdomainProperties.SubdomainConfig config) { this.config = config; }
         
+        public Long getVendorId() { return vendorId; }
+        public void setVendorId(Long vendorId) { this.vendorId = vendorId; }
+        
+        public boolean isStorefront() { return vendorId != null; }
+        
         @Override
         public String toString() {
             return "SubdomainContext{" +
@@ -221,6 +276,7 @@ public class SubdomainService {
                 ", hasSubdomain=" + hasSubdomain +
                 ", valid=" + valid +
                 ", host='" + host + '\'' +
+                ", vendorId=" + vendorId +
                 '}';
         }
     }
@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sla_tracking")
+@Table(name = "sla_tracking",
+       indexes = {
+           @Index(name = "idx_sla_tracking_resolution", columnList = "actual_resolution_time")
+       })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,11 +22,11 @@ public class SLATracking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", nullable = false)
     private SupportTicket ticket;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sla_config_id", nullable = false)
     private SLAConfiguration slaConfiguration;
 
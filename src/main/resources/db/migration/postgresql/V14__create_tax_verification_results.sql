@@ -0,0 +1,20 @@
+-- V14: Persistent cache for GST/PAN verification results
+
+CREATE TABLE IF NOT EXISTS tax_verification_results (
+    id BIGSERIAL PRIMARY KEY,
+    document_type VARCHAR(10) NOT NULL,
+    lookup_type VARCHAR(20) NOT NULL,
+    document_number VARCHAR(20) NOT NULL,
+    result_json TEXT NOT NULL,
+    negative BOOLEAN NOT NULL DEFAULT FALSE,
+    checked_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_tax_verification_lookup UNIQUE (document_type, lookup_type, document_number)
+);
+
+-- Indexes for better performance
+CREATE INDEX IF NOT EXISTS idx_tax_verification_expires ON tax_verification_results(expires_at);
+
+-- Comments
+COMMENT ON TABLE tax_verification_results IS 'Cached GST/PAN verification outcomes with TTL';
+COMMENT ON COLUMN tax_verification_results.negative IS 'True when the registry reported the number as invalid';
@@ -0,0 +1,19 @@
+-- V15: Indexes and re-scoring columns for buyer lead analytics
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'buyer_leads') THEN
+    ALTER TABLE buyer_leads
+      ADD COLUMN IF NOT EXISTS score_adjustment INTEGER DEFAULT 0,
+      ADD COLUMN IF NOT EXISTS score_stale BOOLEAN DEFAULT TRUE;
+
+    -- Per-rep and per-source funnels filter on created_at within each group
+    CREATE INDEX IF NOT EXISTS idx_buyer_leads_rep_status_created ON buyer_leads(assigned_sales_rep, status, created_at);
+    CREATE INDEX IF NOT EXISTS idx_buyer_leads_source_status_created ON buyer_leads(source, status, created_at);
+    CREATE INDEX IF NOT EXISTS idx_buyer_leads_created ON buyer_leads(created_at);
+    CREATE INDEX IF NOT EXISTS idx_buyer_leads_status_score ON buyer_leads(status, lead_score);
+
+    -- Only flagged rows are indexed for the re-scorer
+    CREATE INDEX IF NOT EXISTS idx_buyer_leads_score_stale ON buyer_leads(id) WHERE score_stale = TRUE;
+  END IF;
+END $$;
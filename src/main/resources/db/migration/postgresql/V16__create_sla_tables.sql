@@ -0,0 +1,46 @@
+-- V16: SLA configuration and per-ticket SLA tracking
+
+CREATE TABLE IF NOT EXISTS sla_configurations (
+    id BIGSERIAL PRIMARY KEY,
+    priority VARCHAR(20) NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    response_time_minutes INTEGER NOT NULL,
+    resolution_time_minutes INTEGER NOT NULL,
+    escalation_time_minutes INTEGER NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS sla_tracking (
+    id BIGSERIAL PRIMARY KEY,
+    ticket_id BIGINT NOT NULL,
+    sla_config_id BIGINT NOT NULL REFERENCES sla_configurations(id),
+    response_deadline TIMESTAMP,
+    resolution_deadline TIMESTAMP,
+    escalation_deadline TIMESTAMP,
+    actual_response_time TIMESTAMP,
+    actual_resolution_time TIMESTAMP,
+    response_breached BOOLEAN DEFAULT FALSE,
+    resolution_breached BOOLEAN DEFAULT FALSE,
+    escalated BOOLEAN DEFAULT FALSE,
+    response_time_minutes BIGINT,
+    resolution_time_minutes BIGINT,
+    response_compliance_score DOUBLE PRECISION,
+    resolution_compliance_score DOUBLE PRECISION,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_sla_tracking_ticket UNIQUE (ticket_id)
+);
+
+-- Startup rebuild reads only unresolved rows
+CREATE INDEX IF NOT EXISTS idx_sla_tracking_open ON sla_tracking(id) WHERE actual_resolution_time IS NULL;
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'support_tickets')
+     AND NOT EXISTS (SELECT 1 FROM information_schema.table_constraints WHERE constraint_name = 'fk_sla_tracking_ticket') THEN
+    ALTER TABLE sla_tracking
+      ADD CONSTRAINT fk_sla_tracking_ticket FOREIGN KEY (ticket_id) REFERENCES support_tickets(id) ON DELETE CASCADE;
+  END IF;
+END $$;
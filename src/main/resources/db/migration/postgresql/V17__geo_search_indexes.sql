@@ -0,0 +1,14 @@
+-- V17: Composite coordinate indexes for bounding-box prefiltered radius queries
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'cities') THEN
+    CREATE INDEX IF NOT EXISTS idx_city_coordinates ON cities(latitude, longitude);
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'service_providers') THEN
+    CREATE INDEX IF NOT EXISTS idx_service_providers_status_lat_lng ON service_providers(status, latitude, longitude);
+    -- Delta refresh of the in-memory provider index polls by updated_at
+    CREATE INDEX IF NOT EXISTS idx_service_providers_updated_at ON service_providers(updated_at);
+  END IF;
+END $$;
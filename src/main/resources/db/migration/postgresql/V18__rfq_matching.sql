@@ -0,0 +1,30 @@
+-- V18: RFQ supplier invitations and indexes for incremental supplier index refresh
+
+CREATE TABLE IF NOT EXISTS rfq_invitations (
+  id BIGSERIAL PRIMARY KEY,
+  rfq_id BIGINT NOT NULL,
+  vendor_id BIGINT NOT NULL,
+  match_rank INTEGER NOT NULL,
+  match_score DOUBLE PRECISION NOT NULL,
+  status VARCHAR(20) DEFAULT 'INVITED',
+  invited_at TIMESTAMP NOT NULL,
+  CONSTRAINT uk_rfq_invitations_rfq_vendor UNIQUE (rfq_id, vendor_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rfq_invitations_vendor_created ON rfq_invitations(vendor_id, invited_at);
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'buyer_products') THEN
+    CREATE INDEX IF NOT EXISTS idx_buyer_products_vendor_active ON buyer_products(vendor_id, is_active);
+    CREATE INDEX IF NOT EXISTS idx_buyer_products_updated_at ON buyer_products(updated_at);
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'legacy_vendors') THEN
+    CREATE INDEX IF NOT EXISTS idx_legacy_vendors_updated_at ON legacy_vendors(updated_at);
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'vendor_reviews') THEN
+    CREATE INDEX IF NOT EXISTS idx_vendor_reviews_vendor_updated ON vendor_reviews(vendor_id, updated_at);
+  END IF;
+END $$;
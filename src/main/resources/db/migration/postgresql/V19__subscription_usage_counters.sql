@@ -0,0 +1,14 @@
+-- V19: persisted usage counters for cached subscription entitlement checks
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'subscription') THEN
+    ALTER TABLE subscription ADD COLUMN IF NOT EXISTS products_used INTEGER;
+    ALTER TABLE subscription ADD COLUMN IF NOT EXISTS leads_used INTEGER;
+    CREATE INDEX IF NOT EXISTS idx_subscription_vendor_status ON subscription(vendor_id, status);
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'leads') THEN
+    CREATE INDEX IF NOT EXISTS idx_leads_vendor_inquiry_date ON leads(vendor_id, inquiry_date);
+  END IF;
+END $$;
@@ -0,0 +1,13 @@
+-- V20: ledger of deferred startup tasks, so one-time data migrations never rescan
+
+CREATE TABLE IF NOT EXISTS startup_migrations (
+  id BIGSERIAL PRIMARY KEY,
+  name VARCHAR(100) NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  started_at TIMESTAMP NOT NULL,
+  completed_at TIMESTAMP,
+  duration_ms BIGINT,
+  rows_affected INTEGER,
+  detail VARCHAR(500),
+  CONSTRAINT uk_startup_migrations_name UNIQUE (name)
+);
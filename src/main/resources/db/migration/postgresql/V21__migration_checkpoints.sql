@@ -0,0 +1,17 @@
+-- V21: per-partition checkpoints for the set-based user backfill, so a failed run resumes
+
+CREATE TABLE IF NOT EXISTS migration_checkpoints (
+  phase VARCHAR(50) NOT NULL,
+  partition_no INTEGER NOT NULL,
+  lo_id BIGINT NOT NULL,
+  hi_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  rows_total INTEGER,
+  rows_linked INTEGER,
+  rows_created INTEGER,
+  attempts INTEGER,
+  duration_ms BIGINT,
+  error_message VARCHAR(500),
+  updated_at TIMESTAMP,
+  PRIMARY KEY (phase, partition_no)
+);
@@ -0,0 +1,21 @@
+-- V22: precomputed product and sub-node counts per taxonomy node, filled by the recount job on first start
+
+CREATE TABLE IF NOT EXISTS taxonomy_counters (
+  node_type VARCHAR(20) NOT NULL,
+  node_id BIGINT NOT NULL,
+  product_count BIGINT NOT NULL DEFAULT 0,
+  active_product_count BIGINT NOT NULL DEFAULT 0,
+  child_count BIGINT NOT NULL DEFAULT 0,
+  descendant_count BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP,
+  PRIMARY KEY (node_type, node_id)
+);
+
+-- The recount groups products by micro category and falls back to the product's own category
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'buyer_products') THEN
+    CREATE INDEX IF NOT EXISTS idx_buyer_products_micro_category ON buyer_products(micro_category_id);
+    CREATE INDEX IF NOT EXISTS idx_buyer_products_category ON buyer_products(category_id);
+  END IF;
+END $$;
@@ -0,0 +1,21 @@
+-- V23: approved-review totals per product and vendor, filled by the repair job on first start
+
+CREATE TABLE IF NOT EXISTS rating_aggregates (
+  subject_type VARCHAR(20) NOT NULL,
+  subject_id BIGINT NOT NULL,
+  rating_count BIGINT NOT NULL DEFAULT 0,
+  rating_sum BIGINT NOT NULL DEFAULT 0,
+  stars_1 BIGINT NOT NULL DEFAULT 0,
+  stars_2 BIGINT NOT NULL DEFAULT 0,
+  stars_3 BIGINT NOT NULL DEFAULT 0,
+  stars_4 BIGINT NOT NULL DEFAULT 0,
+  stars_5 BIGINT NOT NULL DEFAULT 0,
+  average_rating DOUBLE PRECISION NOT NULL DEFAULT 0,
+  bayesian_score DOUBLE PRECISION NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP,
+  PRIMARY KEY (subject_type, subject_id)
+);
+
+-- minRating filters and rating sorts
+CREATE INDEX IF NOT EXISTS idx_rating_aggregates_average ON rating_aggregates(subject_type, average_rating);
+CREATE INDEX IF NOT EXISTS idx_rating_aggregates_bayesian ON rating_aggregates(subject_type, bayesian_score DESC);
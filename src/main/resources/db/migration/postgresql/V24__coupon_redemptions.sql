@@ -0,0 +1,10 @@
+-- V24: one row per granted coupon use; the (coupon, user) pair is unique so a user redeems a code once
+
+CREATE TABLE IF NOT EXISTS coupon_redemptions (
+  id BIGSERIAL PRIMARY KEY,
+  coupon_id BIGINT NOT NULL,
+  user_id BIGINT,
+  reference VARCHAR(100),
+  redeemed_at TIMESTAMP NOT NULL,
+  CONSTRAINT uk_coupon_redemptions_coupon_user UNIQUE (coupon_id, user_id)
+);
@@ -0,0 +1,19 @@
+-- V25: banner and campaign targeting, and hourly impression/click buckets written by the stats flush
+
+ALTER TABLE IF EXISTS banners ADD COLUMN IF NOT EXISTS target_category_ids VARCHAR(500);
+ALTER TABLE IF EXISTS banners ADD COLUMN IF NOT EXISTS target_cities VARCHAR(500);
+ALTER TABLE IF EXISTS campaigns ADD COLUMN IF NOT EXISTS target_category_ids VARCHAR(500);
+ALTER TABLE IF EXISTS campaigns ADD COLUMN IF NOT EXISTS target_cities VARCHAR(500);
+
+CREATE TABLE IF NOT EXISTS content_stat_buckets (
+  subject_type VARCHAR(20) NOT NULL,
+  subject_id BIGINT NOT NULL,
+  bucket_start TIMESTAMP NOT NULL,
+  impressions BIGINT NOT NULL DEFAULT 0,
+  clicks BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP,
+  PRIMARY KEY (subject_type, subject_id, bucket_start)
+);
+
+-- Campaign overview reports scan one subject type over a time range
+CREATE INDEX IF NOT EXISTS idx_content_stat_buckets_type_hour ON content_stat_buckets(subject_type, bucket_start);
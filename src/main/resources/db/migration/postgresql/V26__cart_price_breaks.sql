@@ -0,0 +1,14 @@
+-- V26: tiered quantity pricing for buyer products, read by the cart pricing engine
+
+CREATE TABLE IF NOT EXISTS buyer_product_price_breaks (
+  id BIGSERIAL PRIMARY KEY,
+  product_id BIGINT NOT NULL,
+  min_quantity INTEGER NOT NULL,
+  unit_price DOUBLE PRECISION NOT NULL,
+  CONSTRAINT uk_price_breaks_product_quantity UNIQUE (product_id, min_quantity)
+);
+
+CREATE INDEX IF NOT EXISTS idx_price_breaks_product ON buyer_product_price_breaks(product_id);
+
+-- Carts are loaded by user and their items replaced by cart on every write-behind flush
+CREATE INDEX IF NOT EXISTS idx_cart_item_cart ON cart_item(cart_id);
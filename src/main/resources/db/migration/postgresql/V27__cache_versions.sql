@@ -0,0 +1,11 @@
+-- V27: change counters behind the ETags of cached catalogue responses, one row per domain
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+  domain VARCHAR(50) PRIMARY KEY,
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP
+);
+
+INSERT INTO cache_versions (domain, version, updated_at)
+VALUES ('PRODUCTS', 1, CURRENT_TIMESTAMP), ('CATEGORIES', 1, CURRENT_TIMESTAMP), ('CITIES', 1, CURRENT_TIMESTAMP)
+ON CONFLICT (domain) DO NOTHING;
@@ -0,0 +1,6 @@
+-- V28: storefront host label per vendor, resolved from the request host by the storefront directory
+
+ALTER TABLE legacy_vendors ADD COLUMN IF NOT EXISTS storefront_subdomain VARCHAR(63);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_legacy_vendors_storefront_subdomain
+  ON legacy_vendors (storefront_subdomain) WHERE storefront_subdomain IS NOT NULL;
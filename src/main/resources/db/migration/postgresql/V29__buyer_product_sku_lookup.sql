@@ -0,0 +1,8 @@
+-- V29: SKU lookup per vendor for bulk product upserts, which match incoming rows to existing products by SKU
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'buyer_products') THEN
+    CREATE INDEX IF NOT EXISTS idx_buyer_products_vendor_sku ON buyer_products(vendor_id, sku);
+  END IF;
+END $$;
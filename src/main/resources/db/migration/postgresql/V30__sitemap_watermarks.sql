@@ -0,0 +1,8 @@
+-- V30: the sitemap watermark query looks for products created or updated since its previous run
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'buyer_products') THEN
+    CREATE INDEX IF NOT EXISTS idx_buyer_products_created_at ON buyer_products(created_at);
+  END IF;
+END $$;
@@ -0,0 +1,16 @@
+-- V31: one active default ('*') SLA policy per priority, so nodes seeding defaults at the same time cannot create duplicates
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'sla_configurations') THEN
+    UPDATE sla_configurations c
+       SET is_active = FALSE
+     WHERE c.category = '*'
+       AND c.is_active = TRUE
+       AND c.id > (SELECT MIN(d.id) FROM sla_configurations d
+                    WHERE d.category = '*' AND d.is_active = TRUE AND d.priority = c.priority);
+
+    CREATE UNIQUE INDEX IF NOT EXISTS uk_sla_configurations_default
+      ON sla_configurations(priority) WHERE category = '*' AND is_active = TRUE;
+  END IF;
+END $$;
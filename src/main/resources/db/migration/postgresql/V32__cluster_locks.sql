@@ -0,0 +1,8 @@
+-- V32: named leases so a cluster-wide job (taxonomy recount, sitemap reconcile) runs on one node at a time
+
+CREATE TABLE IF NOT EXISTS cluster_locks (
+  name VARCHAR(100) PRIMARY KEY,
+  locked_until TIMESTAMP NOT NULL,
+  locked_at TIMESTAMP,
+  locked_by VARCHAR(255)
+);
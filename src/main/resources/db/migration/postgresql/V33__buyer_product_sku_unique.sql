@@ -0,0 +1,15 @@
+-- V33: one product per vendor and SKU, so two imports of the same file cannot both insert a SKU
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'buyer_products') THEN
+    -- Earlier duplicates keep the SKU on their oldest row; the others get a suffixed SKU to merge or retire
+    UPDATE buyer_products p
+       SET sku = LEFT(p.sku, 200) || '-DUP-' || p.id
+     WHERE p.sku IS NOT NULL
+       AND p.id > (SELECT MIN(d.id) FROM buyer_products d WHERE d.vendor_id = p.vendor_id AND d.sku = p.sku);
+
+    DROP INDEX IF EXISTS idx_buyer_products_vendor_sku;
+    CREATE UNIQUE INDEX idx_buyer_products_vendor_sku ON buyer_products(vendor_id, sku);
+  END IF;
+END $$;
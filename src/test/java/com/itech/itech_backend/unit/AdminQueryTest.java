@@ -0,0 +1,274 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.enums.TicketPriority;
+import com.itech.itech_backend.enums.TicketStatus;
+import com.itech.itech_backend.modules.category.model.Category;
+import com.itech.itech_backend.modules.category.repository.CategoryRepository;
+import com.itech.itech_backend.modules.category.service.CategoryService;
+import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.city.repository.CityRepository;
+import com.itech.itech_backend.modules.city.service.CityService;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.query.AdminQuery;
+import com.itech.itech_backend.modules.shared.query.FilterSchema;
+import com.itech.itech_backend.modules.shared.query.KeysetPage;
+import com.itech.itech_backend.modules.support.model.SupportTicket;
+import com.itech.itech_backend.modules.support.repository.SupportTicketRepository;
+import com.itech.itech_backend.modules.support.service.SupportTicketService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Admin list queries: filter maps to specifications, keyset walks against the full ordering,
+ * one statement per page with the fetch plan, and capped or estimated totals (cap = 50 here).
+ */
+@JpaTestSlice
+@TestPropertySource(properties = "app.admin-query.count-cap=50")
+@Transactional
+@DisplayName("Admin Query Unit Tests")
+public class AdminQueryTest {
+
+    private static final int CITIES = 240;
+    private static final int TICKETS = 30;
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {CategoryRepository.class, CityRepository.class, SupportTicketRepository.class, UserRepository.class})
+    @Import(AdminQuery.class)
+    static class QueryApplication {
+    }
+
+    @Autowired
+    private AdminQuery adminQuery;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] states = {"Maharashtra", "Gujarat", "Kerala"};
+        for (int i = 0; i < CITIES; i++) {
+            cityRepository.save(City.builder()
+                    .name("City " + (i % 60) + "-" + (i / 60) + (i % 7 == 0 ? " Port" : ""))
+                    .stateProvince(states[i % 3] + " " + (i / 60))
+                    .country(i % 5 == 0 ? "Nepal" : "India")
+                    .displayOrder(i % 9 == 0 ? null : i % 4)
+                    .isMajorCity(i % 10 == 0)
+                    .isActive(i % 6 != 0)
+                    .build());
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < 3; u++) {
+            users.add(userRepository.save(User.builder()
+                    .name("Customer " + u).email("customer" + u + "@test").password("x").build()));
+        }
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 9, 0);
+        for (int t = 0; t < TICKETS; t++) {
+            ticketRepository.save(SupportTicket.builder()
+                    .ticketNumber("TKT-" + t)
+                    .subject(t % 4 == 0 ? "Payment failed" : "Listing question " + t)
+                    .user(users.get(t % 3))
+                    .assignedTo(users.get((t + 1) % 3))
+                    .status(t % 2 == 0 ? TicketStatus.OPEN : TicketStatus.RESOLVED)
+                    .priority(t % 3 == 0 ? TicketPriority.HIGH : TicketPriority.MEDIUM)
+                    .createdAt(base.plusDays(t / 2))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("City filters match the old in-memory rules")
+    void cityFilters() {
+        List<City> all = cityRepository.findAll();
+        Map<String, String> filters = FilterSchema.params("search", "port", "isActive", true,
+                "country", "india", "isMajorCity", null);
+
+        Page<City> page = adminQuery.page(CityService.ADMIN_FILTERS, filters, null, PageRequest.of(0, 200));
+
+        List<Long> expected = all.stream()
+                .filter(c -> c.getName().toLowerCase().contains("port"))
+                .filter(City::getIsActive)
+                .filter(c -> c.getCountry().equalsIgnoreCase("india"))
+                .sorted(cityOrder())
+                .map(City::getId)
+                .toList();
+        assertEquals(expected, page.getContent().stream().map(City::getId).toList());
+        assertEquals(expected.size(), page.getTotalElements());
+
+        Page<City> byState = adminQuery.page(CityService.ADMIN_FILTERS,
+                Map.of("stateProvince", "KERALA 2", "isMajorCity", "ALL"), null, PageRequest.of(0, 5));
+        assertEquals(20, byState.getTotalElements());
+        assertEquals(4, byState.getTotalPages());
+
+        assertThrows(IllegalArgumentException.class, () -> adminQuery.page(CityService.ADMIN_FILTERS,
+                Map.of("isActive", "maybe"), null, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    @DisplayName("Keyset pages walk every row once, in order, for ascending and descending sorts")
+    void keysetWalk() {
+        List<City> all = cityRepository.findAll();
+        assertEquals(all.stream().sorted(cityOrder()).map(City::getId).toList(),
+                walk(null, 7));
+
+        Comparator<City> byNameDesc = Comparator.comparing(City::getName).reversed()
+                .thenComparing(Comparator.comparing(City::getId).reversed());
+        assertEquals(all.stream().sorted(byNameDesc).map(City::getId).toList(),
+                walk("-name", 11));
+
+        KeysetPage<City> first = adminQuery.seek(CityService.ADMIN_FILTERS, Map.of(), null, null, 10);
+        assertThrows(IllegalArgumentException.class, () ->
+                adminQuery.seek(CityService.ADMIN_FILTERS, Map.of(), "-name", first.nextCursor(), 10));
+        assertThrows(IllegalArgumentException.class, () ->
+                adminQuery.seek(CityService.ADMIN_FILTERS, Map.of(), "notes", null, 10));
+        assertThrows(IllegalArgumentException.class, () ->
+                adminQuery.seek(CityService.ADMIN_FILTERS, Map.of(), null, "not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("Every declared sort key walks in order, both directions, for cities and categories")
+    void sortsByEachDeclaredKey() {
+        List<City> cities = cityRepository.findAll();
+        Map<String, Comparator<City>> cityKeys = Map.of(
+                "displayOrder", Comparator.comparing((City c) -> c.getDisplayOrder() == null ? 0 : c.getDisplayOrder()),
+                "name", Comparator.comparing(City::getName),
+                "country", Comparator.comparing(City::getCountry));
+        cityKeys.forEach((key, order) -> {
+            assertEquals(cities.stream().sorted(order.thenComparing(City::getId)).map(City::getId).toList(),
+                    walk(CityService.ADMIN_FILTERS, key, 13, City::getId), key);
+            assertEquals(cities.stream().sorted(order.thenComparing(City::getId).reversed()).map(City::getId).toList(),
+                    walk(CityService.ADMIN_FILTERS, "-" + key, 13, City::getId), "-" + key);
+        });
+
+        Category root = categoryRepository.save(Category.builder().name("Machinery").displayOrder(2).build());
+        for (int i = 0; i < 12; i++) {
+            categoryRepository.save(Category.builder().name("Part " + (char) ('A' + (i * 5) % 12))
+                    .displayOrder(i % 3).parentCategory(i % 2 == 0 ? root : null).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Rows written outside the entity can leave the level unset; it sorts as 0
+        entityManager.createNativeQuery("UPDATE categories SET category_level = NULL WHERE name = 'Part A'")
+                .executeUpdate();
+        List<Category> categories = categoryRepository.findAll();
+        Map<String, Comparator<Category>> categoryKeys = Map.of(
+                "displayOrder", Comparator.comparing(Category::getDisplayOrder),
+                "name", Comparator.comparing(Category::getName),
+                "categoryLevel", Comparator.comparing((Category c) -> c.getCategoryLevel() == null ? 0 : c.getCategoryLevel()));
+        categoryKeys.forEach((key, order) -> {
+            assertEquals(categories.stream().sorted(order.thenComparing(Category::getId)).map(Category::getId).toList(),
+                    walk(CategoryService.ADMIN_FILTERS, key, 5, Category::getId), key);
+            assertEquals(categories.stream().sorted(order.thenComparing(Category::getId).reversed()).map(Category::getId).toList(),
+                    walk(CategoryService.ADMIN_FILTERS, "-" + key, 5, Category::getId), "-" + key);
+        });
+    }
+
+    @Test
+    @DisplayName("Ticket filters reach joined users, enums and date ranges in one statement per page")
+    void ticketFiltersAndFetchPlan() {
+        Map<String, String> filters = Map.of("search", "CUSTOMER 1", "status", "open",
+                "createdFrom", "2026-03-03", "createdTo", "2026-03-10");
+
+        statistics.clear();
+        KeysetPage<SupportTicket> page = adminQuery.seek(SupportTicketService.ADMIN_FILTERS, filters, null, null, 20);
+        page.content().forEach(ticket -> {
+            ticket.getUser().getName();
+            ticket.getAssignedTo().getName();
+        });
+
+        // t even (OPEN), t % 3 == 1 (customer 1), created on day t / 2 in [2, 9]
+        assertEquals(List.of("TKT-16", "TKT-10", "TKT-4"),
+                page.content().stream().map(SupportTicket::getTicketNumber).toList());
+        assertTrue(page.totalExact());
+        assertEquals(3, page.total());
+        // Page plus capped count; users come with the page
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Totals are exact under the cap, estimated when unfiltered and a lower bound when filtered")
+    void totals() {
+        KeysetPage<City> unfiltered = adminQuery.seek(CityService.ADMIN_FILTERS, Map.of(), null, null, 10);
+        assertFalse(unfiltered.totalExact());
+        assertTrue(unfiltered.total() > 50, "estimate comes from table statistics: " + unfiltered.total());
+
+        KeysetPage<City> broad = adminQuery.seek(CityService.ADMIN_FILTERS, Map.of("country", "India"), null, null, 10);
+        assertFalse(broad.totalExact());
+        assertEquals(50, broad.total());
+
+        KeysetPage<City> narrow = adminQuery.seek(CityService.ADMIN_FILTERS, Map.of("country", "Nepal",
+                "isMajorCity", "true"), null, null, 10);
+        assertTrue(narrow.totalExact());
+        assertEquals(cityRepository.findAll().stream()
+                .filter(c -> c.getCountry().equals("Nepal") && c.getIsMajorCity()).count(), narrow.total());
+
+        KeysetPage<SupportTicket> tickets = adminQuery.seek(SupportTicketService.ADMIN_FILTERS, Map.of(), null, null, 5);
+        assertTrue(tickets.totalExact());
+        assertEquals(TICKETS, tickets.total());
+    }
+
+    private List<Long> walk(String sort, int size) {
+        return walk(CityService.ADMIN_FILTERS, sort, size, City::getId);
+    }
+
+    private <T> List<Long> walk(FilterSchema<T> schema, String sort, int size, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<T> page = adminQuery.seek(schema, Map.of(), sort, cursor, size);
+            assertTrue(page.content().size() <= size);
+            page.content().forEach(row -> ids.add(id.apply(row)));
+            cursor = page.nextCursor();
+            assertEquals(page.hasNext(), cursor != null);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static Comparator<City> cityOrder() {
+        return Comparator.comparing((City c) -> c.getDisplayOrder() == null ? 0 : c.getDisplayOrder())
+                .thenComparing(City::getName)
+                .thenComparing(City::getId);
+    }
+}
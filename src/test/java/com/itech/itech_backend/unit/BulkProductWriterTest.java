@@ -0,0 +1,323 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.SubdomainProperties;
+import com.itech.itech_backend.config.TaxonomyCounterConfig;
+import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType;
+import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.service.BulkProductWriter;
+import com.itech.itech_backend.modules.buyer.service.BulkProductWriter.BulkResult;
+import com.itech.itech_backend.modules.buyer.service.BulkProductWriter.ProductRow;
+import com.itech.itech_backend.modules.buyer.service.ProductPriceCatalog;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterStore;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRepository;
+import com.itech.itech_backend.modules.shared.httpcache.CacheDomain;
+import com.itech.itech_backend.modules.shared.httpcache.CacheVersionStore;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.StorefrontDirectory;
+import com.itech.itech_backend.modules.vendor.service.StorefrontService;
+import com.itech.itech_backend.modules.vendor.service.VendorEntitlementService;
+import com.itech.itech_backend.service.SubdomainService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Bulk product upserts: idempotent by SKU (also against a concurrent import), bad rows reported
+ * without losing the rest, caches invalidated once the chunks commit, plus a rows/sec benchmark
+ * against per-entity saves (tagged {@code benchmark}).
+ */
+@JpaTestSlice
+@TestPropertySource(properties = "products.bulk.chunk-size=500")
+@DisplayName("Bulk Product Writer Unit Tests")
+public class BulkProductWriterTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerProductRepository.class, VendorsRepository.class, UserRepository.class,
+            SubscriptionRepository.class, LeadRepository.class})
+    @Import({TaxonomyCounterConfig.class, TaxonomyCounterStore.class, ClusterLock.class, ProductPriceCatalog.class, CacheVersionStore.class,
+            SubdomainProperties.class, SubdomainService.class, StorefrontDirectory.class, StorefrontService.class,
+            VendorEntitlementService.class, BulkProductWriter.class})
+    static class BulkWriteApplication {
+    }
+
+    @Autowired
+    private BulkProductWriter writer;
+
+    @Autowired
+    private ProductPriceCatalog catalog;
+
+    @Autowired
+    private CacheVersionStore cacheVersions;
+
+    @Autowired
+    private StorefrontService storefrontService;
+
+    @Autowired
+    private TaxonomyCounterStore counters;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private BuyerCategoryRepository categoryRepository;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VendorEntitlementService entitlementService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Vendors vendor;
+    private Category tools;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").password("x").build());
+            vendor = vendorsRepository.save(Vendors.builder().user(owner).name("Steel Works")
+                    .email("vendor@example.com").password("x").businessName("Steel Works Pvt").build());
+            tools = categoryRepository.save(Category.builder().name("Tools").slug("tools").build());
+        });
+        counters.recount();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("buyer_products", "buyer_category", "legacy_vendors", "users",
+                "taxonomy_counters", "cache_versions")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("Upserts are idempotent by SKU and report bad rows without dropping the others")
+    void upsertsAreIdempotentWithPartialFailures() {
+        List<ProductRow> rows = List.of(
+                row("HAM-1", "Hammer", 10.0, 5),
+                row("SAW-1", "Saw", 25.0, 2),
+                row("BAD-1", "Broken", -1.0, 1),
+                new ProductRow("NEW-1", "No price", null, null, null, 3, null, null, null, null, null, null, null),
+                new ProductRow("GHOST-1", "Orphan", null, 4.0, null, 1, null, null, null, 999_999L, null, null, null),
+                new ProductRow("HAM-1", null, null, null, null, 7, null, "Stanley", null, null, null, null, null),
+                new ProductRow(" ", "No SKU", null, 1.0, null, 1, null, null, null, null, null, null, null));
+
+        BulkResult first = writer.upsert(vendor.getId(), rows);
+        assertEquals(7, first.received());
+        assertEquals(2, first.inserted());
+        assertEquals(0, first.updated());
+        assertEquals(List.of(2, 3, 4, 6), first.errors().stream().map(BulkProductWriter.RowError::index).toList());
+        assertEquals("Price must not be negative", first.errors().get(0).message());
+        assertEquals("Name and price are required for a new product", first.errors().get(1).message());
+        assertEquals("GHOST-1", first.errors().get(2).sku(), "a foreign key failure is isolated to its row");
+
+        // Rows repeating a SKU merge in order: the later patch sets stock and brand, keeps the name
+        Product hammer = productRepository.findAll().stream().filter(p -> "HAM-1".equals(p.getSku())).findFirst().orElseThrow();
+        assertEquals("Hammer", hammer.getName());
+        assertEquals(7, hammer.getStock());
+        assertEquals("Stanley", hammer.getBrand());
+        assertTrue(hammer.isApproved());
+        assertTrue(hammer.isActive());
+        assertNotNull(hammer.getUpdatedAt());
+
+        BulkResult replay = writer.upsert(vendor.getId(), rows);
+        assertEquals(0, replay.inserted());
+        assertEquals(2, replay.updated());
+        assertEquals(4, replay.failed());
+        assertEquals(2, productRepository.count(), "sending the same rows again creates no duplicates");
+
+        // SKUs are per vendor
+        Vendors other = transactionTemplate.execute(status -> vendorsRepository.save(Vendors.builder()
+                .user(userRepository.save(User.builder().name("other").email("other@example.com").password("x").build()))
+                .name("Other").email("other-vendor@example.com").password("x").businessName("Other Co").build()));
+        assertEquals(1, writer.upsert(other.getId(), List.of(row("HAM-1", "Mallet", 3.0, 1))).inserted());
+        assertThrows(IllegalArgumentException.class, () -> writer.upsert(vendor.getId(),
+                new ArrayList<>(Collections.nCopies(10_001, row("X", "X", 1.0, 1)))));
+    }
+
+    @Test
+    @DisplayName("A SKU inserted by a concurrent import after the lookup is updated instead")
+    void concurrentInsertBecomesAnUpdate() {
+        VendorEntitlementService racing = spy(entitlementService);
+        BulkProductWriter racingWriter = new BulkProductWriter(jdbcTemplate, transactionManager, vendorsRepository, racing,
+                context.getBeanProvider(ProductPriceCatalog.class), context.getBeanProvider(CacheVersionStore.class),
+                context.getBeanProvider(StorefrontService.class), context.getBeanProvider(TaxonomyCounterStore.class),
+                context.getBeanProvider(CacheManager.class), 500, 10_000);
+        // The other import commits HAM-1 between this chunk's SKU lookup and its insert
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> writer.upsert(vendor.getId(), List.of(row("HAM-1", "Hammer", 10.0, 5))))
+                        .get(10, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(racing).tryConsume(anyLong(), any(), anyInt());
+
+        BulkResult result = racingWriter.upsert(vendor.getId(), List.of(
+                row("HAM-1", "Claw hammer", 12.0, 7), row("SAW-1", "Saw", 25.0, 2)));
+
+        assertTrue(raced.get());
+        assertEquals(List.of(), result.errors());
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.updated());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM buyer_products WHERE sku = 'HAM-1'", Integer.class));
+        assertEquals("Claw hammer", jdbcTemplate.queryForObject("SELECT name FROM buyer_products WHERE sku = 'HAM-1'", String.class));
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Caches fed by Hibernate events are invalidated once the bulk write commits")
+    void invalidatesCachesInOneShot() {
+        writer.upsert(vendor.getId(), List.of(row("HAM-1", "Hammer", 10.0, 5), row("SAW-1", "Saw", 25.0, 2)));
+        Long hammerId = jdbcTemplate.queryForObject("SELECT id FROM buyer_products WHERE sku = 'HAM-1'", Long.class);
+
+        assertEquals(10.0, catalog.get(hammerId).price());
+        assertEquals(2, storefrontService.homepage(vendor.getId()).productCount());
+        long builds = storefrontService.builds();
+        long version = cacheVersions.current().version(CacheDomain.PRODUCTS);
+        // A recount would reset this; deltas leave it alone
+        jdbcTemplate.update("UPDATE taxonomy_counters SET child_count = 42 WHERE node_type = 'CATEGORY' AND node_id = ?",
+                tools.getId());
+
+        BulkResult result = writer.upsert(vendor.getId(), List.of(
+                new ProductRow("HAM-1", null, null, 12.5, null, null, null, null, null, tools.getId(), null, null, null),
+                row("DRILL-1", "Drill", 80.0, 4)));
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.updated());
+
+        assertEquals(12.5, catalog.get(hammerId).price(), "price snapshot dropped");
+        assertEquals(3, storefrontService.homepage(vendor.getId()).productCount(), "storefront homepage evicted");
+        assertEquals(builds + 1, storefrontService.builds());
+        assertEquals(version + 1, cacheVersions.current().version(CacheDomain.PRODUCTS), "one version bump per call");
+        counters.flush();
+        assertEquals(new TaxonomyCounterStore.Counts(1, 1, 42, 0), counters.counts(TaxonomyNodeType.CATEGORY, tools.getId()),
+                "the move is applied as a delta, without a recount");
+
+        assertEquals(2, writer.scalePrices(List.of(hammerId, hammerId + 1), 1.1));
+        assertEquals(13.75, catalog.get(hammerId).price());
+        assertEquals(version + 2, cacheVersions.current().version(CacheDomain.PRODUCTS));
+
+        // Deactivating one product and moving another
+        writer.upsert(vendor.getId(), List.of(
+                new ProductRow("HAM-1", null, null, null, null, null, null, null, null, null, null, null, false),
+                new ProductRow("SAW-1", null, null, null, null, null, null, null, null, tools.getId(), null, null, null)));
+        counters.flush();
+        assertEquals(new TaxonomyCounterStore.Counts(2, 1, 42, 0), counters.counts(TaxonomyNodeType.CATEGORY, tools.getId()));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load: bulk upsert rows/sec against per-entity saves")
+    void bulkThroughput() {
+        int count = 5000;
+        List<ProductRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(row("BULK-" + i, "Bulk product " + i, 10.0 + i % 50, 100));
+        }
+        // Warm both paths up
+        writer.upsert(vendor.getId(), rows.subList(0, 500));
+        perEntityInsert("WARM-", 500);
+        jdbcTemplate.update("DELETE FROM buyer_products");
+
+        long start = System.nanoTime();
+        perEntityInsert("ENTITY-", count);
+        double entityInsertRate = count / seconds(start);
+
+        start = System.nanoTime();
+        BulkResult inserted = writer.upsert(vendor.getId(), rows);
+        double bulkInsertRate = count / seconds(start);
+        assertEquals(count, inserted.inserted());
+
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Product product : productRepository.findAll()) {
+                if (product.getSku().startsWith("ENTITY-")) {
+                    product.setStock(product.getStock() - 1);
+                    productRepository.save(product);
+                }
+            }
+        });
+        double entityUpdateRate = count / seconds(start);
+
+        List<ProductRow> patches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patches.add(new ProductRow("BULK-" + i, null, null, null, null, 99, null, null, null, null, null, null, null));
+        }
+        start = System.nanoTime();
+        BulkResult updated = writer.upsert(vendor.getId(), patches);
+        double bulkUpdateRate = count / seconds(start);
+        assertEquals(count, updated.updated());
+        assertEquals(0, updated.failed());
+
+        assertEquals(2L * count, productRepository.count());
+        assertTrue(bulkInsertRate > entityInsertRate, String.format(
+                "batched inserts should beat one save per product: %.0f vs %.0f rows/s", bulkInsertRate, entityInsertRate));
+        assertTrue(bulkUpdateRate > entityUpdateRate, String.format(
+                "batched updates should beat one save per product: %.0f vs %.0f rows/s", bulkUpdateRate, entityUpdateRate));
+    }
+
+    private void perEntityInsert(String prefix, int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Vendors owner = vendorsRepository.getReferenceById(vendor.getId());
+            for (int i = 0; i < count; i++) {
+                productRepository.save(Product.builder().sku(prefix + i).name("Entity product " + i)
+                        .price(10.0 + i % 50).stock(100).isApproved(true).vendor(owner).build());
+            }
+        });
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private static ProductRow row(String sku, String name, Double price, Integer stock) {
+        return new ProductRow(sku, name, null, price, null, stock, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,138 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.buyer.dto.LeadStatsDto;
+import com.itech.itech_backend.modules.buyer.repository.BuyerLeadRepository;
+import com.itech.itech_backend.modules.buyer.service.BuyerLeadService;
+import com.itech.itech_backend.modules.buyer.service.LeadRescoringJob;
+import com.itech.itech_backend.modules.buyer.service.LeadScorer;
+import com.itech.itech_backend.modules.shared.model.BuyerLead;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Buyer lead analytics: grouped stats match the seeded leads, and the batch re-scorer clears
+ * only flags it has actually scored
+ */
+@JpaTestSlice
+@DisplayName("Buyer Lead Analytics Unit Tests")
+public class BuyerLeadAnalyticsTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = BuyerLeadRepository.class)
+    @Import({BuyerLeadService.class, LeadScorer.class, LeadRescoringJob.class})
+    static class LeadApplication {
+    }
+
+    @Autowired
+    private BuyerLeadService leadService;
+
+    @Autowired
+    private LeadRescoringJob rescoringJob;
+
+    @Autowired
+    private BuyerLeadRepository leadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM buyer_leads");
+    }
+
+    @Test
+    @DisplayName("Stats come from grouped aggregates per sales rep and source")
+    void aggregatesStats() {
+        save(lead("a@example.com", BuyerLead.LeadStatus.NEW, "asha", BuyerLead.LeadSource.WEBSITE));
+        save(lead("b@example.com", BuyerLead.LeadStatus.CONVERTED, "asha", BuyerLead.LeadSource.REFERRAL));
+        save(lead("c@example.com", BuyerLead.LeadStatus.CONVERTED, "ravi", BuyerLead.LeadSource.REFERRAL));
+        save(lead("d@example.com", BuyerLead.LeadStatus.CONTACTED, null, BuyerLead.LeadSource.WEBSITE));
+        save(lead("e@example.com", BuyerLead.LeadStatus.CONVERTED, "asha", BuyerLead.LeadSource.DIRECT));
+
+        LeadStatsDto stats = leadService.getLeadStats(null, 30);
+        assertEquals(5, stats.getTotalLeads());
+        assertEquals(1, stats.getNewLeads());
+        assertEquals(3, stats.getConvertedLeads());
+        assertEquals(60.0, stats.getConversionRate(), 0.001);
+        assertEquals(1, stats.getUnassignedLeads());
+        assertEquals("asha", stats.getTopPerformingSalesRep());
+        assertEquals(2, stats.getWebsiteLeads());
+        assertEquals(2, stats.getReferralLeads());
+        assertEquals(1, stats.getDirectLeads());
+
+        LeadStatsDto asha = leadService.getLeadStats("asha", 30);
+        assertEquals(3, asha.getTotalLeads());
+        assertEquals(2, asha.getConvertedLeads());
+    }
+
+    @Test
+    @DisplayName("The re-scorer clears stale flags and keeps manual adjustments")
+    void rescoresStaleLeads() {
+        BuyerLead plain = save(lead("a@example.com", BuyerLead.LeadStatus.NEW, null, BuyerLead.LeadSource.WEBSITE));
+        BuyerLead adjusted = lead("b@example.com", BuyerLead.LeadStatus.NEW, null, BuyerLead.LeadSource.WEBSITE);
+        adjusted.setScoreAdjustment(15);
+        adjusted = save(adjusted);
+
+        rescoringJob.rescoreStaleLeads();
+
+        BuyerLead scoredPlain = leadRepository.findById(plain.getId()).orElseThrow();
+        BuyerLead scoredAdjusted = leadRepository.findById(adjusted.getId()).orElseThrow();
+        assertFalse(scoredPlain.getScoreStale());
+        assertFalse(scoredAdjusted.getScoreStale());
+        assertTrue(scoredPlain.getLeadScore() > 0);
+        assertEquals(Math.min(100, scoredPlain.getLeadScore() + 15), scoredAdjusted.getLeadScore());
+    }
+
+    @Test
+    @DisplayName("A lead flagged again after the chunk was read keeps its flag")
+    void keepsFlagsSetAfterTheRead() {
+        BuyerLead lead = save(lead("a@example.com", BuyerLead.LeadStatus.NEW, null, BuyerLead.LeadSource.WEBSITE));
+        LocalDateTime readAt = LocalDateTime.now().minusSeconds(1);
+        List<BuyerLead> chunk = leadRepository.findStaleScoreChunk(0L, PageRequest.of(0, 10));
+        assertEquals(1, chunk.size());
+
+        // Status changes after the re-scorer read the row
+        leadService.updateLeadStatus(lead.getId(), "CONTACTED", null);
+
+        Integer applied = transactionTemplate.execute(status ->
+                leadRepository.applyScore(42, List.of(lead.getId()), readAt));
+        assertEquals(0, applied);
+        BuyerLead reloaded = leadRepository.findById(lead.getId()).orElseThrow();
+        assertTrue(reloaded.getScoreStale(), "the change is scored on the next pass");
+        assertNotEquals(42, reloaded.getLeadScore());
+
+        rescoringJob.rescoreStaleLeads();
+        assertFalse(leadRepository.findById(lead.getId()).orElseThrow().getScoreStale());
+    }
+
+    private BuyerLead lead(String email, BuyerLead.LeadStatus status, String rep, BuyerLead.LeadSource source) {
+        return BuyerLead.builder()
+                .email(email)
+                .name("Buyer")
+                .phone("9800000000")
+                .status(status)
+                .assignedSalesRep(rep)
+                .source(source)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .build();
+    }
+
+    private BuyerLead save(BuyerLead lead) {
+        return transactionTemplate.execute(status -> leadRepository.save(lead));
+    }
+}
@@ -0,0 +1,299 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.TaxonomyCounterConfig;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.service.CartEngine;
+import com.itech.itech_backend.modules.buyer.service.CartEngine.CartQuote;
+import com.itech.itech_backend.modules.buyer.service.CartEngine.CheckoutQuote;
+import com.itech.itech_backend.modules.buyer.service.CartService;
+import com.itech.itech_backend.modules.buyer.service.ProductPriceCatalog;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterStore;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.dto.AddToCartDto;
+import com.itech.itech_backend.modules.shared.dto.CartDto;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cart pricing engine: warm carts change without queries, quantity breaks and GST price the
+ * lines, carts survive a restart through the write-behind flush, checkout re-prices only the
+ * products that changed, and stock is reserved without overselling.
+ */
+@JpaTestSlice
+@DisplayName("Cart Engine Unit Tests")
+public class CartEngineTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerProductRepository.class, VendorsRepository.class, UserRepository.class})
+    @Import({TaxonomyCounterConfig.class, TaxonomyCounterStore.class, ClusterLock.class, ProductPriceCatalog.class, CartEngine.class, CartService.class})
+    static class CartApplication {
+    }
+
+    @Autowired
+    private CartEngine cartEngine;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductPriceCatalog catalog;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User buyer;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+        transactionTemplate.executeWithoutResult(status -> {
+            long n = System.nanoTime();
+            User owner = userRepository.save(User.builder().name("owner").email("owner" + n + "@example.com").password("x").build());
+            Vendors vendor = vendorsRepository.save(Vendors.builder().user(owner).name("Steel Works")
+                    .email("vendor" + n + "@example.com").password("x").businessName("Steel Works Pvt").build());
+            buyer = userRepository.save(User.builder().name("buyer").email("buyer" + n + "@example.com").password("x").build());
+            products.add(productRepository.save(Product.builder().name("Rebar").price(10.0).stock(100).gstRate(5.0)
+                    .freeShipping(true).isApproved(true).vendor(vendor).build()));
+            products.add(productRepository.save(Product.builder().name("Mesh").price(20.0).stock(10)
+                    .shippingCharge(4.0).isApproved(true).vendor(vendor).build()));
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartEngine.flush();
+        for (String table : List.of("cart_item", "cart", "buyer_product_price_breaks", "buyer_products",
+                "legacy_vendors", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("A warm cart changes without queries and is written behind")
+    void warmAddToCartRunsNoQueries() {
+        Long userId = buyer.getId();
+        cartService.getUserCart(userId);
+        catalog.getAll(List.of(id(0), id(1)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        cartService.addToCart(userId, new AddToCartDto(id(0), 2));
+        cartService.addToCart(userId, new AddToCartDto(id(1), 1));
+        CartDto cart = cartService.addToCart(userId, new AddToCartDto(id(0), 3));
+        cartService.getUserCart(userId);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, cartRows(userId));
+        assertEquals(1, cartEngine.pendingCount());
+
+        assertEquals(6, cart.getTotalItems());
+        assertEquals(List.of(id(0), id(1)), cart.getItems().stream().map(CartDto.CartItemDto::getProductId).toList());
+        assertEquals(5, cart.getItems().get(0).getQuantity());
+        assertEquals("Steel Works", cart.getItems().get(0).getVendorName());
+
+        RuntimeException tooMany = assertThrows(RuntimeException.class,
+                () -> cartService.addToCart(userId, new AddToCartDto(id(1), 10)));
+        assertEquals("Cannot add more items. Insufficient stock or exceeds maximum order limit", tooMany.getMessage());
+
+        cartEngine.flush();
+        assertEquals(0, cartEngine.pendingCount());
+        assertEquals(2, cartRows(userId));
+    }
+
+    @Test
+    @DisplayName("Quantity breaks, per-product GST and shipping price the cart")
+    void tieredPricing() {
+        Long userId = buyer.getId();
+        catalog.updatePriceBreaks(id(0), Map.of(10, 8.0, 50, 6.0));
+
+        CartQuote quote = cartEngine.add(userId, id(0), 9);
+        assertEquals(90.0, quote.subtotal(), 1e-9);
+        quote = cartEngine.update(userId, id(0), 10);
+        assertEquals(80.0, quote.subtotal(), 1e-9);
+        quote = cartEngine.update(userId, id(0), 60);
+        assertEquals(6.0, quote.lines().get(0).unitPrice(), 1e-9);
+        assertEquals(360.0, quote.subtotal(), 1e-9);
+        assertEquals(18.0, quote.tax(), 1e-9);
+        assertEquals(0.0, quote.shipping(), 1e-9);
+
+        // Default GST of 18% and per-unit shipping until the subtotal passes the free-shipping threshold
+        quote = cartEngine.add(userId, id(1), 2);
+        assertEquals(400.0, quote.subtotal(), 1e-9);
+        assertEquals(18.0 + 40.0 * 0.18, quote.tax(), 1e-9);
+        assertEquals(8.0, quote.shipping(), 1e-9);
+        assertEquals(400.0 + 8.0 + 18.0 + 7.2, quote.grandTotal(), 1e-9);
+        quote = cartEngine.update(userId, id(1), 8);
+        assertEquals(0.0, quote.shipping(), 1e-9);
+
+        // Unchanged carts reuse their quote
+        assertSame(quote, cartEngine.quote(userId));
+        assertThrows(IllegalArgumentException.class, () -> catalog.updatePriceBreaks(id(0), Map.of(0, 1.0)));
+    }
+
+    @Test
+    @DisplayName("Flushed carts come back after a restart, and clearing waits for the flush")
+    void cartsSurviveRestart() {
+        Long userId = buyer.getId();
+        catalog.updatePriceBreaks(id(0), Map.of(10, 8.0));
+        cartEngine.add(userId, id(0), 12);
+        cartEngine.add(userId, id(1), 1);
+        cartEngine.flush();
+        assertEquals(96.0, jdbcTemplate.queryForObject(
+                "SELECT SUM(price * quantity) FROM cart_item WHERE product_id = ?", Double.class, id(0)), 1e-9);
+
+        CartEngine restarted = new CartEngine(catalog, jdbcTemplate, transactionManager, 100, 30, 50);
+        CartQuote reloaded = restarted.quote(userId);
+        assertEquals(List.of(id(0), id(1)), reloaded.lines().stream().map(line -> line.product().productId()).toList());
+        assertEquals(cartEngine.quote(userId).grandTotal(), reloaded.grandTotal(), 1e-9);
+
+        cartEngine.remove(userId, id(1));
+        cartEngine.flush();
+        assertEquals(1, cartRows(userId));
+        cartEngine.clear(userId);
+        cartEngine.flush();
+        assertEquals(0, cartRows(userId));
+        assertTrue(new CartEngine(catalog, jdbcTemplate, transactionManager, 100, 30, 50).quote(userId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Checkout re-prices only products that changed behind the cache")
+    void checkoutRepricesChangedLines() {
+        Long userId = buyer.getId();
+        cartEngine.add(userId, id(0), 2);
+        cartEngine.add(userId, id(1), 1);
+        assertEquals(40.0, cartEngine.quote(userId).subtotal(), 1e-9);
+
+        // A bulk write the listeners do not see: the cached quote keeps the old price
+        jdbcTemplate.update("UPDATE buyer_products SET price = 25 WHERE id = ?", id(1));
+        assertEquals(40.0, cartEngine.quote(userId).subtotal(), 1e-9);
+
+        CheckoutQuote checkout = cartEngine.checkout(userId);
+        assertEquals(List.of(id(1)), checkout.repricedProducts());
+        assertEquals(45.0, checkout.quote().subtotal(), 1e-9);
+        assertEquals(45.0, cartEngine.quote(userId).subtotal(), 1e-9);
+
+        // A change through Hibernate reaches the cache on commit
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(id(0)).orElseThrow();
+            product.setStock(1);
+            productRepository.save(product);
+        });
+        RuntimeException unavailable = assertThrows(RuntimeException.class, () -> cartEngine.checkout(userId));
+        assertEquals("Product Rebar is not available in required quantity", unavailable.getMessage());
+
+        cartEngine.clear(userId);
+        assertEquals("Cart is empty", assertThrows(RuntimeException.class, () -> cartEngine.checkout(userId)).getMessage());
+    }
+
+    @Test
+    @DisplayName("A node never overwrites a cart another node wrote after it loaded; checkout reloads it")
+    void staleNodeYieldsToNewerWrites() {
+        Long userId = buyer.getId();
+        cartEngine.add(userId, id(0), 2);
+        cartEngine.flush();
+
+        CartEngine otherNode = new CartEngine(catalog, jdbcTemplate, transactionManager, 100, 30, 50);
+        otherNode.add(userId, id(1), 1);
+        otherNode.flush();
+
+        CheckoutQuote checkout = cartEngine.checkout(userId);
+        assertEquals(List.of(id(0), id(1)),
+                checkout.quote().lines().stream().map(line -> line.product().productId()).toList());
+
+        otherNode.update(userId, id(1), 3);
+        otherNode.flush();
+        // Based on the version before the other node's update: discarded instead of written
+        cartEngine.add(userId, id(0), 5);
+        cartEngine.flush();
+        assertEquals(0, cartEngine.pendingCount());
+        assertEquals(Map.of(id(0), 2, id(1), 3), quantities(cartEngine.quote(userId)));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_item WHERE product_id = ?", Integer.class, id(1)));
+
+        // Once reloaded, this node's changes are written again
+        cartEngine.add(userId, id(0), 1);
+        cartEngine.flush();
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_item WHERE product_id = ?", Integer.class, id(0)));
+    }
+
+    @Test
+    @DisplayName("Concurrent stock reservations never oversell")
+    void reservationsDoNotOversell() throws Exception {
+        Long productId = id(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> attempts = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                attempts.add(pool.submit(() -> transactionTemplate.execute(status -> productRepository.reserveStock(productId, 1))));
+            }
+            int reserved = 0;
+            for (Future<Integer> attempt : attempts) {
+                reserved += attempt.get();
+            }
+            assertEquals(10, reserved);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT stock FROM buyer_products WHERE id = ?", Integer.class, productId));
+    }
+
+    private Long id(int product) {
+        return products.get(product).getId();
+    }
+
+    private int cartRows(Long userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_item i JOIN cart c ON c.id = i.cart_id WHERE c.user_id = ?", Integer.class, userId);
+    }
+
+    private static Map<Long, Integer> quantities(CartQuote quote) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        quote.lines().forEach(line -> quantities.put(line.product().productId(), line.quantity()));
+        return quantities;
+    }
+}
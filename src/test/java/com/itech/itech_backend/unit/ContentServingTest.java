@@ -0,0 +1,212 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.admin.service.ContentManagementService;
+import com.itech.itech_backend.modules.shared.model.Banner;
+import com.itech.itech_backend.modules.shared.model.Campaign;
+import com.itech.itech_backend.modules.shared.model.ContentSubjectType;
+import com.itech.itech_backend.modules.shared.repository.CampaignRepository;
+import com.itech.itech_backend.modules.shared.service.ContentServingService;
+import com.itech.itech_backend.modules.shared.service.ContentServingService.ContentReport;
+import com.itech.itech_backend.modules.shared.service.ContentServingService.Event;
+import com.itech.itech_backend.modules.shared.service.CouponRedemptionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Banner and campaign serving: targeting is evaluated on the in-memory snapshot without
+ * queries, concurrent impressions and clicks all reach the hourly buckets, and reports read the
+ * buckets.
+ */
+@JpaTestSlice
+@DisplayName("Content Serving Unit Tests")
+public class ContentServingTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = CampaignRepository.class)
+    @Import({ContentServingService.class, ContentManagementService.class, CouponRedemptionService.class})
+    static class ContentApplication {
+    }
+
+    @Autowired
+    private ContentServingService serving;
+
+    @Autowired
+    private ContentManagementService contentManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        // Counters outlive the test; write them before their rows go
+        serving.flush();
+        for (String table : List.of("content_stat_buckets", "banners", "campaigns")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        serving.refresh();
+    }
+
+    @Test
+    @DisplayName("Banners are targeted by position, category and city from the snapshot")
+    void targetingFromSnapshot() {
+        Banner everywhere = banner("Everywhere", "HOMEPAGE", null, null, 2);
+        Banner delhiSteel = banner("Delhi steel", "HOMEPAGE", "7, 9", "Delhi,Noida", 1);
+        Banner category = banner("Category page", "CATEGORY", null, null, 0);
+        Banner hidden = banner("Hidden", "HOMEPAGE", null, null, 0);
+        hidden.setActive(false);
+        contentManagementService.updateBanner(hidden.getId(), hidden);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(List.of(delhiSteel.getId(), everywhere.getId()), ids(serving.serveBanners("homepage", 9L, " delhi ")));
+        assertEquals(List.of(everywhere.getId()), ids(serving.serveBanners("HOMEPAGE", 9L, "Mumbai")));
+        assertEquals(List.of(everywhere.getId()), ids(serving.serveBanners("HOMEPAGE", null, null)));
+        assertEquals(List.of(category.getId()), ids(serving.serveBanners("CATEGORY", 1L, "Pune")));
+        assertEquals(3, serving.activeBanners().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // A change is visible on the next request
+        contentManagementService.deleteBanner(delhiSteel.getId());
+        assertEquals(List.of(everywhere.getId()), ids(serving.serveBanners("HOMEPAGE", 9L, "Delhi")));
+        assertFalse(serving.track(ContentSubjectType.BANNER, delhiSteel.getId(), Event.CLICK));
+        assertFalse(serving.track(ContentSubjectType.BANNER, hidden.getId(), Event.CLICK));
+    }
+
+    @Test
+    @DisplayName("Concurrent impressions and clicks all reach the hourly buckets and campaign totals")
+    void concurrentTrackingIsLossless() throws Exception {
+        Banner banner = banner("Sale", "HOMEPAGE", null, null, 0);
+        Campaign campaign = campaign("Diwali", null, null);
+        int threads = 16;
+        int perThread = 5000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        serving.serveBanners("HOMEPAGE", null, null);
+                        contentManagementService.updateCampaignStats(campaign.getId(), "view");
+                        if (i % 10 == 0) {
+                            contentManagementService.recordBannerClick(banner.getId());
+                            contentManagementService.updateCampaignStats(campaign.getId(), "click");
+                        }
+                        if (i % 1000 == 0) {
+                            // Flushes interleave with counting
+                            serving.flush();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        serving.flush();
+
+        long impressions = (long) threads * perThread;
+        long clicks = (long) threads * (perThread / 10);
+        assertEquals(impressions, bucketSum("impressions", "BANNER"));
+        assertEquals(clicks, bucketSum("clicks", "BANNER"));
+        assertEquals(impressions, bucketSum("impressions", "CAMPAIGN"));
+        assertEquals(clicks, bucketSum("clicks", "CAMPAIGN"));
+        assertEquals(impressions, jdbcTemplate.queryForObject("SELECT view_count FROM campaigns WHERE id = ?", Long.class, campaign.getId()));
+        assertEquals(clicks, jdbcTemplate.queryForObject("SELECT click_count FROM campaigns WHERE id = ?", Long.class, campaign.getId()));
+
+        // Nothing left to write
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content_stat_buckets", Integer.class);
+        serving.flush();
+        assertEquals(rows, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content_stat_buckets", Integer.class));
+        assertEquals(impressions, bucketSum("impressions", "BANNER"));
+    }
+
+    @Test
+    @DisplayName("Reports read hourly buckets plus counts not yet flushed")
+    void reportsReadBuckets() {
+        Campaign running = campaign("Running", null, null);
+        Campaign quiet = campaign("Quiet", null, null);
+        campaign("Future", LocalDateTime.now().plusDays(1), null);
+        LocalDateTime thisHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        assertEquals(List.of(running.getId(), quiet.getId()),
+                serving.activeCampaigns(null, null).stream().map(Campaign::getId).toList());
+
+        for (int i = 0; i < 30; i++) {
+            serving.track(ContentSubjectType.CAMPAIGN, running.getId(), Event.IMPRESSION, thisHour.minusHours(3).plusMinutes(i));
+        }
+        serving.track(ContentSubjectType.CAMPAIGN, running.getId(), Event.CLICK, thisHour.minusHours(3));
+        for (int i = 0; i < 10; i++) {
+            serving.track(ContentSubjectType.CAMPAIGN, running.getId(), Event.IMPRESSION);
+        }
+        serving.track(ContentSubjectType.CAMPAIGN, quiet.getId(), Event.IMPRESSION);
+        serving.flush();
+        // Still buffered on this node
+        serving.track(ContentSubjectType.CAMPAIGN, running.getId(), Event.CLICK);
+
+        ContentReport report = contentManagementService.getCampaignReport(running.getId(), thisHour.minusDays(1), thisHour.plusHours(1));
+        assertEquals("Running", report.name());
+        assertEquals(40, report.impressions());
+        assertEquals(2, report.clicks());
+        assertEquals(0.05, report.clickThroughRate(), 1e-9);
+        assertEquals(List.of(
+                        new ContentServingService.HourlyStat(thisHour.minusHours(3), 30, 1),
+                        new ContentServingService.HourlyStat(thisHour, 10, 1)),
+                report.hours());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM content_stat_buckets WHERE subject_id = ?", Integer.class, running.getId()));
+
+        List<ContentReport> overview = contentManagementService.getCampaignReports(thisHour.minusHours(1), thisHour.plusHours(1));
+        assertEquals(List.of(running.getId(), quiet.getId()), overview.stream().map(ContentReport::subjectId).toList());
+        assertEquals(10, overview.get(0).impressions());
+        assertFalse(serving.track(ContentSubjectType.CAMPAIGN, 999_999L, Event.CLICK));
+    }
+
+    private Banner banner(String title, String position, String categories, String cities, int order) {
+        return contentManagementService.createBanner(Banner.builder().title(title).imageUrl("/img/" + title + ".png")
+                .position(position).targetCategoryIds(categories).targetCities(cities).displayOrder(order).build());
+    }
+
+    private Campaign campaign(String name, LocalDateTime startDate, LocalDateTime endDate) {
+        return contentManagementService.createCampaign(Campaign.builder().name(name).type("BANNER").status("ACTIVE")
+                .startDate(startDate).endDate(endDate).build());
+    }
+
+    private long bucketSum(String column, String type) {
+        Long sum = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(" + column + "), 0) FROM content_stat_buckets WHERE subject_type = ?", Long.class, type);
+        return sum != null ? sum : 0L;
+    }
+
+    private static List<Long> ids(List<Banner> banners) {
+        return banners.stream().map(Banner::getId).toList();
+    }
+}
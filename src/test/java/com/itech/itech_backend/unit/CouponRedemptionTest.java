@@ -0,0 +1,214 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.model.Coupon;
+import com.itech.itech_backend.modules.shared.repository.CouponRedemptionRepository;
+import com.itech.itech_backend.modules.shared.repository.CouponRepository;
+import com.itech.itech_backend.modules.shared.service.CouponRedemptionService;
+import com.itech.itech_backend.modules.shared.service.CouponRedemptionService.Outcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Coupon redemption under contention: a limited code is never redeemed past its limit, a user
+ * redeems a code once even across nodes, and redemption rows reach the table in batches.
+ */
+@JpaTestSlice
+@DisplayName("Coupon Redemption Unit Tests")
+public class CouponRedemptionTest {
+
+    private static final int REQUESTS = 1000;
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = CouponRepository.class)
+    @Import(CouponRedemptionService.class)
+    static class CouponApplication {
+    }
+
+    @Autowired
+    private CouponRedemptionService coupons;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponRedemptionRepository redemptionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // 1k reservations queue on one coupon row; H2 gives up on a row lock after 1 s by default
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM coupon_redemptions");
+        jdbcTemplate.update("DELETE FROM coupons");
+    }
+
+    @Test
+    @DisplayName("1k concurrent redemptions of one code never exceed its usage limit")
+    void noOverRedemptionUnderContention() throws Exception {
+        Coupon coupon = coupon("FLASH100", 100);
+
+        Map<Outcome, Integer> outcomes = hammer(i -> coupons.redeem("FLASH100", (long) i, "order-" + i));
+        coupons.flush();
+
+        assertEquals(100, outcomes.get(Outcome.REDEEMED));
+        assertEquals(REQUESTS - 100, outcomes.get(Outcome.EXHAUSTED));
+        assertEquals(100, couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount());
+        assertEquals(100, redemptionRepository.countByCouponId(coupon.getId()));
+        // Once used up, requests are refused from memory
+        assertEquals(Outcome.EXHAUSTED, coupons.redeem("FLASH100", 5000L, null));
+        assertEquals(Outcome.EXHAUSTED, coupons.check("FLASH100", 5001L));
+    }
+
+    @Test
+    @DisplayName("A user redeems a code once, including repeats in flight and after a reload")
+    void perUserDedupe() throws Exception {
+        Coupon coupon = coupon("WELCOME", 0);
+
+        // 1k requests from 50 users on an unlimited code
+        Map<Outcome, Integer> outcomes = hammer(i -> coupons.redeem("WELCOME", (long) (i % 50), null));
+        coupons.flush();
+
+        assertEquals(50, outcomes.get(Outcome.REDEEMED));
+        assertEquals(REQUESTS - 50, outcomes.get(Outcome.ALREADY_REDEEMED));
+        assertEquals(50, couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount());
+        assertEquals(50, redemptionRepository.countByCouponId(coupon.getId()));
+
+        coupons.invalidate("WELCOME");
+        assertEquals(Outcome.ALREADY_REDEEMED, coupons.redeem("WELCOME", 7L, null));
+        assertEquals(Outcome.REDEEMED, coupons.redeem("WELCOME", 77L, null));
+        // Anonymous uses are counted but not deduplicated
+        assertEquals(Outcome.REDEEMED, coupons.redeem("WELCOME", null, null));
+        assertEquals(Outcome.REDEEMED, coupons.redeem("WELCOME", null, null));
+        coupons.flush();
+        assertEquals(53, couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount());
+    }
+
+    @Test
+    @DisplayName("A repeat made on two nodes at once keeps one row and hands the other use back")
+    void crossNodeDuplicateIsReturned() {
+        Coupon coupon = coupon("TWONODES", 10);
+        CouponRedemptionService otherNode = new CouponRedemptionService(couponRepository, redemptionRepository,
+                jdbcTemplate, transactionManager, 100, 60, 50);
+
+        assertEquals(Outcome.REDEEMED, coupons.redeem("TWONODES", 1L, "a"));
+        assertEquals(Outcome.REDEEMED, otherNode.redeem("TWONODES", 1L, "b"));
+        assertEquals(Outcome.REDEEMED, otherNode.redeem("TWONODES", 2L, "c"));
+        assertEquals(3, couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount());
+
+        coupons.flush();
+        otherNode.flush();
+        assertEquals(2, redemptionRepository.countByCouponId(coupon.getId()));
+        assertEquals(2, couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount());
+    }
+
+    @Test
+    @DisplayName("Validity windows, inactive codes and released uses, each returned once")
+    void windowsAndRelease() {
+        couponRepository.save(base("LATER").validFrom(LocalDateTime.now().plusDays(1)).build());
+        couponRepository.save(base("OVER").validUntil(LocalDateTime.now().minusDays(1)).build());
+        couponRepository.save(base("OFF").isActive(false).build());
+        Coupon single = coupon("SINGLE", 1);
+
+        assertEquals(Outcome.NOT_STARTED, coupons.redeem("LATER", 1L, null));
+        assertEquals(Outcome.EXPIRED, coupons.redeem("OVER", 1L, null));
+        assertEquals(Outcome.INACTIVE, coupons.redeem("OFF", 1L, null));
+        assertEquals(Outcome.NOT_FOUND, coupons.redeem("NOPE", 1L, null));
+
+        assertEquals(Outcome.REDEEMED, coupons.redeem("SINGLE", 1L, null));
+        assertEquals(Outcome.EXHAUSTED, coupons.redeem("SINGLE", 2L, null));
+        // The order failed: the use goes back and the same user may try again
+        coupons.release("SINGLE", 1L);
+        assertEquals(0, couponRepository.findById(single.getId()).orElseThrow().getUsedCount());
+        assertEquals(0, redemptionRepository.countByCouponId(single.getId()));
+        assertEquals(Outcome.REDEEMED, coupons.redeem("SINGLE", 2L, null));
+
+        // Releasing twice, or for a user who never redeemed, gives nothing back
+        coupons.release("SINGLE", 1L);
+        coupons.release("SINGLE", 7L);
+        assertEquals(1, couponRepository.findById(single.getId()).orElseThrow().getUsedCount());
+        assertEquals(Outcome.EXHAUSTED, coupons.redeem("SINGLE", 3L, null));
+    }
+
+    @Test
+    @DisplayName("Releasing an order gives back its uses, whether still queued or already written")
+    void releasesOrderUses() {
+        Coupon first = coupon("FIRST", 1);
+        Coupon second = coupon("SECOND", 5);
+        assertEquals(Outcome.REDEEMED, coupons.redeem("FIRST", 5L, "ORD-1"));
+        coupons.flush();
+        assertEquals(Outcome.REDEEMED, coupons.redeem("SECOND", 5L, "ORD-1"));
+        assertEquals(Outcome.REDEEMED, coupons.redeem("SECOND", 6L, "ORD-2"));
+
+        coupons.releaseOrder("ORD-1");
+        coupons.flush();
+        assertEquals(0, couponRepository.findById(first.getId()).orElseThrow().getUsedCount());
+        assertEquals(1, couponRepository.findById(second.getId()).orElseThrow().getUsedCount());
+        assertEquals(0, redemptionRepository.countByCouponId(first.getId()));
+        assertEquals(1, redemptionRepository.countByCouponId(second.getId()));
+
+        // The user is no longer locked out of either code
+        assertEquals(Outcome.REDEEMED, coupons.redeem("FIRST", 5L, "ORD-3"));
+        assertEquals(Outcome.REDEEMED, coupons.redeem("SECOND", 5L, "ORD-3"));
+    }
+
+    private Map<Outcome, Integer> hammer(IntFunction<Outcome> request) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> results = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                int n = i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return request.apply(n);
+                }));
+            }
+            start.countDown();
+            Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+            for (Future<Outcome> result : results) {
+                outcomes.merge(result.get(), 1, Integer::sum);
+            }
+            return outcomes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Coupon coupon(String code, int usageLimit) {
+        return couponRepository.save(base(code).usageLimit(usageLimit).build());
+    }
+
+    private static Coupon.CouponBuilder base(String code) {
+        return Coupon.builder().code(code).name(code).discountType("PERCENTAGE").discountValue(BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,249 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.buyer.repository.BuyerRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.service.DataMigrationEngine;
+import com.itech.itech_backend.service.DataMigrationService;
+import com.itech.itech_backend.service.DataMigrationService.MigrationConfig;
+import com.itech.itech_backend.service.DataMigrationService.MigrationPhaseResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Set-based user backfill: matching rules against the old per-row lookup, checkpoint resume
+ * after a failed partition, and a bulk benchmark (tagged {@code benchmark}, 1M buyers in the
+ * full run). Runs on file-backed H2 in PostgreSQL mode so the conflict clause is the one
+ * production uses.
+ */
+@JpaTestSlice
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/migration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Data Migration Engine Unit Tests")
+public class DataMigrationEngineTest {
+
+    private static final String TEMP_PASSWORD = "TempPass@2024";
+    // 1M in the full benchmark (-Dmigration.benchmark.users=1000000); smaller by default to keep the suite quick
+    private static final int BENCHMARK_USERS = Integer.getInteger("migration.benchmark.users", 200_000);
+    private static final int SEED_CHUNK = 50_000;
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerRepository.class, VendorsRepository.class})
+    @Import({DataMigrationService.class, DataMigrationEngine.class})
+    static class MigrationApplication {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private DataMigrationService migrationService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            // Legacy vendor rows predate the users link; migration_status comes from the SQL migration scripts
+            jdbc.execute("ALTER TABLE legacy_vendors ALTER COLUMN user_id SET NULL");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS migration_status (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                    + " phase_name VARCHAR(100), status VARCHAR(20), updated_at TIMESTAMP)");
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        tx.executeWithoutResult(status -> {
+            for (String table : List.of("migration_checkpoints", "buyers", "legacy_vendors", "admins",
+                    "employee_profiles", "users")) {
+                jdbc.execute("DELETE FROM " + table);
+            }
+            jdbc.execute("ALTER TABLE users DROP CONSTRAINT IF EXISTS chk_poison");
+        });
+    }
+
+    @Test
+    @DisplayName("Rows link by email, then phone, and otherwise get a new user")
+    void matchingRules() {
+        tx.executeWithoutResult(status -> {
+            user("existing@test", null, "BUYER");
+            user("phone-owner@test", "9000000002", "BUYER");
+            buyer("existing@test", "9000000001");
+            buyer("by-phone@test", "9000000002");
+            buyer("blank-phone@test", "  ");
+            buyer("shared@test", null);
+            jdbc.update("INSERT INTO legacy_vendors (name, email, phone, password, verified, kyc_approved, kyc_submitted, created_at)"
+                    + " VALUES ('Vendor A', 'shared@test', NULL, 'x', FALSE, FALSE, FALSE, CURRENT_TIMESTAMP),"
+                    + " ('Vendor B', 'vendor@test', '9000000005', 'x', TRUE, FALSE, FALSE, CURRENT_TIMESTAMP)");
+            jdbc.update("INSERT INTO admins (name, email, password, verified, is_active) VALUES ('Root', 'admin@test', 'x', TRUE, TRUE)");
+            jdbc.update("INSERT INTO employee_profiles (first_name, last_name, work_email, personal_mobile, department,"
+                    + " designation, employee_code, employee_type, status, joining_date, is_documents_verified,"
+                    + " is_profile_complete, created_at, updated_at) VALUES ('Asha', 'Rao', 'emp@test', '9000000007',"
+                    + " 'Ops', 'Analyst', 'E-1', 'FULL_TIME', 'INACTIVE', CURRENT_DATE, FALSE, FALSE,"
+                    + " CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        });
+
+        List<MigrationPhaseResult> results = migrationService.migrateAllData(config(2, 2));
+        results.forEach(result -> assertTrue(result.isSuccess(), result.getPhaseName() + ": " + result.getErrorMessage()));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM buyers WHERE user_id IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM legacy_vendors WHERE user_id IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM admins WHERE user_id IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM employee_profiles WHERE user_id IS NULL"));
+
+        assertEquals(userId("existing@test"), buyerUser("existing@test"));
+        assertEquals(userId("phone-owner@test"), buyerUser("by-phone@test"));
+        assertNull(jdbc.queryForObject("SELECT phone FROM users WHERE email = 'blank-phone@test'", String.class));
+        // The buyer and the vendor with the same email end up on one account
+        assertEquals(buyerUser("shared@test"),
+                jdbc.queryForObject("SELECT user_id FROM legacy_vendors WHERE email = 'shared@test'", Long.class));
+        // 2 pre-existing + 2 buyers + 1 vendor + 1 admin + 1 employee
+        assertEquals(7, count("SELECT COUNT(*) FROM users"));
+
+        Map<String, Object> vendor = jdbc.queryForMap("SELECT role, is_verified, phone, password FROM users WHERE email = 'vendor@test'");
+        assertEquals("SELLER", vendor.get("role"));
+        assertEquals(true, vendor.get("is_verified"));
+        assertEquals("9000000005", vendor.get("phone"));
+        assertTrue(passwordEncoder.matches(TEMP_PASSWORD, (String) vendor.get("password")));
+
+        Map<String, Object> employee = jdbc.queryForMap("SELECT name, role, is_active FROM users WHERE email = 'emp@test'");
+        assertEquals("Asha Rao", employee.get("name"));
+        assertEquals("DATA_ENTRY", employee.get("role"));
+        assertEquals(false, employee.get("is_active"));
+
+        MigrationPhaseResult buyers = results.get(0);
+        assertEquals(4, buyers.getTotalRecords());
+        assertEquals(4, buyers.getProcessedRecords());
+        assertEquals(2, buyers.getPartitions());
+    }
+
+    @Test
+    @DisplayName("A rejected row is quarantined, its partition is FAILED and the next run resumes only that partition")
+    void resumesFromCheckpoints() {
+        tx.executeWithoutResult(status -> {
+            for (int i = 1; i <= 10; i++) {
+                buyer(i == 5 ? "poison@test" : "buyer" + i + "@test", null);
+            }
+            jdbc.execute("ALTER TABLE users ADD CONSTRAINT chk_poison CHECK (email <> 'poison@test')");
+        });
+
+        MigrationPhaseResult first = migrationService.migrateBuyersData(config(2, 2));
+        assertFalse(first.isSuccess());
+        assertEquals(5, first.getPartitions());
+        assertEquals(1, first.getFailedPartitions());
+        assertEquals(9, first.getProcessedRecords());
+        assertEquals(List.of("COMPLETED", "COMPLETED", "FAILED", "COMPLETED", "COMPLETED"),
+                jdbc.queryForList("SELECT status FROM migration_checkpoints WHERE phase = 'BUYERS_MIGRATION'"
+                        + " ORDER BY partition_no", String.class));
+        Long poisonId = jdbc.queryForObject("SELECT id FROM buyers WHERE email = 'poison@test'", Long.class);
+        assertEquals(List.of(poisonId), jdbc.queryForList("SELECT id FROM buyers WHERE user_id IS NULL", Long.class));
+        assertTrue(first.getErrors().get(poisonId).startsWith("User could not be created"));
+
+        tx.executeWithoutResult(status -> jdbc.execute("ALTER TABLE users DROP CONSTRAINT chk_poison"));
+        MigrationPhaseResult second = migrationService.migrateBuyersData(config(2, 2));
+
+        assertTrue(second.isSuccess(), second.getErrorMessage());
+        assertEquals(4, second.getResumedPartitions());
+        assertEquals(1, second.getProcessedRecords());
+        assertEquals(0, count("SELECT COUNT(*) FROM buyers WHERE user_id IS NULL"));
+        assertEquals(0, count("SELECT COUNT(*) FROM migration_checkpoints WHERE status <> 'COMPLETED'"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: buyers linked in bulk, 10% to existing users")
+    void benchmarkBulkBackfill() {
+        // Seeded in chunks: one million-row transaction is far slower in H2 than the migration itself
+        for (int from = 1; from <= BENCHMARK_USERS; from += SEED_CHUNK) {
+            int lo = from;
+            int hi = Math.min(from + SEED_CHUNK - 1, BENCHMARK_USERS);
+            tx.executeWithoutResult(status -> {
+                jdbc.update("INSERT INTO users (name, email, password, role, is_verified, is_active, created_at)"
+                        + " SELECT CONCAT('Existing ', \"X\"), CONCAT('buyer', \"X\", '@bench.test'), 'x', 'BUYER', TRUE, TRUE,"
+                        + " CURRENT_TIMESTAMP FROM SYSTEM_RANGE(?, ?) WHERE MOD(\"X\", 10) = 0", lo, hi);
+                jdbc.update("INSERT INTO buyers (buyer_name, email, phone, password)"
+                        + " SELECT CONCAT('Buyer ', \"X\"), CONCAT('buyer', \"X\", '@bench.test'),"
+                        + " CASE WHEN MOD(\"X\", 3) = 0 THEN NULL ELSE CONCAT('9', LPAD(CAST(\"X\" AS VARCHAR), 9, '0')) END, 'x'"
+                        + " FROM SYSTEM_RANGE(?, ?)", lo, hi);
+            });
+        }
+
+        MigrationConfig config = config(50_000, 4);
+        config.setBatchSize(10_000);
+        MigrationPhaseResult result = migrationService.migrateBuyersData(config);
+
+        assertTrue(result.isSuccess(), result.getErrorMessage());
+        assertEquals(BENCHMARK_USERS, result.getProcessedRecords());
+        assertEquals(BENCHMARK_USERS / 10, result.getLinkedUsers());
+        assertEquals(BENCHMARK_USERS / 50_000, result.getPartitions());
+        assertEquals(0, count("SELECT COUNT(*) FROM buyers WHERE user_id IS NULL"));
+        assertEquals(BENCHMARK_USERS, count("SELECT COUNT(*) FROM users"));
+        // Floor for file-backed H2 on a small runner; MySQL and Postgres run several times faster
+        assertTrue(result.getRowsPerSecond() > 1_000,
+                "set-based backfill should clear over 1k rows/s, managed " + result.getRowsPerSecond());
+    }
+
+    private MigrationConfig config(int partitionSize, int parallelism) {
+        MigrationConfig config = new MigrationConfig();
+        config.setPartitionSize(partitionSize);
+        config.setParallelism(parallelism);
+        config.setRetryAttempts(1);
+        return config;
+    }
+
+    private void user(String email, String phone, String role) {
+        jdbc.update("INSERT INTO users (name, email, phone, password, role, is_verified, is_active, created_at)"
+                + " VALUES (?, ?, ?, 'x', ?, TRUE, TRUE, CURRENT_TIMESTAMP)", email, email, phone, role);
+    }
+
+    private void buyer(String email, String phone) {
+        jdbc.update("INSERT INTO buyers (buyer_name, email, phone, password) VALUES (?, ?, ?, 'x')", email, email, phone);
+    }
+
+    private Long userId(String email) {
+        return jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private Long buyerUser(String email) {
+        return jdbc.queryForObject("SELECT user_id FROM buyers WHERE email = ?", Long.class, email);
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
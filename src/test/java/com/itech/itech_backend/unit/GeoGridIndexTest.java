@@ -0,0 +1,214 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.geo.GeoGridIndex;
+import com.itech.itech_backend.modules.shared.geo.GeoHit;
+import com.itech.itech_backend.modules.shared.geo.GeoMath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Correctness checks against a brute-force scan, plus a 1M point benchmark (tagged {@code benchmark})
+ */
+@DisplayName("Geo Grid Index Unit Tests")
+public class GeoGridIndexTest {
+
+    // Rough bounding box of India, where the directory data lives
+    private static final double MIN_LAT = 8.0;
+    private static final double MAX_LAT = 35.0;
+    private static final double MIN_LNG = 68.0;
+    private static final double MAX_LNG = 97.0;
+
+    @Test
+    @DisplayName("Radius search matches a brute-force scan, nearest first")
+    void radiusSearchMatchesBruteForce() {
+        Random random = new Random(42);
+        double[][] points = randomPoints(random, 20_000);
+        GeoGridIndex<Integer> index = build(points, 0.1);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+            double lng = MIN_LNG + random.nextDouble() * (MAX_LNG - MIN_LNG);
+            double radius = 5 + random.nextDouble() * 150;
+
+            List<GeoHit<Integer>> hits = index.withinRadius(lat, lng, radius);
+            List<Long> expected = bruteForce(points, lat, lng, radius);
+
+            assertEquals(expected, hits.stream().map(GeoHit::id).toList());
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).distanceKm() <= hits.get(i).distanceKm());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("k-nearest returns the k closest points, even far from any point")
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        double[][] points = randomPoints(random, 5_000);
+        GeoGridIndex<Integer> index = build(points, 0.1);
+
+        // Centre of India and a point in the Arabian Sea far from every indexed point
+        double[][] centres = {{21.0, 78.0}, {15.0, 60.0}};
+        for (double[] centre : centres) {
+            List<GeoHit<Integer>> hits = index.nearest(centre[0], centre[1], 25);
+            List<Long> expected = bruteForce(points, centre[0], centre[1], Double.MAX_VALUE).subList(0, 25);
+            assertEquals(expected, hits.stream().map(GeoHit::id).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Moved, removed and filtered points are reflected in queries")
+    void updatesAndFilters() {
+        GeoGridIndex<String> index = new GeoGridIndex<>(0.1);
+        index.put(1, 28.61, 77.21, "delhi");
+        index.put(2, 28.53, 77.39, "noida");
+        index.put(3, 19.07, 72.87, "mumbai");
+
+        assertEquals(List.of(1L, 2L), index.withinRadius(28.61, 77.21, 50).stream().map(GeoHit::id).toList());
+
+        index.put(2, 19.10, 72.90, "noida-moved");
+        assertEquals(List.of(1L), index.withinRadius(28.61, 77.21, 50).stream().map(GeoHit::id).toList());
+        assertEquals("noida-moved", index.get(2));
+
+        index.remove(3);
+        index.put(4, null, 72.0, "no-coordinates");
+        assertEquals(2, index.size());
+        assertFalse(index.contains(4));
+
+        List<GeoHit<String>> filtered = index.nearest(19.07, 72.87, 5, value -> value.startsWith("delhi"));
+        assertEquals(1, filtered.size());
+        assertEquals(1L, filtered.get(0).id());
+    }
+
+    @Test
+    @DisplayName("Points exactly on the radius are found in every direction")
+    void findsPointsOnTheRadius() {
+        double[][] centres = {{28.61, 77.21}, {8.5, 76.9}, {60.0, 10.0}};
+        for (double[] centre : centres) {
+            for (double radius : new double[]{1, 25, 300}) {
+                GeoGridIndex<Integer> index = new GeoGridIndex<>(0.1);
+                for (int bearing = 0; bearing < 360; bearing += 10) {
+                    double[] point = destination(centre[0], centre[1], bearing, radius);
+                    index.put(bearing, point[0], point[1], bearing);
+                    assertTrue(GeoMath.boundingBox(centre[0], centre[1], radius).contains(point[0], point[1]),
+                            "box misses bearing " + bearing + " at " + radius + " km");
+                }
+                assertEquals(36, index.withinRadius(centre[0], centre[1], radius).size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Radius and k-nearest queries reach across the antimeridian")
+    void searchesAcrossTheAntimeridian() {
+        GeoGridIndex<String> index = new GeoGridIndex<>(0.5);
+        index.put(1, -17.8, 179.9, "east");
+        index.put(2, -17.8, -179.9, "west");
+        index.put(3, -17.8, 170.0, "far");
+
+        GeoMath.BoundingBox box = GeoMath.boundingBox(-17.8, 179.95, 50);
+        assertTrue(box.wrapsLongitude());
+        assertEquals(-180.0, box.asRange().minLng());
+        assertEquals(180.0, box.asRange().maxLng());
+
+        assertEquals(List.of("east", "west"),
+                index.withinRadius(-17.8, 179.95, 50).stream().map(GeoHit::value).sorted().toList());
+        assertEquals(List.of(2L, 1L), index.nearest(-17.8, -179.98, 2).stream().map(GeoHit::id).toList());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: 1M points, radius and k-nearest queries")
+    void benchmarkOneMillionPoints() {
+        Random random = new Random(2024);
+        double[][] points = randomPoints(random, 1_000_000);
+
+        GeoGridIndex<Integer> index = build(points, 0.1);
+        assertEquals(1_000_000, index.size());
+
+        int queries = 2_000;
+        double[][] centres = randomPoints(new Random(99), queries);
+
+        // Warm up before timing
+        for (int i = 0; i < 200; i++) {
+            index.withinRadius(centres[i][0], centres[i][1], 10);
+            index.nearest(centres[i][0], centres[i][1], 10);
+        }
+
+        long radiusStart = System.nanoTime();
+        for (double[] centre : centres) {
+            index.withinRadius(centre[0], centre[1], 10);
+        }
+        double radiusMicros = (System.nanoTime() - radiusStart) / 1_000.0 / queries;
+
+        long knnStart = System.nanoTime();
+        for (double[] centre : centres) {
+            assertEquals(10, index.nearest(centre[0], centre[1], 10).size());
+        }
+        double knnMicros = (System.nanoTime() - knnStart) / 1_000.0 / queries;
+
+        int scans = 20;
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < scans; i++) {
+            bruteForce(points, centres[i][0], centres[i][1], 10);
+        }
+        double scanMicros = (System.nanoTime() - scanStart) / 1_000.0 / scans;
+
+        // Generous bounds so slow CI machines pass; the point is that queries never touch every row
+        assertTrue(radiusMicros * 10 < scanMicros, String.format(
+                "indexed radius query should be far cheaper than a full scan: %.1f vs %.1f us", radiusMicros, scanMicros));
+        assertTrue(knnMicros * 10 < scanMicros, String.format(
+                "10-nearest query should be far cheaper than a full scan: %.1f vs %.1f us", knnMicros, scanMicros));
+    }
+
+    private static double[][] randomPoints(Random random, int count) {
+        double[][] points = new double[count][2];
+        for (int i = 0; i < count; i++) {
+            points[i][0] = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+            points[i][1] = MIN_LNG + random.nextDouble() * (MAX_LNG - MIN_LNG);
+        }
+        return points;
+    }
+
+    private static GeoGridIndex<Integer> build(double[][] points, double cellDegrees) {
+        GeoGridIndex<Integer> index = new GeoGridIndex<>(cellDegrees);
+        for (int i = 0; i < points.length; i++) {
+            index.put(i, points[i][0], points[i][1], i);
+        }
+        return index;
+    }
+
+    /**
+     * Point {@code distanceKm} from the start along the great circle with the given bearing
+     */
+    private static double[] destination(double lat, double lng, double bearingDegrees, double distanceKm) {
+        double angular = distanceKm / GeoMath.EARTH_RADIUS_KM;
+        double bearing = Math.toRadians(bearingDegrees);
+        double lat1 = Math.toRadians(lat);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular)
+                + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+        double lng2 = Math.toRadians(lng) + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+                Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+        return new double[]{Math.toDegrees(lat2), Math.toDegrees(lng2)};
+    }
+
+    private static List<Long> bruteForce(double[][] points, double lat, double lng, double radiusKm) {
+        List<double[]> matches = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            double distance = GeoMath.distanceKm(lat, lng, points[i][0], points[i][1]);
+            if (distance <= radiusKm) {
+                matches.add(new double[]{i, distance});
+            }
+        }
+        matches.sort(Comparator.comparingDouble(match -> match[1]));
+        return matches.stream().map(match -> (long) match[0]).toList();
+    }
+}
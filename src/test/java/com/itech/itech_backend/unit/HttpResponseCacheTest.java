@@ -0,0 +1,225 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.buyer.controller.ProductSearchController;
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
+import com.itech.itech_backend.modules.buyer.service.ProductSearchService;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.httpcache.CacheDomain;
+import com.itech.itech_backend.modules.shared.httpcache.CacheVersionStore;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheHeadersAdvice;
+import com.itech.itech_backend.modules.shared.httpcache.HttpCacheInterceptor;
+import com.itech.itech_backend.modules.shared.httpcache.RenderedResponseCache;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * HTTP response caching: validators come from the version counters, matching conditional
+ * requests and repeats are answered before the service runs, committed changes (local or from
+ * another node) move the ETag, and a load comparison of CPU time per request (tagged
+ * {@code benchmark}).
+ */
+@JpaTestSlice
+@DisplayName("HTTP Response Cache Unit Tests")
+public class HttpResponseCacheTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {VendorsRepository.class, UserRepository.class})
+    @Import(CacheVersionStore.class)
+    static class HttpCacheApplication {
+    }
+
+    private static final String FEATURED = "/api/products/search/featured?limit=200";
+
+    @Autowired
+    private CacheVersionStore versionStore;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductSearchService searchService;
+    private RenderedResponseCache bodies;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        versionStore.changed(CacheDomain.PRODUCTS);
+
+        List<ProductCardDto> cards = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            cards.add(new ProductCardDto((long) i, "Steel pipe " + i, 120.0 + i, 150.0, "piece", 10,
+                    "/img/" + i + ".png,/img/" + i + "b.png", 7L, "Steel Works", "Pune", 4.2, 17L));
+        }
+        searchService = mock(ProductSearchService.class);
+        when(searchService.getFeaturedProducts(anyInt())).thenReturn(cards);
+        when(searchService.getTrendingProducts(anyInt())).thenReturn(cards);
+
+        bodies = new RenderedResponseCache(8 * 1024 * 1024, 1024 * 1024);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller(searchService))
+                .addInterceptors(new HttpCacheInterceptor(versionStore, bodies))
+                .setControllerAdvice(new HttpCacheHeadersAdvice())
+                .addFilters(bodies)
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("cache_versions", "legacy_vendors", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        versionStore.sync();
+    }
+
+    @Test
+    @DisplayName("Matching conditional requests and repeats never reach the service")
+    void conditionalRequestsSkipTheService() throws Exception {
+        MockHttpServletResponse first = perform(get(FEATURED));
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertEquals("\"P" + versionStore.current().version(CacheDomain.PRODUCTS) + "\"", etag);
+        assertEquals("max-age=60, public, stale-while-revalidate=300", first.getHeader(HttpHeaders.CACHE_CONTROL));
+        String lastModified = first.getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(lastModified);
+
+        MockHttpServletResponse notModified = perform(get(FEATURED).header(HttpHeaders.IF_NONE_MATCH, "\"X1\", W/" + etag));
+        assertEquals(304, notModified.getStatus());
+        assertEquals(etag, notModified.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, notModified.getContentAsByteArray().length);
+        assertEquals(304, perform(get(FEATURED).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified)).getStatus());
+
+        MockHttpServletResponse replayed = perform(get(FEATURED));
+        assertEquals(200, replayed.getStatus());
+        assertEquals(first.getContentAsString(), replayed.getContentAsString());
+        assertEquals(etag, replayed.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, bodies.stats().hits());
+        verify(searchService, times(1)).getFeaturedProducts(200);
+
+        // Routes without a policy are untouched
+        MockHttpServletResponse trending = perform(get("/api/products/trending"));
+        assertNull(trending.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, bodies.stats().stores());
+    }
+
+    @Test
+    @DisplayName("Committed changes move the ETag here at once and on other nodes after a sync")
+    void changesMoveTheEtag() throws Exception {
+        String etag = perform(get(FEATURED)).getHeader(HttpHeaders.ETAG);
+        long before = versionStore.current().version(CacheDomain.PRODUCTS);
+
+        // Three vendor rows in one transaction are one change
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int v = 0; v < 3; v++) {
+                User owner = userRepository.save(User.builder().name("owner" + v).email("owner" + v + "@example.com").password("x").build());
+                vendorsRepository.save(Vendors.builder().user(owner).name("Vendor " + v)
+                        .email("vendor" + v + "@example.com").password("x").businessName("Vendor Co " + v).build());
+            }
+        });
+        assertEquals(before + 1, versionStore.current().version(CacheDomain.PRODUCTS));
+
+        MockHttpServletResponse changed = perform(get(FEATURED).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+        verify(searchService, times(2)).getFeaturedProducts(200);
+
+        // A rolled-back change keeps the version
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(User.builder().name("ghost").email("ghost@example.com").password("x").build());
+            versionStore.changed(CacheDomain.PRODUCTS);
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(before + 1, versionStore.current().version(CacheDomain.PRODUCTS));
+
+        // Another node's bump is seen after the next sync
+        String current = changed.getHeader(HttpHeaders.ETAG);
+        jdbcTemplate.update("UPDATE cache_versions SET version = version + 1 WHERE domain = 'PRODUCTS'");
+        assertEquals(304, perform(get(FEATURED).header(HttpHeaders.IF_NONE_MATCH, current)).getStatus());
+        versionStore.sync();
+        assertEquals(200, perform(get(FEATURED).header(HttpHeaders.IF_NONE_MATCH, current)).getStatus());
+        verify(searchService, times(3)).getFeaturedProducts(200);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load: CPU time per request uncached, replayed from memory and answered with 304")
+    void cpuPerRequest() throws Exception {
+        MockMvc uncached = MockMvcBuilders.standaloneSetup(controller(searchService)).build();
+        int requests = 2000;
+        String etag = perform(get(FEATURED)).getHeader(HttpHeaders.ETAG);
+
+        // Warm up all three paths before measuring
+        for (int i = 0; i < 300; i++) {
+            uncached.perform(get(FEATURED));
+            perform(get(FEATURED));
+            perform(get(FEATURED).header(HttpHeaders.IF_NONE_MATCH, etag));
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            uncached.perform(get(FEATURED));
+        }
+        double renderedUs = (threads.getCurrentThreadCpuTime() - start) / 1000.0 / requests;
+
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            perform(get(FEATURED));
+        }
+        double replayedUs = (threads.getCurrentThreadCpuTime() - start) / 1000.0 / requests;
+
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            perform(get(FEATURED).header(HttpHeaders.IF_NONE_MATCH, etag));
+        }
+        double notModifiedUs = (threads.getCurrentThreadCpuTime() - start) / 1000.0 / requests;
+
+        assertTrue(replayedUs < renderedUs, String.format(
+                "replayed responses should cost less CPU than rendering: %.1f vs %.1f us", replayedUs, renderedUs));
+        assertTrue(notModifiedUs < renderedUs, String.format(
+                "304s should cost less CPU than rendering: %.1f vs %.1f us", notModifiedUs, renderedUs));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static ProductSearchController controller(ProductSearchService searchService) {
+        ProductSearchController controller = new ProductSearchController();
+        ReflectionTestUtils.setField(controller, "productSearchService", searchService);
+        return controller;
+    }
+}
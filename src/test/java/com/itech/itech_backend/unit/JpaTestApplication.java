@@ -0,0 +1,22 @@
+package com.itech.itech_backend.unit;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configuration of a {@link JpaTestSlice}, nested in the test class: scans every entity and
+ * leaves the repositories ({@code @EnableJpaRepositories}) and beans ({@code @Import}) to the test
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootConfiguration
+@EntityScan(basePackages = {"com.itech.itech_backend", "com.itech.marketplace.entity"})
+public @interface JpaTestApplication {
+}
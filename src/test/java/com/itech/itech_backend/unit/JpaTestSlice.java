@@ -0,0 +1,31 @@
+package com.itech.itech_backend.unit;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice on an in-memory H2 schema built from the entities (no Flyway), with Hibernate
+ * statistics on. Test methods run outside a transaction so services commit as they would in
+ * production; tests clean up after themselves, or declare {@code @Transactional} to roll back.
+ * Extra properties go in {@code @TestPropertySource}, the context in a nested
+ * {@link JpaTestApplication}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface JpaTestSlice {
+}
@@ -0,0 +1,180 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.LlmGatewayProperties;
+import com.itech.itech_backend.config.RestTemplateConfig;
+import com.itech.itech_backend.modules.ai.service.LlmGateway;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LLM gateway tests against a local mock completion server
+ */
+@DisplayName("LLM Gateway Unit Tests")
+public class LlmGatewayTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int responseStatus = 200;
+    private volatile long responseDelayMs = 0;
+    private volatile boolean breakStream = false;
+
+    private LlmGateway gateway;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/v1/chat/completions", exchange -> {
+            requests.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] payload;
+            if (responseStatus != 200) {
+                payload = "{\"error\":\"upstream\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+            } else if (body.contains("\"stream\":true") && breakStream) {
+                payload = ("data: {\"choices\":[{\"delta\":{\"content\":\"Gold \"}}]}\n\n"
+                        + "data: {\"choices\":[{\"delta\":").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            } else if (body.contains("\"stream\":true")) {
+                payload = ("data: {\"choices\":[{\"delta\":{\"content\":\"Gold \"}}]}\n\n"
+                        + "data: {\"choices\":[{\"delta\":{\"content\":\"plan\"}}]}\n\n"
+                        + "data: [DONE]\n\n").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            } else {
+                payload = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"mock answer\"}}]}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+            }
+            exchange.sendResponseHeaders(responseStatus, payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        });
+        server.start();
+
+        LlmGatewayProperties properties = new LlmGatewayProperties();
+        properties.setMaxRetries(0);
+        properties.setFailureThreshold(2);
+        properties.setOpenStateMs(60000);
+        gateway = new LlmGateway(new RestTemplateConfig().openAiRestTemplate(properties), properties);
+        gateway.configureEndpoint("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions", "test-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should serve normalised duplicate prompts from cache")
+    void testNormalisedCacheHit() {
+        assertEquals("mock answer", gateway.complete("system", "What is the GOLD package price?", () -> "fallback"));
+        assertEquals("mock answer", gateway.complete("system", "  what is the gold\tpackage  price? ", () -> "fallback"));
+        assertEquals(1, requests.get(), "Second prompt should be a cache hit");
+
+        // Dropping words can change the question, so it is asked again
+        assertEquals("mock answer", gateway.complete("system", "what is gold package price?", () -> "fallback"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("Should coalesce identical in-flight prompts into one upstream call")
+    void testCoalescing() throws Exception {
+        responseDelayMs = 300;
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return gateway.complete("system", "bulk order discounts", () -> "fallback");
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertEquals("mock answer", result.get());
+        }
+        pool.shutdown();
+        assertEquals(1, requests.get(), "Concurrent identical prompts should share one call");
+    }
+
+    @Test
+    @DisplayName("Should open the circuit and fall back after repeated failures")
+    void testCircuitBreakerFallback() {
+        responseStatus = 500;
+        assertEquals("fallback", gateway.complete("system", "q1", () -> "fallback"));
+        assertEquals("fallback", gateway.complete("system", "q2", () -> "fallback"));
+        assertEquals("fallback", gateway.complete("system", "q3", () -> "fallback"));
+        assertEquals(2, requests.get(), "Open circuit should short-circuit the third call");
+        assertEquals("OPEN", gateway.getStats().get("circuitState"));
+    }
+
+    @Test
+    @DisplayName("Should stream tokens and cache the assembled answer")
+    void testStreaming() {
+        List<String> tokens = new ArrayList<>();
+        String full = gateway.stream("system", "which plan", tokens::add, () -> "fallback");
+
+        assertEquals("Gold plan", full);
+        assertEquals(List.of("Gold ", "plan"), tokens);
+
+        List<String> cachedTokens = new ArrayList<>();
+        assertEquals("Gold plan", gateway.stream("system", " Which  plan", cachedTokens::add, () -> "fallback"));
+        assertEquals(List.of("Gold plan"), cachedTokens);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("Should not count client disconnects against the circuit breaker")
+    void testClientDisconnect() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(LlmGateway.TokenDeliveryException.class,
+                    () -> gateway.stream("system", "which plan", token -> {
+                        throw new UncheckedIOException(new IOException("Broken pipe"));
+                    }, () -> "fallback"));
+        }
+
+        assertEquals(3, requests.get());
+        assertEquals("CLOSED", gateway.getStats().get("circuitState"));
+        assertEquals("mock answer", gateway.complete("system", "other question", () -> "fallback"));
+    }
+
+    @Test
+    @DisplayName("Should not append the fallback to a partially streamed answer")
+    void testInterruptedStream() {
+        breakStream = true;
+        List<String> tokens = new ArrayList<>();
+        assertThrows(LlmGateway.StreamInterruptedException.class,
+                () -> gateway.stream("system", "which plan", tokens::add, () -> "fallback"));
+        assertEquals(List.of("Gold "), tokens);
+
+        // A failure before the first token still falls back
+        responseStatus = 500;
+        List<String> fallbackTokens = new ArrayList<>();
+        assertEquals("fallback", gateway.stream("system", "which plan", fallbackTokens::add, () -> "fallback"));
+        assertEquals(List.of("fallback"), fallbackTokens);
+    }
+}
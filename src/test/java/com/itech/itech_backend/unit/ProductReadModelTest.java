@@ -0,0 +1,211 @@
+package com.itech.itech_backend.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
+import com.itech.itech_backend.modules.buyer.dto.ProductDetailDto;
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.Review;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.service.ProductSearchService;
+import com.itech.itech_backend.modules.buyer.service.RatingAggregateService;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.shared.dto.ProductSearchDto;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement budgets for the buyer product endpoints, measured with Hibernate statistics against
+ * the legacy entity-returning queries they replaced
+ */
+@JpaTestSlice
+@Transactional
+@DisplayName("Product Read Model Unit Tests")
+public class ProductReadModelTest {
+
+    private static final int VENDORS = 12;
+    private static final int PRODUCTS_PER_VENDOR = 5;
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerProductRepository.class, VendorsRepository.class})
+    @Import({ProductSearchService.class, RatingAggregateService.class})
+    static class ReadModelApplication {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private RatingAggregateService ratingAggregateService;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+
+    private Statistics statistics;
+    private Long categoryId;
+    private Long vendorId;
+    private Long productId;
+
+    private record Measurement(long statements, int bytes) {}
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        User buyer = entityManager.persist(user("buyer"));
+        Category[] categories = new Category[3];
+        MicroCategory[] microCategories = new MicroCategory[3];
+        for (int c = 0; c < categories.length; c++) {
+            categories[c] = entityManager.persist(Category.builder().name("Category " + c).build());
+            SubCategory sub = entityManager.persist(SubCategory.builder().name("Sub " + c).category(categories[c]).build());
+            microCategories[c] = entityManager.persist(MicroCategory.builder().name("Micro " + c).subCategory(sub).build());
+        }
+        for (int v = 0; v < VENDORS; v++) {
+            User owner = entityManager.persist(user("vendor" + v));
+            Vendors vendor = entityManager.persist(Vendors.builder()
+                    .user(owner).name("Vendor " + v).email("vendor" + v + "@example.com").password("x")
+                    .businessName("Business " + v).city("City " + (v % 4)).state("State").build());
+            for (int p = 0; p < PRODUCTS_PER_VENDOR; p++) {
+                int c = (v + p) % categories.length;
+                Product product = entityManager.persist(Product.builder()
+                        .name("Product " + v + "-" + p).description("Industrial item " + p)
+                        .price(100.0 + p).originalPrice(120.0 + p).stock(10).unit("piece")
+                        .imageUrls("/uploads/" + v + "-" + p + "-a.jpg,/uploads/" + v + "-" + p + "-b.jpg")
+                        .category(categories[c]).microCategory(microCategories[c]).vendor(vendor)
+                        .isApproved(true).isFeatured(p == 0).viewCount(v * p).build());
+                for (int r = 0; r < p % 3; r++) {
+                    entityManager.persist(Review.builder().user(buyer).product(product).vendor(vendor)
+                            .rating(3 + r).isApproved(true).build());
+                }
+                productId = product.getId();
+                vendorId = vendor.getId();
+            }
+        }
+        categoryId = categories[0].getId();
+        entityManager.flush();
+        ratingAggregateService.repair();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Listing endpoints use one statement per page (plus the count for paged results)")
+    void listingStatementBudgets() {
+        Pageable page = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+
+        assertEquals(2, statements(() -> productSearchService.searchProducts(ProductSearchDto.builder().build(), page)));
+        assertEquals(1, statements(() -> productSearchService.getFeaturedProducts(10)));
+        assertEquals(1, statements(() -> productSearchService.getRecentProducts(10)));
+        assertEquals(1, statements(() -> productSearchService.getTrendingProducts(10)));
+        assertEquals(2, statements(() -> productSearchService.getProductsByCategory(categoryId, page)));
+        // A short first page skips the count query
+        assertEquals(1, statements(() -> productSearchService.getProductsByVendor(vendorId, page)));
+        assertTrue(statements(() -> productSearchService.getSimilarProducts(productId, 8)) <= 2);
+
+        Page<ProductCardDto> vendorPage = productSearchService.getProductsByVendor(vendorId, page);
+        assertEquals(PRODUCTS_PER_VENDOR, vendorPage.getTotalElements());
+        ProductCardDto card = vendorPage.getContent().stream()
+                .filter(c -> c.getReviewCount() == 2).findFirst().orElseThrow();
+        assertEquals(3.5, card.getRating(), 1e-9);
+        assertEquals("Business " + (VENDORS - 1), card.getVendorName());
+        assertTrue(card.getPrimaryImage().endsWith("-a.jpg"));
+    }
+
+    @Test
+    @DisplayName("Product page is loaded by its fetch plan in a single statement")
+    void detailFetchPlan() throws Exception {
+        statistics.clear();
+        ProductDetailDto detail = ProductDetailDto.from(productRepository.findDetailById(productId).orElseThrow());
+        String json = objectMapper.writeValueAsString(detail);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNotNull(detail.getSubCategory());
+        assertEquals("Business " + (VENDORS - 1), detail.getVendor().getName());
+        assertFalse(json.contains("password"));
+    }
+
+    @Test
+    @DisplayName("Card projections cut statements and payload against the entity listings they replace")
+    void beforeAndAfter() {
+        Pageable page = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+
+        // Warm both paths so query plans are cached before measuring
+        serializedEntities(page);
+        serializedCards(page);
+
+        Measurement before = measure(() -> serializedEntities(page));
+        Measurement after = measure(() -> serializedCards(page));
+
+        assertEquals(2, after.statements());
+        assertTrue(before.statements() > after.statements(), "entities took " + before.statements() + " statements");
+        assertTrue(after.bytes() < before.bytes() / 2, after.bytes() + " bytes of cards vs " + before.bytes() + " of entities");
+    }
+
+    private String serializedEntities(Pageable page) {
+        Page<Product> products = productRepository.searchProducts(null, null, null, null, null, null,
+                null, null, null, null, page);
+        return write(products.getContent());
+    }
+
+    private String serializedCards(Pageable page) {
+        Page<ProductCardDto> cards = productRepository.searchProductCards(null, null, null, null, null, null,
+                null, null, null, null, null, page);
+        return write(cards.getContent());
+    }
+
+    private Measurement measure(Supplier<String> request) {
+        entityManager.clear();
+        statistics.clear();
+        String body = request.get();
+        return new Measurement(statistics.getPrepareStatementCount(), body.length());
+    }
+
+    private long statements(Supplier<?> call) {
+        entityManager.clear();
+        statistics.clear();
+        write(call.get());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(name + "@example.com").password("x").build();
+    }
+}
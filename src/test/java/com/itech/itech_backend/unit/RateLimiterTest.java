@@ -0,0 +1,307 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.shared.ratelimit.InMemoryTokenBucketStore;
+import com.itech.itech_backend.modules.shared.ratelimit.LoadShedder;
+import com.itech.itech_backend.modules.shared.ratelimit.RateLimitFilter;
+import com.itech.itech_backend.modules.shared.ratelimit.RouteClass;
+import com.itech.itech_backend.modules.shared.ratelimit.TokenBucketStore.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token buckets (burst, refill, concurrent takers), 429 and 503 responses of the filter, the
+ * checkout priority lane, client IPs behind proxies, and the per-request cost of the fast path
+ * (tagged {@code benchmark}).
+ */
+@DisplayName("Rate Limiter Unit Tests")
+public class RateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("A bucket allows its burst, refills at its rate and admits exactly the burst under contention")
+    void bucketsRefillAndHoldUnderContention() throws Exception {
+        AtomicLong clock = new AtomicLong(1_000_000_000L);
+        InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(1000, Duration.ofMinutes(5), clock::get);
+        Limit limit = Limit.perMinute(60, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.tryAcquire("ip:1", limit));
+        }
+        long wait = store.tryAcquire("ip:1", limit);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(0, store.tryAcquire("ip:2", limit), "other keys have their own bucket");
+
+        clock.addAndGet(wait);
+        assertEquals(0, store.tryAcquire("ip:1", limit));
+        assertTrue(store.tryAcquire("ip:1", limit) > 0);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.tryAcquire("ip:1", limit), "an idle bucket refills to its burst, not beyond");
+        }
+        assertTrue(store.tryAcquire("ip:1", limit) > 0);
+
+        // At the key cap, buckets that are full again are swept out; the rest stay tracked
+        InMemoryTokenBucketStore capped = new InMemoryTokenBucketStore(2, Duration.ZERO, clock::get);
+        assertEquals(0, capped.tryAcquire("ip:a", limit));
+        for (int i = 0; i < 5; i++) {
+            capped.tryAcquire("ip:b", limit);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, capped.tryAcquire("ip:c", limit));
+        assertEquals(2, capped.size());
+        // Two seconds refilled two of ip:b's tokens; a forgotten bucket would have five
+        assertEquals(0, capped.tryAcquire("ip:b", limit));
+        assertEquals(0, capped.tryAcquire("ip:b", limit));
+        assertTrue(capped.tryAcquire("ip:b", limit) > 0, "a bucket still refilling survives the sweep");
+
+        // 16 threads race for one bucket at a frozen instant
+        Limit burst = Limit.perMinute(1, 500);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int t = 0; t < 16; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (store.tryAcquire("u:scraper", burst) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(500, admitted.get());
+    }
+
+    @Test
+    @DisplayName("Clients over their limit get 429 with Retry-After, per IP, user and route class")
+    void limitsPerClientAndRouteClass() throws Exception {
+        RateLimitFilter filter = filter(new LoadShedder(100, 10));
+        FilterChain ok = (request, response) -> ((MockHttpServletResponse) response).setStatus(200);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(filter, post("/auth/login-otp", "10.0.0.1"), ok).getStatus());
+        }
+        MockHttpServletResponse limited = send(filter, post("/auth/login-otp", "10.0.0.1"), ok);
+        assertEquals(429, limited.getStatus());
+        assertEquals("6", limited.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(limited.getContentAsString().contains("Too Many Requests"));
+
+        assertEquals(200, send(filter, post("/auth/login-otp", "10.0.0.2"), ok).getStatus(), "another IP");
+        assertEquals(200, send(filter, get("/api/products/suggestions", "10.0.0.1"), ok).getStatus(), "another route class");
+        assertEquals(200, send(filter, get("/auth/profile", "10.0.0.1"), ok).getStatus(), "reads are not auth attempts");
+        assertEquals(200, send(filter, get("/actuator/health", "10.0.0.1"), ok).getStatus(), "exempt");
+
+        // Signed-in users are limited by name, wherever they connect from
+        authenticate("buyer@example.com");
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, send(filter, get("/api/products/advanced-search", "10.0.1." + i), ok).getStatus());
+        }
+        assertEquals(429, send(filter, get("/api/products/advanced-search", "10.0.2.1"), ok).getStatus());
+
+        assertEquals(1.0, registry.get("app.ratelimit.rejected").tags("route", "auth", "reason", "rate").counter().count());
+        assertEquals(1.0, registry.get("app.ratelimit.rejected").tags("route", "search", "reason", "rate").counter().count());
+    }
+
+    @Test
+    @DisplayName("Above the in-flight threshold requests get 503, except authenticated checkout")
+    void shedsLoadButKeepsThePriorityLane() throws Exception {
+        LoadShedder shedder = new LoadShedder(2, 1);
+        RateLimitFilter filter = filter(shedder);
+        FilterChain ok = (request, response) -> ((MockHttpServletResponse) response).setStatus(200);
+        MockHttpServletResponse[] inner = new MockHttpServletResponse[3];
+
+        // The outer request is still running while the inner ones arrive
+        FilterChain busy = (request, response) -> {
+            assertEquals(1, shedder.inFlight());
+            inner[0] = send(filter, get("/api/products/suggestions", "10.0.0.2"), ok);
+            inner[1] = send(filter, post("/api/checkout/place-order", "10.0.0.3"), ok);
+            authenticate("buyer@example.com");
+            inner[2] = send(filter, post("/api/checkout/place-order", "10.0.0.3"), ok);
+            SecurityContextHolder.clearContext();
+            ((MockHttpServletResponse) response).setStatus(200);
+        };
+        assertEquals(200, send(filter, get("/api/cart", "10.0.0.1"), busy).getStatus());
+
+        assertEquals(503, inner[0].getStatus());
+        assertEquals("1", inner[0].getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(503, inner[1].getStatus(), "anonymous checkout has no priority");
+        assertEquals(200, inner[2].getStatus());
+        assertEquals(0, shedder.inFlight());
+        assertEquals(2, shedder.shedCount());
+        assertEquals(1.0, registry.get("app.ratelimit.rejected").tags("route", "search", "reason", "shed").counter().count());
+        assertEquals(200, send(filter, get("/api/products/suggestions", "10.0.0.2"), ok).getStatus());
+    }
+
+    @Test
+    @DisplayName("Routes that hold no database connection are never shed")
+    void shedsOnlyDatabaseBoundRoutes() throws Exception {
+        LoadShedder shedder = new LoadShedder(1, 0);
+        RateLimitFilter filter = filter(shedder);
+        FilterChain ok = (request, response) -> ((MockHttpServletResponse) response).setStatus(200);
+        MockHttpServletResponse[] inner = new MockHttpServletResponse[4];
+
+        FilterChain busy = (request, response) -> {
+            inner[0] = send(filter, post("/api/chatbot/chat", "10.0.0.2"), ok);
+            inner[1] = send(filter, get("/sitemap.xml", "10.0.0.2"), ok);
+            inner[2] = send(filter, get("/sitemaps/products-1.xml", "10.0.0.2"), ok);
+            inner[3] = send(filter, get("/api/products/featured", "10.0.0.2"), ok);
+            ((MockHttpServletResponse) response).setStatus(200);
+        };
+        assertEquals(200, send(filter, get("/api/cart", "10.0.0.1"), busy).getStatus());
+
+        assertEquals(200, inner[0].getStatus(), "the chatbot waits on the model API");
+        assertEquals(200, inner[1].getStatus(), "sitemaps are files");
+        assertEquals(200, inner[2].getStatus());
+        assertEquals(503, inner[3].getStatus());
+        assertEquals(1, shedder.shedCount());
+        assertEquals(RouteClass.FILES, RouteClass.of("GET", "/sitemaps/products-1.xml"));
+        assertEquals(RouteClass.DEFAULT, RouteClass.of("POST", "/sitemaps/products-1.xml"));
+    }
+
+    @Test
+    @DisplayName("Behind trusted proxies the client is the rightmost untrusted X-Forwarded-For entry")
+    void takesTheClientFromTheRightmostUntrustedHop() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new InMemoryTokenBucketStore(10_000, Duration.ofMinutes(2)),
+                new LoadShedder(100, 10), Map.of(RouteClass.AUTH, Limit.perMinute(10, 1)),
+                List.of("10.0.0.0/8", "::1/128"), registry);
+        FilterChain ok = (request, response) -> ((MockHttpServletResponse) response).setStatus(200);
+
+        assertEquals(200, send(filter, forwarded("10.0.0.9", "198.51.100.7, 10.0.0.5"), ok).getStatus());
+        assertEquals(429, send(filter, forwarded("10.0.0.9", "198.51.100.7"), ok).getStatus());
+        // Entries left of the first untrusted hop come from the client and change nothing
+        for (int i = 0; i < 5; i++) {
+            assertEquals(429, send(filter, forwarded("10.0.0.9", "203.0.113." + i + ", 198.51.100.7"), ok).getStatus());
+        }
+        assertEquals(200, send(filter, forwarded("10.0.0.9", "198.51.100.8"), ok).getStatus(), "another client");
+
+        // A peer that is not a trusted proxy is the client, whatever it sends
+        assertEquals(200, send(filter, forwarded("192.0.2.1", "198.51.100.9"), ok).getStatus());
+        assertEquals(429, send(filter, forwarded("192.0.2.1", "198.51.100.10"), ok).getStatus());
+
+        // A garbage entry stops the walk at the last proxy; all-trusted chains use the leftmost hop
+        assertEquals(200, send(filter, forwarded("10.0.0.9", "not-an-ip, 10.0.0.6"), ok).getStatus());
+        assertEquals(429, send(filter, forwarded("10.0.0.6", null), ok).getStatus());
+        assertEquals(200, send(filter, forwarded("::1", "10.0.0.7, 10.0.0.8"), ok).getStatus());
+        assertEquals(429, send(filter, forwarded("10.0.0.7", null), ok).getStatus());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Fast path: cost added per admitted request")
+    void fastPathCost() throws Exception {
+        Map<RouteClass, Limit> unlimited = Map.of(
+                RouteClass.SEARCH, Limit.perMinute(1_000_000_000, 10_000),
+                RouteClass.DEFAULT, Limit.perMinute(1_000_000_000, 10_000));
+        RateLimitFilter filter = new RateLimitFilter(new InMemoryTokenBucketStore(100_000, Duration.ofMinutes(2)),
+                new LoadShedder(1000, 100), unlimited, List.of(), registry);
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[1024];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = get(i % 2 == 0 ? "/api/products/suggestions" : "/api/products/featured", "10.1." + (i / 256) + "." + (i % 256));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicLong handled = new AtomicLong();
+        FilterChain chain = (request, res) -> handled.incrementAndGet();
+
+        int iterations = 2_000_000;
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < iterations / 4; i++) {
+                chain.doFilter(requests[i & 1023], response);
+                filter.doFilter(requests[i & 1023], response, chain);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            chain.doFilter(requests[i & 1023], response);
+        }
+        long baseline = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            filter.doFilter(requests[i & 1023], response, chain);
+        }
+        long filtered = System.nanoTime() - start;
+
+        double addedNs = (filtered - baseline) / (double) iterations;
+        assertEquals(200, response.getStatus());
+        assertTrue(addedNs < 1000, "the fast path should add well under a microsecond, added " + addedNs + " ns");
+    }
+
+    private RateLimitFilter filter(LoadShedder shedder) {
+        Map<RouteClass, Limit> limits = Map.of(
+                RouteClass.AUTH, Limit.perMinute(10, 5),
+                RouteClass.SEARCH, Limit.perMinute(120, 30),
+                RouteClass.CHECKOUT, Limit.perMinute(60, 20),
+                RouteClass.DEFAULT, Limit.perMinute(600, 100));
+        return new RateLimitFilter(new InMemoryTokenBucketStore(10_000, Duration.ofMinutes(2)), shedder, limits, List.of(), registry);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, MockHttpServletRequest request, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String path, String ip) {
+        return request("GET", path, ip);
+    }
+
+    private static MockHttpServletRequest post(String path, String ip) {
+        return request("POST", path, ip);
+    }
+
+    private static MockHttpServletRequest forwarded(String peer, String forwardedFor) {
+        MockHttpServletRequest request = post("/auth/login-otp", peer);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
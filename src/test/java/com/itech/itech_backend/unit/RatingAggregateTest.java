@@ -0,0 +1,260 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.buyer.dto.ProductCardDto;
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.RatingSubjectType;
+import com.itech.itech_backend.modules.buyer.model.Review;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.repository.MicroCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.SubCategoryRepository;
+import com.itech.itech_backend.modules.buyer.service.ProductSearchService;
+import com.itech.itech_backend.modules.buyer.service.RatingAggregateService;
+import com.itech.itech_backend.modules.buyer.service.RatingAggregateService.RatingSummary;
+import com.itech.itech_backend.modules.buyer.service.ReviewService;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.dto.ProductSearchDto;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rating aggregates: approvals and deletes keep the per-product and per-vendor totals equal to a
+ * bulk rebuild, concurrent approvals never lose an increment, and rating filters and sorts read
+ * the precomputed values.
+ */
+@JpaTestSlice
+@DisplayName("Rating Aggregate Unit Tests")
+public class RatingAggregateTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerProductRepository.class, VendorsRepository.class, UserRepository.class})
+    @Import({RatingAggregateService.class, ReviewService.class, ProductSearchService.class})
+    static class RatingApplication {
+    }
+
+    @Autowired
+    private RatingAggregateService aggregates;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private BuyerCategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private MicroCategoryRepository microCategoryRepository;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> buyers = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+    private final List<Vendors> vendors = new ArrayList<>();
+
+    /**
+     * Two vendors; products 0 and 1 belong to the first, product 2 to the second
+     */
+    @BeforeEach
+    void seed() {
+        // Approvals of one product queue on its aggregate row; H2 gives up on a row lock after 1 s by default
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int v = 0; v < 2; v++) {
+                User owner = userRepository.save(User.builder().name("owner" + v).email("owner" + v + "@example.com").password("x").build());
+                vendors.add(vendorsRepository.save(Vendors.builder().user(owner).name("Vendor " + v)
+                        .email("vendor" + v + "@example.com").password("x").businessName("Vendor Co " + v).build()));
+            }
+            // The search filter joins the micro category path
+            Category category = categoryRepository.save(Category.builder().name("Category").build());
+            SubCategory sub = subCategoryRepository.save(SubCategory.builder().name("Sub").category(category).build());
+            MicroCategory micro = microCategoryRepository.save(MicroCategory.builder().name("Micro").subCategory(sub).build());
+            for (int p = 0; p < 3; p++) {
+                products.add(productRepository.save(Product.builder().name("Product " + p).price(10.0).stock(5)
+                        .microCategory(micro).vendor(vendors.get(p < 2 ? 0 : 1)).build()));
+            }
+            for (int b = 0; b < 50; b++) {
+                buyers.add(userRepository.save(User.builder().name("buyer" + b).email("buyer" + b + "@example.com").password("x").build()));
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("reviews", "rating_aggregates", "buyer_products", "buyer_micro_category",
+                "sub_categories", "buyer_category", "legacy_vendors", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("Approvals and deletes keep product and vendor totals equal to a bulk rebuild")
+    void changesMatchRepair() {
+        Long r5 = submit(0, 0, 5).getId();
+        Long r4 = submit(1, 0, 4).getId();
+        Long r2 = submit(2, 0, 2).getId();
+        Long pending = submit(3, 0, 1).getId();
+        Long other = submit(4, 2, 3).getId();
+        reviewService.createProductReview(review(5, 1, 4).isApproved(true).build());
+        for (Long id : List.of(r5, r4, r2, other)) {
+            reviewService.approveReview(id);
+        }
+        // Approving twice must not count twice
+        reviewService.approveReview(r5);
+        reviewService.deleteReview(r2);
+        reviewService.deleteReview(pending);
+
+        RatingSummary product0 = aggregates.summary(RatingSubjectType.PRODUCT, products.get(0).getId());
+        assertEquals(2, product0.count());
+        assertEquals(9, product0.sum());
+        assertEquals(List.of(0L, 0L, 0L, 1L, 1L), product0.histogram());
+        assertEquals(4.5, product0.averageRating(), 1e-9);
+        RatingSummary vendor0 = aggregates.summary(RatingSubjectType.VENDOR, vendors.get(0).getId());
+        assertEquals(3, vendor0.count());
+        assertEquals(13, vendor0.sum());
+
+        Map<String, Object> stats = reviewService.getProductRatingStats(products.get(0).getId());
+        assertEquals(4.5, stats.get("averageRating"));
+        assertEquals(2L, stats.get("totalReviews"));
+        assertEquals(2, ((List<?>) stats.get("ratingDistribution")).size());
+
+        Map<String, List<Long>> incremental = snapshot();
+        aggregates.repair();
+        assertEquals(incremental, snapshot());
+    }
+
+    @Test
+    @DisplayName("Concurrent approvals of one product's reviews never lose an increment")
+    void concurrentApprovalsAreAtomic() throws Exception {
+        List<Long> reviewIds = new ArrayList<>();
+        long expectedSum = 0;
+        for (int b = 0; b < 40; b++) {
+            int rating = 1 + b % 5;
+            reviewIds.add(submit(b, 1, rating).getId());
+            expectedSum += rating;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> approvals = new ArrayList<>();
+            for (Long id : reviewIds) {
+                approvals.add(pool.submit(() -> reviewService.approveReview(id)));
+            }
+            for (Future<?> approval : approvals) {
+                approval.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        RatingSummary product = aggregates.summary(RatingSubjectType.PRODUCT, products.get(1).getId());
+        assertEquals(40, product.count());
+        assertEquals(expectedSum, product.sum());
+        assertEquals(List.of(8L, 8L, 8L, 8L, 8L), product.histogram());
+        assertEquals(40, aggregates.summary(RatingSubjectType.VENDOR, vendors.get(0).getId()).count());
+    }
+
+    @Test
+    @DisplayName("Rating filter and Bayesian sort read the aggregates in the listing query")
+    void filterAndSortUsePrecomputedScores() {
+        // One 5-star review against twenty averaging 4.6: the single review must not rank first
+        approve(submit(0, 0, 5));
+        for (int b = 0; b < 20; b++) {
+            approve(submit(b, 1, b % 5 == 0 ? 3 : 5));
+        }
+        approve(submit(0, 2, 2));
+        aggregates.repair();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<ProductCardDto> rated = productSearchService.searchProducts(ProductSearchDto.builder().minRating(4.0).build(),
+                PageRequest.of(0, 10, Sort.by("rating").descending()));
+        assertEquals(List.of(products.get(1).getId(), products.get(0).getId()),
+                rated.getContent().stream().map(ProductCardDto::getId).toList());
+        assertEquals(20L, rated.getContent().get(0).getReviewCount());
+        assertEquals(4.6, rated.getContent().get(0).getRating(), 1e-9);
+        // No aggregation over reviews: the page reads the joined aggregate row
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Page<ProductCardDto> all = productSearchService.searchProducts(ProductSearchDto.builder().build(),
+                PageRequest.of(0, 10, Sort.by("rating").ascending()));
+        assertEquals(products.get(2).getId(), all.getContent().get(0).getId());
+        assertEquals(3, all.getTotalElements());
+    }
+
+    private Review submit(int buyer, int product, int rating) {
+        return reviewService.createProductReview(review(buyer, product, rating).build());
+    }
+
+    private void approve(Review review) {
+        reviewService.approveReview(review.getId());
+    }
+
+    private Review.ReviewBuilder review(int buyer, int product, int rating) {
+        return Review.builder().user(buyers.get(buyer)).product(products.get(product))
+                .vendor(products.get(product).getVendor()).rating(rating);
+    }
+
+    private Map<String, List<Long>> snapshot() {
+        Map<String, List<Long>> totals = new HashMap<>();
+        for (RatingSubjectType type : RatingSubjectType.values()) {
+            List<Long> ids = type == RatingSubjectType.PRODUCT
+                    ? products.stream().map(Product::getId).toList()
+                    : vendors.stream().map(Vendors::getId).toList();
+            aggregates.summaries(type, ids).forEach((id, summary) -> {
+                List<Long> values = new ArrayList<>(List.of(summary.count(), summary.sum()));
+                values.addAll(summary.histogram());
+                totals.put(type + "-" + id, values);
+            });
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,199 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.SecondLevelCacheConfig;
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.SubCategoryRepository;
+import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.city.repository.CityRepository;
+import com.itech.itech_backend.modules.dataentry.entity.State;
+import com.itech.itech_backend.modules.dataentry.repository.StateRepository;
+import com.itech.itech_backend.modules.shared.cache.ReferenceCacheInvalidator;
+import com.itech.itech_backend.modules.shared.cache.ReferenceDataCache;
+import com.itech.itech_backend.modules.shared.cache.SecondLevelCacheEndpoint;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement counts for catalogue lookups with the reference-data second-level cache. Each page
+ * render runs in its own transaction, as a request would, so only the shared cache can save a
+ * round trip.
+ */
+@JpaTestSlice
+@DisplayName("Reference Data Cache Unit Tests")
+public class ReferenceDataCacheTest {
+
+    private static final int CATEGORIES = 6;
+    private static final int SUB_CATEGORIES = 4;
+    private static final int CITIES = 25;
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerCategoryRepository.class, CityRepository.class, StateRepository.class})
+    @Import({SecondLevelCacheConfig.class, ReferenceCacheInvalidator.class, SecondLevelCacheEndpoint.class})
+    static class CacheApplication {
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BuyerCategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private StateRepository stateRepository;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private ReferenceCacheInvalidator invalidator;
+
+    @Autowired
+    private SecondLevelCacheEndpoint endpoint;
+
+    private TransactionTemplate tx;
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private Long stateId;
+    private Long categoryId;
+
+    @BeforeEach
+    void seed() {
+        tx = new TransactionTemplate(transactionManager);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+
+        tx.executeWithoutResult(status -> {
+            for (int c = 0; c < CATEGORIES; c++) {
+                Category category = categoryRepository.save(Category.builder().name("Category " + c).displayOrder(c).build());
+                for (int s = 0; s < SUB_CATEGORIES; s++) {
+                    subCategoryRepository.save(SubCategory.builder().name("Sub " + c + "-" + s).category(category).build());
+                }
+                categoryId = category.getId();
+            }
+            State state = stateRepository.save(State.builder().name("Maharashtra").country("India").build());
+            for (int i = 0; i < CITIES; i++) {
+                cityRepository.save(City.builder().name("City " + i).country("India").state(state).build());
+            }
+            stateId = state.getId();
+        });
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        tx.executeWithoutResult(status -> {
+            cityRepository.deleteAllInBatch();
+            stateRepository.deleteAllInBatch();
+            subCategoryRepository.deleteAllInBatch();
+            categoryRepository.deleteAllInBatch();
+        });
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("A warm catalogue page is served without touching the database")
+    void catalogueStatementsDrop() {
+        long cold = statements(this::renderCataloguePage);
+        long warm = statements(this::renderCataloguePage);
+
+        assertTrue(cold >= CATEGORIES + 3, "cold page took " + cold + " statements");
+        assertEquals(0, warm);
+        assertEquals(CATEGORIES * (1 + SUB_CATEGORIES) + CITIES + 1, renderCataloguePage());
+    }
+
+    @Test
+    @DisplayName("Committed changes refresh entities and invalidate parent collections and query results")
+    void localInvalidation() {
+        renderCataloguePage();
+
+        tx.executeWithoutResult(status -> {
+            Category category = categoryRepository.findById(categoryId).orElseThrow();
+            category.setName("Renamed");
+            State state = stateRepository.findById(stateId).orElseThrow();
+            cityRepository.save(City.builder().name("New City").country("India").state(state).build());
+        });
+
+        assertFalse(sessionFactory.getCache().containsCollection(State.class.getName() + ".cities", stateId));
+        tx.executeWithoutResult(status -> {
+            assertEquals(CITIES + 1, stateRepository.findById(stateId).orElseThrow().getCities().size());
+            assertEquals(CITIES + 1, cityRepository.findAllForDropdown().size());
+            assertTrue(categoryRepository.findAllActive().stream().anyMatch(c -> "Renamed".equals(c.getName())));
+        });
+    }
+
+    @Test
+    @DisplayName("Invalidations from another node evict the entity and all query results")
+    void remoteInvalidation() {
+        renderCataloguePage();
+        assertTrue(sessionFactory.getCache().containsEntity(Category.class, categoryId));
+
+        invalidator.onInvalidation("other-node|" + Category.class.getName() + "|" + categoryId);
+
+        assertFalse(sessionFactory.getCache().containsEntity(Category.class, categoryId));
+        assertTrue(sessionFactory.getCache().containsEntity(City.class,
+                cityRepository.findAllForDropdown().get(0).getId()));
+        assertTrue(statements(this::renderCataloguePage) > 0);
+        assertEquals(0, statements(this::renderCataloguePage));
+    }
+
+    @Test
+    @DisplayName("Statistics endpoint reports per-region hit ratio")
+    @SuppressWarnings("unchecked")
+    void regionStatistics() {
+        renderCataloguePage();
+        renderCataloguePage();
+
+        Map<String, Object> category = endpoint.region(ReferenceDataCache.CATEGORY);
+        assertNotNull(category);
+        assertTrue((Long) category.get("hits") > 0);
+        assertTrue((Double) category.get("hitRatio") > 0.0);
+        assertEquals((long) CATEGORIES, category.get("size"));
+
+        Map<String, Object> regions = (Map<String, Object>) endpoint.regions().get("regions");
+        assertTrue(regions.containsKey(ReferenceDataCache.QUERY_LOCATIONS));
+        assertTrue(regions.containsKey(ReferenceDataCache.UPDATE_TIMESTAMPS));
+        assertNull(endpoint.region("no-such-region"));
+    }
+
+    // Category tree, state city list and city dropdown; returns the number of rows shown
+    private int renderCataloguePage() {
+        Integer rows = tx.execute(status -> {
+            int shown = 0;
+            for (Category category : categoryRepository.findAllActive()) {
+                shown += 1 + category.getSubCategories().size();
+            }
+            shown += stateRepository.findById(stateId).orElseThrow().getCities().size();
+            shown += cityRepository.findAllForDropdown().isEmpty() ? 0 : 1;
+            return shown;
+        });
+        return rows;
+    }
+
+    private long statements(Runnable request) {
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
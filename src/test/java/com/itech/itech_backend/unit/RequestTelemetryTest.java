@@ -0,0 +1,169 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.TelemetryConfig;
+import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.city.repository.CityRepository;
+import com.itech.itech_backend.modules.shared.telemetry.RequestTelemetry;
+import com.itech.itech_backend.modules.shared.telemetry.RequestTelemetryInterceptor;
+import com.itech.itech_backend.modules.shared.telemetry.SlowQueryLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Request telemetry: handler timers, SQL counts captured through Hibernate, N+1 detection, the
+ * slow-query ring buffer, and nothing registered when disabled.
+ */
+@JpaTestSlice
+@TestPropertySource(properties = {
+        "app.telemetry.slow-query.threshold-ms=0",
+        "app.telemetry.slow-query.capacity=5",
+        "app.telemetry.n-plus-one.max-repeats=10"
+})
+@Transactional
+@DisplayName("Request Telemetry Unit Tests")
+public class RequestTelemetryTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = CityRepository.class)
+    @Import(TelemetryConfig.class)
+    static class TelemetryApplication {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    static class CityListController {
+        public void list() {
+        }
+    }
+
+    @Autowired
+    private RequestTelemetryInterceptor interceptor;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> cityIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 12; i++) {
+            cityIds.add(cityRepository.save(City.builder()
+                    .name("Telemetry City " + i).stateProvince("Kerala").country("India").build()).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        slowQueryLog.clear();
+        meterRegistry.clear();
+    }
+
+    @Test
+    @DisplayName("A request loading rows one by one is timed, counted and flagged as an N+1")
+    void nPlusOneRequest() throws Exception {
+        MockHttpServletResponse response = handle(() -> cityIds.forEach(id -> cityRepository.findById(id)));
+
+        Timer timer = meterRegistry.find("app.handler.requests")
+                .tags("handler", "CityListController.list", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(12.0, meterRegistry.get("app.handler.sql.statements")
+                .tag("handler", "CityListController.list").summary().max());
+        assertTrue(meterRegistry.get("app.handler.sql.time").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(1.0, meterRegistry.get("app.handler.n_plus_one").counter().count());
+        assertNotNull(response.getHeader("X-Request-ID"));
+
+        // Threshold 0 ms records every statement; the buffer keeps the newest five
+        List<SlowQueryLog.SlowQuery> slow = slowQueryLog.recent();
+        assertEquals(5, slow.size());
+        assertTrue(slow.get(0).sql().toLowerCase().contains("from cities"), slow.get(0).sql());
+        assertEquals("CityListController.list", slow.get(0).handler());
+        assertEquals(response.getHeader("X-Request-ID"), slow.get(0).requestId());
+    }
+
+    @Test
+    @DisplayName("A request with one query is not flagged, and queries outside a request are not counted")
+    void quietRequest() throws Exception {
+        handle(() -> cityRepository.findAllById(cityIds));
+
+        assertEquals(1.0, meterRegistry.get("app.handler.sql.statements").summary().max());
+        assertNull(meterRegistry.find("app.handler.n_plus_one").counter());
+
+        assertNull(RequestTelemetry.current());
+        cityRepository.findAll();
+        assertNull(RequestTelemetry.current());
+    }
+
+    @Test
+    @DisplayName("The slow-query buffer overwrites its oldest entries and returns newest first")
+    void slowQueryRing() {
+        SlowQueryLog log = new SlowQueryLog(3, 100);
+        for (int i = 0; i < 7; i++) {
+            log.record(new SlowQueryLog.SlowQuery(Instant.now(), 100 + i, "select " + i, null, null));
+        }
+        assertEquals(List.of("select 6", "select 5", "select 4"),
+                log.recent().stream().map(SlowQueryLog.SlowQuery::sql).toList());
+        assertEquals(7, log.getRecorded());
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(0, 100));
+    }
+
+    @Test
+    @DisplayName("Disabled telemetry registers no interceptor, Hibernate hook or endpoint state")
+    void disabled() {
+        new ApplicationContextRunner()
+                .withPropertyValues("app.telemetry.enabled=false")
+                .withUserConfiguration(TelemetryConfig.class)
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(RequestTelemetryInterceptor.class).isEmpty());
+                    assertTrue(context.getBeansOfType(SlowQueryLog.class).isEmpty());
+                });
+    }
+
+    private MockHttpServletResponse handle(Runnable work) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cities");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HandlerMethod handler = new HandlerMethod(new CityListController(), CityListController.class.getMethod("list"));
+
+        assertTrue(interceptor.preHandle(request, response, handler));
+        try {
+            work.run();
+            entityManager.clear();
+        } finally {
+            interceptor.afterCompletion(request, response, handler, null);
+        }
+        return response;
+    }
+}
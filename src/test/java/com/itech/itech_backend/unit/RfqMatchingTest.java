@@ -0,0 +1,210 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.rfq.model.RFQ;
+import com.itech.itech_backend.modules.rfq.repository.RFQInvitationRepository;
+import com.itech.itech_backend.modules.rfq.service.RfqInvitationDispatcher;
+import com.itech.itech_backend.modules.rfq.service.RfqMatchingService;
+import com.itech.itech_backend.modules.rfq.service.SupplierCapabilityIndex;
+import com.itech.itech_backend.modules.rfq.service.SupplierCapabilityIndex.Criteria;
+import com.itech.itech_backend.modules.rfq.service.SupplierCapabilityIndex.Match;
+import com.itech.itech_backend.modules.rfq.service.SupplierCapabilityIndex.Supplier;
+import com.itech.itech_backend.modules.shared.service.NotificationService;
+import com.itech.itech_backend.modules.vendor.repository.VendorReviewRepository;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * RFQ supplier matching: index filters and ranking, build retries, invitation throttling, and a benchmark
+ * of 10k RFQs against 200k vendors (tagged {@code benchmark})
+ */
+@DisplayName("RFQ Matching Unit Tests")
+public class RfqMatchingTest {
+
+    @Test
+    @DisplayName("Matches intersect category, region and rating, best first")
+    void filtersAndRanking() {
+        SupplierCapabilityIndex index = new SupplierCapabilityIndex();
+        index.upsert(new Supplier(1, 101L, "Pune", "Maharashtra", 4.6, true, Set.of("Steel Pipes", "Industrial Supplies")));
+        index.upsert(new Supplier(2, 102L, "Mumbai", "Maharashtra", 3.2, false, Set.of("steel pipes")));
+        index.upsert(new Supplier(3, 103L, "Ahmedabad", "Gujarat", 4.9, true, Set.of("Steel Pipes")));
+        index.upsert(new Supplier(4, 104L, "Pune", "Maharashtra", 4.8, true, Set.of("Cotton Fabric")));
+
+        List<Match> all = index.match(new Criteria("STEEL PIPES", null, List.of(), List.of("Pune")), 10);
+        assertEquals(List.of(1L, 3L, 2L), all.stream().map(Match::vendorId).toList(),
+                "local verified supplier ranks above a better rated one elsewhere");
+
+        List<Match> maharashtra = index.match(new Criteria("Steel Pipes", null, List.of("Maharashtra"), List.of()), 10);
+        assertEquals(Set.of(1L, 2L), maharashtra.stream().map(Match::vendorId).collect(java.util.stream.Collectors.toSet()));
+
+        // 4.6 and 4.9 pass, 3.2 does not; 4.55 lands in the 4.5 band so the exact check matters
+        List<Match> rated = index.match(new Criteria("Steel Pipes", 4.55, List.of(), List.of()), 10);
+        assertEquals(List.of(3L, 1L), rated.stream().map(Match::vendorId).toList());
+
+        // Nationwide preferences do not restrict the match; regions nobody serves match nobody
+        assertEquals(3, index.match(new Criteria("Steel Pipes", null, List.of("PAN India"), List.of()), 10).size());
+        assertTrue(index.match(new Criteria("Steel Pipes", null, List.of("Chennai"), List.of()), 10).isEmpty());
+        assertEquals(List.of(3L), index.match(new Criteria("Steel Pipes", null, List.of("Chennai", "Gujarat"), List.of()), 10)
+                .stream().map(Match::vendorId).toList());
+        assertTrue(index.match(new Criteria("Unknown", null, List.of(), List.of()), 10).isEmpty());
+        assertEquals(1, index.match(new Criteria("Steel Pipes", null, List.of(), List.of()), 1).size());
+    }
+
+    @Test
+    @DisplayName("Re-indexing a vendor replaces its old capabilities and regions")
+    void upsertAndRemove() {
+        SupplierCapabilityIndex index = new SupplierCapabilityIndex();
+        index.upsert(new Supplier(1, 101L, "Pune", "Maharashtra", 4.0, true, Set.of("Steel Pipes")));
+        index.upsert(new Supplier(1, 101L, "Surat", "Gujarat", 2.0, true, Set.of("Textiles")));
+
+        assertTrue(index.match(new Criteria("Steel Pipes", null, List.of(), List.of()), 10).isEmpty());
+        assertTrue(index.match(new Criteria("Textiles", 3.0, List.of(), List.of()), 10).isEmpty());
+        assertEquals(1, index.match(new Criteria("Textiles", null, List.of("Gujarat"), List.of()), 10).size());
+        assertTrue(index.match(new Criteria("Textiles", null, List.of("Maharashtra"), List.of()), 10).isEmpty(),
+                "the vendor no longer serves Maharashtra");
+
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertTrue(index.match(new Criteria("Textiles", null, List.of(), List.of()), 10).isEmpty());
+
+        // Freed ordinals are reused without leaking old bits
+        index.upsert(new Supplier(2, 102L, "Delhi", "Delhi", 5.0, false, Set.of("Spices")));
+        assertEquals(List.of(2L), index.match(new Criteria("Spices", 4.5, List.of("Delhi"), List.of()), 10)
+                .stream().map(Match::vendorId).toList());
+    }
+
+    @Test
+    @DisplayName("Throttled vendors are skipped and the next on the shortlist is invited")
+    void dispatcherThrottlesPerVendor() {
+        RFQInvitationRepository repository = mock(RFQInvitationRepository.class);
+        NotificationService notifications = mock(NotificationService.class);
+        RfqInvitationDispatcher dispatcher = new RfqInvitationDispatcher(repository, notifications, 2, 60);
+        ReflectionTestUtils.setField(dispatcher, "maxPerRfq", 2);
+
+        List<Match> ranked = List.of(new Match(1, 101L, 90), new Match(2, 102L, 80), new Match(3, 103L, 70));
+        assertEquals(2, dispatcher.dispatch(rfq(1L), ranked));
+        assertEquals(2, dispatcher.dispatch(rfq(2L), ranked));
+        // Vendors 1 and 2 have used their two invitations, so only vendor 3 is left
+        assertEquals(1, dispatcher.dispatch(rfq(3L), ranked));
+        assertEquals(1, dispatcher.dispatch(rfq(4L), ranked));
+        assertEquals(0, dispatcher.dispatch(rfq(5L), ranked));
+
+        verify(notifications, times(6)).notifyRfqInvitation(anyLong(), anyString(), any());
+        verify(notifications, times(2)).notifyRfqInvitation(eq(103L), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("A failed first build is retried and queued RFQs are matched afterwards, up to a cap")
+    void retriesFirstBuild() {
+        VendorsRepository vendors = mock(VendorsRepository.class);
+        when(vendors.findSupplierChunk(anyLong(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of());
+        RfqMatchingService service = new RfqMatchingService(vendors, mock(BuyerProductRepository.class),
+                mock(VendorReviewRepository.class), Runnable::run);
+        ReflectionTestUtils.setField(service, "chunkSize", 100);
+        ReflectionTestUtils.setField(service, "shortlistSize", 10);
+        ReflectionTestUtils.setField(service, "maxQueued", 1);
+
+        List<Long> matched = new ArrayList<>();
+        service.start();
+        assertFalse(service.isReady());
+        service.shortlistAsync(rfq(1L), matches -> matched.add(1L));
+        service.shortlistAsync(rfq(2L), matches -> matched.add(2L)); // over the cap, dropped
+        assertTrue(matched.isEmpty());
+
+        service.rebuildIfNeeded();
+        assertTrue(service.isReady());
+        assertEquals(List.of(1L), matched);
+
+        service.rebuildIfNeeded();
+        verify(vendors, times(2)).findSupplierChunk(anyLong(), any());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: 10k RFQs matched against 200k vendors")
+    void benchmarkTenThousandRfqsAgainstTwoHundredThousandVendors() throws Exception {
+        Random random = new Random(31);
+        int categories = 2_000;
+        int states = 30;
+        int citiesPerState = 20;
+
+        SupplierCapabilityIndex index = new SupplierCapabilityIndex();
+        for (long vendorId = 1; vendorId <= 200_000; vendorId++) {
+            int state = random.nextInt(states);
+            Set<String> capabilities = new java.util.HashSet<>();
+            int count = 1 + random.nextInt(5);
+            for (int i = 0; i < count; i++) {
+                capabilities.add("category-" + zipf(random, categories));
+            }
+            index.upsert(new Supplier(vendorId, vendorId, "city-" + state + "-" + random.nextInt(citiesPerState),
+                    "state-" + state, Math.round(random.nextDouble() * 50) / 10.0, random.nextBoolean(), capabilities));
+        }
+        assertEquals(200_000, index.size());
+
+        List<Criteria> rfqs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int state = random.nextInt(states);
+            rfqs.add(new Criteria(
+                    "category-" + zipf(random, categories),
+                    random.nextInt(3) == 0 ? 3.5 : null,
+                    random.nextInt(4) == 0 ? List.of("state-" + state) : List.of(),
+                    List.of("city-" + state + "-" + random.nextInt(citiesPerState), "state-" + state)));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            index.match(rfqs.get(i), 50); // warm up
+        }
+
+        // Matching runs concurrently with a trickle of vendor updates, as in production
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        Future<?> updates = writer.submit(() -> {
+            Random updateRandom = new Random(5);
+            for (int i = 0; i < 2_000; i++) {
+                long vendorId = 1 + updateRandom.nextInt(200_000);
+                index.upsert(new Supplier(vendorId, vendorId, "city-0-0", "state-0", 4.0, true,
+                        Set.of("category-" + zipf(updateRandom, categories))));
+            }
+        });
+
+        long matchStart = System.nanoTime();
+        for (Criteria rfq : rfqs) {
+            index.match(rfq, 50);
+        }
+        long matchNanos = System.nanoTime() - matchStart;
+        updates.get(30, TimeUnit.SECONDS);
+        writer.shutdown();
+
+        double perRfqMicros = matchNanos / 1_000.0 / rfqs.size();
+        double rfqsPerMinute = rfqs.size() / (matchNanos / 60e9);
+        assertTrue(rfqsPerMinute > 10_000, "must sustain 10k RFQs per minute, managed " + Math.round(rfqsPerMinute));
+        assertTrue(perRfqMicros < 50_000, "each RFQ should shortlist in milliseconds, took " + perRfqMicros + " us");
+    }
+
+    private static RFQ rfq(Long id) {
+        return RFQ.builder().id(id).title("Steel pipes").category("Steel Pipes").build();
+    }
+
+    // Popular categories have far more vendors than niche ones
+    private static int zipf(Random random, int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.pow(n, random.nextDouble())) - 1);
+    }
+}
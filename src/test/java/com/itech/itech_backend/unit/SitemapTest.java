@@ -0,0 +1,361 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.city.model.City;
+import com.itech.itech_backend.modules.city.repository.CityRepository;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.controller.SitemapController;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.shared.seo.SitemapService;
+import com.itech.itech_backend.modules.shared.seo.SitemapService.GenerationResult;
+import com.itech.itech_backend.modules.shared.seo.SitemapWriter;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sitemap generation: only shards with changed, deleted or deactivated rows are rewritten,
+ * files are published under immutable versioned names and served through sendfile or a channel
+ * copy, the startup reconcile runs on one node, plus a 5M-URL generation benchmark (tagged
+ * {@code benchmark}).
+ */
+@JpaTestSlice
+@TestPropertySource(properties = {
+        "seo.sitemap.base-url=https://itech.example",
+        "seo.sitemap.urls-per-shard=100",
+        "seo.sitemap.watermark-overlap-seconds=0"
+})
+@DisplayName("Sitemap Unit Tests")
+public class SitemapTest {
+
+    private static final int BENCHMARK_URLS = Integer.getInteger("sitemap.benchmark.urls", 5_000_000);
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerProductRepository.class, VendorsRepository.class, UserRepository.class,
+            CityRepository.class})
+    @Import({SitemapService.class, SitemapController.class, ClusterLock.class})
+    static class SitemapApplication {
+    }
+
+    @DynamicPropertySource
+    static void sitemapDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("sitemaps");
+        registry.add("seo.sitemap.directory", directory::toString);
+    }
+
+    @Autowired
+    private SitemapService sitemapService;
+
+    @Autowired
+    private SitemapController sitemapController;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private BuyerCategoryRepository categoryRepository;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").password("x").build());
+            Vendors vendor = vendorsRepository.save(Vendors.builder().user(owner).name("Steel Works")
+                    .email("vendor@example.com").password("x").businessName("Steel Works Pvt").build());
+            for (int i = 0; i < 350; i++) {
+                productIds.add(productRepository.save(Product.builder().name("Product " + i).price(10.0).stock(5)
+                        .isApproved(true).vendor(vendor).build()).getId());
+            }
+            productRepository.save(Product.builder().name("Pending").price(1.0).stock(1).vendor(vendor).build());
+            categoryRepository.save(Category.builder().name("Tools & Hardware").slug("tools-&-hardware").build());
+            cityRepository.save(City.builder().name("Pune").country("India").slug("pune").build());
+        });
+        sitemapService.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("buyer_products", "buyer_category", "cities", "legacy_vendors", "users", "cluster_locks")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        sitemapService.reconcile();
+        productIds.clear();
+    }
+
+    @Test
+    @DisplayName("Only shards holding changed, deleted or deactivated rows are rewritten")
+    void rewritesOnlyChangedShards() throws IOException {
+        List<Long> shards = productIds.stream().map(id -> id / 100).distinct().toList();
+        String index = Files.readString(sitemapService.index());
+        for (long shard : shards) {
+            String file = sitemapService.currentFile("products-" + shard + ".xml.gz");
+            assertTrue(file.matches("products-" + shard + "-[0-9a-f]{16}\\.xml\\.gz"), file);
+            assertTrue(index.contains("<loc>https://itech.example/sitemaps/" + file + "</loc>"));
+        }
+        String categories = read(current("categories-" + (categoryId() / 100)));
+        assertTrue(categories.contains("<loc>https://itech.example/categories/tools-&amp;-hardware</loc>"));
+        assertEquals(0, sitemapService.generate().shardsWritten(), "nothing changed since the previous run");
+
+        // An update through Hibernate moves the watermark of its shard only
+        Long first = productIds.get(0);
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(first).orElseThrow();
+            product.setName("Renamed");
+            productRepository.save(product);
+        });
+        GenerationResult updated = sitemapService.generate();
+        assertEquals(1, updated.shardsWritten());
+        assertEquals(productIds.stream().filter(id -> id / 100 == first / 100).count(), updated.urls());
+
+        // A delete on this node is reported by its event
+        Long second = productIds.get(1);
+        productRepository.deleteById(second);
+        assertEquals(1, sitemapService.generate().shardsWritten());
+        assertFalse(shardOf(second).contains("/products/" + second + "<"));
+
+        // Deactivating elsewhere bumps updated_at, which the watermark picks up
+        Long last = productIds.get(productIds.size() - 1);
+        jdbcTemplate.update("UPDATE buyer_products SET is_active = FALSE, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(1)), last);
+        assertEquals(1, sitemapService.generate().shardsWritten());
+        assertFalse(shardOf(last).contains("/products/" + last + "<"));
+        assertTrue(shardOf(last).contains("/products/" + (last - 1) + "<"));
+
+        // Hard deletes without an event are left for the reconcile, which also drops emptied shards
+        Long third = productIds.get(2);
+        jdbcTemplate.update("DELETE FROM buyer_products WHERE id = ?", third);
+        assertEquals(0, sitemapService.generate().shardsWritten());
+        assertEquals(1, sitemapService.reconcile().shardsWritten());
+        assertFalse(shardOf(third).contains("/products/" + third + "<"));
+
+        long lastShard = last / 100;
+        jdbcTemplate.update("DELETE FROM buyer_products WHERE id >= ?", lastShard * 100);
+        GenerationResult emptied = sitemapService.reconcile();
+        assertEquals(1, emptied.shardsRemoved());
+        assertNull(sitemapService.currentFile("products-" + lastShard + ".xml.gz"));
+        assertFalse(Files.readString(sitemapService.index()).contains("products-" + lastShard + "-"));
+    }
+
+    @Test
+    @DisplayName("Rewritten shards get new names; old versions stay servable for the retention, then redirect")
+    void publishesVersionedFiles() throws Exception {
+        String stem = "products-" + (productIds.get(0) / 100);
+        String before = sitemapService.currentFile(stem + ".xml.gz");
+        Path beforeIndex = sitemapService.index();
+        byte[] beforeBytes = Files.readAllBytes(sitemapService.file(before));
+
+        // Unchanged content is written under the same name
+        jdbcTemplate.update("UPDATE buyer_products SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(1)), productIds.get(0));
+        assertEquals(1, sitemapService.generate().shardsWritten());
+        assertEquals(before, sitemapService.currentFile(stem + ".xml.gz"), "the same bytes keep their name");
+
+        jdbcTemplate.update("UPDATE buyer_products SET is_active = FALSE, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(2)), productIds.get(0));
+        assertEquals(1, sitemapService.generate().shardsWritten());
+        String after = sitemapService.currentFile(stem + ".xml.gz");
+        assertNotEquals(before, after);
+        assertNotEquals(beforeIndex, sitemapService.index());
+        assertArrayEquals(beforeBytes, Files.readAllBytes(sitemapService.file(before)), "a published file never changes");
+        assertTrue(Files.exists(beforeIndex));
+
+        MockHttpServletResponse retained = new MockHttpServletResponse();
+        sitemapController.getShard(before, new MockHttpServletRequest("GET", "/sitemaps/" + before), retained);
+        assertEquals(200, retained.getStatus());
+        assertEquals("public, max-age=31536000, immutable", retained.getHeader("Cache-Control"));
+
+        // Names from before versioning, and versions past their retention, go to the current file
+        MockHttpServletResponse unversioned = new MockHttpServletResponse();
+        sitemapController.getShard(stem + ".xml.gz", new MockHttpServletRequest("GET", "/sitemaps/" + stem + ".xml.gz"),
+                unversioned);
+        assertEquals(302, unversioned.getStatus());
+        assertEquals(after, unversioned.getRedirectedUrl());
+
+        ReflectionTestUtils.setField(sitemapService, "retention", Duration.ZERO);
+        try {
+            sitemapService.generate();
+        } finally {
+            ReflectionTestUtils.setField(sitemapService, "retention", Duration.ofSeconds(600));
+        }
+        assertNull(sitemapService.file(before));
+        assertFalse(Files.exists(beforeIndex));
+        MockHttpServletResponse expired = new MockHttpServletResponse();
+        sitemapController.getShard(before, new MockHttpServletRequest("GET", "/sitemaps/" + before), expired);
+        assertEquals(after, expired.getRedirectedUrl());
+        assertNotNull(sitemapService.file(after));
+    }
+
+    @Test
+    @DisplayName("The startup reconcile runs on the node holding the lease; the others only write changes")
+    void reconcilesOnStartUnderLease() throws IOException {
+        Long deleted = productIds.get(0);
+        jdbcTemplate.update("DELETE FROM buyer_products WHERE id = ?", deleted);
+        jdbcTemplate.update("INSERT INTO cluster_locks (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)",
+                "sitemap-reconcile", Timestamp.valueOf(LocalDateTime.now().plusMinutes(5)),
+                Timestamp.valueOf(LocalDateTime.now()), "other-node");
+
+        assertEquals(0, sitemapService.run());
+        assertTrue(shardOf(deleted).contains("/products/" + deleted + "<"), "left for the node holding the lease");
+
+        jdbcTemplate.update("UPDATE cluster_locks SET locked_until = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertTrue(sitemapService.run() > 0);
+        assertFalse(shardOf(deleted).contains("/products/" + deleted + "<"));
+        assertFalse(jdbcTemplate.queryForObject("SELECT locked_until FROM cluster_locks WHERE name = ?", Timestamp.class,
+                "sitemap-reconcile").after(new Timestamp(System.currentTimeMillis())), "the lease is released");
+    }
+
+    @Test
+    @DisplayName("Files are handed to sendfile when the connector supports it, copied otherwise")
+    void servesFilesZeroCopy() throws Exception {
+        String name = sitemapService.currentFile("products-" + (productIds.get(0) / 100) + ".xml.gz");
+        Path file = sitemapService.file(name);
+
+        MockHttpServletRequest sendfile = new MockHttpServletRequest("GET", "/sitemaps/" + name);
+        sendfile.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse deferred = new MockHttpServletResponse();
+        sitemapController.getShard(name, sendfile, deferred);
+        assertEquals(200, deferred.getStatus());
+        assertEquals(file.toRealPath().toString(), sendfile.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(Files.size(file), sendfile.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(Files.size(file), deferred.getContentLengthLong());
+        assertEquals(0, deferred.getContentAsByteArray().length, "the connector writes the body");
+
+        MockHttpServletResponse copied = new MockHttpServletResponse();
+        sitemapController.getShard(name, new MockHttpServletRequest("GET", "/sitemaps/" + name), copied);
+        assertArrayEquals(Files.readAllBytes(file), copied.getContentAsByteArray());
+        assertEquals("application/gzip", copied.getContentType());
+        assertEquals("public, max-age=31536000, immutable", copied.getHeader("Cache-Control"));
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/sitemaps/" + name);
+        conditional.addHeader("If-Modified-Since", copied.getHeader("Last-Modified"));
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        sitemapController.getShard(name, conditional, notModified);
+        assertEquals(304, notModified.getStatus());
+
+        MockHttpServletResponse index = new MockHttpServletResponse();
+        sitemapController.getIndex(new MockHttpServletRequest("GET", "/sitemap.xml"), index);
+        assertTrue(index.getContentAsString().startsWith("<?xml"));
+        assertTrue(index.getContentAsString().contains("/sitemaps/" + name + "<"));
+        assertEquals("public, max-age=3600", index.getHeader("Cache-Control"));
+
+        for (String bad : List.of("manifest.properties", "../manifest.properties", "products-999999.xml.gz",
+                "products-999999-0123456789abcdef.xml.gz", sitemapService.index().getFileName().toString())) {
+            MockHttpServletResponse missing = new MockHttpServletResponse();
+            sitemapController.getShard(bad, new MockHttpServletRequest("GET", "/sitemaps/" + bad), missing);
+            assertEquals(404, missing.getStatus(), bad);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load: 5M URLs streamed into 50k-URL gzip shards with bounded memory")
+    void generatesLargeSitemapInBoundedMemory() throws IOException {
+        Path directory = Files.createTempDirectory("sitemap-benchmark");
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        try {
+            System.gc();
+            long heapBefore = memory.getHeapMemoryUsage().getUsed();
+            LocalDate lastModified = LocalDate.now();
+            int shards = 0;
+            Path lastFile = null;
+            try (SitemapWriter index = SitemapWriter.index(directory, "sitemap")) {
+                for (int from = 0; from < BENCHMARK_URLS; from += SitemapWriter.MAX_URLS) {
+                    try (SitemapWriter shard = SitemapWriter.urlset(directory, "products-" + shards++)) {
+                        int to = Math.min(from + SitemapWriter.MAX_URLS, BENCHMARK_URLS);
+                        for (int id = from; id < to; id++) {
+                            shard.add("https://itech.example/products/" + id, lastModified);
+                        }
+                        lastFile = shard.commit();
+                    }
+                    index.add("https://itech.example/sitemaps/" + lastFile.getFileName(), lastModified);
+                }
+                index.commit();
+            }
+            System.gc();
+            long retained = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+
+            assertEquals((BENCHMARK_URLS + SitemapWriter.MAX_URLS - 1) / SitemapWriter.MAX_URLS, shards);
+            String lastShard = read(lastFile);
+            assertTrue(lastShard.contains("/products/" + (BENCHMARK_URLS - 1) + "</loc>"));
+            assertTrue(lastShard.endsWith("</urlset>\n"));
+            assertTrue(retained < 16_000_000, "nothing is kept per URL once its shard is written, retained " + retained);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private Long categoryId() {
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM buyer_category", Long.class);
+    }
+
+    private String shardOf(Long productId) throws IOException {
+        return read(current("products-" + (productId / 100)));
+    }
+
+    private Path current(String stem) {
+        return sitemapService.file(sitemapService.currentFile(stem + ".xml.gz"));
+    }
+
+    private static String read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
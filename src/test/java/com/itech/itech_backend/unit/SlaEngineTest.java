@@ -0,0 +1,313 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.enums.TicketPriority;
+import com.itech.itech_backend.enums.TicketStatus;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.shared.scheduling.HashedTimerWheel;
+import com.itech.itech_backend.modules.support.event.SlaEvent;
+import com.itech.itech_backend.modules.support.model.SupportTicket;
+import com.itech.itech_backend.modules.support.repository.SLAConfigurationRepository;
+import com.itech.itech_backend.modules.support.repository.SLATrackingRepository;
+import com.itech.itech_backend.modules.support.repository.SupportTicketRepository;
+import com.itech.itech_backend.modules.support.service.SlaEngine;
+import com.itech.marketplace.entity.SLAConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SLA engine: breaches are flagged and persisted even when events cannot be delivered, an
+ * event is published once per cluster and only after its flag is written, compliance
+ * counters follow priority changes, and a restarted engine picks up overdue tickets and
+ * pending deadlines from the database
+ */
+@JpaTestSlice
+@DisplayName("SLA Engine Unit Tests")
+public class SlaEngineTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {SupportTicketRepository.class, UserRepository.class})
+    static class SlaApplication {
+    }
+
+    @Autowired
+    private SLATrackingRepository trackingRepository;
+
+    @Autowired
+    private SLAConfigurationRepository configurationRepository;
+
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<SlaEvent> events = new CopyOnWriteArrayList<>();
+    private final List<Boolean> flaggedOnPublish = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean rejectEvents = new AtomicBoolean(false);
+    private final List<SlaEngine> engines = new ArrayList<>();
+    private User owner;
+    private int ticketSequence;
+
+    @BeforeEach
+    void setUp() {
+        owner = transactionTemplate.execute(status ->
+                userRepository.save(User.builder().name("buyer").email("buyer@example.com").password("x").build()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        engines.forEach(SlaEngine::shutdown);
+        jdbcTemplate.update("DELETE FROM sla_tracking");
+        jdbcTemplate.update("DELETE FROM cluster_locks");
+        jdbcTemplate.update("DELETE FROM sla_configurations");
+        jdbcTemplate.update("DELETE FROM support_tickets");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("A breach is flagged and persisted even when the event executor rejects")
+    void persistsBreachWhenEventIsRejected() {
+        SlaEngine engine = startEngine();
+        rejectEvents.set(true);
+
+        // Urgent tickets must be answered within 30 minutes
+        SupportTicket ticket = saveTicket(TicketPriority.URGENT, "Billing", LocalDateTime.now().minusHours(1));
+        engine.sync(ticket);
+
+        await(() -> engine.getOverdueCount() == 1);
+        engine.publishDeadlines();
+        engine.flush();
+        assertTrue(events.isEmpty());
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT response_breached FROM sla_tracking WHERE ticket_id = ?", Boolean.class, ticket.getId()));
+        assertEquals(ticket.getTicketNumber(), engine.getOverdueTickets().get(0).ticketNumber());
+
+        rejectEvents.set(false);
+        SupportTicket second = saveTicket(TicketPriority.URGENT, "Billing", LocalDateTime.now().minusHours(1));
+        engine.sync(second);
+        await(() -> events.stream().anyMatch(event -> event.ticketId().equals(second.getId())));
+        assertEquals(SlaEvent.Type.RESPONSE_BREACHED, events.get(0).type());
+    }
+
+    @Test
+    @DisplayName("Engines on two nodes publish a breach once, after writing it")
+    void publishesOncePerCluster() {
+        SlaEngine first = startEngine();
+        SlaEngine second = startEngine();
+
+        SupportTicket ticket = saveTicket(TicketPriority.URGENT, "Billing", LocalDateTime.now().minusHours(1));
+        first.sync(ticket);
+        second.sync(ticket);
+        await(() -> first.getOverdueCount() == 1 && second.getOverdueCount() == 1);
+        await(() -> {
+            first.publishDeadlines();
+            second.publishDeadlines();
+            return !events.isEmpty() && first.getUnpublishedCount() == 0 && second.getUnpublishedCount() == 0;
+        });
+
+        assertEquals(1, events.stream().filter(event -> event.type() == SlaEvent.Type.RESPONSE_BREACHED).count());
+        assertEquals(List.of(true), flaggedOnPublish.subList(0, 1));
+
+        // A regular flush never clears a flag claimed elsewhere
+        first.flush();
+        second.flush();
+        assertEquals(1, trackingRepository.count());
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT response_breached FROM sla_tracking WHERE ticket_id = ?", Boolean.class, ticket.getId()));
+    }
+
+    @Test
+    @DisplayName("Category policies apply once reloaded and re-prioritised tickets move counters")
+    void appliesPolicyChanges() {
+        SlaEngine engine = startEngine();
+        transactionTemplate.executeWithoutResult(status -> configurationRepository.save(SLAConfiguration.builder()
+                .priority(TicketPriority.HIGH)
+                .category("Billing")
+                .responseTimeMinutes(5)
+                .resolutionTimeMinutes(60)
+                .escalationTimeMinutes(30)
+                .build()));
+        engine.reloadPolicies();
+
+        SupportTicket billing = saveTicket(TicketPriority.HIGH, "Billing", LocalDateTime.now().minusMinutes(10));
+        SupportTicket technical = saveTicket(TicketPriority.HIGH, "Technical", LocalDateTime.now().minusMinutes(10));
+        engine.sync(billing);
+        engine.sync(technical);
+        await(() -> engine.getOverdueCount() == 1);
+        assertEquals(billing.getId(), engine.getOverdueTickets().get(0).ticketId());
+
+        // Answered in time under LOW, then raised to URGENT and finally cancelled
+        SupportTicket ticket = saveTicket(TicketPriority.LOW, "Technical", LocalDateTime.now().minusHours(2));
+        ticket.setRespondedAt(LocalDateTime.now().minusHours(1));
+        engine.sync(ticket);
+        assertEquals(1, counter(engine, "Technical", TicketPriority.LOW).getResponseMet());
+
+        ticket.setPriority(TicketPriority.URGENT);
+        engine.sync(ticket);
+        assertEquals(0, counter(engine, "Technical", TicketPriority.LOW).getResponseMet());
+        assertEquals(1, counter(engine, "Technical", TicketPriority.URGENT).getResponseMet());
+
+        ticket.setStatus(TicketStatus.CANCELLED);
+        engine.sync(ticket);
+        for (SlaEngine.ComplianceCounter counter : engine.getCounters()) {
+            assertTrue(counter.getResponseMet() >= 0 && counter.getResponseBreached() >= 0
+                    && counter.getResponseSamples() >= 0 && counter.getResponseMinutes() >= 0
+                    && counter.getResolutionBreached() >= 0,
+                    "negative counter for " + counter.getCategory() + "/" + counter.getPriority());
+        }
+        assertEquals(0, counter(engine, "Technical", TicketPriority.URGENT).getResponseMet());
+        assertEquals(0, counter(engine, "Technical", TicketPriority.URGENT).getResponseSamples());
+    }
+
+    @Test
+    @DisplayName("A restarted engine restores overdue tickets and fires deadlines left pending")
+    void resumesAfterRestart() {
+        SlaEngine first = startEngine();
+        SupportTicket late = saveTicket(TicketPriority.URGENT, "Billing", LocalDateTime.now().minusHours(1));
+        SupportTicket pending = saveTicket(TicketPriority.URGENT, "Billing",
+                LocalDateTime.now().minusMinutes(30).plusSeconds(2));
+        first.sync(late);
+        first.sync(pending);
+        await(() -> first.getOverdueCount() == 1);
+        first.shutdown();
+        assertEquals(2, trackingRepository.count());
+
+        // Changes made while the engine is down are held until the rebuild finishes
+        SlaEngine second = engine();
+        late.setPriority(TicketPriority.LOW);
+        second.sync(late);
+        late.setPriority(TicketPriority.URGENT);
+        second.sync(late);
+        assertFalse(second.isReady());
+
+        second.rebuildIfNeeded();
+        assertTrue(second.isReady());
+        assertEquals(2, second.getOpenCount());
+        assertEquals(1, second.getOverdueCount());
+        assertEquals(1, counter(second, "Billing", TicketPriority.URGENT).getResponseBreached());
+
+        await(() -> second.getOverdueCount() == 2);
+        assertEquals(2, counter(second, "Billing", TicketPriority.URGENT).getResponseBreached());
+    }
+
+    @Test
+    @DisplayName("Default policies are seeded once however many engines start")
+    void seedsDefaultPoliciesOnce() {
+        startEngine();
+        startEngine().reloadPolicies();
+        assertEquals(TicketPriority.values().length, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sla_configurations WHERE category = ?", Integer.class, SlaEngine.ANY_CATEGORY));
+    }
+
+    @Test
+    @DisplayName("The timer wheel never fires early and skips cancelled deadlines")
+    void timerWheelFiresOnTime() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        List<Long> lateness = new CopyOnWriteArrayList<>();
+        List<String> expired = new CopyOnWriteArrayList<>();
+        long due = System.currentTimeMillis() + 150;
+        try (HashedTimerWheel<String> wheel = new HashedTimerWheel<>("test-wheel", 10, 8, payload -> {
+            lateness.add(System.currentTimeMillis() - due);
+            expired.add(payload);
+            fired.countDown();
+        })) {
+            // 150 ms over 8 buckets of 10 ms needs more than one round
+            HashedTimerWheel.Timeout cancelled = wheel.schedule(due - 50, "cancelled");
+            wheel.schedule(due, "due");
+            assertTrue(cancelled.cancel());
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("due"), expired);
+            assertTrue(lateness.get(0) >= 0, "fired " + -lateness.get(0) + " ms early");
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    private SlaEngine startEngine() {
+        SlaEngine engine = engine();
+        engine.rebuildIfNeeded();
+        assertTrue(engine.isReady());
+        return engine;
+    }
+
+    private SlaEngine engine() {
+        SlaEngine engine = new SlaEngine(trackingRepository, configurationRepository, ticketRepository,
+                transactionTemplate, new ClusterLock(jdbcTemplate, transactionTemplate.getTransactionManager()),
+                event -> {
+                    SlaEvent sla = (SlaEvent) event;
+                    flaggedOnPublish.add(jdbcTemplate.queryForObject(
+                            "SELECT response_breached FROM sla_tracking WHERE ticket_id = ?", Boolean.class, sla.ticketId()));
+                    events.add(sla);
+                },
+                task -> {
+                    if (rejectEvents.get()) {
+                        throw new RejectedExecutionException("full");
+                    }
+                    task.run();
+                });
+        ReflectionTestUtils.setField(engine, "tickMs", 10L);
+        ReflectionTestUtils.setField(engine, "wheelSize", 64);
+        ReflectionTestUtils.setField(engine, "chunkSize", 100);
+        ReflectionTestUtils.setField(engine, "eventLeaseMs", 5000L);
+        engines.add(engine);
+        return engine;
+    }
+
+    private SupportTicket saveTicket(TicketPriority priority, String category, LocalDateTime createdAt) {
+        String number = "TKT-" + (++ticketSequence);
+        return transactionTemplate.execute(status -> ticketRepository.save(SupportTicket.builder()
+                .ticketNumber(number)
+                .user(owner)
+                .subject("Ticket " + number)
+                .category(category)
+                .priority(priority)
+                .createdAt(createdAt)
+                .build()));
+    }
+
+    private static SlaEngine.ComplianceCounter counter(SlaEngine engine, String category, TicketPriority priority) {
+        return engine.getCounters().stream()
+                .filter(counter -> category.equalsIgnoreCase(counter.getCategory()) && counter.getPriority() == priority)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no counter for " + category + "/" + priority));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5 s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.StartupOptimizationConfig;
+import com.itech.itech_backend.controller.MigrationController;
+import com.itech.itech_backend.modules.imports.service.ExcelImportService;
+import com.itech.itech_backend.modules.support.service.ChatbotService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AOT/CDS startup tuning: rarely used modules are marked lazy and the CDS training run refreshes
+ * without running migrations
+ */
+@DisplayName("Startup Optimization Unit Tests")
+public class StartupOptimizationTest {
+
+    private static DefaultListableBeanFactory beanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("excelImportService", new RootBeanDefinition(ExcelImportService.class));
+        beanFactory.registerBeanDefinition("chatbotService", new RootBeanDefinition(ChatbotService.class));
+        beanFactory.registerBeanDefinition("migrationController", new RootBeanDefinition(MigrationController.class));
+        beanFactory.registerBeanDefinition("startupOptimizationConfig", new RootBeanDefinition(StartupOptimizationConfig.class));
+        return beanFactory;
+    }
+
+    @Test
+    @DisplayName("Default prefixes mark imports, migration and chatbot beans lazy only when enabled")
+    void lazyModules() {
+        DefaultListableBeanFactory enabled = beanFactory();
+        StartupOptimizationConfig.lazyModulesPostProcessor(new MockEnvironment()
+                .withProperty("startup.lazy-init.enabled", "true")).postProcessBeanFactory(enabled);
+        assertTrue(enabled.getBeanDefinition("excelImportService").isLazyInit());
+        assertTrue(enabled.getBeanDefinition("chatbotService").isLazyInit());
+        assertTrue(enabled.getBeanDefinition("migrationController").isLazyInit());
+        assertFalse(enabled.getBeanDefinition("startupOptimizationConfig").isLazyInit());
+
+        DefaultListableBeanFactory custom = beanFactory();
+        StartupOptimizationConfig.lazyModulesPostProcessor(new MockEnvironment()
+                .withProperty("startup.lazy-init.enabled", "true")
+                .withProperty("startup.lazy-init.classes", "com.itech.itech_backend.modules.support."))
+                .postProcessBeanFactory(custom);
+        assertTrue(custom.getBeanDefinition("chatbotService").isLazyInit());
+        assertFalse(custom.getBeanDefinition("excelImportService").isLazyInit());
+
+        DefaultListableBeanFactory disabled = beanFactory();
+        StartupOptimizationConfig.lazyModulesPostProcessor(new MockEnvironment()).postProcessBeanFactory(disabled);
+        assertFalse(disabled.getBeanDefinition("excelImportService").isLazyInit());
+    }
+
+    @Test
+    @DisplayName("Migrations run normally but are skipped for the training run or when disabled at runtime")
+    void flywayStrategy() {
+        StartupOptimizationConfig config = new StartupOptimizationConfig();
+
+        Flyway normal = mock(Flyway.class);
+        config.flywayMigrationStrategy(new MockEnvironment()).migrate(normal);
+        verify(normal).migrate();
+
+        Flyway training = mock(Flyway.class);
+        config.flywayMigrationStrategy(new MockEnvironment().withProperty("spring.context.exit", "onRefresh"))
+                .migrate(training);
+        verifyNoInteractions(training);
+
+        Flyway disabled = mock(Flyway.class);
+        config.flywayMigrationStrategy(new MockEnvironment().withProperty("spring.flyway.enabled", "false"))
+                .migrate(disabled);
+        verifyNoInteractions(disabled);
+    }
+}
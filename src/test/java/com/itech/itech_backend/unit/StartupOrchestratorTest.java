@@ -0,0 +1,216 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.core.service.UserMigrationService;
+import com.itech.itech_backend.modules.shared.model.StartupMigration;
+import com.itech.itech_backend.modules.shared.repository.StartupMigrationRepository;
+import com.itech.itech_backend.modules.shared.startup.StartupOrchestrator;
+import com.itech.itech_backend.modules.shared.startup.StartupTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Deferred startup tasks: readiness is not held up, the ledger stops one-time tasks from
+ * running twice, and boot phases are timed
+ */
+@DisplayName("Startup Orchestrator Unit Tests")
+public class StartupOrchestratorTest {
+
+    private static final ApplicationReadyEvent READY =
+            new ApplicationReadyEvent(new SpringApplication(), new String[0], null, Duration.ofSeconds(3));
+
+    private final Map<String, StartupMigration> ledgerRows = new ConcurrentHashMap<>();
+    private StartupMigrationRepository ledger;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        ledger = mock(StartupMigrationRepository.class);
+        when(ledger.findByName(anyString())).thenAnswer(inv -> Optional.ofNullable(ledgerRows.get(inv.<String>getArgument(0))));
+        when(ledger.save(any())).thenAnswer(inv -> store(inv.getArgument(0)));
+        when(ledger.saveAndFlush(any())).thenAnswer(inv -> store(inv.getArgument(0)));
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private StartupMigration store(StartupMigration entry) {
+        ledgerRows.put(entry.getName(), entry);
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private StartupOrchestrator orchestrator(boolean deferred, StartupTask... tasks) {
+        ObjectProvider<MeterRegistry> registryProvider = mock(ObjectProvider.class);
+        when(registryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+        StartupOrchestrator orchestrator = new StartupOrchestrator(List.of(tasks), ledger, registryProvider, executor);
+        ReflectionTestUtils.setField(orchestrator, "deferred", deferred);
+        return orchestrator;
+    }
+
+    private long bootMillis(StartupOrchestrator orchestrator) {
+        long start = System.nanoTime();
+        orchestrator.onReady(READY);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static StartupTask task(String name, int order, boolean oneTime, Runnable body) {
+        return new StartupTask() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public int order() {
+                return order;
+            }
+
+            @Override
+            public boolean oneTime() {
+                return oneTime;
+            }
+
+            @Override
+            public int run() {
+                body.run();
+                return 1;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("One-time tasks run once in order and are skipped on the next boot")
+    void ledgerSkipsCompletedTasks() throws Exception {
+        StringBuffer runs = new StringBuffer();
+        StartupTask seed = task("seed", 20, true, () -> runs.append("seed;"));
+        StartupTask backfill = task("backfill", 10, true, () -> runs.append("backfill;"));
+        StartupTask warmup = task("warmup", 30, false, () -> runs.append("warmup;"));
+
+        StartupOrchestrator first = orchestrator(true, seed, backfill, warmup);
+        bootMillis(first);
+        first.completion().get(5, TimeUnit.SECONDS);
+        assertEquals("backfill;seed;warmup;", runs.toString());
+        assertEquals(StartupMigration.Status.COMPLETED, ledgerRows.get("seed").getStatus());
+        assertEquals(1, ledgerRows.get("seed").getRowsAffected());
+        assertFalse(ledgerRows.containsKey("warmup"), "repeatable tasks are not recorded");
+
+        StartupOrchestrator second = orchestrator(true, seed, backfill, warmup);
+        bootMillis(second);
+        second.completion().get(5, TimeUnit.SECONDS);
+        assertEquals("backfill;seed;warmup;warmup;", runs.toString());
+        assertEquals(2, meterRegistry.get("startup.task").tag("outcome", "skipped").timers().size());
+    }
+
+    @Test
+    @DisplayName("Failed tasks are recorded and retried; live claims from other nodes are respected")
+    void failuresAndClaims() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        StartupTask flaky = task("flaky", 0, true, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database not reachable");
+            }
+        });
+        StartupTask contended = task("contended", 1, true, () -> fail("claimed by another node"));
+        StartupTask abandoned = task("abandoned", 2, true, () -> {});
+        store(StartupMigration.builder().name("contended").status(StartupMigration.Status.RUNNING)
+                .startedAt(LocalDateTime.now().minusMinutes(1)).build());
+        store(StartupMigration.builder().name("abandoned").status(StartupMigration.Status.RUNNING)
+                .startedAt(LocalDateTime.now().minusHours(2)).build());
+
+        StartupOrchestrator first = orchestrator(false, flaky, contended, abandoned);
+        bootMillis(first);
+        assertEquals(StartupMigration.Status.FAILED, ledgerRows.get("flaky").getStatus());
+        assertEquals("database not reachable", ledgerRows.get("flaky").getDetail());
+        assertEquals(StartupMigration.Status.RUNNING, ledgerRows.get("contended").getStatus());
+        assertEquals(StartupMigration.Status.COMPLETED, ledgerRows.get("abandoned").getStatus(),
+                "a claim older than the timeout is taken over");
+
+        bootMillis(orchestrator(false, flaky));
+        assertEquals(2, attempts.get());
+        assertEquals(StartupMigration.Status.COMPLETED, ledgerRows.get("flaky").getStatus());
+        assertNull(ledgerRows.get("flaky").getDetail());
+    }
+
+    @Test
+    @DisplayName("Password backfill hashes once and updates in one statement")
+    void setBasedPasswordBackfill() {
+        UserRepository userRepository = mock(UserRepository.class);
+        PasswordEncoder encoder = spy(new BCryptPasswordEncoder());
+        when(userRepository.setPasswordWhereMissing(anyString())).thenReturn(100_000);
+
+        int updated = new UserMigrationService(userRepository, encoder).run();
+
+        assertEquals(100_000, updated);
+        verify(encoder, times(1)).encode(anyString());
+        verify(userRepository, times(1)).setPasswordWhereMissing(argThat(hash -> encoder.matches("password123", hash)));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Boot-time regression: readiness is not held up by startup data work")
+    void bootTimeRegression() throws Exception {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.setPasswordWhereMissing(anyString())).thenAnswer(inv -> {
+            Thread.sleep(400); // stand-in for a large table update
+            return 50_000;
+        });
+        StartupTask backfill = new UserMigrationService(userRepository, new BCryptPasswordEncoder());
+        StartupTask seed = task("vendor-package-seed", 20, true, () -> sleep(300));
+
+        StartupOrchestrator deferred = orchestrator(true, backfill, seed);
+        long deferredBoot = bootMillis(deferred);
+        deferred.completion().get(10, TimeUnit.SECONDS);
+
+        ledgerRows.clear();
+        long blockingBoot = bootMillis(orchestrator(false, backfill, seed));
+
+        assertTrue(deferredBoot < 200, "ready listener took " + deferredBoot + " ms with deferred tasks");
+        assertTrue(blockingBoot >= 700, "inline mode should include the task time, took " + blockingBoot + " ms");
+
+        assertEquals(2, meterRegistry.get("startup.phase").tag("phase", "ready").timer().count());
+        assertTrue(meterRegistry.get("startup.phase").tag("phase", "deferred-tasks").timer()
+                .totalTime(TimeUnit.MILLISECONDS) >= 1400);
+        assertEquals(2, meterRegistry.get("startup.task").tag("task", "user-default-passwords")
+                .tag("outcome", "completed").timer().count());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
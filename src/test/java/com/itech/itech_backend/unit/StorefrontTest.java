@@ -0,0 +1,280 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.SubdomainProperties;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.vendor.controller.StorefrontController;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import com.itech.itech_backend.modules.vendor.service.StorefrontDirectory;
+import com.itech.itech_backend.modules.vendor.service.StorefrontService;
+import com.itech.itech_backend.service.SubdomainService;
+import com.itech.itech_backend.util.JwtTokenUtil;
+import com.itech.itech_backend.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Storefront routing: hosts resolve to their vendor from memory, claims and releases reach the
+ * directory after commit and only for the vendor's own storefront, homepages are cached and
+ * evicted per vendor (locally and from other nodes' changes), plus a host resolution benchmark
+ * (tagged {@code benchmark}).
+ */
+@JpaTestSlice
+@DisplayName("Storefront Unit Tests")
+public class StorefrontTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerProductRepository.class, VendorsRepository.class, UserRepository.class})
+    @Import({SubdomainProperties.class, SubdomainService.class, StorefrontDirectory.class, StorefrontService.class,
+            JwtUtil.class, JwtTokenUtil.class, StorefrontController.class})
+    static class StorefrontApplication {
+    }
+
+    @Autowired
+    private SubdomainService subdomainService;
+
+    @Autowired
+    private SubdomainProperties subdomainProperties;
+
+    @Autowired
+    private StorefrontDirectory directory;
+
+    @Autowired
+    private StorefrontService storefrontService;
+
+    @Autowired
+    private StorefrontController storefrontController;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Vendors acme;
+    private Vendors steel;
+    private Product acmeProduct;
+
+    @BeforeEach
+    void seed() {
+        subdomainProperties.setBaseDomain("itech.example");
+        subdomainProperties.setReservedSubdomains(List.of("admin", "api"));
+        transactionTemplate.executeWithoutResult(status -> {
+            acme = vendor("acme", "Acme Tools");
+            steel = vendor(null, "Steel Works");
+            acmeProduct = productRepository.save(Product.builder().name("Hammer").price(10.0).stock(5)
+                    .isApproved(true).isFeatured(true).vendor(acme).build());
+            productRepository.save(Product.builder().name("Chisel").price(4.0).stock(5).isApproved(true).vendor(acme).build());
+            productRepository.save(Product.builder().name("Draft").price(1.0).stock(5).vendor(acme).build());
+            productRepository.save(Product.builder().name("Rebar").price(7.0).stock(5).isApproved(true).vendor(steel).build());
+        });
+        directory.refresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("buyer_products", "legacy_vendors", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        directory.refresh();
+        storefrontService.evictChanged();
+    }
+
+    @Test
+    @DisplayName("Hosts resolve to their vendor without queries; claims and releases apply after commit")
+    void hostsResolveToTenants() {
+        Statistics statistics = statistics();
+        subdomainService.getSubdomainContext(request("acme.itech.example"));
+        long statements = statistics.getPrepareStatementCount();
+
+        SubdomainService.SubdomainContext context = subdomainService.getSubdomainContext(request("acme.itech.example"));
+        assertTrue(context.isValid());
+        assertEquals(acme.getId(), context.getVendorId());
+        assertEquals(acme.getId(), subdomainService.getSubdomainContext(request("ACME.itech.example")).getVendorId());
+
+        SubdomainService.SubdomainContext unknown = subdomainService.getSubdomainContext(request("nobody.itech.example"));
+        assertTrue(unknown.isValid());
+        assertFalse(unknown.isStorefront());
+        assertFalse(subdomainService.getSubdomainContext(request("admin.itech.example")).isValid());
+        assertFalse(subdomainService.getSubdomainContext(request("www.itech.example")).isHasSubdomain());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "routing must not query");
+
+        int cached = subdomainService.cachedHosts();
+        for (int i = 0; i < 100; i++) {
+            assertFalse(subdomainService.getSubdomainContext(request("probe" + i + ".itech.example")).isStorefront());
+        }
+        assertEquals(cached, subdomainService.cachedHosts(), "hosts that reach no storefront are not kept");
+
+        // Claiming commits, then the directory follows without a reload
+        storefrontService.claimSubdomain(steel.getId(), "Steel");
+        assertEquals(steel.getId(), subdomainService.getSubdomainContext(request("steel.itech.example")).getVendorId());
+        assertThrows(IllegalArgumentException.class, () -> storefrontService.claimSubdomain(steel.getId(), "acme"));
+        assertThrows(IllegalArgumentException.class, () -> storefrontService.claimSubdomain(steel.getId(), "admin"));
+
+        storefrontService.claimSubdomain(acme.getId(), "acme-tools");
+        assertNull(subdomainService.getSubdomainContext(request("acme.itech.example")).getVendorId());
+        assertEquals(acme.getId(), directory.vendorId("acme-tools"));
+
+        // A rolled-back claim leaves the directory alone
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            storefrontService.claimSubdomain(steel.getId(), "ghost");
+            throw new IllegalStateException("rollback");
+        }));
+        assertNull(directory.vendorId("ghost"));
+        assertEquals("steel", directory.subdomain(steel.getId()));
+    }
+
+    @Test
+    @DisplayName("Vendors claim a subdomain only for their own storefront; admins for any")
+    void claimsRequireOwnership() {
+        MockHttpServletRequest asAcme = bearer(jwtUtil.generateToken("acme@example.com", "VENDOR", acme.getId()));
+        Map<String, String> claim = Map.of("subdomain", "steel");
+
+        assertEquals(403, storefrontController.claimSubdomain(steel.getId(), claim, asAcme).getStatusCode().value());
+        assertEquals(403, storefrontController.claimSubdomain(steel.getId(), claim, new MockHttpServletRequest())
+                .getStatusCode().value());
+        assertNull(directory.vendorId("steel"));
+
+        assertEquals(200, storefrontController.claimSubdomain(acme.getId(), Map.of("subdomain", "acme-tools"), asAcme)
+                .getStatusCode().value());
+        assertEquals(acme.getId(), directory.vendorId("acme-tools"));
+
+        MockHttpServletRequest asAdmin = bearer(jwtUtil.generateToken("admin@example.com", "ADMIN", acme.getId() + 1000));
+        assertEquals(200, storefrontController.claimSubdomain(steel.getId(), claim, asAdmin).getStatusCode().value());
+        assertEquals(steel.getId(), directory.vendorId("steel"));
+    }
+
+    @Test
+    @DisplayName("Homepages are cached and evicted only for the vendor that changed")
+    void homepagesEvictPerVendor() {
+        StorefrontService.Homepage home = storefrontService.homepageFor("acme");
+        assertEquals("Acme Tools", home.businessName());
+        assertEquals(2, home.productCount());
+        assertEquals(List.of("Hammer", "Chisel"), home.featuredProducts().stream().map(card -> card.getName()).toList());
+        storefrontService.homepage(steel.getId());
+        long builds = storefrontService.builds();
+
+        Statistics statistics = statistics();
+        long statements = statistics.getPrepareStatementCount();
+        for (int i = 0; i < 100; i++) {
+            assertSame(home, storefrontService.homepageFor("acme"));
+            storefrontService.homepage(steel.getId());
+        }
+        assertEquals(statements, statistics.getPrepareStatementCount());
+
+        // A product change evicts its vendor's homepage and no other
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(acmeProduct.getId()).orElseThrow();
+            product.setName("Claw hammer");
+            productRepository.save(product);
+        });
+        assertEquals("Claw hammer", storefrontService.homepageFor("acme").featuredProducts().get(0).getName());
+        storefrontService.homepage(steel.getId());
+        assertEquals(builds + 1, storefrontService.builds());
+
+        // Another node's change is picked up by the sweep
+        jdbcTemplate.update("UPDATE legacy_vendors SET business_name = 'Steel Works Ltd', updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(1)), steel.getId());
+        assertEquals("Steel Works", storefrontService.homepage(steel.getId()).businessName());
+        storefrontService.evictChanged();
+        assertEquals("Steel Works Ltd", storefrontService.homepage(steel.getId()).businessName());
+        assertEquals(builds + 2, storefrontService.builds());
+        assertNull(storefrontService.homepageFor("nobody"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load: host resolution per request")
+    void hostResolutionCost() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 500; i++) {
+                vendor("shop" + i, "Shop " + i);
+            }
+        });
+        directory.refresh();
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[1000];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = request("shop" + i + ".itech.example");
+        }
+        int iterations = 1_000_000;
+        long storefronts = 0;
+        for (int i = 0; i < iterations / 4; i++) {
+            subdomainService.getSubdomainContext(requests[i % requests.length]);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (subdomainService.getSubdomainContext(requests[i % requests.length]).isStorefront()) {
+                storefronts++;
+            }
+        }
+        double nsPerRequest = (System.nanoTime() - start) / (double) iterations;
+
+        assertEquals(iterations / 2, storefronts);
+        assertTrue(nsPerRequest < 5_000, "host resolution should stay in memory, took " + nsPerRequest + " ns");
+    }
+
+    private Vendors vendor(String subdomain, String businessName) {
+        long n = System.nanoTime();
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + n + "@example.com").password("x").build());
+        return vendorsRepository.save(Vendors.builder().user(owner).name(businessName)
+                .email("vendor" + n + "@example.com").password("x").businessName(businessName)
+                .storefrontSubdomain(subdomain).build());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    private static MockHttpServletRequest request(String host) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/storefront/home");
+        request.addHeader("Host", host);
+        return request;
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/storefront/vendors/0/subdomain");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,131 @@
+package com.itech.itech_backend.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itech.itech_backend.modules.core.service.PanVerificationService;
+import com.itech.itech_backend.modules.shared.model.TaxVerificationResult;
+import com.itech.itech_backend.modules.shared.repository.TaxVerificationResultRepository;
+import com.itech.itech_backend.modules.shared.service.GstVerificationService;
+import com.itech.itech_backend.modules.shared.service.TaxVerificationGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verification gateway: cache keys use the normalised number, concurrent lookups share one
+ * call, and persisting a result survives a lost insert race
+ */
+@DisplayName("Tax Verification Gateway Unit Tests")
+public class TaxVerificationGatewayTest {
+
+    private static final String GSTIN = "27AAPFU0939F1ZV";
+
+    private GstVerificationService gstService;
+    private TaxVerificationResultRepository repository;
+    private TaxVerificationGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        gstService = mock(GstVerificationService.class);
+        repository = mock(TaxVerificationResultRepository.class);
+        when(gstService.isApiEnabled()).thenReturn(true);
+        when(gstService.validateGstFormat(anyString())).thenAnswer(call -> GSTIN.equals(call.getArgument(0)));
+        when(repository.findByDocumentTypeAndLookupTypeAndDocumentNumber(anyString(), anyString(), anyString()))
+                .thenReturn(Optional.empty());
+        when(repository.updateResult(anyString(), anyString(), anyString(), anyString(), anyBoolean(), any(), any()))
+                .thenReturn(1);
+
+        gateway = new TaxVerificationGateway(gstService, mock(PanVerificationService.class), repository,
+                Schedulers.immediate(), new ObjectMapper(), 100);
+        ReflectionTestUtils.setField(gateway, "ttlHours", 24L);
+        ReflectionTestUtils.setField(gateway, "negativeTtlMinutes", 60L);
+    }
+
+    @Test
+    @DisplayName("A verified number is answered from memory on the next lookup")
+    void cachesVerifiedResults() {
+        when(gstService.verifyGstNumberReactive(GSTIN)).thenReturn(Mono.just(Map.of("valid", true)));
+
+        assertEquals(false, gateway.verifyGst(GSTIN).block().get("cached"));
+        assertEquals(true, gateway.verifyGst(GSTIN).block().get("cached"));
+        verify(gstService, times(1)).verifyGstNumberReactive(GSTIN);
+    }
+
+    @Test
+    @DisplayName("Lowercase or padded numbers are normalised before the cache is consulted")
+    void normalisesBeforeCaching() {
+        when(gstService.verifyGstNumberReactive(GSTIN)).thenReturn(Mono.just(Map.of("valid", true)));
+
+        Map<String, Object> first = gateway.verifyGst("  27aapfu0939f1zv ").block();
+        Map<String, Object> second = gateway.verifyGst(GSTIN.toLowerCase()).block();
+
+        assertEquals(false, first.get("cached"));
+        assertEquals(true, second.get("cached"));
+        verify(gstService, times(1)).verifyGstNumberReactive(GSTIN);
+        verify(gstService, never()).verifyGstNumberReactive("  27aapfu0939f1zv ");
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups share one call and the finished entry is released")
+    void coalescesAndReleasesInFlightLookups() {
+        Sinks.One<Map<String, Object>> upstream = Sinks.one();
+        // API errors are not cached, so each completed lookup goes upstream again
+        when(gstService.verifyGstNumberReactive(GSTIN))
+                .thenReturn(upstream.asMono())
+                .thenReturn(Mono.just(Map.of("valid", true, "apiError", "timeout")));
+
+        Mono<Map<String, Object>> first = gateway.verifyGst(GSTIN);
+        Mono<Map<String, Object>> second = gateway.verifyGst(GSTIN);
+        first.subscribe();
+        second.subscribe();
+        upstream.tryEmitValue(Map.of("valid", true, "apiError", "timeout"));
+
+        assertEquals("timeout", first.block().get("apiError"));
+        assertEquals("timeout", second.block().get("apiError"));
+        verify(gstService, times(1)).verifyGstNumberReactive(GSTIN);
+
+        assertEquals("timeout", gateway.verifyGst(GSTIN).block().get("apiError"));
+        verify(gstService, times(2)).verifyGstNumberReactive(GSTIN);
+    }
+
+    @Test
+    @DisplayName("A lost insert race is retried as an update")
+    void upsertsOnDuplicateKey() {
+        when(gstService.verifyGstNumberReactive(GSTIN)).thenReturn(Mono.just(Map.of("valid", true)));
+        when(repository.updateResult(anyString(), anyString(), anyString(), anyString(), anyBoolean(), any(), any()))
+                .thenReturn(0, 1);
+        when(repository.save(any(TaxVerificationResult.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_tax_verification_lookup"));
+
+        assertEquals(true, gateway.verifyGst(GSTIN).block().get("valid"));
+
+        verify(repository).save(any(TaxVerificationResult.class));
+        verify(repository, times(2)).updateResult(eq("GST"), eq("VERIFY"), eq(GSTIN), anyString(), eq(false), any(), any());
+    }
+
+    @Test
+    @DisplayName("Invalid numbers are answered by format validation without caching")
+    void skipsCacheForInvalidNumbers() {
+        when(gstService.verifyGstNumberReactive("bad")).thenReturn(Mono.just(Map.of("valid", false)));
+
+        gateway.verifyGst("bad").block();
+        gateway.verifyGst("bad").block();
+
+        verify(gstService, times(2)).verifyGstNumberReactive("bad");
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,300 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.TaxonomyCounterConfig;
+import com.itech.itech_backend.modules.buyer.model.Category;
+import com.itech.itech_backend.modules.buyer.model.MicroCategory;
+import com.itech.itech_backend.modules.buyer.model.Product;
+import com.itech.itech_backend.modules.buyer.model.SubCategory;
+import com.itech.itech_backend.modules.buyer.model.TaxonomyNodeType;
+import com.itech.itech_backend.modules.buyer.repository.BuyerCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.buyer.repository.MicroCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.SubCategoryRepository;
+import com.itech.itech_backend.modules.buyer.repository.TaxonomyCounterRepository;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterStore;
+import com.itech.itech_backend.modules.buyer.service.TaxonomyCounterStore.Counts;
+import com.itech.itech_backend.modules.core.model.User;
+import com.itech.itech_backend.modules.core.repository.UserRepository;
+import com.itech.itech_backend.modules.shared.dto.CategoryDto;
+import com.itech.itech_backend.modules.shared.dto.CategoryStatsDto;
+import com.itech.itech_backend.modules.shared.scheduling.ClusterLock;
+import com.itech.itech_backend.modules.shared.service.impl.DataEntryServiceImpl;
+import com.itech.itech_backend.modules.vendor.model.Vendors;
+import com.itech.itech_backend.modules.vendor.repository.VendorsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Taxonomy counters: committed product and node changes reach the counters as rolled-up
+ * deltas, the result always matches a full recount, and the data-entry listing reads counts
+ * with the page instead of walking product collections.
+ */
+@JpaTestSlice
+@DisplayName("Taxonomy Counter Unit Tests")
+public class TaxonomyCounterTest {
+
+    @JpaTestApplication
+    @EnableJpaRepositories(basePackageClasses = {BuyerCategoryRepository.class, VendorsRepository.class, UserRepository.class})
+    @Import({TaxonomyCounterConfig.class, TaxonomyCounterStore.class, ClusterLock.class, DataEntryServiceImpl.class})
+    static class TaxonomyApplication {
+    }
+
+    @Autowired
+    private TaxonomyCounterStore store;
+
+    @Autowired
+    private TaxonomyCounterRepository counterRepository;
+
+    @Autowired
+    private DataEntryServiceImpl dataEntryService;
+
+    @Autowired
+    private BuyerCategoryRepository categoryRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private MicroCategoryRepository microCategoryRepository;
+
+    @Autowired
+    private BuyerProductRepository productRepository;
+
+    @Autowired
+    private VendorsRepository vendorsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> subIds = new ArrayList<>();
+    private final List<Long> microIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+
+    /**
+     * Electronics: 2 sub categories with 2 micro categories each. Tools: 1 sub with 1 micro,
+     * plus 3 products attached to the category directly. Garden: empty.
+     */
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").password("x").build());
+            Vendors vendor = vendorsRepository.save(Vendors.builder().user(owner).name("Vendor").email("vendor@example.com")
+                    .password("x").businessName("Vendor Co").build());
+
+            String[] categoryNames = {"Electronics", "Tools", "Garden"};
+            int[] subsPerCategory = {2, 1, 0};
+            List<MicroCategory> micros = new ArrayList<>();
+            for (int c = 0; c < categoryNames.length; c++) {
+                Category category = categoryRepository.save(Category.builder()
+                        .name(categoryNames[c]).displayOrder(c).slug(categoryNames[c].toLowerCase()).build());
+                categoryIds.add(category.getId());
+                for (int s = 0; s < subsPerCategory[c]; s++) {
+                    SubCategory sub = subCategoryRepository.save(SubCategory.builder()
+                            .name(categoryNames[c] + " sub " + s).slug(categoryNames[c].toLowerCase() + "-sub-" + s)
+                            .category(category).build());
+                    subIds.add(sub.getId());
+                    for (int m = 0; m < (c == 0 ? 2 : 1); m++) {
+                        MicroCategory micro = microCategoryRepository.save(MicroCategory.builder()
+                                .name(sub.getName() + " micro " + m).slug(sub.getSlug() + "-micro-" + m)
+                                .subCategory(sub).build());
+                        microIds.add(micro.getId());
+                        micros.add(micro);
+                    }
+                }
+            }
+
+            for (int p = 0; p < 20; p++) {
+                productIds.add(productRepository.save(product(vendor, "Product " + p, p % 4 != 0)
+                        .microCategory(micros.get(p % micros.size())).build()).getId());
+            }
+            Category tools = categoryRepository.getReferenceById(categoryIds.get(1));
+            for (int p = 0; p < 3; p++) {
+                productIds.add(productRepository.save(product(vendor, "Direct " + p, p != 0).category(tools).build()).getId());
+            }
+        });
+        store.flush();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("buyer_products", "buyer_micro_category", "sub_categories", "buyer_category",
+                "legacy_vendors", "users", "taxonomy_counters", "cluster_locks")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental counters roll up the tree and match a full recount")
+    void incrementalMatchesRecount() {
+        Counts electronics = store.counts(TaxonomyNodeType.CATEGORY, categoryIds.get(0));
+        // Products 0..19 spread over 5 micro categories; 4 of them belong to Electronics
+        assertEquals(new Counts(16, 12, 2, 6), electronics);
+        assertEquals(new Counts(7, 5, 1, 2), store.counts(TaxonomyNodeType.CATEGORY, categoryIds.get(1)));
+        assertEquals(Counts.ZERO, store.counts(TaxonomyNodeType.CATEGORY, categoryIds.get(2)));
+        assertEquals(new Counts(8, 6, 2, 2), store.counts(TaxonomyNodeType.SUB_CATEGORY, subIds.get(0)));
+        assertEquals(new Counts(4, 3, 0, 0), store.counts(TaxonomyNodeType.MICRO_CATEGORY, microIds.get(0)));
+
+        assertMatchesRecount();
+    }
+
+    @Test
+    @DisplayName("Moves, deactivation, deletes and new nodes keep the counters exact")
+    void changesMatchRecount() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product moved = productRepository.findById(productIds.get(1)).orElseThrow();
+            moved.setMicroCategory(microCategoryRepository.getReferenceById(microIds.get(4)));
+            Product deactivated = productRepository.findById(productIds.get(2)).orElseThrow();
+            deactivated.setActive(false);
+            productRepository.deleteById(productIds.get(3));
+            // "Direct 0" was seeded inactive
+            Product direct = productRepository.findById(productIds.get(20)).orElseThrow();
+            direct.setCategory(categoryRepository.getReferenceById(categoryIds.get(2)));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            // Deleting a micro category cascades to its products
+            microCategoryRepository.deleteById(microIds.get(0));
+            subCategoryRepository.save(SubCategory.builder().name("Garden sub").slug("garden-sub")
+                    .category(categoryRepository.getReferenceById(categoryIds.get(2))).build());
+        });
+        store.flush();
+
+        assertTrue(counterRepository.findById(new com.itech.itech_backend.modules.buyer.model.TaxonomyCounter.Key(
+                TaxonomyNodeType.MICRO_CATEGORY, microIds.get(0))).isEmpty());
+        assertEquals(new Counts(1, 0, 1, 1), store.counts(TaxonomyNodeType.CATEGORY, categoryIds.get(2)));
+        assertMatchesRecount();
+
+        // Moving a micro category under another parent is repaired by a recount on the next flush
+        transactionTemplate.executeWithoutResult(status -> {
+            MicroCategory micro = microCategoryRepository.findById(microIds.get(1)).orElseThrow();
+            micro.setSubCategory(subCategoryRepository.getReferenceById(subIds.get(2)));
+        });
+        store.flush();
+        assertMatchesRecount();
+    }
+
+    @Test
+    @DisplayName("Reads include committed changes that are not flushed yet")
+    void pendingDeltasAreVisible() {
+        Counts before = store.counts(TaxonomyNodeType.SUB_CATEGORY, subIds.get(0));
+        transactionTemplate.executeWithoutResult(status -> productRepository.deleteById(productIds.get(0)));
+
+        assertEquals(before.products() - 1, store.counts(TaxonomyNodeType.SUB_CATEGORY, subIds.get(0)).products());
+        assertEquals(before.products(), counterRepository.findByNodeTypeAndNodeIdIn(
+                TaxonomyNodeType.SUB_CATEGORY, List.of(subIds.get(0))).get(0).getProductCount());
+
+        // A rolled back change never reaches the counters
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            productRepository.deleteById(productIds.get(5));
+            throw new IllegalStateException("rollback");
+        }));
+        store.flush();
+        assertEquals(before.products() - 1, store.counts(TaxonomyNodeType.SUB_CATEGORY, subIds.get(0)).products());
+    }
+
+    @Test
+    @DisplayName("A node that finds the recount lease taken flushes its deltas and retries a requested recount")
+    void recountUnderLease() {
+        jdbcTemplate.update("INSERT INTO cluster_locks (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)",
+                "taxonomy-counters-recount", Timestamp.valueOf(LocalDateTime.now().plusMinutes(5)),
+                Timestamp.valueOf(LocalDateTime.now()), "other-node");
+        Counts before = store.counts(TaxonomyNodeType.SUB_CATEGORY, subIds.get(0));
+        transactionTemplate.executeWithoutResult(status -> productRepository.deleteById(productIds.get(0)));
+
+        assertTrue(store.recount().skipped());
+        assertEquals(before.products() - 1, counterRepository.findByNodeTypeAndNodeIdIn(
+                TaxonomyNodeType.SUB_CATEGORY, List.of(subIds.get(0))).get(0).getProductCount());
+
+        // A recount requested by a structure change waits for the lease instead of being dropped
+        transactionTemplate.executeWithoutResult(status -> {
+            MicroCategory micro = microCategoryRepository.findById(microIds.get(1)).orElseThrow();
+            micro.setSubCategory(subCategoryRepository.getReferenceById(subIds.get(2)));
+        });
+        store.flush();
+        Map<String, Counts> stale = snapshot();
+
+        jdbcTemplate.update("UPDATE cluster_locks SET locked_until = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        store.flush();
+        Map<String, Counts> recounted = snapshot();
+        assertNotEquals(stale, recounted);
+        assertFalse(store.recount().skipped());
+        assertEquals(recounted, snapshot());
+    }
+
+    @Test
+    @DisplayName("Category listing and stats read counts without loading products")
+    void listingReadsCounters() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<CategoryDto> page = transactionTemplate.execute(status ->
+                dataEntryService.getAllCategories(null, PageRequest.of(0, 2)));
+        assertEquals(List.of(16, 7), page.getContent().stream().map(CategoryDto::getTotalProductCount).toList());
+        assertEquals(List.of(2, 1), page.getContent().stream().map(CategoryDto::getSubCategoryCount).toList());
+        assertEquals(3, page.getTotalElements());
+        // Page with counters joined, plus the count query
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+
+        statistics.clear();
+        List<CategoryStatsDto> stats = transactionTemplate.execute(status -> dataEntryService.getCategoryStats());
+        CategoryStatsDto tools = stats.get(1);
+        assertEquals(1, tools.getSubCategoryCount());
+        assertEquals(1, tools.getMicroCategoryCount());
+        assertEquals(7, tools.getProductCount());
+        assertEquals(5, tools.getActiveProductCount());
+        // Categories, product total and one counters lookup, however many categories there are
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private void assertMatchesRecount() {
+        Map<String, Counts> incremental = snapshot();
+        store.recount();
+        assertEquals(snapshot(), incremental);
+    }
+
+    private Map<String, Counts> snapshot() {
+        Map<String, Counts> counts = new HashMap<>();
+        List<Long> categories = jdbcTemplate.queryForList("SELECT id FROM buyer_category", Long.class);
+        List<Long> subs = jdbcTemplate.queryForList("SELECT id FROM sub_categories", Long.class);
+        List<Long> micros = jdbcTemplate.queryForList("SELECT id FROM buyer_micro_category", Long.class);
+        store.counts(TaxonomyNodeType.CATEGORY, categories).forEach((id, c) -> counts.put("C" + id, c));
+        store.counts(TaxonomyNodeType.SUB_CATEGORY, subs).forEach((id, c) -> counts.put("S" + id, c));
+        store.counts(TaxonomyNodeType.MICRO_CATEGORY, micros).forEach((id, c) -> counts.put("M" + id, c));
+        return counts;
+    }
+
+    private static Product.ProductBuilder product(Vendors vendor, String name, boolean active) {
+        return Product.builder().name(name).price(10.0).stock(5).vendor(vendor).isActive(active);
+    }
+}
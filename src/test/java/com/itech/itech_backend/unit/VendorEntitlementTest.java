@@ -0,0 +1,294 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.modules.admin.repository.LeadRepository;
+import com.itech.itech_backend.modules.buyer.repository.BuyerProductRepository;
+import com.itech.itech_backend.modules.payment.model.Subscription;
+import com.itech.itech_backend.modules.payment.repository.SubscriptionRepository;
+import com.itech.itech_backend.modules.vendor.service.VendorEntitlementService;
+import com.itech.itech_backend.modules.vendor.service.VendorEntitlementService.Quota;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cached subscription entitlements: plan checks, atomic quota, batched usage flush and
+ * the cost of a warm check (tagged {@code benchmark})
+ */
+@DisplayName("Vendor Entitlement Unit Tests")
+public class VendorEntitlementTest {
+
+    private SubscriptionRepository subscriptionRepository;
+    private BuyerProductRepository productRepository;
+    private LeadRepository leadRepository;
+    private VendorEntitlementService service;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository = mock(SubscriptionRepository.class);
+        productRepository = mock(BuyerProductRepository.class);
+        leadRepository = mock(LeadRepository.class);
+        service = new VendorEntitlementService(subscriptionRepository, productRepository, leadRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1000, 300);
+    }
+
+    private void givenSubscription(long vendorId, long subscriptionId, Integer maxProducts,
+                                   Integer productsUsed, boolean analytics) {
+        Subscription subscription = Subscription.builder()
+                .id(subscriptionId)
+                .maxProducts(maxProducts)
+                .maxLeads(100)
+                .analyticsAccess(analytics)
+                .productsUsed(productsUsed)
+                .leadsUsed(productsUsed == null ? null : 0)
+                .startDate(LocalDateTime.now().minusDays(1))
+                .endDate(LocalDateTime.now().plusDays(30))
+                .build();
+        when(subscriptionRepository.findFirstByVendorIdAndStatusOrderByCreatedAtDesc(vendorId, Subscription.SubscriptionStatus.ACTIVE))
+                .thenReturn(Optional.of(subscription));
+    }
+
+    @Test
+    @DisplayName("Plan flags and limits decide actions; no subscription denies everything")
+    void planChecks() {
+        givenSubscription(1L, 11L, 2, 1, true);
+
+        assertTrue(service.canPerformAction(1L, "ACCESS_ANALYTICS"));
+        assertFalse(service.canPerformAction(1L, "PRIORITY_SUPPORT"));
+        assertTrue(service.canPerformAction(1L, "add_product"));
+        assertTrue(service.tryConsume(1L, Quota.PRODUCTS, 1));
+        assertFalse(service.canPerformAction(1L, "ADD_PRODUCT"), "limit of 2 reached");
+        assertFalse(service.tryConsume(1L, Quota.PRODUCTS, 1));
+
+        service.release(1L, Quota.PRODUCTS, 1);
+        assertTrue(service.canPerformAction(1L, "ADD_PRODUCT"));
+
+        when(subscriptionRepository.findFirstByVendorIdAndStatusOrderByCreatedAtDesc(2L, Subscription.SubscriptionStatus.ACTIVE))
+                .thenReturn(Optional.empty());
+        assertFalse(service.canPerformAction(2L, "ACCESS_ANALYTICS"));
+        assertTrue(service.tryConsume(2L, Quota.PRODUCTS, 5), "vendors without a plan are not metered");
+
+        // Only the first check per vendor reaches the database
+        verify(subscriptionRepository, times(1)).findFirstByVendorIdAndStatusOrderByCreatedAtDesc(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Uncounted subscriptions are counted once, then served from memory")
+    void initialCount() {
+        givenSubscription(1L, 11L, 10, null, false);
+        when(productRepository.countByVendorId(1L)).thenReturn(7L);
+        when(leadRepository.countByVendorIdAndInquiryDateGreaterThanEqual(eq(1L), any())).thenReturn(3L);
+
+        VendorEntitlementService.Usage usage = service.usage(1L);
+        assertEquals(7, usage.productsUsed());
+        assertEquals(3, usage.leadsUsed());
+        assertEquals(10, usage.maxProducts());
+        verify(subscriptionRepository).initialiseUsage(11L, 7, 3);
+    }
+
+    @Test
+    @DisplayName("Purchases invalidate the snapshot so the new plan applies")
+    void invalidation() {
+        givenSubscription(1L, 11L, 1, 1, false);
+        assertFalse(service.canPerformAction(1L, "ADD_PRODUCT"));
+
+        givenSubscription(1L, 12L, 50, 0, true);
+        assertFalse(service.canPerformAction(1L, "ADD_PRODUCT"), "still cached");
+        service.invalidate(1L);
+        assertTrue(service.canPerformAction(1L, "ADD_PRODUCT"));
+        assertTrue(service.canPerformAction(1L, "ACCESS_ANALYTICS"));
+    }
+
+    @Test
+    @DisplayName("Concurrent consumers never exceed the limit and deltas flush in batches")
+    void concurrentQuotaAndFlush() throws Exception {
+        givenSubscription(1L, 11L, 500, 0, false);
+        givenSubscription(2L, 12L, null, 0, false);
+        givenSubscription(3L, 13L, null, 0, false);
+
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        if (service.tryConsume(1L, Quota.PRODUCTS, 1)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(500, granted.get());
+        assertEquals(500, service.usage(1L).productsUsed());
+
+        service.tryConsume(2L, Quota.PRODUCTS, 3);
+        service.tryConsume(3L, Quota.PRODUCTS, 3);
+        service.record(3L, Quota.LEADS, 1);
+        service.record(3L, Quota.LEADS, 1);
+        service.release(3L, Quota.LEADS, 2);
+
+        service.flushUsage();
+        verify(subscriptionRepository).addUsage(500, 0, List.of(11L));
+        verify(subscriptionRepository).addUsage(eq(3), eq(0), argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(12L, 13L))));
+        verify(subscriptionRepository, times(2)).addUsage(anyInt(), anyInt(), any());
+
+        // Nothing pending, nothing written
+        service.flushUsage();
+        verify(subscriptionRepository, times(2)).addUsage(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Failed flushes keep their deltas for the next attempt")
+    void flushRetry() {
+        givenSubscription(1L, 11L, null, 0, false);
+        service.tryConsume(1L, Quota.PRODUCTS, 2);
+        when(subscriptionRepository.addUsage(anyInt(), anyInt(), any()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+
+        service.flushUsage();
+        service.flushUsage();
+        verify(subscriptionRepository, times(2)).addUsage(2, 0, List.of(11L));
+    }
+
+    @Test
+    @DisplayName("Quota taken in a rolled back transaction is handed back; releases wait for the commit")
+    void transactionAwareUsage() {
+        givenSubscription(1L, 11L, 2, 1, false);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> assertTrue(service.tryConsume(1L, Quota.PRODUCTS, 1)));
+        assertEquals(1, service.usage(1L).productsUsed());
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> assertTrue(service.tryConsume(1L, Quota.PRODUCTS, 1)));
+        assertEquals(2, service.usage(1L).productsUsed());
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> service.release(1L, Quota.PRODUCTS, 1));
+        assertEquals(2, service.usage(1L).productsUsed(), "the delete rolled back, so nothing is released");
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            service.release(1L, Quota.PRODUCTS, 1);
+            assertEquals(2, service.usage(1L).productsUsed(), "not released before the commit");
+        });
+        assertEquals(1, service.usage(1L).productsUsed());
+
+        service.flushUsage();
+        verifyNoInteractions(productRepository);
+        verify(subscriptionRepository, never()).addUsage(anyInt(), anyInt(), any()); // +1 -1 cancel out
+    }
+
+    @Test
+    @DisplayName("A recount absorbs the deltas it covers and keeps the ones queued while it ran")
+    void recountKeepsLaterDeltas() {
+        givenSubscription(1L, 11L, null, 0, false);
+        service.tryConsume(1L, Quota.PRODUCTS, 2); // committed before the counters are reset
+
+        givenSubscription(1L, 11L, null, null, false);
+        service.invalidate(1L);
+        when(productRepository.countByVendorId(1L)).thenAnswer(invocation -> {
+            // Another product commits while the count runs, and a flush comes by
+            ReflectionTestUtils.invokeMethod(service, "queueDelta", 11L, Quota.PRODUCTS, 1);
+            service.flushUsage();
+            return 6L;
+        });
+
+        assertEquals(7, service.usage(1L).productsUsed(), "6 counted plus the 1 queued after the count started");
+        verify(subscriptionRepository).initialiseUsage(11L, 6, 0);
+        verify(subscriptionRepository, never()).addUsage(anyInt(), anyInt(), any());
+
+        service.flushUsage();
+        verify(subscriptionRepository).addUsage(1, 0, List.of(11L));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: warm entitlement checks stay under a microsecond")
+    void warmCheckBenchmark() {
+        int vendors = 10_000;
+        service = new VendorEntitlementService(subscriptionRepository, productRepository, leadRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2 * vendors, 300);
+        when(subscriptionRepository.findFirstByVendorIdAndStatusOrderByCreatedAtDesc(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    long vendorId = invocation.getArgument(0);
+                    return Optional.of(Subscription.builder()
+                            .id(vendorId + 100_000)
+                            .maxProducts(1_000_000)
+                            .analyticsAccess(vendorId % 2 == 0)
+                            .productsUsed(0)
+                            .leadsUsed(0)
+                            .endDate(LocalDateTime.now().plusDays(30))
+                            .build());
+                });
+        for (long v = 1; v <= vendors; v++) {
+            service.canPerformAction(v, "ADD_PRODUCT");
+        }
+        reset(subscriptionRepository);
+
+        int iterations = 2_000_000;
+        int allowed = 0;
+        // Warm-up
+        for (int i = 0; i < iterations; i++) {
+            if (service.canPerformAction((long) (i % vendors) + 1, (i & 1) == 0 ? "ADD_PRODUCT" : "ACCESS_ANALYTICS")) {
+                allowed++;
+            }
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (service.canPerformAction((long) (i % vendors) + 1, (i & 1) == 0 ? "ADD_PRODUCT" : "ACCESS_ANALYTICS")) {
+                allowed++;
+            }
+        }
+        double nanosPerCheck = (System.nanoTime() - start) / (double) iterations;
+
+        long consumeStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            service.tryConsume((long) (i % vendors) + 1, Quota.PRODUCTS, 1);
+        }
+        double nanosPerConsume = (System.nanoTime() - consumeStart) / (double) iterations;
+
+        assertTrue(allowed >= iterations, "every product check is allowed");
+        verifyNoInteractions(subscriptionRepository);
+        assertTrue(nanosPerCheck < 1_000, "warm check took " + nanosPerCheck + " ns");
+        assertTrue(nanosPerConsume < 1_000, "warm consume took " + nanosPerConsume + " ns");
+    }
+
+    private static void inTransaction(int outcome, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (outcome == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(outcome));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.itech.itech_backend.unit;
+
+import com.itech.itech_backend.config.PerformanceConfig;
+import com.itech.itech_backend.modules.shared.resilience.Bulkhead;
+import com.itech.itech_backend.modules.shared.resilience.BulkheadDataSource;
+import com.itech.itech_backend.modules.shared.resilience.PinnedThreadMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Virtual-thread execution mode: executor behaviour, the database bulkhead, pinning detection and
+ * a load test against embedded Tomcat with injected upstream latency; the throughput comparison
+ * with the platform pool is tagged {@code benchmark}
+ */
+@DisplayName("Virtual Thread Mode Unit Tests")
+public class VirtualThreadModeTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final long UPSTREAM_LATENCY_MS = 250;
+
+    /**
+     * Connection pool stand-in: at most {@code size} connections, callers block for a free one
+     * like Hikari does, and the peak number of connections in use is recorded
+     */
+    private static final class FakePool {
+        final Semaphore connections;
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final DataSource dataSource;
+
+        FakePool(int size) {
+            connections = new Semaphore(size, true);
+            dataSource = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                    new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                        if (!"getConnection".equals(method.getName())) {
+                            return null;
+                        }
+                        if (!connections.tryAcquire(30, TimeUnit.SECONDS)) {
+                            throw new SQLTransientConnectionException("pool timeout");
+                        }
+                        peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        return connection();
+                    });
+        }
+
+        private Connection connection() {
+            AtomicInteger closed = new AtomicInteger();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.getAndIncrement() == 0) {
+                            inUse.decrementAndGet();
+                            connections.release();
+                        }
+                        return "isClosed".equals(method.getName()) ? closed.get() > 0 : null;
+                    });
+        }
+    }
+
+    /**
+     * A typical request: a short query, then a call to a slow provider (SMTP, S3, OpenAI)
+     */
+    private static final class BlockingEndpoint extends HttpServlet {
+        private final DataSource dataSource;
+        private final Bulkhead upstream;
+
+        BlockingEndpoint(DataSource dataSource, Bulkhead upstream) {
+            this.dataSource = dataSource;
+            this.upstream = upstream;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.isClosed();
+                Thread.sleep(2);
+            } catch (SQLException | InterruptedException e) {
+                response.sendError(503, e.getMessage());
+                return;
+            }
+            upstream.run(() -> sleep(UPSTREAM_LATENCY_MS));
+            response.getWriter().write(Thread.currentThread().isVirtual() ? "virtual" : "platform");
+        }
+    }
+
+    private record LoadResult(double requestsPerSecond, int failures, int virtualResponses) {}
+
+    private static LoadResult load(boolean virtual, DataSource dataSource, int requests, int clientConcurrency)
+            throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtual) {
+            new TomcatVirtualThreadsWebServerFactoryCustomizer().customize(factory);
+        } else {
+            // Current production setting (server.tomcat.threads.max in application-aws.properties)
+            factory.addConnectorCustomizers(connector ->
+                    ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(50));
+        }
+        BlockingEndpoint endpoint = new BlockingEndpoint(dataSource, new Bulkhead("upstream", 400, 5000));
+        TomcatWebServer server = (TomcatWebServer) factory.getWebServer(
+                context -> context.addServlet("load", endpoint).addMapping("/load"));
+        server.start();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            HttpClient client = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/load"))
+                    .timeout(Duration.ofSeconds(60)).build();
+            Semaphore inFlight = new Semaphore(clientConcurrency);
+            AtomicInteger failures = new AtomicInteger();
+            AtomicInteger virtualResponses = new AtomicInteger();
+            List<CompletableFuture<?>> responses = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> {
+                            inFlight.release();
+                            if (error != null || response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            } else if ("virtual".equals(response.body())) {
+                                virtualResponses.incrementAndGet();
+                            }
+                        }));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new LoadResult(requests / seconds, failures.get(), virtualResponses.get());
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Load test: virtual threads serve every request without exceeding the pool")
+    void staysWithinThePoolUnderUpstreamLatency() throws Exception {
+        int requests = 1500;
+
+        FakePool pool = new FakePool(POOL_SIZE);
+        BulkheadDataSource guarded = new BulkheadDataSource(pool.dataSource, new Bulkhead("database", POOL_SIZE, 2000));
+        LoadResult virtual = load(true, guarded, requests, 400);
+
+        assertEquals(0, virtual.failures());
+        assertEquals(requests, virtual.virtualResponses(), "requests must run on virtual threads");
+        assertTrue(pool.peak.get() <= POOL_SIZE);
+        assertEquals(POOL_SIZE, guarded.getBulkhead().getAvailablePermits(), "every permit is returned");
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load test: virtual threads outrun the 50-thread pool under upstream latency")
+    void throughputUnderUpstreamLatency() throws Exception {
+        int requests = 1500;
+        int clientConcurrency = 400;
+
+        FakePool platformPool = new FakePool(POOL_SIZE);
+        load(false, platformPool.dataSource, 200, 50); // warm-up
+        LoadResult platform = load(false, platformPool.dataSource, requests, clientConcurrency);
+
+        FakePool virtualPool = new FakePool(POOL_SIZE);
+        BulkheadDataSource guarded = new BulkheadDataSource(virtualPool.dataSource,
+                new Bulkhead("database", POOL_SIZE, 2000));
+        load(true, guarded, 200, 50); // warm-up
+        LoadResult virtual = load(true, guarded, requests, clientConcurrency);
+
+        assertEquals(0, platform.failures());
+        assertEquals(0, virtual.failures());
+        assertTrue(virtual.requestsPerSecond() > 2 * platform.requestsPerSecond(),
+                "virtual " + virtual.requestsPerSecond() + " req/s vs platform " + platform.requestsPerSecond());
+    }
+
+    @Test
+    @DisplayName("Database bulkhead fails fast when the pool is saturated and releases once per connection")
+    void databaseBulkhead() throws Exception {
+        FakePool pool = new FakePool(2);
+        BulkheadDataSource dataSource = new BulkheadDataSource(pool.dataSource, new Bulkhead("database", 2, 50));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getBulkhead().getRejectedCalls());
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.getBulkhead().getAvailablePermits(), "double close releases once");
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        second.close();
+        assertEquals(0, pool.inUse.get());
+    }
+
+    @Test
+    @DisplayName("Virtual executors run tasks on virtual threads and reject beyond the limit instead of blocking")
+    void virtualExecutorRejectsAtLimit() throws Exception {
+        SimpleAsyncTaskExecutor executor = PerformanceConfig.virtualExecutor("AsyncThread-", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger virtualThreads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            executor.execute(() -> {
+                if (Thread.currentThread().isVirtual()) {
+                    virtualThreads.incrementAndGet();
+                }
+                started.countDown();
+                awaitQuietly(release);
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {}));
+        release.countDown();
+        assertEquals(2, virtualThreads.get());
+    }
+
+    @Test
+    @DisplayName("Pinning guard reports virtual threads blocking inside synchronized sections")
+    void pinningIsReported() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(registry, Duration.ofMillis(10));
+        monitor.start();
+        try {
+            Object lock = new Object();
+            Thread pinned = Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(50);
+                }
+            });
+            pinned.join();
+            long deadline = System.currentTimeMillis() + 15_000;
+            while (monitor.getPinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+        } finally {
+            monitor.stop();
+        }
+        assertTrue(monitor.getPinnedCount() >= 1, "pinned section was not reported");
+        assertTrue(registry.get("virtual.threads.pinned").counter().count() >= 1);
+        assertTrue(registry.get("virtual.threads.pinned").counter().getId().getTag("site")
+                .startsWith(VirtualThreadModeTest.class.getName()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
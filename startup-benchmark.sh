@@ -0,0 +1,115 @@
+#!/bin/bash
+
+# Startup benchmark: standard fat jar vs AOT-processed context + CDS archive
+#
+# Launches each build with the Render container JVM options, measures the time from process
+# start to the first successful HTTP response and the resident set size once settled, and
+# fails when the AOT/CDS build is not faster to first request or uses noticeably more memory.
+#
+#   mvn -Paot-cds package -DskipTests && ./startup-benchmark.sh
+#
+# Both builds run Flyway and the ready-time cache rebuilds, so they need a PostgreSQL database
+# with the schema in place: set BENCHMARK_DATASOURCE_URL/_USERNAME/_PASSWORD, otherwise the
+# profile's own datasource is used.
+
+set -euo pipefail
+shopt -s inherit_errexit
+
+RUNS="${RUNS:-3}"
+PORT="${PORT:-18080}"
+PROFILE="${PROFILE:-render}"
+PROBE_PATH="${PROBE_PATH:-/actuator/health/liveness}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-180}"
+# Accepted RSS growth of the AOT/CDS build over the standard build, in percent
+RSS_TOLERANCE_PCT="${RSS_TOLERANCE_PCT:-10}"
+RESULTS="${RESULTS:-target/startup-benchmark.csv}"
+
+JAVA_OPTS="${JAVA_OPTS:--Xmx280m -Xms100m -XX:+UseSerialGC -XX:MaxDirectMemorySize=32m -XX:MaxMetaspaceSize=128m -XX:CompressedClassSpaceSize=32m -XX:ReservedCodeCacheSize=32m -XX:+UseCompressedOops -XX:+UseCompressedClassPointers -Djava.awt.headless=true -XX:+TieredCompilation -XX:TieredStopAtLevel=1 -Dspring.jmx.enabled=false -Dfile.encoding=UTF-8}"
+
+STANDARD_JAR=$(ls target/*.jar 2>/dev/null | grep -v original | head -1 || true)
+# The CDS archive only maps for the jar path used in the training run (absolute)
+CDS_JAR=$(ls "$PWD"/target/cds/*.jar 2>/dev/null | head -1 || true)
+if [ -z "$STANDARD_JAR" ] || [ -z "$CDS_JAR" ] || [ ! -f target/cds/application.jsa ]; then
+    echo "❌ Build first: mvn -Paot-cds package -DskipTests"
+    exit 1
+fi
+
+DB_OPTS=""
+if [ -n "${BENCHMARK_DATASOURCE_URL:-}" ]; then
+    DB_OPTS="-Dspring.datasource.url=$BENCHMARK_DATASOURCE_URL -Dspring.datasource.username=${BENCHMARK_DATASOURCE_USERNAME:-} -Dspring.datasource.password=${BENCHMARK_DATASOURCE_PASSWORD:-}"
+fi
+COMMON_OPTS="$JAVA_OPTS $DB_OPTS -Dserver.port=$PORT -Dspring.profiles.active=$PROFILE"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Runs one launch and prints "<time-to-first-request ms> <rss kB>"
+measure() {
+    local start pid code elapsed rss
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    java $COMMON_OPTS "$@" >"target/startup-benchmark.log" 2>&1 &
+    pid=$!
+    while true; do
+        code=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT$PROBE_PATH" || true)
+        if [ "$code" = "200" ]; then
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null || [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            kill "$pid" 2>/dev/null || true
+            echo "❌ No response from $PROBE_PATH, see target/startup-benchmark.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    # Let post-ready work (cache warm-up, deferred startup tasks) settle before sampling memory
+    sleep 5
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+median() {
+    sort -n | awk '{v[NR]=$1} END {print (NR % 2) ? v[(NR+1)/2] : int((v[NR/2]+v[NR/2+1])/2)}'
+}
+
+echo "mode,run,time_to_first_request_ms,rss_kb" > "$RESULTS"
+for mode in standard aot-cds; do
+    for run in $(seq 1 "$RUNS"); do
+        if [ "$mode" = "standard" ]; then
+            result=$(measure -jar "$STANDARD_JAR")
+        else
+            result=$(measure -XX:SharedArchiveFile=target/cds/application.jsa -Xlog:cds=off \
+                -Dspring.aot.enabled=true -Dspring.main.lazy-initialization=false -jar "$CDS_JAR")
+        fi
+        echo "$mode,$run,${result% *},${result#* }" >> "$RESULTS"
+        echo "⏱️  $mode run $run: ${result% *} ms to first request, $(( ${result#* } / 1024 )) MB RSS"
+    done
+done
+
+stat() {
+    grep "^$1," "$RESULTS" | cut -d, -f"$2" | median
+}
+STANDARD_TTFR=$(stat standard 3)
+STANDARD_RSS=$(stat standard 4)
+CDS_TTFR=$(stat aot-cds 3)
+CDS_RSS=$(stat aot-cds 4)
+
+echo ""
+echo "Median over $RUNS runs ($PROFILE profile, probe $PROBE_PATH):"
+printf "  %-10s %8s ms to first request  %6s MB RSS\n" standard "$STANDARD_TTFR" $(( STANDARD_RSS / 1024 ))
+printf "  %-10s %8s ms to first request  %6s MB RSS\n" aot-cds "$CDS_TTFR" $(( CDS_RSS / 1024 ))
+echo "  Raw results: $RESULTS"
+
+if [ "$CDS_TTFR" -ge "$STANDARD_TTFR" ]; then
+    echo "❌ AOT/CDS build is not faster to first request"
+    exit 1
+fi
+if [ "$CDS_RSS" -gt $(( STANDARD_RSS * (100 + RSS_TOLERANCE_PCT) / 100 )) ]; then
+    echo "❌ AOT/CDS build RSS exceeds the standard build by more than $RSS_TOLERANCE_PCT%"
+    exit 1
+fi
+echo "✅ AOT/CDS build starts $(( (STANDARD_TTFR - CDS_TTFR) * 100 / STANDARD_TTFR ))% faster to first request"